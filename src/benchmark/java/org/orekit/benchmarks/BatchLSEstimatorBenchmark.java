@@ -0,0 +1,122 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.optim.nonlinear.vector.leastsquares.LevenbergMarquardtOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.errors.OrekitException;
+import org.orekit.estimation.Context;
+import org.orekit.estimation.EstimationTestUtils;
+import org.orekit.estimation.leastsquares.BatchLSEstimator;
+import org.orekit.estimation.measurements.ObservedMeasurement;
+import org.orekit.estimation.measurements.RangeMeasurementCreator;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.conversion.NumericalPropagatorBuilder;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.utils.ParameterDriversList.DelegatingDriver;
+
+/** Benchmark for {@link BatchLSEstimator} orbit determination.
+ * <p>
+ * Each operation is a complete orbit determination using range
+ * measurements from two ground stations.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchLSEstimatorBenchmark {
+
+    /** Propagator builder. */
+    private NumericalPropagatorBuilder propagatorBuilder;
+
+    /** Initial guess for orbital parameters. */
+    private double[] initialGuess;
+
+    /** Estimator under test. */
+    private BatchLSEstimator estimator;
+
+    /** Set up the estimator.
+     * @exception OrekitException if context cannot be built
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+
+        final Context context = EstimationTestUtils.eccentricContext("regular-data:potential:tides");
+
+        // create perfect range measurements
+        final Propagator propagator =
+                        EstimationTestUtils.createPropagator(context.initialOrbit,
+                                                             context.createBuilder(OrbitType.KEPLERIAN,
+                                                                                   PositionAngle.TRUE,
+                                                                                   true,
+                                                                                   1.0e-6, 60.0, 1.0));
+        final List<ObservedMeasurement<?>> measurements =
+                        EstimationTestUtils.createMeasurements(propagator,
+                                                               new RangeMeasurementCreator(context),
+                                                               1.0, 3.0, 300.0);
+
+        // estimation starts from the reference orbit, so the benchmark measures
+        // the cost of the iterations needed to assess convergence
+        propagatorBuilder = context.createBuilder(OrbitType.KEPLERIAN, PositionAngle.TRUE, true,
+                                                  1.0e-6, 60.0, 1.0);
+        final List<DelegatingDriver> drivers = propagatorBuilder.getOrbitalParametersDrivers().getDrivers();
+        initialGuess = new double[drivers.size()];
+        for (int i = 0; i < initialGuess.length; ++i) {
+            initialGuess[i] = drivers.get(i).getValue();
+        }
+
+        estimator = new BatchLSEstimator(new LevenbergMarquardtOptimizer(), propagatorBuilder);
+        for (final ObservedMeasurement<?> measurement : measurements) {
+            estimator.addMeasurement(measurement);
+        }
+        estimator.setParametersConvergenceThreshold(1.0e-2);
+        estimator.setMaxIterations(10);
+        estimator.setMaxEvaluations(20);
+
+    }
+
+    /** Perform one complete orbit determination.
+     * @return estimated propagators
+     * @exception OrekitException if orbit cannot be determined
+     */
+    @Benchmark
+    public NumericalPropagator[] estimate() throws OrekitException {
+        final List<DelegatingDriver> drivers = propagatorBuilder.getOrbitalParametersDrivers().getDrivers();
+        for (int i = 0; i < initialGuess.length; ++i) {
+            drivers.get(i).setValue(initialGuess[i]);
+        }
+        return estimator.estimate();
+    }
+
+}
@@ -0,0 +1,121 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.gravity.potential.GRGSFormatReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.UnnormalizedSphericalHarmonicsProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.semianalytical.dsst.DSSTPropagator;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTTesseral;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTThirdBody;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTZonal;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for {@link DSSTPropagator} mean elements integration steps.
+ * <p>
+ * The propagator is used in mean elements only mode with a fixed
+ * step integrator, so the reported throughput is expressed in
+ * mean elements integration steps per second.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DSSTPropagatorBenchmark {
+
+    /** Integration step. */
+    private static final double STEP = 86400.0;
+
+    /** Number of steps per invocation. */
+    private static final int STEPS = 30;
+
+    /** Propagator under test. */
+    private DSSTPropagator propagator;
+
+    /** Initial state. */
+    private SpacecraftState initialState;
+
+    /** Target date. */
+    private AbsoluteDate target;
+
+    /** Set up the propagator.
+     * @exception OrekitException if propagator cannot be built
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        final UnnormalizedSphericalHarmonicsProvider provider =
+                        GravityFieldFactory.getUnnormalizedProvider(8, 8);
+        final AbsoluteDate t0 = new AbsoluteDate(2004, 1, 1, 0, 0, 0.0, TimeScalesFactory.getUTC());
+        initialState = new SpacecraftState(new KeplerianOrbit(26559890., 0.0041632, FastMath.toRadians(55.2),
+                                                              FastMath.toRadians(315.4985),
+                                                              FastMath.toRadians(130.7562),
+                                                              FastMath.toRadians(44.2377),
+                                                              PositionAngle.MEAN,
+                                                              FramesFactory.getEME2000(), t0,
+                                                              provider.getMu()));
+        target       = t0.shiftedBy(STEPS * STEP);
+        propagator   = new DSSTPropagator(new ClassicalRungeKuttaIntegrator(STEP), true);
+        propagator.addForceModel(new DSSTZonal(provider, 8, 7, 17));
+        propagator.addForceModel(new DSSTTesseral(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                  Constants.WGS84_EARTH_ANGULAR_VELOCITY, provider,
+                                                  8, 8, 4, 12, 8, 8, 4));
+        propagator.addForceModel(new DSSTThirdBody(CelestialBodyFactory.getSun()));
+        propagator.addForceModel(new DSSTThirdBody(CelestialBodyFactory.getMoon()));
+    }
+
+    /** Propagate over a fixed number of steps.
+     * @return final state
+     * @exception OrekitException if propagation fails
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public SpacecraftState propagate() throws OrekitException {
+        propagator.setInitialState(initialState, false);
+        return propagator.propagate(target);
+    }
+
+}
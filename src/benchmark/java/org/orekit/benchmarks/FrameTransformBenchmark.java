@@ -0,0 +1,116 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for {@link Frame#getTransformTo(Frame, AbsoluteDate)}.
+ * <p>
+ * Transforms are computed at dates spread over one day, so the
+ * benchmark includes the cost of the EOP and nutation caches lookups.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameTransformBenchmark {
+
+    /** Number of dates evaluated per invocation. */
+    private static final int SAMPLES = 1000;
+
+    /** Frames pair selection. */
+    @Param({ "GCRF-ITRF", "TEME-ITRF", "GCRF-TEME" })
+    private String pair;
+
+    /** Source frame. */
+    private Frame source;
+
+    /** Destination frame. */
+    private Frame destination;
+
+    /** Evaluation dates. */
+    private AbsoluteDate[] dates;
+
+    /** Set up the frames.
+     * @exception OrekitException if frames cannot be built
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final String[] names = pair.split("-");
+        source      = getFrame(names[0]);
+        destination = getFrame(names[1]);
+        final AbsoluteDate t0 = new AbsoluteDate(2003, 4, 7, 10, 55, 21.575, TimeScalesFactory.getUTC());
+        dates = new AbsoluteDate[SAMPLES];
+        for (int i = 0; i < SAMPLES; ++i) {
+            dates[i] = t0.shiftedBy(86.4 * i);
+        }
+    }
+
+    /** Get a frame from its name.
+     * @param name frame name
+     * @return frame
+     * @exception OrekitException if frame cannot be built
+     */
+    private Frame getFrame(final String name) throws OrekitException {
+        switch (name) {
+            case "GCRF" :
+                return FramesFactory.getGCRF();
+            case "TEME" :
+                return FramesFactory.getTEME();
+            default :
+                return FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        }
+    }
+
+    /** Compute transforms between the two frames.
+     * @param blackhole sink for results
+     * @exception OrekitException if transforms cannot be computed
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void getTransformTo(final Blackhole blackhole) throws OrekitException {
+        for (final AbsoluteDate date : dates) {
+            blackhole.consume(source.getTransformTo(destination, date));
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
+import org.orekit.forces.gravity.potential.GRGSFormatReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for {@link HolmesFeatherstoneAttractionModel#gradient(AbsoluteDate, Vector3D, double)}
+ * and its batch counterpart {@link HolmesFeatherstoneAttractionModel#gradient(AbsoluteDate, Vector3D[],
+ * double, double[][], double[], double[][][])}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolmesFeatherstoneBenchmark {
+
+    /** Number of positions evaluated per invocation. */
+    private static final int SAMPLES = 100;
+
+    /** Degree and order of the gravity field. */
+    @Param({ "8", "20", "60" })
+    private int degree;
+
+    /** Model under test. */
+    private HolmesFeatherstoneAttractionModel model;
+
+    /** Central attraction coefficient. */
+    private double mu;
+
+    /** Evaluation date. */
+    private AbsoluteDate date;
+
+    /** Evaluation positions, in body frame. */
+    private Vector3D[] positions;
+
+    /** Batch gradients output. */
+    private double[][] gradients;
+
+    /** Set up the gravity field.
+     * @exception OrekitException if gravity field cannot be loaded
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        final NormalizedSphericalHarmonicsProvider provider =
+                        GravityFieldFactory.getNormalizedProvider(degree, degree);
+        model = new HolmesFeatherstoneAttractionModel(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                      provider);
+        mu    = provider.getMu();
+        date  = AbsoluteDate.J2000_EPOCH;
+        positions = new Vector3D[SAMPLES];
+        for (int i = 0; i < SAMPLES; ++i) {
+            final double alpha = 2 * FastMath.PI * i / SAMPLES;
+            final double delta = 1.4 * FastMath.sin(7 * alpha);
+            positions[i] = new Vector3D(alpha, delta).scalarMultiply(7.0e6);
+        }
+        gradients = new double[SAMPLES][3];
+    }
+
+    /** Compute gravity gradient at several positions.
+     * @param blackhole sink for results
+     * @exception OrekitException if gradient cannot be computed
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void gradient(final Blackhole blackhole) throws OrekitException {
+        for (final Vector3D position : positions) {
+            blackhole.consume(model.gradient(date, position, mu));
+        }
+    }
+
+    /** Compute gravity gradient at several positions using the batch API.
+     * @param blackhole sink for results
+     * @exception OrekitException if gradient cannot be computed
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void batchGradient(final Blackhole blackhole) throws OrekitException {
+        model.gradient(date, positions, mu, gradients, null, null);
+        blackhole.consume(gradients);
+    }
+
+}
@@ -0,0 +1,155 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.drag.DragForce;
+import org.orekit.forces.drag.IsotropicDrag;
+import org.orekit.forces.drag.atmosphere.NRLMSISE00;
+import org.orekit.forces.drag.atmosphere.NRLMSISE00InputParameters;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for {@link NumericalPropagator} integration steps dominated by
+ * {@link DragForce} with the {@link NRLMSISE00} atmosphere model.
+ * <p>
+ * A fixed step Runge-Kutta integrator is used so that each invocation
+ * performs the same number of steps, and the reported throughput is
+ * expressed in integration steps per second. Running it with the JMH
+ * {@code -prof gc} option displays the allocation rate per step.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NRLMSISE00DragBenchmark {
+
+    /** Integration step. */
+    private static final double STEP = 30.0;
+
+    /** Number of steps per invocation. */
+    private static final int STEPS = 180;
+
+    /** Propagator under test. */
+    private NumericalPropagator propagator;
+
+    /** Initial state. */
+    private SpacecraftState initialState;
+
+    /** Target date. */
+    private AbsoluteDate target;
+
+    /** Set up the propagator.
+     * @exception OrekitException if propagator cannot be built
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final AbsoluteDate t0 = new AbsoluteDate(2004, 1, 1, 0, 0, 0.0, TimeScalesFactory.getUTC());
+        final OneAxisEllipsoid earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                            Constants.WGS84_EARTH_FLATTENING,
+                                                            FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        final NRLMSISE00 atmosphere = new NRLMSISE00(new ConstantInputs(), CelestialBodyFactory.getSun(), earth);
+        initialState = new SpacecraftState(new KeplerianOrbit(6.7e6, 0.001, FastMath.toRadians(51.6),
+                                                              0.0, 0.0, 0.0, PositionAngle.MEAN,
+                                                              FramesFactory.getEME2000(), t0,
+                                                              Constants.EIGEN5C_EARTH_MU));
+        target       = t0.shiftedBy(STEPS * STEP);
+        propagator   = new NumericalPropagator(new ClassicalRungeKuttaIntegrator(STEP));
+        propagator.addForceModel(new DragForce(atmosphere, new IsotropicDrag(10.0, 2.2)));
+    }
+
+    /** Propagate over a fixed number of steps.
+     * @return final state
+     * @exception OrekitException if propagation fails
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public SpacecraftState propagate() throws OrekitException {
+        propagator.setInitialState(initialState);
+        return propagator.propagate(target);
+    }
+
+    /** Constant space weather inputs. */
+    private static class ConstantInputs implements NRLMSISE00InputParameters {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20181017L;
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getMinDate() {
+            return AbsoluteDate.PAST_INFINITY;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getMaxDate() {
+            return AbsoluteDate.FUTURE_INFINITY;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getDailyFlux(final AbsoluteDate date) {
+            return 150.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getAverageFlux(final AbsoluteDate date) {
+            return 150.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getAp(final AbsoluteDate date) {
+            return new double[] {
+                4.0, 100.0, 100.0, 100.0, 100.0, 100.0, 100.0
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
+import org.orekit.forces.gravity.ThirdBodyAttraction;
+import org.orekit.forces.gravity.potential.GRGSFormatReader;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for {@link NumericalPropagator} integration steps.
+ * <p>
+ * A fixed step Runge-Kutta integrator is used so that each invocation
+ * performs the same number of steps, and the reported throughput is
+ * expressed in integration steps per second.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumericalPropagatorBenchmark {
+
+    /** Integration step. */
+    private static final double STEP = 60.0;
+
+    /** Number of steps per invocation. */
+    private static final int STEPS = 90;
+
+    /** Degree and order of the gravity field. */
+    @Param({ "8", "20" })
+    private int degree;
+
+    /** Propagator under test. */
+    private NumericalPropagator propagator;
+
+    /** Initial state. */
+    private SpacecraftState initialState;
+
+    /** Target date. */
+    private AbsoluteDate target;
+
+    /** Set up the propagator.
+     * @exception OrekitException if propagator cannot be built
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        final NormalizedSphericalHarmonicsProvider provider =
+                        GravityFieldFactory.getNormalizedProvider(degree, degree);
+        final AbsoluteDate t0 = new AbsoluteDate(2004, 1, 1, 0, 0, 0.0, TimeScalesFactory.getUTC());
+        initialState = new SpacecraftState(new KeplerianOrbit(7.0e6, 0.001, FastMath.toRadians(98.0),
+                                                              0.0, 0.0, 0.0, PositionAngle.MEAN,
+                                                              FramesFactory.getEME2000(), t0,
+                                                              provider.getMu()));
+        target       = t0.shiftedBy(STEPS * STEP);
+        propagator   = new NumericalPropagator(new ClassicalRungeKuttaIntegrator(STEP));
+        propagator.addForceModel(new HolmesFeatherstoneAttractionModel(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                                       provider));
+        propagator.addForceModel(new ThirdBodyAttraction(CelestialBodyFactory.getSun()));
+        propagator.addForceModel(new ThirdBodyAttraction(CelestialBodyFactory.getMoon()));
+    }
+
+    /** Propagate over a fixed number of steps.
+     * @return final state
+     * @exception OrekitException if propagation fails
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public SpacecraftState propagate() throws OrekitException {
+        propagator.setInitialState(initialState);
+        return propagator.propagate(target);
+    }
+
+}
@@ -0,0 +1,140 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orekit.data.BodiesElements;
+import org.orekit.data.FundamentalNutationArguments;
+import org.orekit.data.PoissonSeries;
+import org.orekit.data.PoissonSeriesParser;
+import org.orekit.data.PolynomialParser;
+import org.orekit.errors.OrekitException;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for the evaluation of the IERS 2010 X, Y and s+XY/2 Poisson series.
+ * <p>
+ * The {@code legacy} engine is {@link PoissonSeries#compile(PoissonSeries...)},
+ * the other parameter values are truncation thresholds in µas for the packed engine
+ * {@link PoissonSeries#compile(double, PoissonSeries...)}. The maximum error with
+ * respect to the legacy engine over 1980-2020 is printed during setup, so the
+ * precision/latency trade-off can be read from the benchmark output.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoissonSeriesBenchmark {
+
+    /** Number of dates evaluated per invocation. */
+    private static final int SAMPLES = 100;
+
+    /** Directory containing the IERS tables. */
+    private static final String DIRECTORY = "/assets/org/orekit/IERS-conventions/2010/";
+
+    /** Evaluation engine. */
+    @Param({ "legacy", "0", "0.3", "1", "10" })
+    private String engine;
+
+    /** Series evaluator. */
+    private PoissonSeries.CompiledSeries series;
+
+    /** Bodies elements at evaluation dates. */
+    private BodiesElements[] elements;
+
+    /** Set up the series.
+     * @exception OrekitException if series cannot be loaded
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+
+        final double microAS = Constants.ARC_SECONDS_TO_RADIANS * 1.0e-6;
+        final PoissonSeriesParser parser =
+                new PoissonSeriesParser(17).
+                    withPolynomialPart('t', PolynomialParser.Unit.MICRO_ARC_SECONDS).
+                    withFirstDelaunay(4).
+                    withFirstPlanetary(9).
+                    withSinCos(0, 2, microAS, 3, microAS);
+        final PoissonSeries x = parse(parser, "tab5.2a.txt");
+        final PoissonSeries y = parse(parser, "tab5.2b.txt");
+        final PoissonSeries s = parse(parser, "tab5.2d.txt");
+        final PoissonSeries.CompiledSeries legacy = PoissonSeries.compile(x, y, s);
+        series = "legacy".equals(engine) ?
+                 legacy : PoissonSeries.compile(Double.parseDouble(engine) * microAS, x, y, s);
+
+        final FundamentalNutationArguments arguments = IERSConventions.IERS_2010.getNutationArguments(null);
+        elements = new BodiesElements[SAMPLES];
+        for (int i = 0; i < SAMPLES; ++i) {
+            elements[i] = arguments.evaluateAll(AbsoluteDate.J2000_EPOCH.shiftedBy(i * 3600.0));
+        }
+
+        // document the accuracy of the selected engine
+        double maxError = 0;
+        for (double dt = -20 * Constants.JULIAN_YEAR; dt < 20 * Constants.JULIAN_YEAR; dt += 7.3 * Constants.JULIAN_DAY) {
+            final BodiesElements e = arguments.evaluateAll(AbsoluteDate.J2000_EPOCH.shiftedBy(dt));
+            final double[] reference = legacy.value(e);
+            final double[] value     = series.value(e);
+            for (int i = 0; i < value.length; ++i) {
+                maxError = FastMath.max(maxError, FastMath.abs(value[i] - reference[i]));
+            }
+        }
+        System.out.format("%n%s engine: maximum error %.3e micro-arcseconds%n", engine, maxError / microAS);
+
+    }
+
+    /** Parse one IERS table.
+     * @param parser parser to use
+     * @param name table name
+     * @return parsed series
+     * @exception OrekitException if table cannot be parsed
+     */
+    private PoissonSeries parse(final PoissonSeriesParser parser, final String name)
+        throws OrekitException {
+        return parser.parse(PoissonSeriesBenchmark.class.getResourceAsStream(DIRECTORY + name), name);
+    }
+
+    /** Evaluate the series.
+     * @param blackhole sink for results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void value(final Blackhole blackhole) {
+        for (final BodiesElements e : elements) {
+            blackhole.consume(series.value(e));
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEBatchPropagator;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+/** Benchmark comparing {@link TLEBatchPropagator} with one {@link TLEPropagator} per element set.
+ * <p>
+ * Each operation propagates a catalog of near Earth element sets
+ * over one day with a ten minutes step.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TLEBatchPropagatorBenchmark {
+
+    /** Number of element sets in the catalog. */
+    private static final int CATALOG_SIZE = 5000;
+
+    /** Number of dates. */
+    private static final int SAMPLES = 144;
+
+    /** Number of threads for parallel propagation (0 for serial propagation). */
+    @Param({ "0", "4" })
+    private int threads;
+
+    /** Scalar propagators. */
+    private List<TLEPropagator> scalar;
+
+    /** Batch propagator. */
+    private TLEBatchPropagator batch;
+
+    /** Pool for parallel propagation. */
+    private ForkJoinPool pool;
+
+    /** Propagation dates. */
+    private AbsoluteDate[] dates;
+
+    /** Positions. */
+    private double[][] positions;
+
+    /** Velocities. */
+    private double[][] velocities;
+
+    /** Set up the propagators.
+     * @exception OrekitException if TLE cannot be built
+     * @exception IOException if TLE cannot be read
+     */
+    @Setup
+    public void setUp() throws OrekitException, IOException {
+        Utils.setDataRoot("regular-data");
+
+        // build a catalog by replicating the near Earth test cases
+        final List<TLE> reference = new ArrayList<>();
+        try (BufferedReader reader =
+                        new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/tle/extrapolationTest-data/SatCode-entry"),
+                                                                 "UTF-8"))) {
+            String pending = null;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("1 ")) {
+                    pending = line;
+                } else if (line.startsWith("2 ") && pending != null) {
+                    final TLE tle = new TLE(pending, line);
+                    if (tle.getMeanMotion() * 86400.0 / (2 * Math.PI) > 6.4 && tle.getE() < 0.1) {
+                        reference.add(tle);
+                    }
+                    pending = null;
+                }
+            }
+        }
+        final List<TLE> catalog = new ArrayList<>(CATALOG_SIZE);
+        scalar = new ArrayList<>(CATALOG_SIZE);
+        for (int k = 0; k < CATALOG_SIZE; ++k) {
+            final TLE tle = reference.get(k % reference.size());
+            catalog.add(tle);
+            scalar.add(TLEPropagator.selectExtrapolator(tle));
+        }
+        batch = new TLEBatchPropagator(catalog);
+        pool  = threads > 0 ? new ForkJoinPool(threads) : null;
+
+        dates = new AbsoluteDate[SAMPLES];
+        for (int j = 0; j < SAMPLES; ++j) {
+            dates[j] = catalog.get(0).getDate().shiftedBy(600.0 * j);
+        }
+        positions  = new double[CATALOG_SIZE][3 * SAMPLES];
+        velocities = new double[CATALOG_SIZE][3 * SAMPLES];
+
+    }
+
+    /** Shut down the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /** Propagate the catalog with one propagator per element set.
+     * @param blackhole sink for results
+     * @exception OrekitException if propagation fails
+     */
+    @Benchmark
+    public void scalar(final Blackhole blackhole) throws OrekitException {
+        for (final TLEPropagator propagator : scalar) {
+            for (final AbsoluteDate date : dates) {
+                blackhole.consume(propagator.getPVCoordinates(date));
+            }
+        }
+    }
+
+    /** Propagate the catalog with the batch propagator.
+     * @return positions
+     * @exception OrekitException if propagation fails
+     */
+    @Benchmark
+    public double[][] batch() throws OrekitException {
+        if (pool == null) {
+            batch.propagate(dates, positions, velocities);
+        } else {
+            batch.propagate(dates, positions, velocities, pool);
+        }
+        return positions;
+    }
+
+}
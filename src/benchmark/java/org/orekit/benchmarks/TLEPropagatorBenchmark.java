@@ -0,0 +1,100 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+/** Benchmark for {@link TLEPropagator#getPVCoordinates(AbsoluteDate)}.
+ * <p>
+ * Both the near-Earth (SGP4) and deep-space (SDP4) models are measured,
+ * each operation being one position-velocity evaluation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TLEPropagatorBenchmark {
+
+    /** Number of dates evaluated per invocation. */
+    private static final int SAMPLES = 1440;
+
+    /** Model selection. */
+    @Param({ "SGP4", "SDP4" })
+    private String model;
+
+    /** Propagator under test. */
+    private TLEPropagator propagator;
+
+    /** Evaluation dates. */
+    private AbsoluteDate[] dates;
+
+    /** Set up the propagator.
+     * @exception OrekitException if TLE cannot be built
+     */
+    @Setup
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final TLE tle;
+        if ("SGP4".equals(model)) {
+            tle = new TLE("1 27421U 02021A   02124.48976499 -.00021470  00000-0 -89879-2 0    20",
+                          "2 27421  98.7490 199.5121 0001333 133.9522 226.1918 14.26113993    62");
+        } else {
+            tle = new TLE("1 37753U 11036A   12090.13205652 -.00000006  00000-0  00000+0 0  2272",
+                          "2 37753  55.0032 176.5796 0004733  13.2285 346.8266  2.00565440  5153");
+        }
+        propagator = TLEPropagator.selectExtrapolator(tle);
+        dates      = new AbsoluteDate[SAMPLES];
+        for (int i = 0; i < SAMPLES; ++i) {
+            dates[i] = tle.getDate().shiftedBy(60.0 * i);
+        }
+    }
+
+    /** Evaluate position-velocity over one day with a one minute step.
+     * @param blackhole sink for results
+     * @exception OrekitException if propagation fails
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void getPVCoordinates(final Blackhole blackhole) throws OrekitException {
+        for (final AbsoluteDate date : dates) {
+            blackhole.consume(propagator.getPVCoordinates(date));
+        }
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package org.orekit.bodies;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -244,6 +245,50 @@ public class CelestialBodyFactory {
 
     }
 
+    /** Add memory-mapped loaders for all predefined celestial bodies.
+     * <p>
+     * The loaders map the given JPL ephemerides binary files in memory and
+     * evaluate Chebyshev polynomials directly from the mapped buffers, see
+     * {@link MappedJPLEphemeridesLoader}.
+     * </p>
+     * @param files JPL ephemerides binary files (uncompressed)
+     * @see MappedJPLEphemeridesLoader
+     * @see #addCelestialBodyLoader(String, CelestialBodyLoader)
+     * @see #clearCelestialBodyLoaders()
+     * @exception OrekitException if the files cannot be mapped or are not
+     * JPL ephemerides binary files
+     * @since 9.3
+     */
+    public static void addMappedCelestialBodyLoader(final File... files)
+        throws OrekitException {
+        addCelestialBodyLoader(SOLAR_SYSTEM_BARYCENTER,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.SOLAR_SYSTEM_BARYCENTER, files));
+        addCelestialBodyLoader(SUN,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.SUN, files));
+        addCelestialBodyLoader(MERCURY,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.MERCURY, files));
+        addCelestialBodyLoader(VENUS,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.VENUS, files));
+        addCelestialBodyLoader(EARTH_MOON,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.EARTH_MOON, files));
+        addCelestialBodyLoader(EARTH,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.EARTH, files));
+        addCelestialBodyLoader(MOON,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.MOON, files));
+        addCelestialBodyLoader(MARS,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.MARS, files));
+        addCelestialBodyLoader(JUPITER,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.JUPITER, files));
+        addCelestialBodyLoader(SATURN,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.SATURN, files));
+        addCelestialBodyLoader(URANUS,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.URANUS, files));
+        addCelestialBodyLoader(NEPTUNE,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.NEPTUNE, files));
+        addCelestialBodyLoader(PLUTO,
+                               new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.PLUTO, files));
+    }
+
     /** Clear loaders for one celestial body.
      * <p>
      * Calling this method also clears the celestial body that
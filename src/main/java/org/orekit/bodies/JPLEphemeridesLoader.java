@@ -49,7 +49,7 @@ import org.orekit.utils.Constants;
 import org.orekit.utils.FieldPVCoordinates;
 import org.orekit.utils.OrekitConfiguration;
 import org.orekit.utils.PVCoordinates;
-import org.orekit.utils.GenericTimeStampedCache;
+import org.orekit.utils.TimeStampedCache;
 import org.orekit.utils.TimeStampedGenerator;
 
 /** Loader for JPL ephemerides binary files (DE 4xx) and similar formats (INPOP 06/08/10).
@@ -200,7 +200,7 @@ public class JPLEphemeridesLoader implements CelestialBodyLoader {
     private final String supportedNames;
 
     /** Ephemeris for selected body. */
-    private final GenericTimeStampedCache<PosVelChebyshev> ephemerides;
+    private final TimeStampedCache<PosVelChebyshev> ephemerides;
 
     /** Constants defined in the file. */
     private final AtomicReference<Map<String, Double>> constants;
@@ -264,9 +264,9 @@ public class JPLEphemeridesLoader implements CelestialBodyLoader {
             loadType = generateType;
         }
 
-        ephemerides = new GenericTimeStampedCache<PosVelChebyshev>(2, OrekitConfiguration.getCacheSlotsNumber(),
-                                                                   Double.POSITIVE_INFINITY, FIFTY_DAYS,
-                                                                   new EphemerisParser());
+        ephemerides = OrekitConfiguration.createTimeStampedCache(2, OrekitConfiguration.getCacheSlotsNumber(),
+                                                                 Double.POSITIVE_INFINITY, FIFTY_DAYS,
+                                                                 new EphemerisParser());
         maxChunksDuration = Double.NaN;
         chunksDuration    = Double.NaN;
 
@@ -350,62 +350,87 @@ public class JPLEphemeridesLoader implements CelestialBodyLoader {
      */
     public double getLoadedGravitationalCoefficient(final EphemerisType body)
         throws OrekitException {
+        return computeGravitationalCoefficient(body, this::getLoadedConstant);
+    }
+
+    /** Interface for retrieving constants from ephemerides headers. */
+    @FunctionalInterface
+    interface ConstantsProvider {
+
+        /** Get a constant defined in the ephemerides headers.
+         * @param names alternate names of the constant
+         * @return value of the constant of NaN if the constant is not defined
+         * @exception OrekitException if constants cannot be loaded
+         */
+        double getConstant(String... names) throws OrekitException;
+
+    }
+
+    /** Compute the gravitational coefficient of a body from ephemerides headers constants.
+     * @param body body for which the gravitational coefficient is requested
+     * @param constants provider for the headers constants
+     * @return gravitational coefficient in m³/s²
+     * @exception OrekitException if constants cannot be loaded
+     * @since 9.3
+     */
+    static double computeGravitationalCoefficient(final EphemerisType body, final ConstantsProvider constants)
+        throws OrekitException {
 
         // coefficient in au³/day²
         final double rawGM;
         switch (body) {
             case SOLAR_SYSTEM_BARYCENTER :
-                return getLoadedGravitationalCoefficient(EphemerisType.SUN)        +
-                        getLoadedGravitationalCoefficient(EphemerisType.MERCURY)    +
-                        getLoadedGravitationalCoefficient(EphemerisType.VENUS)      +
-                        getLoadedGravitationalCoefficient(EphemerisType.EARTH_MOON) +
-                        getLoadedGravitationalCoefficient(EphemerisType.MARS)       +
-                        getLoadedGravitationalCoefficient(EphemerisType.JUPITER)    +
-                        getLoadedGravitationalCoefficient(EphemerisType.SATURN)     +
-                        getLoadedGravitationalCoefficient(EphemerisType.URANUS)     +
-                        getLoadedGravitationalCoefficient(EphemerisType.NEPTUNE)    +
-                        getLoadedGravitationalCoefficient(EphemerisType.PLUTO);
+                return computeGravitationalCoefficient(EphemerisType.SUN,        constants) +
+                       computeGravitationalCoefficient(EphemerisType.MERCURY,    constants) +
+                       computeGravitationalCoefficient(EphemerisType.VENUS,      constants) +
+                       computeGravitationalCoefficient(EphemerisType.EARTH_MOON, constants) +
+                       computeGravitationalCoefficient(EphemerisType.MARS,       constants) +
+                       computeGravitationalCoefficient(EphemerisType.JUPITER,    constants) +
+                       computeGravitationalCoefficient(EphemerisType.SATURN,     constants) +
+                       computeGravitationalCoefficient(EphemerisType.URANUS,     constants) +
+                       computeGravitationalCoefficient(EphemerisType.NEPTUNE,    constants) +
+                       computeGravitationalCoefficient(EphemerisType.PLUTO,      constants);
             case SUN :
-                rawGM = getLoadedConstant("GMS", "GM_Sun");
+                rawGM = constants.getConstant("GMS", "GM_Sun");
                 break;
             case MERCURY :
-                rawGM = getLoadedConstant("GM1", "GM_Mer");
+                rawGM = constants.getConstant("GM1", "GM_Mer");
                 break;
             case VENUS :
-                rawGM = getLoadedConstant("GM2", "GM_Ven");
+                rawGM = constants.getConstant("GM2", "GM_Ven");
                 break;
             case EARTH_MOON :
-                rawGM = getLoadedConstant("GMB", "GM_EMB");
+                rawGM = constants.getConstant("GMB", "GM_EMB");
                 break;
             case EARTH :
-                return getLoadedEarthMoonMassRatio() *
-                        getLoadedGravitationalCoefficient(EphemerisType.MOON);
+                return constants.getConstant(CONSTANT_EMRAT) *
+                       computeGravitationalCoefficient(EphemerisType.MOON, constants);
             case MOON :
-                return getLoadedGravitationalCoefficient(EphemerisType.EARTH_MOON) /
-                        (1.0 + getLoadedEarthMoonMassRatio());
+                return computeGravitationalCoefficient(EphemerisType.EARTH_MOON, constants) /
+                       (1.0 + constants.getConstant(CONSTANT_EMRAT));
             case MARS :
-                rawGM = getLoadedConstant("GM4", "GM_Mar");
+                rawGM = constants.getConstant("GM4", "GM_Mar");
                 break;
             case JUPITER :
-                rawGM = getLoadedConstant("GM5", "GM_Jup");
+                rawGM = constants.getConstant("GM5", "GM_Jup");
                 break;
             case SATURN :
-                rawGM = getLoadedConstant("GM6", "GM_Sat");
+                rawGM = constants.getConstant("GM6", "GM_Sat");
                 break;
             case URANUS :
-                rawGM = getLoadedConstant("GM7", "GM_Ura");
+                rawGM = constants.getConstant("GM7", "GM_Ura");
                 break;
             case NEPTUNE :
-                rawGM = getLoadedConstant("GM8", "GM_Nep");
+                rawGM = constants.getConstant("GM8", "GM_Nep");
                 break;
             case PLUTO :
-                rawGM = getLoadedConstant("GM9", "GM_Plu");
+                rawGM = constants.getConstant("GM9", "GM_Plu");
                 break;
             default :
                 throw new OrekitInternalError(null);
         }
 
-        final double au    = getLoadedAstronomicalUnit();
+        final double au    = 1000.0 * constants.getConstant(CONSTANT_AU);
         return rawGM * au * au * au / (Constants.JULIAN_DAY * Constants.JULIAN_DAY);
 
     }
@@ -0,0 +1,888 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.bodies;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.exception.DummyLocalizable;
+import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.JPLEphemeridesLoader.EphemerisType;
+import org.orekit.bodies.JPLEphemeridesLoader.RawPVProvider;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.FieldAbsoluteDate;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScale;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.FieldPVCoordinates;
+import org.orekit.utils.PVCoordinates;
+
+/** Loader for JPL ephemerides binary files (DE 4xx) and similar formats (INPOP 06/08/10)
+ * based on memory-mapped files.
+ * <p>
+ * This loader supports the same files formats as {@link JPLEphemeridesLoader}, but
+ * instead of parsing the files through the {@link org.orekit.data.DataProvidersManager
+ * data providers manager} into Chebyshev polynomials objects stored in a cache, it
+ * maps the files in memory and evaluates the Chebyshev polynomials directly from the
+ * mapped buffers. There is no intermediate objects and no file re-parsing, the
+ * operating system page cache is the only cache. This is well suited to large
+ * multi-decades files, as the startup time and the heap footprint do not depend
+ * on the span of the ephemerides.
+ * </p>
+ * <p>
+ * As memory mapping requires direct access to the files, they must be
+ * provided explicitly as uncompressed {@link File files}, they are not looked up
+ * in the data providers manager. Several files covering different time ranges
+ * can be provided, they must all share the same astronomical unit and Earth-Moon
+ * mass ratio. The loader can be registered in the {@link CelestialBodyFactory}
+ * either body by body using {@link CelestialBodyFactory#addCelestialBodyLoader(String,
+ * CelestialBodyLoader)} or for all predefined bodies at once using {@link
+ * CelestialBodyFactory#addMappedCelestialBodyLoader(File...)}.
+ * </p>
+ * <p>
+ * Instances of this class are thread-safe.
+ * </p>
+ * @see JPLEphemeridesLoader
+ * @since 9.3
+ */
+public class MappedJPLEphemeridesLoader implements CelestialBodyLoader {
+
+    /** DE number used by INPOP files. */
+    private static final int INPOP_DE_NUMBER = 100;
+
+    /** Name of the astronomical unit constant. */
+    private static final String CONSTANT_AU = "AU";
+
+    /** Name of the Earth-Moon mass ratio constant. */
+    private static final String CONSTANT_EMRAT = "EMRAT";
+
+    /** Maximal number of constants in headers. */
+    private static final int CONSTANTS_MAX_NUMBER = 400;
+
+    /** Offset of the ephemeris type in first header record. */
+    private static final int HEADER_EPHEMERIS_TYPE_OFFSET = 2840;
+
+    /** Offset of the record size (for INPOP files) in first header record. */
+    private static final int HEADER_RECORD_SIZE_OFFSET = 2856;
+
+    /** Offset of the astronomical unit in first header record. */
+    private static final int HEADER_ASTRONOMICAL_UNIT_OFFSET = 2680;
+
+    /** Offset of the Earth-Moon mass ratio in first header record. */
+    private static final int HEADER_EM_RATIO_OFFSET = 2688;
+
+    /** Offset of Chebishev coefficients indices in first header record. */
+    private static final int HEADER_CHEBISHEV_INDICES_OFFSET = 2696;
+
+    /** Offset of libration coefficients indices in first header record. */
+    private static final int HEADER_LIBRATION_INDICES_OFFSET = 2844;
+
+    /** Offset of chunks duration in first header record. */
+    private static final int HEADER_CHUNK_DURATION_OFFSET = 2668;
+
+    /** Offset of the constants names in first header record. */
+    private static final int HEADER_CONSTANTS_NAMES_OFFSET = 252;
+
+    /** Offset of the range start in the data records. */
+    private static final int DATA_START_RANGE_OFFSET = 0;
+
+    /** Offset of the range end in the data records. */
+    private static final int DATA_END_RANGE_OFFSET = 8;
+
+    /** Tolerance for dates at range boundaries (s). */
+    private static final double DATE_TOLERANCE = 0.001;
+
+    /** Files to map. */
+    private final File[] files;
+
+    /** Ephemeris type to generate. */
+    private final EphemerisType generateType;
+
+    /** Mapped files, in chronological order. */
+    private final MappedFile[] mapped;
+
+    /** Constants defined in the first file. */
+    private final Map<String, Double> constants;
+
+    /** Create a loader for memory-mapped JPL ephemerides binary files.
+     * @param generateType ephemeris type to generate
+     * @param files JPL ephemerides binary files (uncompressed)
+     * @exception OrekitException if the files cannot be mapped or are not
+     * JPL ephemerides binary files, or are inconsistent with each other
+     */
+    public MappedJPLEphemeridesLoader(final EphemerisType generateType, final File... files)
+        throws OrekitException {
+
+        if (files.length == 0) {
+            throw new OrekitException(OrekitMessages.NO_JPL_EPHEMERIDES_BINARY_FILES_FOUND);
+        }
+
+        final EphemerisType loadType;
+        if (generateType == EphemerisType.SOLAR_SYSTEM_BARYCENTER) {
+            loadType = EphemerisType.EARTH_MOON;
+        } else if (generateType == EphemerisType.EARTH_MOON) {
+            loadType = EphemerisType.MOON;
+        } else {
+            loadType = generateType;
+        }
+
+        this.files        = files.clone();
+        this.generateType = generateType;
+
+        final List<MappedFile> list = new ArrayList<>(files.length);
+        for (final File file : files) {
+            list.add(new MappedFile(file, loadType));
+        }
+        list.sort((f1, f2) -> f1.dataStart.compareTo(f2.dataStart));
+        this.mapped    = list.toArray(new MappedFile[list.size()]);
+        this.constants = mapped[0].constants;
+
+        // check consistency between files
+        final double au    = getLoadedAstronomicalUnit();
+        final double emRat = getLoadedEarthMoonMassRatio();
+        for (final MappedFile file : mapped) {
+            final double fileAU = 1000.0 * file.constants.get(CONSTANT_AU);
+            if (FastMath.abs(au - fileAU) >= 10.0) {
+                throw new OrekitException(OrekitMessages.INCONSISTENT_ASTRONOMICAL_UNIT_IN_FILES,
+                                          au, fileAU);
+            }
+            final double fileEMRat = file.constants.get(CONSTANT_EMRAT);
+            if (FastMath.abs(emRat - fileEMRat) >= 1.0e-5) {
+                throw new OrekitException(OrekitMessages.INCONSISTENT_EARTH_MOON_RATIO_IN_FILES,
+                                          emRat, fileEMRat);
+            }
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CelestialBody loadCelestialBody(final String name) throws OrekitException {
+
+        final double gm       = getLoadedGravitationalCoefficient(generateType);
+        final IAUPole iauPole = PredefinedIAUPoles.getIAUPole(generateType);
+        final double scale;
+        final Frame definingFrameAlignedWithICRF;
+        final RawPVProvider rawPVProvider;
+        switch (generateType) {
+            case SOLAR_SYSTEM_BARYCENTER : {
+                scale = -1.0;
+                final CelestialBody parentBody =
+                        new MappedJPLEphemeridesLoader(EphemerisType.EARTH_MOON, files).
+                        loadCelestialBody(CelestialBodyFactory.EARTH_MOON);
+                definingFrameAlignedWithICRF = parentBody.getInertiallyOrientedFrame();
+                rawPVProvider = new MappedRawPVProvider();
+                break;
+            }
+            case EARTH_MOON :
+                scale         = 1.0 / (1.0 + getLoadedEarthMoonMassRatio());
+                definingFrameAlignedWithICRF = FramesFactory.getGCRF();
+                rawPVProvider = new MappedRawPVProvider();
+                break;
+            case EARTH :
+                scale         = 1.0;
+                definingFrameAlignedWithICRF = FramesFactory.getGCRF();
+                rawPVProvider = new ZeroRawPVProvider();
+                break;
+            case MOON :
+                scale         = 1.0;
+                definingFrameAlignedWithICRF = FramesFactory.getGCRF();
+                rawPVProvider = new MappedRawPVProvider();
+                break;
+            default : {
+                scale = 1.0;
+                final CelestialBody parentBody =
+                        new MappedJPLEphemeridesLoader(EphemerisType.SOLAR_SYSTEM_BARYCENTER, files).
+                        loadCelestialBody(CelestialBodyFactory.SOLAR_SYSTEM_BARYCENTER);
+                definingFrameAlignedWithICRF = parentBody.getInertiallyOrientedFrame();
+                rawPVProvider = new MappedRawPVProvider();
+            }
+        }
+
+        // build the celestial body
+        // (the supported names allow serialized bodies to be rebuilt from the same files
+        //  if they are available in the data providers manager)
+        return new JPLCelestialBody(name, getSupportedNames(), generateType, rawPVProvider,
+                                    gm, scale, iauPole, definingFrameAlignedWithICRF);
+
+    }
+
+    /** Get astronomical unit.
+     * @return astronomical unit in meters
+     */
+    public double getLoadedAstronomicalUnit() {
+        return 1000.0 * getLoadedConstant(CONSTANT_AU);
+    }
+
+    /** Get Earth/Moon mass ratio.
+     * @return Earth/Moon mass ratio
+     */
+    public double getLoadedEarthMoonMassRatio() {
+        return getLoadedConstant(CONSTANT_EMRAT);
+    }
+
+    /** Get the gravitational coefficient of a body.
+     * @param body body for which the gravitational coefficient is requested
+     * @return gravitational coefficient in m³/s²
+     * @exception OrekitException if constants cannot be loaded
+     */
+    public double getLoadedGravitationalCoefficient(final EphemerisType body)
+        throws OrekitException {
+        return JPLEphemeridesLoader.computeGravitationalCoefficient(body, this::getLoadedConstant);
+    }
+
+    /** Get a constant defined in the ephemerides headers.
+     * <p>
+     * There are alternate names for constants since for example JPL names are
+     * different from INPOP names (Sun gravity: GMS or GM_Sun, Mars gravity:
+     * GM4 or GM_Mar...).
+     * </p>
+     * @param names alternate names of the constant
+     * @return value of the constant of NaN if the constant is not defined
+     */
+    public double getLoadedConstant(final String... names) {
+        for (final String name : names) {
+            if (constants.containsKey(name)) {
+                return constants.get(name).doubleValue();
+            }
+        }
+        return Double.NaN;
+    }
+
+    /** Get the start of the time range covered by the files.
+     * @return start of the time range covered by the files
+     */
+    public AbsoluteDate getStartDate() {
+        return mapped[0].dataStart;
+    }
+
+    /** Get the end of the time range covered by the files.
+     * @return end of the time range covered by the files
+     */
+    public AbsoluteDate getEndDate() {
+        AbsoluteDate end = mapped[0].dataEnd;
+        for (final MappedFile file : mapped) {
+            if (file.dataEnd.compareTo(end) > 0) {
+                end = file.dataEnd;
+            }
+        }
+        return end;
+    }
+
+    /** Build a regular expression matching the files names.
+     * @return regular expression matching the files names
+     */
+    private String getSupportedNames() {
+        final StringBuilder builder = new StringBuilder("^(?:");
+        for (int i = 0; i < files.length; ++i) {
+            if (i > 0) {
+                builder.append('|');
+            }
+            builder.append(Pattern.quote(files[i].getName()));
+        }
+        return builder.append(")$").toString();
+    }
+
+    /** Select the mapped file covering a date.
+     * @param date date to check
+     * @return mapped file covering the date
+     * @exception OrekitException if no file covers the date
+     */
+    private MappedFile select(final AbsoluteDate date) throws OrekitException {
+        for (final MappedFile file : mapped) {
+            if (file.covers(date)) {
+                return file;
+            }
+        }
+        throw new OrekitException(OrekitMessages.OUT_OF_RANGE_EPHEMERIDES_DATE,
+                                  date, getStartDate(), getEndDate());
+    }
+
+    /** Memory-mapped JPL ephemerides binary file. */
+    private static class MappedFile {
+
+        /** Mapped segments, each containing an integer number of records. */
+        private final ByteBuffer[] segments;
+
+        /** Size of records in bytes. */
+        private final int recordSize;
+
+        /** Number of records in each segment. */
+        private final int recordsPerSegment;
+
+        /** Number of data records (not counting the two header records). */
+        private final int dataRecords;
+
+        /** Constants defined in the file headers. */
+        private final Map<String, Double> constants;
+
+        /** Time scale of the date coordinates. */
+        private final TimeScale timeScale;
+
+        /** Start of the first data record. */
+        private final AbsoluteDate dataStart;
+
+        /** End of the last data record. */
+        private final AbsoluteDate dataEnd;
+
+        /** Duration of one data record (s). */
+        private final double recordDuration;
+
+        /** Number of components per coefficient set (3 for position only, 6 with velocity). */
+        private final int components;
+
+        /** Unit of the position coordinates (as a multiple of meters). */
+        private final double positionUnit;
+
+        /** Index of the first data for selected body. */
+        private final int firstIndex;
+
+        /** Number of coefficients for selected body. */
+        private final int coeffs;
+
+        /** Number of chunks for the selected body in each record. */
+        private final int chunks;
+
+        /** Duration of chunks for the selected body (s). */
+        private final double chunkDuration;
+
+        /** Map a file.
+         * @param file file to map
+         * @param loadType ephemeris type to load
+         * @exception OrekitException if the file cannot be mapped or is not a JPL ephemerides binary file
+         */
+        MappedFile(final File file, final EphemerisType loadType) throws OrekitException {
+
+            final String name = file.getName();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel channel  = raf.getChannel()) {
+
+                // map the beginning of the first header record, to find endianness and records size
+                final long fileSize = channel.size();
+                if (fileSize < HEADER_RECORD_SIZE_OFFSET + 4) {
+                    throw new OrekitException(OrekitMessages.UNABLE_TO_READ_JPL_HEADER, name);
+                }
+                final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_RECORD_SIZE_OFFSET + 4);
+                header.order(detectByteOrder(header));
+                final int deNum = header.getInt(HEADER_EPHEMERIS_TYPE_OFFSET);
+                recordSize = (deNum == INPOP_DE_NUMBER) ?
+                             header.getInt(HEADER_RECORD_SIZE_OFFSET) << 3 :
+                             computeRecordSize(header, name);
+                if (recordSize <= 0 || fileSize < 3L * recordSize) {
+                    throw new OrekitException(OrekitMessages.UNABLE_TO_READ_JPL_HEADER, name);
+                }
+
+                // map the whole file, using as many segments as needed
+                final long records = fileSize / recordSize;
+                recordsPerSegment  = Integer.MAX_VALUE / recordSize;
+                segments = new ByteBuffer[(int) ((records + recordsPerSegment - 1) / recordsPerSegment)];
+                for (int i = 0; i < segments.length; ++i) {
+                    final long start  = ((long) i) * recordsPerSegment * recordSize;
+                    final long length = FastMath.min(((long) recordsPerSegment) * recordSize,
+                                                     records * recordSize - start);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                    segments[i].order(header.order());
+                }
+                dataRecords = (int) (records - 2);
+
+                // parse constants
+                constants = new HashMap<>();
+                for (int i = 0; i < CONSTANTS_MAX_NUMBER; ++i) {
+                    final String constantName = getString(0, HEADER_CONSTANTS_NAMES_OFFSET + i * 6, 6);
+                    if (constantName.length() == 0) {
+                        // no more constants to read
+                        break;
+                    }
+                    constants.put(constantName, getDouble(1, 8 * i));
+                }
+                if (!constants.containsKey(CONSTANT_AU)) {
+                    constants.put(CONSTANT_AU, getDouble(0, HEADER_ASTRONOMICAL_UNIT_OFFSET));
+                }
+                if (!constants.containsKey(CONSTANT_EMRAT)) {
+                    constants.put(CONSTANT_EMRAT, getDouble(0, HEADER_EM_RATIO_OFFSET));
+                }
+
+                // check astronomical unit and Earth-Moon mass ratio
+                final double au    = 1000 * getDouble(0, HEADER_ASTRONOMICAL_UNIT_OFFSET);
+                final double emRat = getDouble(0, HEADER_EM_RATIO_OFFSET);
+                boolean ok = au >= 1.4e11 && au <= 1.6e11 && emRat >= 80 && emRat <= 82;
+
+                // as default, 3 polynomial coefficients for the Cartesian coordinates
+                // (x, y, z) are contained in the file, positions are in kilometers
+                // and times are in TDB
+                int          nbComponents = 3;
+                double       unit         = 1000.0;
+                TimeScale    scale        = TimeScalesFactory.getTDB();
+                if (deNum == INPOP_DE_NUMBER) {
+                    // an INPOP file may contain 6 components (including coefficients for the velocity vector)
+                    final Double format = constants.get("FORMAT");
+                    if (format != null && (int) FastMath.IEEEremainder(format, 10) != 1) {
+                        nbComponents = 6;
+                    }
+                    // INPOP files may have their polynomials expressed in AU
+                    final Double unite = constants.get("UNITE");
+                    if (unite != null && unite.intValue() == 0) {
+                        unit = 1000.0 * constants.get(CONSTANT_AU);
+                    }
+                    // INPOP files may have their times expressed in TCB
+                    final Double timesc = constants.get("TIMESC");
+                    if (timesc != null && timesc.intValue() == 1) {
+                        scale = TimeScalesFactory.getTCB();
+                    }
+                }
+                components   = nbComponents;
+                positionUnit = unit;
+                timeScale    = scale;
+
+                // indices of the Chebyshev coefficients for the selected ephemeris
+                final int row = chebyshevRow(loadType);
+                for (int i = 0; i < 12; ++i) {
+                    ok = ok &&
+                         getInt(0, HEADER_CHEBISHEV_INDICES_OFFSET     + 12 * i) >= 0 &&
+                         getInt(0, HEADER_CHEBISHEV_INDICES_OFFSET + 4 + 12 * i) >= 0 &&
+                         getInt(0, HEADER_CHEBISHEV_INDICES_OFFSET + 8 + 12 * i) >= 0;
+                }
+                firstIndex = (row < 0) ? 0 : getInt(0, HEADER_CHEBISHEV_INDICES_OFFSET     + 12 * row);
+                coeffs     = (row < 0) ? 0 : getInt(0, HEADER_CHEBISHEV_INDICES_OFFSET + 4 + 12 * row);
+                chunks     = (row < 0) ? 1 : getInt(0, HEADER_CHEBISHEV_INDICES_OFFSET + 8 + 12 * row);
+
+                // records and chunks durations
+                final double timeSpan = getDouble(0, HEADER_CHUNK_DURATION_OFFSET);
+                ok = ok && timeSpan > 0 && timeSpan < 100 && chunks > 0 && dataRecords > 0;
+                recordDuration = Constants.JULIAN_DAY * timeSpan;
+                chunkDuration  = recordDuration / chunks;
+
+                // data range, assuming contiguous records
+                final double firstJD = getDouble(2, DATA_START_RANGE_OFFSET);
+                final double lastJD  = getDouble(dataRecords + 1, DATA_END_RANGE_OFFSET);
+                ok = ok && FastMath.abs(lastJD - firstJD - dataRecords * timeSpan) < 1.0e-6;
+
+                if (!ok) {
+                    throw new OrekitException(OrekitMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
+                }
+                dataStart = toDate(firstJD);
+                dataEnd   = toDate(lastJD);
+
+            } catch (IOException ioe) {
+                throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+            }
+
+        }
+
+        /** Detect whether the file is stored in big-endian or little-endian notation.
+         * @param header buffer containing the beginning of the binary JPL header
+         * @return byte order of the file
+         */
+        private static ByteOrder detectByteOrder(final ByteBuffer header) {
+            // the DE number is stored as unsigned int, if it appears larger than
+            // half the range of an integer in big-endian format, the file is little-endian
+            header.order(ByteOrder.BIG_ENDIAN);
+            final long deNum = header.getInt(HEADER_EPHEMERIS_TYPE_OFFSET) & 0xffffffffL;
+            return (deNum > (1 << 15)) ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        }
+
+        /** Calculate the record size of a JPL DE ephemerides file.
+         * @param header buffer containing the beginning of the binary JPL header
+         * @param name the name of the data file
+         * @return the record size for this file
+         * @throws OrekitException if the file contains unexpected data
+         */
+        private static int computeRecordSize(final ByteBuffer header, final String name)
+            throws OrekitException {
+
+            int size = 0;
+            boolean ok = true;
+
+            // iterate over the coefficient ptr array and sum up the record size
+            // the coeffPtr array has the dimensions [12][3]
+            for (int j = 0; j < 12; j++) {
+                final int nCompCur  = (j == 11) ? 2 : 3;
+                final int idx       = HEADER_CHEBISHEV_INDICES_OFFSET + j * 12;
+                final int coeffPtr1 = header.getInt(idx + 4);
+                final int coeffPtr2 = header.getInt(idx + 8);
+                ok = ok && (coeffPtr1 >= 0 || coeffPtr2 >= 0);
+                size += coeffPtr1 * coeffPtr2 * nCompCur;
+            }
+
+            // the libration ptr array has the dimension [3]
+            final int libratPtr1 = header.getInt(HEADER_LIBRATION_INDICES_OFFSET + 4);
+            final int libratPtr2 = header.getInt(HEADER_LIBRATION_INDICES_OFFSET + 8);
+            ok = ok && (libratPtr1 >= 0 || libratPtr2 >= 0);
+
+            size += libratPtr1 * libratPtr2 * 3 + 2;
+            size <<= 3;
+
+            if (!ok || size <= 0) {
+                throw new OrekitException(OrekitMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
+            }
+
+            return size;
+
+        }
+
+        /** Get the row of the Chebyshev coefficients indices for an ephemeris type.
+         * @param loadType ephemeris type to load
+         * @return row index in the header, or -1 if the ephemeris type is not in the file
+         */
+        private static int chebyshevRow(final EphemerisType loadType) {
+            switch (loadType) {
+                case MERCURY :
+                    return 0;
+                case VENUS :
+                    return 1;
+                case EARTH_MOON :
+                    return 2;
+                case MARS :
+                    return 3;
+                case JUPITER :
+                    return 4;
+                case SATURN :
+                    return 5;
+                case URANUS :
+                    return 6;
+                case NEPTUNE :
+                    return 7;
+                case PLUTO :
+                    return 8;
+                case MOON :
+                    return 9;
+                case SUN :
+                    return 10;
+                default :
+                    return -1;
+            }
+        }
+
+        /** Check if the file covers a date.
+         * @param date date to check
+         * @return true if the file covers the date
+         */
+        boolean covers(final AbsoluteDate date) {
+            final double dt = date.offsetFrom(dataStart, timeScale);
+            return dt >= -DATE_TOLERANCE && dt <= dataRecords * recordDuration + DATE_TOLERANCE;
+        }
+
+        /** Get the index of the data record containing an offset.
+         * @param dt offset from data start (s)
+         * @return index of the data record (0 for the first data record)
+         */
+        int recordIndex(final double dt) {
+            return FastMath.max(0, FastMath.min(dataRecords - 1, (int) FastMath.floor(dt / recordDuration)));
+        }
+
+        /** Get the start date of a data record.
+         * @param record index of the data record (0 for the first data record)
+         * @return start date of the data record
+         */
+        AbsoluteDate getRecordStart(final int record) {
+            return toDate(getDouble(record + 2, DATA_START_RANGE_OFFSET));
+        }
+
+        /** Get the index of the chunk containing an offset within a record.
+         * @param dtRecord duration from record start (s)
+         * @return index of the chunk
+         */
+        int chunkIndex(final double dtRecord) {
+            return FastMath.max(0, FastMath.min(chunks - 1, (int) FastMath.floor(dtRecord / chunkDuration)));
+        }
+
+        /** Get the index of the first coefficient of the X component of a chunk.
+         * @param chunk index of the chunk
+         * @return index of the first coefficient (in doubles, from record start)
+         */
+        int coefficientsIndex(final int chunk) {
+            return firstIndex + components * chunk * coeffs - 1;
+        }
+
+        /** Get a Chebyshev coefficient, converted to meters.
+         * @param record index of the data record
+         * @param index index of the coefficient (in doubles, from record start)
+         * @return coefficient value in meters
+         */
+        double getCoefficient(final int record, final int index) {
+            return positionUnit * getDouble(record + 2, 8 * index);
+        }
+
+        /** Convert a Julian day to a date.
+         * @param t Julian day
+         * @return date
+         */
+        private AbsoluteDate toDate(final double t) {
+            int    jDay    = (int) FastMath.floor(t);
+            double seconds = (t + 0.5 - jDay) * Constants.JULIAN_DAY;
+            if (seconds >= Constants.JULIAN_DAY) {
+                ++jDay;
+                seconds -= Constants.JULIAN_DAY;
+            }
+            return new AbsoluteDate(new DateComponents(DateComponents.JULIAN_EPOCH, jDay),
+                                    new TimeComponents(seconds), timeScale);
+        }
+
+        /** Get a double from the mapped file.
+         * @param record index of the record (including header records)
+         * @param offset offset within the record (in bytes)
+         * @return double value
+         */
+        private double getDouble(final int record, final int offset) {
+            return segments[record / recordsPerSegment].
+                   getDouble((record % recordsPerSegment) * recordSize + offset);
+        }
+
+        /** Get an int from the mapped file.
+         * @param record index of the record (including header records)
+         * @param offset offset within the record (in bytes)
+         * @return int value
+         */
+        private int getInt(final int record, final int offset) {
+            return segments[record / recordsPerSegment].
+                   getInt((record % recordsPerSegment) * recordSize + offset);
+        }
+
+        /** Get a String from the mapped file.
+         * @param record index of the record (including header records)
+         * @param offset offset within the record (in bytes)
+         * @param length maximal length of the string
+         * @return extracted string, with whitespace characters stripped
+         */
+        private String getString(final int record, final int offset, final int length) {
+            final ByteBuffer segment = segments[record / recordsPerSegment];
+            final int        start   = (record % recordsPerSegment) * recordSize + offset;
+            final byte[]     bytes   = new byte[length];
+            for (int i = 0; i < length; ++i) {
+                bytes[i] = segment.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII).trim();
+        }
+
+    }
+
+    /** Raw position-velocity provider evaluating Chebyshev polynomials from mapped files. */
+    private class MappedRawPVProvider implements RawPVProvider {
+
+        /** {@inheritDoc} */
+        public PVCoordinates getRawPV(final AbsoluteDate date) throws OrekitException {
+
+            // locate the coefficients
+            final MappedFile   file        = select(date);
+            final int          record      = file.recordIndex(date.offsetFrom(file.dataStart, file.timeScale));
+            final AbsoluteDate recordStart = file.getRecordStart(record);
+            final int          chunk       = file.chunkIndex(date.durationFrom(recordStart));
+            final int          index       = file.coefficientsIndex(chunk);
+            final int          n           = file.coeffs;
+            final double       duration    = file.chunkDuration;
+
+            // normalize date
+            final AbsoluteDate chunkStart = recordStart.shiftedBy(chunk * duration);
+            final double t    = (2 * date.offsetFrom(chunkStart, file.timeScale) - duration) / duration;
+            final double twoT = 2 * t;
+
+            // initialize Chebyshev polynomials recursion
+            double pKm1 = 1;
+            double pK   = t;
+            double xP   = file.getCoefficient(record, index);
+            double yP   = file.getCoefficient(record, index + n);
+            double zP   = file.getCoefficient(record, index + 2 * n);
+
+            // initialize Chebyshev polynomials derivatives recursion
+            double qKm1 = 0;
+            double qK   = 1;
+            double xV   = 0;
+            double yV   = 0;
+            double zV   = 0;
+
+            // initialize Chebyshev polynomials second derivatives recursion
+            double rKm1 = 0;
+            double rK   = 0;
+            double xA   = 0;
+            double yA   = 0;
+            double zA   = 0;
+
+            // combine polynomials by applying coefficients read from the mapped file
+            for (int k = 1; k < n; ++k) {
+
+                final double xC = file.getCoefficient(record, index + k);
+                final double yC = file.getCoefficient(record, index + k + n);
+                final double zC = file.getCoefficient(record, index + k + 2 * n);
+
+                // consider last computed polynomials on position
+                xP += xC * pK;
+                yP += yC * pK;
+                zP += zC * pK;
+
+                // consider last computed polynomials on velocity
+                xV += xC * qK;
+                yV += yC * qK;
+                zV += zC * qK;
+
+                // consider last computed polynomials on acceleration
+                xA += xC * rK;
+                yA += yC * rK;
+                zA += zC * rK;
+
+                // compute next Chebyshev polynomial value
+                final double pKm2 = pKm1;
+                pKm1 = pK;
+                pK   = twoT * pKm1 - pKm2;
+
+                // compute next Chebyshev polynomial derivative
+                final double qKm2 = qKm1;
+                qKm1 = qK;
+                qK   = twoT * qKm1 + 2 * pKm1 - qKm2;
+
+                // compute next Chebyshev polynomial second derivative
+                final double rKm2 = rKm1;
+                rKm1 = rK;
+                rK   = twoT * rKm1 + 4 * qKm1 - rKm2;
+
+            }
+
+            final double vScale = 2 / duration;
+            final double aScale = vScale * vScale;
+            return new PVCoordinates(new Vector3D(xP, yP, zP),
+                                     new Vector3D(xV * vScale, yV * vScale, zV * vScale),
+                                     new Vector3D(xA * aScale, yA * aScale, zA * aScale));
+
+        }
+
+        /** {@inheritDoc} */
+        public <T extends RealFieldElement<T>> FieldPVCoordinates<T> getRawPV(final FieldAbsoluteDate<T> date)
+            throws OrekitException {
+
+            final T zero = date.getField().getZero();
+            final T one  = date.getField().getOne();
+
+            // locate the coefficients
+            final AbsoluteDate rawDate     = date.toAbsoluteDate();
+            final MappedFile   file        = select(rawDate);
+            final int          record      = file.recordIndex(rawDate.offsetFrom(file.dataStart, file.timeScale));
+            final AbsoluteDate recordStart = file.getRecordStart(record);
+            final int          chunk       = file.chunkIndex(rawDate.durationFrom(recordStart));
+            final int          index       = file.coefficientsIndex(chunk);
+            final int          n           = file.coeffs;
+            final double       duration    = file.chunkDuration;
+
+            // normalize date
+            final FieldAbsoluteDate<T> chunkStart =
+                    new FieldAbsoluteDate<>(date.getField(), recordStart.shiftedBy(chunk * duration));
+            final T t    = date.offsetFrom(chunkStart, file.timeScale).multiply(2).subtract(duration).divide(duration);
+            final T twoT = t.add(t);
+
+            // initialize Chebyshev polynomials recursion
+            T pKm1 = one;
+            T pK   = t;
+            T xP   = zero.add(file.getCoefficient(record, index));
+            T yP   = zero.add(file.getCoefficient(record, index + n));
+            T zP   = zero.add(file.getCoefficient(record, index + 2 * n));
+
+            // initialize Chebyshev polynomials derivatives recursion
+            T qKm1 = zero;
+            T qK   = one;
+            T xV   = zero;
+            T yV   = zero;
+            T zV   = zero;
+
+            // initialize Chebyshev polynomials second derivatives recursion
+            T rKm1 = zero;
+            T rK   = zero;
+            T xA   = zero;
+            T yA   = zero;
+            T zA   = zero;
+
+            // combine polynomials by applying coefficients read from the mapped file
+            for (int k = 1; k < n; ++k) {
+
+                final double xC = file.getCoefficient(record, index + k);
+                final double yC = file.getCoefficient(record, index + k + n);
+                final double zC = file.getCoefficient(record, index + k + 2 * n);
+
+                // consider last computed polynomials on position
+                xP = xP.add(pK.multiply(xC));
+                yP = yP.add(pK.multiply(yC));
+                zP = zP.add(pK.multiply(zC));
+
+                // consider last computed polynomials on velocity
+                xV = xV.add(qK.multiply(xC));
+                yV = yV.add(qK.multiply(yC));
+                zV = zV.add(qK.multiply(zC));
+
+                // consider last computed polynomials on acceleration
+                xA = xA.add(rK.multiply(xC));
+                yA = yA.add(rK.multiply(yC));
+                zA = zA.add(rK.multiply(zC));
+
+                // compute next Chebyshev polynomial value
+                final T pKm2 = pKm1;
+                pKm1 = pK;
+                pK   = twoT.multiply(pKm1).subtract(pKm2);
+
+                // compute next Chebyshev polynomial derivative
+                final T qKm2 = qKm1;
+                qKm1 = qK;
+                qK   = twoT.multiply(qKm1).add(pKm1.multiply(2)).subtract(qKm2);
+
+                // compute next Chebyshev polynomial second derivative
+                final T rKm2 = rKm1;
+                rKm1 = rK;
+                rK   = twoT.multiply(rKm1).add(qKm1.multiply(4)).subtract(rKm2);
+
+            }
+
+            final double vScale = 2 / duration;
+            final double aScale = vScale * vScale;
+            return new FieldPVCoordinates<>(new FieldVector3D<>(xP, yP, zP),
+                                            new FieldVector3D<>(xV.multiply(vScale), yV.multiply(vScale), zV.multiply(vScale)),
+                                            new FieldVector3D<>(xA.multiply(aScale), yA.multiply(aScale), zA.multiply(aScale)));
+
+        }
+
+    }
+
+    /** Raw position-velocity provider providing always zero. */
+    private static class ZeroRawPVProvider implements RawPVProvider {
+
+        /** {@inheritDoc} */
+        public PVCoordinates getRawPV(final AbsoluteDate date) {
+            return PVCoordinates.ZERO;
+        }
+
+        /** {@inheritDoc} */
+        public <T extends RealFieldElement<T>> FieldPVCoordinates<T> getRawPV(final FieldAbsoluteDate<T> date) {
+            return FieldPVCoordinates.getZero(date.getField());
+        }
+
+    }
+
+}
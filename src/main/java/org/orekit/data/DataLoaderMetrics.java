@@ -0,0 +1,105 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Timing metrics for the {@link DataLoader data loaders} of one type.
+ * <p>
+ * Instances of this class are maintained by {@link DataProvidersManager}, one
+ * for each data loader class. They are updated at the end of each call to
+ * {@link DataProvidersManager#feed(String, DataLoader) feed} and can be read
+ * while other threads are feeding loaders.
+ * </p>
+ * @see DataProvidersManager#getLoadersMetrics()
+ * @since 9.3
+ */
+public class DataLoaderMetrics {
+
+    /** Name of the data loader class. */
+    private final String loaderName;
+
+    /** Number of calls to feed. */
+    private final AtomicLong feeds;
+
+    /** Number of data files loaded. */
+    private final AtomicLong files;
+
+    /** Total time spent in feed (ns). */
+    private final AtomicLong totalTime;
+
+    /** Longest time spent in one feed (ns). */
+    private final AtomicLong maxTime;
+
+    /** Simple constructor.
+     * @param loaderName name of the data loader class
+     */
+    DataLoaderMetrics(final String loaderName) {
+        this.loaderName = loaderName;
+        this.feeds      = new AtomicLong();
+        this.files      = new AtomicLong();
+        this.totalTime  = new AtomicLong();
+        this.maxTime    = new AtomicLong();
+    }
+
+    /** Register one call to feed.
+     * @param time time spent in the call (ns)
+     * @param loadedFiles number of data files loaded during the call
+     */
+    void register(final long time, final int loadedFiles) {
+        feeds.incrementAndGet();
+        files.addAndGet(loadedFiles);
+        totalTime.addAndGet(time);
+        maxTime.accumulateAndGet(time, Math::max);
+    }
+
+    /** Get the name of the data loader class.
+     * @return name of the data loader class
+     */
+    public String getLoaderName() {
+        return loaderName;
+    }
+
+    /** Get the number of calls to feed.
+     * @return number of calls to feed
+     */
+    public long getFeedsNumber() {
+        return feeds.get();
+    }
+
+    /** Get the number of data files loaded.
+     * @return number of data files loaded, counting all calls to feed
+     */
+    public long getLoadedFilesNumber() {
+        return files.get();
+    }
+
+    /** Get the total time spent in feed.
+     * @return total time spent in feed, including crawling and parsing (s)
+     */
+    public double getTotalTime() {
+        return 1.0e-9 * totalTime.get();
+    }
+
+    /** Get the longest time spent in one call to feed.
+     * @return longest time spent in one call to feed (s)
+     */
+    public double getMaxTime() {
+        return 1.0e-9 * maxTime.get();
+    }
+
+}
@@ -22,10 +22,12 @@ import java.io.InputStream;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Pattern;
 
 import org.orekit.errors.OrekitException;
@@ -66,6 +68,15 @@ import org.orekit.errors.OrekitMessages;
  * types of filters (decompression, deciphering...).
  * </p>
  *
+ * <p>
+ * The manager is thread-safe. Several threads can {@link #feed(String, DataLoader) feed}
+ * independent loaders simultaneously, there is no global lock so the loaders read their
+ * data in parallel. Providers and filters lists are copied on write, so they can be
+ * changed while other threads are feeding loaders, in which case ongoing feeds use the
+ * lists as they were when they started. The time spent feeding each type of loader is
+ * monitored and available through {@link #getLoadersMetrics()}.
+ * </p>
+ *
  * @author Luc Maisonobe
  * @see DirectoryCrawler
  * @see ClasspathCrawler
@@ -89,15 +100,21 @@ public class DataProvidersManager {
     /** Loaded data. */
     private final Set<String> loaded;
 
+    /** Metrics for each type of loader.
+     * @since 9.3
+     */
+    private final Map<String, DataLoaderMetrics> metrics;
+
     /** Build an instance with default configuration.
      * <p>
      * This is a singleton, so the constructor is private.
      * </p>
      */
     private DataProvidersManager() {
-        providers = new ArrayList<DataProvider>();
-        filters   = new ArrayList<>();
-        loaded    = new LinkedHashSet<String>();
+        providers = new CopyOnWriteArrayList<DataProvider>();
+        filters   = new CopyOnWriteArrayList<>();
+        loaded    = Collections.synchronizedSet(new LinkedHashSet<String>());
+        metrics   = new ConcurrentHashMap<>();
 
         // set up predefined filters
         addFilter(new GzipFilter());
@@ -135,11 +152,16 @@ public class DataProvidersManager {
      * System.getProperty("path.separator")}. This standard path separator is ":" on
      * Linux and Unix type systems and ";" on Windows types systems.
      * </p>
+     * <p>
+     * The providers are added all at once when the whole list has been checked.
+     * </p>
      * @exception OrekitException if an element of the list does not exist or exists but
      * is neither a directory nor a zip/jar archive
      */
     public void addDefaultProviders() throws OrekitException {
 
+        final List<DataProvider> defaultProviders = new ArrayList<>();
+
         // get the path containing all components
         final String path = System.getProperty(OREKIT_DATA_PATH);
         if ((path != null) && !"".equals(path)) {
@@ -160,9 +182,9 @@ public class DataProvidersManager {
                     }
 
                     if (file.isDirectory()) {
-                        addProvider(new DirectoryCrawler(file));
+                        defaultProviders.add(new DirectoryCrawler(file));
                     } else if (DataProvider.ZIP_ARCHIVE_PATTERN.matcher(name).matches()) {
-                        addProvider(new ZipJarCrawler(file));
+                        defaultProviders.add(new ZipJarCrawler(file));
                     } else {
                         throw new OrekitException(OrekitMessages.NEITHER_DIRECTORY_NOR_ZIP_OR_JAR, name);
                     }
@@ -171,6 +193,8 @@ public class DataProvidersManager {
             }
         }
 
+        providers.addAll(defaultProviders);
+
     }
 
     /** Add a data provider to the supported list.
@@ -180,7 +204,7 @@ public class DataProvidersManager {
      * @see #isSupported(DataProvider)
      * @see #getProviders()
      */
-    public void addProvider(final DataProvider provider) {
+    public synchronized void addProvider(final DataProvider provider) {
         providers.add(provider);
     }
 
@@ -193,11 +217,10 @@ public class DataProvidersManager {
      * @see #getProviders()
      * @since 5.1
      */
-    public DataProvider removeProvider(final DataProvider provider) {
-        for (final Iterator<DataProvider> iterator = providers.iterator(); iterator.hasNext();) {
-            final DataProvider current = iterator.next();
-            if (current == provider) {
-                iterator.remove();
+    public synchronized DataProvider removeProvider(final DataProvider provider) {
+        for (int i = 0; i < providers.size(); ++i) {
+            if (providers.get(i) == provider) {
+                providers.remove(i);
                 return provider;
             }
         }
@@ -210,7 +233,7 @@ public class DataProvidersManager {
      * @see #isSupported(DataProvider)
      * @see #getProviders()
      */
-    public void clearProviders() {
+    public synchronized void clearProviders() {
         providers.clear();
     }
 
@@ -220,7 +243,7 @@ public class DataProvidersManager {
      * @see #clearFilters()
      * @since 9.2
      */
-    public void addFilter(final DataFilter filter) {
+    public synchronized void addFilter(final DataFilter filter) {
         filters.add(filter);
     }
 
@@ -228,7 +251,7 @@ public class DataProvidersManager {
      * @see #addFilter(DataFilter)
      * @since 9.2
      */
-    public void clearFilters() {
+    public synchronized void clearFilters() {
         for (int i = filters.size() - 1; i >= predefinedFilters; --i) {
             filters.remove(i);
         }
@@ -298,17 +321,22 @@ public class DataProvidersManager {
         return Collections.unmodifiableList(providers);
     }
 
-    /** Get an unmodifiable view of the set of data file names that have been loaded.
+    /** Get an unmodifiable snapshot of the set of data file names that have been loaded.
      * <p>
      * The names returned are exactly the ones that were given to the {@link
      * DataLoader#loadData(InputStream, String) DataLoader.loadData} method.
      * </p>
-     * @return unmodifiable view of the set of data file names that have been loaded
+     * <p>
+     * The returned set is a copy, it is not updated when other files are loaded.
+     * </p>
+     * @return unmodifiable snapshot of the set of data file names that have been loaded
      * @see #feed(String, DataLoader)
      * @see #clearLoadedDataNames()
      */
     public Set<String> getLoadedDataNames() {
-        return Collections.unmodifiableSet(loaded);
+        synchronized (loaded) {
+            return Collections.unmodifiableSet(new LinkedHashSet<String>(loaded));
+        }
     }
 
     /** Clear the set of data file names that have been loaded.
@@ -318,6 +346,28 @@ public class DataProvidersManager {
         loaded.clear();
     }
 
+    /** Get the timing metrics of the data loaders.
+     * <p>
+     * The metrics are aggregated by data loader class, so all the calls to
+     * {@link #feed(String, DataLoader) feed} with loaders of the same class
+     * (for example all the loaders for EOP files in one format) are gathered.
+     * </p>
+     * @return unmodifiable view of the metrics, indexed by loader class name
+     * @see #clearLoadersMetrics()
+     * @since 9.3
+     */
+    public Map<String, DataLoaderMetrics> getLoadersMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /** Clear the timing metrics of the data loaders.
+     * @see #getLoadersMetrics()
+     * @since 9.3
+     */
+    public void clearLoadersMetrics() {
+        metrics.clear();
+    }
+
     /** Feed a data file loader by browsing all data providers.
      * <p>
      * If this method is called with an empty list of providers, a default
@@ -334,6 +384,10 @@ public class DataProvidersManager {
      * stopped. If no provider is able to feed the data loader, then the last error
      * triggered is thrown.
      * </p>
+     * <p>
+     * This method can be called simultaneously by several threads, as long
+     * as each thread uses its own data loader.
+     * </p>
      * @param supportedNames regular expression for file names supported by the visitor
      * @param loader data loader to use
      * @return true if some data has been loaded
@@ -347,33 +401,45 @@ public class DataProvidersManager {
 
         // set up a default configuration if no providers have been set
         if (providers.isEmpty()) {
-            addDefaultProviders();
+            synchronized (this) {
+                if (providers.isEmpty()) {
+                    addDefaultProviders();
+                }
+            }
         }
 
         // monitor the data that the loader will load
-        final DataLoader monitoredLoader = new MonitoringWrapper(loader);
+        final MonitoringWrapper monitoredLoader = new MonitoringWrapper(loader);
+
+        final long start = System.nanoTime();
+        try {
 
-        // crawl the data collection
-        OrekitException delayedException = null;
-        for (final DataProvider provider : providers) {
-            try {
+            // crawl the data collection
+            OrekitException delayedException = null;
+            for (final DataProvider provider : providers) {
+                try {
 
-                // try to feed the visitor using the current provider
-                if (provider.feed(supported, monitoredLoader)) {
-                    return true;
+                    // try to feed the visitor using the current provider
+                    if (provider.feed(supported, monitoredLoader)) {
+                        return true;
+                    }
+
+                } catch (OrekitException oe) {
+                    // remember the last error encountered
+                    delayedException = oe;
                 }
+            }
 
-            } catch (OrekitException oe) {
-                // remember the last error encountered
-                delayedException = oe;
+            if (delayedException != null) {
+                throw delayedException;
             }
-        }
 
-        if (delayedException != null) {
-            throw delayedException;
-        }
+            return false;
 
-        return false;
+        } finally {
+            metrics.computeIfAbsent(loader.getClass().getName(), DataLoaderMetrics::new).
+                    register(System.nanoTime() - start, monitoredLoader.count);
+        }
 
     }
 
@@ -383,11 +449,15 @@ public class DataProvidersManager {
         /** Wrapped loader. */
         private final DataLoader loader;
 
+        /** Number of data files loaded. */
+        private int count;
+
         /** Simple constructor.
          * @param loader loader to monitor
          */
         MonitoringWrapper(final DataLoader loader) {
             this.loader = loader;
+            this.count  = 0;
         }
 
         /** {@inheritDoc} */
@@ -405,6 +475,7 @@ public class DataProvidersManager {
 
             // monitor the fact new data has been loaded
             loaded.add(name);
+            ++count;
 
         }
 
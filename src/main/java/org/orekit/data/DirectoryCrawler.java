@@ -23,6 +23,8 @@ import java.io.InputStream;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.hipparchus.exception.DummyLocalizable;
@@ -48,6 +50,12 @@ import org.orekit.errors.OrekitMessages;
  * This is a simple application of the <code>visitor</code> design pattern for
  * directory hierarchy crawling.
  * </p>
+ * <p>
+ * The content of each directory is listed only once and cached. The cached listing
+ * is reused as long as the directory modification time does not change, so only one
+ * file status check per directory is needed on subsequent feeds. Instances can be
+ * used by several threads simultaneously.
+ * </p>
  * @see DataProvidersManager
  * @author Luc Maisonobe
  */
@@ -56,6 +64,11 @@ public class DirectoryCrawler implements DataProvider {
     /** Root directory. */
     private final File root;
 
+    /** Cached listings of the browsed directories.
+     * @since 9.3
+     */
+    private final Map<File, Listing> listings;
+
     /** Build a data files crawler.
      * @param root root of the directories tree (must be a directory)
      * @exception OrekitException if root is not a directory
@@ -64,7 +77,8 @@ public class DirectoryCrawler implements DataProvider {
         if (!root.isDirectory()) {
             throw new OrekitException(OrekitMessages.NOT_A_DIRECTORY, root.getAbsolutePath());
         }
-        this.root = root;
+        this.root     = root;
+        this.listings = new ConcurrentHashMap<>();
     }
 
     /** {@inheritDoc} */
@@ -93,30 +107,23 @@ public class DirectoryCrawler implements DataProvider {
         throws OrekitException, IOException, ParseException {
 
         // search in current directory
-        final File[] list = directory.listFiles();
-        Arrays.sort(list, new Comparator<File>() {
-            @Override
-            public int compare(final File o1, final File o2) {
-                return o1.compareTo(o2);
-            }
-        });
+        final Listing listing = getListing(directory);
 
         OrekitException delayedException = null;
         boolean loaded = false;
-        for (int i = 0; i < list.length; ++i) {
+        for (int i = 0; i < listing.files.length; ++i) {
             try {
                 if (visitor.stillAcceptsData()) {
-                    final File file = list[i];
-                    if (file.isDirectory()) {
+                    final File file = listing.files[i];
+                    if (listing.directories[i]) {
 
                         // recurse in the sub-directory
                         loaded = feed(supported, visitor, file) || loaded;
 
-                    } else if (ZIP_ARCHIVE_PATTERN.matcher(file.getName()).matches()) {
+                    } else if (listing.archives[i] != null) {
 
                         // browse inside the zip/jar file
-                        final DataProvider zipProvider = new ZipJarCrawler(file);
-                        loaded = zipProvider.feed(supported, visitor) || loaded;
+                        loaded = listing.archives[i].feed(supported, visitor) || loaded;
 
                     } else {
 
@@ -148,4 +155,71 @@ public class DirectoryCrawler implements DataProvider {
 
     }
 
+    /** Get the listing of a directory, using the cache if it is still up to date.
+     * @param directory directory to list
+     * @return listing of the directory
+     * @exception OrekitException if directory cannot be listed
+     */
+    private Listing getListing(final File directory) throws OrekitException {
+        final long lastModified = directory.lastModified();
+        final Listing cached = listings.get(directory);
+        if (cached != null && cached.lastModified == lastModified) {
+            return cached;
+        }
+        final Listing listing = new Listing(directory, lastModified);
+        listings.put(directory, listing);
+        return listing;
+    }
+
+    /** Cached listing of one directory.
+     * @since 9.3
+     */
+    private static class Listing {
+
+        /** Modification time of the directory when it was listed. */
+        private final long lastModified;
+
+        /** Files in the directory, sorted. */
+        private final File[] files;
+
+        /** Indicators for sub-directories. */
+        private final boolean[] directories;
+
+        /** Crawlers for zip/jar archives (null for other files). */
+        private final ZipJarCrawler[] archives;
+
+        /** Simple constructor.
+         * @param directory directory to list
+         * @param lastModified modification time of the directory
+         * @exception OrekitException if directory cannot be listed
+         */
+        Listing(final File directory, final long lastModified) throws OrekitException {
+
+            final File[] list = directory.listFiles();
+            if (list == null) {
+                throw new OrekitException(OrekitMessages.NOT_A_DIRECTORY, directory.getAbsolutePath());
+            }
+            Arrays.sort(list, new Comparator<File>() {
+                @Override
+                public int compare(final File o1, final File o2) {
+                    return o1.compareTo(o2);
+                }
+            });
+
+            this.lastModified = lastModified;
+            this.files        = list;
+            this.directories  = new boolean[list.length];
+            this.archives     = new ZipJarCrawler[list.length];
+            for (int i = 0; i < list.length; ++i) {
+                directories[i] = list[i].isDirectory();
+                if (!directories[i] && ZIP_ARCHIVE_PATTERN.matcher(list[i].getName()).matches()) {
+                    // the crawler is kept so its own index is preserved between feeds
+                    archives[i] = new ZipJarCrawler(list[i]);
+                }
+            }
+
+        }
+
+    }
+
 }
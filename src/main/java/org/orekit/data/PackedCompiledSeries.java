@@ -0,0 +1,527 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathArrays;
+import org.orekit.utils.Constants;
+
+/** Evaluator for joined Poisson series using packed primitive arrays.
+ * <p>
+ * The terms of the series are sorted by multipliers patterns and stored in
+ * a few flat arrays: the non-zero multipliers of the arguments, the index
+ * of the components each term contributes to and the polynomial coefficients
+ * of the sine and cosine parts. Evaluation therefore involves neither term
+ * objects nor temporary arrays per term.
+ * </p>
+ * <p>
+ * Contributions whose amplitude is below a user-specified threshold are
+ * dropped when the evaluator is built, and terms that do not contribute to
+ * any component anymore are removed, thus saving their sine and cosine
+ * computation. The amplitude of a contribution is the sum of the
+ * norms of its (sine, cosine) coefficients pairs for all degrees, i.e.
+ * it is an upper bound of the contribution for dates within one Julian
+ * century of the reference epoch.
+ * </p>
+ * @see PoissonSeries#compile(double, PoissonSeries...)
+ * @since 9.3
+ */
+class PackedCompiledSeries implements PoissonSeries.CompiledSeries {
+
+    /** Number of multipliers in the arguments. */
+    private static final int NB_MULTIPLIERS = 15;
+
+    /** Mask for the non-zero multipliers flags in the keys. */
+    private static final long MULTIPLIERS_MASK = 0x7fffL;
+
+    /** Polynomial parts. */
+    private final PolynomialNutation[] polynomials;
+
+    /** Start of each term in the multipliers arrays (size: number of terms + 1). */
+    private final int[] argumentStart;
+
+    /** Index of the bodies elements involved in the arguments. */
+    private final int[] argumentElement;
+
+    /** Non-zero multipliers of the bodies elements in the arguments. */
+    private final double[] argumentMultiplier;
+
+    /** Start of each term in the contributions arrays (size: number of terms + 1). */
+    private final int[] contributionStart;
+
+    /** Index of the series each contribution is added to. */
+    private final int[] contributionSeries;
+
+    /** Start of each contribution in the coefficients arrays (size: number of contributions + 1). */
+    private final int[] coefficientStart;
+
+    /** Coefficients of the sine parts, in increasing degree order. */
+    private final double[] sinCoefficients;
+
+    /** Coefficients of the cosine parts, in increasing degree order. */
+    private final double[] cosCoefficients;
+
+    /** Simple constructor.
+     * @param polynomials polynomial parts
+     * @param joinedTerms terms shared between all series, indexed by multipliers keys
+     * @param truncation amplitude threshold below which contributions are ignored
+     */
+    PackedCompiledSeries(final PolynomialNutation[] polynomials, final Map<Long, SeriesTerm> joinedTerms,
+                         final double truncation) {
+
+        this.polynomials = polynomials.clone();
+
+        // sort terms by multipliers patterns, so terms with the same
+        // non-zero multipliers (luni-solar, planetary, ...) are contiguous
+        final List<Long> keys = new ArrayList<>(joinedTerms.keySet());
+        keys.sort((k1, k2) -> {
+            final int c = Long.compare(k1 & MULTIPLIERS_MASK, k2 & MULTIPLIERS_MASK);
+            return (c != 0) ? c : Long.compare(k1, k2);
+        });
+
+        // pack terms contributing at least to one series
+        final IntArray     argStart     = new IntArray();
+        final IntArray     argElement   = new IntArray();
+        final DoubleArray  argMult      = new DoubleArray();
+        final IntArray     contribStart = new IntArray();
+        final IntArray     contribIndex = new IntArray();
+        final IntArray     coeffStart   = new IntArray();
+        final DoubleArray  sinCoeffs    = new DoubleArray();
+        final DoubleArray  cosCoeffs    = new DoubleArray();
+        argStart.add(0);
+        contribStart.add(0);
+        coeffStart.add(0);
+        for (final Long key : keys) {
+
+            final SeriesTerm term = joinedTerms.get(key);
+            final int before = contribIndex.size();
+            for (int i = 0; i < polynomials.length; ++i) {
+                if (term.getDegree(i) >= 0 && amplitude(term, i) >= truncation) {
+                    contribIndex.add(i);
+                    for (int j = 0; j <= term.getDegree(i); ++j) {
+                        sinCoeffs.add(term.getSinCoeff(i, j));
+                        cosCoeffs.add(term.getCosCoeff(i, j));
+                    }
+                    coeffStart.add(sinCoeffs.size());
+                }
+            }
+
+            if (contribIndex.size() > before) {
+                // the term contributes to at least one series, we keep it
+                final int[] m = NutationCodec.decode(key);
+                for (int k = 0; k < NB_MULTIPLIERS; ++k) {
+                    if (m[k] != 0) {
+                        argElement.add(k);
+                        argMult.add(m[k]);
+                    }
+                }
+                argStart.add(argElement.size());
+                contribStart.add(contribIndex.size());
+            }
+
+        }
+
+        this.argumentStart      = argStart.toArray();
+        this.argumentElement    = argElement.toArray();
+        this.argumentMultiplier = argMult.toArray();
+        this.contributionStart  = contribStart.toArray();
+        this.contributionSeries = contribIndex.toArray();
+        this.coefficientStart   = coeffStart.toArray();
+        this.sinCoefficients    = sinCoeffs.toArray();
+        this.cosCoefficients    = cosCoeffs.toArray();
+
+    }
+
+    /** Get the number of terms kept after truncation.
+     * @return number of terms kept after truncation
+     */
+    int getNbTerms() {
+        return argumentStart.length - 1;
+    }
+
+    /** Compute the amplitude of a term contribution to one series.
+     * @param term series term
+     * @param index index of the series
+     * @return sum of the norms of the (sine, cosine) coefficients pairs
+     */
+    private static double amplitude(final SeriesTerm term, final int index) {
+        double amplitude = 0;
+        for (int j = 0; j <= term.getDegree(index); ++j) {
+            amplitude += FastMath.hypot(term.getSinCoeff(index, j), term.getCosCoeff(index, j));
+        }
+        return amplitude;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] value(final BodiesElements elements) {
+
+        final double   tc = elements.getTC();
+        final double[] e  = extract(elements);
+
+        // non-polynomial part
+        // compute sum accurately, using Møller-Knuth TwoSum algorithm without branching
+        // the following statements must NOT be simplified, they rely on floating point
+        // arithmetic properties (rounding and representable numbers)
+        final double[] npHigh = new double[polynomials.length];
+        final double[] npLow  = new double[polynomials.length];
+        for (int t = 0; t < argumentStart.length - 1; ++t) {
+
+            // argument
+            double a = 0;
+            for (int k = argumentStart[t]; k < argumentStart[t + 1]; ++k) {
+                a += argumentMultiplier[k] * e[argumentElement[k]];
+            }
+            final double sin = FastMath.sin(a);
+            final double cos = FastMath.cos(a);
+
+            // contributions
+            for (int c = contributionStart[t]; c < contributionStart[t + 1]; ++c) {
+                double s = 0;
+                double co = 0;
+                for (int j = coefficientStart[c + 1] - 1; j >= coefficientStart[c]; --j) {
+                    s  = s  * tc + sinCoefficients[j];
+                    co = co * tc + cosCoefficients[j];
+                }
+                final int    i       = contributionSeries[c];
+                final double v       = s * sin + co * cos;
+                final double sum     = npHigh[i] + v;
+                final double sPrime  = sum - v;
+                final double tPrime  = sum - sPrime;
+                final double deltaS  = npHigh[i]  - sPrime;
+                final double deltaT  = v - tPrime;
+                npLow[i]  += deltaS   + deltaT;
+                npHigh[i]  = sum;
+            }
+
+        }
+
+        // add residual and polynomial part
+        for (int i = 0; i < npHigh.length; ++i) {
+            npHigh[i] += npLow[i] + polynomials[i].value(tc);
+        }
+        return npHigh;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] derivative(final BodiesElements elements) {
+
+        final double   tc   = elements.getTC();
+        final double[] e    = extract(elements);
+        final double[] eDot = extractDerivatives(elements);
+
+        // non-polynomial part
+        final double[] v = new double[polynomials.length];
+        for (int t = 0; t < argumentStart.length - 1; ++t) {
+
+            // argument
+            double a    = 0;
+            double aDot = 0;
+            for (int k = argumentStart[t]; k < argumentStart[t + 1]; ++k) {
+                a    += argumentMultiplier[k] * e[argumentElement[k]];
+                aDot += argumentMultiplier[k] * eDot[argumentElement[k]];
+            }
+            final double sin = FastMath.sin(a);
+            final double cos = FastMath.cos(a);
+
+            // contributions
+            for (int c = contributionStart[t]; c < contributionStart[t + 1]; ++c) {
+                final int start = coefficientStart[c];
+                double s    = 0;
+                double co   = 0;
+                double sDot = 0;
+                double cDot = 0;
+                for (int j = coefficientStart[c + 1] - 1; j > start; --j) {
+                    s    = s    * tc +                 sinCoefficients[j];
+                    co   = co   * tc +                 cosCoefficients[j];
+                    sDot = sDot * tc + (j - start) * sinCoefficients[j];
+                    cDot = cDot * tc + (j - start) * cosCoefficients[j];
+                }
+                s     = s  * tc + sinCoefficients[start];
+                co    = co * tc + cosCoefficients[start];
+                sDot /= Constants.JULIAN_CENTURY;
+                cDot /= Constants.JULIAN_CENTURY;
+                v[contributionSeries[c]] += (sDot - co * aDot) * sin + (cDot + s * aDot) * cos;
+            }
+
+        }
+
+        // add polynomial part
+        for (int i = 0; i < v.length; ++i) {
+            v[i] += polynomials[i].derivative(tc);
+        }
+        return v;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <S extends RealFieldElement<S>> S[] value(final FieldBodiesElements<S> elements) {
+
+        final S   tc = elements.getTC();
+        final S[] e  = extract(elements);
+
+        // non-polynomial part
+        final S[] v = MathArrays.buildArray(tc.getField(), polynomials.length);
+        for (int t = 0; t < argumentStart.length - 1; ++t) {
+
+            // argument
+            S a = tc.getField().getZero();
+            for (int k = argumentStart[t]; k < argumentStart[t + 1]; ++k) {
+                a = a.add(e[argumentElement[k]].multiply(argumentMultiplier[k]));
+            }
+            final S sin = a.sin();
+            final S cos = a.cos();
+
+            // contributions
+            for (int c = contributionStart[t]; c < contributionStart[t + 1]; ++c) {
+                S s  = tc.getField().getZero();
+                S co = tc.getField().getZero();
+                for (int j = coefficientStart[c + 1] - 1; j >= coefficientStart[c]; --j) {
+                    s  = s.multiply(tc).add(sinCoefficients[j]);
+                    co = co.multiply(tc).add(cosCoefficients[j]);
+                }
+                final int i = contributionSeries[c];
+                v[i] = v[i].add(s.multiply(sin).add(co.multiply(cos)));
+            }
+
+        }
+
+        // add polynomial part
+        for (int i = 0; i < v.length; ++i) {
+            v[i] = v[i].add(polynomials[i].value(tc));
+        }
+        return v;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <S extends RealFieldElement<S>> S[] derivative(final FieldBodiesElements<S> elements) {
+
+        final S   tc   = elements.getTC();
+        final S[] e    = extract(elements);
+        final S[] eDot = extractDerivatives(elements);
+
+        // non-polynomial part
+        final S[] v = MathArrays.buildArray(tc.getField(), polynomials.length);
+        for (int t = 0; t < argumentStart.length - 1; ++t) {
+
+            // argument
+            S a    = tc.getField().getZero();
+            S aDot = tc.getField().getZero();
+            for (int k = argumentStart[t]; k < argumentStart[t + 1]; ++k) {
+                a    = a.add(e[argumentElement[k]].multiply(argumentMultiplier[k]));
+                aDot = aDot.add(eDot[argumentElement[k]].multiply(argumentMultiplier[k]));
+            }
+            final S sin = a.sin();
+            final S cos = a.cos();
+
+            // contributions
+            for (int c = contributionStart[t]; c < contributionStart[t + 1]; ++c) {
+                final int start = coefficientStart[c];
+                S s    = tc.getField().getZero();
+                S co   = tc.getField().getZero();
+                S sDot = tc.getField().getZero();
+                S cDot = tc.getField().getZero();
+                for (int j = coefficientStart[c + 1] - 1; j > start; --j) {
+                    s    = s.multiply(tc).add(sinCoefficients[j]);
+                    co   = co.multiply(tc).add(cosCoefficients[j]);
+                    sDot = sDot.multiply(tc).add((j - start) * sinCoefficients[j]);
+                    cDot = cDot.multiply(tc).add((j - start) * cosCoefficients[j]);
+                }
+                s    = s.multiply(tc).add(sinCoefficients[start]);
+                co   = co.multiply(tc).add(cosCoefficients[start]);
+                sDot = sDot.divide(Constants.JULIAN_CENTURY);
+                cDot = cDot.divide(Constants.JULIAN_CENTURY);
+                final int i = contributionSeries[c];
+                v[i] = v[i].add(sDot.subtract(co.multiply(aDot)).multiply(sin).
+                                add(cDot.add(s.multiply(aDot)).multiply(cos)));
+            }
+
+        }
+
+        // add polynomial part
+        for (int i = 0; i < v.length; ++i) {
+            v[i] = v[i].add(polynomials[i].derivative(tc));
+        }
+        return v;
+
+    }
+
+    /** Extract the bodies elements in multipliers order.
+     * @param elements bodies elements
+     * @return elements values, in multipliers order
+     */
+    private static double[] extract(final BodiesElements elements) {
+        return new double[] {
+            elements.getGamma(),
+            elements.getL(), elements.getLPrime(), elements.getF(), elements.getD(), elements.getOmega(),
+            elements.getLMe(), elements.getLVe(), elements.getLE(), elements.getLMa(), elements.getLJu(),
+            elements.getLSa(), elements.getLUr(), elements.getLNe(), elements.getPa()
+        };
+    }
+
+    /** Extract the bodies elements derivatives in multipliers order.
+     * @param elements bodies elements
+     * @return elements derivatives, in multipliers order
+     */
+    private static double[] extractDerivatives(final BodiesElements elements) {
+        return new double[] {
+            elements.getGammaDot(),
+            elements.getLDot(), elements.getLPrimeDot(), elements.getFDot(), elements.getDDot(), elements.getOmegaDot(),
+            elements.getLMeDot(), elements.getLVeDot(), elements.getLEDot(), elements.getLMaDot(), elements.getLJuDot(),
+            elements.getLSaDot(), elements.getLUrDot(), elements.getLNeDot(), elements.getPaDot()
+        };
+    }
+
+    /** Extract the bodies elements in multipliers order.
+     * @param elements bodies elements
+     * @param <S> the type of the field elements
+     * @return elements values, in multipliers order
+     */
+    private static <S extends RealFieldElement<S>> S[] extract(final FieldBodiesElements<S> elements) {
+        final S[] e = MathArrays.buildArray(elements.getTC().getField(), NB_MULTIPLIERS);
+        e[0]  = elements.getGamma();
+        e[1]  = elements.getL();
+        e[2]  = elements.getLPrime();
+        e[3]  = elements.getF();
+        e[4]  = elements.getD();
+        e[5]  = elements.getOmega();
+        e[6]  = elements.getLMe();
+        e[7]  = elements.getLVe();
+        e[8]  = elements.getLE();
+        e[9]  = elements.getLMa();
+        e[10] = elements.getLJu();
+        e[11] = elements.getLSa();
+        e[12] = elements.getLUr();
+        e[13] = elements.getLNe();
+        e[14] = elements.getPa();
+        return e;
+    }
+
+    /** Extract the bodies elements derivatives in multipliers order.
+     * @param elements bodies elements
+     * @param <S> the type of the field elements
+     * @return elements derivatives, in multipliers order
+     */
+    private static <S extends RealFieldElement<S>> S[] extractDerivatives(final FieldBodiesElements<S> elements) {
+        final S[] eDot = MathArrays.buildArray(elements.getTC().getField(), NB_MULTIPLIERS);
+        eDot[0]  = elements.getGammaDot();
+        eDot[1]  = elements.getLDot();
+        eDot[2]  = elements.getLPrimeDot();
+        eDot[3]  = elements.getFDot();
+        eDot[4]  = elements.getDDot();
+        eDot[5]  = elements.getOmegaDot();
+        eDot[6]  = elements.getLMeDot();
+        eDot[7]  = elements.getLVeDot();
+        eDot[8]  = elements.getLEDot();
+        eDot[9]  = elements.getLMaDot();
+        eDot[10] = elements.getLJuDot();
+        eDot[11] = elements.getLSaDot();
+        eDot[12] = elements.getLUrDot();
+        eDot[13] = elements.getLNeDot();
+        eDot[14] = elements.getPaDot();
+        return eDot;
+    }
+
+    /** Growable array of primitive integers. */
+    private static class IntArray {
+
+        /** Storage. */
+        private int[] data = new int[16];
+
+        /** Number of elements. */
+        private int size;
+
+        /** Add an element.
+         * @param value value to add
+         */
+        void add(final int value) {
+            if (size == data.length) {
+                final int[] extended = new int[2 * data.length];
+                System.arraycopy(data, 0, extended, 0, size);
+                data = extended;
+            }
+            data[size++] = value;
+        }
+
+        /** Get the number of elements.
+         * @return number of elements
+         */
+        int size() {
+            return size;
+        }
+
+        /** Get a trimmed copy of the elements.
+         * @return trimmed copy of the elements
+         */
+        int[] toArray() {
+            final int[] trimmed = new int[size];
+            System.arraycopy(data, 0, trimmed, 0, size);
+            return trimmed;
+        }
+
+    }
+
+    /** Growable array of primitive doubles. */
+    private static class DoubleArray {
+
+        /** Storage. */
+        private double[] data = new double[16];
+
+        /** Number of elements. */
+        private int size;
+
+        /** Add an element.
+         * @param value value to add
+         */
+        void add(final double value) {
+            if (size == data.length) {
+                final double[] extended = new double[2 * data.length];
+                System.arraycopy(data, 0, extended, 0, size);
+                data = extended;
+            }
+            data[size++] = value;
+        }
+
+        /** Get the number of elements.
+         * @return number of elements
+         */
+        int size() {
+            return size;
+        }
+
+        /** Get a trimmed copy of the elements.
+         * @return trimmed copy of the elements
+         */
+        double[] toArray() {
+            final double[] trimmed = new double[size];
+            System.arraycopy(data, 0, trimmed, 0, size);
+            return trimmed;
+        }
+
+    }
+
+}
@@ -163,48 +163,10 @@ public class PoissonSeries {
     public static CompiledSeries compile(final PoissonSeries... poissonSeries) {
 
         // store all polynomials
-        final PolynomialNutation[] polynomials = new PolynomialNutation[poissonSeries.length];
-        for (int i = 0; i < polynomials.length; ++i) {
-            polynomials[i] = poissonSeries[i].polynomial;
-        }
+        final PolynomialNutation[] polynomials = getPolynomials(poissonSeries);
 
         // gather all series terms
-        final Map<Long, SeriesTerm> joinedMap = new HashMap<Long, SeriesTerm>();
-        for (final PoissonSeries ps : poissonSeries) {
-            for (Map.Entry<Long, SeriesTerm> entry : ps.series.entrySet()) {
-                final long key = entry.getKey();
-                if (!joinedMap.containsKey(key)) {
-
-                    // retrieve all Delaunay and planetary multipliers from the key
-                    final int[] m = NutationCodec.decode(key);
-
-                    // prepare a new term, ready to handle the required dimension
-                    final SeriesTerm term =
-                            SeriesTerm.buildTerm(m[0],
-                                                 m[1], m[2], m[3], m[4], m[5],
-                                                 m[6], m[7], m[8], m[9], m[10], m[11], m[12], m[13], m[14]);
-                    term.add(poissonSeries.length - 1, -1, Double.NaN, Double.NaN);
-
-                    // store it
-                    joinedMap.put(key, term);
-
-                }
-            }
-        }
-
-        // join series by sharing terms, in order to speed up evaluation
-        // which is dominated by the computation of sine/cosine in each term
-        for (int i = 0; i < poissonSeries.length; ++i) {
-            for (final Map.Entry<Long, SeriesTerm> entry : poissonSeries[i].series.entrySet()) {
-                final SeriesTerm singleTerm = entry.getValue();
-                final SeriesTerm joinedTerm = joinedMap.get(entry.getKey());
-                for (int degree = 0; degree <= singleTerm.getDegree(0); ++degree) {
-                    joinedTerm.add(i, degree,
-                                   singleTerm.getSinCoeff(0, degree),
-                                   singleTerm.getCosCoeff(0, degree));
-                }
-            }
-        }
+        final Map<Long, SeriesTerm> joinedMap = join(poissonSeries);
 
         // use a single array for faster access
         final SeriesTerm[] joinedTerms = new SeriesTerm[joinedMap.size()];
@@ -316,4 +278,87 @@ public class PoissonSeries {
 
     }
 
+    /** Join several nutation series, for fast simultaneous evaluation, with truncation.
+     * <p>
+     * The returned evaluator stores all terms in packed primitive arrays sorted
+     * by multipliers patterns, and it ignores the contributions of terms whose
+     * amplitude is below the {@code truncation} threshold. The amplitude of a
+     * contribution is the sum of the norms of its (sine, cosine) coefficients
+     * pairs for all degrees, hence it bounds the contribution for dates within
+     * one Julian century of the reference epoch. Users can therefore trade accuracy
+     * for speed explicitly, the error on each series being bounded by the sum of
+     * the amplitudes of the ignored contributions.
+     * </p>
+     * <p>
+     * A truncation threshold set to 0 keeps all terms.
+     * </p>
+     * @param truncation amplitude threshold below which terms contributions are ignored
+     * (in the same unit as the series values)
+     * @param poissonSeries Poisson series to join
+     * @return a single function that evaluates all series together
+     * @since 9.3
+     */
+    public static CompiledSeries compile(final double truncation, final PoissonSeries... poissonSeries) {
+        return new PackedCompiledSeries(getPolynomials(poissonSeries), join(poissonSeries), truncation);
+    }
+
+    /** Get the polynomial parts of several series.
+     * @param poissonSeries Poisson series
+     * @return polynomial parts of the series
+     */
+    private static PolynomialNutation[] getPolynomials(final PoissonSeries... poissonSeries) {
+        final PolynomialNutation[] polynomials = new PolynomialNutation[poissonSeries.length];
+        for (int i = 0; i < polynomials.length; ++i) {
+            polynomials[i] = poissonSeries[i].polynomial;
+        }
+        return polynomials;
+    }
+
+    /** Gather the terms of several series.
+     * @param poissonSeries Poisson series
+     * @return terms shared between all series, indexed by multipliers keys
+     */
+    private static Map<Long, SeriesTerm> join(final PoissonSeries... poissonSeries) {
+
+        final Map<Long, SeriesTerm> joinedMap = new HashMap<Long, SeriesTerm>();
+        for (final PoissonSeries ps : poissonSeries) {
+            for (Map.Entry<Long, SeriesTerm> entry : ps.series.entrySet()) {
+                final long key = entry.getKey();
+                if (!joinedMap.containsKey(key)) {
+
+                    // retrieve all Delaunay and planetary multipliers from the key
+                    final int[] m = NutationCodec.decode(key);
+
+                    // prepare a new term, ready to handle the required dimension
+                    final SeriesTerm term =
+                            SeriesTerm.buildTerm(m[0],
+                                                 m[1], m[2], m[3], m[4], m[5],
+                                                 m[6], m[7], m[8], m[9], m[10], m[11], m[12], m[13], m[14]);
+                    term.add(poissonSeries.length - 1, -1, Double.NaN, Double.NaN);
+
+                    // store it
+                    joinedMap.put(key, term);
+
+                }
+            }
+        }
+
+        // join series by sharing terms, in order to speed up evaluation
+        // which is dominated by the computation of sine/cosine in each term
+        for (int i = 0; i < poissonSeries.length; ++i) {
+            for (final Map.Entry<Long, SeriesTerm> entry : poissonSeries[i].series.entrySet()) {
+                final SeriesTerm singleTerm = entry.getValue();
+                final SeriesTerm joinedTerm = joinedMap.get(entry.getKey());
+                for (int degree = 0; degree <= singleTerm.getDegree(0); ++degree) {
+                    joinedTerm.add(i, degree,
+                                   singleTerm.getSinCoeff(0, degree),
+                                   singleTerm.getCosCoeff(0, degree));
+                }
+            }
+        }
+
+        return joinedMap;
+
+    }
+
 }
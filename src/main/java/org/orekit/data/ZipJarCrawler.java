@@ -24,7 +24,9 @@ import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -55,6 +57,12 @@ import org.orekit.errors.OrekitException;
  * This is a simple application of the <code>visitor</code> design pattern for
  * zip entries browsing.
  * </p>
+ * <p>
+ * For archives on the filesystem, the names of the entries are indexed during the
+ * first complete browsing. As long as the archive modification time and size do not
+ * change, the index is used to avoid opening and decompressing the archive when none
+ * of its entries can be supported by the data loader.
+ * </p>
  * @see DataProvidersManager
  * @author Luc Maisonobe
  */
@@ -75,6 +83,11 @@ public class ZipJarCrawler implements DataProvider {
     /** Prefix name of the zip. */
     private final String name;
 
+    /** Index of the entries names (null if not available yet).
+     * @since 9.3
+     */
+    private volatile Index index;
+
     /** Build a zip crawler for an archive file on filesystem.
      * @param file zip file to browse
      */
@@ -138,6 +151,15 @@ public class ZipJarCrawler implements DataProvider {
     public boolean feed(final Pattern supported, final DataLoader visitor)
         throws OrekitException {
 
+        // check if the index proves there is nothing to load
+        final long lastModified = (file == null) ? 0L : file.lastModified();
+        final long length       = (file == null) ? 0L : file.length();
+        final Index current     = index;
+        if (current != null && current.lastModified == lastModified && current.length == length &&
+            !current.mayMatch(supported)) {
+            return false;
+        }
+
         try {
 
             // open the raw data stream
@@ -151,7 +173,10 @@ public class ZipJarCrawler implements DataProvider {
                     archive = new Archive(url.openConnection().getInputStream());
                 }
 
-                return feed(name, supported, visitor, archive);
+                final Index newIndex = (file == null) ? null : new Index(lastModified, length);
+                final boolean loaded = feed(name, supported, visitor, archive, newIndex);
+                index = newIndex;
+                return loaded;
 
             } finally {
                 if (archive != null) {
@@ -172,6 +197,7 @@ public class ZipJarCrawler implements DataProvider {
      * @param supported pattern for file names supported by the visitor
      * @param visitor data file visitor to use
      * @param archive archive to read
+     * @param newIndex index to populate with entries names (null if no index is built)
      * @exception OrekitException if some data is missing, duplicated
      * or can't be read
      * @return true if something has been loaded
@@ -179,7 +205,8 @@ public class ZipJarCrawler implements DataProvider {
      * @exception ParseException if data cannot be read
      */
     private boolean feed(final String prefix, final Pattern supported,
-                         final DataLoader visitor, final Archive archive)
+                         final DataLoader visitor, final Archive archive,
+                         final Index newIndex)
         throws OrekitException, IOException, ParseException {
 
         OrekitException delayedException = null;
@@ -190,6 +217,10 @@ public class ZipJarCrawler implements DataProvider {
 
             try {
 
+                if (newIndex != null && !entry.isDirectory()) {
+                    newIndex.add(entry.getName());
+                }
+
                 if (visitor.stillAcceptsData() && !entry.isDirectory()) {
 
                     final String fullName = prefix + "!" + entry.getName();
@@ -197,16 +228,12 @@ public class ZipJarCrawler implements DataProvider {
                     if (ZIP_ARCHIVE_PATTERN.matcher(entry.getName()).matches()) {
 
                         // recurse inside the archive entry
-                        loaded = feed(fullName, supported, visitor, new Archive(entry)) || loaded;
+                        loaded = feed(fullName, supported, visitor, new Archive(entry), null) || loaded;
 
                     } else {
 
                         // remove leading directories
-                        String entryName = entry.getName();
-                        final int lastSlash = entryName.lastIndexOf('/');
-                        if (lastSlash >= 0) {
-                            entryName = entryName.substring(lastSlash + 1);
-                        }
+                        final String entryName = baseName(entry.getName());
 
                         // apply all registered filters
                         NamedData data = new NamedData(entryName, () -> entry);
@@ -239,6 +266,80 @@ public class ZipJarCrawler implements DataProvider {
 
     }
 
+    /** Remove leading directories from an entry name.
+     * @param entryName entry name
+     * @return name without leading directories
+     */
+    private static String baseName(final String entryName) {
+        final int lastSlash = entryName.lastIndexOf('/');
+        return (lastSlash >= 0) ? entryName.substring(lastSlash + 1) : entryName;
+    }
+
+    /** Index of the entries names of an archive on filesystem.
+     * @since 9.3
+     */
+    private static class Index {
+
+        /** Modification time of the archive when it was indexed. */
+        private final long lastModified;
+
+        /** Size of the archive when it was indexed. */
+        private final long length;
+
+        /** Names of the data entries, without leading directories. */
+        private final List<String> names;
+
+        /** Indicator for nested archives, which are not indexed. */
+        private boolean nested;
+
+        /** Simple constructor.
+         * @param lastModified modification time of the archive
+         * @param length size of the archive
+         */
+        Index(final long lastModified, final long length) {
+            this.lastModified = lastModified;
+            this.length       = length;
+            this.names        = new ArrayList<>();
+            this.nested       = false;
+        }
+
+        /** Add an entry name.
+         * @param entryName name of the entry
+         */
+        void add(final String entryName) {
+            if (ZIP_ARCHIVE_PATTERN.matcher(entryName).matches()) {
+                nested = true;
+            } else {
+                names.add(baseName(entryName));
+            }
+        }
+
+        /** Check if some entry may be supported.
+         * @param supported pattern for file names supported by the visitor
+         * @return true if some entry may be supported
+         */
+        boolean mayMatch(final Pattern supported) {
+            if (nested) {
+                return true;
+            }
+            for (final String entryName : names) {
+                try {
+                    // filters are applied on names only, streams are not opened here
+                    final NamedData data =
+                            DataProvidersManager.getInstance().applyAllFilters(new NamedData(entryName, () -> null));
+                    if (supported.matcher(data.getName()).matches()) {
+                        return true;
+                    }
+                } catch (IOException ioe) {
+                    // be conservative, the archive will be browsed
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
     /** Local class wrapping a zip archive. */
     private static final class Archive implements Closeable, Iterable<Archive.EntryStream> {
 
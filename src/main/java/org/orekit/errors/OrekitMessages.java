@@ -218,7 +218,10 @@ public enum OrekitMessages implements Localizable {
     DIMENSION_INCONSISTENT_WITH_PARAMETERS("dimension {0} is inconsistent with parameters list: {1}"),
     NOT_A_SUPPORTED_UNIX_COMPRESSED_FILE("file {0} is not a supported Unix-compressed file"),
     UNEXPECTED_END_OF_FILE("unexpected end of file {0}"),
-    CORRUPTED_FILE("file {0} is corrupted");
+    CORRUPTED_FILE("file {0} is corrupted"),
+    UNKNOWN_FRAME("unknown frame {0}"),
+    UNABLE_TO_FIT_CHEBYSHEV_POLYNOMIALS("unable to fit Chebyshev polynomials within tolerance at {0}, segment duration {1} s is below minimum {2} s"),
+    NO_ATTITUDE_IN_EPHEMERIS_SEGMENT("no attitude available for object {0} and no attitude provider set");
 
 
     // CHECKSTYLE: resume JavadocVariable check
@@ -0,0 +1,179 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.estimation.leastsquares;
+
+import org.orekit.bodies.CelestialBody;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.frames.EOPHistory;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.time.UT1Scale;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Read-only context shared by several orbit determination problems.
+ * <p>
+ * Loading Earth Orientation Parameters, celestial bodies and gravity fields is costly.
+ * This class retrieves the UT1 time scale (and the Earth Orientation Parameters it
+ * holds), the Earth frame and the celestial bodies from the factories caches, so they
+ * are the same instances as the ones used elsewhere in the application.
+ * {@link GravityFieldFactory} reads the gravity field files again at each call, so the
+ * gravity field is loaded once, on the thread that builds the context. All these data
+ * can then be shared by all the problems run by a {@link BatchLSParallelizer}.
+ * </p>
+ * <p>
+ * All the objects provided by this class are either immutable or internally
+ * synchronized, so they can be used by several estimators at the same time.
+ * Force models, propagator builders and measurements on the other hand must be
+ * built independently for each problem.
+ * </p>
+ * @see BatchLSParallelizer
+ * @since 9.3
+ */
+public class BatchLSContext {
+
+    /** IERS conventions. */
+    private final IERSConventions conventions;
+
+    /** Earth Orientation Parameters. */
+    private final EOPHistory eopHistory;
+
+    /** UT1 time scale. */
+    private final UT1Scale ut1;
+
+    /** Earth body frame. */
+    private final Frame itrf;
+
+    /** Earth shape. */
+    private final OneAxisEllipsoid earth;
+
+    /** Sun. */
+    private final CelestialBody sun;
+
+    /** Moon. */
+    private final CelestialBody moon;
+
+    /** Gravity field (null if not loaded). */
+    private final NormalizedSphericalHarmonicsProvider gravityField;
+
+    /** Build a context without gravity field.
+     * @param conventions IERS conventions to use
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @exception OrekitException if some data cannot be loaded
+     */
+    public BatchLSContext(final IERSConventions conventions, final boolean simpleEOP)
+        throws OrekitException {
+        this(conventions, simpleEOP, null);
+    }
+
+    /** Build a context with a gravity field.
+     * @param conventions IERS conventions to use
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param degree maximal degree of the gravity field
+     * @param order maximal order of the gravity field
+     * @exception OrekitException if some data cannot be loaded
+     * @see GravityFieldFactory#getNormalizedProvider(int, int)
+     */
+    public BatchLSContext(final IERSConventions conventions, final boolean simpleEOP,
+                          final int degree, final int order)
+        throws OrekitException {
+        this(conventions, simpleEOP, GravityFieldFactory.getNormalizedProvider(degree, order));
+    }
+
+    /** Build a context with a user-provided gravity field.
+     * @param conventions IERS conventions to use
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param gravityField gravity field (may be null), it must be safe for concurrent use
+     * @exception OrekitException if some data cannot be loaded
+     */
+    public BatchLSContext(final IERSConventions conventions, final boolean simpleEOP,
+                          final NormalizedSphericalHarmonicsProvider gravityField)
+        throws OrekitException {
+        this.conventions  = conventions;
+        this.ut1          = TimeScalesFactory.getUT1(conventions, simpleEOP);
+        this.eopHistory   = ut1.getEOPHistory();
+        this.itrf         = FramesFactory.getITRF(conventions, simpleEOP);
+        this.earth        = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                 Constants.WGS84_EARTH_FLATTENING,
+                                                 itrf);
+        this.sun          = CelestialBodyFactory.getSun();
+        this.moon         = CelestialBodyFactory.getMoon();
+        this.gravityField = gravityField;
+    }
+
+    /** Get the IERS conventions.
+     * @return IERS conventions
+     */
+    public IERSConventions getConventions() {
+        return conventions;
+    }
+
+    /** Get the Earth Orientation Parameters.
+     * @return Earth Orientation Parameters used by the {@link #getUT1() UT1 time scale}
+     */
+    public EOPHistory getEOPHistory() {
+        return eopHistory;
+    }
+
+    /** Get the UT1 time scale.
+     * @return UT1 time scale
+     */
+    public UT1Scale getUT1() {
+        return ut1;
+    }
+
+    /** Get the Earth body frame.
+     * @return Earth body frame
+     */
+    public Frame getITRF() {
+        return itrf;
+    }
+
+    /** Get the Earth shape.
+     * @return WGS84 ellipsoid, attached to {@link #getITRF() Earth body frame}
+     */
+    public OneAxisEllipsoid getEarth() {
+        return earth;
+    }
+
+    /** Get the Sun.
+     * @return Sun
+     */
+    public CelestialBody getSun() {
+        return sun;
+    }
+
+    /** Get the Moon.
+     * @return Moon
+     */
+    public CelestialBody getMoon() {
+        return moon;
+    }
+
+    /** Get the gravity field.
+     * @return gravity field (null if context was built without gravity field)
+     */
+    public NormalizedSphericalHarmonicsProvider getGravityField() {
+        return gravityField;
+    }
+
+}
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
@@ -89,6 +90,9 @@ public class BatchLSEstimator {
     /** Counter for the iterations. */
     private Incrementor iterationsCounter;
 
+    /** Executor for measurements evaluation (null for serial evaluation). */
+    private ExecutorService measurementsExecutor;
+
     /** Simple constructor.
      * <p>
      * If multiple {@link PropagatorBuilder propagator builders} are set up,
@@ -140,6 +144,43 @@ public class BatchLSEstimator {
         this.observer = observer;
     }
 
+    /** Set the executor for parallel measurements evaluation.
+     * <p>
+     * By default, measurements are evaluated serially, in the propagation thread,
+     * as the propagation reaches their dates. If an executor is set, all the
+     * measurements are first paired with their interpolated states during
+     * propagation, and then estimated in parallel by the executor in one batch
+     * once propagation ends, split into chronologically ordered chunks, one per
+     * executor thread. The estimated measurements are gathered back in the same
+     * order as in serial evaluation, so the residuals and Jacobians are identical
+     * to the serial ones. This is mainly useful when there
+     * are many measurements and estimation modifiers (tropospheric, ionospheric...)
+     * are costly.
+     * </p>
+     * <p>
+     * The measurements and their modifiers must be safe for concurrent use when
+     * this option is used. The executor is not shut down by the estimator, its
+     * lifecycle is managed by the caller.
+     * </p>
+     * @param measurementsExecutor executor to use for measurements evaluation
+     * (null to evaluate measurements serially)
+     * @see #getMeasurementsExecutor()
+     * @since 9.3
+     */
+    public void setMeasurementsExecutor(final ExecutorService measurementsExecutor) {
+        this.measurementsExecutor = measurementsExecutor;
+    }
+
+    /** Get the executor for parallel measurements evaluation.
+     * @return executor used for measurements evaluation
+     * (null if measurements are evaluated serially)
+     * @see #setMeasurementsExecutor(ExecutorService)
+     * @since 9.3
+     */
+    public ExecutorService getMeasurementsExecutor() {
+        return measurementsExecutor;
+    }
+
     /** Add a measurement.
      * @param measurement measurement to add
      * @exception OrekitException if the measurement has a parameter
@@ -396,6 +437,7 @@ public class BatchLSEstimator {
         };
         final Model model = new Model(builders, measurements, estimatedMeasurementsParameters,
                                       modelObserver);
+        model.setMeasurementsExecutor(measurementsExecutor);
         lsBuilder.model(model);
 
         // add a validator for orbital parameters
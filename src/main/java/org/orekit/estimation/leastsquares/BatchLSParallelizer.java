@@ -0,0 +1,257 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.estimation.leastsquares;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.numerical.NumericalPropagator;
+
+/** This class runs many independent orbit determination problems in parallel.
+ * <p>
+ * Determining the orbits of a whole catalog of uncorrelated tracks implies running
+ * one {@link BatchLSEstimator} per track. This class runs all these estimations on
+ * a thread pool, all problems sharing the same read-only {@link BatchLSContext context}
+ * (Earth Orientation Parameters, celestial bodies, gravity field), which is loaded
+ * only once.
+ * </p>
+ * <p>
+ * Each {@link BatchLSProblem problem} may have several starts. The starts of one problem
+ * are run sequentially by the same thread, and the converged start with the lowest RMS
+ * is kept. A start that fails to converge does not prevent the other starts nor the other
+ * problems to be run, its failure is reported in the problem {@link BatchLSResult result}.
+ * </p>
+ * <p>
+ * As with {@link org.orekit.propagation.PropagatorsParallelizer}, care must be taken so
+ * that all estimators can be run in a multi-thread context: the propagator builders, force
+ * models, measurements and modifiers must be built independently for each estimator.
+ * </p>
+ * @see BatchLSProblem
+ * @see BatchLSResult
+ * @since 9.3
+ */
+public class BatchLSParallelizer {
+
+    /** Shared context. */
+    private final BatchLSContext context;
+
+    /** Problems to solve. */
+    private final List<BatchLSProblem> problems;
+
+    /** User-managed executor (null if a new thread pool is created at each estimation). */
+    private ExecutorService executor;
+
+    /** Observer for progress (may be null). */
+    private BatchLSProgressObserver observer;
+
+    /** Number of problems finished in current estimation. */
+    private int finished;
+
+    /** Simple constructor.
+     * @param context shared context
+     * @param problems problems to solve
+     */
+    public BatchLSParallelizer(final BatchLSContext context, final List<? extends BatchLSProblem> problems) {
+        this.context  = context;
+        this.problems = new ArrayList<>(problems);
+        this.executor = null;
+        this.observer = null;
+    }
+
+    /** Get the shared context.
+     * @return shared context
+     */
+    public BatchLSContext getContext() {
+        return context;
+    }
+
+    /** Get an unmodifiable list of the problems.
+     * @return problems to solve
+     */
+    public List<BatchLSProblem> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    /** Set the executor running the problems.
+     * <p>
+     * By default, a new fixed thread pool with one thread per available
+     * processor is created and shut down at each call to {@link #estimate()}.
+     * Setting up a user-managed executor allows to reuse threads across calls.
+     * The executor is never shut down by the parallelizer.
+     * </p>
+     * @param executor executor to use (null to create a new thread pool at each estimation)
+     * @see #getExecutor()
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /** Get the executor running the problems.
+     * @return executor running the problems (null if a new thread pool
+     * is created at each estimation)
+     * @see #setExecutor(ExecutorService)
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /** Set an observer for progress.
+     * @param observer observer to be notified at the start and end of each problem
+     * (null to remove the observer)
+     * @see #getProgressObserver()
+     */
+    public void setProgressObserver(final BatchLSProgressObserver observer) {
+        this.observer = observer;
+    }
+
+    /** Get the observer for progress.
+     * @return observer for progress (null if no observer has been set)
+     * @see #setProgressObserver(BatchLSProgressObserver)
+     */
+    public BatchLSProgressObserver getProgressObserver() {
+        return observer;
+    }
+
+    /** Solve all the problems.
+     * <p>
+     * Starts that cannot be created or that fail to converge are reported in
+     * the {@link BatchLSResult#getFailures() results}, they do not stop the
+     * other problems.
+     * </p>
+     * @return results of all problems, in problems order
+     * @exception OrekitException if the computation is interrupted
+     */
+    public List<BatchLSResult> estimate() throws OrekitException {
+
+        finished = 0;
+
+        final List<Callable<BatchLSResult>> tasks = new ArrayList<>(problems.size());
+        for (int i = 0; i < problems.size(); ++i) {
+            final int problemIndex = i;
+            tasks.add(() -> solve(problemIndex));
+        }
+
+        final ExecutorService executorService =
+                        (executor == null) ?
+                        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()) :
+                        executor;
+        try {
+            final List<BatchLSResult> results = new ArrayList<>(problems.size());
+            for (final Future<BatchLSResult> future : executorService.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ee) {
+                    manageException(ee);
+                }
+            }
+            return results;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new OrekitException(ie, LocalizedCoreFormats.SIMPLE_MESSAGE, ie.getLocalizedMessage());
+        } finally {
+            if (executor == null) {
+                executorService.shutdownNow();
+            }
+        }
+
+    }
+
+    /** Solve one problem.
+     * @param problemIndex index of the problem
+     * @return result of the problem
+     */
+    private BatchLSResult solve(final int problemIndex) {
+
+        final long start = System.nanoTime();
+        notifyStart(problemIndex);
+
+        final BatchLSProblem        problem      = problems.get(problemIndex);
+        final int                   startsNumber = problem.getStartsNumber();
+        final List<OrekitException> failures     = new ArrayList<>();
+        BatchLSEstimator      best        = null;
+        NumericalPropagator[] propagators = null;
+        int                   bestStart   = -1;
+        int                   iterations  = 0;
+        int                   evaluations = 0;
+        for (int i = 0; i < startsNumber; ++i) {
+            try {
+                final BatchLSEstimator      estimator = problem.createEstimator(context, i);
+                final NumericalPropagator[] estimated = estimator.estimate();
+                iterations  += estimator.getIterationsCount();
+                evaluations += estimator.getEvaluationsCount();
+                if (best == null || estimator.getOptimum().getRMS() < best.getOptimum().getRMS()) {
+                    best        = estimator;
+                    propagators = estimated;
+                    bestStart   = i;
+                }
+            } catch (OrekitException oe) {
+                // this start did not converge, try the other ones
+                failures.add(oe);
+            }
+        }
+
+        final BatchLSResult result = new BatchLSResult(problemIndex, bestStart, best, propagators,
+                                                       startsNumber, iterations, evaluations, failures,
+                                                       1.0e-9 * (System.nanoTime() - start));
+        notifyFinish(result);
+        return result;
+
+    }
+
+    /** Notify the observer that a problem starts.
+     * @param problemIndex index of the problem
+     */
+    private synchronized void notifyStart(final int problemIndex) {
+        if (observer != null) {
+            observer.problemStarted(problemIndex, problems.size());
+        }
+    }
+
+    /** Notify the observer that a problem is finished.
+     * @param result result of the problem
+     */
+    private synchronized void notifyFinish(final BatchLSResult result) {
+        ++finished;
+        if (observer != null) {
+            observer.problemFinished(result, finished, problems.size());
+        }
+    }
+
+    /** Manage an exception thrown by a problem task.
+     * @param exception exception to manage
+     * @exception OrekitException always thrown, wrapping or unwrapping the cause
+     */
+    private void manageException(final ExecutionException exception)
+        throws OrekitException {
+        if (exception.getCause() instanceof OrekitException) {
+            // unwrap the original exception
+            throw (OrekitException) exception.getCause();
+        } else {
+            throw new OrekitException(exception.getCause(),
+                                      LocalizedCoreFormats.SIMPLE_MESSAGE, exception.getLocalizedMessage());
+        }
+    }
+
+}
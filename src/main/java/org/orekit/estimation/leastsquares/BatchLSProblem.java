@@ -0,0 +1,63 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.estimation.leastsquares;
+
+import org.orekit.errors.OrekitException;
+
+/** Factory for the estimators of one orbit determination problem.
+ * <p>
+ * This interface is intended to be implemented by users to set up the
+ * problems run by a {@link BatchLSParallelizer}. A problem may have several
+ * starts, i.e. several initial guesses, each one leading to an independent
+ * estimation. The best converged start is kept.
+ * </p>
+ * <p>
+ * The estimators are created in the thread that runs the problem, just before
+ * being used. The propagator builders, force models and measurements must
+ * therefore be created independently for each estimator, only the objects from
+ * the shared {@link BatchLSContext context} can be used by several problems.
+ * </p>
+ * @see BatchLSParallelizer
+ * @since 9.3
+ */
+@FunctionalInterface
+public interface BatchLSProblem {
+
+    /** Get the number of starts of the problem.
+     * <p>
+     * The default implementation returns 1.
+     * </p>
+     * @return number of starts of the problem
+     */
+    default int getStartsNumber() {
+        return 1;
+    }
+
+    /** Create the estimator for one start.
+     * <p>
+     * The estimator must be fully configured (measurements, convergence
+     * settings, {@link BatchLSObserver observer} if needed).
+     * </p>
+     * @param context shared context
+     * @param start index of the start, between 0 and {@link #getStartsNumber()} - 1
+     * @return estimator for the specified start
+     * @exception OrekitException if estimator cannot be created
+     */
+    BatchLSEstimator createEstimator(BatchLSContext context, int start)
+        throws OrekitException;
+
+}
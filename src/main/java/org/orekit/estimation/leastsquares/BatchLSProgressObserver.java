@@ -0,0 +1,51 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.estimation.leastsquares;
+
+/** Observer for {@link BatchLSParallelizer} progress.
+ * <p>
+ * This interface is intended to be implemented by users to monitor the
+ * progress of a set of orbit determination problems. Notifications are
+ * serialized by the parallelizer, so implementations do not need to be
+ * thread-safe. Iterations within each problem can be monitored by setting
+ * up a {@link BatchLSObserver} in the estimators created by {@link
+ * BatchLSProblem#createEstimator(BatchLSContext, int)}.
+ * </p>
+ * @see BatchLSParallelizer#setProgressObserver(BatchLSProgressObserver)
+ * @since 9.3
+ */
+public interface BatchLSProgressObserver {
+
+    /** Notification callback for the start of one problem.
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     * @param problemIndex index of the problem
+     * @param problemsNumber total number of problems
+     */
+    default void problemStarted(int problemIndex, int problemsNumber) {
+        // nothing by default
+    }
+
+    /** Notification callback for the end of one problem.
+     * @param result result of the problem
+     * @param finishedNumber number of problems finished so far, including this one
+     * @param problemsNumber total number of problems
+     */
+    void problemFinished(BatchLSResult result, int finishedNumber, int problemsNumber);
+
+}
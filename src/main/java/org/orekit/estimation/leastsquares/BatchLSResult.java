@@ -0,0 +1,173 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.estimation.leastsquares;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.numerical.NumericalPropagator;
+
+/** Result of one orbit determination problem run by a {@link BatchLSParallelizer}.
+ * <p>
+ * Instances of this class are immutable. They are created by {@link BatchLSParallelizer}.
+ * </p>
+ * @see BatchLSParallelizer
+ * @since 9.3
+ */
+public class BatchLSResult {
+
+    /** Index of the problem. */
+    private final int problemIndex;
+
+    /** Index of the best start (-1 if no start converged). */
+    private final int bestStart;
+
+    /** Estimator for the best start (null if no start converged). */
+    private final BatchLSEstimator estimator;
+
+    /** Propagators for the best start (null if no start converged). */
+    private final NumericalPropagator[] propagators;
+
+    /** Number of starts. */
+    private final int startsNumber;
+
+    /** Total number of iterations of converged starts. */
+    private final int iterations;
+
+    /** Total number of evaluations of converged starts. */
+    private final int evaluations;
+
+    /** Failures of the starts that did not converge. */
+    private final List<OrekitException> failures;
+
+    /** Computing time (s). */
+    private final double computingTime;
+
+    /** Simple constructor.
+     * @param problemIndex index of the problem
+     * @param bestStart index of the best start (-1 if no start converged)
+     * @param estimator estimator for the best start (null if no start converged)
+     * @param propagators propagators for the best start (null if no start converged)
+     * @param startsNumber number of starts
+     * @param iterations total number of iterations of converged starts
+     * @param evaluations total number of evaluations of converged starts
+     * @param failures failures of the starts that did not converge
+     * @param computingTime computing time (s)
+     */
+    BatchLSResult(final int problemIndex, final int bestStart,
+                  final BatchLSEstimator estimator, final NumericalPropagator[] propagators,
+                  final int startsNumber, final int iterations, final int evaluations,
+                  final List<OrekitException> failures, final double computingTime) {
+        this.problemIndex  = problemIndex;
+        this.bestStart     = bestStart;
+        this.estimator     = estimator;
+        this.propagators   = propagators;
+        this.startsNumber  = startsNumber;
+        this.iterations    = iterations;
+        this.evaluations   = evaluations;
+        this.failures      = Collections.unmodifiableList(failures);
+        this.computingTime = computingTime;
+    }
+
+    /** Get the index of the problem in the list provided to the parallelizer.
+     * @return index of the problem
+     */
+    public int getProblemIndex() {
+        return problemIndex;
+    }
+
+    /** Check if at least one start converged.
+     * @return true if at least one start converged
+     */
+    public boolean isConverged() {
+        return estimator != null;
+    }
+
+    /** Get the index of the best start.
+     * <p>
+     * The best start is the converged start with the lowest RMS.
+     * </p>
+     * @return index of the best start, -1 if no start converged
+     */
+    public int getBestStart() {
+        return bestStart;
+    }
+
+    /** Get the estimator of the best start.
+     * <p>
+     * The estimator gives access to the estimated parameters, the
+     * {@link BatchLSEstimator#getOptimum() optimum} and the covariances.
+     * </p>
+     * @return estimator of the best start, null if no start converged
+     */
+    public BatchLSEstimator getEstimator() {
+        return estimator;
+    }
+
+    /** Get the propagators configured with the estimated orbits of the best start.
+     * @return propagators configured with the estimated orbits,
+     * null if no start converged
+     * @see BatchLSEstimator#estimate()
+     */
+    public NumericalPropagator[] getPropagators() {
+        return propagators == null ? null : propagators.clone();
+    }
+
+    /** Get the RMS of the best start.
+     * @return RMS of the best start, NaN if no start converged
+     */
+    public double getRMS() {
+        return estimator == null ? Double.NaN : estimator.getOptimum().getRMS();
+    }
+
+    /** Get the number of starts.
+     * @return number of starts
+     */
+    public int getStartsNumber() {
+        return startsNumber;
+    }
+
+    /** Get the total number of iterations.
+     * @return total number of iterations of converged starts
+     */
+    public int getIterationsCount() {
+        return iterations;
+    }
+
+    /** Get the total number of evaluations.
+     * @return total number of evaluations of converged starts
+     */
+    public int getEvaluationsCount() {
+        return evaluations;
+    }
+
+    /** Get the failures of the starts that did not converge.
+     * @return unmodifiable list of failures, in starts order
+     */
+    public List<OrekitException> getFailures() {
+        return failures;
+    }
+
+    /** Get the computing time.
+     * @return wall-clock time spent on all starts of the problem (s)
+     */
+    public double getComputingTime() {
+        return computingTime;
+    }
+
+}
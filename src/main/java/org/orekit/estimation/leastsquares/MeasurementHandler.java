@@ -16,9 +16,19 @@
  */
 package org.orekit.estimation.leastsquares;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.util.FastMath;
 
 import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
 import org.orekit.errors.OrekitInternalError;
 import org.orekit.estimation.measurements.EstimatedMeasurement;
 import org.orekit.estimation.measurements.ObservedMeasurement;
@@ -46,22 +56,30 @@ class MeasurementHandler implements MultiSatStepHandler {
     /** Index of the next measurement component in the model. */
     private int index;
 
+    /** Measurements waiting for parallel estimation. */
+    private final List<ObservedMeasurement<?>> pendingMeasurements;
+
+    /** Interpolated states for measurements waiting for parallel estimation. */
+    private final List<SpacecraftState[]> pendingStates;
+
     /** Simple constructor.
      * @param model least squares model
      * @param precompensated underlying measurements
      */
     MeasurementHandler(final Model model, final List<PreCompensation> precompensated) {
-        this.model          = model;
-        this.precompensated = precompensated;
+        this.model               = model;
+        this.precompensated      = precompensated;
+        this.pendingMeasurements = new ArrayList<>();
+        this.pendingStates       = new ArrayList<>();
     }
 
-    /**
-
     /** {@inheritDoc} */
     @Override
     public void init(final List<SpacecraftState> initialStates, final AbsoluteDate target) {
         number = 0;
         index  = 0;
+        pendingMeasurements.clear();
+        pendingStates.clear();
     }
 
     /** {@inheritDoc} */
@@ -69,6 +87,8 @@ class MeasurementHandler implements MultiSatStepHandler {
     public void handleStep(final List<OrekitStepInterpolator> interpolators, final boolean isLast)
         throws OrekitException {
 
+        final ExecutorService executor = model.getMeasurementsExecutor();
+
         while (number < precompensated.size()) {
 
             // Consider the next measurement to handle
@@ -85,31 +105,150 @@ class MeasurementHandler implements MultiSatStepHandler {
                     // this should never happen
                     throw new OrekitInternalError(null);
                 }
-                return;
+                break;
             }
 
             // get the observed measurement
             final ObservedMeasurement<?> observed = next.getMeasurement();
 
-            // estimate the theoretical measurement
+            // interpolate the states (always in the propagation thread, as interpolators are transient)
             final List<Integer>           indices  = observed.getPropagatorsIndices();
             final SpacecraftState[]       states   = new SpacecraftState[indices.size()];
             for (int i = 0; i < states.length; ++i) {
                 states[i] = interpolators.get(i).getInterpolatedState(next.getDate());
             }
-            final EstimatedMeasurement<?> estimated = observed.estimate(model.getIterationsCount(),
-                                                                        model.getEvaluationsCount(),
-                                                                        states);
 
-            // fetch the evaluated measurement to the estimator
-            model.fetchEvaluatedMeasurement(index, estimated);
+            if (executor == null) {
+                // estimate the theoretical measurement immediately
+                final EstimatedMeasurement<?> estimated = observed.estimate(model.getIterationsCount(),
+                                                                            model.getEvaluationsCount(),
+                                                                            states);
+                fetch(estimated);
+            } else {
+                // delay estimation, to process all measurements at once when propagation ends
+                pendingMeasurements.add(observed);
+                pendingStates.add(states);
+            }
 
             // prepare handling of next measurement
             ++number;
-            index += observed.getDimension();
 
         }
 
+        if (isLast && !pendingMeasurements.isEmpty()) {
+            estimateInParallel(executor, pendingMeasurements, pendingStates);
+            pendingMeasurements.clear();
+            pendingStates.clear();
+        }
+
+    }
+
+    /** Estimate measurements in parallel.
+     * <p>
+     * Measurements are split in contiguous chunks, one per thread of the executor, so
+     * each task processes measurements in chronological order. The estimated measurements are fetched to the model in
+     * the same order as in serial evaluation, so the residuals and Jacobians are
+     * identical to the serial ones.
+     * </p>
+     * @param executor executor for measurements evaluation
+     * @param observed observed measurements, in propagation order
+     * @param states interpolated states for each measurement
+     * @exception OrekitException if some measurement cannot be estimated
+     */
+    private void estimateInParallel(final ExecutorService executor,
+                                    final List<ObservedMeasurement<?>> observed,
+                                    final List<SpacecraftState[]> states)
+        throws OrekitException {
+
+        final int iteration  = model.getIterationsCount();
+        final int evaluation = model.getEvaluationsCount();
+        final int n          = observed.size();
+        final EstimatedMeasurement<?>[] estimated = new EstimatedMeasurement<?>[n];
+
+        if (n == 1) {
+            // no need to switch thread for a single measurement
+            estimated[0] = observed.get(0).estimate(iteration, evaluation, states.get(0));
+        } else {
+
+            // submit contiguous chunks of measurements
+            final int chunks = FastMath.min(n, getParallelism(executor));
+            final List<Future<Void>> futures = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; ++c) {
+                final int start = (c * n) / chunks;
+                final int end   = ((c + 1) * n) / chunks;
+                futures.add(executor.submit(() -> {
+                    for (int i = start; i < end; ++i) {
+                        estimated[i] = observed.get(i).estimate(iteration, evaluation, states.get(i));
+                    }
+                    return null;
+                }));
+            }
+
+            // wait for all chunks completion
+            for (final Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new OrekitException(ie, LocalizedCoreFormats.SIMPLE_MESSAGE, ie.getLocalizedMessage());
+                } catch (ExecutionException ee) {
+                    manageException(ee);
+                }
+            }
+
+        }
+
+        // fetch the evaluated measurements in deterministic order
+        for (final EstimatedMeasurement<?> e : estimated) {
+            fetch(e);
+        }
+
+    }
+
+    /** Get the number of threads an executor can run at the same time.
+     * @param executor executor for measurements evaluation
+     * @return number of threads of the executor, or number of available
+     * processors if the executor size is unknown or unbounded
+     */
+    private static int getParallelism(final ExecutorService executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        } else if (executor instanceof ThreadPoolExecutor &&
+                   ((ThreadPoolExecutor) executor).getMaximumPoolSize() < Integer.MAX_VALUE) {
+            return ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+        } else {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /** Fetch an evaluated measurement to the model.
+     * @param estimated estimated measurement
+     * @exception OrekitException if Jacobians cannot be computed
+     */
+    private void fetch(final EstimatedMeasurement<?> estimated)
+        throws OrekitException {
+        model.fetchEvaluatedMeasurement(index, estimated);
+        index += estimated.getObservedMeasurement().getDimension();
+    }
+
+    /** Convert exceptions thrown by measurements estimation tasks.
+     * @param exception exception caught
+     * @exception OrekitException always thrown, either the original exception
+     * or a wrapping one
+     */
+    private void manageException(final ExecutionException exception)
+        throws OrekitException {
+        final Throwable cause = exception.getCause();
+        if (cause instanceof OrekitException) {
+            // unwrap the original exception
+            throw (OrekitException) cause;
+        } else if (cause instanceof OrekitExceptionWrapper) {
+            throw ((OrekitExceptionWrapper) cause).getException();
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else {
+            throw new OrekitException(cause, LocalizedCoreFormats.SIMPLE_MESSAGE, exception.getLocalizedMessage());
+        }
     }
 
 }
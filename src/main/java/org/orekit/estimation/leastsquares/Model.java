@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import org.hipparchus.linear.Array2DRowRealMatrix;
 import org.hipparchus.linear.ArrayRealVector;
@@ -96,6 +97,9 @@ class Model implements MultivariateJacobianFunction {
     /** Counter for the iterations. */
     private Incrementor iterationsCounter;
 
+    /** Executor for measurements evaluation (null for serial evaluation). */
+    private ExecutorService measurementsExecutor;
+
     /** Date of the first enabled measurement. */
     private AbsoluteDate firstDate;
 
@@ -219,6 +223,24 @@ class Model implements MultivariateJacobianFunction {
         this.iterationsCounter = iterationsCounter;
     }
 
+    /** Set the executor for measurements evaluation.
+     * @param measurementsExecutor executor for measurements evaluation
+     * (null for serial evaluation in the propagation thread)
+     * @since 9.3
+     */
+    void setMeasurementsExecutor(final ExecutorService measurementsExecutor) {
+        this.measurementsExecutor = measurementsExecutor;
+    }
+
+    /** Get the executor for measurements evaluation.
+     * @return executor for measurements evaluation
+     * (null for serial evaluation in the propagation thread)
+     * @since 9.3
+     */
+    ExecutorService getMeasurementsExecutor() {
+        return measurementsExecutor;
+    }
+
     /** Return the forward propagation flag.
      * @return the forward propagation flag
      */
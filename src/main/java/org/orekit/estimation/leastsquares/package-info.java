@@ -24,6 +24,9 @@
  * run the {@link org.orekit.estimation.leastsquares.BatchLSEstimator least
  * squares estimator}. At the end of the process, a fully configured propagator
  * will be available, as well as all estimated parameters individually.
+ * Many independent orbit determination problems sharing the same Earth
+ * and gravity field data can be run in parallel using the {@link
+ * org.orekit.estimation.leastsquares.BatchLSParallelizer parallelizer}.
  * @since 8.0
  * @author Luc Maisonobe
  * @author Thierry Ceolin
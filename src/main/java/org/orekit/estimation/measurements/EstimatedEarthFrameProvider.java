@@ -33,6 +33,7 @@ import org.orekit.errors.OrekitExceptionWrapper;
 import org.orekit.errors.OrekitInternalError;
 import org.orekit.errors.OrekitMessages;
 import org.orekit.frames.FieldTransform;
+import org.orekit.frames.FrameTransformCache;
 import org.orekit.frames.Transform;
 import org.orekit.frames.TransformProvider;
 import org.orekit.time.AbsoluteDate;
@@ -40,6 +41,7 @@ import org.orekit.time.FieldAbsoluteDate;
 import org.orekit.time.UT1Scale;
 import org.orekit.utils.IERSConventions;
 import org.orekit.utils.ParameterDriver;
+import org.orekit.utils.ParameterObserver;
 
 /** Class modeling an Earth frame whose Earth Orientation Parameters can be estimated.
  * <p>
@@ -143,6 +145,16 @@ public class EstimatedEarthFrameProvider implements TransformProvider {
         this.baseUT1      = baseUT1;
         this.estimatedUT1 = new EstimatedUT1Scale();
 
+        // cached frames transforms become stale when the parameters change
+        final ParameterObserver invalidator = (previousValue, driver) -> FrameTransformCache.invalidate();
+        for (final ParameterDriver driver : new ParameterDriver[] {
+            primeMeridianOffsetDriver, primeMeridianDriftDriver,
+            polarOffsetXDriver, polarDriftXDriver,
+            polarOffsetYDriver, polarDriftYDriver
+        }) {
+            driver.addObserver(invalidator);
+        }
+
     }
 
     /** Get a driver allowing to add a prime meridian rotation.
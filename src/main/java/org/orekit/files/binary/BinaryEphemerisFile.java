@@ -0,0 +1,661 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.binary;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.linear.MatrixUtils;
+import org.hipparchus.linear.RealMatrix;
+import org.hipparchus.util.FastMath;
+import org.orekit.attitudes.Attitude;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.files.general.EphemerisFile;
+import org.orekit.frames.Frame;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScale;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.CartesianDerivativesFilter;
+import org.orekit.utils.TimeStampedAngularCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Ephemeris file in Orekit binary format.
+ * <p>
+ * Instances of this class are created by {@link BinaryEphemerisReader}, files
+ * are created by {@link BinaryEphemerisWriter}. The records are not loaded in
+ * memory, they are read on demand from read-only memory-mapped buffers, so opening
+ * a file is fast regardless of its size and the operating system page cache is
+ * shared between all the processes that use the same file.
+ * </p>
+ * <p>
+ * The format is versioned and all values are stored in big-endian order. The file
+ * starts with a header, followed by one descriptor per segment and then by the
+ * data of each segment:
+ * </p>
+ * <ul>
+ *   <li>header: magic number (long), format version (int), number of segments (int)</li>
+ *   <li>segment descriptor: object ID, center name and frame name (modified UTF-8
+ *   strings), gravitational coefficient (double), number of interpolation points (int),
+ *   flags for attitude and covariance (int), number of records (int), reference date
+ *   as integer seconds (long) and fractional seconds (double) from J2000.0, number of
+ *   additional states (int) followed by their names (string) and dimensions (int),
+ *   offset of the segment data from file start (long)</li>
+ *   <li>segment data, as columns starting at 8 bytes aligned offsets: record dates as integer
+ *   seconds (long) and fractional seconds (double) from the reference date, position,
+ *   velocity and acceleration (9 doubles per record), mass (1 double per record),
+ *   optional attitude (quaternion, rotation rate and rotation acceleration, 10 doubles
+ *   per record), optional covariance (lower triangular part of the 6x6 position-velocity
+ *   matrix in the segment frame, 21 doubles per record) and additional states (one
+ *   column per state)</li>
+ * </ul>
+ * <p>
+ * The dates column is sorted and acts as the index for random access by date.
+ * </p>
+ * @see BinaryEphemerisReader
+ * @see BinaryEphemerisWriter
+ * @since 9.3
+ */
+public class BinaryEphemerisFile implements EphemerisFile {
+
+    /** Magic number identifying the format ("OREKEPHB" in ASCII). */
+    static final long MAGIC = 0x4F52454B45504842L;
+
+    /** Current format version. */
+    static final int FORMAT_VERSION = 1;
+
+    /** Flag for attitude presence. */
+    static final int ATTITUDE_FLAG = 0x1;
+
+    /** Flag for covariance presence. */
+    static final int COVARIANCE_FLAG = 0x2;
+
+    /** Number of position-velocity-acceleration components per record. */
+    static final int PVA_STRIDE = 9;
+
+    /** Number of attitude components per record. */
+    static final int ATTITUDE_STRIDE = 10;
+
+    /** Size of the covariance matrices. */
+    static final int COVARIANCE_SIZE = 6;
+
+    /** Number of covariance components per record. */
+    static final int COVARIANCE_STRIDE = COVARIANCE_SIZE * (COVARIANCE_SIZE + 1) / 2;
+
+    /** Satellites, in file order. */
+    private final Map<String, BinarySatelliteEphemeris> satellites;
+
+    /** Segments, in file order. */
+    private final List<BinaryEphemerisSegment> segments;
+
+    /** Simple constructor.
+     * @param segments segments, in file order
+     */
+    BinaryEphemerisFile(final List<BinaryEphemerisSegment> segments) {
+        this.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+        final Map<String, List<BinaryEphemerisSegment>> grouped = new LinkedHashMap<>();
+        for (final BinaryEphemerisSegment segment : segments) {
+            grouped.computeIfAbsent(segment.getObjectID(), id -> new ArrayList<>()).add(segment);
+        }
+        this.satellites = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<BinaryEphemerisSegment>> entry : grouped.entrySet()) {
+            satellites.put(entry.getKey(), new BinarySatelliteEphemeris(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, BinarySatelliteEphemeris> getSatellites() {
+        return Collections.unmodifiableMap(satellites);
+    }
+
+    /** Get all the segments, in file order.
+     * @return unmodifiable list of all segments
+     */
+    public List<BinaryEphemerisSegment> getSegments() {
+        return segments;
+    }
+
+    /** Ephemeris of one satellite in binary format. */
+    public static class BinarySatelliteEphemeris implements SatelliteEphemeris {
+
+        /** Object ID. */
+        private final String id;
+
+        /** Segments of the satellite. */
+        private final List<BinaryEphemerisSegment> segments;
+
+        /** Simple constructor.
+         * @param id object ID
+         * @param segments segments of the satellite (must not be empty)
+         */
+        BinarySatelliteEphemeris(final String id, final List<BinaryEphemerisSegment> segments) {
+            this.id       = id;
+            this.segments = Collections.unmodifiableList(segments);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMu() {
+            return segments.get(0).getMu();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<BinaryEphemerisSegment> getSegments() {
+            return segments;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getStart() {
+            AbsoluteDate start = segments.get(0).getStart();
+            for (final BinaryEphemerisSegment segment : segments) {
+                if (segment.getStart().compareTo(start) < 0) {
+                    start = segment.getStart();
+                }
+            }
+            return start;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getStop() {
+            AbsoluteDate stop = segments.get(0).getStop();
+            for (final BinaryEphemerisSegment segment : segments) {
+                if (segment.getStop().compareTo(stop) > 0) {
+                    stop = segment.getStop();
+                }
+            }
+            return stop;
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * If the satellite has only one segment, its propagator is returned
+         * directly, so stored attitude is preserved. Otherwise the segments
+         * are aggregated, which uses the default attitude law.
+         * </p>
+         */
+        @Override
+        public BoundedPropagator getPropagator() throws OrekitException {
+            return segments.size() == 1 ?
+                   segments.get(0).getPropagator() :
+                   SatelliteEphemeris.super.getPropagator();
+        }
+
+    }
+
+    /** Ephemeris segment in binary format.
+     * <p>
+     * Records are read on demand from the underlying buffers. Instances
+     * of this class are immutable and can be shared between threads.
+     * </p>
+     */
+    public static class BinaryEphemerisSegment implements EphemerisSegment {
+
+        /** Object ID. */
+        private final String objectID;
+
+        /** Name of the center of the frame. */
+        private final String centerName;
+
+        /** Name of the frame. */
+        private final String frameName;
+
+        /** Frame of the records. */
+        private final Frame frame;
+
+        /** Gravitational coefficient. */
+        private final double mu;
+
+        /** Number of points to use in interpolation. */
+        private final int interpolationPoints;
+
+        /** Number of records. */
+        private final int size;
+
+        /** Reference date. */
+        private final AbsoluteDate reference;
+
+        /** Integer seconds from reference date. */
+        private final LongBuffer seconds;
+
+        /** Fractional offsets from integer seconds. */
+        private final DoubleBuffer offsets;
+
+        /** Position, velocity and acceleration. */
+        private final DoubleBuffer pva;
+
+        /** Masses. */
+        private final DoubleBuffer masses;
+
+        /** Attitudes (null if not available). */
+        private final DoubleBuffer attitudes;
+
+        /** Covariances (null if not available). */
+        private final DoubleBuffer covariances;
+
+        /** Names of the additional states. */
+        private final String[] additionalNames;
+
+        /** Dimensions of the additional states. */
+        private final int[] additionalDimensions;
+
+        /** Additional states. */
+        private final DoubleBuffer[] additionalValues;
+
+        /** Simple constructor.
+         * @param objectID object ID
+         * @param centerName name of the center of the frame
+         * @param frameName name of the frame
+         * @param frame frame of the records
+         * @param mu gravitational coefficient
+         * @param interpolationPoints number of points to use in interpolation
+         * @param size number of records
+         * @param reference reference date
+         * @param seconds integer seconds from reference date
+         * @param offsets fractional offsets from integer seconds
+         * @param pva position, velocity and acceleration
+         * @param masses masses
+         * @param attitudes attitudes (null if not available)
+         * @param covariances covariances (null if not available)
+         * @param additionalNames names of the additional states
+         * @param additionalDimensions dimensions of the additional states
+         * @param additionalValues additional states
+         */
+        BinaryEphemerisSegment(final String objectID, final String centerName,
+                               final String frameName, final Frame frame,
+                               final double mu, final int interpolationPoints,
+                               final int size, final AbsoluteDate reference,
+                               final LongBuffer seconds, final DoubleBuffer offsets,
+                               final DoubleBuffer pva, final DoubleBuffer masses,
+                               final DoubleBuffer attitudes, final DoubleBuffer covariances,
+                               final String[] additionalNames, final int[] additionalDimensions,
+                               final DoubleBuffer[] additionalValues) {
+            this.objectID             = objectID;
+            this.centerName           = centerName;
+            this.frameName            = frameName;
+            this.frame                = frame;
+            this.mu                   = mu;
+            this.interpolationPoints  = interpolationPoints;
+            this.size                 = size;
+            this.reference            = reference;
+            this.seconds              = seconds;
+            this.offsets              = offsets;
+            this.pva                  = pva;
+            this.masses               = masses;
+            this.attitudes            = attitudes;
+            this.covariances          = covariances;
+            this.additionalNames      = additionalNames.clone();
+            this.additionalDimensions = additionalDimensions.clone();
+            this.additionalValues     = additionalValues.clone();
+        }
+
+        /** Get the object ID.
+         * @return object ID
+         */
+        public String getObjectID() {
+            return objectID;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMu() {
+            return mu;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getFrameCenterString() {
+            return centerName;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getFrameString() {
+            return frameName;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Frame getFrame() {
+            return frame;
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * Dates are stored as absolute offsets, the time scale is therefore
+         * always TAI.
+         * </p>
+         */
+        @Override
+        public String getTimeScaleString() {
+            return getTimeScale().getName();
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * Dates are stored as absolute offsets, the time scale is therefore
+         * always TAI.
+         * </p>
+         */
+        @Override
+        public TimeScale getTimeScale() {
+            return TimeScalesFactory.getTAI();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getInterpolationSamples() {
+            return interpolationPoints;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public CartesianDerivativesFilter getAvailableDerivatives() {
+            return CartesianDerivativesFilter.USE_PVA;
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * The returned list is a view on the underlying buffers, elements are
+         * created on the fly when they are accessed.
+         * </p>
+         */
+        @Override
+        public List<TimeStampedPVCoordinates> getCoordinates() {
+            return new CoordinatesView();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getStart() {
+            return getDate(0);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getStop() {
+            return getDate(size - 1);
+        }
+
+        /** {@inheritDoc}
+         * <p>
+         * The propagator reads the records directly from the underlying buffers,
+         * it does not copy them.
+         * </p>
+         */
+        @Override
+        public BoundedPropagator getPropagator() {
+            return new BinaryEphemerisPropagator(this);
+        }
+
+        /** Get the number of records.
+         * @return number of records
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /** Check if attitude is available.
+         * @return true if attitude is available
+         */
+        public boolean hasAttitude() {
+            return attitudes != null;
+        }
+
+        /** Check if covariance is available.
+         * @return true if covariance is available
+         */
+        public boolean hasCovariance() {
+            return covariances != null;
+        }
+
+        /** Get the names of the additional states.
+         * @return names of the additional states
+         */
+        public String[] getAdditionalStatesNames() {
+            return additionalNames.clone();
+        }
+
+        /** Find the index of the latest record at or before a date.
+         * <p>
+         * This is a binary search on the dates column, it does not read
+         * any other data.
+         * </p>
+         * @param date date to consider
+         * @return index of the latest record at or before date, -1 if date
+         * is before the first record
+         */
+        public int getIndex(final AbsoluteDate date) {
+
+            final long   dateSeconds = (long) FastMath.floor(date.durationFrom(reference));
+            final double dateOffset  = date.durationFrom(reference.shiftedBy(dateSeconds));
+
+            if (delta(0, dateSeconds, dateOffset) > 0) {
+                return -1;
+            }
+
+            // binary search, with invariant delta(low) <= 0 and (high == size - 1 or delta(high) > 0)
+            int low  = 0;
+            int high = size - 1;
+            if (delta(high, dateSeconds, dateOffset) <= 0) {
+                return high;
+            }
+            while (high - low > 1) {
+                final int middle = (low + high) >>> 1;
+                if (delta(middle, dateSeconds, dateOffset) <= 0) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+
+        }
+
+        /** Get the date of a record.
+         * @param index index of the record
+         * @return date of the record
+         */
+        public AbsoluteDate getDate(final int index) {
+            return reference.shiftedBy(seconds.get(index)).shiftedBy(offsets.get(index));
+        }
+
+        /** Get the position-velocity-acceleration of a record.
+         * @param index index of the record
+         * @return position-velocity-acceleration of the record, in segment frame
+         */
+        public TimeStampedPVCoordinates getPVCoordinates(final int index) {
+            final int i = index * PVA_STRIDE;
+            return new TimeStampedPVCoordinates(getDate(index),
+                                                new Vector3D(pva.get(i),     pva.get(i + 1), pva.get(i + 2)),
+                                                new Vector3D(pva.get(i + 3), pva.get(i + 4), pva.get(i + 5)),
+                                                new Vector3D(pva.get(i + 6), pva.get(i + 7), pva.get(i + 8)));
+        }
+
+        /** Get the attitude of a record.
+         * @param index index of the record
+         * @return attitude of the record, with respect to segment frame
+         * @exception OrekitException if attitude is not available
+         */
+        public TimeStampedAngularCoordinates getAttitude(final int index)
+            throws OrekitException {
+            if (attitudes == null) {
+                throw new OrekitException(OrekitMessages.UNKNOWN_ADDITIONAL_STATE, "attitude");
+            }
+            final int i = index * ATTITUDE_STRIDE;
+            return new TimeStampedAngularCoordinates(getDate(index),
+                                                     new Rotation(attitudes.get(i),     attitudes.get(i + 1),
+                                                                  attitudes.get(i + 2), attitudes.get(i + 3),
+                                                                  false),
+                                                     new Vector3D(attitudes.get(i + 4), attitudes.get(i + 5),
+                                                                  attitudes.get(i + 6)),
+                                                     new Vector3D(attitudes.get(i + 7), attitudes.get(i + 8),
+                                                                  attitudes.get(i + 9)));
+        }
+
+        /** Get the mass of a record.
+         * @param index index of the record
+         * @return mass of the record
+         */
+        public double getMass(final int index) {
+            return masses.get(index);
+        }
+
+        /** Get the covariance of a record.
+         * @param index index of the record
+         * @return position-velocity covariance matrix of the record, in segment frame
+         * @exception OrekitException if covariance is not available
+         */
+        public RealMatrix getCovariance(final int index)
+            throws OrekitException {
+            if (covariances == null) {
+                throw new OrekitException(OrekitMessages.UNKNOWN_ADDITIONAL_STATE, "covariance");
+            }
+            final RealMatrix covariance = MatrixUtils.createRealMatrix(COVARIANCE_SIZE, COVARIANCE_SIZE);
+            int k = index * COVARIANCE_STRIDE;
+            for (int i = 0; i < COVARIANCE_SIZE; ++i) {
+                for (int j = 0; j <= i; ++j) {
+                    final double c = covariances.get(k++);
+                    covariance.setEntry(i, j, c);
+                    covariance.setEntry(j, i, c);
+                }
+            }
+            return covariance;
+        }
+
+        /** Get an additional state of a record.
+         * @param index index of the record
+         * @param name name of the additional state
+         * @return additional state of the record
+         * @exception OrekitException if the additional state is not available
+         */
+        public double[] getAdditionalState(final int index, final String name)
+            throws OrekitException {
+            for (int j = 0; j < additionalNames.length; ++j) {
+                if (additionalNames[j].equals(name)) {
+                    return getAdditionalState(index, j);
+                }
+            }
+            throw new OrekitException(OrekitMessages.UNKNOWN_ADDITIONAL_STATE, name);
+        }
+
+        /** Get the complete state of a record.
+         * <p>
+         * If attitude is not available, {@link Propagator#DEFAULT_LAW} is used.
+         * </p>
+         * @param index index of the record
+         * @return state of the record
+         * @exception OrekitException if state cannot be built
+         */
+        public SpacecraftState getState(final int index)
+            throws OrekitException {
+            final CartesianOrbit orbit = new CartesianOrbit(getPVCoordinates(index), frame, mu);
+            final Attitude attitude = hasAttitude() ?
+                                      new Attitude(frame, getAttitude(index)) :
+                                      Propagator.DEFAULT_LAW.getAttitude(orbit, orbit.getDate(), frame);
+            SpacecraftState state = new SpacecraftState(orbit, attitude, getMass(index));
+            for (int j = 0; j < additionalNames.length; ++j) {
+                state = state.addAdditionalState(additionalNames[j], getAdditionalState(index, j));
+            }
+            return state;
+        }
+
+        /** Get the reference date.
+         * @return reference date
+         */
+        AbsoluteDate getReference() {
+            return reference;
+        }
+
+        /** Compute time offset between a record and a date.
+         * @param index index of the record
+         * @param dateSeconds integer seconds of the date from reference date
+         * @param dateOffset fractional offset of the date
+         * @return record date minus date (s)
+         */
+        double delta(final int index, final long dateSeconds, final double dateOffset) {
+            return (seconds.get(index) - dateSeconds) + (offsets.get(index) - dateOffset);
+        }
+
+        /** Get one position-velocity-acceleration component.
+         * @param index index of the record
+         * @param component index of the component
+         * @return component value
+         */
+        double getPVAComponent(final int index, final int component) {
+            return pva.get(index * PVA_STRIDE + component);
+        }
+
+        /** Get an additional state of a record.
+         * @param index index of the record
+         * @param j index of the additional state
+         * @return additional state of the record
+         */
+        double[] getAdditionalState(final int index, final int j) {
+            final double[] value = new double[additionalDimensions[j]];
+            final DoubleBuffer column = additionalValues[j];
+            for (int k = 0; k < value.length; ++k) {
+                value[k] = column.get(index * value.length + k);
+            }
+            return value;
+        }
+
+        /** List view on the position-velocity-acceleration records. */
+        private class CoordinatesView extends AbstractList<TimeStampedPVCoordinates> implements RandomAccess {
+
+            /** {@inheritDoc} */
+            @Override
+            public TimeStampedPVCoordinates get(final int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(Integer.toString(index));
+                }
+                return getPVCoordinates(index);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public int size() {
+                return size;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.binary;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.attitudes.Attitude;
+import org.orekit.attitudes.AttitudeProvider;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.AbstractAnalyticalPropagator;
+import org.orekit.propagation.analytical.CompactStatesInterpolator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.TimeStampedAngularCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Propagator interpolating the records of a {@link BinaryEphemerisFile.BinaryEphemerisSegment}.
+ * <p>
+ * Records are read directly from the segment buffers, only the neighbors of the
+ * interpolation date are accessed. Interpolation is delegated to {@link
+ * CompactStatesInterpolator}, so results are the same as with {@link
+ * org.orekit.propagation.analytical.CompactEphemeris}. If the segment contains
+ * attitude, it is interpolated unless an attitude provider is explicitly set,
+ * otherwise {@link #DEFAULT_LAW} is used. Setting a null attitude provider on
+ * a segment without attitude makes propagation fail with an explicit error.
+ * </p>
+ * @since 9.3
+ */
+class BinaryEphemerisPropagator extends AbstractAnalyticalPropagator implements BoundedPropagator {
+
+    /** Segment containing the records. */
+    private final BinaryEphemerisFile.BinaryEphemerisSegment segment;
+
+    /** Frame of the records. */
+    private final Frame frame;
+
+    /** First date. */
+    private final AbsoluteDate minDate;
+
+    /** Last date. */
+    private final AbsoluteDate maxDate;
+
+    /** Interpolator reading the segment records. */
+    private final CompactStatesInterpolator interpolator;
+
+    /** Simple constructor.
+     * @param segment segment containing the records
+     */
+    BinaryEphemerisPropagator(final BinaryEphemerisFile.BinaryEphemerisSegment segment) {
+        super(DEFAULT_LAW);
+        this.segment             = segment;
+        this.frame               = segment.getFrame();
+        this.minDate             = segment.getStart();
+        this.maxDate             = segment.getStop();
+        this.interpolator        = new CompactStatesInterpolator(new SegmentSamples(segment),
+                                                                 FastMath.min(segment.getInterpolationSamples(),
+                                                                              segment.getSize()));
+        if (segment.hasAttitude()) {
+            // user needs to explicitly set attitude provider if they want to override the stored one
+            setAttitudeProvider(null);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbsoluteDate getMinDate() {
+        return minDate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbsoluteDate getMaxDate() {
+        return maxDate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SpacecraftState basicPropagate(final AbsoluteDate date) throws OrekitException {
+
+        // select neighbors
+        final int      start  = interpolator.findStart(date);
+        final double[] deltaT = interpolator.getTimeOffsets(date, start);
+
+        // orbit
+        final Orbit orbit = new CartesianOrbit(interpolator.interpolatePVA(date, start, deltaT),
+                                               frame, segment.getMu());
+
+        // attitude
+        final AttitudeProvider attitudeProvider = getAttitudeProvider();
+        final Attitude attitude;
+        if (attitudeProvider != null) {
+            attitude = attitudeProvider.getAttitude(orbit, date, frame);
+        } else if (segment.hasAttitude()) {
+            attitude = new Attitude(frame, interpolator.interpolateAttitude(date, start));
+        } else {
+            throw new OrekitException(OrekitMessages.NO_ATTITUDE_IN_EPHEMERIS_SEGMENT,
+                                      segment.getObjectID());
+        }
+
+        return new SpacecraftState(orbit, attitude,
+                                   interpolator.interpolateMass(start, deltaT),
+                                   interpolator.interpolateAdditionalStates(start, deltaT));
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TimeStampedPVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame f)
+        throws OrekitException {
+        final int                      start = interpolator.findStart(date);
+        final TimeStampedPVCoordinates pv    =
+                interpolator.interpolatePVA(date, start, interpolator.getTimeOffsets(date, start));
+        return (f == frame) ? pv : frame.getTransformTo(f, date).transformPVCoordinates(pv);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Orbit propagateOrbit(final AbsoluteDate date) throws OrekitException {
+        return basicPropagate(date).getOrbit();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected double getMass(final AbsoluteDate date) throws OrekitException {
+        return basicPropagate(date).getMass();
+    }
+
+    /** Try (and fail) to reset the initial state.
+     * <p>
+     * This method always throws an exception, as ephemerides cannot be reset.
+     * </p>
+     * @param state new initial state to consider
+     * @exception OrekitException always thrown as ephemerides cannot be reset
+     */
+    @Override
+    public void resetInitialState(final SpacecraftState state)
+        throws OrekitException {
+        throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void resetIntermediateState(final SpacecraftState state, final boolean forward)
+        throws OrekitException {
+        throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SpacecraftState getInitialState() throws OrekitException {
+        return basicPropagate(getMinDate());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAdditionalStateManaged(final String name) {
+
+        // the additional state may be managed by a specific provider in the base class
+        if (super.isAdditionalStateManaged(name)) {
+            return true;
+        }
+
+        // the additional state may be managed in the segment
+        for (final String a : segment.getAdditionalStatesNames()) {
+            if (a.equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String[] getManagedAdditionalStates() {
+        final String[] upperManaged = super.getManagedAdditionalStates();
+        final String[] additional   = segment.getAdditionalStatesNames();
+        final String[] managed      = new String[upperManaged.length + additional.length];
+        System.arraycopy(upperManaged, 0, managed, 0, upperManaged.length);
+        System.arraycopy(additional, 0, managed, upperManaged.length, additional.length);
+        return managed;
+    }
+
+    /** Samples view on the segment buffers. */
+    private static class SegmentSamples implements CompactStatesInterpolator.Samples {
+
+        /** Segment containing the records. */
+        private final BinaryEphemerisFile.BinaryEphemerisSegment segment;
+
+        /** Simple constructor.
+         * @param segment segment containing the records
+         */
+        SegmentSamples(final BinaryEphemerisFile.BinaryEphemerisSegment segment) {
+            this.segment = segment;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getSize() {
+            return segment.getSize();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getReference() {
+            return segment.getReference();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getDate(final int index) {
+            return segment.getDate(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double delta(final int index, final long dateSeconds, final double dateOffset) {
+            return segment.delta(index, dateSeconds, dateOffset);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getPVAComponent(final int index, final int component) {
+            return segment.getPVAComponent(index, component);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public TimeStampedAngularCoordinates getAttitude(final int index)
+            throws OrekitException {
+            return segment.getAttitude(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMass(final int index) {
+            return segment.getMass(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String[] getAdditionalStatesNames() {
+            return segment.getAdditionalStatesNames();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getAdditionalState(final int index, final int j) {
+            return segment.getAdditionalState(index, j);
+        }
+
+    }
+
+}
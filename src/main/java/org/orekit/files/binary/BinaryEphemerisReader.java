@@ -0,0 +1,238 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.binary;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.hipparchus.exception.DummyLocalizable;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Predefined;
+import org.orekit.time.AbsoluteDate;
+
+/** Reader for ephemeris files in Orekit binary format.
+ * <p>
+ * Only the header and the segments descriptors are read when the file is
+ * opened. The data columns are mapped in memory in read-only mode and the
+ * records are read on demand.
+ * </p>
+ * <p>
+ * Frames are stored by name in the file. By default, they are resolved against
+ * the {@link Predefined predefined frames}, a custom mapping can be provided at
+ * construction for other frames.
+ * </p>
+ * @see BinaryEphemerisFile
+ * @see BinaryEphemerisWriter
+ * @since 9.3
+ */
+public class BinaryEphemerisReader {
+
+    /** Mapping from frame names in the file to {@link Frame frames}. */
+    private final Function<? super String, ? extends Frame> frameBuilder;
+
+    /** Create a reader resolving frames against the predefined frames.
+     */
+    public BinaryEphemerisReader() {
+        this(BinaryEphemerisReader::getPredefinedFrame);
+    }
+
+    /** Create a reader with a custom mapping for frames.
+     * @param frameBuilder mapping from frame names in the file to frames (may
+     * return null for unknown frames)
+     */
+    public BinaryEphemerisReader(final Function<? super String, ? extends Frame> frameBuilder) {
+        this.frameBuilder = frameBuilder;
+    }
+
+    /** Read an ephemeris file.
+     * @param fileName name of the file
+     * @return ephemeris file
+     * @exception OrekitException if file cannot be read
+     */
+    public BinaryEphemerisFile read(final String fileName) throws OrekitException {
+        return read(Paths.get(fileName));
+    }
+
+    /** Read an ephemeris file.
+     * @param path path of the file
+     * @return ephemeris file
+     * @exception OrekitException if file cannot be read
+     */
+    public BinaryEphemerisFile read(final Path path) throws OrekitException {
+
+        final String name = path.toString();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            final long fileSize = channel.size();
+
+            // read header and segments descriptors sequentially from file start
+            final DataInputStream header =
+                    new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (fileSize < Long.BYTES || header.readLong() != BinaryEphemerisFile.MAGIC) {
+                throw new OrekitException(OrekitMessages.UNSUPPORTED_FILE_FORMAT, name);
+            }
+            if (header.readInt() != BinaryEphemerisFile.FORMAT_VERSION) {
+                throw new OrekitException(OrekitMessages.UNSUPPORTED_FILE_FORMAT, name);
+            }
+            final int nbSegments = header.readInt();
+            final List<BinaryEphemerisFile.BinaryEphemerisSegment> segments = new ArrayList<>(nbSegments);
+            for (int s = 0; s < nbSegments; ++s) {
+
+                // segment descriptor
+                final String   objectID            = header.readUTF();
+                final String   centerName          = header.readUTF();
+                final String   frameName           = header.readUTF();
+                final double   mu                  = header.readDouble();
+                final int      interpolationPoints = header.readInt();
+                final int      flags               = header.readInt();
+                final int      size                = header.readInt();
+                final long     referenceSeconds    = header.readLong();
+                final double   referenceOffset     = header.readDouble();
+                final int      nbAdditional        = header.readInt();
+                final String[] additionalNames      = new String[nbAdditional];
+                final int[]    additionalDimensions = new int[nbAdditional];
+                for (int j = 0; j < nbAdditional; ++j) {
+                    additionalNames[j]      = header.readUTF();
+                    additionalDimensions[j] = header.readInt();
+                }
+                final long dataOffset = header.readLong();
+                if (size <= 0 || interpolationPoints <= 0) {
+                    throw new OrekitException(OrekitMessages.CORRUPTED_FILE, name);
+                }
+
+                final Frame frame = frameBuilder.apply(frameName);
+                if (frame == null) {
+                    throw new OrekitException(OrekitMessages.UNKNOWN_FRAME, frameName);
+                }
+                final AbsoluteDate reference =
+                        AbsoluteDate.J2000_EPOCH.shiftedBy(referenceSeconds).shiftedBy(referenceOffset);
+
+                // map data columns
+                final ColumnMapper mapper = new ColumnMapper(channel, dataOffset, size, name);
+                final LongBuffer   seconds     = mapper.map(1).asLongBuffer();
+                final DoubleBuffer offsets     = mapper.map(1).asDoubleBuffer();
+                final DoubleBuffer pva         = mapper.map(BinaryEphemerisFile.PVA_STRIDE).asDoubleBuffer();
+                final DoubleBuffer masses      = mapper.map(1).asDoubleBuffer();
+                final DoubleBuffer attitudes   = ((flags & BinaryEphemerisFile.ATTITUDE_FLAG) == 0) ?
+                                                 null :
+                                                 mapper.map(BinaryEphemerisFile.ATTITUDE_STRIDE).asDoubleBuffer();
+                final DoubleBuffer covariances = ((flags & BinaryEphemerisFile.COVARIANCE_FLAG) == 0) ?
+                                                 null :
+                                                 mapper.map(BinaryEphemerisFile.COVARIANCE_STRIDE).asDoubleBuffer();
+                final DoubleBuffer[] additionalValues = new DoubleBuffer[nbAdditional];
+                for (int j = 0; j < nbAdditional; ++j) {
+                    additionalValues[j] = mapper.map(additionalDimensions[j]).asDoubleBuffer();
+                }
+
+                segments.add(new BinaryEphemerisFile.BinaryEphemerisSegment(objectID, centerName, frameName, frame,
+                                                                            mu, interpolationPoints, size, reference,
+                                                                            seconds, offsets, pva, masses,
+                                                                            attitudes, covariances, additionalNames,
+                                                                            additionalDimensions, additionalValues));
+
+            }
+
+            return new BinaryEphemerisFile(segments);
+
+        } catch (EOFException eofe) {
+            throw new OrekitException(eofe, OrekitMessages.UNEXPECTED_END_OF_FILE, name);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+
+    }
+
+    /** Default mapping from frame names to {@link Predefined predefined frames}.
+     * @param name name of the frame
+     * @return predefined frame with the specified name, or null if there are none
+     */
+    private static Frame getPredefinedFrame(final String name) {
+        for (final Predefined predefined : Predefined.values()) {
+            if (predefined.getName().equals(name)) {
+                try {
+                    return FramesFactory.getFrame(predefined);
+                } catch (OrekitException oe) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Mapper for consecutive columns of a segment. */
+    private static class ColumnMapper {
+
+        /** Channel to map. */
+        private final FileChannel channel;
+
+        /** Number of records. */
+        private final int size;
+
+        /** Name of the file. */
+        private final String name;
+
+        /** Offset of next column. */
+        private long offset;
+
+        /** Simple constructor.
+         * @param channel channel to map
+         * @param offset offset of first column
+         * @param size number of records
+         * @param name name of the file
+         */
+        ColumnMapper(final FileChannel channel, final long offset, final int size, final String name) {
+            this.channel = channel;
+            this.offset  = offset;
+            this.size    = size;
+            this.name    = name;
+        }
+
+        /** Map next column.
+         * @param stride number of 8 bytes values per record
+         * @return mapped column
+         * @exception IOException if column cannot be mapped
+         * @exception OrekitException if column is outside of the file
+         */
+        public ByteBuffer map(final int stride) throws IOException, OrekitException {
+            final long length = ((long) size) * stride * Double.BYTES;
+            if (stride < 0 || offset < 0 || length > Integer.MAX_VALUE || offset + length > channel.size()) {
+                throw new OrekitException(OrekitMessages.CORRUPTED_FILE, name);
+            }
+            final ByteBuffer column = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            offset += length;
+            return column;
+        }
+
+    }
+
+}
@@ -0,0 +1,435 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.hipparchus.exception.DummyLocalizable;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.linear.RealMatrix;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.TimeStampedAngularCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Writer for ephemeris files in Orekit binary format.
+ * <p>
+ * Segments are first registered using one of the {@code addSegment} methods,
+ * and then written all at once. Positions, velocities and accelerations are
+ * written in the frame of the states, which must be the same for all states of
+ * a segment. Orbits are stored as Cartesian parameters, regardless of the type
+ * of the orbits in the states.
+ * </p>
+ * <p>
+ * Each record stores position, velocity, acceleration and mass, together with
+ * the additional states. Attitude and covariance are optional and can be selected
+ * segment by segment.
+ * </p>
+ * @see BinaryEphemerisFile
+ * @see BinaryEphemerisReader
+ * @since 9.3
+ */
+public class BinaryEphemerisWriter {
+
+    /** Size of the file header. */
+    private static final int HEADER_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    /** Segments to write. */
+    private final List<SegmentData> segments;
+
+    /** Simple constructor.
+     */
+    public BinaryEphemerisWriter() {
+        this.segments = new ArrayList<>();
+    }
+
+    /** Add a segment without covariance, centered on Earth.
+     * @param objectID object ID
+     * @param states states of the segment, in chronological order
+     * @param interpolationPoints number of points to use in interpolation
+     * @param withAttitude if true, attitude is written
+     * @exception OrekitException if states are not in chronological order or
+     * are not compatible with each other
+     */
+    public void addSegment(final String objectID, final List<SpacecraftState> states,
+                           final int interpolationPoints, final boolean withAttitude)
+        throws OrekitException {
+        addSegment(objectID, CelestialBodyFactory.EARTH, states, null, interpolationPoints, withAttitude);
+    }
+
+    /** Add a segment.
+     * @param objectID object ID
+     * @param centerName name of the center of the frame
+     * @param states states of the segment, in chronological order
+     * @param covariances position-velocity covariance matrices in the states frame,
+     * one for each state (null if covariance is not written)
+     * @param interpolationPoints number of points to use in interpolation
+     * @param withAttitude if true, attitude is written
+     * @exception OrekitException if states are not in chronological order or
+     * are not compatible with each other
+     */
+    public void addSegment(final String objectID, final String centerName,
+                           final List<SpacecraftState> states, final List<RealMatrix> covariances,
+                           final int interpolationPoints, final boolean withAttitude)
+        throws OrekitException {
+
+        if (states == null || states.isEmpty()) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.NULL_ARGUMENT, "states");
+        }
+        if (interpolationPoints < 1) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.NOT_ENOUGH_DATA_FOR_INTERPOLATION,
+                                                     interpolationPoints);
+        }
+
+        // check states consistency
+        final SpacecraftState first = states.get(0);
+        for (int i = 1; i < states.size(); ++i) {
+            final SpacecraftState previous = states.get(i - 1);
+            final SpacecraftState current  = states.get(i);
+            first.ensureCompatibleAdditionalStates(current);
+            if (current.getFrame() != first.getFrame()) {
+                throw new OrekitException(OrekitMessages.FRAMES_MISMATCH,
+                                          current.getFrame().getName(), first.getFrame().getName());
+            }
+            if (current.getDate().compareTo(previous.getDate()) <= 0) {
+                throw new OrekitException(OrekitMessages.NON_CHRONOLOGICALLY_SORTED_ENTRIES,
+                                          previous.getDate(), current.getDate());
+            }
+        }
+
+        // check covariances
+        if (covariances != null) {
+            if (covariances.size() != states.size()) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       covariances.size(), states.size());
+            }
+            for (final RealMatrix covariance : covariances) {
+                if (covariance.getRowDimension()    != BinaryEphemerisFile.COVARIANCE_SIZE ||
+                    covariance.getColumnDimension() != BinaryEphemerisFile.COVARIANCE_SIZE) {
+                    throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2,
+                                                           covariance.getRowDimension(),
+                                                           covariance.getColumnDimension(),
+                                                           BinaryEphemerisFile.COVARIANCE_SIZE,
+                                                           BinaryEphemerisFile.COVARIANCE_SIZE);
+                }
+            }
+        }
+
+        segments.add(new SegmentData(objectID, centerName, new ArrayList<>(states),
+                                     (covariances == null) ? null : new ArrayList<>(covariances),
+                                     interpolationPoints, withAttitude));
+
+    }
+
+    /** Add a segment sampled from a bounded propagator.
+     * <p>
+     * The propagator is sampled at fixed step from its {@link BoundedPropagator#getMinDate()
+     * min date} to its {@link BoundedPropagator#getMaxDate() max date}, both included.
+     * This is typically used to save the {@link
+     * org.orekit.propagation.integration.AbstractIntegratedPropagator#getGeneratedEphemeris()
+     * generated ephemeris} of a numerical propagator.
+     * </p>
+     * @param objectID object ID
+     * @param centerName name of the center of the frame
+     * @param propagator propagator to sample
+     * @param step sampling step (s)
+     * @param interpolationPoints number of points to use in interpolation
+     * @param withAttitude if true, attitude is written
+     * @exception OrekitException if propagator cannot be sampled
+     */
+    public void addSegment(final String objectID, final String centerName,
+                           final BoundedPropagator propagator, final double step,
+                           final int interpolationPoints, final boolean withAttitude)
+        throws OrekitException {
+        final AbsoluteDate minDate = propagator.getMinDate();
+        final AbsoluteDate maxDate = propagator.getMaxDate();
+        final int n = (int) FastMath.ceil(maxDate.durationFrom(minDate) / step);
+        final List<SpacecraftState> states = new ArrayList<>(n + 1);
+        for (int i = 0; i < n; ++i) {
+            states.add(propagator.propagate(minDate.shiftedBy(i * step)));
+        }
+        states.add(propagator.propagate(maxDate));
+        addSegment(objectID, centerName, states, null, interpolationPoints, withAttitude);
+    }
+
+    /** Write the registered segments to a file.
+     * @param path path of the file to write
+     * @exception OrekitException if file cannot be written
+     */
+    public void write(final Path path) throws OrekitException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Write the registered segments to a stream.
+     * <p>
+     * The stream is flushed but not closed.
+     * </p>
+     * @param out stream where to write the segments
+     * @exception OrekitException if segments cannot be written
+     */
+    public void write(final OutputStream out) throws OrekitException {
+        try {
+
+            // compute descriptors sizes, to get the data offsets
+            long headerSize = HEADER_SIZE;
+            for (final SegmentData segment : segments) {
+                headerSize += segment.descriptor(0L).length;
+            }
+            long offset = align(headerSize);
+            final List<byte[]> descriptors = new ArrayList<>(segments.size());
+            for (final SegmentData segment : segments) {
+                descriptors.add(segment.descriptor(offset));
+                offset += segment.dataSize();
+            }
+
+            final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+
+            // header and descriptors
+            dos.writeLong(BinaryEphemerisFile.MAGIC);
+            dos.writeInt(BinaryEphemerisFile.FORMAT_VERSION);
+            dos.writeInt(segments.size());
+            for (final byte[] descriptor : descriptors) {
+                dos.write(descriptor);
+            }
+            for (long i = headerSize; i < align(headerSize); ++i) {
+                dos.writeByte(0);
+            }
+
+            // data
+            for (final SegmentData segment : segments) {
+                segment.writeData(dos);
+            }
+
+            dos.flush();
+
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Align an offset on 8 bytes boundary.
+     * @param offset offset to align
+     * @return aligned offset
+     */
+    private static long align(final long offset) {
+        return (offset + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /** Container for segments to write. */
+    private static class SegmentData {
+
+        /** Object ID. */
+        private final String objectID;
+
+        /** Name of the center of the frame. */
+        private final String centerName;
+
+        /** States. */
+        private final List<SpacecraftState> states;
+
+        /** Covariances (null if not written). */
+        private final List<RealMatrix> covariances;
+
+        /** Number of points to use in interpolation. */
+        private final int interpolationPoints;
+
+        /** Indicator for attitude writing. */
+        private final boolean withAttitude;
+
+        /** Names of the additional states. */
+        private final List<String> additionalNames;
+
+        /** Reference date. */
+        private final AbsoluteDate reference;
+
+        /** Integer seconds of reference date from J2000.0. */
+        private final long referenceSeconds;
+
+        /** Simple constructor.
+         * @param objectID object ID
+         * @param centerName name of the center of the frame
+         * @param states states
+         * @param covariances covariances (null if not written)
+         * @param interpolationPoints number of points to use in interpolation
+         * @param withAttitude if true, attitude is written
+         */
+        SegmentData(final String objectID, final String centerName,
+                    final List<SpacecraftState> states, final List<RealMatrix> covariances,
+                    final int interpolationPoints, final boolean withAttitude) {
+            this.objectID            = objectID;
+            this.centerName          = centerName;
+            this.states              = states;
+            this.covariances         = covariances;
+            this.interpolationPoints = interpolationPoints;
+            this.withAttitude        = withAttitude;
+            this.additionalNames     = new ArrayList<>(states.get(0).getAdditionalStates().keySet());
+            Collections.sort(additionalNames);
+            this.referenceSeconds    = (long) FastMath.floor(states.get(0).getDate().durationFrom(AbsoluteDate.J2000_EPOCH));
+            this.reference           = AbsoluteDate.J2000_EPOCH.shiftedBy(referenceSeconds);
+        }
+
+        /** Build the segment descriptor.
+         * @param dataOffset offset of the segment data from file start
+         * @return segment descriptor
+         * @exception IOException if descriptor cannot be built
+         */
+        public byte[] descriptor(final long dataOffset) throws IOException {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            final DataOutputStream      dos = new DataOutputStream(bos);
+            final SpacecraftState first = states.get(0);
+            dos.writeUTF(objectID);
+            dos.writeUTF(centerName);
+            dos.writeUTF(first.getFrame().getName());
+            dos.writeDouble(first.getMu());
+            dos.writeInt(interpolationPoints);
+            dos.writeInt((withAttitude ? BinaryEphemerisFile.ATTITUDE_FLAG : 0) |
+                         (covariances != null ? BinaryEphemerisFile.COVARIANCE_FLAG : 0));
+            dos.writeInt(states.size());
+            dos.writeLong(referenceSeconds);
+            dos.writeDouble(0.0);
+            dos.writeInt(additionalNames.size());
+            final Map<String, double[]> additional = first.getAdditionalStates();
+            for (final String name : additionalNames) {
+                dos.writeUTF(name);
+                dos.writeInt(additional.get(name).length);
+            }
+            dos.writeLong(dataOffset);
+            dos.flush();
+            return bos.toByteArray();
+        }
+
+        /** Get the size of the segment data.
+         * @return size of the segment data
+         */
+        public long dataSize() {
+            int stride = 1 + 1 + BinaryEphemerisFile.PVA_STRIDE + 1;
+            if (withAttitude) {
+                stride += BinaryEphemerisFile.ATTITUDE_STRIDE;
+            }
+            if (covariances != null) {
+                stride += BinaryEphemerisFile.COVARIANCE_STRIDE;
+            }
+            final Map<String, double[]> additional = states.get(0).getAdditionalStates();
+            for (final String name : additionalNames) {
+                stride += additional.get(name).length;
+            }
+            return ((long) stride) * states.size() * Double.BYTES;
+        }
+
+        /** Write the segment data.
+         * @param dos output stream
+         * @exception IOException if data cannot be written
+         * @exception OrekitException if attitude cannot be converted to segment frame
+         */
+        public void writeData(final DataOutputStream dos) throws IOException, OrekitException {
+
+            // dates, as integer seconds and fractional offsets from reference
+            final long[] seconds = new long[states.size()];
+            for (int i = 0; i < seconds.length; ++i) {
+                seconds[i] = (long) FastMath.floor(states.get(i).getDate().durationFrom(reference));
+                dos.writeLong(seconds[i]);
+            }
+            for (int i = 0; i < seconds.length; ++i) {
+                dos.writeDouble(states.get(i).getDate().durationFrom(reference.shiftedBy(seconds[i])));
+            }
+
+            // position-velocity-acceleration
+            for (final SpacecraftState state : states) {
+                final TimeStampedPVCoordinates pv = state.getPVCoordinates();
+                writeArray(dos, pv.getPosition().toArray());
+                writeArray(dos, pv.getVelocity().toArray());
+                writeArray(dos, pv.getAcceleration().toArray());
+            }
+
+            // mass
+            for (final SpacecraftState state : states) {
+                dos.writeDouble(state.getMass());
+            }
+
+            // attitude, with respect to segment frame
+            if (withAttitude) {
+                final Frame segmentFrame = states.get(0).getFrame();
+                for (final SpacecraftState state : states) {
+                    final TimeStampedAngularCoordinates orientation =
+                            state.getAttitude().withReferenceFrame(segmentFrame).getOrientation();
+                    final Rotation rotation = orientation.getRotation();
+                    dos.writeDouble(rotation.getQ0());
+                    dos.writeDouble(rotation.getQ1());
+                    dos.writeDouble(rotation.getQ2());
+                    dos.writeDouble(rotation.getQ3());
+                    writeArray(dos, orientation.getRotationRate().toArray());
+                    writeArray(dos, orientation.getRotationAcceleration().toArray());
+                }
+            }
+
+            // covariance
+            if (covariances != null) {
+                for (final RealMatrix covariance : covariances) {
+                    for (int i = 0; i < BinaryEphemerisFile.COVARIANCE_SIZE; ++i) {
+                        for (int j = 0; j <= i; ++j) {
+                            dos.writeDouble(covariance.getEntry(i, j));
+                        }
+                    }
+                }
+            }
+
+            // additional states
+            for (final String name : additionalNames) {
+                for (final SpacecraftState state : states) {
+                    writeArray(dos, state.getAdditionalStates().get(name));
+                }
+            }
+
+        }
+
+        /** Write an array.
+         * @param dos output stream
+         * @param array array to write
+         * @exception IOException if array cannot be written
+         */
+        private void writeArray(final DataOutputStream dos, final double[] array) throws IOException {
+            for (final double d : array) {
+                dos.writeDouble(d);
+            }
+        }
+
+    }
+
+}
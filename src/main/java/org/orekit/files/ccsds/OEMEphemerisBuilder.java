@@ -0,0 +1,190 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.ccsds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.AggregateBoundedPropagator;
+import org.orekit.propagation.analytical.CompactEphemeris;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Streaming handler building ephemerides from CCSDS Orbit Ephemeris Messages.
+ * <p>
+ * This handler is intended to be used with {@link
+ * OEMParser#parse(java.io.BufferedReader, String, OEMHandler)}. It feeds each
+ * ephemerides block into a {@link CompactEphemeris.Builder} as the data lines
+ * are parsed, so the full file is never held in memory as {@link
+ * TimeStampedPVCoordinates} lists: only the primitive arrays of the compact
+ * ephemerides are kept.
+ * </p>
+ * <p>
+ * As in {@link OEMFile.EphemeridesBlock#getPropagator()}, if the block frame is
+ * not {@link Frame#isPseudoInertial() pseudo-inertial}, the orbits are converted
+ * to GCRF, the attitude is {@link Propagator#DEFAULT_LAW} and the mass is {@link
+ * Propagator#DEFAULT_MASS}. The number of interpolation points is taken from the
+ * block {@link OEMFile.EphemeridesBlock#getInterpolationSamples() metadata},
+ * limited to the number of data lines in the block. Duplicated data lines at the
+ * same date are ignored.
+ * </p>
+ * <p>
+ * Contrary to {@link OEMFile.EphemeridesBlock#getPropagator()}, which interpolates
+ * positions and velocities in the block frame, interpolation is performed in the
+ * inertial frame. When data lines do not provide acceleration, only positions and
+ * velocities are converted to the inertial frame, and the Keplerian acceleration
+ * computed from the block gravitational coefficient is used in interpolation.
+ * </p>
+ * @see OEMParser#parse(java.io.BufferedReader, String, OEMHandler)
+ * @since 9.3
+ */
+public class OEMEphemerisBuilder implements OEMHandler {
+
+    /** Extrapolation threshold for the built ephemerides. */
+    private final double extrapolationThreshold;
+
+    /** Ephemerides built so far, per object ID. */
+    private final Map<String, List<CompactEphemeris>> ephemerides;
+
+    /** Builder for the current block. */
+    private CompactEphemeris.Builder builder;
+
+    /** Frame of the current block. */
+    private Frame blockFrame;
+
+    /** Inertial frame for the orbits of the current block. */
+    private Frame inertialFrame;
+
+    /** Gravitational coefficient of the current block. */
+    private double mu;
+
+    /** Date of the last data line in the current block. */
+    private AbsoluteDate lastDate;
+
+    /** Simple constructor.
+     * <p>
+     * The built ephemerides do not allow extrapolation.
+     * </p>
+     */
+    public OEMEphemerisBuilder() {
+        this(0.0);
+    }
+
+    /** Constructor with extrapolation threshold.
+     * @param extrapolationThreshold the largest time difference in seconds between
+     * the start or stop boundary of the ephemerides bounds to be doing extrapolation
+     */
+    public OEMEphemerisBuilder(final double extrapolationThreshold) {
+        this.extrapolationThreshold = extrapolationThreshold;
+        this.ephemerides            = new LinkedHashMap<>();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleMetaData(final OEMFile.EphemeridesBlock block)
+        throws OrekitException {
+        builder       = new CompactEphemeris.Builder();
+        blockFrame    = block.getFrame();
+        inertialFrame = blockFrame.isPseudoInertial() ? blockFrame : FramesFactory.getGCRF();
+        mu            = block.getMu();
+        lastDate      = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleEphemerisData(final OEMFile.EphemeridesBlock block, final AbsoluteDate date,
+                                    final double[] pva, final boolean hasAcceleration)
+        throws OrekitException {
+
+        if (date.equals(lastDate)) {
+            // ignore duplicated data lines
+            return;
+        }
+        lastDate = date;
+
+        final Vector3D acceleration = hasAcceleration ? new Vector3D(pva[6], pva[7], pva[8]) : Vector3D.ZERO;
+        TimeStampedPVCoordinates pv = new TimeStampedPVCoordinates(date,
+                                                                   new Vector3D(pva[0], pva[1], pva[2]),
+                                                                   new Vector3D(pva[3], pva[4], pva[5]),
+                                                                   acceleration);
+        if (blockFrame != inertialFrame) {
+            pv = blockFrame.getTransformTo(inertialFrame, date).transformPVCoordinates(pv);
+            if (!hasAcceleration) {
+                // the transform added inertial accelerations to the missing acceleration,
+                // drop it so the orbit computes the Keplerian acceleration in the inertial frame
+                pv = new TimeStampedPVCoordinates(date, pv.getPosition(), pv.getVelocity(), Vector3D.ZERO);
+            }
+        }
+
+        final CartesianOrbit orbit = new CartesianOrbit(pv, inertialFrame, mu);
+        builder.addState(new SpacecraftState(orbit,
+                                             Propagator.DEFAULT_LAW.getAttitude(orbit, date, inertialFrame),
+                                             Propagator.DEFAULT_MASS));
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleBlockEnd(final OEMFile.EphemeridesBlock block) {
+        if (builder.getSize() > 0) {
+            final int points = FastMath.min(block.getInterpolationSamples(), builder.getSize());
+            ephemerides.computeIfAbsent(block.getMetaData().getObjectID(), id -> new ArrayList<>()).
+                        add(builder.build(points, extrapolationThreshold));
+        }
+        builder = null;
+    }
+
+    /** Get the IDs of the objects for which ephemerides have been built.
+     * @return IDs of the objects, in the order of their first block in the file
+     */
+    public Set<String> getObjectIDs() {
+        return Collections.unmodifiableSet(ephemerides.keySet());
+    }
+
+    /** Get the ephemerides built for one object, one per ephemerides block.
+     * @param objectID ID of the object
+     * @return ephemerides built for the object, in file order (empty if the object is unknown)
+     */
+    public List<CompactEphemeris> getEphemerides(final String objectID) {
+        final List<CompactEphemeris> list = ephemerides.get(objectID);
+        return (list == null) ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    /** Get a propagator covering all the ephemerides blocks of one object.
+     * @param objectID ID of the object
+     * @return propagator aggregating all the ephemerides built for the object
+     * @exception OrekitException if no ephemerides have been built for the object
+     */
+    public BoundedPropagator getPropagator(final String objectID)
+        throws OrekitException {
+        return new AggregateBoundedPropagator(new ArrayList<BoundedPropagator>(getEphemerides(objectID)));
+    }
+
+}
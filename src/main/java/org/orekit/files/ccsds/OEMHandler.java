@@ -0,0 +1,104 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.ccsds;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.time.AbsoluteDate;
+
+/** Callback interface for streaming parsing of CCSDS Orbit Ephemeris Messages.
+ * <p>
+ * Instances of this interface are provided to {@link
+ * OEMParser#parse(java.io.BufferedReader, String, OEMHandler)}, which calls them
+ * as the file is read, without storing ephemeris data lines nor covariance
+ * matrices. This allows processing files of arbitrary size in constant memory.
+ * </p>
+ * <p>
+ * For each ephemerides block, the calls sequence is one call to {@link
+ * #handleMetaData(OEMFile.EphemeridesBlock) handleMetaData}, then one call to
+ * {@link #handleEphemerisData(OEMFile.EphemeridesBlock, AbsoluteDate, double[], boolean)
+ * handleEphemerisData} for each ephemeris data line, then one call to {@link
+ * #handleCovariance(OEMFile.EphemeridesBlock, OEMFile.CovarianceMatrix)
+ * handleCovariance} for each covariance matrix and finally one call to {@link
+ * #handleBlockEnd(OEMFile.EphemeridesBlock) handleBlockEnd}. The block passed as
+ * an argument contains the metadata, but its lists of ephemeris data lines and
+ * covariance matrices are not populated.
+ * </p>
+ * @see OEMParser#parse(java.io.BufferedReader, String, OEMHandler)
+ * @see OEMEphemerisBuilder
+ * @since 9.3
+ */
+public interface OEMHandler {
+
+    /** Handle the metadata of an ephemerides block.
+     * <p>
+     * This method is called when the {@code META_STOP} line is read. The
+     * default implementation does nothing.
+     * </p>
+     * @param block ephemerides block whose metadata have been parsed
+     * @exception OrekitException if the metadata cannot be handled
+     */
+    default void handleMetaData(final OEMFile.EphemeridesBlock block)
+        throws OrekitException {
+        // nothing by default
+    }
+
+    /** Handle one ephemeris data line.
+     * <p>
+     * The {@code pva} array is reused by the parser for all lines, it must
+     * therefore not be referenced by the handler after this method returns.
+     * </p>
+     * @param block ephemerides block the line belongs to
+     * @param date date of the data line
+     * @param pva array containing position, velocity and acceleration
+     * components, in meters, meters per second and meters per square second
+     * (acceleration components are meaningful only if {@code hasAcceleration}
+     * is true)
+     * @param hasAcceleration if true, the line contains acceleration components
+     * @exception OrekitException if the data line cannot be handled
+     */
+    void handleEphemerisData(OEMFile.EphemeridesBlock block, AbsoluteDate date,
+                             double[] pva, boolean hasAcceleration)
+        throws OrekitException;
+
+    /** Handle one covariance matrix.
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     * @param block ephemerides block the matrix belongs to
+     * @param covariance covariance matrix
+     * @exception OrekitException if the covariance matrix cannot be handled
+     */
+    default void handleCovariance(final OEMFile.EphemeridesBlock block,
+                                  final OEMFile.CovarianceMatrix covariance)
+        throws OrekitException {
+        // nothing by default
+    }
+
+    /** Handle the end of an ephemerides block.
+     * <p>
+     * This method is called when the next {@code META_START} line or the end
+     * of the file is reached. The default implementation does nothing.
+     * </p>
+     * @param block ephemerides block that has been completely parsed
+     * @exception OrekitException if the end of the block cannot be handled
+     */
+    default void handleBlockEnd(final OEMFile.EphemeridesBlock block)
+        throws OrekitException {
+        // nothing by default
+    }
+
+}
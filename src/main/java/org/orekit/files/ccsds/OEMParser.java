@@ -22,7 +22,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 import org.hipparchus.exception.DummyLocalizable;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -34,6 +33,9 @@ import org.orekit.files.general.EphemerisFileParser;
 import org.orekit.frames.Frame;
 import org.orekit.frames.LOFType;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScale;
 import org.orekit.utils.IERSConventions;
 import org.orekit.utils.TimeStampedPVCoordinates;
 
@@ -44,6 +46,19 @@ import org.orekit.utils.TimeStampedPVCoordinates;
  */
 public class OEMParser extends ODMParser implements EphemerisFileParser {
 
+    /** Maximum number of significant digits for exact in-place parsing of numbers. */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /** Powers of ten that are exactly representable as doubles. */
+    private static final double[] EXACT_POWERS = {
+        1.0e0,  1.0e1,  1.0e2,  1.0e3,  1.0e4,  1.0e5,  1.0e6,  1.0e7,
+        1.0e8,  1.0e9,  1.0e10, 1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15,
+        1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22
+    };
+
+    /** Maximum power of ten that is exactly representable as a double. */
+    private static final int MAX_EXACT_POWER = EXACT_POWERS.length - 1;
+
     /** Simple constructor.
      * <p>
      * This class is immutable, and hence thread safe. When parts
@@ -138,22 +153,68 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
 
     /** {@inheritDoc} */
     public OEMFile parse(final InputStream stream, final String fileName) throws OrekitException {
+        return parse(stream, fileName, new DataLinesCollector());
+    }
+
+    @Override
+    public OEMFile parse(final BufferedReader reader, final String fileName)
+            throws OrekitException {
+        return parse(reader, fileName, new DataLinesCollector());
+    }
+
+    /** Parse a CCSDS Orbit Ephemeris Message in streaming mode.
+     * <p>
+     * In streaming mode, ephemeris data lines and covariance matrices are
+     * not stored in the returned file, they are passed to the handler as
+     * soon as they are read. The returned file therefore contains only the
+     * header and the metadata of the ephemerides blocks, so the memory
+     * footprint does not depend on the number of data lines.
+     * </p>
+     * @param stream stream containing message
+     * @param fileName name of the file containing the message (for error messages)
+     * @param handler handler for the parsed metadata, data lines and covariances
+     * @return parsed file, without ephemeris data lines and covariance matrices
+     * @exception OrekitException if message cannot be parsed or if the handler triggers one
+     * @see #parse(BufferedReader, String, OEMHandler)
+     * @since 9.3
+     */
+    public OEMFile parse(final InputStream stream, final String fileName, final OEMHandler handler)
+        throws OrekitException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"))) {
-            return parse(reader, fileName);
+            return parse(reader, fileName, handler);
         } catch (IOException ioe) {
             throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
         }
     }
 
-    @Override
-    public OEMFile parse(final BufferedReader reader, final String fileName)
-            throws OrekitException {
+    /** Parse a CCSDS Orbit Ephemeris Message in streaming mode.
+     * <p>
+     * In streaming mode, ephemeris data lines and covariance matrices are
+     * not stored in the returned file, they are passed to the handler as
+     * soon as they are read. The returned file therefore contains only the
+     * header and the metadata of the ephemerides blocks, so the memory
+     * footprint does not depend on the number of data lines.
+     * </p>
+     * <p>
+     * Ephemeris data lines and covariance rows are tokenized in place, without
+     * regular expressions nor splitting the line into substrings.
+     * </p>
+     * @param reader reader containing message
+     * @param fileName name of the file containing the message (for error messages)
+     * @param handler handler for the parsed metadata, data lines and covariances
+     * @return parsed file, without ephemeris data lines and covariance matrices
+     * @exception OrekitException if message cannot be parsed or if the handler triggers one
+     * @since 9.3
+     */
+    public OEMFile parse(final BufferedReader reader, final String fileName, final OEMHandler handler)
+        throws OrekitException {
 
         try {
 
             // initialize internal data structures
             final ParseInfo pi = new ParseInfo();
             pi.fileName = fileName;
+            pi.handler  = handler;
             final OEMFile file = pi.file;
 
             // set the additional data that has been configured prior the parsing by the user.
@@ -163,19 +224,51 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
 
             for (String line = reader.readLine(); line != null; line = reader.readLine()) {
                 ++pi.lineNumber;
-                if (line.trim().length() == 0) {
+                final int first = skipBlanks(line, 0);
+                if (first == line.length()) {
                     continue;
                 }
+
+                // data lines are the only ones that do not start with a keyword
+                final boolean keywordLine = Character.isLetter(line.charAt(first));
+                if (pi.inEphemeridesData && !keywordLine) {
+                    parseEphemerisDataLine(line, first, pi);
+                    continue;
+                }
+                if (pi.inCovarianceData && !keywordLine) {
+                    parseCovarianceDataLine(line, first, pi);
+                    continue;
+                }
+
                 pi.keyValue = new KeyValue(line, pi.lineNumber, pi.fileName);
                 if (pi.keyValue.getKeyword() == null) {
                     throw new OrekitException(OrekitMessages.CCSDS_UNEXPECTED_KEYWORD, pi.lineNumber, pi.fileName, line);
                 }
+
+                if (pi.inEphemeridesData) {
+                    switch (pi.keyValue.getKeyword()) {
+                        case COMMENT:
+                            pi.commentTmp.add(pi.keyValue.getValue());
+                            continue;
+                        case META_START:
+                        case COVARIANCE_START:
+                            endEphemeridesDataLines(pi);
+                            break;
+                        default :
+                            throw new OrekitException(OrekitMessages.CCSDS_UNEXPECTED_KEYWORD, pi.lineNumber, pi.fileName, line);
+                    }
+                } else if (pi.inCovarianceData) {
+                    parseCovarianceKeyword(line, pi);
+                    continue;
+                }
+
                 switch (pi.keyValue.getKeyword()) {
                     case CCSDS_OEM_VERS:
                         file.setFormatVersion(pi.keyValue.getDoubleValue());
                         break;
 
                     case META_START:
+                        endEphemeridesBlock(pi);
                         file.addEphemeridesBlock();
                         pi.lastEphemeridesBlock = file.getEphemeridesBlocks().get(file.getEphemeridesBlocks().size() - 1);
                         pi.lastEphemeridesBlock.getMetaData().setLaunchYear(getLaunchYear());
@@ -211,11 +304,12 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
 
                     case META_STOP:
                         file.setMuUsed();
-                        parseEphemeridesDataLines(reader, pi);
+                        startEphemeridesDataLines(pi);
                         break;
 
                     case COVARIANCE_START:
-                        parseCovarianceDataLines(reader, pi);
+                        pi.inCovarianceData = true;
+                        pi.lastMatrix       = null;
                         break;
 
                     default:
@@ -234,6 +328,12 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
                         }
                 }
             }
+
+            if (pi.inEphemeridesData) {
+                endEphemeridesDataLines(pi);
+            }
+            endEphemeridesBlock(pi);
+
             file.checkTimeSystems();
             return file;
         } catch (IOException ioe) {
@@ -241,153 +341,409 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
         }
     }
 
+    /** Start the ephemeris data lines section of an ephemerides block.
+     * @param pi the parser info
+     * @exception OrekitException if the handler triggers one
+     */
+    private void startEphemeridesDataLines(final ParseInfo pi)
+        throws OrekitException {
+
+        pi.inEphemeridesData = true;
+        pi.blockStarted      = true;
+
+        // set up fast dates parsing, which is possible only for absolute time systems
+        final CcsdsTimeScale timeSystem = pi.lastEphemeridesBlock.getMetaData().getTimeSystem();
+        pi.cachedDay = null;
+        if (timeSystem == CcsdsTimeScale.MET || timeSystem == CcsdsTimeScale.MRT ||
+            timeSystem == CcsdsTimeScale.SCLK || timeSystem == null) {
+            pi.timeScale = null;
+        } else {
+            pi.timeScale = timeSystem.getTimeScale(getConventions());
+        }
+
+        pi.handler.handleMetaData(pi.lastEphemeridesBlock);
+
+    }
+
+    /** End the ephemeris data lines section of an ephemerides block.
+     * @param pi the parser info
+     */
+    private void endEphemeridesDataLines(final ParseInfo pi) {
+        pi.lastEphemeridesBlock.setEphemeridesDataLinesComment(pi.commentTmp);
+        pi.commentTmp.clear();
+        pi.inEphemeridesData = false;
+    }
+
+    /** End an ephemerides block, if one has been started.
+     * @param pi the parser info
+     * @exception OrekitException if the handler triggers one
+     */
+    private void endEphemeridesBlock(final ParseInfo pi)
+        throws OrekitException {
+        if (pi.blockStarted) {
+            pi.blockStarted = false;
+            pi.handler.handleBlockEnd(pi.lastEphemeridesBlock);
+        }
+    }
+
     /**
-     * Parse an ephemeris data line and add its content to the ephemerides
-     * block.
+     * Parse an ephemeris data line and pass its content to the handler.
      *
-     * @param reader the reader
+     * @param line line to parse
+     * @param first index of the first non-blank character in the line
      * @param pi the parser info
-     * @exception IOException if an error occurs while reading from the stream
      * @exception OrekitException if a date cannot be parsed
      */
-    private void parseEphemeridesDataLines(final BufferedReader reader,  final ParseInfo pi)
-        throws OrekitException, IOException {
+    private void parseEphemerisDataLine(final String line, final int first, final ParseInfo pi)
+        throws OrekitException {
+
+        // date
+        final int dateEnd = skipNonBlanks(line, first);
+        final AbsoluteDate date = parseDataLineDate(line, first, dateEnd, pi);
+
+        // position, velocity and optional acceleration
+        int start = skipBlanks(line, dateEnd);
+        int count = 0;
+        while (start < line.length()) {
+            final int end = skipNonBlanks(line, start);
+            if (count == pi.pva.length) {
+                throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
+                                          pi.lineNumber, pi.fileName, line);
+            }
+            pi.pva[count++] = parseNumber(line, start, end, pi) * 1000;
+            start = skipBlanks(line, end);
+        }
+        if (count != 6 && count != pi.pva.length) {
+            throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
+                                      pi.lineNumber, pi.fileName, line);
+        }
 
-        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        final boolean hasAcceleration = count == pi.pva.length;
+        pi.lastEphemeridesBlock.updateHasAcceleration(hasAcceleration);
+        pi.handler.handleEphemerisData(pi.lastEphemeridesBlock, date, pi.pva, hasAcceleration);
 
-            ++pi.lineNumber;
-            if (line.trim().length() > 0) {
-                pi.keyValue = new KeyValue(line, pi.lineNumber, pi.fileName);
-                if (pi.keyValue.getKeyword() == null) {
-                    Scanner sc = null;
-                    try {
-                        sc = new Scanner(line);
-                        final AbsoluteDate date = parseDate(sc.next(), pi.lastEphemeridesBlock.getMetaData().getTimeSystem());
-                        final Vector3D position = new Vector3D(Double.parseDouble(sc.next()) * 1000,
-                                                               Double.parseDouble(sc.next()) * 1000,
-                                                               Double.parseDouble(sc.next()) * 1000);
-                        final Vector3D velocity = new Vector3D(Double.parseDouble(sc.next()) * 1000,
-                                                               Double.parseDouble(sc.next()) * 1000,
-                                                               Double.parseDouble(sc.next()) * 1000);
-                        Vector3D acceleration = Vector3D.NaN;
-                        boolean hasAcceleration = false;
-                        if (sc.hasNext()) {
-                            acceleration = new Vector3D(Double.parseDouble(sc.next()) * 1000,
-                                                        Double.parseDouble(sc.next()) * 1000,
-                                                        Double.parseDouble(sc.next()) * 1000);
-                            hasAcceleration = true;
-                        }
-                        final TimeStampedPVCoordinates epDataLine;
-                        if (hasAcceleration) {
-                            epDataLine = new TimeStampedPVCoordinates(date, position, velocity, acceleration);
-                        } else {
-                            epDataLine = new TimeStampedPVCoordinates(date, position, velocity);
-                        }
-                        pi.lastEphemeridesBlock.getEphemeridesDataLines().add(epDataLine);
-                        pi.lastEphemeridesBlock.updateHasAcceleration(hasAcceleration);
-                    } catch (NumberFormatException nfe) {
-                        throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
-                                                  pi.lineNumber, pi.fileName, line);
-                    } finally {
-                        if (sc != null) {
-                            sc.close();
-                        }
-                    }
-                } else {
-                    switch (pi.keyValue.getKeyword()) {
-                        case META_START:
-                            pi.lastEphemeridesBlock.setEphemeridesDataLinesComment(pi.commentTmp);
-                            pi.commentTmp.clear();
-                            pi.lineNumber--;
-                            reader.reset();
-                            return;
-                        case COVARIANCE_START:
-                            pi.lastEphemeridesBlock.setEphemeridesDataLinesComment(pi.commentTmp);
-                            pi.commentTmp.clear();
-                            pi.lineNumber--;
-                            reader.reset();
-                            return;
-                        case COMMENT:
-                            pi.commentTmp.add(pi.keyValue.getValue());
-                            break;
-                        default :
-                            throw new OrekitException(OrekitMessages.CCSDS_UNEXPECTED_KEYWORD, pi.lineNumber, pi.fileName, line);
+    }
+
+    /** Parse the date of an ephemeris data line.
+     * <p>
+     * Dates in absolute time systems using the calendar or ordinal
+     * extended ISO-8601 formats without time zone (which are the formats
+     * used in practice in CCSDS files) are parsed in place, reusing the
+     * day components from one line to the next. Other dates are delegated
+     * to the general {@link #parseDate(String, CcsdsTimeScale)} method.
+     * </p>
+     * @param line line containing the date
+     * @param start index of the first character of the date
+     * @param end index after the last character of the date
+     * @param pi the parser info
+     * @return parsed date
+     * @exception OrekitException if date cannot be parsed
+     */
+    private AbsoluteDate parseDataLineDate(final String line, final int start, final int end,
+                                           final ParseInfo pi)
+        throws OrekitException {
+
+        if (pi.timeScale != null) {
+
+            // day part
+            final int tIndex = line.indexOf('T', start);
+            int year  = -1;
+            int month = -1;
+            int day   = -1;
+            if (tIndex == start + 10 && line.charAt(start + 4) == '-' && line.charAt(start + 7) == '-') {
+                // calendar date YYYY-MM-DD
+                year  = parseDigits(line, start,     4);
+                month = parseDigits(line, start + 5, 2);
+                day   = parseDigits(line, start + 8, 2);
+            } else if (tIndex == start + 8 && line.charAt(start + 4) == '-') {
+                // ordinal date YYYY-DDD
+                year  = parseDigits(line, start,     4);
+                month = 0;
+                day   = parseDigits(line, start + 5, 3);
+            }
+
+            // time part hh:mm:ss[.sss]
+            final int timeStart = tIndex + 1;
+            if (year >= 0 && month >= 0 && day >= 0 && end >= timeStart + 8 &&
+                line.charAt(timeStart + 2) == ':' && line.charAt(timeStart + 5) == ':' &&
+                isSecondsField(line, timeStart + 6, end)) {
+                final int hour   = parseDigits(line, timeStart,     2);
+                final int minute = parseDigits(line, timeStart + 3, 2);
+                if (hour >= 0 && minute >= 0) {
+                    if (pi.cachedDay == null ||
+                        year != pi.cachedYear || month != pi.cachedMonth || day != pi.cachedDayNumber) {
+                        pi.cachedDay       = (month == 0) ? new DateComponents(year, day) : new DateComponents(year, month, day);
+                        pi.cachedYear      = year;
+                        pi.cachedMonth     = month;
+                        pi.cachedDayNumber = day;
                     }
+                    final double second = parseNumber(line, timeStart + 6, end, pi);
+                    return new AbsoluteDate(pi.cachedDay, new TimeComponents(hour, minute, second), pi.timeScale);
                 }
             }
-            reader.mark(300);
 
         }
+
+        // general case
+        return parseDate(line.substring(start, end), pi.lastEphemeridesBlock.getMetaData().getTimeSystem());
+
     }
 
     /**
-     * Parse the covariance data lines, create a set of CovarianceMatrix objects
-     * and add them in the covarianceMatrices list of the ephemerides block.
+     * Parse one row of a covariance matrix.
      *
-     * @param reader the reader
+     * @param line line to parse
+     * @param first index of the first non-blank character in the line
      * @param pi the parser info
-     * @throws IOException if an error occurs while reading from the stream
-     * @throws OrekitException if the frame cannot be retrieved
+     * @exception OrekitException if the line cannot be parsed or if the handler triggers one
      */
-    private void parseCovarianceDataLines(final BufferedReader reader, final ParseInfo pi)
-        throws IOException, OrekitException  {
-        int i = 0;
-        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
-
-            ++pi.lineNumber;
-            if (line.trim().length() == 0) {
-                continue;
+    private void parseCovarianceDataLine(final String line, final int first, final ParseInfo pi)
+        throws OrekitException {
+
+        if (pi.lastMatrix == null || pi.covarianceRow >= pi.lastMatrix.getRowDimension()) {
+            throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
+                                      pi.lineNumber, pi.fileName, line);
+        }
+
+        // lower triangular part of the matrix
+        final int i = pi.covarianceRow;
+        int start = first;
+        for (int j = 0; j < i + 1; j++) {
+            if (start == line.length()) {
+                throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
+                                          pi.lineNumber, pi.fileName, line);
             }
-            pi.keyValue = new KeyValue(line, pi.lineNumber, pi.fileName);
-            if (pi.keyValue.getKeyword() == null) {
-                final Scanner sc = new Scanner(line);
-                for (int j = 0; j < i + 1; j++) {
-                    try {
-                        pi.lastMatrix.addToEntry(i, j, Double.parseDouble(sc.next()));
-                    } catch (NumberFormatException nfe) {
-                        sc.close();
-                        throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
-                                                  pi.lineNumber, pi.fileName, line);
-                    }
-                    if (j != i) {
-                        pi.lastMatrix.addToEntry(j, i, pi.lastMatrix.getEntry(i, j));
-                    }
+            final int end = skipNonBlanks(line, start);
+            final double value = parseNumber(line, start, end, pi);
+            pi.lastMatrix.setEntry(i, j, value);
+            pi.lastMatrix.setEntry(j, i, value);
+            start = skipBlanks(line, end);
+        }
+
+        if (++pi.covarianceRow == pi.lastMatrix.getRowDimension()) {
+            pi.handler.handleCovariance(pi.lastEphemeridesBlock,
+                                        new OEMFile.CovarianceMatrix(pi.epoch, pi.covRefLofType, pi.covRefFrame,
+                                                                     pi.lastMatrix));
+        }
+
+    }
+
+    /**
+     * Parse a keyword line within a covariance section.
+     *
+     * @param line line to parse
+     * @param pi the parser info
+     * @throws OrekitException if the keyword is not allowed or the frame cannot be retrieved
+     */
+    private void parseCovarianceKeyword(final String line, final ParseInfo pi)
+        throws OrekitException  {
+        switch (pi.keyValue.getKeyword()) {
+            case EPOCH :
+                pi.covarianceRow = 0;
+                pi.covRefLofType = null;
+                pi.covRefFrame   = null;
+                pi.lastMatrix    = MatrixUtils.createRealMatrix(6, 6);
+                pi.epoch         = parseDate(pi.keyValue.getValue(), pi.lastEphemeridesBlock.getMetaData().getTimeSystem());
+                break;
+            case COV_REF_FRAME :
+                final CCSDSFrame frame = parseCCSDSFrame(pi.keyValue.getValue());
+                if (frame.isLof()) {
+                    pi.covRefLofType = frame.getLofType();
+                    pi.covRefFrame   = null;
+                } else {
+                    pi.covRefLofType = null;
+                    pi.covRefFrame   = frame.getFrame(getConventions(), isSimpleEOP());
                 }
-                if (i == 5) {
-                    final OEMFile.CovarianceMatrix cm =
-                            new OEMFile.CovarianceMatrix(pi.epoch, pi.covRefLofType, pi.covRefFrame, pi.lastMatrix);
-                    pi.lastEphemeridesBlock.getCovarianceMatrices().add(cm);
+                break;
+            case COVARIANCE_STOP :
+                pi.inCovarianceData = false;
+                break;
+            default :
+                throw new OrekitException(OrekitMessages.CCSDS_UNEXPECTED_KEYWORD, pi.lineNumber, pi.fileName, line);
+        }
+    }
+
+    /** Skip blank characters.
+     * @param line line to scan
+     * @param start index of the first character to check
+     * @return index of the first non-blank character at or after start
+     * (or line length if there are none)
+     */
+    private static int skipBlanks(final String line, final int start) {
+        int index = start;
+        while (index < line.length() && line.charAt(index) <= ' ') {
+            ++index;
+        }
+        return index;
+    }
+
+    /** Skip non-blank characters.
+     * @param line line to scan
+     * @param start index of the first character to check
+     * @return index of the first blank character at or after start
+     * (or line length if there are none)
+     */
+    private static int skipNonBlanks(final String line, final int start) {
+        int index = start;
+        while (index < line.length() && line.charAt(index) > ' ') {
+            ++index;
+        }
+        return index;
+    }
+
+    /** Parse a fixed-width unsigned integer field.
+     * @param line line containing the field
+     * @param start index of the first digit
+     * @param length number of digits
+     * @return parsed value, or -1 if the field contains non-digit characters
+     */
+    private static int parseDigits(final String line, final int start, final int length) {
+        int value = 0;
+        for (int k = start; k < start + length; ++k) {
+            final char c = line.charAt(k);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /** Check if a field contains seconds in the form ss or ss.sss.
+     * @param line line containing the field
+     * @param start index of the first character of the field
+     * @param end index after the last character of the field
+     * @return true if the field has the expected form
+     */
+    private static boolean isSecondsField(final String line, final int start, final int end) {
+        if (end < start + 2 || end == start + 3) {
+            return false;
+        }
+        for (int k = start; k < end; ++k) {
+            final char c = line.charAt(k);
+            if ((k == start + 2) ? (c != '.') : (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Parse a number.
+     * <p>
+     * Numbers with at most 15 significant digits and a decimal exponent
+     * within ±22 are parsed in place, using the exact fast path from William D.
+     * Clinger's 1990 paper "How to read floating point numbers accurately":
+     * both the mantissa and the power of ten are exactly representable,
+     * so a single correctly rounded multiplication or division gives the
+     * same result as {@link Double#parseDouble(String)}. Other numbers are
+     * delegated to {@link Double#parseDouble(String)}.
+     * </p>
+     * @param line line containing the number
+     * @param start index of the first character of the number
+     * @param end index after the last character of the number
+     * @param pi the parser info
+     * @return parsed number
+     * @exception OrekitException if the field is not a number
+     */
+    private static double parseNumber(final String line, final int start, final int end, final ParseInfo pi)
+        throws OrekitException {
+
+        int index = start;
+        boolean negative = false;
+        if (index < end && (line.charAt(index) == '-' || line.charAt(index) == '+')) {
+            negative = line.charAt(index) == '-';
+            ++index;
+        }
+
+        // mantissa
+        long    mantissa    = 0;
+        int     significant = 0;
+        int     exponent    = 0;
+        boolean digits      = false;
+        boolean point       = false;
+        boolean fast        = true;
+        while (fast && index < end) {
+            final char c = line.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digits   = true;
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    ++significant;
+                    fast = significant <= MAX_EXACT_DIGITS;
                 }
-                i++;
-                if (sc != null) {
-                    sc.close();
+                if (point) {
+                    --exponent;
                 }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else if (c == 'e' || c == 'E') {
+                break;
             } else {
-                switch (pi.keyValue.getKeyword()) {
-                    case EPOCH :
-                        i                = 0;
-                        pi.covRefLofType = null;
-                        pi.covRefFrame   = null;
-                        pi.lastMatrix    = MatrixUtils.createRealMatrix(6, 6);
-                        pi.epoch         = parseDate(pi.keyValue.getValue(), pi.lastEphemeridesBlock.getMetaData().getTimeSystem());
-                        break;
-                    case COV_REF_FRAME :
-                        final CCSDSFrame frame = parseCCSDSFrame(pi.keyValue.getValue());
-                        if (frame.isLof()) {
-                            pi.covRefLofType = frame.getLofType();
-                            pi.covRefFrame   = null;
-                        } else {
-                            pi.covRefLofType = null;
-                            pi.covRefFrame   = frame.getFrame(getConventions(), isSimpleEOP());
-                        }
-                        break;
-                    case COVARIANCE_STOP :
-                        return;
-                    default :
-                        throw new OrekitException(OrekitMessages.CCSDS_UNEXPECTED_KEYWORD, pi.lineNumber, pi.fileName, line);
-                }
+                fast = false;
             }
+            ++index;
+        }
+
+        // exponent
+        if (fast && index < end) {
+            ++index;
+            boolean negativeExponent = false;
+            if (index < end && (line.charAt(index) == '-' || line.charAt(index) == '+')) {
+                negativeExponent = line.charAt(index) == '-';
+                ++index;
+            }
+            final int length = end - index;
+            final int e = (length > 0 && length < 4) ? parseDigits(line, index, length) : -1;
+            if (e < 0) {
+                fast = false;
+            } else {
+                exponent += negativeExponent ? -e : e;
+            }
+        }
+
+        if (fast && digits && exponent >= -MAX_EXACT_POWER && exponent <= MAX_EXACT_POWER) {
+            final double value = (exponent >= 0) ?
+                                 mantissa * EXACT_POWERS[exponent] :
+                                 mantissa / EXACT_POWERS[-exponent];
+            return negative ? -value : value;
+        }
+
+        // general case
+        try {
+            return Double.parseDouble(line.substring(start, end));
+        } catch (NumberFormatException nfe) {
+            throw new OrekitException(OrekitMessages.UNABLE_TO_PARSE_LINE_IN_FILE,
+                                      pi.lineNumber, pi.fileName, line);
         }
+
+    }
+
+    /** Handler storing ephemeris data lines and covariance matrices in their block. */
+    private static class DataLinesCollector implements OEMHandler {
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleEphemerisData(final OEMFile.EphemeridesBlock block, final AbsoluteDate date,
+                                        final double[] pva, final boolean hasAcceleration) {
+            final Vector3D position = new Vector3D(pva[0], pva[1], pva[2]);
+            final Vector3D velocity = new Vector3D(pva[3], pva[4], pva[5]);
+            final TimeStampedPVCoordinates epDataLine;
+            if (hasAcceleration) {
+                epDataLine = new TimeStampedPVCoordinates(date, position, velocity,
+                                                          new Vector3D(pva[6], pva[7], pva[8]));
+            } else {
+                epDataLine = new TimeStampedPVCoordinates(date, position, velocity);
+            }
+            block.getEphemeridesDataLines().add(epDataLine);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleCovariance(final OEMFile.EphemeridesBlock block,
+                                     final OEMFile.CovarianceMatrix covariance) {
+            block.getCovarianceMatrices().add(covariance);
+        }
+
     }
 
     /** Private class used to stock OEM parsing info.
@@ -401,6 +757,39 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
         /** Name of the file. */
         private String fileName;
 
+        /** Handler for parsed data. */
+        private OEMHandler handler;
+
+        /** Indicator for ephemeris data lines section. */
+        private boolean inEphemeridesData;
+
+        /** Indicator for covariance section. */
+        private boolean inCovarianceData;
+
+        /** Indicator for ephemerides block whose metadata have been handled. */
+        private boolean blockStarted;
+
+        /** Position, velocity and acceleration of current data line. */
+        private double[] pva;
+
+        /** Time scale for fast dates parsing (null if not available). */
+        private TimeScale timeScale;
+
+        /** Day components of last parsed data line. */
+        private DateComponents cachedDay;
+
+        /** Year of last parsed data line. */
+        private int cachedYear;
+
+        /** Month of last parsed data line (0 for ordinal dates). */
+        private int cachedMonth;
+
+        /** Day in month or in year of last parsed data line. */
+        private int cachedDayNumber;
+
+        /** Index of next covariance matrix row. */
+        private int covarianceRow;
+
         /** Current line number. */
         private int lineNumber;
 
@@ -429,6 +818,7 @@ public class OEMParser extends ODMParser implements EphemerisFileParser {
             lineNumber = 0;
             file = new OEMFile();
             commentTmp = new ArrayList<String>();
+            pva        = new double[9];
         }
     }
 }
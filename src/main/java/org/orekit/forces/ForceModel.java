@@ -29,6 +29,7 @@ import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
 import org.orekit.propagation.events.FieldEventDetector;
 import org.orekit.propagation.numerical.FieldTimeDerivativesEquations;
+import org.orekit.propagation.numerical.SpacecraftStateView;
 import org.orekit.propagation.numerical.TimeDerivativesEquations;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.utils.ParameterDriver;
@@ -96,6 +97,26 @@ public interface ForceModel {
         adder.addNonKeplerianAcceleration(acceleration(s, getParameters()));
     }
 
+    /** Compute the contribution of the force model to the perturbing
+     * acceleration, using a reusable state view.
+     * <p>
+     * This method is called by {@link org.orekit.propagation.numerical.NumericalPropagator
+     * numerical propagators} in {@link
+     * org.orekit.propagation.numerical.NumericalPropagator#setUseStateView(boolean) state view mode}.
+     * The default implementation builds the complete state from the view and calls
+     * {@link #addContribution(SpacecraftState, TimeDerivativesEquations)}. Force models
+     * that only need kinematics and mass should override it to read the view directly.
+     * </p>
+     * @param s current state view, only valid during the call
+     * @param adder object where the contribution should be added
+     * @exception OrekitException if some specific error occurs
+     * @since 9.3
+     */
+    default void addContribution(SpacecraftStateView s, TimeDerivativesEquations adder)
+        throws OrekitException {
+        addContribution(s.toSpacecraftState(), adder);
+    }
+
     /** Compute the contribution of the force model to the perturbing
      * acceleration.
      * @param s current state information: date, kinematics, attitude
@@ -0,0 +1,819 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.drag.atmosphere;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathArrays;
+import org.hipparchus.util.MathUtils;
+import org.orekit.bodies.BodyShape;
+import org.orekit.bodies.FieldGeodeticPoint;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.frames.Frame;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.FieldAbsoluteDate;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinatesProvider;
+
+/** Atmosphere decorator interpolating the density of an expensive model.
+ * <p>
+ * The logarithm of the density of the wrapped model is interpolated linearly in a
+ * four-dimensional grid of altitude, geodetic latitude, local solar time (i.e.
+ * longitude with respect to the Sun) and date. As the ground track of an orbit is
+ * almost fixed with respect to the Sun, all the revolutions performed during one
+ * date step go through the same cells. The default date step is therefore one day,
+ * which allows a low Earth orbit to reuse its cells for about fifteen revolutions,
+ * and consecutive days share the corners of their cells. The same cell is also
+ * generally used by all the stages of an integration step.
+ * </p>
+ * <p>
+ * Cells are built on demand. When a cell is built, the wrapped model is evaluated
+ * at its 16 corners (which are shared with neighboring cells) and at nine check
+ * points: the center of the cell and the centers of its eight facets. If the logarithm
+ * of density is quadratic within the cell, the error of the multilinear interpolation
+ * is Σ a<sub>d</sub> x<sub>d</sub> (1 - x<sub>d</sub>), as cross terms are interpolated
+ * exactly. The check points determine the four a<sub>d</sub> coefficients, hence the
+ * maximum error over the whole cell, which is compared to the tolerance together with
+ * the errors observed at the check points. The tolerance is therefore a bound on the
+ * relative error up to third order terms. Where the logarithm of density has slope
+ * discontinuities, as in models interpolating tabulated profiles like {@link
+ * HarrisPriester}, the error close to the discontinuity may reach twice the tolerance.
+ * </p>
+ * <p>
+ * If the tolerance is not met, the cell is split by halving the steps of the dimensions
+ * whose contribution to the error is too large, so for example the date dimension
+ * is refined only where the wrapped model varies quickly with time. Each dimension can
+ * be refined up to a maximum level. If the tolerance is not met even at maximum level,
+ * or if the wrapped model cannot be evaluated at some corner or check point (for example
+ * because it is below the model minimal altitude), the wrapped model is used directly
+ * for points in this cell. Cells containing discontinuities of the wrapped model, like
+ * steps in solar activity data, generally fail the check down to the maximum level and
+ * are handled this way.
+ * </p>
+ * <p>
+ * Both the cells and the grid nodes values are kept in least recently used caches with
+ * bounded sizes, so memory consumption remains bounded for arbitrary long propagations.
+ * </p>
+ * <p>
+ * The {@link RealFieldElement field} version of {@link #getDensity(FieldAbsoluteDate,
+ * FieldVector3D, Frame) getDensity} uses the same cells, so the derivatives of the
+ * density are the derivatives of the interpolating function, which is much faster than
+ * differentiating the wrapped model. It falls back to the field version of the wrapped
+ * model where the interpolation cannot be used.
+ * </p>
+ * <p>
+ * This class is thread-safe if the wrapped model is thread-safe.
+ * </p>
+ * @since 9.3
+ */
+public class CachedAtmosphere implements Atmosphere {
+
+    /** Default altitude step at level 0 (m). */
+    public static final double DEFAULT_ALTITUDE_STEP = 5000.0;
+
+    /** Default latitude step at level 0 (rad). */
+    public static final double DEFAULT_LATITUDE_STEP = FastMath.toRadians(5.0);
+
+    /** Default local solar time step at level 0 (rad). */
+    public static final double DEFAULT_LOCAL_TIME_STEP = FastMath.PI / 12;
+
+    /** Default date step at level 0 (s).
+     * <p>
+     * With the {@link #DEFAULT_MAX_LEVEL default maximum level}, the finest date
+     * step is 3 hours, which is the cadence of geomagnetic indices.
+     * </p>
+     */
+    public static final double DEFAULT_DATE_STEP = Constants.JULIAN_DAY;
+
+    /** Default maximum refinement level. */
+    public static final int DEFAULT_MAX_LEVEL = 3;
+
+    /** Default maximum number of cells kept in cache. */
+    public static final int DEFAULT_MAX_CELLS = 50000;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 20181017L;
+
+    /** Number of grid dimensions. */
+    private static final int DIMENSIONS = 4;
+
+    /** Number of cells corners. */
+    private static final int CORNERS = 16;
+
+    /** Check points offsets, in half steps from the first corner.
+     * <p>
+     * The first point is the cell center, the following ones are the
+     * centers of the two opposite facets along each dimension.
+     * </p>
+     */
+    private static final int[][] CHECK_POINTS = {
+        { 1, 1, 1, 1 },
+        { 0, 1, 1, 1 }, { 2, 1, 1, 1 },
+        { 1, 0, 1, 1 }, { 1, 2, 1, 1 },
+        { 1, 1, 0, 1 }, { 1, 1, 2, 1 },
+        { 1, 1, 1, 0 }, { 1, 1, 1, 2 }
+    };
+
+    /** Marker for cells where interpolation cannot be used. */
+    private static final Cell UNUSABLE = new Cell(null, 0);
+
+    /** Wrapped atmosphere model. */
+    private final Atmosphere atmosphere;
+
+    /** Earth body shape. */
+    private final BodyShape earth;
+
+    /** Sun position. */
+    private final PVCoordinatesProvider sun;
+
+    /** Relative tolerance on density. */
+    private final double tolerance;
+
+    /** Tolerance on logarithm of density. */
+    private final double logTolerance;
+
+    /** Altitude step at level 0 (m). */
+    private final double altitudeStep;
+
+    /** Number of latitude steps at level 0. */
+    private final int latitudeSteps;
+
+    /** Number of local solar time steps at level 0. */
+    private final int localTimeSteps;
+
+    /** Date step at level 0 (s). */
+    private final double dateStep;
+
+    /** Maximum refinement level. */
+    private final int maxLevel;
+
+    /** Maximum number of cells kept in cache. */
+    private final int maxCells;
+
+    /** Cells. */
+    private final transient Map<Key, Cell> cells;
+
+    /** Nodes logarithms of density. */
+    private final transient Map<Key, Double> nodes;
+
+    /** Sun longitude in Earth frame at finest dates nodes. */
+    private final transient Map<Long, Double> sunLongitudes;
+
+    /** Simple constructor with default grid settings.
+     * @param atmosphere wrapped atmosphere model
+     * @param earth Earth body shape
+     * @param sun Sun position
+     * @param tolerance relative tolerance on density
+     */
+    public CachedAtmosphere(final Atmosphere atmosphere, final BodyShape earth,
+                            final PVCoordinatesProvider sun, final double tolerance) {
+        this(atmosphere, earth, sun, tolerance,
+             DEFAULT_ALTITUDE_STEP, DEFAULT_LATITUDE_STEP, DEFAULT_LOCAL_TIME_STEP, DEFAULT_DATE_STEP,
+             DEFAULT_MAX_LEVEL, DEFAULT_MAX_CELLS);
+    }
+
+    /** Simple constructor.
+     * <p>
+     * The latitude and local solar time steps are adjusted so they divide
+     * exactly π and 2π respectively.
+     * </p>
+     * @param atmosphere wrapped atmosphere model
+     * @param earth Earth body shape
+     * @param sun Sun position
+     * @param tolerance relative tolerance on density
+     * @param altitudeStep altitude step at level 0 (m)
+     * @param latitudeStep latitude step at level 0 (rad)
+     * @param localTimeStep local solar time step at level 0 (rad)
+     * @param dateStep date step at level 0 (s)
+     * @param maxLevel maximum refinement level in each dimension (each level halves the step)
+     * @param maxCells maximum number of cells kept in cache (eight times more
+     * nodes values are kept)
+     */
+    public CachedAtmosphere(final Atmosphere atmosphere, final BodyShape earth,
+                            final PVCoordinatesProvider sun, final double tolerance,
+                            final double altitudeStep, final double latitudeStep,
+                            final double localTimeStep, final double dateStep,
+                            final int maxLevel, final int maxCells) {
+        if (maxLevel < 0 || maxLevel > 10) {
+            throw new OrekitIllegalArgumentException(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, maxLevel, 0, 10);
+        }
+        this.atmosphere     = atmosphere;
+        this.earth          = earth;
+        this.sun            = sun;
+        this.tolerance      = tolerance;
+        this.logTolerance   = FastMath.log1p(tolerance);
+        this.altitudeStep   = altitudeStep;
+        this.latitudeSteps  = FastMath.max(1, (int) FastMath.rint(FastMath.PI / latitudeStep));
+        this.localTimeSteps = FastMath.max(1, (int) FastMath.rint(MathUtils.TWO_PI / localTimeStep));
+        this.dateStep       = dateStep;
+        this.maxLevel       = maxLevel;
+        this.maxCells       = maxCells;
+        this.cells          = new LeastRecentlyUsed<>(maxCells);
+        this.nodes          = new LeastRecentlyUsed<>(8 * maxCells);
+        this.sunLongitudes  = new LeastRecentlyUsed<>(maxCells);
+    }
+
+    /** Get the wrapped atmosphere model.
+     * @return wrapped atmosphere model
+     */
+    public Atmosphere getAtmosphere() {
+        return atmosphere;
+    }
+
+    /** Get the relative tolerance on density.
+     * @return relative tolerance on density
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /** Get the number of cells currently cached.
+     * @return number of cells currently cached, including those that
+     * have been refined and those where interpolation cannot be used
+     */
+    public int getCachedCellsNumber() {
+        synchronized (cells) {
+            return cells.size();
+        }
+    }
+
+    /** Clear the caches.
+     * <p>
+     * This method must be called if the wrapped model changes, for example
+     * if its solar activity data are updated.
+     * </p>
+     */
+    public void clearCache() {
+        synchronized (cells) {
+            cells.clear();
+        }
+        synchronized (nodes) {
+            nodes.clear();
+        }
+        synchronized (sunLongitudes) {
+            sunLongitudes.clear();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Frame getFrame() {
+        return atmosphere.getFrame();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getDensity(final AbsoluteDate date, final Vector3D position, final Frame frame)
+        throws OrekitException {
+
+        final GeodeticPoint gp = earth.transform(position, frame, date);
+        final double        t  = date.durationFrom(AbsoluteDate.J2000_EPOCH);
+        final double[]      c  = new double[DIMENSIONS];
+        coordinates(gp.getAltitude(), gp.getLatitude(), gp.getLongitude(), t, c);
+
+        final int[]    levels    = new int[DIMENSIONS];
+        final int[]    indices   = new int[DIMENSIONS];
+        final double[] fractions = new double[DIMENSIONS];
+        final double[] corners   = findCorners(c, levels, indices, fractions);
+        if (corners != null) {
+            return FastMath.exp(interpolate(corners, fractions));
+        }
+
+        // interpolation cannot be used here
+        return atmosphere.getDensity(date, position, frame);
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T extends RealFieldElement<T>> T getDensity(final FieldAbsoluteDate<T> date,
+                                                        final FieldVector3D<T> position,
+                                                        final Frame frame)
+        throws OrekitException {
+
+        final FieldGeodeticPoint<T> gp = earth.transform(position, frame, date);
+        final T                     t  = date.durationFrom(AbsoluteDate.J2000_EPOCH);
+        final double[]              c  = new double[DIMENSIONS];
+        coordinates(gp.getAltitude().getReal(), gp.getLatitude().getReal(), gp.getLongitude().getReal(),
+                    t.getReal(), c);
+
+        final int[]    levels    = new int[DIMENSIONS];
+        final int[]    indices   = new int[DIMENSIONS];
+        final double[] fractions = new double[DIMENSIONS];
+        final double[] corners   = findCorners(c, levels, indices, fractions);
+        if (corners != null) {
+
+            // the real part of the coordinates selects the cell,
+            // the field coordinates are used only for interpolation
+            final double fineStep  = dateStep / (1 << maxLevel);
+            final long   k         = (long) FastMath.floor(c[3] / fineStep);
+            final double s0        = getSunLongitude(k);
+            final double ds        = MathUtils.normalizeAngle(getSunLongitude(k + 1) - s0, 0.0);
+            final T      sunLon    = t.divide(fineStep).subtract(k).multiply(ds).add(s0);
+            final T      localTime = gp.getLongitude().subtract(sunLon).add(c[2] - (gp.getLongitude().getReal() - sunLon.getReal()));
+
+            final T[] f = MathArrays.buildArray(t.getField(), DIMENSIONS);
+            f[0] = gp.getAltitude().divide(altitudeStep / (1 << levels[0])).subtract(indices[0]);
+            f[1] = gp.getLatitude().add(0.5 * FastMath.PI).divide(FastMath.PI / (latitudeSteps << levels[1])).subtract(indices[1]);
+            f[2] = localTime.divide(MathUtils.TWO_PI / (localTimeSteps << levels[2])).subtract(indices[2]);
+            f[3] = t.divide(dateStep / (1 << levels[3])).subtract(indices[3]);
+
+            return interpolate(corners, f).exp();
+
+        }
+
+        // interpolation cannot be used here
+        return atmosphere.getDensity(date, position, frame);
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Vector3D getVelocity(final AbsoluteDate date, final Vector3D position, final Frame frame)
+        throws OrekitException {
+        return atmosphere.getVelocity(date, position, frame);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T extends RealFieldElement<T>> FieldVector3D<T> getVelocity(final FieldAbsoluteDate<T> date,
+                                                                        final FieldVector3D<T> position,
+                                                                        final Frame frame)
+        throws OrekitException {
+        return atmosphere.getVelocity(date, position, frame);
+    }
+
+    /** Compute grid coordinates.
+     * @param altitude altitude (m)
+     * @param latitude geodetic latitude (rad)
+     * @param longitude longitude (rad)
+     * @param t offset from {@link AbsoluteDate#J2000_EPOCH} (s)
+     * @param c placeholder for altitude, latitude, local solar time in [0, 2π) and date offset
+     * @exception OrekitException if Sun position cannot be computed
+     */
+    private void coordinates(final double altitude, final double latitude, final double longitude,
+                             final double t, final double[] c)
+        throws OrekitException {
+
+        // Sun longitude is interpolated between finest dates nodes
+        final double fineStep = dateStep / (1 << maxLevel);
+        final long   k        = (long) FastMath.floor(t / fineStep);
+        final double s0       = getSunLongitude(k);
+        final double ds       = MathUtils.normalizeAngle(getSunLongitude(k + 1) - s0, 0.0);
+        final double sunLon   = s0 + (t / fineStep - k) * ds;
+
+        c[0] = altitude;
+        c[1] = latitude;
+        c[2] = MathUtils.normalizeAngle(longitude - sunLon, FastMath.PI);
+        c[3] = t;
+
+    }
+
+    /** Find the usable cell containing a point, refining the grid as needed.
+     * @param c grid coordinates
+     * @param levels placeholder for the refinement levels of the cell
+     * @param indices placeholder for the indices of the cell
+     * @param fractions placeholder for the position of the point within the cell
+     * @return logarithms of density at cell corners, or null if interpolation
+     * cannot be used at this point
+     */
+    private double[] findCorners(final double[] c, final int[] levels,
+                                 final int[] indices, final double[] fractions) {
+        Arrays.fill(levels, 0);
+        while (true) {
+            locate(c, levels, indices, fractions);
+            final Cell cell = getCell(levels, indices);
+            if (cell.refine == 0) {
+                return cell.corners;
+            }
+            for (int d = 0; d < DIMENSIONS; ++d) {
+                levels[d] += (cell.refine >> d) & 0x1;
+            }
+        }
+    }
+
+    /** Locate a point in the grid.
+     * @param c grid coordinates
+     * @param levels refinement levels in each dimension
+     * @param indices placeholder for the indices of the cell
+     * @param fractions placeholder for the position of the point within the cell
+     */
+    private void locate(final double[] c, final int[] levels, final int[] indices, final double[] fractions) {
+
+        final double hStep = altitudeStep / (1 << levels[0]);
+        indices[0]   = (int) FastMath.floor(c[0] / hStep);
+        fractions[0] = c[0] / hStep - indices[0];
+
+        final int    nLat   = latitudeSteps << levels[1];
+        final double latLoc = (c[1] + 0.5 * FastMath.PI) / (FastMath.PI / nLat);
+        indices[1]   = FastMath.max(0, FastMath.min(nLat - 1, (int) FastMath.floor(latLoc)));
+        fractions[1] = latLoc - indices[1];
+
+        final int    nLst   = localTimeSteps << levels[2];
+        final double lstLoc = c[2] / (MathUtils.TWO_PI / nLst);
+        indices[2]   = FastMath.max(0, FastMath.min(nLst - 1, (int) FastMath.floor(lstLoc)));
+        fractions[2] = lstLoc - indices[2];
+
+        final double tStep = dateStep / (1 << levels[3]);
+        indices[3]   = (int) FastMath.floor(c[3] / tStep);
+        fractions[3] = c[3] / tStep - indices[3];
+
+    }
+
+    /** Get a cell, building it if needed.
+     * @param levels refinement levels in each dimension
+     * @param indices indices of the cell
+     * @return cell
+     */
+    private Cell getCell(final int[] levels, final int[] indices) {
+
+        final Key key = new Key(levels, indices);
+        synchronized (cells) {
+            final Cell cached = cells.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // build the cell (several threads may build the same cell, which is harmless)
+        final Cell cell = buildCell(levels, indices);
+        synchronized (cells) {
+            cells.put(key, cell);
+        }
+        return cell;
+
+    }
+
+    /** Build a cell.
+     * @param levels refinement levels in each dimension
+     * @param indices indices of the cell
+     * @return new cell
+     */
+    private Cell buildCell(final int[] levels, final int[] indices) {
+
+        // evaluate the corners
+        final double[] corners = new double[CORNERS];
+        final int[]    node    = new int[DIMENSIONS];
+        for (int i = 0; i < CORNERS; ++i) {
+            for (int d = 0; d < DIMENSIONS; ++d) {
+                node[d] = indices[d] + ((i >> d) & 0x1);
+            }
+            corners[i] = getNode(levels, node);
+            if (Double.isNaN(corners[i])) {
+                return UNUSABLE;
+            }
+        }
+
+        // evaluate the interpolation errors at check points,
+        // which are nodes of the next level in all dimensions
+        final int[]    checkLevels = new int[DIMENSIONS];
+        final double[] f           = new double[DIMENSIONS];
+        final double[] errors      = new double[CHECK_POINTS.length];
+        for (int d = 0; d < DIMENSIONS; ++d) {
+            checkLevels[d] = levels[d] + 1;
+        }
+        double maxError = 0;
+        for (int p = 0; p < CHECK_POINTS.length; ++p) {
+            for (int d = 0; d < DIMENSIONS; ++d) {
+                node[d] = 2 * indices[d] + CHECK_POINTS[p][d];
+                f[d]    = 0.5 * CHECK_POINTS[p][d];
+            }
+            final double check = getNode(checkLevels, node);
+            if (Double.isNaN(check)) {
+                return UNUSABLE;
+            }
+            errors[p] = interpolate(corners, f) - check;
+            maxError  = FastMath.max(maxError, FastMath.abs(errors[p]));
+        }
+
+        // fit the quadratic error model Σ aᵢ xᵢ (1 - xᵢ): at cell center all terms
+        // contribute aᵢ / 4, at the facets centers along dimension i this term vanishes
+        final double[] contributions = new double[DIMENSIONS];
+        double positive = 0;
+        double negative = 0;
+        for (int d = 0; d < DIMENSIONS; ++d) {
+            contributions[d] = errors[0] - 0.5 * (errors[2 * d + 1] + errors[2 * d + 2]);
+            if (contributions[d] > 0) {
+                positive += contributions[d];
+            } else {
+                negative -= contributions[d];
+            }
+        }
+        maxError = FastMath.max(maxError, FastMath.max(positive, negative));
+
+        if (maxError <= logTolerance) {
+            return new Cell(corners, 0);
+        }
+
+        // refine the dimensions that contribute too much to the error
+        int     refine  = 0;
+        boolean blocked = false;
+        for (int d = 0; d < DIMENSIONS; ++d) {
+            if (FastMath.abs(contributions[d]) > 0.25 * logTolerance) {
+                if (levels[d] < maxLevel) {
+                    refine |= 1 << d;
+                } else {
+                    blocked = true;
+                }
+            }
+        }
+        if (refine == 0 && !blocked) {
+            // the error does not follow the quadratic model, refine everything we can
+            for (int d = 0; d < DIMENSIONS; ++d) {
+                if (levels[d] < maxLevel) {
+                    refine |= 1 << d;
+                }
+            }
+        }
+
+        return (blocked || refine == 0) ? UNUSABLE : new Cell(null, refine);
+
+    }
+
+    /** Get the logarithm of density at a grid node, computing it if needed.
+     * @param levels refinement levels in each dimension
+     * @param indices indices of the node
+     * @return logarithm of density, or NaN if wrapped model cannot be evaluated
+     */
+    private double getNode(final int[] levels, final int[] indices) {
+
+        // normalize the key so nodes are shared between levels
+        final int[] l = levels.clone();
+        final int[] i = indices.clone();
+        i[2] = i[2] % (localTimeSteps << l[2]);
+        for (int d = 0; d < DIMENSIONS; ++d) {
+            while (l[d] > 0 && (i[d] & 0x1) == 0) {
+                --l[d];
+                i[d] >>= 1;
+            }
+        }
+
+        final Key key = new Key(l, i);
+        synchronized (nodes) {
+            final Double cached = nodes.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final double value = evaluate(l, i);
+        synchronized (nodes) {
+            nodes.put(key, value);
+        }
+        return value;
+
+    }
+
+    /** Evaluate the logarithm of density of the wrapped model at a grid node.
+     * @param levels refinement levels in each dimension
+     * @param indices indices of the node
+     * @return logarithm of density, or NaN if wrapped model cannot be evaluated
+     */
+    private double evaluate(final int[] levels, final int[] indices) {
+        try {
+
+            final double       altitude  = indices[0] * altitudeStep / (1 << levels[0]);
+            final double       latitude  = indices[1] * FastMath.PI / (latitudeSteps << levels[1]) - 0.5 * FastMath.PI;
+            final double       localTime = indices[2] * MathUtils.TWO_PI / (localTimeSteps << levels[2]);
+            final AbsoluteDate date      = AbsoluteDate.J2000_EPOCH.shiftedBy(indices[3] * dateStep / (1 << levels[3]));
+
+            // dates nodes are all on the finest grid, except check points at maximum level
+            final double sunLon   = (levels[3] <= maxLevel) ?
+                                    getSunLongitude(((long) indices[3]) << (maxLevel - levels[3])) :
+                                    computeSunLongitude(date);
+
+            final Vector3D position = earth.transform(new GeodeticPoint(latitude, localTime + sunLon, altitude));
+            final double   density  = atmosphere.getDensity(date, position, earth.getBodyFrame());
+            return density > 0 ? FastMath.log(density) : Double.NaN;
+
+        } catch (OrekitException oe) {
+            // the wrapped model cannot be used at this point
+            return Double.NaN;
+        }
+    }
+
+    /** Get the Sun longitude at a finest dates node.
+     * @param k index of the node
+     * @return Sun longitude in Earth frame
+     * @exception OrekitException if Sun position cannot be computed
+     */
+    private double getSunLongitude(final long k) throws OrekitException {
+
+        synchronized (sunLongitudes) {
+            final Double cached = sunLongitudes.get(k);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final double fineStep = dateStep / (1 << maxLevel);
+        final double value    = computeSunLongitude(AbsoluteDate.J2000_EPOCH.shiftedBy(k * fineStep));
+        synchronized (sunLongitudes) {
+            sunLongitudes.put(k, value);
+        }
+        return value;
+
+    }
+
+    /** Compute the Sun longitude.
+     * @param date date
+     * @return Sun longitude in Earth frame
+     * @exception OrekitException if Sun position cannot be computed
+     */
+    private double computeSunLongitude(final AbsoluteDate date) throws OrekitException {
+        return sun.getPVCoordinates(date, earth.getBodyFrame()).getPosition().getAlpha();
+    }
+
+    /** Interpolate within a cell.
+     * @param corners values at cell corners
+     * @param f position of the point within the cell
+     * @return interpolated value
+     */
+    private static double interpolate(final double[] corners, final double[] f) {
+        final double[] v = corners.clone();
+        for (int d = f.length - 1, n = CORNERS / 2; d >= 0; --d, n /= 2) {
+            for (int i = 0; i < n; ++i) {
+                v[i] += f[d] * (v[i + n] - v[i]);
+            }
+        }
+        return v[0];
+    }
+
+    /** Interpolate within a cell.
+     * @param corners values at cell corners
+     * @param f position of the point within the cell
+     * @param <T> type of the field elements
+     * @return interpolated value
+     */
+    private static <T extends RealFieldElement<T>> T interpolate(final double[] corners, final T[] f) {
+        final T[] v = MathArrays.buildArray(f[0].getField(), CORNERS / 2);
+        for (int i = 0; i < v.length; ++i) {
+            v[i] = f[f.length - 1].multiply(corners[i + v.length] - corners[i]).add(corners[i]);
+        }
+        for (int d = f.length - 2, n = CORNERS / 4; d >= 0; --d, n /= 2) {
+            for (int i = 0; i < n; ++i) {
+                v[i] = v[i].add(f[d].multiply(v[i + n].subtract(v[i])));
+            }
+        }
+        return v[0];
+    }
+
+    /** Replace the instance with a data transfer object for serialization.
+     * @return data transfer object that will be serialized
+     */
+    private Object writeReplace() {
+        return new DataTransferObject(this);
+    }
+
+    /** Grid cell. */
+    private static class Cell {
+
+        /** Logarithms of density at cell corners (null if cell is refined or unusable). */
+        private final double[] corners;
+
+        /** Mask of the dimensions to refine (0 if cell is usable or cannot be refined). */
+        private final int refine;
+
+        /** Simple constructor.
+         * @param corners logarithms of density at cell corners
+         * @param refine mask of the dimensions to refine
+         */
+        Cell(final double[] corners, final int refine) {
+            this.corners = corners;
+            this.refine  = refine;
+        }
+
+    }
+
+    /** Grid key, for cells and nodes. */
+    private static class Key {
+
+        /** Levels and indices. */
+        private final int[] indices;
+
+        /** Simple constructor.
+         * @param levels refinement levels in each dimension
+         * @param indices indices in each dimension
+         */
+        Key(final int[] levels, final int[] indices) {
+            this.indices = new int[2 * DIMENSIONS];
+            System.arraycopy(levels,  0, this.indices, 0,          DIMENSIONS);
+            System.arraycopy(indices, 0, this.indices, DIMENSIONS, DIMENSIONS);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(indices);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Key && Arrays.equals(indices, ((Key) other).indices);
+        }
+
+    }
+
+    /** Map evicting least recently used entries.
+     * @param <K> type of the keys
+     * @param <V> type of the values
+     */
+    private static class LeastRecentlyUsed<K, V> extends LinkedHashMap<K, V> {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20181017L;
+
+        /** Maximum number of entries. */
+        private final int maxEntries;
+
+        /** Simple constructor.
+         * @param maxEntries maximum number of entries
+         */
+        LeastRecentlyUsed(final int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+
+    }
+
+    /** Internal class used only for serialization. */
+    private static class DataTransferObject implements Serializable {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20181017L;
+
+        /** Wrapped atmosphere model. */
+        private final Atmosphere atmosphere;
+
+        /** Earth body shape. */
+        private final BodyShape earth;
+
+        /** Sun position. */
+        private final PVCoordinatesProvider sun;
+
+        /** Grid settings. */
+        private final double[] settings;
+
+        /** Refinement and cache settings. */
+        private final int[] sizes;
+
+        /** Simple constructor.
+         * @param cached instance to serialize
+         */
+        DataTransferObject(final CachedAtmosphere cached) {
+            this.atmosphere = cached.atmosphere;
+            this.earth      = cached.earth;
+            this.sun        = cached.sun;
+            this.settings   = new double[] {
+                cached.tolerance, cached.altitudeStep,
+                FastMath.PI / cached.latitudeSteps, MathUtils.TWO_PI / cached.localTimeSteps,
+                cached.dateStep
+            };
+            this.sizes      = new int[] {
+                cached.maxLevel, cached.maxCells
+            };
+        }
+
+        /** Replace the deserialized data transfer object with a {@link CachedAtmosphere}.
+         * @return replacement {@link CachedAtmosphere}, with empty caches
+         */
+        private Object readResolve() {
+            return new CachedAtmosphere(atmosphere, earth, sun, settings[0],
+                                        settings[1], settings[2], settings[3], settings[4],
+                                        sizes[0], sizes[1]);
+        }
+
+    }
+
+}
@@ -120,6 +120,15 @@ import org.orekit.utils.PVCoordinatesProvider;
  *  <p>
  *  Instances of this class are immutable.
  *  </p>
+ *  <p>
+ *  In order to avoid allocating the many intermediate arrays of the model at each
+ *  density evaluation, one workspace is kept per thread and reused as long as the
+ *  thread evaluates the same model instance (and the same field for
+ *  {@link RealFieldElement} evaluations). Alternating evaluations of two instances
+ *  on one thread (for example instances built with different {@link #withSwitch(int, int)
+ *  switches}) thrashes this single pooled workspace, which is then allocated again
+ *  at each evaluation.
+ *  </p>
  *
  *  @author Mike Picone & al (Naval Research Laboratory), 2001: FORTRAN routine
  *  @author Dominik Brodowski, 2004: C routine
@@ -999,6 +1008,16 @@ public class NRLMSISE00 implements Atmosphere {
         2.23000e+02, 2.86760e+02, -2.93940e+00, 2.50000e+00, 0.00000e+00
     };
 
+    /** Per-thread workspace for double evaluations.
+     * @since 9.3
+     */
+    private static final ThreadLocal<Output> OUTPUT_POOL = new ThreadLocal<>();
+
+    /** Per-thread workspace for field evaluations.
+     * @since 9.3
+     */
+    private static final ThreadLocal<FieldOutput<?>> FIELD_OUTPUT_POOL = new ThreadLocal<>();
+
     // Fields
 
     /** External data container. */
@@ -1140,8 +1159,9 @@ public class NRLMSISE00 implements Atmosphere {
         final double lst = localSolarTime(date, position, frame);
 
         // get solar activity data and compute
-        final Output out = new Output(doy, sec, lat, lon, lst, inputParams.getAverageFlux(date),
-                                      inputParams.getDailyFlux(date), inputParams.getAp(date));
+        final Output out = getOutput();
+        out.init(doy, sec, lat, lon, lst, inputParams.getAverageFlux(date),
+                 inputParams.getDailyFlux(date), inputParams.getAp(date));
         out.gtd7d(alt);
 
         // return the local density
@@ -1179,9 +1199,10 @@ public class NRLMSISE00 implements Atmosphere {
         final T lst = localSolarTime(dateD, position, frame);
 
         // get solar activity data and compute
-        final FieldOutput<T> out = new FieldOutput<>(doy, sec, lat, lon, lst,
-                                                     inputParams.getAverageFlux(dateD),
-                                                     inputParams.getDailyFlux(dateD), inputParams.getAp(dateD));
+        final FieldOutput<T> out = getFieldOutput(sec.getField());
+        out.init(doy, sec, lat, lon, lst,
+                 inputParams.getAverageFlux(dateD),
+                 inputParams.getDailyFlux(dateD), inputParams.getAp(dateD));
         out.gtd7d(alt);
 
         // return the local density
@@ -1189,6 +1210,37 @@ public class NRLMSISE00 implements Atmosphere {
 
     }
 
+    /** Get the workspace for double evaluations in the current thread.
+     * @return workspace bound to this model in the current thread
+     * @since 9.3
+     */
+    private Output getOutput() {
+        Output out = OUTPUT_POOL.get();
+        if (out == null || out.getModel() != this) {
+            // the thread has never used this model, or it used another one
+            out = new Output();
+            OUTPUT_POOL.set(out);
+        }
+        return out;
+    }
+
+    /** Get the workspace for field evaluations in the current thread.
+     * @param field field to which the elements belong
+     * @param <T> type of the field elements
+     * @return workspace bound to this model and field in the current thread
+     * @since 9.3
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends RealFieldElement<T>> FieldOutput<T> getFieldOutput(final Field<T> field) {
+        final FieldOutput<?> pooled = FIELD_OUTPUT_POOL.get();
+        if (pooled != null && pooled.getModel() == this && pooled.getField().equals(field)) {
+            return (FieldOutput<T>) pooled;
+        }
+        final FieldOutput<T> out = new FieldOutput<>(field);
+        FIELD_OUTPUT_POOL.set(out);
+        return out;
+    }
+
     /** Get local solar time.
      * @param date current date
      * @param position current position in frame
@@ -1264,25 +1316,25 @@ public class NRLMSISE00 implements Atmosphere {
     private class Output {
 
         /** Day of year (from 1 to 365 or 366). */
-        private final int doy;
+        private int doy;
 
         /** Seconds in day (UT scale). */
-        private final double sec;
+        private double sec;
 
         /** Geodetic latitude (°). */
-        private final double lat;
+        private double lat;
 
         /** Geodetic longitude (°). */
-        private final double lon;
+        private double lon;
 
         /** Local apparent solar time (hours). */
-        private final double hl;
+        private double hl;
 
         /** 81 day average of F10.7 flux (centered on day). */
-        private final double f107a;
+        private double f107a;
 
         /** Daily F10.7 flux for previous day. */
-        private final double f107;
+        private double f107;
 
         /** Array containing:
         *  <ul>
@@ -1297,10 +1349,10 @@ public class NRLMSISE00 implements Atmosphere {
         private final double[] ap;
 
         /** Gravity at latitude (cm/s2). */
-        private final double glat;
+        private double glat;
 
         /** Effective Earth radius at latitude (km). */
-        private final double rlat;
+        private double rlat;
 
         /** N2 mixed density at alt. */
         private double dm28;
@@ -1309,17 +1361,17 @@ public class NRLMSISE00 implements Atmosphere {
         private final double[][] plg;
 
         /** Cosinus of local solar time. */
-        private final double ctloc;
+        private double ctloc;
         /** Sinus of local solar time. */
-        private final double stloc;
+        private double stloc;
         /** Square of ctloc. */
-        private final double c2tloc;
+        private double c2tloc;
         /** Square of stloc. */
-        private final double s2tloc;
+        private double s2tloc;
         /** Cube of ctloc. */
-        private final double c3tloc;
+        private double c3tloc;
         /** Cube of stloc. */
-        private final double s3tloc;
+        private double s3tloc;
 
         /** Magnetic activity based on daily ap. */
         private double apdf;
@@ -1351,6 +1403,42 @@ public class NRLMSISE00 implements Atmosphere {
         /** Temperatures. */
         private final double[] temperatures;
 
+        /** Scratch array for globe7 terms. */
+        private final double[] globe7Terms;
+
+        /** Scratch array for glob7s terms. */
+        private final double[] glob7sTerms;
+
+        /** Scratch abscissas for ZN1 splines. */
+        private final double[] xsZn1;
+
+        /** Scratch ordinates for ZN1 splines. */
+        private final double[] ysZn1;
+
+        /** Scratch second derivatives for ZN1 splines. */
+        private final double[] y2Zn1;
+
+        /** Scratch abscissas for ZN2 splines. */
+        private final double[] xsZn2;
+
+        /** Scratch ordinates for ZN2 splines. */
+        private final double[] ysZn2;
+
+        /** Scratch second derivatives for ZN2 splines. */
+        private final double[] y2Zn2;
+
+        /** Scratch abscissas for ZN3 splines. */
+        private final double[] xsZn3;
+
+        /** Scratch ordinates for ZN3 splines. */
+        private final double[] ysZn3;
+
+        /** Scratch second derivatives for ZN3 splines. */
+        private final double[] y2Zn3;
+
+        /** Scratch decomposition array for splines. */
+        private final double[] splineU;
+
         /** Simple constructor.
          *  @param doy day of year (from 1 to 365 or 366)
          *  @param sec seconds in day (UT scale)
@@ -1373,16 +1461,21 @@ public class NRLMSISE00 implements Atmosphere {
         Output(final int doy, final double sec,
                final double lat, final double lon, final double hl,
                final double f107a, final double f107, final double[] ap) {
+            this();
+            init(doy, sec, lat, lon, hl, f107a, f107, ap);
+        }
 
-            this.doy   = doy;
-            this.sec   = sec;
-            this.lat   = lat;
-            this.lon   = lon;
-            this.hl    = hl;
-            this.f107a = f107a;
-            this.f107  = f107;
-            this.ap    = ap.clone();
+        /** Workspace constructor.
+         * <p>
+         * This constructor only allocates the arrays, {@link #init(int, double,
+         * double, double, double, double, double, double[]) init} must be called
+         * before any evaluation.
+         * </p>
+         * @since 9.3
+         */
+        Output() {
 
+            this.ap        = new double[7];
             this.plg       = new double[4][8];
 
             this.meso_tn1  = new double[ZN1.length];
@@ -1395,6 +1488,71 @@ public class NRLMSISE00 implements Atmosphere {
             densities       = new double[9];
             temperatures    = new double[2];
 
+            globe7Terms = new double[14];
+            glob7sTerms = new double[14];
+            xsZn1       = new double[ZN1.length];
+            ysZn1       = new double[ZN1.length];
+            y2Zn1       = new double[ZN1.length];
+            xsZn2       = new double[ZN2.length];
+            ysZn2       = new double[ZN2.length];
+            y2Zn2       = new double[ZN2.length];
+            xsZn3       = new double[ZN3.length];
+            ysZn3       = new double[ZN3.length];
+            y2Zn3       = new double[ZN3.length];
+            splineU     = new double[FastMath.max(ZN1.length, FastMath.max(ZN2.length, ZN3.length))];
+
+        }
+
+        /** Get the model this workspace belongs to.
+         * @return model this workspace belongs to
+         * @since 9.3
+         */
+        NRLMSISE00 getModel() {
+            return NRLMSISE00.this;
+        }
+
+        /** Reset the workspace for a new evaluation.
+         *  @param newDoy day of year (from 1 to 365 or 366)
+         *  @param newSec seconds in day (UT scale)
+         *  @param newLat geodetic latitude (°)
+         *  @param newLon geodetic longitude (°)
+         *  @param newHl local apparent solar time (hours)
+         *  @param newF107a 81 day average of F10.7 flux (centered on day)
+         *  @param newF107 daily F10.7 flux for previous day
+         *  @param newAp array containing daily Ap and 3 hr ap indices
+         *  (see {@link #Output(int, double, double, double, double, double, double, double[])})
+         *  @since 9.3
+         */
+        void init(final int newDoy, final double newSec,
+                  final double newLat, final double newLon, final double newHl,
+                  final double newF107a, final double newF107, final double[] newAp) {
+
+            this.doy   = newDoy;
+            this.sec   = newSec;
+            this.lat   = newLat;
+            this.lon   = newLon;
+            this.hl    = newHl;
+            this.f107a = newF107a;
+            this.f107  = newF107;
+            final int n = FastMath.min(newAp.length, ap.length);
+            System.arraycopy(newAp, 0, ap, 0, n);
+            Arrays.fill(ap, n, ap.length, 0.0);
+
+            dm28 = 0;
+            apdf = 0;
+            apt  = 0;
+            for (final double[] row : plg) {
+                Arrays.fill(row, 0.0);
+            }
+            Arrays.fill(meso_tn1,     0.0);
+            Arrays.fill(meso_tn2,     0.0);
+            Arrays.fill(meso_tn3,     0.0);
+            Arrays.fill(meso_tgn1,    0.0);
+            Arrays.fill(meso_tgn2,    0.0);
+            Arrays.fill(meso_tgn3,    0.0);
+            Arrays.fill(densities,    0.0);
+            Arrays.fill(temperatures, 0.0);
+
             // Calculates latitude variable gravity and effective radius
             final double xlat = (sw[2] == 0) ? LAT_REF : lat;
             final double c2   = FastMath.cos(2 * DEG_TO_RAD * xlat);
@@ -1957,7 +2115,8 @@ public class NRLMSISE00 implements Atmosphere {
          */
         private double globe7(final double[] p) {
 
-            final double[] t = new double[14];
+            final double[] t = globe7Terms;
+            Arrays.fill(t, 0.0);
             final double cd32 = FastMath.cos(DAY_TO_RAD * (doy - p[31]));
             final double cd18 = FastMath.cos(2.0 * DAY_TO_RAD * (doy - p[17]));
             final double cd14 = FastMath.cos(DAY_TO_RAD * (doy - p[13]));
@@ -2105,7 +2264,8 @@ public class NRLMSISE00 implements Atmosphere {
          */
         private double glob7s(final double[] p) {
 
-            final double[] t = new double[14];
+            final double[] t = glob7sTerms;
+            Arrays.fill(t, 0.0);
             final double cd32 = FastMath.cos(DAY_TO_RAD * (doy - p[31]));
             final double cd18 = FastMath.cos(2.0 * DAY_TO_RAD * (doy - p[17]));
             final double cd14 = FastMath.cos(DAY_TO_RAD * (doy - p[13]));
@@ -2372,12 +2532,15 @@ public class NRLMSISE00 implements Atmosphere {
          * @param y array of ordinates in ascending order by x
          * @param yp1 derivative at x[0] (2nd derivatives null if > 1E30)
          * @param ypn derivative at x[n-1] (2nd derivatives null if > 1E30)
-         * @return array of second derivatives
+         * @param y2 placeholder for second derivatives (must have the same size as x)
+         * @return array of second derivatives (i.e. y2 itself)
          */
-        private double[] spline(final double[] x, final double[] y, final double yp1, final double ypn) {
+        private double[] spline(final double[] x, final double[] y, final double yp1, final double ypn,
+                                final double[] y2) {
             final int n = x.length;
-            final double[] y2 = new double[n];
-            final double[] u  = new double[n];
+            final double[] u  = splineU;
+            Arrays.fill(y2, 0.0);
+            Arrays.fill(u,  0.0);
 
             if (yp1 < 1e+30) {
                 y2[0] = -0.5;
@@ -2428,8 +2591,8 @@ public class NRLMSISE00 implements Atmosphere {
             double zgdif = zeta(z2, z1);
 
             /* set up spline nodes */
-            double[] xs = new double[mn];
-            double[] ys = new double[mn];
+            double[] xs = xsZn2;
+            double[] ys = ysZn2;
             for (int k = 0; k < mn; k++) {
                 xs[k] = zeta(ZN2[k], z1) / zgdif;
                 ys[k] = 1.0 / meso_tn2[k];
@@ -2439,7 +2602,7 @@ public class NRLMSISE00 implements Atmosphere {
             double yd2 = -meso_tgn2[1] / (t2 * t2) * zgdif * qSM * qSM;
 
             /* calculate spline coefficients */
-            double[] y2out = spline(xs, ys, yd1, yd2);
+            double[] y2out = spline(xs, ys, yd1, yd2, y2Zn2);
             double x = zg / zgdif;
             double y = splint(xs, ys, y2out, x);
 
@@ -2474,8 +2637,8 @@ public class NRLMSISE00 implements Atmosphere {
             zgdif = zeta(z2, z1);
 
             /* set up spline nodes */
-            xs = new double[mn];
-            ys = new double[mn];
+            xs = xsZn3;
+            ys = ysZn3;
             for (int k = 0; k < mn; k++) {
                 xs[k] = zeta(ZN3[k], z1) / zgdif;
                 ys[k] = 1.0 / meso_tn3[k];
@@ -2485,7 +2648,7 @@ public class NRLMSISE00 implements Atmosphere {
             yd2 = -meso_tgn3[1] / (t2 * t2) * zgdif * qTS * qTS;
 
             /* calculate spline coefficients */
-            y2out = spline(xs, ys, yd1, yd2);
+            y2out = spline(xs, ys, yd1, yd2, y2Zn3);
             x = zg / zgdif;
             y = splint(xs, ys, y2out, x);
 
@@ -2534,10 +2697,10 @@ public class NRLMSISE00 implements Atmosphere {
             double tz = tt;
 
             final int mn = ZN1.length;
-            final double[] xs = new double[mn];
-            final double[] ys = new double[mn];
+            final double[] xs = xsZn1;
+            final double[] ys = ysZn1;
             double x = 0.;
-            double[] y2out =  new double[mn];
+            double[] y2out = y2Zn1;
             double zgdif = 0.;
             if (alt < ZN1[0]) {
                 /* calculate temperature below ZA
@@ -2563,7 +2726,7 @@ public class NRLMSISE00 implements Atmosphere {
                 final double yd1 = -meso_tgn1[0] / (t1 * t1) * zgdif;
                 final double yd2 = -meso_tgn1[1] / (t2 * t2) * zgdif * q * q;
                 /* calculate spline coefficients */
-                y2out = spline(xs, ys, yd1, yd2);
+                y2out = spline(xs, ys, yd1, yd2, y2Zn1);
                 x = zg / zgdif;
                 final double y = splint(xs, ys, y2out, x);
                 /* temperature at altitude */
@@ -2659,25 +2822,25 @@ public class NRLMSISE00 implements Atmosphere {
         private final T zero;
 
         /** Day of year (from 1 to 365 or 366). */
-        private final int doy;
+        private int doy;
 
         /** Seconds in day (UT scale). */
-        private final T sec;
+        private T sec;
 
         /** Geodetic latitude (°). */
-        private final T lat;
+        private T lat;
 
         /** Geodetic longitude (°). */
-        private final T lon;
+        private T lon;
 
         /** Local apparent solar time (hours). */
-        private final T hl;
+        private T hl;
 
         /** 81 day average of F10.7 flux (centered on day). */
-        private final double f107a;
+        private double f107a;
 
         /** Daily F10.7 flux for previous day. */
-        private final double f107;
+        private double f107;
 
         /** Array containing:
         *  <ul>
@@ -2692,10 +2855,10 @@ public class NRLMSISE00 implements Atmosphere {
         private final double[] ap;
 
         /** Gravity at latitude (cm/s2). */
-        private final T glat;
+        private T glat;
 
         /** Effective Earth radius at latitude (km). */
-        private final T rlat;
+        private T rlat;
 
         /** N2 mixed density at alt. */
         private T dm28;
@@ -2704,17 +2867,17 @@ public class NRLMSISE00 implements Atmosphere {
         private final T[][] plg;
 
         /** Cosinus of local solar time. */
-        private final T ctloc;
+        private T ctloc;
         /** Sinus of local solar time. */
-        private final T stloc;
+        private T stloc;
         /** Square of ctloc. */
-        private final T c2tloc;
+        private T c2tloc;
         /** Square of stloc. */
-        private final T s2tloc;
+        private T s2tloc;
         /** Cube of ctloc. */
-        private final T c3tloc;
+        private T c3tloc;
         /** Cube of stloc. */
-        private final T s3tloc;
+        private T s3tloc;
 
         /** Magnetic activity based on daily ap. */
         private double apdf;
@@ -2746,6 +2909,42 @@ public class NRLMSISE00 implements Atmosphere {
         /** Temperatures. */
         private final T[] temperatures;
 
+        /** Scratch array for globe7 terms. */
+        private final T[] globe7Terms;
+
+        /** Scratch array for glob7s terms. */
+        private final T[] glob7sTerms;
+
+        /** Scratch abscissas for ZN1 splines. */
+        private final T[] xsZn1;
+
+        /** Scratch ordinates for ZN1 splines. */
+        private final T[] ysZn1;
+
+        /** Scratch second derivatives for ZN1 splines. */
+        private final T[] y2Zn1;
+
+        /** Scratch abscissas for ZN2 splines. */
+        private final T[] xsZn2;
+
+        /** Scratch ordinates for ZN2 splines. */
+        private final T[] ysZn2;
+
+        /** Scratch second derivatives for ZN2 splines. */
+        private final T[] y2Zn2;
+
+        /** Scratch abscissas for ZN3 splines. */
+        private final T[] xsZn3;
+
+        /** Scratch ordinates for ZN3 splines. */
+        private final T[] ysZn3;
+
+        /** Scratch second derivatives for ZN3 splines. */
+        private final T[] y2Zn3;
+
+        /** Scratch decomposition array for splines. */
+        private final T[] splineU;
+
         /** Simple constructor.
          *  @param doy day of year (from 1 to 365 or 366)
          *  @param sec seconds in day (UT scale)
@@ -2768,19 +2967,25 @@ public class NRLMSISE00 implements Atmosphere {
         FieldOutput(final int doy, final T sec,
                     final T lat, final T lon, final T hl,
                     final double f107a, final double f107, final double[] ap) {
+            this(sec.getField());
+            init(doy, sec, lat, lon, hl, f107a, f107, ap);
+        }
 
-            this.field = sec.getField();
-            this.zero = field.getZero();
+        /** Workspace constructor.
+         * <p>
+         * This constructor only allocates the arrays, {@link #init(int, RealFieldElement,
+         * RealFieldElement, RealFieldElement, RealFieldElement, double, double, double[])
+         * init} must be called before any evaluation.
+         * </p>
+         * @param field field to which the elements belong
+         * @since 9.3
+         */
+        FieldOutput(final Field<T> field) {
 
-            this.doy   = doy;
-            this.sec   = sec;
-            this.lat   = lat;
-            this.lon   = lon;
-            this.hl    = hl;
-            this.f107a = f107a;
-            this.f107  = f107;
-            this.ap    = ap.clone();
+            this.field = field;
+            this.zero  = field.getZero();
 
+            this.ap        = new double[7];
             this.plg       = MathArrays.buildArray(field, 4, 8);
 
             this.meso_tn1  = MathArrays.buildArray(field, ZN1.length);
@@ -2793,6 +2998,80 @@ public class NRLMSISE00 implements Atmosphere {
             densities       = MathArrays.buildArray(field, 9);
             temperatures    = MathArrays.buildArray(field, 2);
 
+            globe7Terms = MathArrays.buildArray(field, 14);
+            glob7sTerms = MathArrays.buildArray(field, 14);
+            xsZn1       = MathArrays.buildArray(field, ZN1.length);
+            ysZn1       = MathArrays.buildArray(field, ZN1.length);
+            y2Zn1       = MathArrays.buildArray(field, ZN1.length);
+            xsZn2       = MathArrays.buildArray(field, ZN2.length);
+            ysZn2       = MathArrays.buildArray(field, ZN2.length);
+            y2Zn2       = MathArrays.buildArray(field, ZN2.length);
+            xsZn3       = MathArrays.buildArray(field, ZN3.length);
+            ysZn3       = MathArrays.buildArray(field, ZN3.length);
+            y2Zn3       = MathArrays.buildArray(field, ZN3.length);
+            splineU     = MathArrays.buildArray(field, FastMath.max(ZN1.length, FastMath.max(ZN2.length, ZN3.length)));
+
+        }
+
+        /** Get the model this workspace belongs to.
+         * @return model this workspace belongs to
+         * @since 9.3
+         */
+        NRLMSISE00 getModel() {
+            return NRLMSISE00.this;
+        }
+
+        /** Get the field to which the elements belong.
+         * @return field to which the elements belong
+         * @since 9.3
+         */
+        Field<T> getField() {
+            return field;
+        }
+
+        /** Reset the workspace for a new evaluation.
+         *  @param newDoy day of year (from 1 to 365 or 366)
+         *  @param newSec seconds in day (UT scale)
+         *  @param newLat geodetic latitude (°)
+         *  @param newLon geodetic longitude (°)
+         *  @param newHl local apparent solar time (hours)
+         *  @param newF107a 81 day average of F10.7 flux (centered on day)
+         *  @param newF107 daily F10.7 flux for previous day
+         *  @param newAp array containing daily Ap and 3 hr ap indices
+         *  (see {@link #FieldOutput(int, RealFieldElement, RealFieldElement, RealFieldElement,
+         *  RealFieldElement, double, double, double[])})
+         *  @since 9.3
+         */
+        void init(final int newDoy, final T newSec,
+                  final T newLat, final T newLon, final T newHl,
+                  final double newF107a, final double newF107, final double[] newAp) {
+
+            this.doy   = newDoy;
+            this.sec   = newSec;
+            this.lat   = newLat;
+            this.lon   = newLon;
+            this.hl    = newHl;
+            this.f107a = newF107a;
+            this.f107  = newF107;
+            final int n = FastMath.min(newAp.length, ap.length);
+            System.arraycopy(newAp, 0, ap, 0, n);
+            Arrays.fill(ap, n, ap.length, 0.0);
+
+            dm28 = zero;
+            apdf = 0;
+            apt  = zero;
+            for (final T[] row : plg) {
+                Arrays.fill(row, zero);
+            }
+            Arrays.fill(meso_tn1,     zero);
+            Arrays.fill(meso_tn2,     zero);
+            Arrays.fill(meso_tn3,     zero);
+            Arrays.fill(meso_tgn1,    zero);
+            Arrays.fill(meso_tgn2,    zero);
+            Arrays.fill(meso_tgn3,    zero);
+            Arrays.fill(densities,    zero);
+            Arrays.fill(temperatures, zero);
+
             // Calculates latitude variable gravity and effective radius
             final T xlat = (sw[2] == 0) ? zero.add(LAT_REF) : lat;
             final T c2   = xlat.multiply(2 * DEG_TO_RAD).cos();
@@ -3362,7 +3641,8 @@ public class NRLMSISE00 implements Atmosphere {
          */
         private T globe7(final double[] p) {
 
-            final T[] t = MathArrays.buildArray(field, 14);
+            final T[] t = globe7Terms;
+            Arrays.fill(t, zero);
             final double cd32 = FastMath.cos(DAY_TO_RAD * (doy - p[31]));
             final double cd18 = FastMath.cos(2.0 * DAY_TO_RAD * (doy - p[17]));
             final double cd14 = FastMath.cos(DAY_TO_RAD * (doy - p[13]));
@@ -3521,7 +3801,8 @@ public class NRLMSISE00 implements Atmosphere {
          */
         private T glob7s(final double[] p) {
 
-            final T[] t = MathArrays.buildArray(field, 14);
+            final T[] t = glob7sTerms;
+            Arrays.fill(t, zero);
             final double cd32 = FastMath.cos(DAY_TO_RAD * (doy - p[31]));
             final double cd18 = FastMath.cos(2.0 * DAY_TO_RAD * (doy - p[17]));
             final double cd14 = FastMath.cos(DAY_TO_RAD * (doy - p[13]));
@@ -3806,12 +4087,14 @@ public class NRLMSISE00 implements Atmosphere {
          * @param y array of ordinates in ascending order by x
          * @param yp1 derivative at x[0] (2nd derivatives null if > 1E30)
          * @param ypn derivative at x[n-1] (2nd derivatives null if > 1E30)
-         * @return array of second derivatives
+         * @param y2 placeholder for second derivatives (must have the same size as x)
+         * @return array of second derivatives (i.e. y2 itself)
          */
-        private T[] spline(final T[] x, final T[] y, final T yp1, final T ypn) {
+        private T[] spline(final T[] x, final T[] y, final T yp1, final T ypn, final T[] y2) {
             final int n = x.length;
-            final T[] y2 = MathArrays.buildArray(field, n);
-            final T[] u  = MathArrays.buildArray(field, n);
+            final T[] u  = splineU;
+            Arrays.fill(y2, zero);
+            Arrays.fill(u,  zero);
 
             if (yp1.getReal() < 1e+30) {
                 y2[0] = zero.add(-0.5);
@@ -3871,8 +4154,8 @@ public class NRLMSISE00 implements Atmosphere {
             T zgdif = zeta(zero.add(z2), z1);
 
             /* set up spline nodes */
-            T[] xs = MathArrays.buildArray(field, mn);
-            T[] ys = MathArrays.buildArray(field, mn);
+            T[] xs = xsZn2;
+            T[] ys = ysZn2;
             for (int k = 0; k < mn; k++) {
                 xs[k] = zeta(zero.add(ZN2[k]), z1).divide(zgdif);
                 ys[k] = meso_tn2[k].reciprocal();
@@ -3882,7 +4165,7 @@ public class NRLMSISE00 implements Atmosphere {
             T yd2 = meso_tgn2[1].negate().divide(t2.multiply(t2)).multiply(zgdif).multiply(qSM).multiply(qSM);
 
             /* calculate spline coefficients */
-            T[] y2out = spline(xs, ys, yd1, yd2);
+            T[] y2out = spline(xs, ys, yd1, yd2, y2Zn2);
             T x = zg.divide(zgdif);
             T y = splint(xs, ys, y2out, x);
 
@@ -3917,8 +4200,8 @@ public class NRLMSISE00 implements Atmosphere {
             zgdif = zeta(zero.add(z2), z1);
 
             /* set up spline nodes */
-            xs = MathArrays.buildArray(field, mn);
-            ys = MathArrays.buildArray(field, mn);
+            xs = xsZn3;
+            ys = ysZn3;
             for (int k = 0; k < mn; k++) {
                 xs[k] = zeta(zero.add(ZN3[k]), z1).divide(zgdif);
                 ys[k] = meso_tn3[k].reciprocal();
@@ -3928,7 +4211,7 @@ public class NRLMSISE00 implements Atmosphere {
             yd2 = meso_tgn3[1].negate().divide(t2.multiply(t2)).multiply(zgdif).multiply(qTS).multiply(qTS);
 
             /* calculate spline coefficients */
-            y2out = spline(xs, ys, yd1, yd2);
+            y2out = spline(xs, ys, yd1, yd2, y2Zn3);
             x = zg.divide(zgdif);
             y = splint(xs, ys, y2out, x);
 
@@ -3977,10 +4260,10 @@ public class NRLMSISE00 implements Atmosphere {
             T tz = tt;
 
             final int mn = ZN1.length;
-            final T[] xs = MathArrays.buildArray(field, mn);
-            final T[] ys = MathArrays.buildArray(field, mn);
+            final T[] xs = xsZn1;
+            final T[] ys = ysZn1;
             T x = zero;
-            T[] y2out =  MathArrays.buildArray(field, mn);
+            T[] y2out = y2Zn1;
             T zgdif = zero;
             if (alt.getReal() < ZN1[0]) {
                 /* calculate temperature below ZA
@@ -4007,7 +4290,7 @@ public class NRLMSISE00 implements Atmosphere {
                 final T yd1 = meso_tgn1[0].negate().divide(t1.multiply(t1)).multiply(zgdif);
                 final T yd2 = meso_tgn1[1].negate().divide(t2.multiply(t2)).multiply(zgdif).multiply(q.multiply(q));
                 /* calculate spline coefficients */
-                y2out = spline(xs, ys, yd1, yd2);
+                y2out = spline(xs, ys, yd1, yd2, y2Zn1);
                 x = zg.divide(zgdif);
                 final T y = splint(xs, ys, y2out, x);
                 /* temperature at altitude */
@@ -17,12 +17,14 @@
 package org.orekit.forces.gravity;
 
 
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 import org.hipparchus.Field;
 import org.hipparchus.RealFieldElement;
 import org.hipparchus.analysis.differentiation.DerivativeStructure;
 import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.SphericalCoordinates;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.linear.Array2DRowRealMatrix;
@@ -42,6 +44,8 @@ import org.orekit.propagation.FieldSpacecraftState;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
 import org.orekit.propagation.events.FieldEventDetector;
+import org.orekit.propagation.numerical.SpacecraftStateView;
+import org.orekit.propagation.numerical.TimeDerivativesEquations;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.FieldAbsoluteDate;
 import org.orekit.utils.FieldPVCoordinates;
@@ -111,6 +115,9 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
     /** Scaled sectorial Pbar<sub>m,m</sub>/u<sup>m</sup> &times; 2<sup>-SCALING</sup>. */
     private final double[] sectorial;
 
+    /** Per-thread work buffers for gradient evaluations. */
+    private final ThreadLocal<Workspace> workspaces;
+
     /** Creates a new instance.
      * @param centralBodyFrame rotating body frame
      * @param provider provider for spherical harmonics
@@ -162,6 +169,9 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
             sectorial[m] = FastMath.sqrt((2 * m + 1) / (2.0 * m)) * sectorial[m - 1];
         }
 
+        final int order = provider.getMaxOrder();
+        workspaces = ThreadLocal.withInitial(() -> new Workspace(degree, order));
+
     }
 
     /** {@inheritDoc} */
@@ -285,109 +295,14 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
     public double[] gradient(final AbsoluteDate date, final Vector3D position, final double mu)
         throws OrekitException {
 
-        final int degree = provider.getMaxDegree();
-        final int order  = provider.getMaxOrder();
-        final NormalizedSphericalHarmonics harmonics = provider.onDate(date);
-
-        // allocate the columns for recursion
-        double[] pnm0Plus2  = new double[degree + 1];
-        double[] pnm0Plus1  = new double[degree + 1];
-        double[] pnm0       = new double[degree + 1];
-        final double[] pnm1 = new double[degree + 1];
-
-        // compute polar coordinates
-        final double x    = position.getX();
-        final double y    = position.getY();
-        final double z    = position.getZ();
-        final double x2   = x * x;
-        final double y2   = y * y;
-        final double z2   = z * z;
-        final double r2   = x2 + y2 + z2;
-        final double r    = FastMath.sqrt (r2);
-        final double rho2 = x2 + y2;
-        final double rho  = FastMath.sqrt(rho2);
-        final double t    = z / r;   // cos(theta), where theta is the polar angle
-        final double u    = rho / r; // sin(theta), where theta is the polar angle
-        final double tOu  = z / rho;
-
-        // compute distance powers
-        final double[] aOrN = createDistancePowersArray(provider.getAe() / r);
-
-        // compute longitude cosines/sines
-        final double[][] cosSinLambda = createCosSinArrays(position.getX() / rho, position.getY() / rho);
-
-        // outer summation over order
-        int    index = 0;
-        double value = 0;
-        final double[] gradient = new double[3];
-        for (int m = degree; m >= 0; --m) {
-
-            // compute tesseral terms with derivatives
-            index = computeTesseral(m, degree, index, t, u, tOu,
-                                    pnm0Plus2, pnm0Plus1, null, pnm0, pnm1, null);
-
-            if (m <= order) {
-                // compute contribution of current order to field (equation 5 of the paper)
-
-                // inner summation over degree, for fixed order
-                double sumDegreeS        = 0;
-                double sumDegreeC        = 0;
-                double dSumDegreeSdR     = 0;
-                double dSumDegreeCdR     = 0;
-                double dSumDegreeSdTheta = 0;
-                double dSumDegreeCdTheta = 0;
-                for (int n = FastMath.max(2, m); n <= degree; ++n) {
-                    final double qSnm  = aOrN[n] * harmonics.getNormalizedSnm(n, m);
-                    final double qCnm  = aOrN[n] * harmonics.getNormalizedCnm(n, m);
-                    final double nOr   = n / r;
-                    final double s0    = pnm0[n] * qSnm;
-                    final double c0    = pnm0[n] * qCnm;
-                    final double s1    = pnm1[n] * qSnm;
-                    final double c1    = pnm1[n] * qCnm;
-                    sumDegreeS        += s0;
-                    sumDegreeC        += c0;
-                    dSumDegreeSdR     -= nOr * s0;
-                    dSumDegreeCdR     -= nOr * c0;
-                    dSumDegreeSdTheta += s1;
-                    dSumDegreeCdTheta += c1;
-                }
-
-                // contribution to outer summation over order
-                // beware that we need to order gradient using the mathematical conventions
-                // compliant with the SphericalCoordinates class, so our lambda is its theta
-                // (and hence at index 1) and our theta is its phi (and hence at index 2)
-                final double sML = cosSinLambda[1][m];
-                final double cML = cosSinLambda[0][m];
-                value            = value       * u + sML * sumDegreeS        + cML * sumDegreeC;
-                gradient[0]      = gradient[0] * u + sML * dSumDegreeSdR     + cML * dSumDegreeCdR;
-                gradient[1]      = gradient[1] * u + m * (cML * sumDegreeS - sML * sumDegreeC);
-                gradient[2]      = gradient[2] * u + sML * dSumDegreeSdTheta + cML * dSumDegreeCdTheta;
-
-            }
-
-            // rotate the recursion arrays
-            final double[] tmp = pnm0Plus2;
-            pnm0Plus2 = pnm0Plus1;
-            pnm0Plus1 = pnm0;
-            pnm0      = tmp;
-
-        }
-
-        // scale back
-        value       = FastMath.scalb(value,       SCALING);
-        gradient[0] = FastMath.scalb(gradient[0], SCALING);
-        gradient[1] = FastMath.scalb(gradient[1], SCALING);
-        gradient[2] = FastMath.scalb(gradient[2], SCALING);
-
-        // apply the global mu/r factor
-        final double muOr = mu / r;
-        value            *= muOr;
-        gradient[0]       = muOr * gradient[0] - value / r;
-        gradient[1]      *= muOr;
-        gradient[2]      *= muOr;
+        final Workspace workspace = workspaces.get();
+        workspace.loadCoefficients(provider.onDate(date));
+        evaluate(workspace, position, mu, false);
 
         // convert gradient from spherical to Cartesian
-        return new SphericalCoordinates(position).toCartesianGradient(gradient);
+        final double[] gradient = new double[3];
+        toCartesianGradient(position, workspace.gradient, gradient);
+        return gradient;
 
     }
 
@@ -535,27 +450,84 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
 
     }
 
-    /** Compute both the gradient and the hessian of the non-central part of the gravity field.
+    /** Compute the non-central part of the gravity field at many positions for the same date.
+     * <p>
+     * This method is intended for applications like covariance analysis or Monte-Carlo
+     * runs that evaluate the same field at a large number of points for one date. The
+     * spherical harmonics coefficients are retrieved from the provider only once for
+     * the whole batch and the recursion work arrays are reused from one point to the
+     * next (they are allocated once per thread and per model). Gradients and potentials
+     * are computed without any allocation per point, only the conversion of Hessians to
+     * Cartesian coordinates allocates temporary arrays. The results are the same
+     * as the ones from {@link #nonCentralPart(AbsoluteDate, Vector3D, double)} and
+     * {@link #gradient(AbsoluteDate, Vector3D, double)} for each position.
+     * </p>
      * @param date current date
-     * @param position position at which gravity field is desired in body frame
+     * @param positions positions at which gravity field is desired in body frame
      * @param mu central attraction coefficient to use
-     * @return gradient and hessian of the non-central part of the gravity field
-     * @exception OrekitException if position cannot be converted to central body frame
+     * @param gradients array where to store the gradients of the non-central part
+     * of the gravity field (i.e. the accelerations in body frame), it must have at
+     * least as many rows as positions, each row having at least 3 elements
+     * @param potentials array where to store the values of the non-central part of the
+     * gravity field, it must have at least as many elements as positions (may be null
+     * if potentials are not needed)
+     * @param hessians array where to store the Hessians of the non-central part of the
+     * gravity field, it must have at least as many 3x3 matrices as positions (may be null
+     * if Hessians are not needed, which avoids computing second derivatives)
+     * @exception OrekitException if harmonics cannot be computed at specified date
+     * @since 9.3
      */
-    private GradientHessian gradientHessian(final AbsoluteDate date, final Vector3D position, final double mu)
+    public void gradient(final AbsoluteDate date, final Vector3D[] positions, final double mu,
+                         final double[][] gradients, final double[] potentials, final double[][][] hessians)
         throws OrekitException {
 
-        final int degree = provider.getMaxDegree();
-        final int order  = provider.getMaxOrder();
-        final NormalizedSphericalHarmonics harmonics = provider.onDate(date);
+        // hoist the date-dependent coefficients lookup out of the positions loop
+        final Workspace workspace = workspaces.get();
+        workspace.loadCoefficients(provider.onDate(date));
 
-        // allocate the columns for recursion
-        double[] pnm0Plus2  = new double[degree + 1];
-        double[] pnm0Plus1  = new double[degree + 1];
-        double[] pnm0       = new double[degree + 1];
-        double[] pnm1Plus1  = new double[degree + 1];
-        double[] pnm1       = new double[degree + 1];
-        final double[] pnm2 = new double[degree + 1];
+        for (int i = 0; i < positions.length; ++i) {
+            final double value = evaluate(workspace, positions[i], mu, hessians != null);
+            if (potentials != null) {
+                potentials[i] = value;
+            }
+            toCartesianGradient(positions[i], workspace.gradient, gradients[i]);
+            if (hessians != null) {
+                final double[][] hessian = new SphericalCoordinates(positions[i]).
+                                           toCartesianHessian(workspace.hessian, workspace.gradient);
+                for (int j = 0; j < 3; ++j) {
+                    System.arraycopy(hessian[j], 0, hessians[i][j], 0, 3);
+                }
+            }
+        }
+
+    }
+
+    /** Evaluate the non-central part of the gravity field at one position, using preloaded coefficients.
+     * <p>
+     * This is the recursion shared by the single point and batch evaluations of
+     * the gradient and Hessian. The gradient and (if required) the lower triangular
+     * part of the Hessian are stored in spherical coordinates in the workspace.
+     * </p>
+     * @param workspace workspace holding the coefficients and the recursion arrays
+     * @param position position at which gravity field is desired in body frame
+     * @param mu central attraction coefficient to use
+     * @param withHessian if true, the Hessian is computed too
+     * @return value of the non-central part of the gravity field
+     */
+    private double evaluate(final Workspace workspace, final Vector3D position, final double mu,
+                            final boolean withHessian) {
+
+        final int degree = workspace.degree;
+        final int order  = workspace.order;
+
+        // reuse the columns for recursion, resetting them as in a fresh allocation
+        workspace.resetColumns();
+        double[] pnm0Plus2  = workspace.pnm0Plus2;
+        double[] pnm0Plus1  = workspace.pnm0Plus1;
+        double[] pnm0       = workspace.pnm0;
+        double[] pnm1Plus1  = withHessian ? workspace.pnm1Plus1 : null;
+        double[] pnm1       = workspace.pnm1;
+        final double[] pnm2 = withHessian ? workspace.pnm2 : null;
 
         // compute polar coordinates
         final double x    = position.getX();
@@ -573,16 +545,21 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
         final double tOu  = z / rho;
 
         // compute distance powers
-        final double[] aOrN = createDistancePowersArray(provider.getAe() / r);
+        final double[] aOrN = fillDistancePowersArray(provider.getAe() / r, workspace.aOrN);
 
         // compute longitude cosines/sines
-        final double[][] cosSinLambda = createCosSinArrays(position.getX() / rho, position.getY() / rho);
+        final double[][] cosSinLambda = fillCosSinArrays(x / rho, y / rho, workspace.cosSin);
 
         // outer summation over order
-        int    index = 0;
-        double value = 0;
-        final double[]   gradient = new double[3];
-        final double[][] hessian  = new double[3][3];
+        int    index       = 0;
+        int    coeffsIndex = 0;
+        double value       = 0;
+        final double[]   gradient = workspace.gradient;
+        final double[][] hessian  = workspace.hessian;
+        Arrays.fill(gradient, 0.0);
+        for (final double[] row : hessian) {
+            Arrays.fill(row, 0.0);
+        }
         for (int m = degree; m >= 0; --m) {
 
             // compute tesseral terms
@@ -606,28 +583,31 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
                 double d2SumDegreeCdRdTheta     = 0;
                 double d2SumDegreeCdThetadTheta = 0;
                 for (int n = FastMath.max(2, m); n <= degree; ++n) {
-                    final double qSnm         = aOrN[n] * harmonics.getNormalizedSnm(n, m);
-                    final double qCnm         = aOrN[n] * harmonics.getNormalizedCnm(n, m);
-                    final double nOr          = n / r;
-                    final double nnP1Or2      = nOr * (n + 1) / r;
-                    final double s0           = pnm0[n] * qSnm;
-                    final double c0           = pnm0[n] * qCnm;
-                    final double s1           = pnm1[n] * qSnm;
-                    final double c1           = pnm1[n] * qCnm;
-                    final double s2           = pnm2[n] * qSnm;
-                    final double c2           = pnm2[n] * qCnm;
-                    sumDegreeS               += s0;
-                    sumDegreeC               += c0;
-                    dSumDegreeSdR            -= nOr * s0;
-                    dSumDegreeCdR            -= nOr * c0;
-                    dSumDegreeSdTheta        += s1;
-                    dSumDegreeCdTheta        += c1;
-                    d2SumDegreeSdRdR         += nnP1Or2 * s0;
-                    d2SumDegreeSdRdTheta     -= nOr * s1;
-                    d2SumDegreeSdThetadTheta += s2;
-                    d2SumDegreeCdRdR         += nnP1Or2 * c0;
-                    d2SumDegreeCdRdTheta     -= nOr * c1;
-                    d2SumDegreeCdThetadTheta += c2;
+                    final double qSnm  = aOrN[n] * workspace.snm[coeffsIndex];
+                    final double qCnm  = aOrN[n] * workspace.cnm[coeffsIndex];
+                    ++coeffsIndex;
+                    final double nOr   = n / r;
+                    final double s0    = pnm0[n] * qSnm;
+                    final double c0    = pnm0[n] * qCnm;
+                    final double s1    = pnm1[n] * qSnm;
+                    final double c1    = pnm1[n] * qCnm;
+                    sumDegreeS        += s0;
+                    sumDegreeC        += c0;
+                    dSumDegreeSdR     -= nOr * s0;
+                    dSumDegreeCdR     -= nOr * c0;
+                    dSumDegreeSdTheta += s1;
+                    dSumDegreeCdTheta += c1;
+                    if (withHessian) {
+                        final double nnP1Or2      = nOr * (n + 1) / r;
+                        final double s2           = pnm2[n] * qSnm;
+                        final double c2           = pnm2[n] * qCnm;
+                        d2SumDegreeSdRdR         += nnP1Or2 * s0;
+                        d2SumDegreeSdRdTheta     -= nOr * s1;
+                        d2SumDegreeSdThetadTheta += s2;
+                        d2SumDegreeCdRdR         += nnP1Or2 * c0;
+                        d2SumDegreeCdRdTheta     -= nOr * c1;
+                        d2SumDegreeCdThetadTheta += c2;
+                    }
                 }
 
                 // contribution to outer summation over order
@@ -637,12 +617,14 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
                 gradient[0]      = gradient[0]   * u + sML * dSumDegreeSdR + cML * dSumDegreeCdR;
                 gradient[1]      = gradient[1]   * u + m * (cML * sumDegreeS - sML * sumDegreeC);
                 gradient[2]      = gradient[2]   * u + sML * dSumDegreeSdTheta + cML * dSumDegreeCdTheta;
-                hessian[0][0]    = hessian[0][0] * u + sML * d2SumDegreeSdRdR + cML * d2SumDegreeCdRdR;
-                hessian[1][0]    = hessian[1][0] * u + m * (cML * dSumDegreeSdR - sML * dSumDegreeCdR);
-                hessian[2][0]    = hessian[2][0] * u + sML * d2SumDegreeSdRdTheta + cML * d2SumDegreeCdRdTheta;
-                hessian[1][1]    = hessian[1][1] * u - m * m * (sML * sumDegreeS + cML * sumDegreeC);
-                hessian[2][1]    = hessian[2][1] * u + m * (cML * dSumDegreeSdTheta - sML * dSumDegreeCdTheta);
-                hessian[2][2]    = hessian[2][2] * u + sML * d2SumDegreeSdThetadTheta + cML * d2SumDegreeCdThetadTheta;
+                if (withHessian) {
+                    hessian[0][0] = hessian[0][0] * u + sML * d2SumDegreeSdRdR + cML * d2SumDegreeCdRdR;
+                    hessian[1][0] = hessian[1][0] * u + m * (cML * dSumDegreeSdR - sML * dSumDegreeCdR);
+                    hessian[2][0] = hessian[2][0] * u + sML * d2SumDegreeSdRdTheta + cML * d2SumDegreeCdRdTheta;
+                    hessian[1][1] = hessian[1][1] * u - m * m * (sML * sumDegreeS + cML * sumDegreeC);
+                    hessian[2][1] = hessian[2][1] * u + m * (cML * dSumDegreeSdTheta - sML * dSumDegreeCdTheta);
+                    hessian[2][2] = hessian[2][2] * u + sML * d2SumDegreeSdThetadTheta + cML * d2SumDegreeCdThetadTheta;
+                }
 
             }
 
@@ -651,9 +633,11 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
             pnm0Plus2 = pnm0Plus1;
             pnm0Plus1 = pnm0;
             pnm0      = tmp0;
-            final double[] tmp1 = pnm1Plus1;
-            pnm1Plus1 = pnm1;
-            pnm1      = tmp1;
+            if (withHessian) {
+                final double[] tmp1 = pnm1Plus1;
+                pnm1Plus1 = pnm1;
+                pnm1      = tmp1;
+            }
 
         }
 
@@ -666,25 +650,68 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
             }
         }
 
-
         // apply the global mu/r factor
         final double muOr = mu / r;
         value         *= muOr;
         gradient[0]    = muOr * gradient[0] - value / r;
         gradient[1]   *= muOr;
         gradient[2]   *= muOr;
-        hessian[0][0]  = muOr * hessian[0][0] - 2 * gradient[0] / r;
-        hessian[1][0]  = muOr * hessian[1][0] -     gradient[1] / r;
-        hessian[2][0]  = muOr * hessian[2][0] -     gradient[2] / r;
-        hessian[1][1] *= muOr;
-        hessian[2][1] *= muOr;
-        hessian[2][2] *= muOr;
+        if (withHessian) {
+            hessian[0][0]  = muOr * hessian[0][0] - 2 * gradient[0] / r;
+            hessian[1][0]  = muOr * hessian[1][0] -     gradient[1] / r;
+            hessian[2][0]  = muOr * hessian[2][0] -     gradient[2] / r;
+            hessian[1][1] *= muOr;
+            hessian[2][1] *= muOr;
+            hessian[2][2] *= muOr;
+        }
 
-        // convert gradient and Hessian from spherical to Cartesian
-        final SphericalCoordinates sc = new SphericalCoordinates(position);
-        return new GradientHessian(sc.toCartesianGradient(gradient),
-                                   sc.toCartesianHessian(hessian, gradient));
+        return value;
 
+    }
+
+    /** Convert a gradient from spherical to Cartesian coordinates without allocation.
+     * <p>
+     * This is the same computation as {@link SphericalCoordinates#toCartesianGradient(double[])}.
+     * </p>
+     * @param position position in body frame
+     * @param sGradient gradient in spherical coordinates (r, longitude, polar angle)
+     * @param cGradient array where to store the gradient in Cartesian coordinates
+     */
+    private static void toCartesianGradient(final Vector3D position, final double[] sGradient,
+                                            final double[] cGradient) {
+        final double x     = position.getX();
+        final double y     = position.getY();
+        final double z     = position.getZ();
+        final double r     = position.getNorm();
+        final double rho2  = x * x + y * y;
+        final double rho   = FastMath.sqrt(rho2);
+        final double r2    = rho2 + z * z;
+        final double rhoR2 = rho * r2;
+        cGradient[0] = sGradient[0] * (x / r) + sGradient[1] * (-y / rho2) + sGradient[2] * (x * z / rhoR2);
+        cGradient[1] = sGradient[0] * (y / r) + sGradient[1] * (x / rho2)  + sGradient[2] * (y * z / rhoR2);
+        cGradient[2] = sGradient[0] * (z / r)                               + sGradient[2] * (-rho / r2);
+    }
+
+    /** Compute both the gradient and the hessian of the non-central part of the gravity field.
+     * @param date current date
+     * @param position position at which gravity field is desired in body frame
+     * @param mu central attraction coefficient to use
+     * @return gradient and hessian of the non-central part of the gravity field
+     * @exception OrekitException if position cannot be converted to central body frame
+     */
+    private GradientHessian gradientHessian(final AbsoluteDate date, final Vector3D position, final double mu)
+        throws OrekitException {
+
+        final Workspace workspace = workspaces.get();
+        workspace.loadCoefficients(provider.onDate(date));
+        evaluate(workspace, position, mu, true);
+
+        // convert gradient and Hessian from spherical to Cartesian
+        final double[] gradient = new double[3];
+        toCartesianGradient(position, workspace.gradient, gradient);
+        return new GradientHessian(gradient,
+                                   new SphericalCoordinates(position).toCartesianHessian(workspace.hessian,
+                                                                                         workspace.gradient));
 
     }
 
@@ -725,14 +752,128 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
 
     }
 
+    /** Per-thread work buffers for gradient evaluations.
+     * <p>
+     * This class is static so that the thread-local values do not keep
+     * a reference to the model that created them.
+     * </p>
+     */
+    private static class Workspace {
+
+        /** Maximal degree. */
+        private final int degree;
+
+        /** Maximal order. */
+        private final int order;
+
+        /** Column for P<sub>n,m+2</sub> recursion. */
+        private final double[] pnm0Plus2;
+
+        /** Column for P<sub>n,m+1</sub> recursion. */
+        private final double[] pnm0Plus1;
+
+        /** Column for P<sub>n,m</sub> recursion. */
+        private final double[] pnm0;
+
+        /** Column for dP<sub>n,m+1</sub> recursion. */
+        private final double[] pnm1Plus1;
+
+        /** Column for dP<sub>n,m</sub> recursion. */
+        private final double[] pnm1;
+
+        /** Column for d²P<sub>n,m</sub> recursion. */
+        private final double[] pnm2;
+
+        /** Distance powers (a/r)<sup>n</sup>. */
+        private final double[] aOrN;
+
+        /** Longitude cosines and sines. */
+        private final double[][] cosSin;
+
+        /** Normalized C<sub>n,m</sub> coefficients, in evaluation order. */
+        private final double[] cnm;
+
+        /** Normalized S<sub>n,m</sub> coefficients, in evaluation order. */
+        private final double[] snm;
+
+        /** Gradient in spherical coordinates. */
+        private final double[] gradient;
+
+        /** Hessian in spherical coordinates (lower triangular part only). */
+        private final double[][] hessian;
+
+        /** Simple constructor.
+         * @param degree maximal degree
+         * @param order maximal order
+         */
+        Workspace(final int degree, final int order) {
+            this.degree = degree;
+            this.order  = order;
+            pnm0Plus2 = new double[degree + 1];
+            pnm0Plus1 = new double[degree + 1];
+            pnm0      = new double[degree + 1];
+            pnm1Plus1 = new double[degree + 1];
+            pnm1      = new double[degree + 1];
+            pnm2      = new double[degree + 1];
+            aOrN      = new double[degree + 1];
+            cosSin    = new double[2][order + 1];
+            int size = 0;
+            for (int m = FastMath.min(degree, order); m >= 0; --m) {
+                size += FastMath.max(0, degree + 1 - FastMath.max(2, m));
+            }
+            cnm       = new double[size];
+            snm       = new double[size];
+            gradient  = new double[3];
+            hessian   = new double[3][3];
+        }
+
+        /** Load the spherical harmonics coefficients in evaluation order.
+         * @param harmonics spherical harmonics at current date
+         * @exception OrekitException if coefficients cannot be retrieved
+         */
+        void loadCoefficients(final NormalizedSphericalHarmonics harmonics)
+            throws OrekitException {
+            int index = 0;
+            for (int m = degree; m >= 0; --m) {
+                if (m <= order) {
+                    for (int n = FastMath.max(2, m); n <= degree; ++n) {
+                        cnm[index] = harmonics.getNormalizedCnm(n, m);
+                        snm[index] = harmonics.getNormalizedSnm(n, m);
+                        ++index;
+                    }
+                }
+            }
+        }
+
+        /** Reset the recursion columns to zero.
+         */
+        void resetColumns() {
+            Arrays.fill(pnm0Plus2, 0.0);
+            Arrays.fill(pnm0Plus1, 0.0);
+            Arrays.fill(pnm0,      0.0);
+            Arrays.fill(pnm1Plus1, 0.0);
+            Arrays.fill(pnm1,      0.0);
+            Arrays.fill(pnm2,      0.0);
+        }
+
+    }
+
     /** Compute a/r powers array.
      * @param aOr a/r
      * @return array containing (a/r)<sup>n</sup>
      */
     private double[] createDistancePowersArray(final double aOr) {
+        return fillDistancePowersArray(aOr, new double[provider.getMaxDegree() + 1]);
+    }
+
+    /** Fill a/r powers array.
+     * @param aOr a/r
+     * @param aOrN array to fill, must have max degree + 1 elements
+     * @return aOrN array, filled with (a/r)<sup>n</sup>
+     */
+    private double[] fillDistancePowersArray(final double aOr, final double[] aOrN) {
 
         // initialize array
-        final double[] aOrN = new double[provider.getMaxDegree() + 1];
         aOrN[0] = 1;
         aOrN[1] = aOr;
 
@@ -776,9 +917,20 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
      * and sin(m &times; λ) in row 1
      */
     private double[][] createCosSinArrays(final double cosLambda, final double sinLambda) {
+        return fillCosSinArrays(cosLambda, sinLambda, new double[2][provider.getMaxOrder() + 1]);
+    }
+
+    /** Fill longitude cosines and sines.
+     * @param cosLambda cos(λ)
+     * @param sinLambda sin(λ)
+     * @param cosSin arrays to fill, must have 2 rows of max order + 1 elements
+     * @return cosSin array, filled with cos(m &times; λ) in row 0
+     * and sin(m &times; λ) in row 1
+     */
+    private double[][] fillCosSinArrays(final double cosLambda, final double sinLambda,
+                                        final double[][] cosSin) {
 
         // initialize arrays
-        final double[][] cosSin = new double[2][provider.getMaxOrder() + 1];
         cosSin[0][0] = 1;
         cosSin[1][0] = 0;
         if (provider.getMaxOrder() > 0) {
@@ -1054,6 +1206,33 @@ public class HolmesFeatherstoneAttractionModel extends AbstractForceModel implem
 
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void addContribution(final SpacecraftStateView s, final TimeDerivativesEquations adder)
+        throws OrekitException {
+
+        // get the position in body frame, inverting the transform in place
+        // (as fromBodyFrame maps p to R(p + T), its inverse maps p to R⁻¹(p) - T)
+        final AbsoluteDate date       = s.getDate();
+        final Transform fromBodyFrame = bodyFrame.getTransformTo(s.getFrame(), date);
+        final Rotation  rotation      = fromBodyFrame.getRotation();
+        final Vector3D  translation   = fromBodyFrame.getTranslation();
+        final double[]  inertial      = new double[] {
+            s.getPositionX(), s.getPositionY(), s.getPositionZ()
+        };
+        final double[]  body          = new double[3];
+        rotation.applyInverseTo(inertial, body);
+        final Vector3D position       = new Vector3D(body[0] - translation.getX(),
+                                                     body[1] - translation.getY(),
+                                                     body[2] - translation.getZ());
+
+        // gradient of the non-central part of the gravity field, rotated back to inertial frame
+        final double[] gradient = gradient(date, position, gmParameterDriver.getValue());
+        rotation.applyTo(gradient, inertial);
+        adder.addNonKeplerianAcceleration(inertial[0], inertial[1], inertial[2]);
+
+    }
+
     /** {@inheritDoc} */
     public <T extends RealFieldElement<T>> FieldVector3D<T> acceleration(final FieldSpacecraftState<T> s,
                                                                          final T[] parameters)
@@ -31,6 +31,7 @@ import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
 import org.orekit.propagation.events.FieldEventDetector;
 import org.orekit.propagation.numerical.FieldTimeDerivativesEquations;
+import org.orekit.propagation.numerical.SpacecraftStateView;
 import org.orekit.propagation.numerical.TimeDerivativesEquations;
 import org.orekit.utils.ParameterDriver;
 
@@ -88,6 +89,13 @@ public class NewtonianAttraction extends AbstractForceModel {
         adder.addKeplerContribution(getMu());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void addContribution(final SpacecraftStateView s, final TimeDerivativesEquations adder)
+        throws OrekitException {
+        adder.addKeplerContribution(getMu());
+    }
+
     /** {@inheritDoc} */
     @Override
     public <T extends RealFieldElement<T>> void addContribution(final FieldSpacecraftState<T> s,
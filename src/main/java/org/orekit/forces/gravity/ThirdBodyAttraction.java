@@ -31,6 +31,8 @@ import org.orekit.propagation.FieldSpacecraftState;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
 import org.orekit.propagation.events.FieldEventDetector;
+import org.orekit.propagation.numerical.SpacecraftStateView;
+import org.orekit.propagation.numerical.TimeDerivativesEquations;
 import org.orekit.utils.ParameterDriver;
 
 /** Third body attraction force model.
@@ -101,6 +103,30 @@ public class ThirdBodyAttraction extends AbstractForceModel {
 
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void addContribution(final SpacecraftStateView s, final TimeDerivativesEquations adder)
+        throws OrekitException {
+
+        final double gm = gmParameterDriver.getValue();
+
+        // compute bodies separation vectors and squared norm
+        final Vector3D centralToBody = body.getPVCoordinates(s.getDate(), s.getFrame()).getPosition();
+        final double r2Central       = centralToBody.getNormSq();
+        final double dx              = centralToBody.getX() - s.getPositionX();
+        final double dy              = centralToBody.getY() - s.getPositionY();
+        final double dz              = centralToBody.getZ() - s.getPositionZ();
+        final double r2Sat           = dx * dx + dy * dy + dz * dz;
+
+        // add relative acceleration
+        final double kSat     = gm / (r2Sat * FastMath.sqrt(r2Sat));
+        final double kCentral = -gm / (r2Central * FastMath.sqrt(r2Central));
+        adder.addNonKeplerianAcceleration(kSat * dx + kCentral * centralToBody.getX(),
+                                          kSat * dy + kCentral * centralToBody.getY(),
+                                          kSat * dz + kCentral * centralToBody.getZ());
+
+    }
+
     /** {@inheritDoc} */
     @Override
     public <T extends RealFieldElement<T>> FieldVector3D<T> acceleration(final FieldSpacecraftState<T> s,
@@ -29,6 +29,7 @@ import org.orekit.errors.OrekitInternalError;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.FieldAbsoluteDate;
 import org.orekit.time.TimeVectorFunction;
+import org.orekit.utils.IERSConventions;
 
 /** Celestial Intermediate Reference Frame.
  * <p>This provider includes precession effects according to either the IAU 2006 precession
@@ -44,7 +45,7 @@ import org.orekit.time.TimeVectorFunction;
 class CIRFProvider implements EOPBasedTransformProvider {
 
     /** Serializable UID. */
-    private static final long serialVersionUID = 20130806L;
+    private static final long serialVersionUID = 20181017L;
 
     /** Function computing CIP/CIO components. */
     private final transient TimeVectorFunction xysPxy2Function;
@@ -52,6 +53,9 @@ class CIRFProvider implements EOPBasedTransformProvider {
     /** EOP history. */
     private final EOPHistory eopHistory;
 
+    /** Amplitude threshold below which series terms are ignored (rad). */
+    private final double truncation;
+
     /** Simple constructor.
      * @param eopHistory EOP history
      * @exception OrekitException if the nutation model data embedded in the
@@ -60,12 +64,27 @@ class CIRFProvider implements EOPBasedTransformProvider {
      */
     CIRFProvider(final EOPHistory eopHistory)
         throws OrekitException {
+        this(eopHistory, 0.0);
+    }
+
+    /** Constructor ignoring small terms in the precession-nutation series.
+     * @param eopHistory EOP history
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @exception OrekitException if the nutation model data embedded in the
+     * library cannot be read.
+     * @see IERSConventions#getXYSpXY2Function(double)
+     * @since 9.3
+     */
+    CIRFProvider(final EOPHistory eopHistory, final double truncation)
+        throws OrekitException {
 
         // load the nutation model
-        xysPxy2Function = eopHistory.getConventions().getXYSpXY2Function();
+        xysPxy2Function = eopHistory.getConventions().getXYSpXY2Function(truncation);
 
         // store correction to the model
         this.eopHistory = eopHistory;
+        this.truncation = truncation;
 
     }
 
@@ -79,7 +98,7 @@ class CIRFProvider implements EOPBasedTransformProvider {
     @Override
     public CIRFProvider getNonInterpolatingProvider()
         throws OrekitException {
-        return new CIRFProvider(eopHistory.getNonInterpolatingEOPHistory());
+        return new CIRFProvider(eopHistory.getNonInterpolatingEOPHistory(), truncation);
     }
 
     /** {@inheritDoc} */
@@ -160,23 +179,28 @@ class CIRFProvider implements EOPBasedTransformProvider {
      * @return data transfer object that will be serialized
      */
     private Object writeReplace() {
-        return new DataTransferObject(eopHistory);
+        return new DataTransferObject(eopHistory, truncation);
     }
 
     /** Internal class used only for serialization. */
     private static class DataTransferObject implements Serializable {
 
         /** Serializable UID. */
-        private static final long serialVersionUID = 20131209L;
+        private static final long serialVersionUID = 20181017L;
 
         /** EOP history. */
         private final EOPHistory eopHistory;
 
+        /** Amplitude threshold below which series terms are ignored (rad). */
+        private final double truncation;
+
         /** Simple constructor.
          * @param eopHistory EOP history
+         * @param truncation amplitude threshold below which series terms are ignored (rad)
          */
-        DataTransferObject(final EOPHistory eopHistory) {
+        DataTransferObject(final EOPHistory eopHistory, final double truncation) {
             this.eopHistory = eopHistory;
+            this.truncation = truncation;
         }
 
         /** Replace the deserialized data transfer object with a {@link CIRFProvider}.
@@ -185,7 +209,7 @@ class CIRFProvider implements EOPBasedTransformProvider {
         private Object readResolve() {
             try {
                 // retrieve a managed frame
-                return new CIRFProvider(eopHistory);
+                return new CIRFProvider(eopHistory, truncation);
             } catch (OrekitException oe) {
                 throw new OrekitInternalError(oe);
             }
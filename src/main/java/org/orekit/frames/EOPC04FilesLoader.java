@@ -26,12 +26,14 @@ import java.util.SortedSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.hipparchus.util.FastMath;
 import org.orekit.data.DataLoader;
 import org.orekit.data.DataProvidersManager;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.DateComponents;
+import org.orekit.time.TimeScale;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.Constants;
 import org.orekit.utils.IERSConventions;
@@ -68,7 +70,7 @@ import org.orekit.utils.IERSConventions;
  * </p>
  * @author Luc Maisonobe
  */
-class EOPC04FilesLoader implements EOPHistoryLoader {
+class EOPC04FilesLoader implements WindowedEOPHistoryLoader {
 
     /** Pattern to match the columns header. */
     private static final Pattern COLUMNS_HEADER_PATTERN;
@@ -140,6 +142,15 @@ class EOPC04FilesLoader implements EOPHistoryLoader {
 
     }
 
+    /** Maximum number of years for which files names are filtered by year. */
+    private static final int MAX_FILTERED_YEARS = 20;
+
+    /** Pattern for the year at the end of files names. */
+    private static final Pattern YEAR_SUFFIX_PATTERN = Pattern.compile(".*\\.(\\d\\d)(?:\\.gz)?$");
+
+    /** First year of EOP C04 series (used to resolve two digits years). */
+    private static final int FIRST_YEAR = 1962;
+
     /** Regular expression for supported files names. */
     private final String supportedNames;
 
@@ -159,6 +170,136 @@ class EOPC04FilesLoader implements EOPHistoryLoader {
         history.addAll(parser.history);
     }
 
+    /** {@inheritDoc}
+     * <p>
+     * EOP C04 files are yearly files whose names end with the two last digits
+     * of the year. The years available are identified from the files names, and
+     * only the files for the first and last years are parsed. If the files names
+     * do not follow this convention, null is returned.
+     * </p>
+     */
+    @Override
+    public AbsoluteDate[] getCoverage(final IERSConventions.NutationCorrectionConverter converter)
+        throws OrekitException {
+
+        // identify the available years, without parsing the files
+        final YearsCollector collector = new YearsCollector();
+        DataProvidersManager.getInstance().feed(supportedNames, collector);
+        if (collector.minYear > collector.maxYear) {
+            return null;
+        }
+
+        // parse only the files for the first and last years
+        final Parser parser = new Parser(converter);
+        DataProvidersManager.getInstance().feed(yearsFilter(collector.minYear, collector.minYear) + supportedNames, parser);
+        if (collector.maxYear != collector.minYear) {
+            DataProvidersManager.getInstance().feed(yearsFilter(collector.maxYear, collector.maxYear) + supportedNames, parser);
+        }
+        if (parser.history.isEmpty()) {
+            return null;
+        }
+        AbsoluteDate first = parser.history.get(0).getDate();
+        AbsoluteDate last  = first;
+        for (final EOPEntry entry : parser.history) {
+            if (entry.getDate().compareTo(first) < 0) {
+                first = entry.getDate();
+            }
+            if (entry.getDate().compareTo(last) > 0) {
+                last = entry.getDate();
+            }
+        }
+        return new AbsoluteDate[] {
+            first, last
+        };
+
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * EOP C04 files are yearly files whose names end with the two last digits
+     * of the year, so only the files for the years overlapping the window are
+     * parsed. If no such files are found (for example because the supported
+     * names do not follow this convention), all files are parsed as in
+     * {@link #fillHistory(IERSConventions.NutationCorrectionConverter, SortedSet)}.
+     * </p>
+     */
+    @Override
+    public void fillHistory(final IERSConventions.NutationCorrectionConverter converter,
+                            final SortedSet<EOPEntry> history,
+                            final AbsoluteDate start, final AbsoluteDate end)
+        throws OrekitException {
+
+        final TimeScale utc       = TimeScalesFactory.getUTC();
+        final int       startYear = start.getComponents(utc).getDate().getYear();
+        final int       endYear   = end.getComponents(utc).getDate().getYear();
+
+        Parser parser = new Parser(converter);
+        if (endYear - startYear < MAX_FILTERED_YEARS) {
+            // only consider the files whose names end with the expected years
+            DataProvidersManager.getInstance().feed(yearsFilter(startYear, endYear) + supportedNames, parser);
+        }
+        if (parser.history.isEmpty()) {
+            // files names do not allow filtering, parse everything
+            parser = new Parser(converter);
+            DataProvidersManager.getInstance().feed(supportedNames, parser);
+        }
+
+        for (final EOPEntry entry : parser.history) {
+            if (entry.getDate().compareTo(start) >= 0 && entry.getDate().compareTo(end) <= 0) {
+                history.add(entry);
+            }
+        }
+
+    }
+
+    /** Build a regular expression prefix selecting files names by year.
+     * @param startYear first year to select
+     * @param endYear last year to select
+     * @return regular expression look-ahead prefix
+     */
+    private static String yearsFilter(final int startYear, final int endYear) {
+        final StringBuilder years = new StringBuilder();
+        for (int year = startYear; year <= endYear; ++year) {
+            years.append(years.length() == 0 ? "" : "|").append(String.format("%02d", year % 100));
+        }
+        return "(?=.*\\.(?:" + years + ")$)";
+    }
+
+    /** Internal class collecting the years from files names, without parsing them. */
+    private static class YearsCollector implements DataLoader {
+
+        /** Smallest year found. */
+        private int minYear;
+
+        /** Largest year found. */
+        private int maxYear;
+
+        /** Simple constructor.
+         */
+        YearsCollector() {
+            minYear = Integer.MAX_VALUE;
+            maxYear = Integer.MIN_VALUE;
+        }
+
+        /** {@inheritDoc} */
+        public boolean stillAcceptsData() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        public void loadData(final InputStream input, final String name) {
+            final Matcher matcher = YEAR_SUFFIX_PATTERN.matcher(name);
+            if (matcher.matches()) {
+                final int twoDigits = Integer.parseInt(matcher.group(1));
+                final int year      = (FIRST_YEAR / 100) * 100 + twoDigits +
+                                      (twoDigits < FIRST_YEAR % 100 ? 100 : 0);
+                minYear = FastMath.min(minYear, year);
+                maxYear = FastMath.max(maxYear, year);
+            }
+        }
+
+    }
+
     /** Internal class performing the parsing. */
     private static class Parser implements DataLoader {
 
@@ -38,7 +38,6 @@ import org.orekit.time.FieldAbsoluteDate;
 import org.orekit.time.TimeStamped;
 import org.orekit.time.TimeVectorFunction;
 import org.orekit.utils.Constants;
-import org.orekit.utils.GenericTimeStampedCache;
 import org.orekit.utils.IERSConventions;
 import org.orekit.utils.ImmutableTimeStampedCache;
 import org.orekit.utils.OrekitConfiguration;
@@ -723,7 +722,7 @@ public class EOPHistory implements Serializable {
      * </p>
      * @return data transfer object that will be serialized
      */
-    private Object writeReplace() {
+    protected Object writeReplace() {
         return new DataTransferObject(conventions, getEntries(), tidalCorrection == null);
     }
 
@@ -815,11 +814,11 @@ public class EOPHistory implements Serializable {
             this.step            = 60 * 60;
             this.tidalCorrection = tidalCorrection;
             this.cache           =
-                new GenericTimeStampedCache<TidalCorrectionEntry>(8,
-                                                                  OrekitConfiguration.getCacheSlotsNumber(),
-                                                                  Constants.JULIAN_DAY * 30,
-                                                                  Constants.JULIAN_DAY,
-                                                                  this);
+                OrekitConfiguration.createTimeStampedCache(8,
+                                                           OrekitConfiguration.getCacheSlotsNumber(),
+                                                           Constants.JULIAN_DAY * 30,
+                                                           Constants.JULIAN_DAY,
+                                                           this);
         }
 
         /** {@inheritDoc} */
@@ -236,6 +236,10 @@ public class Frame implements Serializable {
     }
 
     /** Get the transform from the instance to another frame.
+     * <p>
+     * If the {@link FrameTransformCache frame transform cache} is enabled,
+     * transforms already computed by the current thread are reused.
+     * </p>
      * @param destination destination frame to which we want to transform vectors
      * @param date the date (can be null if it is sure than no date dependent frame is used)
      * @return transform from the instance to the destination frame
@@ -249,6 +253,23 @@ public class Frame implements Serializable {
             return Transform.IDENTITY;
         }
 
+        if (date != null && FrameTransformCache.isEnabled()) {
+            return FrameTransformCache.getTransform(this, destination, date);
+        }
+
+        return buildTransformTo(destination, date);
+
+    }
+
+    /** Build the transform from the instance to another frame, bypassing any cache.
+     * @param destination destination frame to which we want to transform vectors
+     * @param date the date (can be null if it is sure than no date dependent frame is used)
+     * @return transform from the instance to the destination frame
+     * @exception OrekitException if some frame specific error occurs
+     */
+    Transform buildTransformTo(final Frame destination, final AbsoluteDate date)
+        throws OrekitException {
+
         // common ancestor to both frames in the frames tree
         final Frame common = findCommon(this, destination);
 
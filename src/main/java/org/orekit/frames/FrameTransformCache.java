@@ -0,0 +1,247 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.frames;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.time.AbsoluteDate;
+
+/** Per-thread cache for transforms between frames.
+ * <p>
+ * When enabled, {@link Frame#getTransformTo(Frame, AbsoluteDate)} first looks in
+ * this cache for a transform already computed by the same thread for the same source
+ * frame, destination frame and date. This avoids walking the frames tree and calling
+ * all the {@link TransformProvider transform providers} again when the same transform
+ * is needed by several models at the same date, for example by force models, attitude
+ * providers and events detectors within one integrator stage.
+ * </p>
+ * <p>
+ * Each thread has its own bounded cache, so lookups do not need any synchronization.
+ * When the cache of a thread is full, the oldest entry is replaced.
+ * </p>
+ * <p>
+ * The cache is disabled by default. It can be enabled by setting a non-zero
+ * {@link #setSize(int) size}. Cached transforms are only valid as long as the
+ * transform providers involved depend on date only. Changing the transform of
+ * an {@link UpdatableFrame} or the parameters of an estimated Earth frame
+ * automatically {@link #invalidate() invalidates} the cache. Users with their own
+ * mutable transform providers must call {@link #invalidate()} when the providers change.
+ * </p>
+ * @since 9.3
+ */
+public class FrameTransformCache {
+
+    /** Number of entries in each per-thread cache (0 if the cache is disabled). */
+    private static volatile int SIZE = 0;
+
+    /** Generation counter, incremented at each invalidation. */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    /** Number of cache hits. */
+    private static final LongAdder HITS = new LongAdder();
+
+    /** Number of cache misses. */
+    private static final LongAdder MISSES = new LongAdder();
+
+    /** Per-thread entries. */
+    private static final ThreadLocal<Entries> ENTRIES = new ThreadLocal<>();
+
+    /** Private constructor.
+     * <p>This class is a utility class, it should neither have a public
+     * nor a default constructor. This private constructor prevents
+     * the compiler from generating one automatically.</p>
+     */
+    private FrameTransformCache() {
+    }
+
+    /** Set the number of transforms cached by each thread.
+     * <p>
+     * Setting the size also invalidates all cached transforms.
+     * </p>
+     * @param size number of transforms cached by each thread, 0 disables the cache
+     */
+    public static void setSize(final int size) {
+        if (size < 0) {
+            throw new OrekitIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, size, 0);
+        }
+        SIZE = size;
+        invalidate();
+    }
+
+    /** Get the number of transforms cached by each thread.
+     * @return number of transforms cached by each thread, 0 if the cache is disabled
+     */
+    public static int getSize() {
+        return SIZE;
+    }
+
+    /** Check if the cache is enabled.
+     * @return true if the cache is enabled
+     */
+    public static boolean isEnabled() {
+        return SIZE > 0;
+    }
+
+    /** Invalidate all cached transforms, in all threads.
+     * <p>
+     * The per-thread caches are cleared lazily, the next time each thread uses its cache.
+     * </p>
+     */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    /** Get the number of cache hits since last {@link #resetCounters() reset}.
+     * @return number of cache hits
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    /** Get the number of cache misses since last {@link #resetCounters() reset}.
+     * @return number of cache misses
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /** Reset the hits and misses counters.
+     */
+    public static void resetCounters() {
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    /** Get a transform from the cache, computing it if needed.
+     * @param source source frame
+     * @param destination destination frame
+     * @param date date of the transform
+     * @return transform from source to destination
+     * @exception OrekitException if some frame specific error occurs
+     */
+    static Transform getTransform(final Frame source, final Frame destination, final AbsoluteDate date)
+        throws OrekitException {
+
+        final int  size       = SIZE;
+        final long generation = GENERATION.get();
+        Entries entries = ENTRIES.get();
+        if (entries == null || entries.getGeneration() != generation) {
+            // first use in this thread, or some cached transforms may be stale
+            entries = new Entries(size, generation);
+            ENTRIES.set(entries);
+        }
+
+        Transform transform = entries.lookup(source, destination, date);
+        if (transform == null) {
+            MISSES.increment();
+            transform = source.buildTransformTo(destination, date);
+            entries.store(source, destination, date, transform);
+        } else {
+            HITS.increment();
+        }
+
+        return transform;
+
+    }
+
+    /** Cached entries for one thread. */
+    private static class Entries {
+
+        /** Generation at entries creation. */
+        private final long generation;
+
+        /** Source frames. */
+        private final Frame[] sources;
+
+        /** Destination frames. */
+        private final Frame[] destinations;
+
+        /** Dates. */
+        private final AbsoluteDate[] dates;
+
+        /** Cached transforms. */
+        private final Transform[] transforms;
+
+        /** Index of the next entry to replace. */
+        private int next;
+
+        /** Simple constructor.
+         * @param size number of entries
+         * @param generation generation at entries creation
+         */
+        Entries(final int size, final long generation) {
+            this.generation   = generation;
+            this.sources      = new Frame[size];
+            this.destinations = new Frame[size];
+            this.dates        = new AbsoluteDate[size];
+            this.transforms   = new Transform[size];
+            this.next         = 0;
+        }
+
+        /** Get the generation at entries creation.
+         * @return generation at entries creation
+         */
+        public long getGeneration() {
+            return generation;
+        }
+
+        /** Look for a cached transform.
+         * @param source source frame
+         * @param destination destination frame
+         * @param date date of the transform
+         * @return cached transform, or null if not found
+         */
+        public Transform lookup(final Frame source, final Frame destination, final AbsoluteDate date) {
+            // look at the most recent entries first
+            for (int k = 1; k <= transforms.length; ++k) {
+                final int i = (next - k + transforms.length) % transforms.length;
+                if (sources[i] == null) {
+                    // no more entries
+                    return null;
+                }
+                if (sources[i] == source && destinations[i] == destination &&
+                    (dates[i] == date || dates[i].equals(date))) {
+                    return transforms[i];
+                }
+            }
+            return null;
+        }
+
+        /** Store a transform, replacing the oldest entry if needed.
+         * @param source source frame
+         * @param destination destination frame
+         * @param date date of the transform
+         * @param transform transform to store
+         */
+        public void store(final Frame source, final Frame destination,
+                          final AbsoluteDate date, final Transform transform) {
+            if (transforms.length > 0) {
+                sources[next]      = source;
+                destinations[next] = destination;
+                dates[next]        = date;
+                transforms[next]   = transform;
+                next               = (next + 1) % transforms.length;
+            }
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@ package org.orekit.frames;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -206,6 +207,9 @@ public class FramesFactory {
     /** Threshold for EOP continuity. */
     private static double EOP_CONTINUITY_THRESHOLD = 5 * Constants.JULIAN_DAY;
 
+    /** Indicator for lazy loading of EOP history. */
+    private static boolean LAZY_EOP_LOADING = false;
+
     /** Private constructor.
      * <p>This class is a utility class, it should neither have a public
      * nor a default constructor. This private constructor prevents
@@ -372,6 +376,28 @@ public class FramesFactory {
         EOP_CONTINUITY_THRESHOLD = threshold;
     }
 
+    /** Set the loading mode for Earth Orientation Parameters history.
+     * <p>
+     * By default (i.e. if this method is never called), {@link
+     * #getEOPHistory(IERSConventions, boolean) getEOPHistory} loads all the
+     * EOP files available. If lazy loading is set, it returns a {@link
+     * LazyEOPHistory} that loads only the entries around the dates at
+     * which it is used, which reduces start-up time for applications that
+     * need only a short time range.
+     * </p>
+     * <p>
+     * As frames are built only once, this method must be called before the
+     * first frame depending on EOP is retrieved.
+     * </p>
+     * @param lazy if true, EOP history is loaded on demand
+     * @since 9.3
+     */
+    public static void setLazyEOPLoading(final boolean lazy) {
+        synchronized (EOP_HISTORY_LOADERS) {
+            LAZY_EOP_LOADING = lazy;
+        }
+    }
+
     /** Get Earth Orientation Parameters history.
      * <p>
      * If no {@link EOPHistoryLoader} has been added by calling {@link
@@ -383,6 +409,10 @@ public class FramesFactory {
      * supported file names parameters all set to null, in order to get the default
      * loaders configuration.
      * </p>
+     * <p>
+     * If {@link #setLazyEOPLoading(boolean) lazy loading} has been set, the
+     * loaders are called only when the history is used.
+     * </p>
      * @param conventions conventions for which EOP history is requested
      * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
      * @return Earth Orientation Parameters history
@@ -399,6 +429,16 @@ public class FramesFactory {
                 addDefaultEOP1980HistoryLoaders(null, null, null, null, null);
             }
 
+            if (LAZY_EOP_LOADING) {
+                final EOPHistory history =
+                        new LazyEOPHistory(conventions, simpleEOP,
+                                           EOP_HISTORY_LOADERS.containsKey(conventions) ?
+                                           EOP_HISTORY_LOADERS.get(conventions) :
+                                           Collections.<EOPHistoryLoader>emptyList());
+                history.checkEOPContinuity(EOP_CONTINUITY_THRESHOLD);
+                return history;
+            }
+
             // TimeStamped based set needed to remove duplicates
             OrekitException pendingException = null;
             final SortedSet<EOPEntry> data = new TreeSet<EOPEntry>(new ChronologicalComparator());
@@ -692,6 +732,37 @@ public class FramesFactory {
         }
     }
 
+    /** Get an International Terrestrial Reference Frame ignoring small terms in the precession-nutation series.
+     * <p>
+     * The returned frame is built on top of the {@link #getTIRF(IERSConventions, boolean, double)
+     * truncated TIRF} with the same threshold. As it depends on the threshold, it is
+     * <em>not</em> a singleton: a new frame is built at each call, so it should be
+     * retrieved once and reused. A threshold set to 0 returns the {@link
+     * #getITRF(IERSConventions, boolean) regular singleton}.
+     * </p>
+     * @param conventions IERS conventions to apply
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @return ITRF frame
+     * @exception OrekitException if data embedded in the library cannot be read
+     * @see IERSConventions#getXYSpXY2Function(double)
+     * @since 9.3
+     */
+    public static Frame getITRF(final IERSConventions conventions,
+                                final boolean simpleEOP,
+                                final double truncation)
+        throws OrekitException {
+        final FactoryManagedFrame itrf = getITRF(conventions, simpleEOP);
+        if (truncation <= 0) {
+            return itrf;
+        }
+        final Frame tirf = getTIRF(conventions, simpleEOP, truncation);
+        final TIRFProvider tirfProvider = (TIRFProvider) tirf.getTransformProvider();
+        return new Frame(tirf, new ITRFProvider(tirfProvider.getEOPHistory()),
+                         itrf.getName() + " truncated", false);
+    }
+
     /** Get the TIRF reference frame, ignoring tidal effects.
      * @param conventions IERS conventions to apply
      * @return the selected reference frame singleton.
@@ -794,6 +865,40 @@ public class FramesFactory {
         }
     }
 
+    /** Get the TIRF reference frame ignoring small terms in the precession-nutation series.
+     * <p>
+     * The returned frame is built on top of the {@link #getCIRF(IERSConventions, boolean, double)
+     * truncated CIRF} with the same threshold. As it depends on the threshold, it is
+     * <em>not</em> a singleton: a new frame is built at each call, so it should be
+     * retrieved once and reused. A threshold set to 0 returns the {@link
+     * #getTIRF(IERSConventions, boolean) regular singleton}.
+     * </p>
+     * @param conventions IERS conventions to apply
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @return TIRF frame
+     * @exception OrekitException if the precession-nutation model data embedded in the
+     * library cannot be read.
+     * @see IERSConventions#getXYSpXY2Function(double)
+     * @since 9.3
+     */
+    public static Frame getTIRF(final IERSConventions conventions,
+                                final boolean simpleEOP,
+                                final double truncation)
+        throws OrekitException {
+        final FactoryManagedFrame tirf = getTIRF(conventions, simpleEOP);
+        if (truncation <= 0) {
+            return tirf;
+        }
+        final Frame cirf = getCIRF(conventions, simpleEOP, truncation);
+        final ShiftingTransformProvider cirfInterpolating =
+                (ShiftingTransformProvider) cirf.getTransformProvider();
+        final CIRFProvider cirfRaw = (CIRFProvider) cirfInterpolating.getRawProvider();
+        return new Frame(cirf, new TIRFProvider(cirfRaw.getEOPHistory()),
+                         tirf.getName() + " truncated", false);
+    }
+
     /** Get the CIRF2000 reference frame.
      * @param conventions IERS conventions to apply
      * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
@@ -849,6 +954,45 @@ public class FramesFactory {
         }
     }
 
+    /** Get the CIRF2000 reference frame ignoring small terms in the precession-nutation series.
+     * <p>
+     * The returned frame evaluates the precession-nutation model using {@link
+     * IERSConventions#getXYSpXY2Function(double)}, hence trading accuracy for speed. As it
+     * depends on the threshold, it is <em>not</em> a singleton: a new frame is built at
+     * each call, so it should be retrieved once and reused. A threshold set to 0 returns
+     * the {@link #getCIRF(IERSConventions, boolean) regular singleton}.
+     * </p>
+     * @param conventions IERS conventions to apply
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @return CIRF frame
+     * @exception OrekitException if the precession-nutation model data embedded in the
+     * library cannot be read.
+     * @see IERSConventions#getXYSpXY2Function(double)
+     * @since 9.3
+     */
+    public static Frame getCIRF(final IERSConventions conventions,
+                                final boolean simpleEOP,
+                                final double truncation)
+        throws OrekitException {
+        final FactoryManagedFrame cirf = getCIRF(conventions, simpleEOP);
+        if (truncation <= 0) {
+            return cirf;
+        }
+        final ShiftingTransformProvider cirfInterpolating =
+                (ShiftingTransformProvider) cirf.getTransformProvider();
+        final CIRFProvider cirfRaw = (CIRFProvider) cirfInterpolating.getRawProvider();
+        final TransformProvider shifting =
+                new ShiftingTransformProvider(new CIRFProvider(cirfRaw.getEOPHistory(), truncation),
+                                              CartesianDerivativesFilter.USE_PVA,
+                                              AngularDerivativesFilter.USE_R,
+                                              6, Constants.JULIAN_DAY / 24,
+                                              OrekitConfiguration.getCacheSlotsNumber(),
+                                              Constants.JULIAN_YEAR, 30 * Constants.JULIAN_DAY);
+        return new Frame(getGCRF(), shifting, cirf.getName() + " truncated", true);
+    }
+
     /** Get the VEIS 1950 reference frame.
      * <p>Its parent frame is the GTOD frame with IERS 1996 conventions without EOP corrections.<p>
      * @return the selected reference frame singleton.
@@ -1055,6 +1199,43 @@ public class FramesFactory {
         return getTOD(conventions, true, simpleEOP);
     }
 
+    /** Get the TOD reference frame ignoring small terms in the nutation series.
+     * <p>
+     * The returned frame evaluates the nutation model using {@link
+     * IERSConventions#getNutationFunction(double)}, hence trading accuracy for speed. As it
+     * depends on the threshold, it is <em>not</em> a singleton: a new frame is built at
+     * each call, so it should be retrieved once and reused. A threshold set to 0 returns
+     * the {@link #getTOD(IERSConventions, boolean) regular singleton}.
+     * </p>
+     * @param conventions IERS conventions to apply
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @return TOD frame
+     * @exception OrekitException if data embedded in the library cannot be read
+     * @since 9.3
+     */
+    public static Frame getTOD(final IERSConventions conventions,
+                               final boolean simpleEOP,
+                               final double truncation)
+        throws OrekitException {
+        final FactoryManagedFrame tod = getTOD(conventions, simpleEOP);
+        if (truncation <= 0) {
+            return tod;
+        }
+        final ShiftingTransformProvider todInterpolating =
+                (ShiftingTransformProvider) tod.getTransformProvider();
+        final TODProvider todRaw = (TODProvider) todInterpolating.getRawProvider();
+        final TransformProvider shifting =
+                new ShiftingTransformProvider(new TODProvider(conventions, todRaw.getEOPHistory(), truncation),
+                                              CartesianDerivativesFilter.USE_PVA,
+                                              AngularDerivativesFilter.USE_R,
+                                              6, Constants.JULIAN_DAY / 24,
+                                              OrekitConfiguration.getCacheSlotsNumber(),
+                                              Constants.JULIAN_YEAR, 30 * Constants.JULIAN_DAY);
+        return new Frame(tod.getParent(), shifting, tod.getName() + " truncated", true);
+    }
+
     /** Get the TOD reference frame.
      * <p>
      * The applyEOPCorr parameter is available mainly for testing purposes or for
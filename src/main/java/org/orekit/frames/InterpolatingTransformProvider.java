@@ -33,6 +33,8 @@ import org.orekit.time.FieldAbsoluteDate;
 import org.orekit.utils.AngularDerivativesFilter;
 import org.orekit.utils.CartesianDerivativesFilter;
 import org.orekit.utils.GenericTimeStampedCache;
+import org.orekit.utils.OrekitConfiguration;
+import org.orekit.utils.TimeStampedCache;
 
 /** Transform provider using thread-safe interpolation on transforms sample.
  * <p>
@@ -64,7 +66,16 @@ public class InterpolatingTransformProvider implements TransformProvider {
     private final double step;
 
     /** Cache for sample points. */
-    private final transient GenericTimeStampedCache<Transform> cache;
+    private final transient TimeStampedCache<Transform> cache;
+
+    /** Maximum number of independent cached time slots. */
+    private final int maxSlots;
+
+    /** Maximum duration span in seconds of one slot. */
+    private final double maxSpan;
+
+    /** Time interval above which a new slot is created. */
+    private final double newSlotInterval;
 
     /** Field caches for sample points. */
     // we use Object as the value of fieldCaches because despite numerous attempts,
@@ -91,15 +102,18 @@ public class InterpolatingTransformProvider implements TransformProvider {
                                           final AngularDerivativesFilter aFilter,
                                           final int gridPoints, final double step,
                                           final int maxSlots, final double maxSpan, final double newSlotInterval) {
-        this.rawProvider = rawProvider;
-        this.cFilter     = cFilter;
-        this.aFilter     = aFilter;
-        this.step        = step;
-        this.cache       = new GenericTimeStampedCache<Transform>(gridPoints, maxSlots, maxSpan, newSlotInterval,
-                                                                  new TransformGenerator(gridPoints,
-                                                                                         rawProvider,
-                                                                                         step));
-        this.fieldCaches = new HashMap<>();
+        this.rawProvider     = rawProvider;
+        this.cFilter         = cFilter;
+        this.aFilter         = aFilter;
+        this.step            = step;
+        this.maxSlots        = maxSlots;
+        this.maxSpan         = maxSpan;
+        this.newSlotInterval = newSlotInterval;
+        this.cache           = OrekitConfiguration.createTimeStampedCache(gridPoints, maxSlots, maxSpan, newSlotInterval,
+                                                                          new TransformGenerator(gridPoints,
+                                                                                                 rawProvider,
+                                                                                                 step));
+        this.fieldCaches     = new HashMap<>();
     }
 
     /** Simple constructor.
@@ -175,18 +189,16 @@ public class InterpolatingTransformProvider implements TransformProvider {
         try {
 
             @SuppressWarnings("unchecked")
-            GenericTimeStampedCache<FieldTransform<T>> fieldCache =
-                (GenericTimeStampedCache<FieldTransform<T>>) fieldCaches.get(date.getField());
+            TimeStampedCache<FieldTransform<T>> fieldCache =
+                (TimeStampedCache<FieldTransform<T>>) fieldCaches.get(date.getField());
             if (fieldCache == null) {
                 fieldCache =
-                    new GenericTimeStampedCache<FieldTransform<T>>(cache.getNeighborsSize(),
-                                                                   cache.getMaxSlots(),
-                                                                   cache.getMaxSpan(),
-                                                                   cache.getNewSlotQuantumGap(),
-                                                                   new FieldTransformGenerator<>(date.getField(),
-                                                                                                 cache.getNeighborsSize(),
-                                                                                                 rawProvider,
-                                                                                                 step));
+                    OrekitConfiguration.createTimeStampedCache(cache.getNeighborsSize(),
+                                                               maxSlots, maxSpan, newSlotInterval,
+                                                               new FieldTransformGenerator<>(date.getField(),
+                                                                                             cache.getNeighborsSize(),
+                                                                                             rawProvider,
+                                                                                             step));
                 fieldCaches.put(date.getField(), fieldCache);
             }
 
@@ -214,7 +226,7 @@ public class InterpolatingTransformProvider implements TransformProvider {
     private Object writeReplace() {
         return new DTO(rawProvider, cFilter.getMaxOrder(), aFilter.getMaxOrder(),
                        cache.getNeighborsSize(), step,
-                       cache.getMaxSlots(), cache.getMaxSpan(), cache.getNewSlotQuantumGap());
+                       maxSlots, maxSpan, newSlotInterval);
     }
 
     /** Internal class used only for serialization. */
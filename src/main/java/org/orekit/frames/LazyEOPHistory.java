@@ -0,0 +1,678 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.frames;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
+import org.orekit.errors.OrekitIllegalStateException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.TimeStampedCacheException;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.ChronologicalComparator;
+import org.orekit.time.TimeScale;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Earth Orientation Parameters history loaded on demand.
+ * <p>
+ * Instead of loading all the available EOP files at construction, this history
+ * loads only the entries in a time window around the first date at which it is
+ * interpolated, calling the {@link WindowedEOPHistoryLoader#fillHistory(IERSConventions.NutationCorrectionConverter,
+ * SortedSet, AbsoluteDate, AbsoluteDate) windowed} version of its loaders. When a
+ * date outside of this window is interpolated, the window is extended, at least
+ * doubling its duration on the side of the requested date so the number of
+ * reloads remains small when dates drift slowly. The window is always contiguous.
+ * </p>
+ * <p>
+ * Only the loaders implementing {@link WindowedEOPHistoryLoader} can select the
+ * files to parse according to the window. The other loaders (bulletins A and B,
+ * rapid data and prediction files) are called only once, at first use, and
+ * their entries are kept in memory, so window extensions never parse their
+ * files again. The time span covered by all loaders is determined at first
+ * use too, so checking whether data is available at some date never triggers
+ * a reload, even for dates far from the loaded window.
+ * </p>
+ * <p>
+ * This is interesting for short-lived applications that need EOP only for a
+ * few days, whereas the data files cover decades. The entries are stored in
+ * primitive arrays and {@link EOPEntry} instances are rebuilt only for the
+ * interpolation points.
+ * </p>
+ * <p>
+ * As data is loaded lazily, loading errors are reported when the history is
+ * first used, wrapped in {@link OrekitExceptionWrapper}, and the {@link
+ * #getStartDate() start} and {@link #getEndDate() end} dates correspond only
+ * to the entries loaded so far. Serializing this history serializes a regular
+ * {@link EOPHistory} containing these entries.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ * @see FramesFactory#setLazyEOPLoading(boolean)
+ * @since 9.3
+ */
+public class LazyEOPHistory extends EOPHistory {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 20181017L;
+
+    /** Default duration of the initial window (s). */
+    public static final double DEFAULT_INITIAL_SPAN = 30 * Constants.JULIAN_DAY;
+
+    /** Minimal margin between requested dates and window boundaries (s). */
+    private static final double MARGIN = 10 * Constants.JULIAN_DAY;
+
+    /** Number of points to use in interpolation. */
+    private static final int INTERPOLATION_POINTS = 4;
+
+    /** Number of double values stored for each entry. */
+    private static final int FIELDS = 8;
+
+    /** Tolerance below which dates are compared exactly (s). */
+    private static final double TOLERANCE = 1.0e-6;
+
+    /** Loaders to use. */
+    private final transient List<EOPHistoryLoader> loaders;
+
+    /** Converter for nutation corrections. */
+    private final transient IERSConventions.NutationCorrectionConverter converter;
+
+    /** Duration of the initial window (s). */
+    private final double initialSpan;
+
+    /** Maximal allowed gap between entries (s). */
+    private transient volatile double maxGap;
+
+    /** Data sources (null before first use). */
+    private transient volatile Sources sources;
+
+    /** Loaded window (null before first use). */
+    private transient volatile Window window;
+
+    /** Last interpolation points. */
+    private transient volatile Neighbors neighbors;
+
+    /** Simple constructor with {@link #DEFAULT_INITIAL_SPAN default initial window}.
+     * @param conventions IERS conventions to which EOP refers
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param loaders loaders to use, in priority order
+     * @exception OrekitException if tidal correction model cannot be loaded
+     */
+    public LazyEOPHistory(final IERSConventions conventions, final boolean simpleEOP,
+                          final Collection<? extends EOPHistoryLoader> loaders)
+        throws OrekitException {
+        this(conventions, simpleEOP, loaders, DEFAULT_INITIAL_SPAN);
+    }
+
+    /** Simple constructor.
+     * @param conventions IERS conventions to which EOP refers
+     * @param simpleEOP if true, tidal effects are ignored when interpolating EOP
+     * @param loaders loaders to use, in priority order
+     * @param initialSpan duration of the initial window (s)
+     * @exception OrekitException if tidal correction model cannot be loaded
+     */
+    public LazyEOPHistory(final IERSConventions conventions, final boolean simpleEOP,
+                          final Collection<? extends EOPHistoryLoader> loaders,
+                          final double initialSpan)
+        throws OrekitException {
+        super(conventions, Collections.<EOPEntry>emptyList(), simpleEOP);
+        this.loaders     = new ArrayList<>(loaders);
+        this.converter   = conventions.getNutationCorrectionConverter();
+        this.initialSpan = initialSpan;
+        this.maxGap      = Double.POSITIVE_INFINITY;
+        this.sources     = null;
+        this.window      = null;
+        this.neighbors   = null;
+    }
+
+    /** Get the start of the time window for which loaders have been called.
+     * @return start of the loaded window ({@link AbsoluteDate#PAST_INFINITY} if the
+     * window reaches the start of available data), or null if nothing has been loaded yet
+     */
+    public AbsoluteDate getLoadedWindowStart() {
+        final Window current = window;
+        return current == null ? null : current.start;
+    }
+
+    /** Get the end of the time window for which loaders have been called.
+     * @return end of the loaded window ({@link AbsoluteDate#FUTURE_INFINITY} if the
+     * window reaches the end of available data), or null if nothing has been loaded yet
+     */
+    public AbsoluteDate getLoadedWindowEnd() {
+        final Window current = window;
+        return current == null ? null : current.end;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * Only the entries loaded so far are considered.
+     * </p>
+     */
+    @Override
+    public AbsoluteDate getStartDate() {
+        final Window current = window;
+        if (current == null || current.mjd.length == 0) {
+            throw new OrekitIllegalStateException(OrekitMessages.NO_CACHED_ENTRIES);
+        }
+        return current.date(0);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * Only the entries loaded so far are considered.
+     * </p>
+     */
+    @Override
+    public AbsoluteDate getEndDate() {
+        final Window current = window;
+        if (current == null || current.mjd.length == 0) {
+            throw new OrekitIllegalStateException(OrekitMessages.NO_CACHED_ENTRIES);
+        }
+        return current.date(current.mjd.length - 1);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The threshold is checked against the entries already loaded and
+     * against all entries loaded afterwards.
+     * </p>
+     */
+    @Override
+    public void checkEOPContinuity(final double threshold) throws OrekitException {
+        this.maxGap = threshold;
+        final Window current = window;
+        if (current != null) {
+            current.checkContinuity(threshold);
+        }
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The check is performed against the time span covered by all loaders,
+     * which is determined at first use. The loaded window is <em>not</em>
+     * extended by this method.
+     * </p>
+     */
+    @Override
+    protected boolean hasDataFor(final AbsoluteDate date) {
+        final Sources current = getSources();
+        return current.first != null &&
+               current.first.compareTo(date) <= 0 &&
+               date.compareTo(current.last) <= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Stream<EOPEntry> getNeighbors(final AbsoluteDate central) throws TimeStampedCacheException {
+
+        final Window current = getWindow(central);
+        final int    n       = current.mjd.length;
+        if (n < INTERPOLATION_POINTS) {
+            throw new TimeStampedCacheException(OrekitMessages.NO_CACHED_ENTRIES);
+        }
+
+        // find central index
+        final int i = current.findIndex(central);
+        if (i < 0) {
+            throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE,
+                                                current.date(0));
+        } else if (i >= n) {
+            throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER,
+                                                current.date(n - 1));
+        }
+
+        // force unbalanced range if necessary
+        final int end   = FastMath.min(n, FastMath.max(0, i - (INTERPOLATION_POINTS - 1) / 2) + INTERPOLATION_POINTS);
+        final int start = end - INTERPOLATION_POINTS;
+
+        // consecutive calls often use the same interpolation points
+        final Neighbors last = neighbors;
+        if (last != null && last.window == current && last.start == start) {
+            return Arrays.stream(last.entries);
+        }
+
+        final EOPEntry[] entries = new EOPEntry[INTERPOLATION_POINTS];
+        for (int k = 0; k < entries.length; ++k) {
+            entries[k] = current.entry(start + k);
+        }
+        neighbors = new Neighbors(current, start, entries);
+        return Arrays.stream(entries);
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    List<EOPEntry> getEntries() {
+        final Window current = window;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        final List<EOPEntry> entries = new ArrayList<>(current.mjd.length);
+        for (int i = 0; i < current.mjd.length; ++i) {
+            entries.add(current.entry(i));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /** Get the data sources, calling the loaders at first use.
+     * @return data sources
+     */
+    private Sources getSources() {
+
+        final Sources current = sources;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (sources == null) {
+                try {
+                    sources = new Sources(loaders, converter);
+                } catch (OrekitException oe) {
+                    throw new OrekitExceptionWrapper(oe);
+                }
+            }
+            return sources;
+        }
+
+    }
+
+    /** Get a window covering a date, loading data if needed.
+     * @param date date to cover
+     * @return window covering the date
+     */
+    private Window getWindow(final AbsoluteDate date) {
+
+        final Window current = window;
+        if (current != null && current.covers(date)) {
+            return current;
+        }
+
+        final Sources available = getSources();
+        synchronized (this) {
+
+            // check again, another thread may have extended the window
+            if (window != null && window.covers(date)) {
+                return window;
+            }
+
+            try {
+                AbsoluteDate start;
+                AbsoluteDate end;
+                if (window == null) {
+                    start = date.shiftedBy(-0.5 * initialSpan - MARGIN);
+                    end   = date.shiftedBy(0.5 * initialSpan + MARGIN);
+                } else {
+                    // extend the window on the side of the date, at least doubling it
+                    // one side may already reach the limit of available data
+                    final double fullSpan = window.end.durationFrom(window.start);
+                    final double span     = Double.isInfinite(fullSpan) ? initialSpan : fullSpan;
+                    if (date.durationFrom(window.start) < MARGIN) {
+                        start = window.start.shiftedBy(-FastMath.max(span, window.start.durationFrom(date) + MARGIN));
+                        end   = window.end;
+                    } else {
+                        start = window.start;
+                        end   = window.end.shiftedBy(FastMath.max(span, date.durationFrom(window.end) + MARGIN));
+                    }
+                }
+
+                // there is no need to go beyond the available data
+                if (!available.windowed || available.first == null || start.compareTo(available.first) <= 0) {
+                    start = AbsoluteDate.PAST_INFINITY;
+                }
+                if (!available.windowed || available.last == null || end.compareTo(available.last) >= 0) {
+                    end = AbsoluteDate.FUTURE_INFINITY;
+                }
+
+                final Window loaded = load(available, start, end);
+                loaded.checkContinuity(maxGap);
+                window = loaded;
+                return loaded;
+            } catch (OrekitException oe) {
+                throw new OrekitExceptionWrapper(oe);
+            }
+
+        }
+
+    }
+
+    /** Load a window.
+     * @param available data sources
+     * @param start start of the window
+     * @param end end of the window
+     * @return loaded window
+     * @exception OrekitException if data cannot be loaded
+     */
+    private Window load(final Sources available, final AbsoluteDate start, final AbsoluteDate end)
+        throws OrekitException {
+
+        // TimeStamped based set needed to remove duplicates
+        // sources are considered in priority order, as the first entry added wins
+        OrekitException pendingException = null;
+        final SortedSet<EOPEntry> data = new TreeSet<EOPEntry>(new ChronologicalComparator());
+        for (final Source source : available.sources) {
+            if (source.first == null ||
+                source.first.compareTo(end) > 0 || source.last.compareTo(start) < 0) {
+                // this source has no data in the window
+                continue;
+            }
+            if (source.entries == null) {
+                // parse only the files covering the window
+                try {
+                    source.windowed.fillHistory(converter, data,
+                                                start.compareTo(source.first) < 0 ? source.first : start,
+                                                end.compareTo(source.last)    > 0 ? source.last  : end);
+                } catch (OrekitException oe) {
+                    pendingException = oe;
+                }
+            } else {
+                // reuse the entries loaded at first use
+                for (final EOPEntry entry : source.entries) {
+                    if (entry.getDate().compareTo(start) >= 0 && entry.getDate().compareTo(end) <= 0) {
+                        data.add(entry);
+                    }
+                }
+            }
+        }
+
+        if (data.isEmpty() && pendingException != null) {
+            throw pendingException;
+        }
+
+        return new Window(start, end, data);
+
+    }
+
+    /** Data sources, set up at first use. */
+    private static class Sources {
+
+        /** Sources, in priority order. */
+        private final List<Source> sources;
+
+        /** Indicator for at least one source loaded by window. */
+        private final boolean windowed;
+
+        /** Date of the first available entry (null if no data is available). */
+        private final AbsoluteDate first;
+
+        /** Date of the last available entry (null if no data is available). */
+        private final AbsoluteDate last;
+
+        /** Simple constructor.
+         * <p>
+         * Loaders that cannot select files by date are called here, once.
+         * </p>
+         * @param loaders loaders to use, in priority order
+         * @param converter converter for nutation corrections
+         * @exception OrekitException if no data can be loaded
+         */
+        Sources(final List<EOPHistoryLoader> loaders,
+                final IERSConventions.NutationCorrectionConverter converter)
+            throws OrekitException {
+
+            OrekitException pendingException = null;
+            this.sources = new ArrayList<>(loaders.size());
+            for (final EOPHistoryLoader loader : loaders) {
+                try {
+                    if (loader instanceof WindowedEOPHistoryLoader) {
+                        final WindowedEOPHistoryLoader windowedLoader = (WindowedEOPHistoryLoader) loader;
+                        final AbsoluteDate[] coverage = windowedLoader.getCoverage(converter);
+                        if (coverage != null) {
+                            sources.add(new Source(windowedLoader, null, coverage[0], coverage[1]));
+                            continue;
+                        }
+                    }
+                    // the loader cannot select files by date, we load everything once
+                    final SortedSet<EOPEntry> all = new TreeSet<>(new ChronologicalComparator());
+                    loader.fillHistory(converter, all);
+                    sources.add(new Source(null, new ArrayList<>(all),
+                                           all.isEmpty() ? null : all.first().getDate(),
+                                           all.isEmpty() ? null : all.last().getDate()));
+                } catch (OrekitException oe) {
+                    pendingException = oe;
+                }
+            }
+
+            boolean      hasWindowed = false;
+            AbsoluteDate min         = null;
+            AbsoluteDate max         = null;
+            for (final Source source : sources) {
+                hasWindowed = hasWindowed || source.entries == null;
+                if (source.first != null) {
+                    min = (min == null || source.first.compareTo(min) < 0) ? source.first : min;
+                    max = (max == null || source.last.compareTo(max)  > 0) ? source.last  : max;
+                }
+            }
+
+            if (min == null && pendingException != null) {
+                throw pendingException;
+            }
+
+            this.windowed = hasWindowed;
+            this.first    = min;
+            this.last     = max;
+
+        }
+
+    }
+
+    /** One data source. */
+    private static class Source {
+
+        /** Loader able to select files by date (null if entries are already loaded). */
+        private final WindowedEOPHistoryLoader windowed;
+
+        /** Entries loaded at first use (null for loaders able to select files by date). */
+        private final List<EOPEntry> entries;
+
+        /** Date of the first available entry (null if no data is available). */
+        private final AbsoluteDate first;
+
+        /** Date of the last available entry (null if no data is available). */
+        private final AbsoluteDate last;
+
+        /** Simple constructor.
+         * @param windowed loader able to select files by date (null if entries are already loaded)
+         * @param entries entries loaded at first use (null for loaders able to select files by date)
+         * @param first date of the first available entry (null if no data is available)
+         * @param last date of the last available entry (null if no data is available)
+         */
+        Source(final WindowedEOPHistoryLoader windowed, final List<EOPEntry> entries,
+               final AbsoluteDate first, final AbsoluteDate last) {
+            this.windowed = windowed;
+            this.entries  = entries;
+            this.first    = first;
+            this.last     = last;
+        }
+
+    }
+
+    /** Immutable set of entries loaded for a time window. */
+    private static class Window {
+
+        /** UTC time scale. */
+        private final TimeScale utc;
+
+        /** Start of the window. */
+        private final AbsoluteDate start;
+
+        /** End of the window. */
+        private final AbsoluteDate end;
+
+        /** Entries dates (modified julian day, 00h00 UTC scale). */
+        private final int[] mjd;
+
+        /** Entries dates, as offsets from {@link AbsoluteDate#J2000_EPOCH} (s). */
+        private final double[] offsets;
+
+        /** Entries values, {@link #FIELDS} per entry. */
+        private final double[] values;
+
+        /** Entries ITRF versions. */
+        private final ITRFVersion[] itrf;
+
+        /** Simple constructor.
+         * @param start start of the window
+         * @param end end of the window
+         * @param data entries, in chronological order
+         * @exception OrekitException if UTC time scale cannot be retrieved
+         */
+        Window(final AbsoluteDate start, final AbsoluteDate end, final Collection<EOPEntry> data)
+            throws OrekitException {
+            this.utc     = TimeScalesFactory.getUTC();
+            this.start   = start;
+            this.end     = end;
+            this.mjd     = new int[data.size()];
+            this.offsets = new double[data.size()];
+            this.values  = new double[FIELDS * data.size()];
+            this.itrf    = new ITRFVersion[data.size()];
+            int i = 0;
+            for (final EOPEntry entry : data) {
+                mjd[i]     = entry.getMjd();
+                offsets[i] = entry.getDate().durationFrom(AbsoluteDate.J2000_EPOCH);
+                final int k = FIELDS * i;
+                values[k]     = entry.getUT1MinusUTC();
+                values[k + 1] = entry.getLOD();
+                values[k + 2] = entry.getX();
+                values[k + 3] = entry.getY();
+                values[k + 4] = entry.getDdPsi();
+                values[k + 5] = entry.getDdEps();
+                values[k + 6] = entry.getDx();
+                values[k + 7] = entry.getDy();
+                itrf[i]       = entry.getITRFType();
+                ++i;
+            }
+        }
+
+        /** Check if a date is covered, with margins for interpolation.
+         * @param date date to check
+         * @return true if date is covered
+         */
+        boolean covers(final AbsoluteDate date) {
+            return date.durationFrom(start) >= MARGIN && end.durationFrom(date) >= MARGIN;
+        }
+
+        /** Get the exact date of an entry.
+         * @param i index of the entry
+         * @return date of the entry
+         */
+        AbsoluteDate date(final int i) {
+            return AbsoluteDate.createMJDDate(mjd[i], 0.0, utc);
+        }
+
+        /** Rebuild an entry.
+         * @param i index of the entry
+         * @return rebuilt entry
+         */
+        EOPEntry entry(final int i) {
+            try {
+                final int k = FIELDS * i;
+                return new EOPEntry(mjd[i],
+                                    values[k],     values[k + 1],
+                                    values[k + 2], values[k + 3],
+                                    values[k + 4], values[k + 5],
+                                    values[k + 6], values[k + 7],
+                                    itrf[i]);
+            } catch (OrekitException oe) {
+                // this should never happen as UTC was already available when data was loaded
+                throw new OrekitExceptionWrapper(oe);
+            }
+        }
+
+        /** Find the index of the entry at or just before a date.
+         * @param t the date
+         * @return index of the entry at or just before {@code t}, {@code -1} if
+         * {@code t} is before the first entry, or the number of entries if
+         * {@code t} is after the last entry
+         */
+        int findIndex(final AbsoluteDate t) {
+
+            final double offset = t.durationFrom(AbsoluteDate.J2000_EPOCH);
+            int i = Arrays.binarySearch(offsets, offset);
+            if (i < 0) {
+                i = -i - 2;
+            }
+
+            // offsets are approximate, use exact dates near entries
+            if (i + 1 < offsets.length && offsets[i + 1] - offset < TOLERANCE &&
+                date(i + 1).compareTo(t) <= 0) {
+                ++i;
+            } else if (i >= 0 && offset - offsets[i] < TOLERANCE && date(i).compareTo(t) > 0) {
+                --i;
+            }
+
+            if (i == offsets.length - 1 && date(i).compareTo(t) < 0) {
+                // beyond last entry
+                i = offsets.length;
+            }
+
+            return i;
+
+        }
+
+        /** Check entries continuity.
+         * @param maxGap maximal allowed gap between entries (in seconds)
+         * @exception OrekitException if there are holes in the data sequence
+         */
+        void checkContinuity(final double maxGap) throws OrekitException {
+            for (int i = 1; i < offsets.length; ++i) {
+                if (offsets[i] - offsets[i - 1] > maxGap) {
+                    throw new OrekitException(OrekitMessages.MISSING_EARTH_ORIENTATION_PARAMETERS_BETWEEN_DATES,
+                                              date(i - 1), date(i));
+                }
+            }
+        }
+
+    }
+
+    /** Interpolation points cached for reuse. */
+    private static class Neighbors {
+
+        /** Window from which entries were extracted. */
+        private final Window window;
+
+        /** Index of the first entry. */
+        private final int start;
+
+        /** Entries. */
+        private final EOPEntry[] entries;
+
+        /** Simple constructor.
+         * @param window window from which entries were extracted
+         * @param start index of the first entry
+         * @param entries entries
+         */
+        Neighbors(final Window window, final int start, final EOPEntry[] entries) {
+            this.window  = window;
+            this.start   = start;
+            this.entries = entries;
+        }
+
+    }
+
+}
@@ -31,6 +31,8 @@ import org.orekit.time.FieldAbsoluteDate;
 import org.orekit.utils.AngularDerivativesFilter;
 import org.orekit.utils.CartesianDerivativesFilter;
 import org.orekit.utils.GenericTimeStampedCache;
+import org.orekit.utils.OrekitConfiguration;
+import org.orekit.utils.TimeStampedCache;
 
 /** Transform provider using thread-safe shifts on transforms sample.
  * <p>
@@ -50,7 +52,16 @@ public class ShiftingTransformProvider implements TransformProvider {
     private final InterpolatingTransformProvider interpolatingProvider;
 
     /** Cache for sample points. */
-    private final transient GenericTimeStampedCache<Transform> cache;
+    private final transient TimeStampedCache<Transform> cache;
+
+    /** Maximum number of independent cached time slots. */
+    private final int maxSlots;
+
+    /** Maximum duration span in seconds of one slot. */
+    private final double maxSpan;
+
+    /** Time interval above which a new slot is created. */
+    private final double newSlotInterval;
 
     /** Field caches for sample points. */
     // we use Object as the value of fieldCaches because despite numerous attempts,
@@ -124,11 +135,14 @@ public class ShiftingTransformProvider implements TransformProvider {
     private ShiftingTransformProvider(final InterpolatingTransformProvider interpolatingProvider,
                                      final int maxSlots, final double maxSpan, final double newSlotInterval) {
         this.interpolatingProvider = interpolatingProvider;
-        this.cache = new GenericTimeStampedCache<Transform>(2, maxSlots, maxSpan, newSlotInterval,
-                                                            new TransformGenerator(2,
-                                                                                   interpolatingProvider,
-                                                                                   interpolatingProvider.getStep()));
-        this.fieldCaches = new HashMap<>();
+        this.maxSlots              = maxSlots;
+        this.maxSpan               = maxSpan;
+        this.newSlotInterval       = newSlotInterval;
+        this.cache                 = OrekitConfiguration.createTimeStampedCache(2, maxSlots, maxSpan, newSlotInterval,
+                                                                                new TransformGenerator(2,
+                                                                                                       interpolatingProvider,
+                                                                                                       interpolatingProvider.getStep()));
+        this.fieldCaches           = new HashMap<>();
     }
 
     /** Get the underlying provider for raw (non-interpolated) transforms.
@@ -175,18 +189,16 @@ public class ShiftingTransformProvider implements TransformProvider {
         try {
 
             @SuppressWarnings("unchecked")
-            GenericTimeStampedCache<FieldTransform<T>> fieldCache =
-                (GenericTimeStampedCache<FieldTransform<T>>) fieldCaches.get(date.getField());
+            TimeStampedCache<FieldTransform<T>> fieldCache =
+                (TimeStampedCache<FieldTransform<T>>) fieldCaches.get(date.getField());
             if (fieldCache == null) {
                 fieldCache =
-                    new GenericTimeStampedCache<FieldTransform<T>>(cache.getNeighborsSize(),
-                                                                   cache.getMaxSlots(),
-                                                                   cache.getMaxSpan(),
-                                                                   cache.getNewSlotQuantumGap(),
-                                                                   new FieldTransformGenerator<>(date.getField(),
-                                                                                                 cache.getNeighborsSize(),
-                                                                                                 interpolatingProvider,
-                                                                                                 interpolatingProvider.getStep()));
+                    OrekitConfiguration.createTimeStampedCache(cache.getNeighborsSize(),
+                                                               maxSlots, maxSpan, newSlotInterval,
+                                                               new FieldTransformGenerator<>(date.getField(),
+                                                                                             cache.getNeighborsSize(),
+                                                                                             interpolatingProvider,
+                                                                                             interpolatingProvider.getStep()));
                 fieldCaches.put(date.getField(), fieldCache);
             }
 
@@ -214,7 +226,7 @@ public class ShiftingTransformProvider implements TransformProvider {
      */
     private Object writeReplace() {
         return new DTO(interpolatingProvider,
-                       cache.getMaxSlots(), cache.getMaxSpan(), cache.getNewSlotQuantumGap());
+                       maxSlots, maxSpan, newSlotInterval);
     }
 
     /** Internal class used only for serialization. */
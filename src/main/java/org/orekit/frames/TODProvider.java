@@ -39,7 +39,7 @@ import org.orekit.utils.IERSConventions;
 class TODProvider implements EOPBasedTransformProvider {
 
     /** Serializable UID. */
-    private static final long serialVersionUID = 20131209L;
+    private static final long serialVersionUID = 20181017L;
 
     /** Conventions. */
     private final IERSConventions conventions;
@@ -47,6 +47,9 @@ class TODProvider implements EOPBasedTransformProvider {
     /** EOP history. */
     private final EOPHistory eopHistory;
 
+    /** Amplitude threshold below which nutation series terms are ignored (rad). */
+    private final double truncation;
+
     /** Function computing the mean obliquity. */
     private final transient TimeScalarFunction obliquityFunction;
 
@@ -60,10 +63,26 @@ class TODProvider implements EOPBasedTransformProvider {
      */
     TODProvider(final IERSConventions conventions, final EOPHistory eopHistory)
         throws OrekitException {
+        this(conventions, eopHistory, 0.0);
+    }
+
+    /** Constructor ignoring small terms in the nutation series.
+     * @param conventions IERS conventions to apply
+     * @param eopHistory EOP history
+     * @param truncation amplitude threshold below which nutation series terms
+     * are ignored (rad), 0 means all terms are used
+     * @exception OrekitException if IERS conventions tables cannot be read
+     * @see IERSConventions#getNutationFunction(double)
+     * @since 9.3
+     */
+    TODProvider(final IERSConventions conventions, final EOPHistory eopHistory,
+                final double truncation)
+        throws OrekitException {
         this.conventions       = conventions;
         this.eopHistory        = eopHistory;
+        this.truncation        = truncation;
         this.obliquityFunction = conventions.getMeanObliquityFunction();
-        this.nutationFunction  = conventions.getNutationFunction();
+        this.nutationFunction  = conventions.getNutationFunction(truncation);
     }
 
     /** {@inheritDoc} */
@@ -76,7 +95,7 @@ class TODProvider implements EOPBasedTransformProvider {
     @Override
     public TODProvider getNonInterpolatingProvider()
         throws OrekitException {
-        return new TODProvider(conventions, eopHistory.getNonInterpolatingEOPHistory());
+        return new TODProvider(conventions, eopHistory.getNonInterpolatingEOPHistory(), truncation);
     }
 
     /** {@inheritDoc} */
@@ -150,14 +169,14 @@ class TODProvider implements EOPBasedTransformProvider {
      * @return data transfer object that will be serialized
      */
     private Object writeReplace() {
-        return new DataTransferObject(conventions, eopHistory);
+        return new DataTransferObject(conventions, eopHistory, truncation);
     }
 
     /** Internal class used only for serialization. */
     private static class DataTransferObject implements Serializable {
 
         /** Serializable UID. */
-        private static final long serialVersionUID = 20131209L;
+        private static final long serialVersionUID = 20181017L;
 
         /** Conventions. */
         private final IERSConventions conventions;
@@ -165,13 +184,19 @@ class TODProvider implements EOPBasedTransformProvider {
         /** EOP history. */
         private final EOPHistory eopHistory;
 
+        /** Amplitude threshold below which nutation series terms are ignored (rad). */
+        private final double truncation;
+
         /** Simple constructor.
          * @param conventions IERS conventions to apply
          * @param eopHistory EOP history
+         * @param truncation amplitude threshold below which nutation series terms are ignored (rad)
          */
-        DataTransferObject(final IERSConventions conventions, final EOPHistory eopHistory) {
+        DataTransferObject(final IERSConventions conventions, final EOPHistory eopHistory,
+                           final double truncation) {
             this.conventions = conventions;
             this.eopHistory  = eopHistory;
+            this.truncation  = truncation;
         }
 
         /** Replace the deserialized data transfer object with a {@link TODProvider}.
@@ -180,7 +205,7 @@ class TODProvider implements EOPBasedTransformProvider {
         private Object readResolve() {
             try {
                 // retrieve a managed frame
-                return new TODProvider(conventions, eopHistory);
+                return new TODProvider(conventions, eopHistory, truncation);
             } catch (OrekitException oe) {
                 throw new OrekitInternalError(oe);
             }
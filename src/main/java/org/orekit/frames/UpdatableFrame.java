@@ -178,6 +178,9 @@ public class UpdatableFrame extends Frame {
         // update the existing provider from parent to self
         ((UpdatableProvider) getTransformProvider()).setTransform(parentToSelf);
 
+        // transforms involving the instance that were cached before the update are now stale
+        FrameTransformCache.invalidate();
+
     }
 
     /** Local provider for transforms. */
@@ -0,0 +1,65 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.frames;
+
+import java.util.SortedSet;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.IERSConventions;
+
+/** Interface for loading Earth Orientation Parameters history restricted to a time window.
+ * <p>
+ * This interface is implemented by loaders that can select the files to parse
+ * according to the dates they cover, without parsing the other files. {@link
+ * LazyEOPHistory} calls these loaders only for the time window it needs, and
+ * calls the other loaders only once, loading their whole data.
+ * </p>
+ * @see LazyEOPHistory
+ * @since 9.3
+ */
+public interface WindowedEOPHistoryLoader extends EOPHistoryLoader {
+
+    /** Get the time span covered by the available data.
+     * <p>
+     * This method should parse as few files as possible.
+     * </p>
+     * @param converter converter to use for nutation corrections
+     * @return array containing the dates of the first and last available entries,
+     * or null if the files cannot be selected by date (the loader is then used as
+     * a regular loader)
+     * @throws OrekitException if the data cannot be loaded
+     */
+    AbsoluteDate[] getCoverage(IERSConventions.NutationCorrectionConverter converter)
+        throws OrekitException;
+
+    /** Load Earth Orientation Parameters history, restricted to a time window.
+     * <p>
+     * Only the files covering the window are parsed.
+     * </p>
+     * @param converter converter to use for nutation corrections
+     * @param history history to fill up
+     * @param start start of the window (inclusive)
+     * @param end end of the window (inclusive)
+     * @throws OrekitException if the history cannot be loaded
+     */
+    void fillHistory(IERSConventions.NutationCorrectionConverter converter,
+                     SortedSet<EOPEntry> history,
+                     AbsoluteDate start, AbsoluteDate end)
+        throws OrekitException;
+
+}
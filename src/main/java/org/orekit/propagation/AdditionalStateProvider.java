@@ -17,6 +17,7 @@
 package org.orekit.propagation;
 
 import org.orekit.errors.OrekitException;
+import org.orekit.propagation.numerical.SpacecraftStateView;
 
 /** This interface represents providers for additional state data beyond {@link SpacecraftState}.
  * <p>
@@ -43,4 +44,22 @@ public interface AdditionalStateProvider {
      */
     double[] getAdditionalState(SpacecraftState state) throws OrekitException;
 
+    /** Get the additional state from a reusable state view.
+     * <p>
+     * This method is called by {@link org.orekit.propagation.numerical.NumericalPropagator
+     * numerical propagator} during derivatives computation when state view mode is active.
+     * The default implementation simply builds the complete state and delegates to
+     * {@link #getAdditionalState(SpacecraftState)}. Providers that depend only on date,
+     * position, velocity, mass or other additional states should override it to avoid
+     * building the complete state at each integrator stage.
+     * </p>
+     * @param view reusable view of the spacecraft state
+     * @return additional state corresponding to spacecraft state
+     * @exception OrekitException if additional state cannot be computed
+     * @since 9.3
+     */
+    default double[] getAdditionalState(SpacecraftStateView view) throws OrekitException {
+        return getAdditionalState(view.toSpacecraftState());
+    }
+
 }
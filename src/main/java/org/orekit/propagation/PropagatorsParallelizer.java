@@ -19,10 +19,13 @@ package org.orekit.propagation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -49,10 +52,13 @@ import org.orekit.time.TimeStamped;
  * variables, so separate instances for each propagator must be set up.
  * </p>
  * <p>
- * This class <em>will</em> create new threads for running the propagators
- * and it <em>will</em> override the underlying propagators step handlers.
+ * This class <em>will</em> run the propagators in separate threads and
+ * it <em>will</em> override the underlying propagators step handlers.
  * The intent is anyway to manage the steps all at once using the global
- * {@link MultiSatStepHandler handler} set up at construction.
+ * {@link MultiSatStepHandler handler} set up at construction. By default,
+ * a new thread pool is created for each call to {@link #propagate(AbsoluteDate,
+ * AbsoluteDate) propagate}, but a user-managed {@link #setExecutor(ExecutorService)
+ * executor} can be set up so threads are reused across calls.
  * </p>
  * <p>
  * All propagators remain independent of each other (they don't even know
@@ -85,6 +91,17 @@ import org.orekit.time.TimeStamped;
  * reach the end.
  * </p>
  * <p>
+ * Each propagator remains blocked at the end of its step until the global
+ * handler has consumed this step, as step interpolators are not independent
+ * snapshots: they share mutable data with their propagator (for example the
+ * analytical propagators recompute their internal state when interpolating,
+ * and the numerical propagators share their state mapper and additional states
+ * providers). So a propagator cannot run ahead of the global handler, and the
+ * slowest propagator gates all the other ones. {@link #getStatistics() Statistics}
+ * about computing and waiting times for each propagator are available after
+ * propagation, in order to identify the propagators that gate the other ones.
+ * </p>
+ * <p>
  * This class does <em>not</em> provide multi-satellite events. As events
  * may truncate steps and even reset state, all events (including multi-satellite
  * events) are handled at a very low level within each propagators and cannot be
@@ -111,6 +128,12 @@ public class PropagatorsParallelizer {
     /** Global step handler. */
     private final MultiSatStepHandler globalHandler;
 
+    /** User-managed executor (null if a new thread pool is created at each propagation). */
+    private ExecutorService executor;
+
+    /** Statistics for the last propagation. */
+    private List<PropagatorStatistics> statistics;
+
     /** Simple constructor.
      * @param propagators list of propagators to use
      * @param globalHandler global handler for managing all spacecrafts
@@ -118,8 +141,10 @@ public class PropagatorsParallelizer {
      */
     public PropagatorsParallelizer(final List<Propagator> propagators,
                                    final MultiSatStepHandler globalHandler) {
-        this.propagators = propagators;
+        this.propagators   = propagators;
         this.globalHandler = globalHandler;
+        this.executor      = null;
+        this.statistics    = Collections.emptyList();
     }
 
     /** Get an unmodifiable list of the underlying mono-satellite propagators.
@@ -129,6 +154,51 @@ public class PropagatorsParallelizer {
         return Collections.unmodifiableList(propagators);
     }
 
+    /** Set the executor running the propagators.
+     * <p>
+     * By default (i.e. if this method is not called or if it is called
+     * with a null argument), a new fixed thread pool with one thread per
+     * propagator is created at each call to {@link #propagate(AbsoluteDate,
+     * AbsoluteDate) propagate} and shut down afterwards. Setting a user-managed
+     * executor allows to reuse threads across calls. The executor is
+     * <em>not</em> shut down by the parallelizer, its lifecycle is managed by the caller.
+     * </p>
+     * <p>
+     * As propagators block while waiting for the global handler, the executor
+     * must be able to run all propagators concurrently. A {@link ForkJoinPool}
+     * (for example a {@link Executors#newWorkStealingPool() work-stealing pool}) is
+     * also suitable even with fewer threads than propagators, as the waits are
+     * reported to it as {@link ForkJoinPool.ManagedBlocker managed blocks} and
+     * it compensates by adding threads if needed.
+     * </p>
+     * @param executor executor to use (null to create a new thread pool at each propagation)
+     * @see #getExecutor()
+     * @since 9.3
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /** Get the executor running the propagators.
+     * @return executor running the propagators (null if a new thread pool
+     * is created at each propagation)
+     * @see #setExecutor(ExecutorService)
+     * @since 9.3
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /** Get the statistics of the last propagation.
+     * @return unmodifiable list of statistics for each propagator, in the
+     * same order as {@link #getPropagators()} (empty if no propagation
+     * has been performed yet)
+     * @since 9.3
+     */
+    public List<PropagatorStatistics> getStatistics() {
+        return statistics;
+    }
+
     /** Propagate from a start date towards a target date.
      * @param start start date from which orbit state should be propagated
      * @param target target date to which orbit state should be propagated
@@ -140,8 +210,13 @@ public class PropagatorsParallelizer {
 
         if (propagators.size() == 1) {
             // special handling when only one propagator is used
-            propagators.get(0).setMasterMode(new SinglePropagatorHandler(globalHandler));
-            return Collections.singletonList(propagators.get(0).propagate(start, target));
+            final SinglePropagatorHandler handler = new SinglePropagatorHandler(globalHandler);
+            propagators.get(0).setMasterMode(handler);
+            try {
+                return Collections.singletonList(propagators.get(0).propagate(start, target));
+            } finally {
+                statistics = Collections.singletonList(handler.getStatistics());
+            }
         }
 
         final double sign = FastMath.copySign(1.0, target.durationFrom(start));
@@ -150,113 +225,172 @@ public class PropagatorsParallelizer {
         // set up queues for propagators synchronization
         // the main thread will let underlying propagators go forward
         // by consuming the step handling parameters they will put at each step
-        final List<SynchronousQueue<SpacecraftState>>        initQueues = new ArrayList<>(n);
-        final List<SynchronousQueue<StepHandlingParameters>> shpQueues  = new ArrayList<>(n);
+        final List<BlockingQueue<SpacecraftState>>        initQueues = new ArrayList<>(n);
+        final List<BlockingQueue<StepHandlingParameters>> shpQueues  = new ArrayList<>(n);
+        final List<MultiplePropagatorsHandler>            handlers   = new ArrayList<>(n);
         for (final Propagator propagator : propagators) {
-            final SynchronousQueue<SpacecraftState>        initQueue = new SynchronousQueue<>();
+            final BlockingQueue<SpacecraftState>        initQueue = new SynchronousQueue<>();
             initQueues.add(initQueue);
-            final SynchronousQueue<StepHandlingParameters> shpQueue  = new SynchronousQueue<>();
+            final BlockingQueue<StepHandlingParameters> shpQueue  = new SynchronousQueue<>();
             shpQueues.add(shpQueue);
-            propagator.setMasterMode(new MultiplePropagatorsHandler(initQueue, shpQueue));
+            final MultiplePropagatorsHandler handler = new MultiplePropagatorsHandler(initQueue, shpQueue);
+            handlers.add(handler);
+            propagator.setMasterMode(handler);
         }
 
         // concurrently run all propagators
-        final ExecutorService               executorService        = Executors.newFixedThreadPool(n);
+        final ExecutorService               executorService        =
+                        (executor == null) ? Executors.newFixedThreadPool(n) : executor;
         final List<Future<SpacecraftState>> futures                = new ArrayList<>(n);
         final List<SpacecraftState>         initialStates          = new ArrayList<>(n);
         final List<StepHandlingParameters>  stepHandlingParameters = new ArrayList<>(n);
         final List<OrekitStepInterpolator>  restricted             = new ArrayList<>(n);
         final List<SpacecraftState>         finalStates            = new ArrayList<>(n);
-        for (int i = 0; i < n; ++i) {
-            final Propagator propagator = propagators.get(i);
-            final Future<SpacecraftState> future = executorService.submit(() -> propagator.propagate(start, target));
-            futures.add(future);
-            initialStates.add(getParameters(i, future, initQueues.get(i)));
-            stepHandlingParameters.add(getParameters(i, future, shpQueues.get(i)));
-            restricted.add(null);
-            finalStates.add(null);
-        }
-
-        // main loop
-        AbsoluteDate previousDate = start;
-        globalHandler.init(initialStates, target);
-        for (boolean isLast = false; !isLast;) {
+        final long[]                        awaited                = new long[n];
+        try {
 
-            // select the earliest ending propagator, according to propagation direction
-            int selected = -1;
-            AbsoluteDate selectedStepEnd = null;
             for (int i = 0; i < n; ++i) {
-                final AbsoluteDate stepEnd = stepHandlingParameters.get(i).getDate();
-                if (selected < 0 || sign * selectedStepEnd.durationFrom(stepEnd) > 0) {
-                    selected        = i;
-                    selectedStepEnd = stepEnd;
-                }
+                final Propagator propagator = propagators.get(i);
+                final Future<SpacecraftState> future = executorService.submit(() -> propagator.propagate(start, target));
+                futures.add(future);
             }
-
-            // restrict steps to a common time range
             for (int i = 0; i < n; ++i) {
-                final OrekitStepInterpolator interpolator  = stepHandlingParameters.get(i).interpolator;
-                final SpacecraftState        previousState = interpolator.getInterpolatedState(previousDate);
-                final SpacecraftState        currentState  = interpolator.getInterpolatedState(selectedStepEnd);
-                restricted.set(i, interpolator.restrictStep(previousState, currentState));
+                initialStates.add(getParameters(i, futures.get(i), initQueues.get(i), awaited));
+                stepHandlingParameters.add(getParameters(i, futures.get(i), shpQueues.get(i), awaited));
+                restricted.add(null);
+                finalStates.add(null);
             }
 
-            // will this be the last step?
-            isLast = stepHandlingParameters.get(selected).isLast;
+            // main loop
+            AbsoluteDate previousDate = start;
+            globalHandler.init(initialStates, target);
+            for (boolean isLast = false; !isLast;) {
+
+                // select the earliest ending propagator, according to propagation direction
+                int selected = -1;
+                AbsoluteDate selectedStepEnd = null;
+                for (int i = 0; i < n; ++i) {
+                    final AbsoluteDate stepEnd = stepHandlingParameters.get(i).getDate();
+                    if (selected < 0 || sign * selectedStepEnd.durationFrom(stepEnd) > 0) {
+                        selected        = i;
+                        selectedStepEnd = stepEnd;
+                    }
+                }
 
-            // handle all states at once
-            globalHandler.handleStep(restricted, isLast);
+                // restrict steps to a common time range
+                for (int i = 0; i < n; ++i) {
+                    final OrekitStepInterpolator interpolator  = stepHandlingParameters.get(i).interpolator;
+                    final SpacecraftState        previousState = interpolator.getInterpolatedState(previousDate);
+                    final SpacecraftState        currentState  = interpolator.getInterpolatedState(selectedStepEnd);
+                    restricted.set(i, interpolator.restrictStep(previousState, currentState));
+                }
+
+                // will this be the last step?
+                isLast = stepHandlingParameters.get(selected).isLast;
+
+                // handle all states at once
+                globalHandler.handleStep(restricted, isLast);
+
+                if (!isLast) {
+                    // advance one step, the propagator was blocked until
+                    // its interpolator was not needed anymore
+                    handlers.get(selected).release();
+                    stepHandlingParameters.set(selected,
+                                               getParameters(selected, futures.get(selected),
+                                                             shpQueues.get(selected), awaited));
+                }
+
+                previousDate = selectedStepEnd;
 
-            if (!isLast) {
-                // advance one step
-                stepHandlingParameters.set(selected,
-                                           getParameters(selected, futures.get(selected), shpQueues.get(selected)));
             }
 
-            previousDate = selectedStepEnd;
+            // stop all remaining propagators
+            stopAll(handlers, futures);
 
-        }
+            // extract the final states
+            for (int i = 0; i < n; ++i) {
+                try {
+                    finalStates.set(i, futures.get(i).get());
+                } catch (InterruptedException | ExecutionException e) {
 
-        // stop all remaining propagators
-        executorService.shutdownNow();
+                    // sort out if exception was intentional or not
+                    manageException(e);
 
-        // extract the final states
-        for (int i = 0; i < n; ++i) {
-            try {
-                finalStates.set(i, futures.get(i).get());
-            } catch (InterruptedException | ExecutionException e) {
+                    // this propagator was intentionally stopped,
+                    // we retrieve the final state from the last available interpolator
+                    finalStates.set(i, stepHandlingParameters.get(i).interpolator.getInterpolatedState(previousDate));
+
+                }
+            }
+
+            return finalStates;
 
-                // sort out if exception was intentional or not
-                manageException(e);
+        } finally {
 
-                // this propagator was intentionally stopped,
-                // we retrieve the final state from the last available interpolator
-                finalStates.set(i, stepHandlingParameters.get(i).interpolator.getInterpolatedState(previousDate));
+            // make sure no propagator remains blocked, even if propagation failed
+            stopAll(handlers, futures);
+            if (executor == null) {
+                executorService.shutdownNow();
+            }
 
+            final List<PropagatorStatistics> list = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                list.add(handlers.get(i).getStatistics(awaited[i]));
             }
+            statistics = Collections.unmodifiableList(list);
+
         }
 
-        return finalStates;
+    }
 
+    /** Stop all propagators that are still running.
+     * @param handlers handlers for all propagators
+     * @param futures propagation tasks
+     */
+    private void stopAll(final List<MultiplePropagatorsHandler> handlers,
+                         final List<Future<SpacecraftState>> futures) {
+        for (final MultiplePropagatorsHandler handler : handlers) {
+            handler.stop();
+        }
+        if (executor != null) {
+            // wait for tasks to complete, so the propagators can be safely reused
+            for (final Future<SpacecraftState> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException ee) {
+                    // the exception is either expected or handled elsewhere
+                }
+            }
+        }
     }
 
     /** Retrieve parameters.
      * @param index index of the propagator
      * @param future propagation task
      * @param queue queue for transferring parameters
+     * @param awaited array where to accumulate the time spent waiting for each propagator (ns)
      * @param <T> type of the parameters
      * @return retrieved parameters
      * @exception OrekitException if tasks stops before parameters are available
      */
     private <T> T getParameters(final int index,
                                 final Future<SpacecraftState> future,
-                                final SynchronousQueue<T> queue)
+                                final BlockingQueue<T> queue,
+                                final long[] awaited)
         throws OrekitException {
+        final long waitStart = System.nanoTime();
         try {
-            T params = null;
+            T params = queue.poll();
             while (params == null && !future.isDone()) {
                 params = queue.poll(MAX_WAIT, TimeUnit.MILLISECONDS);
             }
+            if (params == null) {
+                // the task may have put its last parameters just before completing
+                params = queue.poll();
+            }
             if (params == null) {
                 // call Future.get just for the side effect of retrieving the exception
                 // in case the propagator ended due to an exception
@@ -266,6 +400,8 @@ public class PropagatorsParallelizer {
         } catch (InterruptedException | ExecutionException e) {
             manageException(e);
             return null;
+        } finally {
+            awaited[index] += System.nanoTime() - waitStart;
         }
     }
 
@@ -301,6 +437,81 @@ public class PropagatorsParallelizer {
             super(ie, LocalizedCoreFormats.SIMPLE_MESSAGE, ie.getLocalizedMessage());
         }
 
+        /** Constructor for a stop requested by the parallelizer.
+         */
+        PropagatorStoppingException() {
+            super(LocalizedCoreFormats.SIMPLE_MESSAGE, "propagator stopped by parallelizer");
+        }
+
+    }
+
+    /** Statistics about one propagator run by the parallelizer.
+     * @since 9.3
+     */
+    public static class PropagatorStatistics {
+
+        /** Number of steps computed. */
+        private final int steps;
+
+        /** Time spent computing steps (s). */
+        private final double computingTime;
+
+        /** Time spent by the propagator waiting for the global handler (s). */
+        private final double blockedTime;
+
+        /** Time spent by the global handler waiting for the propagator (s). */
+        private final double awaitedTime;
+
+        /** Simple constructor.
+         * @param steps number of steps computed
+         * @param computingTime time spent computing steps (s)
+         * @param blockedTime time spent by the propagator waiting for the global handler (s)
+         * @param awaitedTime time spent by the global handler waiting for the propagator (s)
+         */
+        PropagatorStatistics(final int steps, final double computingTime,
+                             final double blockedTime, final double awaitedTime) {
+            this.steps         = steps;
+            this.computingTime = computingTime;
+            this.blockedTime   = blockedTime;
+            this.awaitedTime   = awaitedTime;
+        }
+
+        /** Get the number of steps computed by the propagator.
+         * @return number of steps computed by the propagator
+         */
+        public int getSteps() {
+            return steps;
+        }
+
+        /** Get the time spent by the propagator computing steps.
+         * @return time spent by the propagator computing steps (s)
+         */
+        public double getComputingTime() {
+            return computingTime;
+        }
+
+        /** Get the time spent by the propagator waiting for the global handler.
+         * <p>
+         * A large value indicates this propagator is faster than others
+         * and is gated by slower ones.
+         * </p>
+         * @return time spent by the propagator waiting for the global handler (s)
+         */
+        public double getBlockedTime() {
+            return blockedTime;
+        }
+
+        /** Get the time spent by the global handler waiting for the propagator.
+         * <p>
+         * A large value indicates this propagator is slower than others
+         * and gates them.
+         * </p>
+         * @return time spent by the global handler waiting for the propagator (s)
+         */
+        public double getAwaitedTime() {
+            return awaitedTime;
+        }
+
     }
 
     /** Local class for handling single propagator steps. */
@@ -309,6 +520,15 @@ public class PropagatorsParallelizer {
         /** Global handler. */
         private final MultiSatStepHandler globalHandler;
 
+        /** Number of steps computed. */
+        private int steps;
+
+        /** Time spent computing steps (ns). */
+        private long computing;
+
+        /** End of last handling (ns). */
+        private long lastExit;
+
         /** Simple constructor.
          * @param globalHandler global handler to call
          */
@@ -316,18 +536,30 @@ public class PropagatorsParallelizer {
             this.globalHandler = globalHandler;
         }
 
+        /** Get the statistics.
+         * @return statistics
+         */
+        PropagatorStatistics getStatistics() {
+            return new PropagatorStatistics(steps, 1.0e-9 * computing, 0.0, 0.0);
+        }
 
         /** {@inheritDoc} */
         @Override
         public void init(final SpacecraftState s0, final AbsoluteDate t) throws OrekitException {
             globalHandler.init(Collections.singletonList(s0), t);
+            steps     = 0;
+            computing = 0;
+            lastExit  = System.nanoTime();
         }
 
         /** {@inheritDoc} */
         @Override
         public void handleStep(final OrekitStepInterpolator interpolator, final boolean isLast)
             throws OrekitException {
+            ++steps;
+            computing += System.nanoTime() - lastExit;
             globalHandler.handleStep(Collections.singletonList(interpolator), isLast);
+            lastExit = System.nanoTime();
         }
 
     }
@@ -336,45 +568,212 @@ public class PropagatorsParallelizer {
     private static class MultiplePropagatorsHandler implements OrekitStepHandler {
 
         /** Queue for passing initial state. */
-        private final SynchronousQueue<SpacecraftState> initQueue;
+        private final BlockingQueue<SpacecraftState> initQueue;
 
         /** Queue for passing step handling parameters. */
-        private final SynchronousQueue<StepHandlingParameters> shpQueue;
+        private final BlockingQueue<StepHandlingParameters> shpQueue;
+
+        /** Semaphore for releasing the propagator once its step has been handled. */
+        private final Semaphore released;
+
+        /** Indicator for stop requested by the parallelizer. */
+        private volatile boolean stopped;
+
+        /** Number of steps computed. */
+        private volatile int steps;
+
+        /** Time spent computing steps (ns). */
+        private volatile long computing;
+
+        /** Time spent waiting for the global handler (ns). */
+        private volatile long blocked;
+
+        /** End of last handling (ns). */
+        private long lastExit;
 
         /** Simple constructor.
-         * @param initQueue queuefor passing initial state
+         * @param initQueue queue for passing initial state
          * @param shpQueue queue for passing step handling parameters.
          */
-        MultiplePropagatorsHandler(final SynchronousQueue<SpacecraftState> initQueue,
-                                   final SynchronousQueue<StepHandlingParameters> shpQueue) {
+        MultiplePropagatorsHandler(final BlockingQueue<SpacecraftState> initQueue,
+                                   final BlockingQueue<StepHandlingParameters> shpQueue) {
             this.initQueue = initQueue;
             this.shpQueue  = shpQueue;
+            this.released  = new Semaphore(0);
+            this.stopped   = false;
+        }
+
+        /** Request the propagator to stop at its next step.
+         */
+        void stop() {
+            stopped = true;
         }
 
+        /** Allow the propagator to compute its next step.
+         * <p>
+         * This method must be called only once the interpolator of the current
+         * step is not used anymore by the global handler.
+         * </p>
+         */
+        void release() {
+            released.release();
+        }
+
+        /** Get the statistics.
+         * @param awaited time spent by the global handler waiting for the propagator (ns)
+         * @return statistics
+         */
+        PropagatorStatistics getStatistics(final long awaited) {
+            return new PropagatorStatistics(steps, 1.0e-9 * computing, 1.0e-9 * blocked, 1.0e-9 * awaited);
+        }
 
         /** {@inheritDoc} */
         @Override
         public void init(final SpacecraftState s0, final AbsoluteDate t) throws OrekitException {
+            steps     = 0;
+            computing = 0;
+            blocked   = 0;
+            transfer(initQueue, s0);
+            lastExit  = System.nanoTime();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleStep(final OrekitStepInterpolator interpolator, final boolean isLast)
+                        throws OrekitException {
+            final long entry = System.nanoTime();
+            steps     = steps + 1;
+            computing = computing + entry - lastExit;
+            transfer(shpQueue, new StepHandlingParameters(interpolator, isLast));
+            // the interpolator shares mutable data with the propagator, we must
+            // neither compute the next step nor end propagation while it is being used
+            awaitRelease();
+            lastExit  = System.nanoTime();
+            blocked   = blocked + lastExit - entry;
+        }
+
+        /** Transfer an element to the global handler thread.
+         * @param queue queue to use
+         * @param element element to transfer
+         * @param <T> type of the element
+         * @exception PropagatorStoppingException if the parallelizer requested a stop
+         */
+        private <T> void transfer(final BlockingQueue<T> queue, final T element)
+            throws PropagatorStoppingException {
+            if (queue.offer(element)) {
+                // fast path, no need to block
+                return;
+            }
             try {
-                initQueue.put(s0);
+                // let work-stealing pools compensate while we are blocked
+                final TransferBlocker<T> blocker = new TransferBlocker<>(queue, element);
+                ForkJoinPool.managedBlock(blocker);
+                if (!blocker.isTransferred()) {
+                    throw new PropagatorStoppingException();
+                }
             } catch (InterruptedException ie) {
                 // use a dedicated exception to stop thread almost gracefully
                 throw new PropagatorStoppingException(ie);
             }
         }
 
-        /** {@inheritDoc} */
-        @Override
-        public void handleStep(final OrekitStepInterpolator interpolator, final boolean isLast)
-                        throws OrekitException {
+        /** Wait until the global handler releases the current step.
+         * @exception PropagatorStoppingException if the parallelizer requested a stop
+         */
+        private void awaitRelease() throws PropagatorStoppingException {
+            if (released.tryAcquire()) {
+                // fast path, no need to block
+                return;
+            }
             try {
-                shpQueue.put(new StepHandlingParameters(interpolator, isLast));
+                // let work-stealing pools compensate while we are blocked
+                final ReleaseBlocker blocker = new ReleaseBlocker();
+                ForkJoinPool.managedBlock(blocker);
+                if (!blocker.isAcquired()) {
+                    throw new PropagatorStoppingException();
+                }
             } catch (InterruptedException ie) {
                 // use a dedicated exception to stop thread almost gracefully
                 throw new PropagatorStoppingException(ie);
             }
         }
 
+        /** Blocker waiting for the global handler to release the current step. */
+        private class ReleaseBlocker implements ForkJoinPool.ManagedBlocker {
+
+            /** Indicator for acquired release. */
+            private boolean acquired;
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean block() throws InterruptedException {
+                while (!(acquired || stopped)) {
+                    acquired = released.tryAcquire(MAX_WAIT, TimeUnit.MILLISECONDS);
+                }
+                return true;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean isReleasable() {
+                return acquired || stopped;
+            }
+
+            /** Check if the release has been acquired.
+             * @return true if the release has been acquired
+             */
+            public boolean isAcquired() {
+                return acquired;
+            }
+
+        }
+
+        /** Blocker waiting for an element to be accepted by a queue. */
+        private class TransferBlocker<T> implements ForkJoinPool.ManagedBlocker {
+
+            /** Queue to use. */
+            private final BlockingQueue<T> queue;
+
+            /** Element to transfer. */
+            private final T element;
+
+            /** Indicator for transferred element. */
+            private boolean transferred;
+
+            /** Simple constructor.
+             * @param queue queue to use
+             * @param element element to transfer
+             */
+            TransferBlocker(final BlockingQueue<T> queue, final T element) {
+                this.queue       = queue;
+                this.element     = element;
+                this.transferred = false;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean block() throws InterruptedException {
+                while (!(transferred || stopped)) {
+                    transferred = queue.offer(element, MAX_WAIT, TimeUnit.MILLISECONDS);
+                }
+                return true;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean isReleasable() {
+                return transferred || stopped;
+            }
+
+            /** Check if the element has been transferred.
+             * @return true if the element has been transferred
+             */
+            public boolean isTransferred() {
+                return transferred;
+            }
+
+        }
+
     }
 
     /** Local class holding parameters for one step handling. */
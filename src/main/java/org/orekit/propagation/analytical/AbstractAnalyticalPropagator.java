@@ -22,7 +22,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 
@@ -195,13 +197,19 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
         SpacecraftState       previous = interpolator.getPreviousState();
         final SpacecraftState current  = interpolator.getCurrentState();
 
+        // all event detectors share the same sample states,
+        // so each state is interpolated only once per step
+        // (the shared samples are used only for event detection,
+        //  step handlers get regular interpolators as they may keep them)
+        final SharedSamplesInterpolator shared = new SharedSamplesInterpolator(interpolator);
+
         // initialize the events states if needed
         if (!statesInitialized) {
 
             if (!eventsStates.isEmpty()) {
                 // initialize the events states
                 for (final EventState<?> state : eventsStates) {
-                    state.reinitializeBegin(interpolator);
+                    state.reinitializeBegin(shared);
                 }
             }
 
@@ -220,13 +228,14 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
         });
 
         for (final EventState<?> state : eventsStates) {
-            if (state.evaluateStep(interpolator)) {
+            if (state.evaluateStep(shared)) {
                 // the event occurs during the current step
                 occurringEvents.add(state);
             }
         }
 
-        OrekitStepInterpolator restricted = interpolator;
+        OrekitStepInterpolator    restricted       = interpolator;
+        SharedSamplesInterpolator sharedRestricted = shared;
 
         do {
 
@@ -237,11 +246,11 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
                 final EventState<?> currentEvent = occurringEvents.poll();
 
                 // get state at event time
-                SpacecraftState eventState = restricted.getInterpolatedState(currentEvent.getEventDate());
+                SpacecraftState eventState = sharedRestricted.getInterpolatedState(currentEvent.getEventDate());
 
                 // try to advance all event states to current time
                 for (final EventState<?> state : eventsStates) {
-                    if (state != currentEvent && state.tryAdvance(eventState, interpolator)) {
+                    if (state != currentEvent && state.tryAdvance(eventState, shared)) {
                         // we need to handle another event first
                         // remove event we just updated to prevent heap corruption
                         occurringEvents.remove(state);
@@ -255,6 +264,8 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
                 // all event detectors agree we can advance to the current event time
 
                 final EventOccurrence occurrence = currentEvent.doEvent(eventState);
+                // the event handler may have changed the model, shared samples are now stale
+                shared.clear();
                 final Action action = occurrence.getAction();
                 isLastStep = action == Action.STOP;
 
@@ -262,7 +273,7 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
                     // ensure the event is after the root if it is returned STOP
                     // this lets the user integrate to a STOP event and then restart
                     // integration from the same time.
-                    eventState = interpolator.getInterpolatedState(occurrence.getStopDate());
+                    eventState = shared.getInterpolatedState(occurrence.getStopDate());
                     restricted = restricted.restrictStep(previous, eventState);
                 }
 
@@ -290,9 +301,10 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
                 // prepare handling of the remaining part of the step
                 previous = eventState;
                 restricted         = new BasicStepInterpolator(restricted.isForward(), eventState, current);
+                sharedRestricted   = shared.share(restricted);
 
                 // check if the same event occurs again in the remaining part of the step
-                if (currentEvent.evaluateStep(restricted)) {
+                if (currentEvent.evaluateStep(sharedRestricted)) {
                     // the event occurs during the current step
                     occurringEvents.add(currentEvent);
                 }
@@ -303,7 +315,7 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
             // may be a new event here if the last event modified the g function of
             // another event detector.
             for (final EventState<?> state : eventsStates) {
-                if (state.tryAdvance(current, interpolator)) {
+                if (state.tryAdvance(current, shared)) {
                     occurringEvents.add(state);
                 }
             }
@@ -529,6 +541,106 @@ public abstract class AbstractAnalyticalPropagator extends AbstractPropagator {
 
     }
 
+    /** Internal class sharing interpolated states between event detectors.
+     * <p>
+     * Detectors with the same max check interval sample the step at the same
+     * dates, so the corresponding states are interpolated only once per step
+     * instead of once per detector.
+     * </p>
+     */
+    private static class SharedSamplesInterpolator implements OrekitStepInterpolator {
+
+        /** Underlying interpolator. */
+        private final OrekitStepInterpolator raw;
+
+        /** States already interpolated during the step. */
+        private final Map<AbsoluteDate, SpacecraftState> samples;
+
+        /** Simple constructor.
+         * @param raw underlying interpolator
+         * @exception OrekitException if current state cannot be retrieved
+         */
+        SharedSamplesInterpolator(final OrekitStepInterpolator raw)
+            throws OrekitException {
+            this(raw, new HashMap<>());
+            samples.put(raw.getCurrentState().getDate(), raw.getCurrentState());
+        }
+
+        /** Constructor for restricted steps.
+         * @param raw underlying interpolator
+         * @param samples states already interpolated during the step
+         */
+        private SharedSamplesInterpolator(final OrekitStepInterpolator raw,
+                                          final Map<AbsoluteDate, SpacecraftState> samples) {
+            this.raw     = raw;
+            this.samples = samples;
+        }
+
+        /** Forget all interpolated states. */
+        public void clear() {
+            samples.clear();
+        }
+
+        /** Build an interpolator sharing the same samples.
+         * @param other underlying interpolator for the new instance
+         * @return new interpolator wrapping other and sharing the same samples
+         */
+        public SharedSamplesInterpolator share(final OrekitStepInterpolator other) {
+            return new SharedSamplesInterpolator(other, samples);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SpacecraftState getPreviousState() throws OrekitException {
+            return raw.getPreviousState();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isPreviousStateInterpolated() {
+            return raw.isPreviousStateInterpolated();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SpacecraftState getCurrentState() throws OrekitException {
+            return raw.getCurrentState();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isCurrentStateInterpolated() {
+            return raw.isCurrentStateInterpolated();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SpacecraftState getInterpolatedState(final AbsoluteDate date)
+            throws OrekitException {
+            SpacecraftState state = samples.get(date);
+            if (state == null) {
+                state = raw.getInterpolatedState(date);
+                samples.put(date, state);
+            }
+            return state;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isForward() {
+            return raw.isForward();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SharedSamplesInterpolator restrictStep(final SpacecraftState newPreviousState,
+                                                      final SpacecraftState newCurrentState)
+            throws OrekitException {
+            return new SharedSamplesInterpolator(raw.restrictStep(newPreviousState, newCurrentState), samples);
+        }
+
+    }
+
     /** Internal class for local propagation. */
     private class BasicStepInterpolator implements OrekitStepInterpolator {
 
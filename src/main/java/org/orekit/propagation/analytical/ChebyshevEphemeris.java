@@ -0,0 +1,506 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.hipparchus.exception.DummyLocalizable;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.TimeStampedCacheException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Predefined;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Ephemeris based on piecewise Chebyshev polynomials.
+ * <p>
+ * This ephemeris is a compressed representation of another {@link BoundedPropagator},
+ * typically an integrated ephemeris from a numerical propagator. Its time range is
+ * split in contiguous segments, and on each segment the Cartesian position components
+ * and the mass are represented by Chebyshev polynomials, the same way {@code
+ * PosVelChebyshev} represents solar system bodies in JPL ephemerides. Velocity and
+ * acceleration are the derivatives of the position polynomials.
+ * </p>
+ * <p>
+ * Instances are built by {@link ChebyshevEphemerisFitter}, which selects the segments
+ * so that user-specified position and velocity tolerances are met. Evaluation does not
+ * call the original propagator at all, it only involves a binary search among segments
+ * boundaries and the evaluation of the polynomials of one segment. The whole ephemeris
+ * is stored in two primitive arrays, which is typically 10 to 50 times smaller than the
+ * step interpolators of an integrated ephemeris covering the same time range.
+ * </p>
+ * <p>
+ * Instances can be saved in a compact binary form using {@link #write(OutputStream)}
+ * and loaded back using {@link #read(InputStream, String, Function)}. All values are
+ * stored in big-endian order: magic number (long), format version (int), frame name
+ * (modified UTF-8 string), gravitational coefficient (double), reference date as integer
+ * seconds (long) and fractional seconds (double) from J2000.0, number of coefficients
+ * per component (int), number of segments (int), segments boundaries as offsets from
+ * the reference date (one double per segment plus one) and coefficients (four components
+ * per segment, X, Y, Z and mass, one double per coefficient).
+ * </p>
+ * <p>
+ * Additional states are not represented, they can be managed by {@link
+ * org.orekit.propagation.AdditionalStateProvider additional states providers}. Attitude
+ * is computed by the {@link #getAttitudeProvider() attitude provider}.
+ * </p>
+ * @see ChebyshevEphemerisFitter
+ * @since 9.3
+ */
+public class ChebyshevEphemeris extends AbstractAnalyticalPropagator implements BoundedPropagator {
+
+    /** Magic number identifying the binary format ("OREKCHEB" in ASCII). */
+    private static final long MAGIC = 0x4F52454B43484542L;
+
+    /** Current binary format version. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Number of fitted components (X, Y, Z and mass). */
+    static final int COMPONENTS = 4;
+
+    /** Reference date. */
+    private final AbsoluteDate reference;
+
+    /** Segments boundaries, as offsets from reference date. */
+    private final double[] boundaries;
+
+    /** Number of coefficients per component. */
+    private final int nbCoefficients;
+
+    /** Coefficients, segment by segment, component by component. */
+    private final double[] coefficients;
+
+    /** First date of the range. */
+    private final AbsoluteDate minDate;
+
+    /** Last date of the range. */
+    private final AbsoluteDate maxDate;
+
+    /** Frame in which the positions are defined. */
+    private final Frame frame;
+
+    /** Central attraction coefficient. */
+    private final double mu;
+
+    /** Simple constructor.
+     * @param frame frame in which the positions are defined (must be pseudo-inertial)
+     * @param mu central attraction coefficient (m³/s²)
+     * @param reference reference date
+     * @param boundaries segments boundaries, as offsets from reference date
+     * (a reference to the array will be stored in the instance)
+     * @param nbCoefficients number of coefficients per component
+     * @param coefficients coefficients, segment by segment, component by component
+     * (a reference to the array will be stored in the instance)
+     */
+    ChebyshevEphemeris(final Frame frame, final double mu, final AbsoluteDate reference,
+                       final double[] boundaries, final int nbCoefficients, final double[] coefficients) {
+        super(DEFAULT_LAW);
+        this.frame          = frame;
+        this.mu             = mu;
+        this.reference      = reference;
+        this.boundaries     = boundaries;
+        this.nbCoefficients = nbCoefficients;
+        this.coefficients   = coefficients;
+        this.minDate        = reference.shiftedBy(boundaries[0]);
+        this.maxDate        = reference.shiftedBy(boundaries[boundaries.length - 1]);
+    }
+
+    /** {@inheritDoc} */
+    public AbsoluteDate getMinDate() {
+        return minDate;
+    }
+
+    /** {@inheritDoc} */
+    public AbsoluteDate getMaxDate() {
+        return maxDate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /** Get the number of segments.
+     * @return number of segments
+     */
+    public int getSegmentsNumber() {
+        return boundaries.length - 1;
+    }
+
+    /** Get the number of Chebyshev coefficients per component in each segment.
+     * @return number of Chebyshev coefficients per component (i.e. degree + 1)
+     */
+    public int getCoefficientsNumber() {
+        return nbCoefficients;
+    }
+
+    /** {@inheritDoc} */
+    protected Orbit propagateOrbit(final AbsoluteDate date) throws OrekitException {
+        return new CartesianOrbit(evaluate(date), frame, mu);
+    }
+
+    /** {@inheritDoc} */
+    protected double getMass(final AbsoluteDate date) throws OrekitException {
+        final double dt = date.durationFrom(reference);
+        final int    i  = findSegment(dt);
+        return value(coefficients, (i * COMPONENTS + COMPONENTS - 1) * nbCoefficients, nbCoefficients,
+                     normalize(dt, i));
+    }
+
+    /** {@inheritDoc} */
+    public TimeStampedPVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame f)
+        throws OrekitException {
+        final TimeStampedPVCoordinates pv = evaluate(date);
+        return (f == frame) ? pv : frame.getTransformTo(f, date).transformPVCoordinates(pv);
+    }
+
+    /** Try (and fail) to reset the initial state.
+     * <p>
+     * This method always throws an exception, as ephemerides cannot be reset.
+     * </p>
+     * @param state new initial state to consider
+     * @exception OrekitException always thrown as ephemerides cannot be reset
+     */
+    public void resetInitialState(final SpacecraftState state)
+        throws OrekitException {
+        throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    protected void resetIntermediateState(final SpacecraftState state, final boolean forward)
+        throws OrekitException {
+        throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    public SpacecraftState getInitialState() throws OrekitException {
+        return basicPropagate(getMinDate());
+    }
+
+    /** Evaluate position-velocity-acceleration in ephemeris frame.
+     * @param date evaluation date
+     * @return position-velocity-acceleration at specified date
+     * @exception TimeStampedCacheException if date is outside of the ephemeris range
+     */
+    private TimeStampedPVCoordinates evaluate(final AbsoluteDate date)
+        throws TimeStampedCacheException {
+
+        final double   dt  = date.durationFrom(reference);
+        final int      i   = findSegment(dt);
+        final double[] pva = new double[9];
+        evaluate(coefficients, i * COMPONENTS * nbCoefficients, nbCoefficients, normalize(dt, i), pva);
+
+        final double vScale = 2 / (boundaries[i + 1] - boundaries[i]);
+        final double aScale = vScale * vScale;
+        return new TimeStampedPVCoordinates(date,
+                                            new Vector3D(pva[0], pva[1], pva[2]),
+                                            new Vector3D(vScale * pva[3], vScale * pva[4], vScale * pva[5]),
+                                            new Vector3D(aScale * pva[6], aScale * pva[7], aScale * pva[8]));
+
+    }
+
+    /** Find the segment containing a date.
+     * @param dt offset of the date with respect to reference date
+     * @return index of the segment containing the date
+     * @exception TimeStampedCacheException if date is outside of the ephemeris range
+     */
+    private int findSegment(final double dt) throws TimeStampedCacheException {
+        if (dt < boundaries[0]) {
+            throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE, minDate);
+        } else if (dt > boundaries[boundaries.length - 1]) {
+            throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER, maxDate);
+        }
+        final int index = Arrays.binarySearch(boundaries, dt);
+        return FastMath.min(boundaries.length - 2, index < 0 ? -index - 2 : index);
+    }
+
+    /** Normalize a date offset in a segment.
+     * @param dt offset of the date with respect to reference date
+     * @param i index of the segment
+     * @return normalized date, between -1 and +1 within the segment
+     */
+    private double normalize(final double dt, final int i) {
+        return (2 * dt - boundaries[i] - boundaries[i + 1]) / (boundaries[i + 1] - boundaries[i]);
+    }
+
+    /** Evaluate one Chebyshev series.
+     * @param coefficients array containing the coefficients
+     * @param offset offset of the first coefficient in the array
+     * @param n number of coefficients
+     * @param t normalized date, between -1 and +1
+     * @return value of the series
+     */
+    static double value(final double[] coefficients, final int offset, final int n, final double t) {
+        final double twoT = 2 * t;
+        double pKm1 = 1;
+        double pK   = t;
+        double v    = coefficients[offset];
+        for (int k = 1; k < n; ++k) {
+            v += coefficients[offset + k] * pK;
+            final double pKm2 = pKm1;
+            pKm1 = pK;
+            pK   = twoT * pKm1 - pKm2;
+        }
+        return v;
+    }
+
+    /** Evaluate three consecutive Chebyshev series and their first two derivatives.
+     * <p>
+     * The derivatives are computed with respect to the normalized date, they must
+     * be scaled by the caller.
+     * </p>
+     * @param coefficients array containing the coefficients
+     * @param offset offset of the first coefficient of the first series in the array
+     * @param n number of coefficients per series
+     * @param t normalized date, between -1 and +1
+     * @param pva placeholder for the three values, the three first derivatives
+     * and the three second derivatives
+     */
+    static void evaluate(final double[] coefficients, final int offset, final int n,
+                         final double t, final double[] pva) {
+
+        final double twoT = 2 * t;
+
+        // initialize Chebyshev polynomials recursion
+        double pKm1 = 1;
+        double pK   = t;
+        double xP   = coefficients[offset];
+        double yP   = coefficients[offset + n];
+        double zP   = coefficients[offset + 2 * n];
+
+        // initialize Chebyshev polynomials derivatives recursion
+        double qKm1 = 0;
+        double qK   = 1;
+        double xV   = 0;
+        double yV   = 0;
+        double zV   = 0;
+
+        // initialize Chebyshev polynomials second derivatives recursion
+        double rKm1 = 0;
+        double rK   = 0;
+        double xA   = 0;
+        double yA   = 0;
+        double zA   = 0;
+
+        // combine polynomials by applying coefficients
+        for (int k = 1; k < n; ++k) {
+
+            final double cX = coefficients[offset + k];
+            final double cY = coefficients[offset + n + k];
+            final double cZ = coefficients[offset + 2 * n + k];
+
+            xP += cX * pK;
+            yP += cY * pK;
+            zP += cZ * pK;
+
+            xV += cX * qK;
+            yV += cY * qK;
+            zV += cZ * qK;
+
+            xA += cX * rK;
+            yA += cY * rK;
+            zA += cZ * rK;
+
+            // compute next Chebyshev polynomial value
+            final double pKm2 = pKm1;
+            pKm1 = pK;
+            pK   = twoT * pKm1 - pKm2;
+
+            // compute next Chebyshev polynomial derivative
+            final double qKm2 = qKm1;
+            qKm1 = qK;
+            qK   = twoT * qKm1 + 2 * pKm1 - qKm2;
+
+            // compute next Chebyshev polynomial second derivative
+            final double rKm2 = rKm1;
+            rKm1 = rK;
+            rK   = twoT * rKm1 + 4 * qKm1 - rKm2;
+
+        }
+
+        pva[0] = xP;
+        pva[1] = yP;
+        pva[2] = zP;
+        pva[3] = xV;
+        pva[4] = yV;
+        pva[5] = zV;
+        pva[6] = xA;
+        pva[7] = yA;
+        pva[8] = zA;
+
+    }
+
+    /** Write the ephemeris to a file in binary form.
+     * @param path path of the file to write
+     * @exception OrekitException if file cannot be written
+     * @see #read(Path)
+     */
+    public void write(final Path path) throws OrekitException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Write the ephemeris to a stream in binary form.
+     * <p>
+     * The stream is flushed but not closed.
+     * </p>
+     * @param out stream where to write the ephemeris
+     * @exception OrekitException if ephemeris cannot be written
+     * @see #read(InputStream, String, Function)
+     */
+    public void write(final OutputStream out) throws OrekitException {
+        try {
+            final long referenceSeconds = (long) FastMath.floor(reference.durationFrom(AbsoluteDate.J2000_EPOCH));
+            final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+            dos.writeLong(MAGIC);
+            dos.writeInt(FORMAT_VERSION);
+            dos.writeUTF(frame.getName());
+            dos.writeDouble(mu);
+            dos.writeLong(referenceSeconds);
+            dos.writeDouble(reference.durationFrom(AbsoluteDate.J2000_EPOCH.shiftedBy(referenceSeconds)));
+            dos.writeInt(nbCoefficients);
+            dos.writeInt(getSegmentsNumber());
+            for (final double boundary : boundaries) {
+                dos.writeDouble(boundary);
+            }
+            for (final double coefficient : coefficients) {
+                dos.writeDouble(coefficient);
+            }
+            dos.flush();
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Read an ephemeris from a file in binary form.
+     * <p>
+     * The frame is resolved against the {@link Predefined predefined frames}.
+     * </p>
+     * @param path path of the file to read
+     * @return ephemeris read
+     * @exception OrekitException if file cannot be read
+     * @see #write(Path)
+     */
+    public static ChebyshevEphemeris read(final Path path) throws OrekitException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in, path.toString(), ChebyshevEphemeris::getPredefinedFrame);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Read an ephemeris from a stream in binary form.
+     * <p>
+     * The stream is not closed.
+     * </p>
+     * @param in stream from which the ephemeris is read
+     * @param name name of the stream (for error messages)
+     * @param frameBuilder mapping from frame names to frames (may
+     * return null for unknown frames)
+     * @return ephemeris read
+     * @exception OrekitException if stream cannot be read
+     * @see #write(OutputStream)
+     */
+    public static ChebyshevEphemeris read(final InputStream in, final String name,
+                                          final Function<? super String, ? extends Frame> frameBuilder)
+        throws OrekitException {
+        try {
+
+            final DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+            if (dis.readLong() != MAGIC || dis.readInt() != FORMAT_VERSION) {
+                throw new OrekitException(OrekitMessages.UNSUPPORTED_FILE_FORMAT, name);
+            }
+
+            final String frameName        = dis.readUTF();
+            final double mu               = dis.readDouble();
+            final long   referenceSeconds = dis.readLong();
+            final double referenceOffset  = dis.readDouble();
+            final int    nbCoefficients   = dis.readInt();
+            final int    nbSegments       = dis.readInt();
+            if (nbCoefficients <= 0 || nbSegments <= 0) {
+                throw new OrekitException(OrekitMessages.CORRUPTED_FILE, name);
+            }
+
+            final Frame frame = frameBuilder.apply(frameName);
+            if (frame == null) {
+                throw new OrekitException(OrekitMessages.UNKNOWN_FRAME, frameName);
+            }
+            final AbsoluteDate reference =
+                    AbsoluteDate.J2000_EPOCH.shiftedBy(referenceSeconds).shiftedBy(referenceOffset);
+
+            final double[] boundaries = new double[nbSegments + 1];
+            for (int i = 0; i < boundaries.length; ++i) {
+                boundaries[i] = dis.readDouble();
+                if (i > 0 && !(boundaries[i] > boundaries[i - 1])) {
+                    throw new OrekitException(OrekitMessages.CORRUPTED_FILE, name);
+                }
+            }
+            final double[] coefficients = new double[nbSegments * COMPONENTS * nbCoefficients];
+            for (int i = 0; i < coefficients.length; ++i) {
+                coefficients[i] = dis.readDouble();
+            }
+
+            return new ChebyshevEphemeris(frame, mu, reference, boundaries, nbCoefficients, coefficients);
+
+        } catch (EOFException eofe) {
+            throw new OrekitException(eofe, OrekitMessages.UNEXPECTED_END_OF_FILE, name);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Get a predefined frame from its name.
+     * @param name name of the frame
+     * @return predefined frame with the specified name, or null if not found
+     */
+    private static Frame getPredefinedFrame(final String name) {
+        for (final Predefined predefined : Predefined.values()) {
+            if (predefined.getName().equals(name)) {
+                try {
+                    return FramesFactory.getFrame(predefined);
+                } catch (OrekitException oe) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,299 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+
+/** Fitter compressing any {@link BoundedPropagator} into a {@link ChebyshevEphemeris}.
+ * <p>
+ * The time range of the propagator is first split into equal segments no longer than
+ * a maximum duration. On each segment, the position components and the mass are
+ * interpolated by Chebyshev polynomials at the Chebyshev nodes. The fitted positions
+ * and velocities are then compared with the propagator at the Chebyshev extrema, which
+ * interleave the nodes and include the segment boundaries. If either the position or
+ * the velocity tolerance is exceeded, the segment is split in two halves which are
+ * fitted independently, and so on recursively.
+ * </p>
+ * <p>
+ * For each segment, the propagator is called {@code 2 * degree + 3} times, so the
+ * fitting cost is comparable to a few orbits of dense output, but it is paid only once.
+ * </p>
+ * @see ChebyshevEphemeris
+ * @since 9.3
+ */
+public class ChebyshevEphemerisFitter {
+
+    /** Default degree of the polynomials. */
+    public static final int DEFAULT_DEGREE = 12;
+
+    /** Default maximum segment duration (s). */
+    public static final double DEFAULT_MAX_SEGMENT_DURATION = 3600.0;
+
+    /** Default minimum segment duration (s). */
+    public static final double DEFAULT_MIN_SEGMENT_DURATION = 1.0;
+
+    /** Position tolerance (m). */
+    private final double positionTolerance;
+
+    /** Velocity tolerance (m/s). */
+    private final double velocityTolerance;
+
+    /** Number of coefficients per component. */
+    private final int n;
+
+    /** Maximum segment duration (s). */
+    private final double maxSegmentDuration;
+
+    /** Minimum segment duration (s). */
+    private final double minSegmentDuration;
+
+    /** Chebyshev nodes, where the polynomials are interpolated. */
+    private final double[] nodes;
+
+    /** Chebyshev polynomials values at nodes, scaled for coefficients computation. */
+    private final double[][] basis;
+
+    /** Chebyshev extrema, where the fit is checked. */
+    private final double[] checkPoints;
+
+    /** Simple constructor with default settings.
+     * <p>
+     * This constructor uses polynomials of degree {@link #DEFAULT_DEGREE}, segments
+     * no longer than {@link #DEFAULT_MAX_SEGMENT_DURATION} and no shorter than
+     * {@link #DEFAULT_MIN_SEGMENT_DURATION}.
+     * </p>
+     * @param positionTolerance position tolerance (m)
+     * @param velocityTolerance velocity tolerance (m/s)
+     */
+    public ChebyshevEphemerisFitter(final double positionTolerance, final double velocityTolerance) {
+        this(positionTolerance, velocityTolerance, DEFAULT_DEGREE,
+             DEFAULT_MAX_SEGMENT_DURATION, DEFAULT_MIN_SEGMENT_DURATION);
+    }
+
+    /** Simple constructor.
+     * @param positionTolerance position tolerance (m)
+     * @param velocityTolerance velocity tolerance (m/s)
+     * @param degree degree of the polynomials (must be at least 2)
+     * @param maxSegmentDuration maximum segment duration (s)
+     * @param minSegmentDuration minimum segment duration (s), below which
+     * segments are not split anymore
+     */
+    public ChebyshevEphemerisFitter(final double positionTolerance, final double velocityTolerance,
+                                    final int degree,
+                                    final double maxSegmentDuration, final double minSegmentDuration) {
+
+        if (degree < 2) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.NOT_ENOUGH_DATA_FOR_INTERPOLATION, degree + 1);
+        }
+
+        this.positionTolerance  = positionTolerance;
+        this.velocityTolerance  = velocityTolerance;
+        this.n                  = degree + 1;
+        this.maxSegmentDuration = maxSegmentDuration;
+        this.minSegmentDuration = minSegmentDuration;
+
+        // interpolation at Chebyshev nodes is a discrete cosine transform
+        this.nodes = new double[n];
+        this.basis = new double[n][n];
+        for (int j = 0; j < n; ++j) {
+            nodes[j] = FastMath.cos(FastMath.PI * (j + 0.5) / n);
+            for (int k = 0; k < n; ++k) {
+                basis[k][j] = ((k == 0) ? 1.0 : 2.0) * FastMath.cos(FastMath.PI * k * (j + 0.5) / n) / n;
+            }
+        }
+
+        this.checkPoints = new double[n + 1];
+        for (int j = 0; j <= n; ++j) {
+            checkPoints[j] = FastMath.cos(FastMath.PI * j / n);
+        }
+
+    }
+
+    /** Get the position tolerance.
+     * @return position tolerance (m)
+     */
+    public double getPositionTolerance() {
+        return positionTolerance;
+    }
+
+    /** Get the velocity tolerance.
+     * @return velocity tolerance (m/s)
+     */
+    public double getVelocityTolerance() {
+        return velocityTolerance;
+    }
+
+    /** Get the degree of the polynomials.
+     * @return degree of the polynomials
+     */
+    public int getDegree() {
+        return n - 1;
+    }
+
+    /** Get the maximum segment duration.
+     * @return maximum segment duration (s)
+     */
+    public double getMaxSegmentDuration() {
+        return maxSegmentDuration;
+    }
+
+    /** Get the minimum segment duration.
+     * @return minimum segment duration (s)
+     */
+    public double getMinSegmentDuration() {
+        return minSegmentDuration;
+    }
+
+    /** Fit an ephemeris to a propagator, in the propagator frame.
+     * @param propagator propagator to fit
+     * @return fitted ephemeris
+     * @exception OrekitException if propagator cannot be evaluated or if
+     * tolerances cannot be met with the minimum segment duration
+     * @see #fit(BoundedPropagator, Frame)
+     */
+    public ChebyshevEphemeris fit(final BoundedPropagator propagator) throws OrekitException {
+        return fit(propagator, propagator.getInitialState().getFrame());
+    }
+
+    /** Fit an ephemeris to a propagator.
+     * @param propagator propagator to fit
+     * @param frame frame in which the ephemeris should be defined (must be pseudo-inertial)
+     * @return fitted ephemeris
+     * @exception OrekitException if propagator cannot be evaluated or if
+     * tolerances cannot be met with the minimum segment duration
+     */
+    public ChebyshevEphemeris fit(final BoundedPropagator propagator, final Frame frame)
+        throws OrekitException {
+
+        if (!frame.isPseudoInertial()) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.NON_PSEUDO_INERTIAL_FRAME,
+                                                     frame.getName());
+        }
+
+        final AbsoluteDate reference = propagator.getMinDate();
+        final double       span      = propagator.getMaxDate().durationFrom(reference);
+        final int          initial   = FastMath.max(1, (int) FastMath.ceil(span / maxSegmentDuration));
+        final double       duration  = span / initial;
+
+        final List<Double>   boundaries = new ArrayList<>();
+        final List<double[]> segments   = new ArrayList<>();
+        boundaries.add(0.0);
+        for (int i = 0; i < initial; ++i) {
+            // use exact multiples to avoid accumulating round-off errors
+            final double start = (i * span) / initial;
+            final double end   = (i == initial - 1) ? span : ((i + 1) * span) / initial;
+            fitSegment(propagator, frame, reference, start, end, duration, boundaries, segments);
+        }
+
+        final double[] b = new double[boundaries.size()];
+        for (int i = 0; i < b.length; ++i) {
+            b[i] = boundaries.get(i);
+        }
+        final int      stride       = ChebyshevEphemeris.COMPONENTS * n;
+        final double[] coefficients = new double[segments.size() * stride];
+        for (int i = 0; i < segments.size(); ++i) {
+            System.arraycopy(segments.get(i), 0, coefficients, i * stride, stride);
+        }
+
+        return new ChebyshevEphemeris(frame, propagator.getInitialState().getMu(),
+                                      reference, b, n, coefficients);
+
+    }
+
+    /** Fit one segment, splitting it recursively if needed.
+     * @param propagator propagator to fit
+     * @param frame frame in which the ephemeris should be defined
+     * @param reference reference date
+     * @param start start of the segment, as an offset from reference date
+     * @param end end of the segment, as an offset from reference date
+     * @param duration nominal duration of the segment (used to check the minimum duration)
+     * @param boundaries list where to add the end boundary of accepted segments
+     * @param segments list where to add the coefficients of accepted segments
+     * @exception OrekitException if propagator cannot be evaluated or if
+     * tolerances cannot be met with the minimum segment duration
+     */
+    private void fitSegment(final BoundedPropagator propagator, final Frame frame,
+                            final AbsoluteDate reference, final double start, final double end,
+                            final double duration, final List<Double> boundaries,
+                            final List<double[]> segments)
+        throws OrekitException {
+
+        final double middle   = 0.5 * (start + end);
+        final double halfSpan = 0.5 * (end - start);
+
+        // sample the propagator at Chebyshev nodes
+        final double[][] samples = new double[ChebyshevEphemeris.COMPONENTS][n];
+        for (int j = 0; j < n; ++j) {
+            final SpacecraftState state = propagator.propagate(reference.shiftedBy(middle + halfSpan * nodes[j]));
+            final Vector3D        p     = state.getPVCoordinates(frame).getPosition();
+            samples[0][j] = p.getX();
+            samples[1][j] = p.getY();
+            samples[2][j] = p.getZ();
+            samples[3][j] = state.getMass();
+        }
+
+        // compute the coefficients
+        final double[] coefficients = new double[ChebyshevEphemeris.COMPONENTS * n];
+        for (int c = 0; c < ChebyshevEphemeris.COMPONENTS; ++c) {
+            for (int k = 0; k < n; ++k) {
+                double sum = 0;
+                for (int j = 0; j < n; ++j) {
+                    sum += basis[k][j] * samples[c][j];
+                }
+                coefficients[c * n + k] = sum;
+            }
+        }
+
+        // check the fit between the nodes
+        final double[] pva   = new double[9];
+        boolean        valid = true;
+        for (int j = 0; valid && j <= n; ++j) {
+            final AbsoluteDate  date      = reference.shiftedBy(middle + halfSpan * checkPoints[j]);
+            final PVCoordinates expected  = propagator.getPVCoordinates(date, frame);
+            ChebyshevEphemeris.evaluate(coefficients, 0, n, checkPoints[j], pva);
+            final Vector3D p = new Vector3D(pva[0], pva[1], pva[2]);
+            final Vector3D v = new Vector3D(pva[3] / halfSpan, pva[4] / halfSpan, pva[5] / halfSpan);
+            valid = Vector3D.distance(p, expected.getPosition()) <= positionTolerance &&
+                    Vector3D.distance(v, expected.getVelocity()) <= velocityTolerance;
+        }
+
+        if (valid) {
+            boundaries.add(end);
+            segments.add(coefficients);
+        } else if (0.5 * duration < minSegmentDuration) {
+            throw new OrekitException(OrekitMessages.UNABLE_TO_FIT_CHEBYSHEV_POLYNOMIALS,
+                                      reference.shiftedBy(start), 0.5 * duration, minSegmentDuration);
+        } else {
+            fitSegment(propagator, frame, reference, start, middle, 0.5 * duration, boundaries, segments);
+            fitSegment(propagator, frame, reference, middle, end, 0.5 * duration, boundaries, segments);
+        }
+
+    }
+
+}
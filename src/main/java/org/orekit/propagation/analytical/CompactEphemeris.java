@@ -0,0 +1,737 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.attitudes.Attitude;
+import org.orekit.attitudes.AttitudeProvider;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.ChronologicalComparator;
+import org.orekit.utils.PVCoordinatesProvider;
+import org.orekit.utils.TimeStampedAngularCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Memory-compact ephemeris storing tabulated states in primitive arrays.
+ * <p>
+ * This class is a drop-in replacement for {@link Ephemeris} when many and/or
+ * long ephemerides must be kept in memory. Instead of storing one {@link
+ * SpacecraftState} instance per sample (with its orbit, attitude and additional
+ * states map), it stores dates as integer seconds and fractional offsets with
+ * respect to the first date, and orbital parameters, attitude quaternions and
+ * rates, mass and additional states in primitive arrays. This reduces memory
+ * consumption from about 1 kB per sample down to about 200 bytes per sample
+ * (plus 8 bytes per additional state component).
+ * </p>
+ * <p>
+ * Neighbors are found by binary search in the dates arrays and interpolation is
+ * performed exactly as in {@link Ephemeris} (i.e. as in {@link
+ * SpacecraftState#interpolate(AbsoluteDate, java.util.stream.Stream)}). For
+ * {@link OrbitType#CARTESIAN Cartesian} orbits, the Hermite interpolation of
+ * position, velocity and acceleration is evaluated directly on the arrays.
+ * For other orbit types, lightweight orbits are rebuilt for the neighbors only
+ * and the orbit type specific interpolation is used. The results are therefore
+ * the same as with {@link Ephemeris}, up to round-off errors in dates arithmetic.
+ * </p>
+ * <p>
+ * All samples must share the same frame and central attraction coefficient,
+ * which are taken from the first sample. Orbital parameters are stored using
+ * the orbit type of the first sample.
+ * </p>
+ * <p>
+ * Instances can be built either from a list of states or incrementally, using a
+ * {@link Builder}, which avoids keeping the full list of states in memory.
+ * </p>
+ * @see Ephemeris
+ * @since 9.3
+ */
+public class CompactEphemeris extends AbstractAnalyticalPropagator implements BoundedPropagator {
+
+    /** Number of components stored for Cartesian orbits (position, velocity, acceleration). */
+    private static final int CARTESIAN_STRIDE = 9;
+
+    /** Number of components stored for non-Cartesian orbits (parameters and derivatives). */
+    private static final int PARAMETERS_STRIDE = 12;
+
+    /** Number of components stored for attitude (quaternion, rate, acceleration). */
+    private static final int ATTITUDE_STRIDE = 10;
+
+    /** Reference date for dates offsets. */
+    private final AbsoluteDate reference;
+
+    /** Integer seconds from reference date. */
+    private final long[] seconds;
+
+    /** Fractional offsets from integer seconds. */
+    private final double[] offsets;
+
+    /** Number of samples. */
+    private final int size;
+
+    /** First date in range. */
+    private final AbsoluteDate minDate;
+
+    /** Last date in range. */
+    private final AbsoluteDate maxDate;
+
+    /** Reference frame. */
+    private final Frame frame;
+
+    /** Reference frame of the attitudes. */
+    private final Frame attitudeFrame;
+
+    /** Central attraction coefficient. */
+    private final double mu;
+
+    /** Type of the stored orbits. */
+    private final OrbitType orbitType;
+
+    /** Number of orbit components per sample. */
+    private final int orbitStride;
+
+    /** Orbit components. */
+    private final double[] orbits;
+
+    /** Attitude components. */
+    private final double[] attitudes;
+
+    /** Masses. */
+    private final double[] masses;
+
+    /** Names of the additional states. */
+    private final String[] additional;
+
+    /** Dimensions of the additional states. */
+    private final int[] additionalDimensions;
+
+    /** Additional states components. */
+    private final double[][] additionalValues;
+
+    /** Number of points to use in interpolation. */
+    private final int interpolationPoints;
+
+    /** Interpolator for the stored samples. */
+    private final CompactStatesInterpolator interpolator;
+
+    /** The extrapolation threshold beyond which the propagation will fail. **/
+    private final double extrapolationThreshold;
+
+    /** Local PV Provider used for computing attitude. **/
+    private final LocalPVProvider pvProvider;
+
+    /** Constructor with tabulated states.
+     * <p>
+     * This constructor allows extrapolating outside of the states time span
+     * by up to the 1ms {@link Ephemeris#DEFAULT_EXTRAPOLATION_THRESHOLD_SEC default
+     * extrapolation threshold}.
+     * </p>
+     * @param states tabulates states
+     * @param interpolationPoints number of points to use in interpolation
+     * @exception OrekitException if some states have incompatible additional states,
+     * frames or dates
+     * @exception MathIllegalArgumentException if the number of states is smaller than
+     * the number of points to use in interpolation
+     * @see #CompactEphemeris(List, int, double)
+     */
+    public CompactEphemeris(final List<SpacecraftState> states, final int interpolationPoints)
+        throws OrekitException, MathIllegalArgumentException {
+        this(states, interpolationPoints, Ephemeris.DEFAULT_EXTRAPOLATION_THRESHOLD_SEC);
+    }
+
+    /** Constructor with tabulated states.
+     * @param states tabulates states
+     * @param interpolationPoints number of points to use in interpolation
+     * @param extrapolationThreshold the largest time difference in seconds between
+     * the start or stop boundary of the ephemeris bounds to be doing extrapolation
+     * @exception OrekitException if some states have incompatible additional states,
+     * frames or dates
+     * @exception MathIllegalArgumentException if the number of states is smaller than
+     * the number of points to use in interpolation
+     */
+    public CompactEphemeris(final List<SpacecraftState> states, final int interpolationPoints,
+                            final double extrapolationThreshold)
+        throws OrekitException, MathIllegalArgumentException {
+        this(sortedBuilder(states), interpolationPoints, extrapolationThreshold);
+    }
+
+    /** Constructor from a builder.
+     * @param builder builder containing the tabulated states
+     * @param interpolationPoints number of points to use in interpolation
+     * @param extrapolationThreshold the largest time difference in seconds between
+     * the start or stop boundary of the ephemeris bounds to be doing extrapolation
+     * @exception MathIllegalArgumentException if the number of states is smaller than
+     * the number of points to use in interpolation
+     */
+    private CompactEphemeris(final Builder builder, final int interpolationPoints,
+                             final double extrapolationThreshold)
+        throws MathIllegalArgumentException {
+
+        super(DEFAULT_LAW);
+
+        if (builder.size < FastMath.max(1, interpolationPoints)) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.INSUFFICIENT_DIMENSION,
+                                                   builder.size, interpolationPoints);
+        }
+
+        final SpacecraftState s0   = builder.first;
+        this.size                  = builder.size;
+        this.reference             = s0.getDate();
+        this.seconds               = Arrays.copyOf(builder.seconds, size);
+        this.offsets               = Arrays.copyOf(builder.offsets, size);
+        this.minDate               = s0.getDate();
+        this.maxDate               = builder.last;
+        this.frame                 = s0.getFrame();
+        this.attitudeFrame         = s0.getAttitude().getReferenceFrame();
+        this.mu                    = s0.getMu();
+        this.orbitType             = builder.orbitType;
+        this.orbitStride           = builder.orbitStride;
+        this.orbits                = Arrays.copyOf(builder.orbits, size * orbitStride);
+        this.attitudes             = Arrays.copyOf(builder.attitudes, size * ATTITUDE_STRIDE);
+        this.masses                = Arrays.copyOf(builder.masses, size);
+        this.additional            = builder.additional;
+        this.additionalDimensions  = builder.additionalDimensions;
+        this.additionalValues      = new double[additional.length][];
+        for (int j = 0; j < additional.length; ++j) {
+            additionalValues[j] = Arrays.copyOf(builder.additionalValues[j], size * additionalDimensions[j]);
+        }
+        this.interpolationPoints    = interpolationPoints;
+        this.interpolator           = new CompactStatesInterpolator(new ArraySamples(), interpolationPoints);
+        this.extrapolationThreshold = extrapolationThreshold;
+        this.pvProvider             = new LocalPVProvider();
+
+        // user needs to explicitly set attitude provider if they want to use one
+        setAttitudeProvider(null);
+
+    }
+
+    /** Create a builder populated with states sorted in chronological order.
+     * @param states tabulated states
+     * @return populated builder
+     * @exception OrekitException if some states have incompatible additional states,
+     * frames or dates
+     */
+    private static Builder sortedBuilder(final List<SpacecraftState> states)
+        throws OrekitException {
+        final List<SpacecraftState> sorted = new ArrayList<>(states);
+        sorted.sort(new ChronologicalComparator());
+        final Builder builder = new Builder();
+        for (final SpacecraftState state : sorted) {
+            builder.addState(state);
+        }
+        return builder;
+    }
+
+    /** Get the first date of the range.
+     * @return the first date of the range
+     */
+    public AbsoluteDate getMinDate() {
+        return minDate;
+    }
+
+    /** Get the last date of the range.
+     * @return the last date of the range
+     */
+    public AbsoluteDate getMaxDate() {
+        return maxDate;
+    }
+
+    /** Get the maximum timespan outside of the stored ephemeris that is allowed
+     * for extrapolation.
+     * @return the extrapolation threshold in seconds
+     */
+    public double getExtrapolationThreshold() {
+        return extrapolationThreshold;
+    }
+
+    /** Get the number of points to use in interpolation.
+     * @return number of points to use in interpolation
+     */
+    public int getInterpolationPoints() {
+        return interpolationPoints;
+    }
+
+    /** Get the number of tabulated states.
+     * @return number of tabulated states
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SpacecraftState basicPropagate(final AbsoluteDate date) throws OrekitException {
+
+        final AbsoluteDate central;
+        if (date.compareTo(minDate) < 0 && FastMath.abs(date.durationFrom(minDate)) <= extrapolationThreshold) {
+            // avoid TimeStampedCacheException as we are still within the tolerance before minDate
+            central = minDate;
+        } else if (date.compareTo(maxDate) > 0 && FastMath.abs(date.durationFrom(maxDate)) <= extrapolationThreshold) {
+            // avoid TimeStampedCacheException as we are still within the tolerance after maxDate
+            central = maxDate;
+        } else {
+            central = date;
+        }
+
+        // select neighbors, with the same policy as ImmutableTimeStampedCache
+        final int      start  = interpolator.findStart(central);
+        final double[] deltaT = interpolator.getTimeOffsets(date, start);
+
+        // perform interpolations
+        final Orbit    interpolatedOrbit    = interpolateOrbit(date, start, deltaT);
+        final Attitude interpolatedAttitude = new Attitude(attitudeFrame,
+                                                           interpolator.interpolateAttitude(date, start));
+        final double   interpolatedMass     = interpolator.interpolateMass(start, deltaT);
+        final Map<String, double[]> interpolatedAdditional =
+                interpolator.interpolateAdditionalStates(start, deltaT);
+        final SpacecraftState evaluatedState = new SpacecraftState(interpolatedOrbit, interpolatedAttitude,
+                                                                   interpolatedMass, interpolatedAdditional);
+
+        final AttitudeProvider attitudeProvider = getAttitudeProvider();
+        if (attitudeProvider == null) {
+            return evaluatedState;
+        } else {
+            pvProvider.setCurrentState(evaluatedState);
+            final Attitude calculatedAttitude = attitudeProvider.getAttitude(pvProvider, date,
+                                                                             evaluatedState.getFrame());
+            return new SpacecraftState(evaluatedState.getOrbit(), calculatedAttitude, evaluatedState.getMass());
+        }
+
+    }
+
+    /** Get the date of a sample.
+     * @param index index of the sample
+     * @return date of the sample
+     */
+    private AbsoluteDate getDate(final int index) {
+        return reference.shiftedBy(seconds[index]).shiftedBy(offsets[index]);
+    }
+
+    /** Interpolate orbit.
+     * @param date interpolation date
+     * @param start index of first neighbor
+     * @param deltaT time offsets of neighbors with respect to interpolation date
+     * @return interpolated orbit
+     * @exception OrekitException if orbit cannot be interpolated
+     */
+    private Orbit interpolateOrbit(final AbsoluteDate date, final int start, final double[] deltaT)
+        throws OrekitException {
+
+        if (orbitType == OrbitType.CARTESIAN) {
+            // direct interpolation on arrays, as in CartesianOrbit.interpolate
+            return new CartesianOrbit(interpolator.interpolatePVA(date, start, deltaT), frame, date, mu);
+        }
+
+        // rebuild the neighbors and use orbit type specific interpolation
+        final List<Orbit> sample = new ArrayList<>(interpolationPoints);
+        for (int k = 0; k < interpolationPoints; ++k) {
+            final int index = (start + k) * orbitStride;
+            final double[] parameters  = Arrays.copyOfRange(orbits, index, index + 6);
+            final double[] derivatives = Double.isNaN(orbits[index + 6]) ?
+                                         null : Arrays.copyOfRange(orbits, index + 6, index + 12);
+            sample.add(orbitType.mapArrayToOrbit(parameters, derivatives, PositionAngle.TRUE,
+                                                 getDate(start + k), mu, frame));
+        }
+        return sample.get(0).interpolate(date, sample);
+
+    }
+
+    /** {@inheritDoc} */
+    protected Orbit propagateOrbit(final AbsoluteDate date) throws OrekitException {
+        return basicPropagate(date).getOrbit();
+    }
+
+    /** {@inheritDoc} */
+    protected double getMass(final AbsoluteDate date) throws OrekitException {
+        return basicPropagate(date).getMass();
+    }
+
+    /** {@inheritDoc} */
+    public TimeStampedPVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame f)
+        throws OrekitException {
+        return propagate(date).getPVCoordinates(f);
+    }
+
+    /** Try (and fail) to reset the initial state.
+     * <p>
+     * This method always throws an exception, as ephemerides cannot be reset.
+     * </p>
+     * @param state new initial state to consider
+     * @exception OrekitException always thrown as ephemerides cannot be reset
+     */
+    public void resetInitialState(final SpacecraftState state)
+        throws OrekitException {
+        throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    protected void resetIntermediateState(final SpacecraftState state, final boolean forward)
+        throws OrekitException {
+        throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    public SpacecraftState getInitialState() throws OrekitException {
+        return basicPropagate(getMinDate());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAdditionalStateManaged(final String name) {
+
+        // the additional state may be managed by a specific provider in the base class
+        if (super.isAdditionalStateManaged(name)) {
+            return true;
+        }
+
+        // the additional state may be managed in the states sample
+        for (final String a : additional) {
+            if (a.equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String[] getManagedAdditionalStates() {
+        final String[] upperManaged = super.getManagedAdditionalStates();
+        final String[] managed = new String[upperManaged.length + additional.length];
+        System.arraycopy(upperManaged, 0, managed, 0, upperManaged.length);
+        System.arraycopy(additional, 0, managed, upperManaged.length, additional.length);
+        return managed;
+    }
+
+    /** Builder for incremental creation of {@link CompactEphemeris} instances.
+     * <p>
+     * States must be added in chronological order. Only the primitive data
+     * are kept from the added states, so the states themselves can be garbage
+     * collected as soon as they have been added.
+     * </p>
+     */
+    public static class Builder {
+
+        /** Initial capacity. */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /** First state. */
+        private SpacecraftState first;
+
+        /** Last date. */
+        private AbsoluteDate last;
+
+        /** Number of states added. */
+        private int size;
+
+        /** Integer seconds from first date. */
+        private long[] seconds;
+
+        /** Fractional offsets from integer seconds. */
+        private double[] offsets;
+
+        /** Type of the stored orbits. */
+        private OrbitType orbitType;
+
+        /** Number of orbit components per sample. */
+        private int orbitStride;
+
+        /** Orbit components. */
+        private double[] orbits;
+
+        /** Attitude components. */
+        private double[] attitudes;
+
+        /** Masses. */
+        private double[] masses;
+
+        /** Names of the additional states. */
+        private String[] additional;
+
+        /** Dimensions of the additional states. */
+        private int[] additionalDimensions;
+
+        /** Additional states components. */
+        private double[][] additionalValues;
+
+        /** Simple constructor.
+         */
+        public Builder() {
+            this.size = 0;
+        }
+
+        /** Add a state.
+         * @param state state to add (must be later than all previously added states)
+         * @exception OrekitException if state is not compatible with previous states
+         * (frame, additional states) or is not in chronological order
+         */
+        public void addState(final SpacecraftState state)
+            throws OrekitException {
+
+            if (first == null) {
+                setUp(state);
+            } else {
+                first.ensureCompatibleAdditionalStates(state);
+                if (state.getFrame() != first.getFrame()) {
+                    throw new OrekitException(OrekitMessages.FRAMES_MISMATCH,
+                                              state.getFrame().getName(), first.getFrame().getName());
+                }
+                if (state.getDate().compareTo(last) <= 0) {
+                    throw new OrekitException(OrekitMessages.NON_CHRONOLOGICALLY_SORTED_ENTRIES,
+                                              last, state.getDate());
+                }
+            }
+
+            ensureCapacity(size + 1);
+
+            // date
+            final AbsoluteDate reference = first.getDate();
+            seconds[size] = (long) FastMath.floor(state.getDate().durationFrom(reference));
+            offsets[size] = state.getDate().durationFrom(reference.shiftedBy(seconds[size]));
+
+            // orbit
+            final int orbitIndex = size * orbitStride;
+            if (orbitType == OrbitType.CARTESIAN) {
+                final TimeStampedPVCoordinates pv = state.getPVCoordinates();
+                System.arraycopy(pv.getPosition().toArray(),     0, orbits, orbitIndex,     3);
+                System.arraycopy(pv.getVelocity().toArray(),     0, orbits, orbitIndex + 3, 3);
+                System.arraycopy(pv.getAcceleration().toArray(), 0, orbits, orbitIndex + 6, 3);
+            } else {
+                final double[] parameters  = new double[6];
+                final double[] derivatives = new double[6];
+                // derivatives are set to NaN if the orbit does not have derivatives
+                orbitType.mapOrbitToArray(state.getOrbit(), PositionAngle.TRUE, parameters, derivatives);
+                System.arraycopy(parameters,  0, orbits, orbitIndex,     6);
+                System.arraycopy(derivatives, 0, orbits, orbitIndex + 6, 6);
+            }
+
+            // attitude, with respect to the reference frame of the first attitude
+            final int attitudeIndex = size * ATTITUDE_STRIDE;
+            final TimeStampedAngularCoordinates orientation =
+                    state.getAttitude().withReferenceFrame(first.getAttitude().getReferenceFrame()).getOrientation();
+            final Rotation rotation = orientation.getRotation();
+            attitudes[attitudeIndex]     = rotation.getQ0();
+            attitudes[attitudeIndex + 1] = rotation.getQ1();
+            attitudes[attitudeIndex + 2] = rotation.getQ2();
+            attitudes[attitudeIndex + 3] = rotation.getQ3();
+            System.arraycopy(orientation.getRotationRate().toArray(),         0, attitudes, attitudeIndex + 4, 3);
+            System.arraycopy(orientation.getRotationAcceleration().toArray(), 0, attitudes, attitudeIndex + 7, 3);
+
+            // mass
+            masses[size] = state.getMass();
+
+            // additional states
+            for (int j = 0; j < additional.length; ++j) {
+                System.arraycopy(state.getAdditionalState(additional[j]), 0,
+                                 additionalValues[j], size * additionalDimensions[j], additionalDimensions[j]);
+            }
+
+            last = state.getDate();
+            ++size;
+
+        }
+
+        /** Get the number of states added so far.
+         * @return number of states added so far
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /** Build the ephemeris.
+         * <p>
+         * The builder can still be used after this method has been called,
+         * further states being added only to ephemerides built later on.
+         * </p>
+         * @param interpolationPoints number of points to use in interpolation
+         * @param extrapolationThreshold the largest time difference in seconds between
+         * the start or stop boundary of the ephemeris bounds to be doing extrapolation
+         * @return a new ephemeris containing all states added so far
+         * @exception MathIllegalArgumentException if the number of states is smaller than
+         * the number of points to use in interpolation
+         */
+        public CompactEphemeris build(final int interpolationPoints, final double extrapolationThreshold)
+            throws MathIllegalArgumentException {
+            return new CompactEphemeris(this, interpolationPoints, extrapolationThreshold);
+        }
+
+        /** Set up the builder from the first state.
+         * @param state first state
+         */
+        private void setUp(final SpacecraftState state) {
+            first       = state;
+            orbitType   = state.getOrbit().getType();
+            orbitStride = (orbitType == OrbitType.CARTESIAN) ? CARTESIAN_STRIDE : PARAMETERS_STRIDE;
+            seconds     = new long[INITIAL_CAPACITY];
+            offsets     = new double[INITIAL_CAPACITY];
+            orbits      = new double[INITIAL_CAPACITY * orbitStride];
+            attitudes   = new double[INITIAL_CAPACITY * ATTITUDE_STRIDE];
+            masses      = new double[INITIAL_CAPACITY];
+            final Map<String, double[]> states = state.getAdditionalStates();
+            final Set<String> names = states.keySet();
+            additional           = names.toArray(new String[names.size()]);
+            additionalDimensions = new int[additional.length];
+            additionalValues     = new double[additional.length][];
+            for (int j = 0; j < additional.length; ++j) {
+                additionalDimensions[j] = states.get(additional[j]).length;
+                additionalValues[j]     = new double[INITIAL_CAPACITY * additionalDimensions[j]];
+            }
+        }
+
+        /** Ensure arrays can hold the specified number of states.
+         * @param capacity required capacity
+         */
+        private void ensureCapacity(final int capacity) {
+            if (capacity > seconds.length) {
+                final int newCapacity = FastMath.max(capacity, 2 * seconds.length);
+                seconds   = Arrays.copyOf(seconds,   newCapacity);
+                offsets   = Arrays.copyOf(offsets,   newCapacity);
+                orbits    = Arrays.copyOf(orbits,    newCapacity * orbitStride);
+                attitudes = Arrays.copyOf(attitudes, newCapacity * ATTITUDE_STRIDE);
+                masses    = Arrays.copyOf(masses,    newCapacity);
+                for (int j = 0; j < additional.length; ++j) {
+                    additionalValues[j] = Arrays.copyOf(additionalValues[j], newCapacity * additionalDimensions[j]);
+                }
+            }
+        }
+
+    }
+
+    /** Samples view on the primitive arrays. */
+    private class ArraySamples implements CompactStatesInterpolator.Samples {
+
+        /** {@inheritDoc} */
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getReference() {
+            return reference;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getDate(final int index) {
+            return CompactEphemeris.this.getDate(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double delta(final int index, final long dateSeconds, final double dateOffset) {
+            return (seconds[index] - dateSeconds) + (offsets[index] - dateOffset);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getPVAComponent(final int index, final int component) {
+            return orbits[index * orbitStride + component];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public TimeStampedAngularCoordinates getAttitude(final int index) {
+            final int i = index * ATTITUDE_STRIDE;
+            return new TimeStampedAngularCoordinates(getDate(index),
+                                                     new Rotation(attitudes[i],     attitudes[i + 1],
+                                                                  attitudes[i + 2], attitudes[i + 3],
+                                                                  false),
+                                                     new Vector3D(attitudes[i + 4], attitudes[i + 5],
+                                                                  attitudes[i + 6]),
+                                                     new Vector3D(attitudes[i + 7], attitudes[i + 8],
+                                                                  attitudes[i + 9]));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMass(final int index) {
+            return masses[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String[] getAdditionalStatesNames() {
+            return additional;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getAdditionalState(final int index, final int j) {
+            final int dimension = additionalDimensions[j];
+            return Arrays.copyOfRange(additionalValues[j], index * dimension, (index + 1) * dimension);
+        }
+
+    }
+
+    /** Internal PVCoordinatesProvider for attitude computation. */
+    private static class LocalPVProvider implements PVCoordinatesProvider {
+
+        /** Current state. */
+        private SpacecraftState currentState;
+
+        /** Set the current state.
+         * @param state state to set
+         */
+        public void setCurrentState(final SpacecraftState state) {
+            this.currentState = state;
+        }
+
+        /** {@inheritDoc} */
+        public TimeStampedPVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame f)
+            throws OrekitException {
+            final double dt = currentState.getDate().durationFrom(date);
+            final double closeEnoughTimeInSec = 1e-9;
+
+            if (FastMath.abs(dt) > closeEnoughTimeInSec) {
+                throw new OrekitException(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, FastMath.abs(dt), 0.0,
+                                          closeEnoughTimeInSec);
+            }
+
+            return currentState.getPVCoordinates(f);
+
+        }
+
+    }
+
+}
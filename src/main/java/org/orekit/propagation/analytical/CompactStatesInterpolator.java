@@ -0,0 +1,305 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hipparchus.analysis.interpolation.HermiteInterpolator;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.TimeStampedCacheException;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.AngularDerivativesFilter;
+import org.orekit.utils.TimeStampedAngularCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Interpolator for states samples stored in primitive form.
+ * <p>
+ * This class holds the interpolation logic shared by ephemerides that
+ * do not store {@link org.orekit.propagation.SpacecraftState} instances
+ * but primitive values, like {@link CompactEphemeris} (heap arrays) or
+ * binary ephemeris files (memory-mapped buffers). The storage is accessed
+ * through the {@link Samples} interface, and only the neighbors of the
+ * interpolation date are read.
+ * </p>
+ * <p>
+ * Neighbors are selected with the same policy as {@link
+ * org.orekit.utils.ImmutableTimeStampedCache}, and interpolation is
+ * performed as in {@link org.orekit.propagation.SpacecraftState#interpolate(
+ * AbsoluteDate, java.util.stream.Stream)} for Cartesian orbits.
+ * </p>
+ * @see CompactEphemeris
+ * @since 9.3
+ */
+public class CompactStatesInterpolator {
+
+    /** Samples storage. */
+    private final Samples samples;
+
+    /** Number of points to use in interpolation. */
+    private final int interpolationPoints;
+
+    /** Simple constructor.
+     * @param samples samples storage
+     * @param interpolationPoints number of points to use in interpolation
+     * (must not exceed {@code samples.getSize()})
+     */
+    public CompactStatesInterpolator(final Samples samples, final int interpolationPoints) {
+        this.samples             = samples;
+        this.interpolationPoints = interpolationPoints;
+    }
+
+    /** Get the number of points to use in interpolation.
+     * @return number of points to use in interpolation
+     */
+    public int getInterpolationPoints() {
+        return interpolationPoints;
+    }
+
+    /** Find the index of the latest sample before or at a date.
+     * @param date date to consider
+     * @return index of the latest sample before or at date, -1 if date is
+     * before first sample, {@code samples.getSize()} if date is after last sample
+     */
+    public int findIndex(final AbsoluteDate date) {
+
+        final int    size        = samples.getSize();
+        final long   dateSeconds = seconds(date);
+        final double dateOffset  = date.durationFrom(samples.getReference().shiftedBy(dateSeconds));
+
+        if (samples.delta(0, dateSeconds, dateOffset) > 0) {
+            // before first entry
+            return -1;
+        } else if (samples.delta(size - 1, dateSeconds, dateOffset) < 0) {
+            // beyond last entry
+            return size;
+        }
+
+        // binary search, with invariant delta(low) <= 0 and (high == size - 1 or delta(high) > 0)
+        int low  = 0;
+        int high = size - 1;
+        if (samples.delta(high, dateSeconds, dateOffset) <= 0) {
+            return high;
+        }
+        while (high - low > 1) {
+            final int middle = (low + high) >>> 1;
+            if (samples.delta(middle, dateSeconds, dateOffset) <= 0) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+
+    }
+
+    /** Find the index of the first neighbor used for interpolation.
+     * @param date central date for neighbors selection
+     * @return index of the first neighbor
+     * @exception TimeStampedCacheException if date is outside of the samples range
+     */
+    public int findStart(final AbsoluteDate date) throws TimeStampedCacheException {
+        final int size = samples.getSize();
+        final int i    = findIndex(date);
+        if (i < 0) {
+            throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE,
+                                                samples.getDate(0));
+        } else if (i >= size) {
+            throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER,
+                                                samples.getDate(size - 1));
+        }
+        return FastMath.min(size, FastMath.max(0, i - (interpolationPoints - 1) / 2) + interpolationPoints) -
+               interpolationPoints;
+    }
+
+    /** Compute the time offsets of the neighbors with respect to interpolation date.
+     * @param date interpolation date
+     * @param start index of first neighbor
+     * @return time offsets of neighbors with respect to interpolation date
+     */
+    public double[] getTimeOffsets(final AbsoluteDate date, final int start) {
+        final long     dateSeconds = seconds(date);
+        final double   dateOffset  = date.durationFrom(samples.getReference().shiftedBy(dateSeconds));
+        final double[] deltaT      = new double[interpolationPoints];
+        for (int k = 0; k < interpolationPoints; ++k) {
+            deltaT[k] = samples.delta(start + k, dateSeconds, dateOffset);
+        }
+        return deltaT;
+    }
+
+    /** Interpolate position-velocity-acceleration.
+     * @param date interpolation date
+     * @param start index of first neighbor
+     * @param deltaT time offsets of neighbors with respect to interpolation date
+     * @return interpolated position-velocity-acceleration
+     */
+    public TimeStampedPVCoordinates interpolatePVA(final AbsoluteDate date, final int start,
+                                                   final double[] deltaT) {
+        final HermiteInterpolator interpolator = new HermiteInterpolator();
+        for (int k = 0; k < interpolationPoints; ++k) {
+            final int index = start + k;
+            interpolator.addSamplePoint(deltaT[k],
+                                        new double[] {
+                                            samples.getPVAComponent(index, 0),
+                                            samples.getPVAComponent(index, 1),
+                                            samples.getPVAComponent(index, 2)
+                                        }, new double[] {
+                                            samples.getPVAComponent(index, 3),
+                                            samples.getPVAComponent(index, 4),
+                                            samples.getPVAComponent(index, 5)
+                                        }, new double[] {
+                                            samples.getPVAComponent(index, 6),
+                                            samples.getPVAComponent(index, 7),
+                                            samples.getPVAComponent(index, 8)
+                                        });
+        }
+        final double[][] p = interpolator.derivatives(0.0, 2);
+        return new TimeStampedPVCoordinates(date, new Vector3D(p[0]), new Vector3D(p[1]), new Vector3D(p[2]));
+    }
+
+    /** Interpolate attitude.
+     * @param date interpolation date
+     * @param start index of first neighbor
+     * @return interpolated angular coordinates
+     * @exception OrekitException if attitude is not available or cannot be interpolated
+     */
+    public TimeStampedAngularCoordinates interpolateAttitude(final AbsoluteDate date, final int start)
+        throws OrekitException {
+        final List<TimeStampedAngularCoordinates> sample = new ArrayList<>(interpolationPoints);
+        for (int k = 0; k < interpolationPoints; ++k) {
+            sample.add(samples.getAttitude(start + k));
+        }
+        return TimeStampedAngularCoordinates.interpolate(date, AngularDerivativesFilter.USE_RR, sample);
+    }
+
+    /** Interpolate mass.
+     * @param start index of first neighbor
+     * @param deltaT time offsets of neighbors with respect to interpolation date
+     * @return interpolated mass
+     */
+    public double interpolateMass(final int start, final double[] deltaT) {
+        final HermiteInterpolator interpolator = new HermiteInterpolator();
+        for (int k = 0; k < interpolationPoints; ++k) {
+            interpolator.addSamplePoint(deltaT[k], new double[] {
+                samples.getMass(start + k)
+            });
+        }
+        return interpolator.value(0)[0];
+    }
+
+    /** Interpolate additional states.
+     * @param start index of first neighbor
+     * @param deltaT time offsets of neighbors with respect to interpolation date
+     * @return interpolated additional states (null if there are no additional states)
+     */
+    public Map<String, double[]> interpolateAdditionalStates(final int start, final double[] deltaT) {
+        final String[] names = samples.getAdditionalStatesNames();
+        if (names.length == 0) {
+            return null;
+        }
+        final Map<String, double[]> interpolated = new HashMap<>(names.length);
+        for (int j = 0; j < names.length; ++j) {
+            final HermiteInterpolator interpolator = new HermiteInterpolator();
+            for (int k = 0; k < interpolationPoints; ++k) {
+                interpolator.addSamplePoint(deltaT[k], samples.getAdditionalState(start + k, j));
+            }
+            interpolated.put(names[j], interpolator.value(0));
+        }
+        return interpolated;
+    }
+
+    /** Compute the integer seconds part of a date offset with respect to reference.
+     * @param date date to consider
+     * @return integer seconds from reference date
+     */
+    private long seconds(final AbsoluteDate date) {
+        return (long) FastMath.floor(date.durationFrom(samples.getReference()));
+    }
+
+    /** Interface for samples storage.
+     * <p>
+     * Dates of the samples are stored as integer seconds and fractional
+     * offsets with respect to a reference date, in chronological order.
+     * </p>
+     */
+    public interface Samples {
+
+        /** Get the number of samples.
+         * @return number of samples
+         */
+        int getSize();
+
+        /** Get the reference date for dates offsets.
+         * @return reference date
+         */
+        AbsoluteDate getReference();
+
+        /** Get the date of a sample.
+         * @param index index of the sample
+         * @return date of the sample
+         */
+        AbsoluteDate getDate(int index);
+
+        /** Compute time offset between a sample and a date.
+         * @param index index of the sample
+         * @param dateSeconds integer seconds of the date from reference date
+         * @param dateOffset fractional offset of the date
+         * @return sample date minus date (s)
+         */
+        double delta(int index, long dateSeconds, double dateOffset);
+
+        /** Get one Cartesian position-velocity-acceleration component.
+         * @param index index of the sample
+         * @param component index of the component (0 to 2 for position,
+         * 3 to 5 for velocity, 6 to 8 for acceleration)
+         * @return component value
+         */
+        double getPVAComponent(int index, int component);
+
+        /** Get the attitude of a sample.
+         * @param index index of the sample
+         * @return angular coordinates of the sample
+         * @exception OrekitException if attitude is not available
+         */
+        TimeStampedAngularCoordinates getAttitude(int index) throws OrekitException;
+
+        /** Get the mass of a sample.
+         * @param index index of the sample
+         * @return mass of the sample
+         */
+        double getMass(int index);
+
+        /** Get the names of the additional states.
+         * @return names of the additional states (empty if there are none)
+         */
+        String[] getAdditionalStatesNames();
+
+        /** Get an additional state of a sample.
+         * @param index index of the sample
+         * @param j index of the additional state in {@link #getAdditionalStatesNames()}
+         * @return additional state of the sample
+         */
+        double[] getAdditionalState(int index, int j);
+
+    }
+
+}
@@ -34,25 +34,31 @@ import org.orekit.errors.OrekitException;
  */
 public class SGP4 extends TLEPropagator {
 
+    // CHECKSTYLE: stop VisibilityModifier check
+    // the following fields are package private because
+    // they are also used by TLEBatchPropagator
+
     /** If perige is less than 220 km, some calculus are avoided. */
-    private boolean lessThan220;
+    boolean lessThan220;
 
     /** (1 + eta * cos(M0))³. */
-    private double delM0;
+    double delM0;
 
     // CHECKSTYLE: stop JavadocVariable check
-    private double d2;
-    private double d3;
-    private double d4;
-    private double t3cof;
-    private double t4cof;
-    private double t5cof;
-    private double sinM0;
-    private double omgcof;
-    private double xmcof;
-    private double c5;
+    double d2;
+    double d3;
+    double d4;
+    double t3cof;
+    double t4cof;
+    double t5cof;
+    double sinM0;
+    double omgcof;
+    double xmcof;
+    double c5;
     // CHECKSTYLE: resume JavadocVariable check
 
+    // CHECKSTYLE: resume VisibilityModifier check
+
     /** Constructor for a unique initial TLE.
      * @param initialTLE the TLE to propagate.
      * @param attitudeProvider provider for attitude computation
@@ -0,0 +1,485 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical.tle;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+
+/** Propagator for large sets of TLE.
+ * <p>
+ * This class is intended for catalog-wide computation, where the positions
+ * and velocities of thousands of objects are needed at many dates. The near
+ * Earth (SGP4) element sets are packed into primitive arrays (one array per
+ * model coefficient) and propagated by a loop that does not allocate any object.
+ * The results are written in caller-supplied arrays, in {@link
+ * FramesFactory#getTEME() TEME frame}. Deep space (SDP4) element sets rely
+ * on regular {@link TLEPropagator} instances, as the resonance integration
+ * they perform depends on their internal state, but their results are also
+ * written directly in the caller-supplied arrays.
+ * </p>
+ * <p>
+ * The results are exactly the same as the ones that would be obtained by calling
+ * {@link TLEPropagator#getPVCoordinates(AbsoluteDate)} on the propagator returned
+ * by {@link TLEPropagator#selectExtrapolator(TLE)} for each element set.
+ * </p>
+ * <p>
+ * Instances of this class are <em>not</em> thread-safe, they should not be used
+ * by several threads at the same time. Parallel computation is available by
+ * using {@link #propagate(AbsoluteDate[], double[][], double[][], ForkJoinPool)},
+ * which splits the element sets among the pool workers.
+ * </p>
+ * @see TLEPropagator
+ * @since 9.3
+ */
+public class TLEBatchPropagator {
+
+    /** Minimum number of element sets handled by one parallel task. */
+    private static final int MIN_TASK_SIZE = 32;
+
+    /** Underlying element sets. */
+    private final TLE[] tles;
+
+    /** Epochs of the element sets. */
+    private final AbsoluteDate[] epochs;
+
+    /** Propagators for deep space element sets (null for near Earth element sets). */
+    private final TLEPropagator[] deepSpace;
+
+    /** TEME frame. */
+    private final Frame teme;
+
+    /** Initial mean anomaly. */
+    private final double[] meanAnomaly;
+
+    /** Initial perigee argument. */
+    private final double[] perigeeArgument;
+
+    /** Initial right ascension of ascending node. */
+    private final double[] raan;
+
+    /** Initial eccentricity. */
+    private final double[] eccentricity;
+
+    /** Inclination. */
+    private final double[] inclination;
+
+    /** Ballistic coefficient. */
+    private final double[] bStar;
+
+    /** Common parameter for mean anomaly (M) computation. */
+    private final double[] xmdot;
+
+    /** Common parameter for perigee argument (omega) computation. */
+    private final double[] omgdot;
+
+    /** Common parameter for raan (OMEGA) computation. */
+    private final double[] xnodot;
+
+    /** Common parameter for raan (OMEGA) computation. */
+    private final double[] xnodcf;
+
+    /** C1 from SPTRCK #3. */
+    private final double[] c1;
+
+    /** C4 from SPTRCK #3. */
+    private final double[] c4;
+
+    /** 3/2 * C1. */
+    private final double[] t2cof;
+
+    /** Original recovered semi major axis. */
+    private final double[] a0dp;
+
+    /** Original recovered mean motion. */
+    private final double[] xn0dp;
+
+    /** Cosinus original inclination. */
+    private final double[] cosi0;
+
+    /** Sinus original inclination. */
+    private final double[] sini0;
+
+    /** Eta from SPTRCK #3. */
+    private final double[] eta;
+
+    /** Indicators for perigee less than 220 km. */
+    private final boolean[] lessThan220;
+
+    /** (1 + eta * cos(M0))³. */
+    private final double[] delM0;
+
+    // CHECKSTYLE: stop JavadocVariable check
+    private final double[] d2;
+    private final double[] d3;
+    private final double[] d4;
+    private final double[] t3cof;
+    private final double[] t4cof;
+    private final double[] t5cof;
+    private final double[] sinM0;
+    private final double[] omgcof;
+    private final double[] xmcof;
+    private final double[] c5;
+    // CHECKSTYLE: resume JavadocVariable check
+
+    /** Simple constructor.
+     * @param tles element sets to propagate
+     * @exception OrekitException if some element set cannot be initialized
+     */
+    public TLEBatchPropagator(final List<TLE> tles)
+        throws OrekitException {
+
+        final int n = tles.size();
+        this.tles       = tles.toArray(new TLE[n]);
+        this.epochs     = new AbsoluteDate[n];
+        this.deepSpace  = new TLEPropagator[n];
+        this.teme       = FramesFactory.getTEME();
+
+        meanAnomaly     = new double[n];
+        perigeeArgument = new double[n];
+        raan            = new double[n];
+        eccentricity    = new double[n];
+        inclination     = new double[n];
+        bStar           = new double[n];
+        xmdot           = new double[n];
+        omgdot          = new double[n];
+        xnodot          = new double[n];
+        xnodcf          = new double[n];
+        c1              = new double[n];
+        c4              = new double[n];
+        t2cof           = new double[n];
+        a0dp            = new double[n];
+        xn0dp           = new double[n];
+        cosi0           = new double[n];
+        sini0           = new double[n];
+        eta             = new double[n];
+        lessThan220     = new boolean[n];
+        delM0           = new double[n];
+        d2              = new double[n];
+        d3              = new double[n];
+        d4              = new double[n];
+        t3cof           = new double[n];
+        t4cof           = new double[n];
+        t5cof           = new double[n];
+        sinM0           = new double[n];
+        omgcof          = new double[n];
+        xmcof           = new double[n];
+        c5              = new double[n];
+
+        for (int k = 0; k < n; ++k) {
+
+            final TLE tle = this.tles[k];
+            epochs[k] = tle.getDate();
+
+            final TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
+            if (propagator instanceof SGP4) {
+                // the coefficients are retrieved from a regular SGP4 instance
+                // to ensure batch and single TLE results are the same
+                final SGP4 sgp4 = (SGP4) propagator;
+                meanAnomaly[k]     = tle.getMeanAnomaly();
+                perigeeArgument[k] = tle.getPerigeeArgument();
+                raan[k]            = tle.getRaan();
+                eccentricity[k]    = tle.getE();
+                inclination[k]     = tle.getI();
+                bStar[k]           = tle.getBStar();
+                xmdot[k]           = sgp4.xmdot;
+                omgdot[k]          = sgp4.omgdot;
+                xnodot[k]          = sgp4.xnodot;
+                xnodcf[k]          = sgp4.xnodcf;
+                c1[k]              = sgp4.c1;
+                c4[k]              = sgp4.c4;
+                t2cof[k]           = sgp4.t2cof;
+                a0dp[k]            = sgp4.a0dp;
+                xn0dp[k]           = sgp4.xn0dp;
+                cosi0[k]           = sgp4.cosi0;
+                sini0[k]           = sgp4.sini0;
+                eta[k]             = sgp4.eta;
+                lessThan220[k]     = sgp4.lessThan220;
+                delM0[k]           = sgp4.delM0;
+                d2[k]              = sgp4.d2;
+                d3[k]              = sgp4.d3;
+                d4[k]              = sgp4.d4;
+                t3cof[k]           = sgp4.t3cof;
+                t4cof[k]           = sgp4.t4cof;
+                t5cof[k]           = sgp4.t5cof;
+                sinM0[k]           = sgp4.sinM0;
+                omgcof[k]          = sgp4.omgcof;
+                xmcof[k]           = sgp4.xmcof;
+                c5[k]              = sgp4.c5;
+            } else {
+                deepSpace[k] = propagator;
+            }
+
+        }
+
+    }
+
+    /** Get the number of element sets.
+     * @return number of element sets
+     */
+    public int getSize() {
+        return tles.length;
+    }
+
+    /** Get one of the element sets.
+     * @param index index of the element set
+     * @return element set at specified index
+     */
+    public TLE getTLE(final int index) {
+        return tles[index];
+    }
+
+    /** Check if an element set uses the deep space model.
+     * @param index index of the element set
+     * @return true if the element set uses the deep space (SDP4) model
+     */
+    public boolean isDeepSpace(final int index) {
+        return deepSpace[index] != null;
+    }
+
+    /** Get the frame in which positions and velocities are computed.
+     * @return TEME frame
+     */
+    public Frame getFrame() {
+        return teme;
+    }
+
+    /** Propagate all element sets.
+     * <p>
+     * The results for element set k at date j are stored in
+     * {@code positions[k][3 * j]}, {@code positions[k][3 * j + 1]},
+     * {@code positions[k][3 * j + 2]} (and similarly for velocities),
+     * in {@link #getFrame() TEME frame}.
+     * </p>
+     * @param dates propagation dates
+     * @param positions arrays where to put positions (m), one array of
+     * length at least {@code 3 * dates.length} per element set
+     * @param velocities arrays where to put velocities (m/s), one array of
+     * length at least {@code 3 * dates.length} per element set
+     * @exception OrekitException if some element set cannot be propagated
+     * to some date (too large eccentricity, too low perigee ...)
+     */
+    public void propagate(final AbsoluteDate[] dates,
+                          final double[][] positions, final double[][] velocities)
+        throws OrekitException {
+        checkDimensions(dates, positions, velocities);
+        propagate(0, tles.length, dates, positions, velocities);
+    }
+
+    /** Propagate all element sets, splitting the work among the workers of a pool.
+     * <p>
+     * The results for element set k at date j are stored in
+     * {@code positions[k][3 * j]}, {@code positions[k][3 * j + 1]},
+     * {@code positions[k][3 * j + 2]} (and similarly for velocities),
+     * in {@link #getFrame() TEME frame}.
+     * </p>
+     * @param dates propagation dates
+     * @param positions arrays where to put positions (m), one array of
+     * length at least {@code 3 * dates.length} per element set
+     * @param velocities arrays where to put velocities (m/s), one array of
+     * length at least {@code 3 * dates.length} per element set
+     * @param pool pool to use for parallel computation
+     * @exception OrekitException if some element set cannot be propagated
+     * to some date (too large eccentricity, too low perigee ...)
+     */
+    public void propagate(final AbsoluteDate[] dates,
+                          final double[][] positions, final double[][] velocities,
+                          final ForkJoinPool pool)
+        throws OrekitException {
+        checkDimensions(dates, positions, velocities);
+        try {
+            pool.invoke(new PropagationTask(0, tles.length, dates, positions, velocities));
+        } catch (OrekitExceptionWrapper oew) {
+            throw oew.getException();
+        }
+    }
+
+    /** Check output arrays dimensions.
+     * @param dates propagation dates
+     * @param positions arrays where to put positions
+     * @param velocities arrays where to put velocities
+     */
+    private void checkDimensions(final AbsoluteDate[] dates,
+                                 final double[][] positions, final double[][] velocities) {
+        checkDimensions(positions,  3 * dates.length);
+        checkDimensions(velocities, 3 * dates.length);
+    }
+
+    /** Check output arrays dimensions.
+     * @param output output arrays
+     * @param length minimum length of each output array
+     */
+    private void checkDimensions(final double[][] output, final int length) {
+        if (output.length != tles.length) {
+            throw new OrekitIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                     output.length, tles.length);
+        }
+        for (final double[] array : output) {
+            if (array.length < length) {
+                throw new OrekitIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                         array.length, length);
+            }
+        }
+    }
+
+    /** Propagate a range of element sets.
+     * @param from index of the first element set to propagate
+     * @param to index after the last element set to propagate
+     * @param dates propagation dates
+     * @param positions arrays where to put positions
+     * @param velocities arrays where to put velocities
+     * @exception OrekitException if some element set cannot be propagated
+     */
+    private void propagate(final int from, final int to, final AbsoluteDate[] dates,
+                           final double[][] positions, final double[][] velocities)
+        throws OrekitException {
+        for (int k = from; k < to; ++k) {
+            final double[] p = positions[k];
+            final double[] v = velocities[k];
+            if (deepSpace[k] == null) {
+                for (int j = 0; j < dates.length; ++j) {
+                    propagateNearEarth(k, dates[j].durationFrom(epochs[k]) / 60.0, p, v, 3 * j);
+                }
+            } else {
+                for (int j = 0; j < dates.length; ++j) {
+                    deepSpace[k].computePVCoordinates(dates[j].durationFrom(epochs[k]) / 60.0, p, v, 3 * j);
+                }
+            }
+        }
+    }
+
+    /** Propagate one near Earth element set.
+     * <p>
+     * This method performs the same computation as {@link SGP4}, using the packed coefficients.
+     * </p>
+     * @param k index of the element set
+     * @param tSince the offset from initial epoch (min)
+     * @param p array where to put position (m), starting at index {@code offset}
+     * @param v array where to put velocity (m/s), starting at index {@code offset}
+     * @param offset index of the first component in the arrays
+     * @exception OrekitException if element set cannot be propagated
+     */
+    private void propagateNearEarth(final int k, final double tSince,
+                                    final double[] p, final double[] v, final int offset)
+        throws OrekitException {
+
+        // Update for secular gravity and atmospheric drag.
+        final double xmdf   = meanAnomaly[k] + xmdot[k] * tSince;
+        final double omgadf = perigeeArgument[k] + omgdot[k] * tSince;
+        final double xn0ddf = raan[k] + xnodot[k] * tSince;
+        double omega = omgadf;
+        double xmp = xmdf;
+        final double tsq = tSince * tSince;
+        final double xnode = xn0ddf + xnodcf[k] * tsq;
+        double tempa = 1 - c1[k] * tSince;
+        double tempe = bStar[k] * c4[k] * tSince;
+        double templ = t2cof[k] * tsq;
+
+        if (!lessThan220[k]) {
+            final double delomg = omgcof[k] * tSince;
+            double delm = 1. + eta[k] * FastMath.cos(xmdf);
+            delm = xmcof[k] * (delm * delm * delm - delM0[k]);
+            final double temp = delomg + delm;
+            xmp = xmdf + temp;
+            omega = omgadf - temp;
+            final double tcube = tsq * tSince;
+            final double tfour = tSince * tcube;
+            tempa = tempa - d2[k] * tsq - d3[k] * tcube - d4[k] * tfour;
+            tempe = tempe + bStar[k] * c5[k] * (FastMath.sin(xmp) - sinM0[k]);
+            templ = templ + t3cof[k] * tcube + tfour * (t4cof[k] + tSince * t5cof[k]);
+        }
+
+        final double a = a0dp[k] * tempa * tempa;
+        double e = eccentricity[k] - tempe;
+
+        // A highly arbitrary lower limit on e,  of 1e-6:
+        if (e < 1e-6) {
+            e = 1e-6;
+        }
+
+        final double xl = xmp + omega + xnode + xn0dp[k] * templ;
+
+        TLEPropagator.computePVCoordinates(a, e, inclination[k], omega, xnode, xl,
+                                           cosi0[k], sini0[k], p, v, offset);
+
+    }
+
+    /** Task for parallel propagation. */
+    private class PropagationTask extends RecursiveAction {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20181017L;
+
+        /** Index of the first element set to propagate. */
+        private final int from;
+
+        /** Index after the last element set to propagate. */
+        private final int to;
+
+        /** Propagation dates. */
+        private final AbsoluteDate[] dates;
+
+        /** Arrays where to put positions. */
+        private final double[][] positions;
+
+        /** Arrays where to put velocities. */
+        private final double[][] velocities;
+
+        /** Simple constructor.
+         * @param from index of the first element set to propagate
+         * @param to index after the last element set to propagate
+         * @param dates propagation dates
+         * @param positions arrays where to put positions
+         * @param velocities arrays where to put velocities
+         */
+        PropagationTask(final int from, final int to, final AbsoluteDate[] dates,
+                        final double[][] positions, final double[][] velocities) {
+            this.from       = from;
+            this.to         = to;
+            this.dates      = dates;
+            this.positions  = positions;
+            this.velocities = velocities;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_TASK_SIZE) {
+                try {
+                    propagate(from, to, dates, positions, velocities);
+                } catch (OrekitException oe) {
+                    throw new OrekitExceptionWrapper(oe);
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new PropagationTask(from, middle, dates, positions, velocities),
+                          new PropagationTask(middle, to, dates, positions, velocities));
+            }
+        }
+
+    }
+
+}
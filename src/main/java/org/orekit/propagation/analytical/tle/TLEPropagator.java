@@ -339,6 +339,56 @@ public abstract class TLEPropagator extends AbstractAnalyticalPropagator {
      * (too large eccentricity, too low perigee ...)
      */
     private PVCoordinates computePVCoordinates() throws OrekitException {
+        final double[] p = new double[3];
+        final double[] v = new double[3];
+        computePVCoordinates(a, e, i, omega, xnode, xl, cosi0, sini0, p, v, 0);
+        return new PVCoordinates(new Vector3D(p[0], p[1], p[2]), new Vector3D(v[0], v[1], v[2]));
+    }
+
+    /** Compute position and velocity in arrays.
+     * <p>
+     * This method is intended to be used by {@link TLEBatchPropagator}, which
+     * avoids allocating one {@link PVCoordinates} per call.
+     * </p>
+     * @param tSince the offset from initial epoch (min)
+     * @param p array where to put position (m), starting at index {@code offset}
+     * @param v array where to put velocity (m/s), starting at index {@code offset}
+     * @param offset index of the first component in the arrays
+     * @exception OrekitException if current orbit is out of supported range
+     * (too large eccentricity, too low perigee ...)
+     * @since 9.3
+     */
+    void computePVCoordinates(final double tSince, final double[] p, final double[] v, final int offset)
+        throws OrekitException {
+        sxpPropagate(tSince);
+        computePVCoordinates(a, e, i, omega, xnode, xl, cosi0, sini0, p, v, offset);
+    }
+
+    /** Compute position and velocity from final elements.
+     * <p>
+     * This method is shared between the single TLE propagators and {@link
+     * TLEBatchPropagator}, so both produce exactly the same results.
+     * </p>
+     * @param a final semi major axis
+     * @param e final eccentricity
+     * @param i final inclination
+     * @param omega final perigee argument
+     * @param xnode final RAAN
+     * @param xl L from SPTRCK #3
+     * @param cosi0 cosinus of inclination
+     * @param sini0 sinus of inclination
+     * @param p array where to put position (m), starting at index {@code offset}
+     * @param v array where to put velocity (m/s), starting at index {@code offset}
+     * @param offset index of the first component in the arrays
+     * @exception OrekitException if current orbit is out of supported range
+     * (too large eccentricity, too low perigee ...)
+     * @since 9.3
+     */
+    static void computePVCoordinates(final double a, final double e, final double i,
+                                     final double omega, final double xnode, final double xl,
+                                     final double cosi0, final double sini0,
+                                     final double[] p, final double[] v, final int offset)
+        throws OrekitException {
 
         // Long period periodics
         final double axn = e * FastMath.cos(omega);
@@ -436,7 +486,9 @@ public abstract class TLEPropagator extends AbstractAnalyticalPropagator {
 
         // Position and velocity
         final double cr = 1000 * rk * TLEConstants.EARTH_RADIUS;
-        final Vector3D pos = new Vector3D(cr * ux, cr * uy, cr * uz);
+        p[offset]     = cr * ux;
+        p[offset + 1] = cr * uy;
+        p[offset + 2] = cr * uz;
 
         final double rdot   = TLEConstants.XKE * FastMath.sqrt(a) * esinE / r;
         final double rfdot  = TLEConstants.XKE * FastMath.sqrt(pl) / r;
@@ -448,11 +500,9 @@ public abstract class TLEPropagator extends AbstractAnalyticalPropagator {
         final double vz     = sinik * cosuk;
 
         final double cv = 1000.0 * TLEConstants.EARTH_RADIUS / 60.0;
-        final Vector3D vel = new Vector3D(cv * (rdotk * ux + rfdotk * vx),
-                                          cv * (rdotk * uy + rfdotk * vy),
-                                          cv * (rdotk * uz + rfdotk * vz));
-
-        return new PVCoordinates(pos, vel);
+        v[offset]     = cv * (rdotk * ux + rfdotk * vx);
+        v[offset + 1] = cv * (rdotk * uy + rfdotk * vy);
+        v[offset + 2] = cv * (rdotk * uz + rfdotk * vz);
 
     }
 
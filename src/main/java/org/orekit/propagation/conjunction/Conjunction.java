@@ -0,0 +1,136 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conjunction;
+
+import org.orekit.frames.Frame;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeStamped;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** Close approach between two objects of a catalog.
+ * <p>
+ * Instances of this class are immutable. They are created by {@link ConjunctionScreener}.
+ * </p>
+ * @see ConjunctionScreener
+ * @since 9.3
+ */
+public class Conjunction implements TimeStamped {
+
+    /** Index of the primary object in the list provided to the screener. */
+    private final int primaryIndex;
+
+    /** Index of the secondary object in the list provided to the screener. */
+    private final int secondaryIndex;
+
+    /** Frame in which coordinates are given. */
+    private final Frame frame;
+
+    /** Primary object coordinates at time of closest approach. */
+    private final TimeStampedPVCoordinates primary;
+
+    /** Secondary object coordinates at time of closest approach. */
+    private final TimeStampedPVCoordinates secondary;
+
+    /** Secondary object coordinates relative to primary object. */
+    private final PVCoordinates relative;
+
+    /** Simple constructor.
+     * @param primaryIndex index of the primary object in the list provided to the screener
+     * @param secondaryIndex index of the secondary object in the list provided to the screener
+     * @param frame frame in which coordinates are given
+     * @param primary primary object coordinates at time of closest approach
+     * @param secondary secondary object coordinates at time of closest approach
+     */
+    Conjunction(final int primaryIndex, final int secondaryIndex, final Frame frame,
+                final TimeStampedPVCoordinates primary, final TimeStampedPVCoordinates secondary) {
+        this.primaryIndex   = primaryIndex;
+        this.secondaryIndex = secondaryIndex;
+        this.frame          = frame;
+        this.primary        = primary;
+        this.secondary      = secondary;
+        this.relative       = new PVCoordinates(primary, secondary);
+    }
+
+    /** Get the index of the primary object in the list provided to the screener.
+     * <p>
+     * The primary object is always the one with the lowest index.
+     * </p>
+     * @return index of the primary object
+     */
+    public int getPrimaryIndex() {
+        return primaryIndex;
+    }
+
+    /** Get the index of the secondary object in the list provided to the screener.
+     * @return index of the secondary object
+     */
+    public int getSecondaryIndex() {
+        return secondaryIndex;
+    }
+
+    /** Get the time of closest approach.
+     * @return time of closest approach
+     */
+    @Override
+    public AbsoluteDate getDate() {
+        return primary.getDate();
+    }
+
+    /** Get the frame in which coordinates are given.
+     * @return screening frame
+     */
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /** Get the primary object coordinates at time of closest approach.
+     * @return primary object coordinates, in {@link #getFrame() screening frame}
+     */
+    public TimeStampedPVCoordinates getPrimaryPVCoordinates() {
+        return primary;
+    }
+
+    /** Get the secondary object coordinates at time of closest approach.
+     * @return secondary object coordinates, in {@link #getFrame() screening frame}
+     */
+    public TimeStampedPVCoordinates getSecondaryPVCoordinates() {
+        return secondary;
+    }
+
+    /** Get the secondary object coordinates relative to primary object at time of closest approach.
+     * @return relative coordinates, with axes parallel to {@link #getFrame() screening frame} axes
+     */
+    public PVCoordinates getRelativePVCoordinates() {
+        return relative;
+    }
+
+    /** Get the miss distance.
+     * @return distance between the two objects at time of closest approach (m)
+     */
+    public double getMissDistance() {
+        return relative.getPosition().getNorm();
+    }
+
+    /** Get the relative speed.
+     * @return relative speed of the two objects at time of closest approach (m/s)
+     */
+    public double getRelativeSpeed() {
+        return relative.getVelocity().getNorm();
+    }
+
+}
@@ -0,0 +1,1236 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conjunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Transform;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.AbstractAnalyticalPropagator;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEBatchPropagator;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.events.AbstractDetector;
+import org.orekit.propagation.events.FunctionalDetector;
+import org.orekit.propagation.events.handlers.EventHandler.Action;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.PVCoordinatesProvider;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+/** All-on-all close approaches screening of a catalog of objects.
+ * <p>
+ * Finding close approaches by building one propagator and one detector per pair of objects
+ * implies N² propagations. This screener samples all objects on a common time grid instead,
+ * storing positions and velocities in primitive arrays, and only refines the few pairs of
+ * objects that actually come close to each other.
+ * </p>
+ * <p>
+ * The grid is processed in chunks. For each chunk, an apogee/perigee filter first discards
+ * the objects whose range of distances to the frame origin does not overlap the range of
+ * any other object. The remaining objects are then inserted at each grid date in a spatial
+ * hash grid whose cells are large enough to contain any pair that may come within the
+ * screening distance before the next grid date, so only objects in neighbouring cells
+ * need to be compared. Grid dates are split in time slices processed in parallel.
+ * </p>
+ * <p>
+ * A pair of objects has a close approach between two grid dates when their range rate
+ * changes sign from negative to positive. The time of closest approach is refined by
+ * propagating the primary object between these two dates with an event detector on the
+ * range rate, so the root finding is performed by the same machinery as for regular
+ * event detection. Only the approaches whose miss distance is below the screening
+ * distance are reported.
+ * </p>
+ * <p>
+ * As with event detectors, the {@link #getMaxCheckInterval() grid step} must be smaller than
+ * the shortest time between two successive close approaches of the same pair, which is about
+ * half the orbital period for objects sharing similar orbits. Close approaches exactly at the
+ * boundaries of the screening range are not reported, and close approaches occurring within
+ * one grid step of the boundaries of an object validity range may be missed.
+ * </p>
+ * <p>
+ * Objects are sampled in parallel, each object being used by one thread at a time. The same
+ * propagator instance must therefore not appear twice in the list of objects.
+ * </p>
+ * @see Conjunction
+ * @since 9.3
+ */
+public class ConjunctionScreener {
+
+    /** Number of grid steps processed between synchronization points. */
+    private static final int CHUNK_SIZE = 256;
+
+    /** Minimum number of grid dates in one time slice. */
+    private static final int MIN_SLICE_SIZE = 16;
+
+    /** Minimum number of element sets in one TLE sampling task. */
+    private static final int MIN_BLOCK_SIZE = 64;
+
+    /** Safety factor for the margins derived from sampled velocities. */
+    private static final double MARGIN_FACTOR = 1.1;
+
+    /** Offset of cells indices in spatial hash grid keys. */
+    private static final int CELL_OFFSET = 1 << 20;
+
+    /** Screening distance (m). */
+    private final double screeningDistance;
+
+    /** Maximum checking interval (s). */
+    private final double maxCheck;
+
+    /** Convergence threshold (s). */
+    private final double threshold;
+
+    /** Maximum number of iterations in the time of closest approach search. */
+    private final int maxIter;
+
+    /** Screening frame (null if it is selected from the screened objects). */
+    private Frame frame;
+
+    /** User-managed executor (null if a new thread pool is created at each computation). */
+    private ExecutorService executor;
+
+    /** Element sets skipped during last TLE screening. */
+    private volatile SortedMap<Integer, OrekitException> skippedTLEs;
+
+    /** Build a screener with default search settings.
+     * <p>
+     * The default maximum checking interval is 60 seconds, the default convergence threshold
+     * and maximum number of iterations are the same as for event detectors.
+     * </p>
+     * @param screeningDistance screening distance (m)
+     */
+    public ConjunctionScreener(final double screeningDistance) {
+        this(screeningDistance, 60.0, AbstractDetector.DEFAULT_THRESHOLD, AbstractDetector.DEFAULT_MAX_ITER);
+    }
+
+    /** Build a screener.
+     * @param screeningDistance screening distance (m)
+     * @param maxCheck maximum checking interval, i.e. step of the sampling grid (s)
+     * @param threshold convergence threshold for time of closest approach (s)
+     * @param maxIter maximum number of iterations in the time of closest approach search
+     */
+    public ConjunctionScreener(final double screeningDistance,
+                               final double maxCheck, final double threshold, final int maxIter) {
+        this.screeningDistance = screeningDistance;
+        this.maxCheck          = maxCheck;
+        this.threshold         = threshold;
+        this.maxIter           = maxIter;
+        this.frame             = null;
+        this.executor          = null;
+        this.skippedTLEs       = Collections.emptySortedMap();
+    }
+
+    /** Get the screening distance.
+     * @return screening distance (m)
+     */
+    public double getScreeningDistance() {
+        return screeningDistance;
+    }
+
+    /** Get the maximum checking interval.
+     * @return maximum checking interval, i.e. step of the sampling grid (s)
+     */
+    public double getMaxCheckInterval() {
+        return maxCheck;
+    }
+
+    /** Get the convergence threshold.
+     * @return convergence threshold for time of closest approach (s)
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /** Get the maximum number of iterations in the time of closest approach search.
+     * @return maximum number of iterations in the time of closest approach search
+     */
+    public int getMaxIterationCount() {
+        return maxIter;
+    }
+
+    /** Set the screening frame.
+     * <p>
+     * By default, the screening frame is the frame of the first object
+     * if it is pseudo-inertial, GCRF otherwise, and TEME when screening TLE.
+     * </p>
+     * @param frame screening frame (null to select it from the screened objects)
+     * @exception OrekitIllegalArgumentException if frame is not pseudo-inertial
+     * @see #getFrame()
+     */
+    public void setFrame(final Frame frame) {
+        if (frame != null && !frame.isPseudoInertial()) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.NON_PSEUDO_INERTIAL_FRAME,
+                                                     frame.getName());
+        }
+        this.frame = frame;
+    }
+
+    /** Get the screening frame.
+     * @return screening frame (null if it is selected from the screened objects)
+     * @see #setFrame(Frame)
+     */
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /** Set the executor used for sampling, filtering and refinement.
+     * <p>
+     * By default, a new fixed thread pool with one thread per available
+     * processor is created and shut down at each call to one of the
+     * screening methods. Setting up a user-managed executor allows to
+     * reuse threads across calls. The executor is never shut down by the screener.
+     * </p>
+     * @param executor executor to use (null to create a new thread pool at each computation)
+     * @see #getExecutor()
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /** Get the executor used for sampling, filtering and refinement.
+     * @return executor used (null if a new thread pool is created at each computation)
+     * @see #setExecutor(ExecutorService)
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /** Get the element sets skipped during the last call to {@link #screenTLEs(List,
+     * AbsoluteDate, AbsoluteDate) screenTLEs}.
+     * @return map from indices of the skipped element sets in the screened list
+     * to the errors that caused them to be skipped (empty if no element set was skipped)
+     */
+    public SortedMap<Integer, OrekitException> getSkippedTLEs() {
+        return skippedTLEs;
+    }
+
+    /** Screen a catalog of objects.
+     * <p>
+     * The validity range of {@link BoundedPropagator bounded propagators} is taken
+     * into account, close approaches are searched only when both objects are valid.
+     * </p>
+     * @param objects objects to screen (must be distinct instances)
+     * @param start start of the screening range
+     * @param end end of the screening range
+     * @return close approaches with miss distance below screening distance, sorted by
+     * time of closest approach, then by primary index, then by secondary index
+     * @exception OrekitException if some object position cannot be computed
+     */
+    public List<Conjunction> screen(final List<? extends Propagator> objects,
+                                    final AbsoluteDate start, final AbsoluteDate end)
+        throws OrekitException {
+
+        if (objects.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        final Frame screeningFrame;
+        if (frame != null) {
+            screeningFrame = frame;
+        } else if (objects.get(0).getFrame().isPseudoInertial()) {
+            screeningFrame = objects.get(0).getFrame();
+        } else {
+            screeningFrame = FramesFactory.getGCRF();
+        }
+
+        final PVCoordinatesProvider[] providers = objects.toArray(new PVCoordinatesProvider[objects.size()]);
+        final Sampler sampler = (dates, positions, velocities) -> {
+            final List<Callable<Void>> tasks = new ArrayList<>(providers.length);
+            for (int i = 0; i < providers.length; ++i) {
+                final Propagator   propagator = objects.get(i);
+                final AbsoluteDate minDate    = (propagator instanceof BoundedPropagator) ?
+                                                ((BoundedPropagator) propagator).getMinDate() :
+                                                AbsoluteDate.PAST_INFINITY;
+                final AbsoluteDate maxDate    = (propagator instanceof BoundedPropagator) ?
+                                                ((BoundedPropagator) propagator).getMaxDate() :
+                                                AbsoluteDate.FUTURE_INFINITY;
+                final double[] p = positions[i];
+                final double[] v = velocities[i];
+                tasks.add(() -> {
+                    for (int k = 0; k < dates.length; ++k) {
+                        if (dates[k].compareTo(minDate) < 0 || dates[k].compareTo(maxDate) > 0) {
+                            Arrays.fill(p, 3 * k, 3 * k + 3, Double.NaN);
+                            Arrays.fill(v, 3 * k, 3 * k + 3, Double.NaN);
+                        } else {
+                            store(propagator.getPVCoordinates(dates[k], screeningFrame), p, v, k);
+                        }
+                    }
+                    return null;
+                });
+            }
+            return tasks;
+        };
+
+        return screen(providers, screeningFrame, sampler, start, end, null);
+
+    }
+
+    /** Screen a catalog of two-line elements sets.
+     * <p>
+     * The element sets are sampled using {@link TLEBatchPropagator}, and close
+     * approaches are refined using {@link TLEPropagator#selectExtrapolator(TLE)}.
+     * </p>
+     * <p>
+     * Element sets that cannot be propagated (too large eccentricity, too low
+     * perigee ...) do not abort the screening. They are ignored from the date
+     * at which propagation fails and are reported by {@link #getSkippedTLEs()}.
+     * Close approaches found before the failure are still reported.
+     * </p>
+     * @param tles element sets to screen
+     * @param start start of the screening range
+     * @param end end of the screening range
+     * @return close approaches with miss distance below screening distance, sorted by
+     * time of closest approach, then by primary index, then by secondary index
+     * @exception OrekitException if the screening frame cannot be computed
+     */
+    public List<Conjunction> screenTLEs(final List<TLE> tles,
+                                        final AbsoluteDate start, final AbsoluteDate end)
+        throws OrekitException {
+
+        final SortedMap<Integer, OrekitException> skipped = new ConcurrentSkipListMap<>();
+        skippedTLEs = Collections.unmodifiableSortedMap(skipped);
+        if (tles.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        final Frame teme           = FramesFactory.getTEME();
+        final Frame screeningFrame = (frame == null) ? teme : frame;
+
+        final PVCoordinatesProvider[] providers = new PVCoordinatesProvider[tles.size()];
+        for (int i = 0; i < providers.length; ++i) {
+            try {
+                providers[i] = TLEPropagator.selectExtrapolator(tles.get(i));
+            } catch (OrekitException oe) {
+                // this element set will never be sampled
+                skipped.put(i, oe);
+            }
+        }
+
+        // split the catalog in blocks, each block being sampled by one task
+        final int blockSize = FastMath.max(MIN_BLOCK_SIZE,
+                                           (tles.size() + 4 * nbThreads() - 1) / (4 * nbThreads()));
+        final List<TLEBlock> blocks = new ArrayList<>();
+        for (int from = 0; from < tles.size(); from += blockSize) {
+            blocks.add(new TLEBlock(tles, from, FastMath.min(from + blockSize, tles.size()), skipped));
+        }
+
+        final Sampler sampler = (dates, positions, velocities) -> {
+
+            // transforms shared by all element sets
+            final Transform[] transforms;
+            if (screeningFrame == teme) {
+                transforms = null;
+            } else {
+                transforms = new Transform[dates.length];
+                for (int k = 0; k < dates.length; ++k) {
+                    transforms[k] = teme.getTransformTo(screeningFrame, dates[k]);
+                }
+            }
+
+            final List<Callable<Void>> tasks = new ArrayList<>(blocks.size());
+            for (final TLEBlock block : blocks) {
+                tasks.add(() -> {
+                    block.sample(dates, positions, velocities, providers, teme, skipped);
+                    if (transforms != null) {
+                        for (final int i : block.indices) {
+                            for (int k = 0; k < dates.length; ++k) {
+                                final PVCoordinates pv =
+                                        new PVCoordinates(new Vector3D(positions[i][3 * k],
+                                                                       positions[i][3 * k + 1],
+                                                                       positions[i][3 * k + 2]),
+                                                          new Vector3D(velocities[i][3 * k],
+                                                                       velocities[i][3 * k + 1],
+                                                                       velocities[i][3 * k + 2]));
+                                store(transforms[k].transformPVCoordinates(pv), positions[i], velocities[i], k);
+                            }
+                        }
+                    }
+                    return null;
+                });
+            }
+            return tasks;
+
+        };
+
+        return screen(providers, screeningFrame, sampler, start, end, skipped);
+
+    }
+
+    /** Screen a catalog of objects.
+     * @param providers providers for the objects coordinates
+     * @param screeningFrame screening frame
+     * @param sampler sampler for the objects coordinates on the grid
+     * @param start start of the screening range
+     * @param end end of the screening range
+     * @param skipped map where to put the objects whose position cannot be computed
+     * during refinement (null if such errors should abort the screening)
+     * @return close approaches with miss distance below screening distance
+     * @exception OrekitException if some object position cannot be computed
+     */
+    private List<Conjunction> screen(final PVCoordinatesProvider[] providers, final Frame screeningFrame,
+                                     final Sampler sampler, final AbsoluteDate start, final AbsoluteDate end,
+                                     final SortedMap<Integer, OrekitException> skipped)
+        throws OrekitException {
+
+        // common sampling grid
+        final AbsoluteDate first = start.compareTo(end) <= 0 ? start : end;
+        final AbsoluteDate last  = start.compareTo(end) <= 0 ? end   : start;
+        final double       span  = last.durationFrom(first);
+        final int          n     = FastMath.max(1, (int) FastMath.ceil(span / maxCheck));
+        final double       h     = span / n;
+
+        // samples storage, shared by all chunks
+        final int nbObjects = providers.length;
+        final double[][] positions  = new double[nbObjects][3 * (CHUNK_SIZE + 1)];
+        final double[][] velocities = new double[nbObjects][3 * (CHUNK_SIZE + 1)];
+        final Shells     shells     = new Shells(nbObjects);
+
+        final ExecutorService executorService =
+                        (executor == null) ?
+                        Executors.newFixedThreadPool(nbThreads()) :
+                        executor;
+        try {
+
+            final List<Candidate> candidates = new ArrayList<>();
+            for (int chunkStart = 0; chunkStart < n; chunkStart += CHUNK_SIZE) {
+
+                // grid dates for this chunk, the last one being shared with next chunk
+                final AbsoluteDate[] dates = new AbsoluteDate[FastMath.min(CHUNK_SIZE, n - chunkStart) + 1];
+                for (int k = 0; k < dates.length; ++k) {
+                    final int index = chunkStart + k;
+                    dates[k] = (index == n) ? last : first.shiftedBy(index * h);
+                }
+
+                // sample all objects
+                invoke(executorService, sampler.createTasks(dates, positions, velocities));
+
+                // apogee/perigee filter
+                final double margin = shells.update(dates.length, h, positions, velocities);
+
+                // spatial filter, in parallel time slices
+                final int sliceSize = FastMath.max(MIN_SLICE_SIZE, (dates.length + nbThreads() - 1) / nbThreads());
+                final List<Callable<List<Candidate>>> tasks = new ArrayList<>();
+                for (int from = 0; from < dates.length; from += sliceSize) {
+                    final int sliceStart = from;
+                    final int sliceEnd   = FastMath.min(from + sliceSize, dates.length);
+                    tasks.add(() -> new SliceScanner(dates, positions, velocities, shells, margin).
+                                    scan(sliceStart, sliceEnd));
+                }
+                for (final List<Candidate> sliceCandidates : invoke(executorService, tasks)) {
+                    candidates.addAll(sliceCandidates);
+                }
+
+            }
+
+            // refine close approaches
+            final List<Callable<Conjunction>> tasks = new ArrayList<>(candidates.size());
+            for (final Candidate candidate : candidates) {
+                tasks.add(() -> refine(providers, screeningFrame, candidate, skipped));
+            }
+            final List<Conjunction> conjunctions = new ArrayList<>();
+            for (final Conjunction conjunction : invoke(executorService, tasks)) {
+                if (conjunction != null) {
+                    conjunctions.add(conjunction);
+                }
+            }
+
+            Collections.sort(conjunctions, new Comparator<Conjunction>() {
+                /** {@inheritDoc} */
+                @Override
+                public int compare(final Conjunction c1, final Conjunction c2) {
+                    int c = c1.getDate().compareTo(c2.getDate());
+                    if (c == 0) {
+                        c = Integer.compare(c1.getPrimaryIndex(), c2.getPrimaryIndex());
+                    }
+                    return c != 0 ? c : Integer.compare(c1.getSecondaryIndex(), c2.getSecondaryIndex());
+                }
+            });
+            return conjunctions;
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new OrekitException(ie, LocalizedCoreFormats.SIMPLE_MESSAGE, ie.getLocalizedMessage());
+        } finally {
+            if (executor == null) {
+                executorService.shutdownNow();
+            }
+        }
+
+    }
+
+    /** Refine a candidate close approach.
+     * @param providers providers for the objects coordinates
+     * @param screeningFrame screening frame
+     * @param candidate candidate close approach
+     * @param skipped map where to put the objects whose position cannot be computed
+     * (null if such errors should be thrown)
+     * @return close approach, or null if miss distance is above screening distance
+     * or if one object position cannot be computed
+     * @exception OrekitException if some object position cannot be computed
+     * and skipped is null
+     */
+    private Conjunction refine(final PVCoordinatesProvider[] providers, final Frame screeningFrame,
+                               final Candidate candidate, final SortedMap<Integer, OrekitException> skipped)
+        throws OrekitException {
+
+        final PVCoordinatesProvider primary   = providers[candidate.primary];
+        final PVCoordinatesProvider secondary = providers[candidate.secondary];
+
+        // locks are always acquired in increasing objects indices order
+        synchronized (primary) {
+            synchronized (secondary) {
+                try {
+                    return refine(primary, secondary, screeningFrame, candidate);
+                } catch (OrekitException oe) {
+                    if (skipped == null) {
+                        throw oe;
+                    }
+                    // identify the failing object
+                    try {
+                        primary.getPVCoordinates(candidate.end, screeningFrame);
+                        skipped.putIfAbsent(candidate.secondary, oe);
+                    } catch (OrekitException oePrimary) {
+                        skipped.putIfAbsent(candidate.primary, oePrimary);
+                    }
+                    return null;
+                }
+            }
+        }
+
+    }
+
+    /** Refine a candidate close approach, with both objects locked.
+     * @param primary primary object
+     * @param secondary secondary object
+     * @param screeningFrame screening frame
+     * @param candidate candidate close approach
+     * @return close approach, or null if miss distance is above screening distance
+     * @exception OrekitException if some object position cannot be computed
+     */
+    private Conjunction refine(final PVCoordinatesProvider primary, final PVCoordinatesProvider secondary,
+                               final Frame screeningFrame, final Candidate candidate)
+        throws OrekitException {
+
+        // find the range rate root using regular events detection
+        final AbsoluteDate[] tca = new AbsoluteDate[1];
+        final ApproachPropagator propagator = new ApproachPropagator(primary, screeningFrame);
+        propagator.addEventDetector(new FunctionalDetector().
+                                    withGFunction(s -> rangeRate(s.getPVCoordinates(),
+                                                                 secondary.getPVCoordinates(s.getDate(),
+                                                                                            screeningFrame))).
+                                    withMaxCheck(candidate.end.durationFrom(candidate.start)).
+                                    withThreshold(threshold).
+                                    withMaxIter(maxIter).
+                                    withHandler((s, detector, increasing) -> {
+                                        if (increasing) {
+                                            tca[0] = s.getDate();
+                                            return Action.STOP;
+                                        }
+                                        return Action.CONTINUE;
+                                    }));
+        propagator.propagate(candidate.start, candidate.end);
+
+        // if the root is too close to the interval end to be detected, use the end
+        final AbsoluteDate date = (tca[0] == null) ? candidate.end : tca[0];
+        final TimeStampedPVCoordinates pv1 = primary.getPVCoordinates(date, screeningFrame);
+        final TimeStampedPVCoordinates pv2 = secondary.getPVCoordinates(date, screeningFrame);
+        if (Vector3D.distance(pv1.getPosition(), pv2.getPosition()) > screeningDistance) {
+            return null;
+        }
+        return new Conjunction(candidate.primary, candidate.secondary, screeningFrame, pv1, pv2);
+
+    }
+
+    /** Compute range rate.
+     * @param pv1 coordinates of first object
+     * @param pv2 coordinates of second object
+     * @return range rate multiplied by range (m²/s)
+     */
+    private static double rangeRate(final PVCoordinates pv1, final PVCoordinates pv2) {
+        return Vector3D.dotProduct(pv2.getPosition().subtract(pv1.getPosition()),
+                                   pv2.getVelocity().subtract(pv1.getVelocity()));
+    }
+
+    /** Store coordinates in samples arrays.
+     * @param pv coordinates to store
+     * @param p positions array
+     * @param v velocities array
+     * @param k index of the grid date
+     */
+    private static void store(final PVCoordinates pv, final double[] p, final double[] v, final int k) {
+        final Vector3D position = pv.getPosition();
+        final Vector3D velocity = pv.getVelocity();
+        p[3 * k]     = position.getX();
+        p[3 * k + 1] = position.getY();
+        p[3 * k + 2] = position.getZ();
+        v[3 * k]     = velocity.getX();
+        v[3 * k + 1] = velocity.getY();
+        v[3 * k + 2] = velocity.getZ();
+    }
+
+    /** Get the number of threads to use for splitting work.
+     * @return number of threads
+     */
+    private int nbThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Run tasks and wait for their completion.
+     * @param executorService executor to use
+     * @param tasks tasks to run
+     * @param <T> type of the tasks results
+     * @return tasks results, in tasks order
+     * @exception OrekitException if some task failed
+     * @exception InterruptedException if the current thread was interrupted while waiting
+     */
+    private <T> List<T> invoke(final ExecutorService executorService, final List<Callable<T>> tasks)
+        throws OrekitException, InterruptedException {
+        final List<T> results = new ArrayList<>(tasks.size());
+        for (final Future<T> future : executorService.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException ee) {
+                manageException(ee);
+            }
+        }
+        return results;
+    }
+
+    /** Manage an exception thrown by a task.
+     * @param exception exception to manage
+     * @exception OrekitException always thrown, wrapping or unwrapping the cause
+     */
+    private void manageException(final ExecutionException exception)
+        throws OrekitException {
+        if (exception.getCause() instanceof OrekitException) {
+            // unwrap the original exception
+            throw (OrekitException) exception.getCause();
+        } else {
+            throw new OrekitException(exception.getCause(),
+                                      LocalizedCoreFormats.SIMPLE_MESSAGE, exception.getLocalizedMessage());
+        }
+    }
+
+    /** Sampler for objects coordinates on the grid. */
+    @FunctionalInterface
+    private interface Sampler {
+
+        /** Create the tasks sampling objects coordinates.
+         * <p>
+         * The coordinates of object i at date k must be stored in {@code positions[i][3 * k]},
+         * {@code positions[i][3 * k + 1]}, {@code positions[i][3 * k + 2]} (and similarly for
+         * velocities), in screening frame, or set to NaN if object is not valid at this date.
+         * </p>
+         * @param dates grid dates
+         * @param positions arrays where to put positions (m), one array per object
+         * @param velocities arrays where to put velocities (m/s), one array per object
+         * @return sampling tasks
+         * @exception OrekitException if tasks cannot be created
+         */
+        List<Callable<Void>> createTasks(AbsoluteDate[] dates, double[][] positions, double[][] velocities)
+            throws OrekitException;
+
+    }
+
+    /** Block of element sets sampled together. */
+    private static class TLEBlock {
+
+        /** Element sets of the screened list. */
+        private final List<TLE> tles;
+
+        /** Index of the first element set of the block in the screened list. */
+        private final int from;
+
+        /** Index after the last element set of the block in the screened list. */
+        private final int to;
+
+        /** Indices of the element sets still sampled in the screened list. */
+        private int[] indices;
+
+        /** Batch propagator for the element sets still sampled (null if not built yet). */
+        private TLEBatchPropagator batch;
+
+        /** Simple constructor.
+         * @param tles element sets of the screened list
+         * @param from index of the first element set of the block in the screened list
+         * @param to index after the last element set of the block in the screened list
+         * @param skipped element sets already skipped
+         */
+        TLEBlock(final List<TLE> tles, final int from, final int to,
+                 final SortedMap<Integer, OrekitException> skipped) {
+            this.tles = tles;
+            this.from = from;
+            this.to   = to;
+            selectIndices(skipped);
+        }
+
+        /** Select the element sets that are not skipped.
+         * @param skipped element sets skipped
+         */
+        private void selectIndices(final SortedMap<Integer, OrekitException> skipped) {
+            final int[] selected = new int[to - from];
+            int n = 0;
+            for (int i = from; i < to; ++i) {
+                if (!skipped.containsKey(i)) {
+                    selected[n++] = i;
+                }
+            }
+            indices = Arrays.copyOf(selected, n);
+            batch   = null;
+        }
+
+        /** Sample the element sets of the block, in TEME frame.
+         * <p>
+         * If the batch propagation fails, element sets are sampled one at a time,
+         * and the failing ones are skipped from the failure date on.
+         * </p>
+         * @param dates grid dates
+         * @param positions arrays where to put positions (m), one array per object
+         * @param velocities arrays where to put velocities (m/s), one array per object
+         * @param providers providers for the objects coordinates
+         * @param teme TEME frame
+         * @param skipped map where to put the element sets that cannot be propagated
+         * @exception OrekitException if TEME frame cannot be used
+         */
+        void sample(final AbsoluteDate[] dates, final double[][] positions, final double[][] velocities,
+                    final PVCoordinatesProvider[] providers, final Frame teme,
+                    final SortedMap<Integer, OrekitException> skipped)
+            throws OrekitException {
+
+            // element sets skipped before this chunk are invalid at all dates
+            for (int i = from; i < to; ++i) {
+                if (Arrays.binarySearch(indices, i) < 0) {
+                    Arrays.fill(positions[i],  0, 3 * dates.length, Double.NaN);
+                    Arrays.fill(velocities[i], 0, 3 * dates.length, Double.NaN);
+                }
+            }
+
+            if (indices.length > 0) {
+                final double[][] p = new double[indices.length][];
+                final double[][] v = new double[indices.length][];
+                final List<TLE>  selected = new ArrayList<>(indices.length);
+                for (int j = 0; j < indices.length; ++j) {
+                    p[j] = positions[indices[j]];
+                    v[j] = velocities[indices[j]];
+                    selected.add(tles.get(indices[j]));
+                }
+                try {
+                    if (batch == null) {
+                        batch = new TLEBatchPropagator(selected);
+                    }
+                    batch.propagate(dates, p, v);
+                } catch (OrekitException oe) {
+                    // sample element sets one at a time to identify the failing ones
+                    for (final int i : indices) {
+                        for (int k = 0; k < dates.length; ++k) {
+                            try {
+                                store(providers[i].getPVCoordinates(dates[k], teme), positions[i], velocities[i], k);
+                            } catch (OrekitException oeSingle) {
+                                // the element set is invalid from this date on
+                                skipped.put(i, oeSingle);
+                                Arrays.fill(positions[i],  3 * k, 3 * dates.length, Double.NaN);
+                                Arrays.fill(velocities[i], 3 * k, 3 * dates.length, Double.NaN);
+                                break;
+                            }
+                        }
+                    }
+                    selectIndices(skipped);
+                }
+            }
+
+        }
+
+    }
+
+    /** Candidate close approach, bracketed between two grid dates. */
+    private static class Candidate {
+
+        /** Index of the primary object. */
+        private final int primary;
+
+        /** Index of the secondary object. */
+        private final int secondary;
+
+        /** Grid date before the close approach. */
+        private final AbsoluteDate start;
+
+        /** Grid date after the close approach. */
+        private final AbsoluteDate end;
+
+        /** Simple constructor.
+         * @param primary index of the primary object
+         * @param secondary index of the secondary object
+         * @param start grid date before the close approach
+         * @param end grid date after the close approach
+         */
+        Candidate(final int primary, final int secondary, final AbsoluteDate start, final AbsoluteDate end) {
+            this.primary   = primary;
+            this.secondary = secondary;
+            this.start     = start;
+            this.end       = end;
+        }
+
+    }
+
+    /** Apogee/perigee filter, based on the range of distances to the frame origin of each object. */
+    private class Shells {
+
+        /** Lower bound of the distance to origin over the current chunk. */
+        private final double[] rMin;
+
+        /** Upper bound of the distance to origin over the current chunk. */
+        private final double[] rMax;
+
+        /** Indicators for objects that may approach another one during the current chunk. */
+        private final boolean[] active;
+
+        /** Objects indices. */
+        private final Integer[] order;
+
+        /** Simple constructor.
+         * @param nbObjects number of objects
+         */
+        Shells(final int nbObjects) {
+            this.rMin   = new double[nbObjects];
+            this.rMax   = new double[nbObjects];
+            this.active = new boolean[nbObjects];
+            this.order  = new Integer[nbObjects];
+        }
+
+        /** Update the shells for a new chunk.
+         * @param nbDates number of grid dates in the chunk
+         * @param h grid step (s)
+         * @param positions objects positions
+         * @param velocities objects velocities
+         * @return margin to add to screening distance to take motion between grid dates into account (m)
+         */
+        double update(final int nbDates, final double h,
+                      final double[][] positions, final double[][] velocities) {
+
+            // distance to origin over the chunk, padded for motion between grid dates
+            double vMaxAll = 0;
+            int nbValid = 0;
+            for (int i = 0; i < rMin.length; ++i) {
+                final double[] p = positions[i];
+                final double[] v = velocities[i];
+                double r2Min = Double.POSITIVE_INFINITY;
+                double r2Max = Double.NEGATIVE_INFINITY;
+                double v2Max = 0;
+                for (int k = 0; k < 3 * nbDates; k += 3) {
+                    if (!Double.isNaN(p[k])) {
+                        final double r2 = p[k] * p[k] + p[k + 1] * p[k + 1] + p[k + 2] * p[k + 2];
+                        r2Min = FastMath.min(r2Min, r2);
+                        r2Max = FastMath.max(r2Max, r2);
+                        v2Max = FastMath.max(v2Max, v[k] * v[k] + v[k + 1] * v[k + 1] + v[k + 2] * v[k + 2]);
+                    }
+                }
+                if (r2Max < 0) {
+                    // the object is not valid anywhere in the chunk
+                    active[i] = false;
+                } else {
+                    final double vMax = FastMath.sqrt(v2Max);
+                    final double pad  = 0.5 * MARGIN_FACTOR * vMax * h;
+                    rMin[i]           = FastMath.sqrt(r2Min) - pad;
+                    rMax[i]           = FastMath.sqrt(r2Max) + pad;
+                    vMaxAll           = FastMath.max(vMaxAll, vMax);
+                    order[nbValid++]  = i;
+                }
+            }
+
+            // an object is active if its shell overlaps the shell of another object,
+            // when objects are sorted by increasing lower bound, it is sufficient to
+            // check the preceding objects and the next one
+            Arrays.sort(order, 0, nbValid, new Comparator<Integer>() {
+                /** {@inheritDoc} */
+                @Override
+                public int compare(final Integer i1, final Integer i2) {
+                    return Double.compare(rMin[i1], rMin[i2]);
+                }
+            });
+            double runningMax = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < nbValid; ++k) {
+                final int i = order[k];
+                active[i] = runningMax >= rMin[i] - screeningDistance ||
+                            (k + 1 < nbValid && rMin[order[k + 1]] - screeningDistance <= rMax[i]);
+                runningMax = FastMath.max(runningMax, rMax[i]);
+            }
+
+            // relative velocity is bounded by twice the largest velocity
+            return MARGIN_FACTOR * vMaxAll * h;
+
+        }
+
+        /** Check if an object may approach another one during the current chunk.
+         * @param i index of the object
+         * @return true if the object may approach another one
+         */
+        boolean isActive(final int i) {
+            return active[i];
+        }
+
+        /** Check if the shells of two objects overlap.
+         * @param i index of the first object
+         * @param j index of the second object
+         * @return true if the shells of the objects overlap
+         */
+        boolean overlap(final int i, final int j) {
+            return rMin[i] - screeningDistance <= rMax[j] && rMin[j] - screeningDistance <= rMax[i];
+        }
+
+    }
+
+    /** Scanner for one time slice of a chunk. */
+    private class SliceScanner {
+
+        /** Grid dates of the chunk. */
+        private final AbsoluteDate[] dates;
+
+        /** Objects positions. */
+        private final double[][] positions;
+
+        /** Objects velocities. */
+        private final double[][] velocities;
+
+        /** Apogee/perigee filter. */
+        private final Shells shells;
+
+        /** Size of the spatial grid cells. */
+        private final double cellSize;
+
+        /** Square of the distance below which pairs are checked for close approach. */
+        private final double limit2;
+
+        /** Spatial hash grid. */
+        private final SpatialHashGrid grid;
+
+        /** Cells indices of objects inserted in the grid. */
+        private final int[] cells;
+
+        /** Objects inserted in the grid. */
+        private final int[] inserted;
+
+        /** Candidate close approaches found so far. */
+        private final List<Candidate> candidates;
+
+        /** Simple constructor.
+         * @param dates grid dates of the chunk
+         * @param positions objects positions
+         * @param velocities objects velocities
+         * @param shells apogee/perigee filter
+         * @param margin margin to add to screening distance to take motion between grid dates into account (m)
+         */
+        SliceScanner(final AbsoluteDate[] dates, final double[][] positions, final double[][] velocities,
+                     final Shells shells, final double margin) {
+            this.dates      = dates;
+            this.positions  = positions;
+            this.velocities = velocities;
+            this.shells     = shells;
+            this.cellSize   = screeningDistance + margin;
+            this.limit2     = cellSize * cellSize;
+            this.grid       = new SpatialHashGrid(positions.length);
+            this.cells      = new int[3 * positions.length];
+            this.inserted   = new int[positions.length];
+            this.candidates = new ArrayList<>();
+        }
+
+        /** Scan the time slice.
+         * @param from index of the first grid date of the slice
+         * @param to index after the last grid date of the slice
+         * @return candidate close approaches
+         */
+        List<Candidate> scan(final int from, final int to) {
+            for (int k = from; k < to; ++k) {
+
+                // insert all active objects in the spatial grid
+                grid.clear();
+                int nbInserted = 0;
+                for (int i = 0; i < positions.length; ++i) {
+                    final double[] p = positions[i];
+                    if (shells.isActive(i) && !Double.isNaN(p[3 * k])) {
+                        cells[3 * i]     = cellIndex(p[3 * k]);
+                        cells[3 * i + 1] = cellIndex(p[3 * k + 1]);
+                        cells[3 * i + 2] = cellIndex(p[3 * k + 2]);
+                        grid.insert(i, key(cells[3 * i], cells[3 * i + 1], cells[3 * i + 2]));
+                        inserted[nbInserted++] = i;
+                    }
+                }
+
+                // compare objects in neighbouring cells
+                for (int m = 0; m < nbInserted; ++m) {
+                    final int i = inserted[m];
+                    for (int dx = -1; dx <= 1; ++dx) {
+                        final int cx = cells[3 * i] + dx;
+                        for (int dy = -1; dy <= 1; ++dy) {
+                            final int cy = cells[3 * i + 1] + dy;
+                            for (int dz = -1; dz <= 1; ++dz) {
+                                final int cz = cells[3 * i + 2] + dz;
+                                if (inRange(cx) && inRange(cy) && inRange(cz)) {
+                                    for (int j = grid.first(key(cx, cy, cz)); j >= 0; j = grid.next(j)) {
+                                        if (j > i && shells.overlap(i, j) && distance2(i, j, k) <= limit2) {
+                                            checkIntervals(i, j, k);
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+
+            }
+            return candidates;
+        }
+
+        /** Check the grid intervals surrounding a date where two objects are close.
+         * <p>
+         * The interval before the date is checked only if the objects were not already
+         * close at the previous date, as it has already been checked otherwise.
+         * </p>
+         * @param i index of the first object
+         * @param j index of the second object
+         * @param k index of the grid date
+         */
+        private void checkIntervals(final int i, final int j, final int k) {
+            if (k + 1 < dates.length) {
+                checkInterval(i, j, k, k + 1);
+            }
+            if (k > 0 && !(distance2(i, j, k - 1) <= limit2)) {
+                checkInterval(i, j, k - 1, k);
+            }
+        }
+
+        /** Check if range rate changes from negative to positive within a grid interval.
+         * @param i index of the first object
+         * @param j index of the second object
+         * @param ka index of the grid date at interval start
+         * @param kb index of the grid date at interval end
+         */
+        private void checkInterval(final int i, final int j, final int ka, final int kb) {
+            if (rangeRate(i, j, ka) < 0 && rangeRate(i, j, kb) >= 0) {
+                candidates.add(new Candidate(i, j, dates[ka], dates[kb]));
+            }
+        }
+
+        /** Compute the squared distance between two objects.
+         * @param i index of the first object
+         * @param j index of the second object
+         * @param k index of the grid date
+         * @return squared distance (m²), NaN if one object is not valid
+         */
+        private double distance2(final int i, final int j, final int k) {
+            final double[] pi = positions[i];
+            final double[] pj = positions[j];
+            final double dx = pj[3 * k]     - pi[3 * k];
+            final double dy = pj[3 * k + 1] - pi[3 * k + 1];
+            final double dz = pj[3 * k + 2] - pi[3 * k + 2];
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        /** Compute the range rate between two objects.
+         * @param i index of the first object
+         * @param j index of the second object
+         * @param k index of the grid date
+         * @return range rate multiplied by range (m²/s), NaN if one object is not valid
+         */
+        private double rangeRate(final int i, final int j, final int k) {
+            final double[] pi = positions[i];
+            final double[] pj = positions[j];
+            final double[] vi = velocities[i];
+            final double[] vj = velocities[j];
+            return (pj[3 * k]     - pi[3 * k])     * (vj[3 * k]     - vi[3 * k]) +
+                   (pj[3 * k + 1] - pi[3 * k + 1]) * (vj[3 * k + 1] - vi[3 * k + 1]) +
+                   (pj[3 * k + 2] - pi[3 * k + 2]) * (vj[3 * k + 2] - vi[3 * k + 2]);
+        }
+
+        /** Compute the cell index of a coordinate.
+         * <p>
+         * Coordinates too far from origin are gathered in the boundary cells,
+         * which is safe as it only adds comparisons.
+         * </p>
+         * @param x coordinate (m)
+         * @return cell index
+         */
+        private int cellIndex(final double x) {
+            final double c = FastMath.floor(x / cellSize);
+            return (int) FastMath.max(-CELL_OFFSET, FastMath.min(CELL_OFFSET - 1, c));
+        }
+
+        /** Check if a cell index is within the grid range.
+         * @param c cell index
+         * @return true if cell index is within the grid range
+         */
+        private boolean inRange(final int c) {
+            return c >= -CELL_OFFSET && c < CELL_OFFSET;
+        }
+
+        /** Compute the key of a cell.
+         * @param cx cell index along X
+         * @param cy cell index along Y
+         * @param cz cell index along Z
+         * @return cell key
+         */
+        private long key(final int cx, final int cy, final int cz) {
+            return ((long) (cx + CELL_OFFSET) << 42) | ((long) (cy + CELL_OFFSET) << 21) | (long) (cz + CELL_OFFSET);
+        }
+
+    }
+
+    /** Spatial hash grid, with open addressing for cells and linked lists for objects in cells. */
+    private static class SpatialHashGrid {
+
+        /** Cells keys. */
+        private final long[] keys;
+
+        /** Index of the first object in each slot (-1 for empty slots). */
+        private final int[] heads;
+
+        /** Index of the next object in the same cell (-1 for last object). */
+        private final int[] next;
+
+        /** Mask for slots indices. */
+        private final int mask;
+
+        /** Simple constructor.
+         * @param nbObjects maximum number of objects in the grid
+         */
+        SpatialHashGrid(final int nbObjects) {
+            final int capacity = Integer.highestOneBit(FastMath.max(2, 2 * nbObjects)) << 1;
+            this.keys  = new long[capacity];
+            this.heads = new int[capacity];
+            this.next  = new int[nbObjects];
+            this.mask  = capacity - 1;
+            clear();
+        }
+
+        /** Remove all objects from the grid. */
+        void clear() {
+            Arrays.fill(heads, -1);
+        }
+
+        /** Insert an object in the grid.
+         * @param index index of the object
+         * @param key key of the cell containing the object
+         */
+        void insert(final int index, final long key) {
+            int slot = slot(key);
+            while (heads[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot]  = key;
+            next[index] = heads[slot];
+            heads[slot] = index;
+        }
+
+        /** Get the first object in a cell.
+         * @param key key of the cell
+         * @return index of the first object in the cell, -1 if cell is empty
+         */
+        int first(final long key) {
+            for (int slot = slot(key); heads[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return heads[slot];
+                }
+            }
+            return -1;
+        }
+
+        /** Get the next object in the same cell.
+         * @param index index of the current object
+         * @return index of the next object in the same cell, -1 if current object is the last one
+         */
+        int next(final int index) {
+            return next[index];
+        }
+
+        /** Compute the first slot to check for a key.
+         * @param key cell key
+         * @return slot index
+         */
+        private int slot(final long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+    }
+
+    /** Propagator following the primary object of a pair, used for time of closest approach search. */
+    private static class ApproachPropagator extends AbstractAnalyticalPropagator {
+
+        /** Primary object. */
+        private final PVCoordinatesProvider primary;
+
+        /** Screening frame. */
+        private final Frame screeningFrame;
+
+        /** Simple constructor.
+         * @param primary primary object
+         * @param screeningFrame screening frame
+         */
+        ApproachPropagator(final PVCoordinatesProvider primary, final Frame screeningFrame) {
+            super(Propagator.DEFAULT_LAW);
+            this.primary        = primary;
+            this.screeningFrame = screeningFrame;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Orbit propagateOrbit(final AbsoluteDate date)
+            throws OrekitException {
+            // the gravitational parameter is irrelevant here, only coordinates are used
+            return new CartesianOrbit(primary.getPVCoordinates(date, screeningFrame),
+                                      screeningFrame, Constants.EIGEN5C_EARTH_MU);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected double getMass(final AbsoluteDate date) {
+            return Propagator.DEFAULT_MASS;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void resetIntermediateState(final SpacecraftState state, final boolean forward)
+            throws OrekitException {
+            throw new OrekitException(OrekitMessages.NON_RESETABLE_STATE);
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.events;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.events.handlers.EventHandler;
+import org.orekit.time.AbsoluteDate;
+
+/** Wrapper adding a cheap {@link EventBoundingFunction bounding function} to an event detector.
+ *
+ * <p>Analytical propagators sample the {@link EventDetector#g(SpacecraftState) g function}
+ * of each detector several times per step, each sample requiring an interpolated state.
+ * When many detectors are registered, this sampling may cost more than the propagation
+ * itself, even if most detectors are far from any event.</p>
+ *
+ * <p>Users can wrap a regular {@link EventDetector event detector} in an instance of
+ * this class, providing a bounding function that is able to prove cheaply that the
+ * switching function cannot change sign within a step. The propagator then skips
+ * the sampling of the wrapped detector for such steps. The g function values and the
+ * events are the same as those of the wrapped detector, which still sees all its
+ * events.</p>
+ * @param <T> type of the wrapped detector
+ * @see EventBoundingFunction
+ * @since 9.3
+ */
+public class BoundedEventDetector<T extends EventDetector>
+    extends AbstractDetector<BoundedEventDetector<T>> {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 20181017L;
+
+    /** Wrapped event detector. */
+    private final T rawDetector;
+
+    /** Bounding function. */
+    private final transient EventBoundingFunction<T> bound;
+
+    /** Wrap an {@link EventDetector event detector}.
+     * @param rawDetector event detector to wrap
+     * @param bound bounding function to use
+     */
+    public BoundedEventDetector(final T rawDetector, final EventBoundingFunction<T> bound) {
+        this(rawDetector.getMaxCheckInterval(), rawDetector.getThreshold(),
+             rawDetector.getMaxIterationCount(), new LocalHandler<T>(),
+             rawDetector, bound);
+    }
+
+    /** Private constructor with full parameters.
+     * <p>
+     * This constructor is private as users are expected to use the builder
+     * API with the various {@code withXxx()} methods to set up the instance
+     * in a readable manner without using a huge amount of parameters.
+     * </p>
+     * @param maxCheck maximum checking interval (s)
+     * @param threshold convergence threshold (s)
+     * @param maxIter maximum number of iterations in the event time search
+     * @param handler event handler to call at event occurrences
+     * @param rawDetector event detector to wrap
+     * @param bound bounding function to use
+     */
+    private BoundedEventDetector(final double maxCheck, final double threshold,
+                                 final int maxIter, final EventHandler<? super BoundedEventDetector<T>> handler,
+                                 final T rawDetector, final EventBoundingFunction<T> bound) {
+        super(maxCheck, threshold, maxIter, handler);
+        this.rawDetector = rawDetector;
+        this.bound       = bound;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected BoundedEventDetector<T> create(final double newMaxCheck, final double newThreshold,
+                                             final int newMaxIter,
+                                             final EventHandler<? super BoundedEventDetector<T>> newHandler) {
+        return new BoundedEventDetector<T>(newMaxCheck, newThreshold, newMaxIter, newHandler, rawDetector, bound);
+    }
+
+    /** Get the wrapped detector.
+     * @return wrapped detector
+     */
+    public T getRawDetector() {
+        return rawDetector;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(final SpacecraftState s0,
+                     final AbsoluteDate t) throws OrekitException {
+        super.init(s0, t);
+        rawDetector.init(s0, t);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double g(final SpacecraftState s) throws OrekitException {
+        return rawDetector.g(s);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean mayChangeSign(final SpacecraftState s0, final double g0, final SpacecraftState s1)
+        throws OrekitException {
+        return bound.mayChangeSign(s0, g0, s1, rawDetector) && rawDetector.mayChangeSign(s0, g0, s1);
+    }
+
+    /** Replace the instance with a data transfer object for serialization.
+     * @return data transfer object that will be serialized
+     * @exception NotSerializableException if the {@link EventBoundingFunction
+     * bounding function} is not serializable
+     */
+    private Object writeReplace() throws NotSerializableException {
+        if (bound instanceof Serializable) {
+            return new DataTransferObject(rawDetector, (Serializable) bound);
+        } else {
+            throw new NotSerializableException(bound.getClass().getName());
+        }
+    }
+
+    /** Local handler. */
+    private static class LocalHandler<T extends EventDetector> implements EventHandler<BoundedEventDetector<T>> {
+
+        /** {@inheritDoc} */
+        @Override
+        public Action eventOccurred(final SpacecraftState s, final BoundedEventDetector<T> bd, final boolean increasing)
+            throws OrekitException {
+            return bd.rawDetector.eventOccurred(s, increasing);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SpacecraftState resetState(final BoundedEventDetector<T> bd, final SpacecraftState oldState)
+            throws OrekitException {
+            return bd.rawDetector.resetState(oldState);
+        }
+
+    }
+
+    /** Internal class used only for serialization. */
+    private static class DataTransferObject implements Serializable {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20181017L;
+
+        /** Wrapped event detector. */
+        private final EventDetector rawDetector;
+
+        /** Bounding function. */
+        private final Serializable bound;
+
+        /** Simple constructor.
+         * @param rawDetector wrapped event detector
+         * @param bound bounding function
+         */
+        DataTransferObject(final EventDetector rawDetector, final Serializable bound) {
+            this.rawDetector = rawDetector;
+            this.bound       = bound;
+        }
+
+        /** Replace the deserialized data transfer object with a {@link BoundedEventDetector}.
+         * @return replacement {@link BoundedEventDetector}
+         */
+        @SuppressWarnings("unchecked")
+        private Object readResolve() {
+            return new BoundedEventDetector<EventDetector>(rawDetector,
+                            (EventBoundingFunction<EventDetector>) bound);
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.events;
+
+import java.io.Serializable;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.propagation.SpacecraftState;
+
+/** This interface represents a cheap bound on an event switching function.
+ * <p>
+ * Bounding functions are used by {@link BoundedEventDetector} to tell
+ * analytical propagators when a detector provably cannot change sign
+ * within a step, so the costly sampling of its switching function
+ * can be skipped.
+ * </p>
+ * @param <S> type of the bounded detector
+ * @see BoundedEventDetector
+ * @since 9.3
+ */
+public interface EventBoundingFunction<S extends EventDetector> {
+
+    /** Check if the switching function may change sign within a step.
+     * <p>
+     * Implementations must be conservative: false must be returned only
+     * if the switching function provably keeps the sign of {@code g0}
+     * between {@code s0} and {@code s1}.
+     * </p>
+     * @param s0 state at step start
+     * @param g0 value of the switching function at step start (never 0)
+     * @param s1 state at step end
+     * @param eventDetector underlying detector
+     * @return false if the switching function cannot change sign between
+     * {@code s0} and {@code s1}
+     * @exception OrekitException if the bound cannot be evaluated
+     */
+    boolean mayChangeSign(SpacecraftState s0, double g0, SpacecraftState s1, S eventDetector)
+        throws OrekitException;
+
+    /** Create a bounding function based on a maximum rate of the switching function.
+     * <p>
+     * If the absolute value of the time derivative of the switching function
+     * never exceeds {@code maxRate}, the switching function cannot reach
+     * zero as long as |g0| &gt; maxRate &times; |t1 - t0|.
+     * </p>
+     * @param maxRate upper bound of the absolute value of the switching function
+     * time derivative (in g units per second)
+     * @param <S> type of the bounded detector
+     * @return serializable bounding function
+     */
+    static <S extends EventDetector> EventBoundingFunction<S> maxRate(final double maxRate) {
+        return (EventBoundingFunction<S> & Serializable) (s0, g0, s1, detector) ->
+            FastMath.abs(g0) <= maxRate * FastMath.abs(s1.getDate().durationFrom(s0.getDate()));
+    }
+
+}
@@ -75,6 +75,32 @@ public interface EventDetector extends Serializable {
      */
     double g(SpacecraftState s) throws OrekitException;
 
+    /** Check if the switching function may change sign within a step.
+     * <p>
+     * This method is called by analytical propagators before the switching
+     * function is sampled over a step. It is intended to be a cheap and
+     * conservative test: returning false tells the propagator that the
+     * switching function provably keeps the sign of {@code g0} over
+     * the whole step, so sampling can be skipped for this detector. If
+     * in doubt, implementations must return true.
+     * </p>
+     * <p>
+     * The default implementation always returns true.
+     * </p>
+     * @param s0 state at step start
+     * @param g0 value of the switching function at step start (never 0)
+     * @param s1 state at step end
+     * @return false if the switching function cannot change sign between
+     * {@code s0} and {@code s1}
+     * @exception OrekitException if some specific error occurs
+     * @see BoundedEventDetector
+     * @since 9.3
+     */
+    default boolean mayChangeSign(SpacecraftState s0, double g0, SpacecraftState s1)
+        throws OrekitException {
+        return true;
+    }
+
     /** Get the convergence threshold in the event time search.
      * @return convergence threshold (s)
      */
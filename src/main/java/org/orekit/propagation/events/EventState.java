@@ -194,6 +194,11 @@ public class EventState<T extends EventDetector> implements Serializable {
     }
 
     /** Evaluate the impact of the proposed step on the event detector.
+     * <p>
+     * The step is not sampled at all if the detector proves, using
+     * {@link EventDetector#mayChangeSign(SpacecraftState, double, SpacecraftState)},
+     * that its switching function cannot change sign.
+     * </p>
      * @param interpolator step interpolator for the proposed step
      * @return true if the event detector triggers an event before
      * the end of the proposed step (this implies the step should be
@@ -213,6 +218,18 @@ public class EventState<T extends EventDetector> implements Serializable {
             // we cannot do anything on such a small step, don't trigger any events
             return false;
         }
+        if (g0 != 0.0) {
+            // cheap conservative check, avoiding to sample the step at all
+            // if the detector proves its switching function cannot change sign
+            final SpacecraftState s0 = t0.equals(interpolator.getPreviousState().getDate()) ?
+                                       interpolator.getPreviousState() :
+                                       interpolator.getInterpolatedState(t0);
+            if (!detector.mayChangeSign(s0, g0, s1)) {
+                pendingEvent     = false;
+                pendingEventTime = null;
+                return false;
+            }
+        }
         // number of points to check in the current step
         final int n = FastMath.max(1, (int) FastMath.ceil(FastMath.abs(dt) / detector.getMaxCheckInterval()));
         final double h = dt / n;
@@ -224,6 +224,13 @@ public class EventsLogger implements Serializable {
             return detector.g(s);
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public boolean mayChangeSign(final SpacecraftState s0, final double g0, final SpacecraftState s1)
+            throws OrekitException {
+            return detector.mayChangeSign(s0, g0, s1);
+        }
+
     }
 
     /** Local class for handling events.
@@ -84,6 +84,12 @@ public class NegateDetector extends AbstractDetector<NegateDetector> {
         return -this.original.g(s);
     }
 
+    @Override
+    public boolean mayChangeSign(final SpacecraftState s0, final double g0, final SpacecraftState s1)
+        throws OrekitException {
+        return this.original.mayChangeSign(s0, -g0, s1);
+    }
+
     @Override
     protected NegateDetector create(
             final double newMaxCheck,
@@ -582,6 +582,18 @@ public abstract class AbstractIntegratedPropagator extends AbstractPropagator {
         // do nothing by default
     }
 
+    /** Map a main state array to a complete state, including additional states from providers.
+     * @param date current date
+     * @param y main state array
+     * @return complete state
+     * @exception OrekitException if state cannot be built
+     * @since 9.3
+     */
+    protected SpacecraftState mapArrayToState(final AbsoluteDate date, final double[] y)
+        throws OrekitException {
+        return updateAdditionalStates(stateMapper.mapArrayToState(date, y, null, true));
+    }
+
     /** Get state vector dimension without additional parameters.
      * @return state vector dimension without additional parameters.
      */
@@ -653,6 +665,27 @@ public abstract class AbstractIntegratedPropagator extends AbstractPropagator {
          */
         double[] computeDerivatives(SpacecraftState state) throws OrekitException;
 
+        /** Compute differential equations for main state directly from the state array.
+         * <p>
+         * This method is called before {@link #computeDerivatives(SpacecraftState)}
+         * and allows implementations to avoid building a complete {@link SpacecraftState}
+         * at each evaluation. If it returns null, the complete state is built and
+         * {@link #computeDerivatives(SpacecraftState)} is called instead.
+         * </p>
+         * <p>
+         * The default implementation of this method returns null.
+         * </p>
+         * @param date current date
+         * @param y main state array
+         * @return derivatives of main state, or null if the complete state is needed
+         * @throws OrekitException if differentials cannot be computed
+         * @since 9.3
+         */
+        default double[] computeDerivatives(final AbsoluteDate date, final double[] y)
+            throws OrekitException {
+            return null;
+        }
+
     }
 
     /** Differential equations for the main state (orbit, attitude and mass), with converted API. */
@@ -695,8 +728,15 @@ public abstract class AbstractIntegratedPropagator extends AbstractPropagator {
                 // increment calls counter
                 ++calls;
 
+                // try the fast path first
+                final AbsoluteDate date = stateMapper.mapDoubleToDate(t);
+                final double[] yDot = main.computeDerivatives(date, y);
+                if (yDot != null) {
+                    return yDot;
+                }
+
                 // update space dynamics view
-                SpacecraftState currentState = stateMapper.mapArrayToState(t, y, null, true);
+                SpacecraftState currentState = stateMapper.mapArrayToState(date, y, null, true);
                 currentState = updateAdditionalStates(currentState);
 
                 // compute main state differentials
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.ode.ODEIntegrator;
@@ -38,6 +39,7 @@ import org.orekit.frames.Frame;
 import org.orekit.orbits.Orbit;
 import org.orekit.orbits.OrbitType;
 import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.AdditionalStateProvider;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.events.EventDetector;
 import org.orekit.propagation.integration.AbstractIntegratedPropagator;
@@ -145,6 +147,9 @@ public class NumericalPropagator extends AbstractIntegratedPropagator {
     /** Force models used during the extrapolation of the orbit. */
     private final List<ForceModel> forceModels;
 
+    /** Indicator for state view mode. */
+    private boolean useStateView;
+
     /** Create a new instance of NumericalPropagator, based on orbit definition mu.
      * After creation, the instance is empty, i.e. the attitude provider is set to an
      * unspecified default law and there are no perturbing forces at all.
@@ -164,6 +169,7 @@ public class NumericalPropagator extends AbstractIntegratedPropagator {
         setSlaveMode();
         setOrbitType(OrbitType.EQUINOCTIAL);
         setPositionAngleType(PositionAngle.TRUE);
+        setUseStateView(false);
     }
 
      /** Set the central attraction coefficient μ.
@@ -288,6 +294,41 @@ public class NumericalPropagator extends AbstractIntegratedPropagator {
         return super.getOrbitType();
     }
 
+    /** Set the state view mode for derivatives computation.
+     * <p>
+     * In state view mode, the equations of motion are evaluated without building
+     * {@link Orbit orbit}, {@link Attitude attitude} and {@link SpacecraftState
+     * spacecraft state} instances at each integrator stage. Force models are given
+     * a single reusable {@link SpacecraftStateView} through {@link
+     * ForceModel#addContribution(SpacecraftStateView, TimeDerivativesEquations)}.
+     * Force models that do not override this method get a complete state built lazily,
+     * once per stage and shared between them, so results are the same as in the
+     * regular mode, but the memory allocation savings are reduced.
+     * </p>
+     * <p>
+     * State view mode is used only when {@link #getOrbitType() propagation orbit type}
+     * is {@link OrbitType#CARTESIAN}. It is silently ignored for other orbit types.
+     * </p>
+     * <p>
+     * State view mode is disabled by default.
+     * </p>
+     * @param useStateView if true, derivatives are computed using a reusable state view
+     * @see #isUsingStateView()
+     * @since 9.3
+     */
+    public void setUseStateView(final boolean useStateView) {
+        this.useStateView = useStateView;
+    }
+
+    /** Check if state view mode is enabled for derivatives computation.
+     * @return true if state view mode is enabled
+     * @see #setUseStateView(boolean)
+     * @since 9.3
+     */
+    public boolean isUsingStateView() {
+        return useStateView;
+    }
+
     /** Set position angle type.
      * <p>
      * The position parameter type is meaningful only if {@link
@@ -468,6 +509,12 @@ public class NumericalPropagator extends AbstractIntegratedPropagator {
         /** Jacobian of the orbital parameters with respect to the Cartesian parameters. */
         private double[][] jacobian;
 
+        /** Reusable state view (null if state view mode is not used). */
+        private SpacecraftStateView view;
+
+        /** Indicator for derivatives being computed from the state view. */
+        private boolean fromView;
+
         /** Simple constructor.
          * @param integrator numerical integrator to use for propagation.
          */
@@ -489,6 +536,25 @@ public class NumericalPropagator extends AbstractIntegratedPropagator {
             for (final ForceModel forceModel : forceModels) {
                 forceModel.init(initialState, target);
             }
+            if (useStateView && getOrbitType() == OrbitType.CARTESIAN) {
+                final SpacecraftStateView.StateBuilder builder = (date, y) -> mapArrayToState(date, y);
+                final List<String>   constantNames  = new ArrayList<>();
+                final List<double[]> constantValues = new ArrayList<>();
+                for (final Map.Entry<String, double[]> initial : initialState.getAdditionalStates().entrySet()) {
+                    if (!isAdditionalStateManaged(initial.getKey())) {
+                        // this additional state is not managed by the propagator, it remains constant
+                        constantNames.add(initial.getKey());
+                        constantValues.add(initial.getValue());
+                    }
+                }
+                view = new SpacecraftStateView(initialState.getFrame(),
+                                               getAdditionalStateProviders().toArray(new AdditionalStateProvider[0]),
+                                               constantNames.toArray(new String[constantNames.size()]),
+                                               constantValues.toArray(new double[constantValues.size()][]),
+                                               builder);
+            } else {
+                view = null;
+            }
         }
 
         /** {@inheritDoc} */
@@ -510,18 +576,73 @@ public class NumericalPropagator extends AbstractIntegratedPropagator {
 
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public double[] computeDerivatives(final AbsoluteDate date, final double[] y)
+            throws OrekitException {
+
+            if (view == null) {
+                // state view mode is not used, the complete state is needed
+                return null;
+            }
+
+            view.update(date, getMu(), y);
+            Arrays.fill(yDot, 0.0);
+
+            // compute the contributions of all perturbing forces,
+            // directly in Cartesian coordinates
+            fromView = true;
+            try {
+                for (final ForceModel forceModel : forceModels) {
+                    forceModel.addContribution(view, this);
+                }
+            } finally {
+                fromView = false;
+            }
+
+            return yDot.clone();
+
+        }
+
         /** {@inheritDoc} */
         @Override
         public void addKeplerContribution(final double mu) {
-            orbit.addKeplerContribution(getPositionAngleType(), mu, yDot);
+            if (fromView) {
+                final double x     = view.getPositionX();
+                final double y     = view.getPositionY();
+                final double z     = view.getPositionZ();
+                final double r2    = x * x + y * y + z * z;
+                final double coeff = -mu / (r2 * FastMath.sqrt(r2));
+                yDot[0] += view.getVelocityX();
+                yDot[1] += view.getVelocityY();
+                yDot[2] += view.getVelocityZ();
+                yDot[3] += coeff * x;
+                yDot[4] += coeff * y;
+                yDot[5] += coeff * z;
+            } else {
+                orbit.addKeplerContribution(getPositionAngleType(), mu, yDot);
+            }
         }
 
         /** {@inheritDoc} */
         public void addNonKeplerianAcceleration(final Vector3D gamma)
             throws OrekitException {
-            for (int i = 0; i < 6; ++i) {
-                final double[] jRow = jacobian[i];
-                yDot[i] += jRow[3] * gamma.getX() + jRow[4] * gamma.getY() + jRow[5] * gamma.getZ();
+            addNonKeplerianAcceleration(gamma.getX(), gamma.getY(), gamma.getZ());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void addNonKeplerianAcceleration(final double gammaX, final double gammaY, final double gammaZ) {
+            if (fromView) {
+                // in Cartesian coordinates, the Jacobian is identity
+                yDot[3] += gammaX;
+                yDot[4] += gammaY;
+                yDot[5] += gammaZ;
+            } else {
+                for (int i = 0; i < 6; ++i) {
+                    final double[] jRow = jacobian[i];
+                    yDot[i] += jRow[3] * gammaX + jRow[4] * gammaY + jRow[5] * gammaZ;
+                }
             }
         }
 
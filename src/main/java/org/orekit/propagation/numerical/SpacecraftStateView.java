@@ -0,0 +1,323 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.numerical;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.propagation.AdditionalStateProvider;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+
+/** Reusable mutable view of the spacecraft state used during derivatives computation.
+ * <p>
+ * This view is used by {@link NumericalPropagator} when {@link
+ * NumericalPropagator#setUseStateView(boolean) state view mode} is active. A single
+ * instance is updated in place at each evaluation of the equations of motion, so
+ * force models implementing {@link org.orekit.forces.ForceModel#addContribution(SpacecraftStateView,
+ * TimeDerivativesEquations)} can read the Cartesian coordinates, mass and additional
+ * states as primitive values without the propagator building {@link
+ * org.orekit.orbits.Orbit orbit}, {@link org.orekit.attitudes.Attitude attitude} and
+ * {@link SpacecraftState spacecraft state} instances at each integrator stage.
+ * </p>
+ * <p>
+ * Additional states are stored in indexed slots. Slots of additional states managed
+ * by providers are filled lazily, one at a time, by calling {@link
+ * AdditionalStateProvider#getAdditionalState(SpacecraftStateView)}. Slots of additional
+ * states that were present in the initial state without being managed by the propagator
+ * hold their constant initial value.
+ * </p>
+ * <p>
+ * Force models or providers that need the complete state (typically for attitude) can
+ * still call {@link #toSpacecraftState()}, which builds the complete state lazily, at
+ * most once per evaluation, and shares it between all callers.
+ * </p>
+ * <p>
+ * Instances are valid only during the call to the force model. They must not be
+ * stored, as their content changes at each evaluation.
+ * </p>
+ * <p>
+ * This class is <em>not</em> thread-safe.
+ * </p>
+ * @see NumericalPropagator#setUseStateView(boolean)
+ * @since 9.3
+ */
+public class SpacecraftStateView {
+
+    /** Builder for complete spacecraft states. */
+    @FunctionalInterface
+    interface StateBuilder {
+
+        /** Build a complete state from the main state array.
+         * @param date current date
+         * @param y main state array
+         * @return complete state, including additional states from providers
+         * @exception OrekitException if state cannot be built
+         */
+        SpacecraftState build(AbsoluteDate date, double[] y) throws OrekitException;
+
+    }
+
+    /** Builder for the complete state. */
+    private final StateBuilder builder;
+
+    /** Inertial frame in which coordinates are defined. */
+    private final Frame frame;
+
+    /** Names of the additional states, indexed by slot. */
+    private final String[] names;
+
+    /** Providers of the additional states, indexed by slot (null for constant states). */
+    private final AdditionalStateProvider[] providers;
+
+    /** Values of the additional states, indexed by slot. */
+    private final double[][] slots;
+
+    /** Indicators for additional states slots being up to date, indexed by slot. */
+    private final boolean[] upToDate;
+
+    /** Main state array (Cartesian coordinates and mass). */
+    private final double[] y;
+
+    /** Current date. */
+    private AbsoluteDate date;
+
+    /** Central attraction coefficient (m³/s²). */
+    private double mu;
+
+    /** Position, built lazily. */
+    private Vector3D position;
+
+    /** Velocity, built lazily. */
+    private Vector3D velocity;
+
+    /** Complete state, built lazily. */
+    private SpacecraftState state;
+
+    /** Simple constructor.
+     * <p>
+     * The first slots are used by the additional states managed by providers,
+     * the following slots by the constant additional states.
+     * </p>
+     * @param frame inertial frame in which coordinates are defined
+     * @param providers providers of the additional states managed by the propagator
+     * @param constantNames names of the additional states that remain constant
+     * @param constantValues values of the additional states that remain constant
+     * @param builder builder for the complete state
+     */
+    SpacecraftStateView(final Frame frame, final AdditionalStateProvider[] providers,
+                        final String[] constantNames, final double[][] constantValues,
+                        final StateBuilder builder) {
+        final int n    = providers.length + constantNames.length;
+        this.builder   = builder;
+        this.frame     = frame;
+        this.names     = new String[n];
+        this.providers = new AdditionalStateProvider[n];
+        this.slots     = new double[n][];
+        this.upToDate  = new boolean[n];
+        this.y         = new double[7];
+        for (int i = 0; i < providers.length; ++i) {
+            this.names[i]     = providers[i].getName();
+            this.providers[i] = providers[i];
+        }
+        for (int i = 0; i < constantNames.length; ++i) {
+            final int slot = providers.length + i;
+            this.names[slot]    = constantNames[i];
+            this.slots[slot]    = constantValues[i].clone();
+            this.upToDate[slot] = true;
+        }
+    }
+
+    /** Update the view in place.
+     * @param newDate current date
+     * @param newMu central attraction coefficient (m³/s²)
+     * @param newY main state array, with Cartesian coordinates in the first 6 elements
+     * and mass in the seventh element
+     * @exception OrekitException if mass is not strictly positive
+     */
+    void update(final AbsoluteDate newDate, final double newMu, final double[] newY)
+        throws OrekitException {
+        if (newY[6] <= 0.0) {
+            throw new OrekitException(OrekitMessages.SPACECRAFT_MASS_BECOMES_NEGATIVE, newY[6]);
+        }
+        System.arraycopy(newY, 0, y, 0, y.length);
+        this.date          = newDate;
+        this.mu            = newMu;
+        this.position      = null;
+        this.velocity      = null;
+        this.state         = null;
+        for (int i = 0; i < providers.length; ++i) {
+            if (providers[i] != null) {
+                upToDate[i] = false;
+            }
+        }
+    }
+
+    /** Get the current date.
+     * @return current date
+     */
+    public AbsoluteDate getDate() {
+        return date;
+    }
+
+    /** Get the inertial frame in which coordinates are defined.
+     * @return inertial frame in which coordinates are defined
+     */
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /** Get the central attraction coefficient.
+     * @return central attraction coefficient (m³/s²)
+     */
+    public double getMu() {
+        return mu;
+    }
+
+    /** Get the mass.
+     * @return mass (kg)
+     */
+    public double getMass() {
+        return y[6];
+    }
+
+    /** Get the abscissa of the position.
+     * @return abscissa of the position (m)
+     */
+    public double getPositionX() {
+        return y[0];
+    }
+
+    /** Get the ordinate of the position.
+     * @return ordinate of the position (m)
+     */
+    public double getPositionY() {
+        return y[1];
+    }
+
+    /** Get the height of the position.
+     * @return height of the position (m)
+     */
+    public double getPositionZ() {
+        return y[2];
+    }
+
+    /** Get the abscissa of the velocity.
+     * @return abscissa of the velocity (m/s)
+     */
+    public double getVelocityX() {
+        return y[3];
+    }
+
+    /** Get the ordinate of the velocity.
+     * @return ordinate of the velocity (m/s)
+     */
+    public double getVelocityY() {
+        return y[4];
+    }
+
+    /** Get the height of the velocity.
+     * @return height of the velocity (m/s)
+     */
+    public double getVelocityZ() {
+        return y[5];
+    }
+
+    /** Get the position as a vector.
+     * <p>
+     * The vector is built at most once per evaluation and shared between callers.
+     * </p>
+     * @return position (m)
+     */
+    public Vector3D getPosition() {
+        if (position == null) {
+            position = new Vector3D(y[0], y[1], y[2]);
+        }
+        return position;
+    }
+
+    /** Get the velocity as a vector.
+     * <p>
+     * The vector is built at most once per evaluation and shared between callers.
+     * </p>
+     * @return velocity (m/s)
+     */
+    public Vector3D getVelocity() {
+        if (velocity == null) {
+            velocity = new Vector3D(y[3], y[4], y[5]);
+        }
+        return velocity;
+    }
+
+    /** Get the slot index of an additional state managed by a provider.
+     * <p>
+     * Slots indices do not change during propagation, so they should be
+     * retrieved once, typically in {@link org.orekit.forces.ForceModel#init(SpacecraftState,
+     * AbsoluteDate) force model initialization}, and used afterwards with {@link
+     * #getAdditionalState(int)}.
+     * </p>
+     * @param name name of the additional state
+     * @return slot index, or -1 if the additional state is neither managed by a
+     * provider nor present as a constant in the initial state
+     */
+    public int getAdditionalStateSlot(final String name) {
+        for (int i = 0; i < names.length; ++i) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Get an additional state by slot index.
+     * <p>
+     * Additional states managed by providers are computed lazily, on the first
+     * call for this slot after the view has been updated, by calling {@link
+     * AdditionalStateProvider#getAdditionalState(SpacecraftStateView)}. If the
+     * complete state has already been built, its value is used instead.
+     * The returned array must not be modified.
+     * </p>
+     * @param slot slot index, as returned by {@link #getAdditionalStateSlot(String)}
+     * @return value of the additional state
+     * @exception OrekitException if the additional state cannot be computed
+     */
+    public double[] getAdditionalState(final int slot) throws OrekitException {
+        if (!upToDate[slot]) {
+            slots[slot]    = (state == null) ?
+                             providers[slot].getAdditionalState(this) :
+                             state.getAdditionalState(names[slot]);
+            upToDate[slot] = true;
+        }
+        return slots[slot];
+    }
+
+    /** Get the complete state corresponding to the view.
+     * <p>
+     * The complete state is built at most once per evaluation and shared between callers.
+     * </p>
+     * @return complete state, including attitude and additional states
+     * @exception OrekitException if state cannot be built
+     */
+    public SpacecraftState toSpacecraftState() throws OrekitException {
+        if (state == null) {
+            state = builder.build(date, y);
+        }
+        return state;
+    }
+
+}
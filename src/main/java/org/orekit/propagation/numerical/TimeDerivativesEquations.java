@@ -52,6 +52,22 @@ public interface TimeDerivativesEquations {
      */
     void addNonKeplerianAcceleration(Vector3D gamma) throws OrekitException;
 
+    /** Add the contribution of a non-Keplerian acceleration given as primitive components.
+     * <p>
+     * The default implementation wraps the components in a {@link Vector3D} and
+     * calls {@link #addNonKeplerianAcceleration(Vector3D)}.
+     * </p>
+     * @param gammaX abscissa of the acceleration in the same inertial frame the spacecraft state is defined in (m/s²)
+     * @param gammaY ordinate of the acceleration in the same inertial frame the spacecraft state is defined in (m/s²)
+     * @param gammaZ height of the acceleration in the same inertial frame the spacecraft state is defined in (m/s²)
+     * @exception OrekitException if frame transforms cannot be computed
+     * @since 9.3
+     */
+    default void addNonKeplerianAcceleration(final double gammaX, final double gammaY, final double gammaZ)
+        throws OrekitException {
+        addNonKeplerianAcceleration(new Vector3D(gammaX, gammaY, gammaZ));
+    }
+
     /** Add the contribution of the flow rate (dm/dt).
      * @param q the flow rate, must be negative (dm/dt)
      * @exception IllegalArgumentException if flow-rate is positive
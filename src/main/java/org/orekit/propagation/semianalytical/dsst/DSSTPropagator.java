@@ -27,7 +27,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.ode.ODEIntegrator;
 import org.hipparchus.ode.ODEStateAndDerivative;
 import org.hipparchus.ode.sampling.ODEStateInterpolator;
@@ -149,6 +157,9 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
     /** Generator for the interpolation grid. */
     private InterpolationGrid interpolationgrid;
 
+    /** Executor for short periodic coefficients computation (null for sequential computation). */
+    private transient ExecutorService shortPeriodsExecutor;
+
     /** Create a new instance of DSSTPropagator.
      *  <p>
      *  After creation, there are no perturbing forces at all.
@@ -286,6 +297,48 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
         interpolationgrid = new MaxGapInterpolationGrid(maxGap);
     }
 
+    /** Set the executor used to compute short periodic coefficients.
+     * <p>
+     * When an executor is set, the short periodic coefficients of the various
+     * force models are computed in parallel, both at each integration step and
+     * when converting the initial osculating state to mean state. Force models
+     * whose computation can be {@link DSSTForceModel#splitShortPeriodTermsUpdate(int,
+     * SpacecraftState...) split} over the grid points (Gaussian contributions like
+     * drag and solar radiation pressure) use one task per group of grid points,
+     * the other ones use one task per force model. Force models must therefore
+     * not be shared between several propagators using the same executor, and the
+     * objects they depend upon (attitude provider, atmosphere model...) must be
+     * thread-safe.
+     * </p>
+     * <p>
+     * The propagation thread waits for the tasks it submits. If propagations are
+     * themselves run by a {@link ForkJoinPool} and the same pool is used here, the
+     * coefficients are computed sequentially in the propagation thread. Other
+     * executors cannot identify their own threads, so a bounded pool running the
+     * propagations must not be used here too, as all its threads may end up
+     * waiting for tasks queued behind them.
+     * </p>
+     * <p>
+     * By default, no executor is set and coefficients are computed sequentially
+     * in the propagation thread. The executor is never shut down by the propagator.
+     * </p>
+     * @param executor executor to use (null for sequential computation)
+     * @see #getShortPeriodsExecutor()
+     * @since 9.3
+     */
+    public void setShortPeriodsExecutor(final ExecutorService executor) {
+        this.shortPeriodsExecutor = executor;
+    }
+
+    /** Get the executor used to compute short periodic coefficients.
+     * @return executor used (null for sequential computation)
+     * @see #setShortPeriodsExecutor(ExecutorService)
+     * @since 9.3
+     */
+    public ExecutorService getShortPeriodsExecutor() {
+        return shortPeriodsExecutor;
+    }
+
     /** Add a force model to the global perturbation model.
      *  <p>
      *  If this method is not called at all,
@@ -331,6 +384,30 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
                                                          final AttitudeProvider attitudeProvider,
                                                          final Collection<DSSTForceModel> forces)
         throws OrekitException {
+        return computeOsculatingState(mean, attitudeProvider, forces, null);
+    }
+
+    /** Conversion from mean to osculating orbit.
+     * <p>
+     * This method is similar to {@link #computeOsculatingState(SpacecraftState,
+     * AttitudeProvider, Collection)} but computes the short periodic coefficients
+     * of the various force models in parallel.
+     * </p>
+     * @param mean Mean state to convert
+     * @param forces Forces to take into account
+     * @param attitudeProvider attitude provider (may be null if there are no Gaussian force models
+     * like atmospheric drag, radiation pressure or specific user-defined models)
+     * @param executor executor to use (null for sequential computation)
+     * @return osculating state in a DSST sense
+     * @throws OrekitException if computation of short periodics fails
+     * @see #setShortPeriodsExecutor(ExecutorService)
+     * @since 9.3
+     */
+    public static SpacecraftState computeOsculatingState(final SpacecraftState mean,
+                                                         final AttitudeProvider attitudeProvider,
+                                                         final Collection<DSSTForceModel> forces,
+                                                         final ExecutorService executor)
+        throws OrekitException {
 
         //Create the auxiliary object
         final AuxiliaryElements aux = new AuxiliaryElements(mean.getOrbit(), I);
@@ -340,8 +417,8 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
         for (final DSSTForceModel force : forces) {
             force.registerAttitudeProvider(attitudeProvider);
             shortPeriodTerms.addAll(force.initialize(aux, false));
-            force.updateShortPeriodTerms(mean);
         }
+        updateShortPeriodTerms(forces, executor, mean);
 
         final EquinoctialOrbit osculatingOrbit = computeOsculatingOrbit(mean, shortPeriodTerms);
 
@@ -373,7 +450,31 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
                                                    final AttitudeProvider attitudeProvider,
                                                    final Collection<DSSTForceModel> forceModels)
         throws OrekitException {
-        final Orbit meanOrbit = computeMeanOrbit(osculating, attitudeProvider, forceModels);
+        return computeMeanState(osculating, attitudeProvider, forceModels, null);
+    }
+
+    /** Conversion from osculating to mean orbit.
+     * <p>
+     * This method is similar to {@link #computeMeanState(SpacecraftState,
+     * AttitudeProvider, Collection)} but computes the short periodic coefficients
+     * of the various force models in parallel at each iteration.
+     * </p>
+     * @param osculating Osculating state to convert
+     * @param attitudeProvider attitude provider (may be null if there are no Gaussian force models
+     * like atmospheric drag, radiation pressure or specific user-defined models)
+     * @param forceModels Forces to take into account
+     * @param executor executor to use (null for sequential computation)
+     * @return mean state in a DSST sense
+     * @throws OrekitException if computation of short periodics fails or iteration algorithm does not converge
+     * @see #setShortPeriodsExecutor(ExecutorService)
+     * @since 9.3
+     */
+    public static SpacecraftState computeMeanState(final SpacecraftState osculating,
+                                                   final AttitudeProvider attitudeProvider,
+                                                   final Collection<DSSTForceModel> forceModels,
+                                                   final ExecutorService executor)
+        throws OrekitException {
+        final Orbit meanOrbit = computeMeanOrbit(osculating, attitudeProvider, forceModels, executor);
         return new SpacecraftState(meanOrbit, osculating.getAttitude(), osculating.getMass(), osculating.getAdditionalStates());
     }
 
@@ -485,12 +586,14 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
      * @param attitudeProvider attitude provider (may be null if there are no Gaussian force models
      * like atmospheric drag, radiation pressure or specific user-defined models)
      * @param forceModels force models
+     * @param executor executor to use (null for sequential computation)
      * @return mean state
      * @throws OrekitException if the underlying computation of short periodic variation fails
      */
     private static Orbit computeMeanOrbit(final SpacecraftState osculating,
                                           final AttitudeProvider attitudeProvider,
-                                          final Collection<DSSTForceModel> forceModels)
+                                          final Collection<DSSTForceModel> forceModels,
+                                          final ExecutorService executor)
         throws OrekitException {
 
         // rough initialization of the mean parameters
@@ -520,8 +623,8 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
             final List<ShortPeriodTerms> shortPeriodTerms = new ArrayList<ShortPeriodTerms>();
             for (final DSSTForceModel force : forceModels) {
                 shortPeriodTerms.addAll(force.initialize(aux, false));
-                force.updateShortPeriodTerms(meanState);
             }
+            updateShortPeriodTerms(forceModels, executor, meanState);
 
             // recompute the osculating parameters from the current mean parameters
             final EquinoctialOrbit rebuilt = computeOsculatingOrbit(meanState, shortPeriodTerms);
@@ -558,6 +661,116 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
         throw new OrekitException(OrekitMessages.UNABLE_TO_COMPUTE_DSST_MEAN_PARAMETERS, i);
     }
 
+    /** Update the short periodic terms of several force models.
+     * <p>
+     * When an executor is provided, each force model update is {@link
+     * DSSTForceModel#splitShortPeriodTermsUpdate(int, SpacecraftState...) split}
+     * over the grid points, and all the parts of all force models are submitted
+     * at once. If the calling thread is itself a worker of the executor (which
+     * happens when propagations are run by the same {@link ForkJoinPool}), the
+     * computation is performed sequentially in the calling thread, as waiting for
+     * tasks queued in the pool running the caller may deadlock.
+     * </p>
+     * @param forceModels force models to update
+     * @param executor executor to use (null for sequential computation)
+     * @param meanStates mean states at the interpolation grid points
+     * @throws OrekitException if computation of short periodics fails
+     * @since 9.3
+     */
+    private static void updateShortPeriodTerms(final Collection<DSSTForceModel> forceModels,
+                                               final ExecutorService executor,
+                                               final SpacecraftState... meanStates)
+        throws OrekitException {
+
+        if (executor == null || isWorkerOf(executor)) {
+            // sequential computation
+            for (final DSSTForceModel force : forceModels) {
+                force.updateShortPeriodTerms(meanStates);
+            }
+            return;
+        }
+
+        // split all force models over the grid points
+        final int parallelism = getParallelism(executor);
+        final List<Callable<Runnable>> tasks = new ArrayList<>();
+        for (final DSSTForceModel force : forceModels) {
+            tasks.addAll(force.splitShortPeriodTermsUpdate(parallelism, meanStates));
+        }
+
+        try {
+            final List<Runnable> merges = new ArrayList<>(tasks.size());
+            if (tasks.size() < 2) {
+                // no need to switch thread
+                for (final Callable<Runnable> task : tasks) {
+                    merges.add(task.call());
+                }
+            } else {
+                for (final Future<Runnable> future : executor.invokeAll(tasks)) {
+                    merges.add(future.get());
+                }
+            }
+
+            // gather the coefficients in the propagation thread
+            for (final Runnable merge : merges) {
+                merge.run();
+            }
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new OrekitException(ie, LocalizedCoreFormats.SIMPLE_MESSAGE, ie.getLocalizedMessage());
+        } catch (ExecutionException ee) {
+            throw convert(ee.getCause(), ee);
+        } catch (Exception e) {
+            throw convert(e, e);
+        }
+
+    }
+
+    /** Check if the current thread is a worker of an executor.
+     * @param executor executor to check
+     * @return true if the current thread is known to be a worker of the executor
+     * @since 9.3
+     */
+    private static boolean isWorkerOf(final ExecutorService executor) {
+        return executor instanceof ForkJoinPool && ForkJoinTask.getPool() == executor;
+    }
+
+    /** Get the number of threads an executor can run at the same time.
+     * @param executor executor to use
+     * @return number of threads of the executor, or number of available
+     * processors if the executor size is unknown or unbounded
+     * @since 9.3
+     */
+    private static int getParallelism(final ExecutorService executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        } else if (executor instanceof ThreadPoolExecutor &&
+                   ((ThreadPoolExecutor) executor).getMaximumPoolSize() < Integer.MAX_VALUE) {
+            return ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+        } else {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /** Convert an exception thrown by a short periodic coefficients task.
+     * @param cause exception thrown by the task
+     * @param exception exception caught
+     * @return exception to throw
+     * @since 9.3
+     */
+    private static OrekitException convert(final Throwable cause, final Exception exception) {
+        if (cause instanceof OrekitException) {
+            // unwrap the original exception
+            return (OrekitException) cause;
+        } else if (cause instanceof OrekitExceptionWrapper) {
+            return ((OrekitExceptionWrapper) cause).getException();
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else {
+            return new OrekitException(cause, LocalizedCoreFormats.SIMPLE_MESSAGE, exception.getLocalizedMessage());
+        }
+    }
+
     /** Compute osculating state from mean state.
      * <p>
      * Compute and add the short periodic variation to the mean {@link SpacecraftState}.
@@ -592,7 +805,7 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
         if (initialIsOsculating) {
             // the initial state is an osculating state,
             // it must be converted to mean state
-            return computeMeanState(getInitialState(), getAttitudeProvider(), forceModels);
+            return computeMeanState(getInitialState(), getAttitudeProvider(), forceModels, shortPeriodsExecutor);
         } else {
             // the initial state is already a mean state
             return getInitialState();
@@ -964,10 +1177,7 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
                                                                           true);
 
                 // Compute short periodic coefficients for this point
-                for (DSSTForceModel forceModel : forceModels) {
-                    forceModel.updateShortPeriodTerms(meanStates);
-
-                }
+                updateShortPeriodTerms(forceModels, shortPeriodsExecutor, meanStates);
             } catch (OrekitException oe) {
                 throw new OrekitExceptionWrapper(oe);
             }
@@ -999,9 +1209,7 @@ public class DSSTPropagator extends AbstractIntegratedPropagator {
                 }
 
                 // Computate short periodic coefficients for this step
-                for (DSSTForceModel forceModel : forceModels) {
-                    forceModel.updateShortPeriodTerms(meanStates);
-                }
+                updateShortPeriodTerms(forceModels, shortPeriodsExecutor, meanStates);
 
             } catch (OrekitException oe) {
                 throw new OrekitExceptionWrapper(oe);
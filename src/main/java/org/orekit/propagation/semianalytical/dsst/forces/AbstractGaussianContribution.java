@@ -19,11 +19,13 @@ package org.orekit.propagation.semianalytical.dsst.forces;
 import java.io.NotSerializableException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.Callable;
 
 import org.hipparchus.analysis.UnivariateVectorFunction;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -32,6 +34,7 @@ import org.orekit.attitudes.Attitude;
 import org.orekit.attitudes.AttitudeProvider;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitExceptionWrapper;
+import org.orekit.errors.OrekitInternalError;
 import org.orekit.forces.ForceModel;
 import org.orekit.orbits.EquinoctialOrbit;
 import org.orekit.orbits.Orbit;
@@ -68,9 +71,17 @@ import org.orekit.utils.TimeSpanMap;
  * {@link ForceModel} and to implement in the derived class the method:
  * {@link #getLLimits(SpacecraftState)}.
  * </p>
+ * <p>
+ * When short periodic coefficients are computed in parallel, the grid points are
+ * {@link #splitShortPeriodTermsUpdate(int, SpacecraftState...) split} between
+ * shallow copies of the contribution, each one holding its own per-point data
+ * (the protected fields set by {@link #initializeStep(AuxiliaryElements)}).
+ * Derived classes must therefore not update other fields during the computation,
+ * and the underlying {@link ForceModel} must be safe for concurrent use.
+ * </p>
  * @author Pascal Parraud
  */
-public abstract class AbstractGaussianContribution implements DSSTForceModel {
+public abstract class AbstractGaussianContribution implements DSSTForceModel, Cloneable {
 
     /** Available orders for Gauss quadrature. */
     private static final int[] GAUSS_ORDER = {12, 16, 20, 24, 32, 40, 48};
@@ -331,7 +342,45 @@ public abstract class AbstractGaussianContribution implements DSSTForceModel {
     public void updateShortPeriodTerms(final SpacecraftState... meanStates)
         throws OrekitException {
 
-        final Slot slot = gaussianSPCoefs.createSlot(meanStates);
+        computeShortPeriodTerms(gaussianSPCoefs.createSlot(meanStates), meanStates);
+
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The grid points are split in contiguous parts, each one computed by a
+     * shallow copy of this contribution in a temporary slot. The temporary
+     * slots are then merged in the slot covering all grid points.
+     * </p>
+     */
+    @Override
+    public List<Callable<Runnable>> splitShortPeriodTermsUpdate(final int maxParts,
+                                                                final SpacecraftState... meanStates) {
+
+        final Slot slot  = gaussianSPCoefs.createSlot(meanStates);
+        final int  parts = FastMath.max(1, FastMath.min(maxParts, meanStates.length));
+        final List<Callable<Runnable>> list = new ArrayList<>(parts);
+        for (int c = 0; c < parts; ++c) {
+            final SpacecraftState[] points = Arrays.copyOfRange(meanStates,
+                                                                (c * meanStates.length) / parts,
+                                                                ((c + 1) * meanStates.length) / parts);
+            list.add(() -> {
+                final Slot partial = new Slot(JMAX, INTERPOLATION_POINTS);
+                copy().computeShortPeriodTerms(partial, points);
+                return () -> slot.addGridPoints(partial);
+            });
+        }
+        return list;
+
+    }
+
+    /** Compute the short periodic coefficients at grid points.
+     * @param slot slot in which coefficients should be stored
+     * @param meanStates mean states at grid points
+     * @throws OrekitException if some specific error occurs
+     */
+    private void computeShortPeriodTerms(final Slot slot, final SpacecraftState... meanStates)
+        throws OrekitException {
         for (final SpacecraftState meanState : meanStates) {
             initializeStep(new AuxiliaryElements(meanState.getOrbit(), I));
             final double[][] currentRhoSigmaj = computeRhoSigmaCoefficients(meanState.getDate());
@@ -339,7 +388,18 @@ public abstract class AbstractGaussianContribution implements DSSTForceModel {
             final UijVijCoefficients uijvij = new UijVijCoefficients(currentRhoSigmaj, fourierCjSj, JMAX);
             gaussianSPCoefs.computeCoefficients(meanState, slot, fourierCjSj, uijvij, n, a);
         }
+    }
 
+    /** Create a shallow copy of the instance, with its own per-point data.
+     * @return shallow copy of the instance
+     */
+    private AbstractGaussianContribution copy() {
+        try {
+            return (AbstractGaussianContribution) clone();
+        } catch (CloneNotSupportedException cnse) {
+            // this should never happen as the class implements Cloneable
+            throw new OrekitInternalError(cnse);
+        }
     }
 
     /**
@@ -1973,6 +2033,21 @@ public abstract class AbstractGaussianContribution implements DSSTForceModel {
 
         }
 
+        /** Add all the grid points of another slot.
+         * @param other slot whose grid points should be added
+         */
+        void addGridPoints(final Slot other) {
+            for (int j = 0; j < cij.length; j++) {
+                cij[j].addGridPoints(other.cij[j]);
+                if (sij[j] != null) {
+                    sij[j].addGridPoints(other.sij[j]);
+                }
+                if (dij.length > j && dij[j] != null) {
+                    dij[j].addGridPoints(other.dij[j]);
+                }
+            }
+        }
+
     }
 
 }
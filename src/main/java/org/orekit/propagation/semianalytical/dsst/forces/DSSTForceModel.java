@@ -16,7 +16,9 @@
  */
 package org.orekit.propagation.semianalytical.dsst.forces;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.orekit.attitudes.AttitudeProvider;
 import org.orekit.errors.OrekitException;
@@ -112,4 +114,34 @@ public interface DSSTForceModel {
     void updateShortPeriodTerms(SpacecraftState... meanStates)
         throws OrekitException;
 
+    /** Split the update of the short period terms in independent parts.
+     * <p>
+     * This method is used when short periodic coefficients are computed in parallel.
+     * It is called in the propagation thread. Each returned part computes the
+     * coefficients for some of the grid points and may be called in any thread,
+     * concurrently with the other parts. Once all parts have been called, the
+     * propagation thread runs the {@link Runnable} returned by each part, in the
+     * order of the list, to gather the coefficients in the {@link ShortPeriodTerms
+     * short period terms}.
+     * </p>
+     * <p>
+     * The default implementation returns a single part that calls {@link
+     * #updateShortPeriodTerms(SpacecraftState...)} for all grid points, so models
+     * that keep per-point data in shared fields are never split.
+     * </p>
+     * @param maxParts maximum number of parts
+     * @param meanStates mean states information: date, kinematics, attitude
+     * @return independent parts of the update
+     * @throws OrekitException if some specific error occurs
+     * @since 9.3
+     */
+    default List<Callable<Runnable>> splitShortPeriodTermsUpdate(final int maxParts,
+                                                                final SpacecraftState... meanStates)
+        throws OrekitException {
+        return Collections.singletonList(() -> {
+            updateShortPeriodTerms(meanStates);
+            return () -> { };
+        });
+    }
+
 }
@@ -49,6 +49,7 @@ import org.orekit.propagation.semianalytical.dsst.utilities.GHmsjPolynomials;
 import org.orekit.propagation.semianalytical.dsst.utilities.GammaMnsFunction;
 import org.orekit.propagation.semianalytical.dsst.utilities.JacobiPolynomials;
 import org.orekit.propagation.semianalytical.dsst.utilities.ShortPeriodicsInterpolatedCoefficient;
+import org.orekit.propagation.semianalytical.dsst.utilities.hansen.HansenCoefficientsStore;
 import org.orekit.propagation.semianalytical.dsst.utilities.hansen.HansenTesseralLinear;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.utils.TimeSpanMap;
@@ -230,6 +231,9 @@ public class DSSTTesseral implements DSSTForceModel {
      * The indexes are s + maxDegree and j */
     private HansenTesseralLinear[][] hansenObjects;
 
+    /** Store providing the Hansen objects. */
+    private final HansenCoefficientsStore hansenStore;
+
     /** Fourier coefficients. */
     private FourierCjSjCoefficients cjsjFourier;
 
@@ -270,6 +274,52 @@ public class DSSTTesseral implements DSSTForceModel {
                         final int maxDegreeMdailyTesseralSP, final int maxOrderMdailyTesseralSP,
                         final int maxEccPowMdailyTesseralSP)
         throws OrekitException {
+        this(centralBodyFrame, centralBodyRotationRate, provider,
+             maxDegreeTesseralSP, maxOrderTesseralSP, maxEccPowTesseralSP, maxFrequencyShortPeriodics,
+             maxDegreeMdailyTesseralSP, maxOrderMdailyTesseralSP, maxEccPowMdailyTesseralSP,
+             HansenCoefficientsStore.getDefaultStore());
+    }
+
+    /** Simple constructor with a specific store for Hansen coefficients.
+     * <p>
+     * Using {@link HansenCoefficientsStore#getNonCachingStore()} prevents the
+     * Hansen polynomials from being retained after the force model is discarded.
+     * </p>
+     * @param centralBodyFrame rotating body frame
+     * @param centralBodyRotationRate central body rotation rate (rad/s)
+     * @param provider provider for spherical harmonics
+     * @param maxDegreeTesseralSP maximal degree to consider for short periodics tesseral harmonics potential
+     *  (must be between 2 and {@code provider.getMaxDegree()})
+     * @param maxOrderTesseralSP maximal order to consider for short periodics tesseral harmonics potential
+     *  (must be between 0 and {@code provider.getMaxOrder()})
+     * @param maxEccPowTesseralSP maximum power of the eccentricity to use in summation over s for
+     * short periodic tesseral harmonics (without m-daily), should typically not exceed 4 as higher
+     * values will exceed computer capacity
+     * @param maxFrequencyShortPeriodics maximum frequency in mean longitude for short periodic computations
+     * (typically {@code maxDegreeTesseralSP} + {@code maxEccPowTesseralSP and no more than 12})
+     * @param maxDegreeMdailyTesseralSP maximal degree to consider for short periodics m-daily tesseral harmonics potential
+     *  (must be between 2 and {@code provider.getMaxDegree()})
+     * @param maxOrderMdailyTesseralSP maximal order to consider for short periodics m-daily tesseral harmonics potential
+     *  (must be between 0 and {@code provider.getMaxOrder()})
+     * @param maxEccPowMdailyTesseralSP maximum power of the eccentricity to use in summation over s for
+     * m-daily tesseral harmonics, (must be between 0 and {@code maxDegreeMdailyTesseralSP - 2},
+     * but should typically not exceed 4 as higher values will exceed computer capacity)
+     * @param hansenStore store providing the Hansen objects
+     * @exception OrekitException if degrees or powers are out of range
+     * @since 9.3
+     */
+    public DSSTTesseral(final Frame centralBodyFrame,
+                        final double centralBodyRotationRate,
+                        final UnnormalizedSphericalHarmonicsProvider provider,
+                        final int maxDegreeTesseralSP, final int maxOrderTesseralSP,
+                        final int maxEccPowTesseralSP, final int maxFrequencyShortPeriodics,
+                        final int maxDegreeMdailyTesseralSP, final int maxOrderMdailyTesseralSP,
+                        final int maxEccPowMdailyTesseralSP,
+                        final HansenCoefficientsStore hansenStore)
+        throws OrekitException {
+
+        // Store providing the Hansen objects
+        this.hansenStore = hansenStore;
 
         // Central body rotating frame
         this.bodyFrame = centralBodyFrame;
@@ -330,6 +380,14 @@ public class DSSTTesseral implements DSSTForceModel {
         }
     }
 
+    /** Get the store providing the Hansen objects.
+     * @return store providing the Hansen objects
+     * @since 9.3
+     */
+    public HansenCoefficientsStore getHansenStore() {
+        return hansenStore;
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<ShortPeriodTerms> initialize(final AuxiliaryElements aux, final boolean meanOnly)
@@ -395,6 +453,11 @@ public class DSSTTesseral implements DSSTForceModel {
      * values of j and all values of s.
      * </p>
      *
+     * <p>
+     * The polynomials are retrieved from the {@link #getHansenStore() Hansen store}, so
+     * they are shared with other force models using the same store and settings.
+     * </p>
+     *
      * @param meanOnly create only the objects required for the mean contribution
      */
     private void createHansenObjects(final boolean meanOnly) {
@@ -419,11 +482,11 @@ public class DSSTTesseral implements DSSTForceModel {
                     final int n0 = FastMath.max(FastMath.max(2, m), s);
 
                     //Create the object for the pair j, s
-                    this.hansenObjects[s + maxDegree][j] = new HansenTesseralLinear(maxDegree, s, j, n0, maxHansen);
+                    this.hansenObjects[s + maxDegree][j] = hansenStore.getTesseral(maxDegree, s, j, n0, maxHansen);
 
                     if (s > 0 && s <= sMin) {
                         //Also create the object for the pair j, -s
-                        this.hansenObjects[maxDegree - s][j] =  new HansenTesseralLinear(maxDegree, -s, j, n0, maxHansen);
+                        this.hansenObjects[maxDegree - s][j] =  hansenStore.getTesseral(maxDegree, -s, j, n0, maxHansen);
                     }
                 }
             }
@@ -434,7 +497,7 @@ public class DSSTTesseral implements DSSTForceModel {
                     //Compute the n0 value
                     final int n0 = FastMath.max(2, FastMath.abs(s));
 
-                    this.hansenObjects[s + maxDegree][j] = new HansenTesseralLinear(maxDegree, s, j, n0, maxHansen);
+                    this.hansenObjects[s + maxDegree][j] = hansenStore.getTesseral(maxDegree, s, j, n0, maxHansen);
                 }
             }
         }
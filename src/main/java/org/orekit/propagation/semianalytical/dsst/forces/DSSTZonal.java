@@ -43,6 +43,7 @@ import org.orekit.propagation.semianalytical.dsst.utilities.GHIJjsPolynomials;
 import org.orekit.propagation.semianalytical.dsst.utilities.LnsCoefficients;
 import org.orekit.propagation.semianalytical.dsst.utilities.ShortPeriodicsInterpolatedCoefficient;
 import org.orekit.propagation.semianalytical.dsst.utilities.UpperBounds;
+import org.orekit.propagation.semianalytical.dsst.utilities.hansen.HansenCoefficientsStore;
 import org.orekit.propagation.semianalytical.dsst.utilities.hansen.HansenZonalLinear;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.utils.TimeSpanMap;
@@ -102,6 +103,9 @@ public class DSSTZonal implements DSSTForceModel {
     /** Maximum frequency in true longitude for short periodic computations. */
     private final int maxFrequencyShortPeriodics;
 
+    /** Store providing the Hansen objects. */
+    private final HansenCoefficientsStore hansenStore;
+
     /** Short period terms. */
     private ZonalShortPeriodicCoefficients zonalSPCoefs;
 
@@ -205,8 +209,36 @@ public class DSSTZonal implements DSSTForceModel {
                      final int maxEccPowShortPeriodics,
                      final int maxFrequencyShortPeriodics)
         throws OrekitException {
+        this(provider, maxDegreeShortPeriodics, maxEccPowShortPeriodics, maxFrequencyShortPeriodics,
+             HansenCoefficientsStore.getDefaultStore());
+    }
+
+    /** Simple constructor with a specific store for Hansen coefficients.
+     * <p>
+     * Using {@link HansenCoefficientsStore#getNonCachingStore()} prevents the
+     * Hansen polynomials from being retained after the force model is discarded.
+     * </p>
+     * @param provider provider for spherical harmonics
+     * @param maxDegreeShortPeriodics maximum degree to consider for short periodics zonal harmonics potential
+     * (must be between 2 and {@code provider.getMaxDegree()})
+     * @param maxEccPowShortPeriodics maximum power of the eccentricity to be used in short periodic computations
+     * (must be between 0 and {@code maxDegreeShortPeriodics - 1}, but should typically not exceed 4 as higher
+     * values will exceed computer capacity)
+     * @param maxFrequencyShortPeriodics maximum frequency in true longitude for short periodic computations
+     * (must be between 1 and {@code 2 * maxDegreeShortPeriodics + 1})
+     * @param hansenStore store providing the Hansen objects
+     * @exception OrekitException if degrees or powers are out of range
+     * @since 9.3
+     */
+    public DSSTZonal(final UnnormalizedSphericalHarmonicsProvider provider,
+                     final int maxDegreeShortPeriodics,
+                     final int maxEccPowShortPeriodics,
+                     final int maxFrequencyShortPeriodics,
+                     final HansenCoefficientsStore hansenStore)
+        throws OrekitException {
 
-        this.provider  = provider;
+        this.provider    = provider;
+        this.hansenStore = hansenStore;
         this.maxDegree = provider.getMaxDegree();
         this.maxOrder  = provider.getMaxOrder();
 
@@ -248,6 +280,14 @@ public class DSSTZonal implements DSSTForceModel {
         }
     }
 
+    /** Get the store providing the Hansen objects.
+     * @return store providing the Hansen objects
+     * @since 9.3
+     */
+    public HansenCoefficientsStore getHansenStore() {
+        return hansenStore;
+    }
+
     /** Get the spherical harmonics provider.
      *  @return the spherical harmonics provider
      */
@@ -280,10 +320,11 @@ public class DSSTZonal implements DSSTForceModel {
         }
 
         //Initialize the HansenCoefficient generator
+        //(the polynomials are shared with other force models using the same store and settings)
         this.hansenObjects = new HansenZonalLinear[maxEccPow + 1];
 
         for (int s = 0; s <= maxEccPow; s++) {
-            this.hansenObjects[s] = new HansenZonalLinear(maxDegree, s);
+            this.hansenObjects[s] = hansenStore.getZonal(maxDegree, s);
         }
 
         final List<ShortPeriodTerms> list = new ArrayList<ShortPeriodTerms>();
@@ -27,8 +27,11 @@ import org.hipparchus.util.FastMath;
  */
 public class GammaMnsFunction {
 
+    /** Lock for the factorial ratios update. */
+    private static final Object LOCK = new Object();
+
     /** Factorial ratios. */
-    private static double[] PRECOMPUTED_RATIOS = new double[0];
+    private static volatile double[] PRECOMPUTED_RATIOS = new double[0];
 
     /** Factorial ratios. */
     private final double[] ratios;
@@ -56,6 +59,19 @@ public class GammaMnsFunction {
         this.I      = I;
     }
 
+    /** Compute eagerly the factorial ratios up to a given degree.
+     * <p>
+     * Calling this method is optional, ratios are computed on the fly
+     * when needed. It may be called once before starting many concurrent
+     * propagations, so the computation is not performed while they run.
+     * </p>
+     * @param nMax max value for n
+     * @since 9.3
+     */
+    public static void precompute(final int nMax) {
+        getRatios(nMax, (nMax + 1) * (nMax + 2) * (4 * nMax + 3) / 6);
+    }
+
     /** Compute the array index.
      *  @param m m
      *  @param n n
@@ -74,7 +90,14 @@ public class GammaMnsFunction {
      * @return factorial ratios
      */
     private static double[] getRatios(final int nMax, final int size) {
-        synchronized (PRECOMPUTED_RATIOS) {
+
+        final double[] precomputed = PRECOMPUTED_RATIOS;
+        if (precomputed.length >= size) {
+            // fast path, without locking
+            return precomputed;
+        }
+
+        synchronized (LOCK) {
             if (PRECOMPUTED_RATIOS.length < size) {
                 // we need to compute a larger reference array
 
@@ -97,11 +120,12 @@ public class GammaMnsFunction {
 
                 }
 
-                // convert to double
-                PRECOMPUTED_RATIOS = new double[size];
+                // convert to double, publishing the array only once it is complete
+                final double[] computed = new double[size];
                 for (int i = 0; i < bF.length; ++i) {
-                    PRECOMPUTED_RATIOS[i] = bF[i].doubleValue();
+                    computed[i] = bF[i].doubleValue();
                 }
+                PRECOMPUTED_RATIOS = computed;
 
             }
             return PRECOMPUTED_RATIOS;
@@ -16,14 +16,12 @@
  */
 package org.orekit.propagation.semianalytical.dsst.utilities;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
 import org.hipparchus.analysis.differentiation.DerivativeStructure;
 import org.hipparchus.analysis.polynomials.PolynomialFunction;
 import org.hipparchus.analysis.polynomials.PolynomialsUtils;
+import org.hipparchus.util.FastMath;
 
 /** Provider of the Jacobi polynomials P<sub>l</sub><sup>v,w</sup>.
  * <p>
@@ -31,15 +29,28 @@ import org.hipparchus.analysis.polynomials.PolynomialsUtils;
  * org.orekit.propagation.semianalytical.dsst.forces.DSSTTesseral
  * tesseral contribution} computation.
  * </p>
+ * <p>
+ * The polynomials are stored in an immutable table indexed by v, w and l,
+ * which is replaced by an extended copy when new polynomials are needed.
+ * Once a polynomial has been generated, looking it up is therefore lock-free
+ * and allocation-free. The table can be filled eagerly using {@link
+ * #precompute(int, int, int)}.
+ * </p>
  *
  * @author Nicolas Bernard
  * @since 6.1
  */
 public class JacobiPolynomials {
 
-    /** Storage map. */
-    private static final Map<JacobiKey, List<PolynomialFunction>> MAP =
-            new HashMap<JacobiPolynomials.JacobiKey, List<PolynomialFunction>>();
+    /** Lock for polynomials generation. */
+    private static final Object LOCK = new Object();
+
+    /** Polynomials storage, indexed by v, w and degree.
+     * <p>
+     * The table is never modified once published, so it can be read without locking.
+     * </p>
+     */
+    private static volatile PolynomialFunction[][][] TABLE = new PolynomialFunction[0][][];
 
     /** Private constructor as class is a utility. */
     private JacobiPolynomials() {
@@ -57,28 +68,10 @@ public class JacobiPolynomials {
      */
     public static DerivativeStructure getValue(final int l, final int v, final int w, final DerivativeStructure gamma) {
 
-        final List<PolynomialFunction> polyList;
-        synchronized (MAP) {
-
-            final JacobiKey key = new JacobiKey(v, w);
-
-            // Check the existence of the corresponding key in the map.
-            if (!MAP.containsKey(key)) {
-                MAP.put(key, new ArrayList<PolynomialFunction>());
-            }
-
-            polyList = MAP.get(key);
-
-        }
-
-        final PolynomialFunction polynomial;
-        synchronized (polyList) {
-            // If the l-th degree polynomial has not been computed yet, the polynomials
-            // up to this degree are computed.
-            for (int degree = polyList.size(); degree <= l; degree++) {
-                polyList.add(degree, PolynomialsUtils.createJacobiPolynomial(degree, v, w));
-            }
-            polynomial = polyList.get(l);
+        PolynomialFunction polynomial = lookup(l, v, w);
+        if (polynomial == null) {
+            // the polynomial has not been generated yet
+            polynomial = generate(l, v, w);
         }
 
         // compute value and derivative
@@ -86,54 +79,81 @@ public class JacobiPolynomials {
 
     }
 
-
-    /** Inner class for Jacobi polynomials keys.
+    /** Generate eagerly the Jacobi polynomials up to a given degree.
      * <p>
-     * Please note that this class is not original content but is a copy from the
-     * Hipparchus library. This library is published under the
-     * Apache License, version 2.0.
+     * Calling this method is optional, polynomials are generated on the fly
+     * when needed. It may be called once before starting many concurrent
+     * propagations, so the generation is not performed while they run.
      * </p>
-     *
-     * @see org.hipparchus.analysis.polynomials.PolynomialsUtils
+     * @param maxL maximum degree of the polynomials
+     * @param maxV maximum v value
+     * @param maxW maximum w value
+     * @since 9.3
      */
-    private static class JacobiKey {
-
-        /** First exponent. */
-        private final int v;
-
-        /** Second exponent. */
-        private final int w;
-
-        /** Simple constructor.
-         * @param v first exponent
-         * @param w second exponent
-         */
-        JacobiKey(final int v, final int w) {
-            this.v = v;
-            this.w = w;
+    public static void precompute(final int maxL, final int maxV, final int maxW) {
+        for (int v = 0; v <= maxV; ++v) {
+            for (int w = 0; w <= maxW; ++w) {
+                if (lookup(maxL, v, w) == null) {
+                    generate(maxL, v, w);
+                }
+            }
         }
+    }
 
-        /** Get hash code.
-         * @return hash code
-         */
-        @Override
-        public int hashCode() {
-            return (v << 16) ^ w;
+    /** Look up an already generated polynomial.
+     * @param l degree of the polynomial
+     * @param v v value
+     * @param w w value
+     * @return polynomial P<sub>l</sub><sup>v,w</sup>, or null if it has not been generated yet
+     */
+    private static PolynomialFunction lookup(final int l, final int v, final int w) {
+        final PolynomialFunction[][][] table = TABLE;
+        if (v < table.length && table[v] != null && w < table[v].length) {
+            final PolynomialFunction[] polynomials = table[v][w];
+            if (polynomials != null && l < polynomials.length) {
+                return polynomials[l];
+            }
         }
+        return null;
+    }
 
-        /** Check if the instance represent the same key as another instance.
-         * @param key other key
-         * @return true if the instance and the other key refer to the same polynomial
-         */
-        @Override
-        public boolean equals(final Object key) {
+    /** Generate polynomials up to a given degree and publish them.
+     * @param l degree of the polynomial
+     * @param v v value
+     * @param w w value
+     * @return polynomial P<sub>l</sub><sup>v,w</sup>
+     */
+    private static PolynomialFunction generate(final int l, final int v, final int w) {
+        synchronized (LOCK) {
 
-            if ((key == null) || !(key instanceof JacobiKey)) {
-                return false;
+            // the polynomial may have been generated by another thread while we were waiting
+            final PolynomialFunction existing = lookup(l, v, w);
+            if (existing != null) {
+                return existing;
             }
 
-            final JacobiKey otherK = (JacobiKey) key;
-            return (v == otherK.v) && (w == otherK.w);
+            // build an extended copy of the table
+            final PolynomialFunction[][][] extended = Arrays.copyOf(TABLE, FastMath.max(TABLE.length, v + 1));
+            final PolynomialFunction[][] row = (extended[v] == null) ?
+                                               new PolynomialFunction[w + 1][] :
+                                               Arrays.copyOf(extended[v], FastMath.max(extended[v].length, w + 1));
+            final PolynomialFunction[] polynomials = (row[w] == null) ?
+                                                     new PolynomialFunction[l + 1] :
+                                                     Arrays.copyOf(row[w], l + 1);
+
+            // If the l-th degree polynomial has not been computed yet, the polynomials
+            // up to this degree are computed.
+            final int start = (row[w] == null) ? 0 : row[w].length;
+            for (int degree = start; degree <= l; degree++) {
+                polynomials[degree] = PolynomialsUtils.createJacobiPolynomial(degree, v, w);
+            }
+
+            // publish the new table
+            row[w]      = polynomials;
+            extended[v] = row;
+            TABLE       = extended;
+
+            return polynomials[l];
 
         }
     }
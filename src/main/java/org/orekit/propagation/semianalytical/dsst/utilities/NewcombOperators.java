@@ -17,9 +17,9 @@
 package org.orekit.propagation.semianalytical.dsst.utilities;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
 import java.util.TreeMap;
 
 import org.hipparchus.analysis.polynomials.PolynomialFunction;
@@ -49,14 +49,18 @@ import org.hipparchus.util.FastMath;
  *
  * <p> P<sub>k<sub>j</sub></sub> = ∑<sub>j=0;ρ</sub> a<sub>j</sub>s<sup>j</sup>
  *
+ * <p> The polynomials are stored in an immutable table indexed by ρ and σ,
+ * which is replaced by an extended copy when new couples are needed. Once the
+ * polynomials for a couple have been generated, evaluating the operators is
+ * therefore lock-free and allocation-free, which allows many propagations to
+ * run concurrently without contention. The table can be filled eagerly using
+ * {@link #precompute(int, int)}.
+ *
  * @author Romain Di Costanzo
  * @author Pascal Parraud
  */
 public class NewcombOperators {
 
-    /** Storage map. */
-    private static final Map<NewKey, Double> MAP = new TreeMap<NewKey, Double>();
-
     /** Private constructor as class is a utility.
      */
     private NewcombOperators() {
@@ -74,15 +78,8 @@ public class NewcombOperators {
      */
     public static double getValue(final int rho, final int sigma, final int n, final int s) {
 
-        final NewKey key = new NewKey(n, s, rho, sigma);
-        synchronized (MAP) {
-            if (MAP.containsKey(key)) {
-                return MAP.get(key);
-            }
-        }
-
         // Get the Newcomb polynomials for the given rho and sigma
-        final List<PolynomialFunction> polynomials = PolynomialsGenerator.getPolynomials(rho, sigma);
+        final PolynomialFunction[] polynomials = PolynomialsGenerator.getPolynomials(rho, sigma);
 
         // Compute the value from the list of polynomials for the given n and s
         double nPower = 1.;
@@ -91,20 +88,41 @@ public class NewcombOperators {
             value += polynomial.value(s) * nPower;
             nPower = n * nPower;
         }
-        synchronized (MAP) {
-            MAP.put(key, value);
-        }
 
         return value;
 
     }
 
+    /** Generate eagerly the Newcomb polynomials up to a given (ρ, σ) couple.
+     * <p>
+     * Calling this method is optional, polynomials are generated on the fly
+     * when needed. It may be called once before starting many concurrent
+     * propagations, so the generation is not performed while they run.
+     * </p>
+     * @param maxRho maximum ρ index
+     * @param maxSigma maximum σ index
+     * @since 9.3
+     */
+    public static void precompute(final int maxRho, final int maxSigma) {
+        for (int rho = 0; rho <= maxRho; ++rho) {
+            for (int sigma = 0; sigma <= maxSigma; ++sigma) {
+                PolynomialsGenerator.getPolynomials(rho, sigma);
+            }
+        }
+    }
+
     /** Generator for Newcomb polynomials. */
     private static class PolynomialsGenerator {
 
-        /** Polynomials storage. */
-        private static final SortedMap<Couple, List<PolynomialFunction>> POLYNOMIALS =
-                new TreeMap<Couple, List<PolynomialFunction>>();
+        /** Lock for polynomials generation. */
+        private static final Object LOCK = new Object();
+
+        /** Polynomials storage, indexed by ρ and σ.
+         * <p>
+         * The table is never modified once published, so it can be read without locking.
+         * </p>
+         */
+        private static volatile PolynomialFunction[][][] POLYNOMIALS = initialPolynomials();
 
         /** Private constructor as class is a utility.
          */
@@ -117,66 +135,119 @@ public class NewcombOperators {
          * </p>
          *  @param rho ρ value
          *  @param sigma σ value
-         *  @return Polynomials representing the Newcomb Operator for the (ρ,σ) couple.
+         *  @return Polynomials representing the Newcomb Operator for the (ρ,σ) couple
+         *  (the array must not be modified).
          */
-        private static List<PolynomialFunction> getPolynomials(final int rho, final int sigma) {
-
-            final Couple couple = new Couple(rho, sigma);
-
-            synchronized (POLYNOMIALS) {
-
-                if (POLYNOMIALS.isEmpty()) {
-                    // Initialize lists
-                    final List<PolynomialFunction> l00 = new ArrayList<PolynomialFunction>();
-                    final List<PolynomialFunction> l01 = new ArrayList<PolynomialFunction>();
-                    final List<PolynomialFunction> l10 = new ArrayList<PolynomialFunction>();
-                    final List<PolynomialFunction> l11 = new ArrayList<PolynomialFunction>();
-
-                    // Y(rho = 0, sigma = 0) = 1
-                    l00.add(new PolynomialFunction(new double[] {
-                        1.
-                    }));
-                    // Y(rho = 0, sigma = 1) =  -s - n/2
-                    l01.add(new PolynomialFunction(new double[] {
-                        0, -1.
-                    }));
-                    l01.add(new PolynomialFunction(new double[] {
-                        -0.5
-                    }));
-                    // Y(rho = 1, sigma = 0) =  s - n/2
-                    l10.add(new PolynomialFunction(new double[] {
-                        0, 1.
-                    }));
-                    l10.add(new PolynomialFunction(new double[] {
-                        -0.5
-                    }));
-                    // Y(rho = 1, sigma = 1) = 3/2 - s² + 5n/4 + n²/4
-                    l11.add(new PolynomialFunction(new double[] {
-                        1.5, 0., -1.
-                    }));
-                    l11.add(new PolynomialFunction(new double[] {
-                        1.25
-                    }));
-                    l11.add(new PolynomialFunction(new double[] {
-                        0.25
-                    }));
-
-                    // Initialize polynomials
-                    POLYNOMIALS.put(new Couple(0, 0), l00);
-                    POLYNOMIALS.put(new Couple(0, 1), l01);
-                    POLYNOMIALS.put(new Couple(1, 0), l10);
-                    POLYNOMIALS.put(new Couple(1, 1), l11);
+        private static PolynomialFunction[] getPolynomials(final int rho, final int sigma) {
 
-                }
+            final PolynomialFunction[] polynomials = lookup(rho, sigma);
+            if (polynomials != null) {
+                // fast path, without locking
+                return polynomials;
+            }
 
-                // If order hasn't been computed yet, update the Newcomb polynomials
-                if (!POLYNOMIALS.containsKey(couple)) {
+            synchronized (LOCK) {
+                // the couple may have been generated by another thread while we were waiting
+                if (lookup(rho, sigma) == null) {
                     PolynomialsGenerator.computeFor(rho, sigma);
                 }
+                return lookup(rho, sigma);
+            }
 
-                return POLYNOMIALS.get(couple);
+        }
 
+        /** Look up the already generated polynomials for a (ρ,σ) couple.
+         *  @param rho ρ value
+         *  @param sigma σ value
+         *  @return polynomials for the (ρ,σ) couple, or null if they have not been generated yet
+         */
+        private static PolynomialFunction[] lookup(final int rho, final int sigma) {
+            final PolynomialFunction[][][] table = POLYNOMIALS;
+            if (rho < table.length && table[rho] != null && sigma < table[rho].length) {
+                return table[rho][sigma];
             }
+            return null;
+        }
+
+        /** Publish the polynomials for a (ρ,σ) couple.
+         * <p>
+         * This method must be called with the lock held.
+         * </p>
+         *  @param rho ρ value
+         *  @param sigma σ value
+         *  @param polynomials polynomials for the (ρ,σ) couple
+         */
+        private static void store(final int rho, final int sigma, final List<PolynomialFunction> polynomials) {
+            POLYNOMIALS = insert(POLYNOMIALS, rho, sigma, polynomials);
+        }
+
+        /** Build an extended copy of a polynomials table.
+         *  @param table table to extend
+         *  @param rho ρ value
+         *  @param sigma σ value
+         *  @param polynomials polynomials for the (ρ,σ) couple
+         *  @return extended copy of the table
+         */
+        private static PolynomialFunction[][][] insert(final PolynomialFunction[][][] table,
+                                                       final int rho, final int sigma,
+                                                       final List<PolynomialFunction> polynomials) {
+            final PolynomialFunction[][][] extended = Arrays.copyOf(table, FastMath.max(table.length, rho + 1));
+            final PolynomialFunction[][] row = (extended[rho] == null) ?
+                                               new PolynomialFunction[sigma + 1][] :
+                                               Arrays.copyOf(extended[rho], FastMath.max(extended[rho].length, sigma + 1));
+            row[sigma]    = polynomials.toArray(new PolynomialFunction[polynomials.size()]);
+            extended[rho] = row;
+            return extended;
+        }
+
+        /** Build the initial polynomials table.
+         *  @return initial polynomials table, for ρ and σ up to 1
+         */
+        private static PolynomialFunction[][][] initialPolynomials() {
+
+            // Initialize lists
+            final List<PolynomialFunction> l00 = new ArrayList<PolynomialFunction>();
+            final List<PolynomialFunction> l01 = new ArrayList<PolynomialFunction>();
+            final List<PolynomialFunction> l10 = new ArrayList<PolynomialFunction>();
+            final List<PolynomialFunction> l11 = new ArrayList<PolynomialFunction>();
+
+            // Y(rho = 0, sigma = 0) = 1
+            l00.add(new PolynomialFunction(new double[] {
+                1.
+            }));
+            // Y(rho = 0, sigma = 1) =  -s - n/2
+            l01.add(new PolynomialFunction(new double[] {
+                0, -1.
+            }));
+            l01.add(new PolynomialFunction(new double[] {
+                -0.5
+            }));
+            // Y(rho = 1, sigma = 0) =  s - n/2
+            l10.add(new PolynomialFunction(new double[] {
+                0, 1.
+            }));
+            l10.add(new PolynomialFunction(new double[] {
+                -0.5
+            }));
+            // Y(rho = 1, sigma = 1) = 3/2 - s² + 5n/4 + n²/4
+            l11.add(new PolynomialFunction(new double[] {
+                1.5, 0., -1.
+            }));
+            l11.add(new PolynomialFunction(new double[] {
+                1.25
+            }));
+            l11.add(new PolynomialFunction(new double[] {
+                0.25
+            }));
+
+            // Initialize polynomials
+            PolynomialFunction[][][] table = new PolynomialFunction[0][][];
+            table = insert(table, 0, 0, l00);
+            table = insert(table, 0, 1, l01);
+            table = insert(table, 1, 0, l10);
+            table = insert(table, 1, 1, l11);
+            return table;
+
         }
 
         /** Compute the Modified Newcomb Operators up to a given (ρ, σ) couple.
@@ -197,41 +268,40 @@ public class NewcombOperators {
             // Compute (s - n) * Y[rho - 2, sigma][n, s + 2]
             if (rho >= 2) {
                 final List<PolynomialFunction> poly = map.get(0);
-                final List<PolynomialFunction> list = getPolynomials(rho - 2, sigma);
+                final List<PolynomialFunction> list = Arrays.asList(getPolynomials(rho - 2, sigma));
                 result = multiplyPolynomialList(poly, shiftList(list, 2));
             }
 
             // Compute 2(2rho + 2sigma + 2 + 3n) * Y[rho - 1, sigma - 1][n, s]
             if (rho >= 1 && sigma >= 1) {
                 final List<PolynomialFunction> poly = map.get(1);
-                final List<PolynomialFunction> list = getPolynomials(rho - 1, sigma - 1);
+                final List<PolynomialFunction> list = Arrays.asList(getPolynomials(rho - 1, sigma - 1));
                 result = sumPolynomialList(result, multiplyPolynomialList(poly, list));
             }
 
             // Compute 2(2s - n) * Y[rho - 1, sigma][n, s + 1]
             if (rho >= 1) {
                 final List<PolynomialFunction> poly = map.get(2);
-                final List<PolynomialFunction> list = getPolynomials(rho - 1, sigma);
+                final List<PolynomialFunction> list = Arrays.asList(getPolynomials(rho - 1, sigma));
                 result = sumPolynomialList(result, multiplyPolynomialList(poly, shiftList(list, 1)));
             }
 
             // Compute -(s + n) * Y[rho, sigma - 2][n, s - 2]
             if (sigma >= 2) {
                 final List<PolynomialFunction> poly = map.get(3);
-                final List<PolynomialFunction> list = getPolynomials(rho, sigma - 2);
+                final List<PolynomialFunction> list = Arrays.asList(getPolynomials(rho, sigma - 2));
                 result = sumPolynomialList(result, multiplyPolynomialList(poly, shiftList(list, -2)));
             }
 
             // Compute -2(2s + n) * Y[rho, sigma - 1][n, s - 1]
             if (sigma >= 1) {
                 final List<PolynomialFunction> poly = map.get(4);
-                final List<PolynomialFunction> list = getPolynomials(rho, sigma - 1);
+                final List<PolynomialFunction> list = Arrays.asList(getPolynomials(rho, sigma - 1));
                 result = sumPolynomialList(result, multiplyPolynomialList(poly, shiftList(list, -1)));
             }
 
             // Save polynomials for current (rho, sigma) couple
-            final Couple couple = new Couple(rho, sigma);
-            POLYNOMIALS.put(couple, result);
+            store(rho, sigma, result);
         }
 
         /** Multiply two lists of polynomials defined as the internal representation of the Newcomb Operator.
@@ -429,143 +499,4 @@ public class NewcombOperators {
 
     }
 
-    /** Private class to define a couple of value. */
-    private static class Couple implements Comparable<Couple> {
-
-        /** first couple value. */
-        private final int rho;
-
-        /** second couple value. */
-        private final int sigma;
-
-        /** Constructor.
-         * @param rho first couple value
-         * @param sigma second couple value
-         */
-        private Couple(final int rho, final int sigma) {
-            this.rho = rho;
-            this.sigma = sigma;
-        }
-
-        /** {@inheritDoc} */
-        public int compareTo(final Couple c) {
-            int result = 1;
-            if (rho == c.rho) {
-                if (sigma < c.sigma) {
-                    result = -1;
-                } else if (sigma == c.sigma) {
-                    result = 0;
-                }
-            } else if (rho < c.rho) {
-                result = -1;
-            }
-            return result;
-        }
-
-        /** {@inheritDoc} */
-        public boolean equals(final Object couple) {
-
-            if (couple == this) {
-                // first fast check
-                return true;
-            }
-
-            if ((couple != null) && (couple instanceof Couple)) {
-                return (rho == ((Couple) couple).rho) && (sigma == ((Couple) couple).sigma);
-            }
-
-            return false;
-
-        }
-
-        /** {@inheritDoc} */
-        public int hashCode() {
-            return 0x7ab17c0c ^ (rho << 8) ^ sigma;
-        }
-
-    }
-
-    /** Newcomb operator's key. */
-    private static class NewKey implements Comparable<NewKey> {
-
-        /** n value. */
-        private final int n;
-
-        /** s value. */
-        private final int s;
-
-        /** ρ value. */
-        private final int rho;
-
-        /** σ value. */
-        private final int sigma;
-
-        /** Simpleconstructor.
-         * @param n n
-         * @param s s
-         * @param rho ρ
-         * @param sigma σ
-         */
-        NewKey(final int n, final int s, final int rho, final int sigma) {
-            this.n = n;
-            this.s = s;
-            this.rho = rho;
-            this.sigma = sigma;
-        }
-
-        /** {@inheritDoc} */
-        public int compareTo(final NewKey key) {
-            int result = 1;
-            if (n == key.n) {
-                if (s == key.s) {
-                    if (rho == key.rho) {
-                        if (sigma < key.sigma) {
-                            result = -1;
-                        } else if (sigma == key.sigma) {
-                            result = 0;
-                        } else {
-                            result = 1;
-                        }
-                    } else if (rho < key.rho) {
-                        result = -1;
-                    } else {
-                        result = 1;
-                    }
-                } else if (s < key.s) {
-                    result = -1;
-                } else {
-                    result = 1;
-                }
-            } else if (n < key.n) {
-                result = -1;
-            }
-            return result;
-        }
-
-        /** {@inheritDoc} */
-        public boolean equals(final Object key) {
-
-            if (key == this) {
-                // first fast check
-                return true;
-            }
-
-            if ((key != null) && (key instanceof NewKey)) {
-                return (n     == ((NewKey) key).n) &&
-                       (s     == ((NewKey) key).s) &&
-                       (rho   == ((NewKey) key).rho) &&
-                       (sigma == ((NewKey) key).sigma);
-            }
-
-            return false;
-
-        }
-
-        /** {@inheritDoc} */
-        public int hashCode() {
-            return 0x25baa451 ^ (n << 24) ^ (s << 16) ^ (rho << 8) ^ sigma;
-        }
-
-    }
-
 }
@@ -211,4 +211,14 @@ public class ShortPeriodicsInterpolatedCoefficient implements Serializable {
             values.add(index, value);
         }
     }
+
+    /** Add all the points of another interpolation grid to this grid.
+     * @param other grid whose points should be added
+     * @since 9.3
+     */
+    public void addGridPoints(final ShortPeriodicsInterpolatedCoefficient other) {
+        for (int i = 0; i < other.abscissae.size(); ++i) {
+            addGridPoint(other.abscissae.get(i), other.values.get(i));
+        }
+    }
 }
@@ -0,0 +1,468 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.semianalytical.dsst.utilities.hansen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hipparchus.analysis.polynomials.PolynomialFunction;
+import org.hipparchus.exception.DummyLocalizable;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+
+/** Store for the eccentricity-independent polynomials used by Hansen coefficients.
+ * <p>
+ * Building {@link HansenZonalLinear} and {@link HansenTesseralLinear} instances
+ * involves generating polynomials by composition of linear transformations and
+ * series expansions based on Newcomb operators. These polynomials depend only
+ * on the truncation settings (maximum degree, s, j, minimum n and maximum power
+ * of e² in Hansen expansion), not on the orbit. This store generates them once
+ * per truncation settings and shares them between all the Hansen objects it
+ * provides, so several DSST force models with the same setup do not rebuild
+ * them. Only the roots computed at each step (which depend on eccentricity)
+ * remain specific to each Hansen object.
+ * </p>
+ * <p>
+ * The store content can be written to and loaded from a compact binary
+ * layout, so the generation cost can be paid once and for all.
+ * </p>
+ * <p>
+ * This class is thread-safe. The DSST force models use the {@link
+ * #getDefaultStore() default store} unless another store is specified
+ * at construction. As stores never evict tables, applications that
+ * need bounded memory can use a dedicated store and {@link #clear()}
+ * it, or use the {@link #getNonCachingStore() non-caching store}.
+ * </p>
+ * @since 9.3
+ */
+public class HansenCoefficientsStore {
+
+    /** Magic number for binary files ("OREKHANS" in ASCII). */
+    private static final long MAGIC = 0x4F52454B48414E53L;
+
+    /** Binary format version. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Type marker for zonal tables. */
+    private static final int ZONAL = 0;
+
+    /** Type marker for tesseral tables. */
+    private static final int TESSERAL = 1;
+
+    /** Default store. */
+    private static final HansenCoefficientsStore DEFAULT_STORE = new HansenCoefficientsStore(true);
+
+    /** Non-caching store. */
+    private static final HansenCoefficientsStore NON_CACHING_STORE = new HansenCoefficientsStore(false);
+
+    /** Stored tables. */
+    private final ConcurrentMap<Key, Tables> tables;
+
+    /** Indicator for retaining the generated tables. */
+    private final boolean caching;
+
+    /** Simple constructor, building an empty store.
+     */
+    public HansenCoefficientsStore() {
+        this(true);
+    }
+
+    /** Private constructor.
+     * @param caching if true, generated tables are retained and shared
+     */
+    private HansenCoefficientsStore(final boolean caching) {
+        this.tables  = new ConcurrentHashMap<>();
+        this.caching = caching;
+    }
+
+    /** Get the default store shared by DSST force models.
+     * @return default store
+     */
+    public static HansenCoefficientsStore getDefaultStore() {
+        return DEFAULT_STORE;
+    }
+
+    /** Get a store that does not retain anything.
+     * <p>
+     * This store generates new polynomials for each Hansen object it provides,
+     * as force models did before stores were introduced. It ignores loaded
+     * tables and always remains empty, so memory used by the polynomials is
+     * released as soon as the force models using them are discarded.
+     * </p>
+     * @return non-caching store
+     */
+    public static HansenCoefficientsStore getNonCachingStore() {
+        return NON_CACHING_STORE;
+    }
+
+    /** Check if the store retains the generated tables.
+     * @return true if the store retains the generated tables
+     */
+    public boolean isCaching() {
+        return caching;
+    }
+
+    /** Get a Hansen object for zonal contributions.
+     * <p>
+     * The polynomials are generated on first call for each
+     * settings and shared afterwards.
+     * </p>
+     * @param nMax the maximum (absolute) value of n coefficient
+     * @param s s coefficient
+     * @return a new Hansen object, sharing its polynomials with
+     * all other objects built with the same settings
+     */
+    public HansenZonalLinear getZonal(final int nMax, final int s) {
+        if (!caching) {
+            return new HansenZonalLinear(nMax, s);
+        }
+        final Tables t = tables.computeIfAbsent(new Key(ZONAL, nMax, s), k -> {
+            final HansenZonalLinear hansen = new HansenZonalLinear(nMax, s);
+            return new Tables(null, hansen.getPolynomials(), hansen.getDerivativePolynomials());
+        });
+        return new HansenZonalLinear(nMax, s, t.mpvec, t.mpvecDeriv);
+    }
+
+    /** Get a Hansen object for tesseral contributions.
+     * <p>
+     * The polynomials are generated on first call for each
+     * settings and shared afterwards.
+     * </p>
+     * @param nMax the maximum (absolute) value of n parameter
+     * @param s s parameter
+     * @param j j parameter
+     * @param n0 the minimum (absolute) value of n
+     * @param maxHansen maximum power of e2 in Hansen expansion
+     * @return a new Hansen object, sharing its polynomials with
+     * all other objects built with the same settings
+     */
+    public HansenTesseralLinear getTesseral(final int nMax, final int s, final int j,
+                                            final int n0, final int maxHansen) {
+        if (!caching) {
+            return new HansenTesseralLinear(nMax, s, j, n0, maxHansen);
+        }
+        final Tables t = tables.computeIfAbsent(new Key(TESSERAL, nMax, s, j, n0, maxHansen), k -> {
+            final HansenTesseralLinear hansen = new HansenTesseralLinear(nMax, s, j, n0, maxHansen);
+            return new Tables(hansen.getSeries(), hansen.getPolynomials(), hansen.getDerivativePolynomials());
+        });
+        return new HansenTesseralLinear(nMax, s, j, n0, maxHansen, t.series, t.mpvec, t.mpvecDeriv);
+    }
+
+    /** Get the number of truncation settings for which tables are stored.
+     * @return number of truncation settings for which tables are stored
+     */
+    public int getTablesNumber() {
+        return tables.size();
+    }
+
+    /** Remove all stored tables.
+     */
+    public void clear() {
+        tables.clear();
+    }
+
+    /** Write the store content to a file in binary form.
+     * @param path path of the file to write
+     * @exception OrekitException if file cannot be written
+     * @see #load(Path)
+     */
+    public void write(final Path path) throws OrekitException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Write the store content to a stream in binary form.
+     * <p>
+     * The stream is flushed but not closed.
+     * </p>
+     * @param out stream where to write the store content
+     * @exception OrekitException if store content cannot be written
+     * @see #load(InputStream, String)
+     */
+    public void write(final OutputStream out) throws OrekitException {
+        try {
+
+            // take a snapshot, as other threads may be adding tables
+            final List<Map.Entry<Key, Tables>> entries = new ArrayList<>(tables.entrySet());
+
+            final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+            dos.writeLong(MAGIC);
+            dos.writeInt(FORMAT_VERSION);
+            dos.writeInt(entries.size());
+            for (final Map.Entry<Key, Tables> entry : entries) {
+                final int[] settings = entry.getKey().settings;
+                dos.writeByte(settings.length);
+                for (final int value : settings) {
+                    dos.writeInt(value);
+                }
+                final Tables t = entry.getValue();
+                writeVector(dos, t.series);
+                dos.writeInt(t.mpvec == null ? -1 : t.mpvec.length);
+                if (t.mpvec != null) {
+                    for (int i = 0; i < t.mpvec.length; ++i) {
+                        writeVector(dos, t.mpvec[i]);
+                        writeVector(dos, t.mpvecDeriv[i]);
+                    }
+                }
+            }
+            dos.flush();
+
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Load tables from a file in binary form.
+     * <p>
+     * The loaded tables are added to the ones already present in the
+     * store, tables already present are preserved.
+     * </p>
+     * @param path path of the file to read
+     * @exception OrekitException if file cannot be read
+     * @see #write(Path)
+     */
+    public void load(final Path path) throws OrekitException {
+        try (InputStream in = Files.newInputStream(path)) {
+            load(in, path.toString());
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Load tables from a stream in binary form.
+     * <p>
+     * The loaded tables are added to the ones already present in the
+     * store, tables already present are preserved. The stream is not
+     * closed.
+     * </p>
+     * @param in stream from which the tables are read
+     * @param name name of the stream (for error messages)
+     * @exception OrekitException if stream cannot be read
+     * @see #write(OutputStream)
+     */
+    public void load(final InputStream in, final String name) throws OrekitException {
+        try {
+
+            final DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+            if (dis.readLong() != MAGIC || dis.readInt() != FORMAT_VERSION) {
+                throw new OrekitException(OrekitMessages.UNSUPPORTED_FILE_FORMAT, name);
+            }
+
+            // read everything before updating the store, so a corrupted
+            // stream does not leave partial content
+            final int nbEntries = dis.readInt();
+            if (nbEntries < 0) {
+                throw new OrekitException(OrekitMessages.CORRUPTED_FILE, name);
+            }
+            final List<Key>    keys   = new ArrayList<>(nbEntries);
+            final List<Tables> values = new ArrayList<>(nbEntries);
+            for (int k = 0; k < nbEntries; ++k) {
+
+                final int[] settings = new int[dis.readUnsignedByte()];
+                for (int i = 0; i < settings.length; ++i) {
+                    settings[i] = dis.readInt();
+                }
+
+                final PolynomialFunction[] series = readVector(dis);
+                final int size = dis.readInt();
+                final PolynomialFunction[][] mpvec;
+                final PolynomialFunction[][] mpvecDeriv;
+                if (size < 0) {
+                    mpvec      = null;
+                    mpvecDeriv = null;
+                } else {
+                    mpvec      = new PolynomialFunction[size][];
+                    mpvecDeriv = new PolynomialFunction[size][];
+                    for (int i = 0; i < size; ++i) {
+                        mpvec[i]      = readVector(dis);
+                        mpvecDeriv[i] = readVector(dis);
+                    }
+                }
+
+                final Tables loaded = new Tables(series, mpvec, mpvecDeriv);
+                if (!isConsistent(settings, loaded)) {
+                    throw new OrekitException(OrekitMessages.CORRUPTED_FILE, name);
+                }
+                keys.add(new Key(settings));
+                values.add(loaded);
+
+            }
+
+            if (caching) {
+                for (int k = 0; k < nbEntries; ++k) {
+                    tables.putIfAbsent(keys.get(k), values.get(k));
+                }
+            }
+
+        } catch (EOFException eofe) {
+            throw new OrekitException(eofe, OrekitMessages.UNEXPECTED_END_OF_FILE, name);
+        } catch (IOException ioe) {
+            throw new OrekitException(ioe, new DummyLocalizable(ioe.getMessage()));
+        }
+    }
+
+    /** Check loaded tables are consistent with their truncation settings.
+     * @param settings truncation settings
+     * @param t loaded tables
+     * @return true if tables sizes match settings
+     */
+    private static boolean isConsistent(final int[] settings, final Tables t) {
+        if (settings.length == 3 && settings[0] == ZONAL) {
+            // see HansenZonalLinear constructor
+            final int size = settings[1] - settings[2] - 1;
+            return t.series == null && t.mpvec != null && t.mpvec.length == size &&
+                   hasLength(t.mpvec, 2) && hasLength(t.mpvecDeriv, 2);
+        } else if (settings.length == 6 && settings[0] == TESSERAL) {
+            // see HansenTesseralLinear constructor
+            final int size = settings[1] - settings[4] - 3;
+            return t.series != null && t.series.length == FastMath.min(4, size + 4) &&
+                   (size > 0 ?
+                    (t.mpvec != null && t.mpvec.length == size &&
+                     hasLength(t.mpvec, 4) && hasLength(t.mpvecDeriv, 4)) :
+                    t.mpvec == null);
+        } else {
+            return false;
+        }
+    }
+
+    /** Check all vectors in a matrix have the expected length.
+     * @param matrix matrix to check
+     * @param length expected length
+     * @return true if all vectors have the expected length
+     */
+    private static boolean hasLength(final PolynomialFunction[][] matrix, final int length) {
+        for (final PolynomialFunction[] vector : matrix) {
+            if (vector == null || vector.length != length) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Write a vector of polynomials.
+     * @param dos output stream
+     * @param vector vector to write (may be null)
+     * @exception IOException if vector cannot be written
+     */
+    private static void writeVector(final DataOutputStream dos, final PolynomialFunction[] vector)
+        throws IOException {
+        dos.writeInt(vector == null ? -1 : vector.length);
+        if (vector != null) {
+            for (final PolynomialFunction polynomial : vector) {
+                final double[] coefficients = polynomial.getCoefficients();
+                dos.writeShort(coefficients.length);
+                for (final double c : coefficients) {
+                    dos.writeDouble(c);
+                }
+            }
+        }
+    }
+
+    /** Read a vector of polynomials.
+     * @param dis input stream
+     * @return vector read (may be null)
+     * @exception IOException if vector cannot be read
+     */
+    private static PolynomialFunction[] readVector(final DataInputStream dis)
+        throws IOException {
+        final int length = dis.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final PolynomialFunction[] vector = new PolynomialFunction[length];
+        for (int i = 0; i < length; ++i) {
+            final double[] coefficients = new double[dis.readUnsignedShort()];
+            for (int k = 0; k < coefficients.length; ++k) {
+                coefficients[k] = dis.readDouble();
+            }
+            vector[i] = new PolynomialFunction(coefficients);
+        }
+        return vector;
+    }
+
+    /** Key for truncation settings. */
+    private static class Key {
+
+        /** Truncation settings (the first element is the type marker). */
+        private final int[] settings;
+
+        /** Simple constructor.
+         * @param settings truncation settings (the first element is the type marker)
+         */
+        Key(final int... settings) {
+            this.settings = settings;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object object) {
+            return object instanceof Key && Arrays.equals(settings, ((Key) object).settings);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(settings);
+        }
+
+    }
+
+    /** Immutable tables shared between Hansen objects. */
+    private static class Tables {
+
+        /** Series expansions in e² used for initial values (null for zonal). */
+        private final PolynomialFunction[] series;
+
+        /** Polynomials associated to Hansen coefficients and derivatives. */
+        private final PolynomialFunction[][] mpvec;
+
+        /** Polynomials associated only to derivatives. */
+        private final PolynomialFunction[][] mpvecDeriv;
+
+        /** Simple constructor.
+         * @param series series expansions in e² used for initial values (null for zonal)
+         * @param mpvec polynomials associated to Hansen coefficients and derivatives
+         * @param mpvecDeriv polynomials associated only to derivatives
+         */
+        Tables(final PolynomialFunction[] series,
+               final PolynomialFunction[][] mpvec, final PolynomialFunction[][] mpvecDeriv) {
+            this.series     = series;
+            this.mpvec      = mpvec;
+            this.mpvecDeriv = mpvecDeriv;
+        }
+
+    }
+
+}
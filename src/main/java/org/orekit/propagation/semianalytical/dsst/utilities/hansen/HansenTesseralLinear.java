@@ -87,6 +87,33 @@ public class HansenTesseralLinear {
      * @param maxHansen maximum power of e2 in Hansen expansion
      */
     public HansenTesseralLinear(final int nMax, final int s, final int j, final int n0, final int maxHansen) {
+        this(nMax, s, j, n0, maxHansen, null, null, null);
+    }
+
+    /**
+     * Constructor reusing already generated polynomials.
+     * <p>
+     * The polynomials depend only on nMax, s, j, n0 and maxHansen, they are
+     * never modified and can therefore be shared between several instances.
+     * </p>
+     *
+     * @param nMax the maximum (absolute) value of n parameter
+     * @param s s parameter
+     * @param j j parameter
+     * @param n0 the minimum (absolute) value of n
+     * @param maxHansen maximum power of e2 in Hansen expansion
+     * @param series polynomials representing the series expansions in e²
+     * used for the initial values (if null, all polynomials will be generated)
+     * @param mpvec polynomials associated to Hansen coefficients and
+     * derivatives (ignored if series is null)
+     * @param mpvecDeriv polynomials associated only to derivatives
+     * (ignored if series is null)
+     * @see HansenCoefficientsStore
+     * @since 9.3
+     */
+    HansenTesseralLinear(final int nMax, final int s, final int j, final int n0, final int maxHansen,
+                         final PolynomialFunction[] series,
+                         final PolynomialFunction[][] mpvec, final PolynomialFunction[][] mpvecDeriv) {
         //Initialize the fields
         this.offset = nMax + 1;
         this.Nmin = -nMax - 1;
@@ -98,7 +125,9 @@ public class HansenTesseralLinear {
         final int maxRoots = FastMath.min(4, N0 - Nmin + 4);
         this.hansenInit = new HansenCoefficientsBySeries[maxRoots];
         for (int i = 0; i < maxRoots; i++) {
-            this.hansenInit[i] = new HansenCoefficientsBySeries(N0 - i + 3, s, j, maxHansen);
+            this.hansenInit[i] = (series == null) ?
+                                 new HansenCoefficientsBySeries(N0 - i + 3, s, j, maxHansen) :
+                                 new HansenCoefficientsBySeries(N0 - i + 3, series[i]);
         }
 
         // The first 4 values are computed with series. No linear combination is needed.
@@ -106,9 +135,12 @@ public class HansenTesseralLinear {
         this.numSlices = (int) FastMath.max(FastMath.ceil(((double) size) / SLICE), 1);
         hansenRoot = new double[numSlices][4];
         hansenDerivRoot = new double[numSlices][4];
-        if (size > 0) {
-            mpvec = new PolynomialFunction[size][];
-            mpvecDeriv = new PolynomialFunction[size][];
+        if (series != null) {
+            this.mpvec      = mpvec;
+            this.mpvecDeriv = mpvecDeriv;
+        } else if (size > 0) {
+            this.mpvec = new PolynomialFunction[size][];
+            this.mpvecDeriv = new PolynomialFunction[size][];
 
             // Prepare the database of the associated polynomials
             generatePolynomials();
@@ -116,6 +148,38 @@ public class HansenTesseralLinear {
 
     }
 
+    /** Get the polynomials representing the series expansions in e² used for the initial values.
+     * @return polynomials representing the series expansions in e²
+     * @since 9.3
+     */
+    PolynomialFunction[] getSeries() {
+        final PolynomialFunction[] series = new PolynomialFunction[hansenInit.length];
+        for (int i = 0; i < series.length; ++i) {
+            series[i] = hansenInit[i].getPolynomial();
+        }
+        return series;
+    }
+
+    /** Get the polynomials associated to Hansen coefficients and derivatives.
+     * @return polynomials associated to Hansen coefficients and derivatives
+     * (the array is shared, it must not be modified, it may be null
+     * if no linear transformation is needed)
+     * @since 9.3
+     */
+    PolynomialFunction[][] getPolynomials() {
+        return mpvec;
+    }
+
+    /** Get the polynomials associated only to derivatives.
+     * @return polynomials associated only to derivatives
+     * (the array is shared, it must not be modified, it may be null
+     * if no linear transformation is needed)
+     * @since 9.3
+     */
+    PolynomialFunction[][] getDerivativePolynomials() {
+        return mpvecDeriv;
+    }
+
     /**
      * Compute polynomial coefficient a.
      *
@@ -445,17 +509,8 @@ public class HansenTesseralLinear {
         /** -n-1 coefficient. */
         private final int mnm1;
 
-        /** s coefficient. */
-        private final int s;
-
-        /** j coefficient. */
-        private final int j;
-
-        /** Max power in e² for the Newcomb's series expansion. */
-        private final int maxNewcomb;
-
         /** Polynomial representing the serie. */
-        private PolynomialFunction polynomial;
+        private final PolynomialFunction polynomial;
 
         /** Factory for the DerivativeStructure instances. */
         private final DSFactory factory;
@@ -470,14 +525,28 @@ public class HansenTesseralLinear {
          */
         HansenCoefficientsBySeries(final int mnm1, final int s,
                                           final int j, final int maxHansen) {
+            this(mnm1, generatePolynomial(mnm1, s, j, maxHansen));
+        }
+
+        /**
+         * Class constructor.
+         *
+         * @param mnm1 -n-1 value
+         * @param polynomial already generated serie expansion in e²
+         */
+        HansenCoefficientsBySeries(final int mnm1, final PolynomialFunction polynomial) {
             this.mnm1 = mnm1;
-            this.s = s;
-            this.j = j;
-            this.maxNewcomb = maxHansen;
-            this.polynomial = generatePolynomial();
+            this.polynomial = polynomial;
             this.factory = new DSFactory(1, 1);
         }
 
+        /** Get the serie expansion in e².
+         * @return polynomial representing the power serie expansion
+         */
+        public PolynomialFunction getPolynomial() {
+            return polynomial;
+        }
+
         /** Computes the value of Hansen kernel and its derivative at e².
          * <p>
          * The formulae applied are described in Danielson 2.7.3-10 and
@@ -507,9 +576,14 @@ public class HansenTesseralLinear {
          * &Sigma; Y<sup>ns</sup><sub>α+a,α+b</sub>
          * *e<sup>2α</sup>
          * </p>
+         * @param mnm1 -n-1 value
+         * @param s s value
+         * @param j j value
+         * @param maxNewcomb max power of e² in series expansion
          * @return polynomial representing the power serie expansion
          */
-        private PolynomialFunction generatePolynomial() {
+        private static PolynomialFunction generatePolynomial(final int mnm1, final int s,
+                                                             final int j, final int maxNewcomb) {
             // Initialization
             final int aHT = FastMath.max(j - s, 0);
             final int bHT = FastMath.max(s - j, 0);
@@ -88,6 +88,27 @@ public class HansenZonalLinear {
      * @param s s coefficient
      */
     public HansenZonalLinear(final int nMax, final int s) {
+        this(nMax, s, null, null);
+    }
+
+    /**
+     * Constructor reusing already generated polynomials.
+     * <p>
+     * The polynomials depend only on nMax and s, they are never modified
+     * and can therefore be shared between several instances.
+     * </p>
+     *
+     * @param nMax the maximum (absolute) value of n coefficient
+     * @param s s coefficient
+     * @param mpvec polynomials associated to Hansen coefficients and
+     * derivatives (if null, they will be generated)
+     * @param mpvecDeriv polynomials associated only to derivatives (if
+     * null, they will be generated)
+     * @see HansenCoefficientsStore
+     * @since 9.3
+     */
+    HansenZonalLinear(final int nMax, final int s,
+                      final PolynomialFunction[][] mpvec, final PolynomialFunction[][] mpvecDeriv) {
 
         //Initialize fields
         this.offset = nMax + 1;
@@ -101,16 +122,39 @@ public class HansenZonalLinear {
 
         // prepare structures for stored data
         final int size = nMax - s - 1;
-        mpvec      = new PolynomialFunction[size][];
-        mpvecDeriv = new PolynomialFunction[size][];
-
         this.numSlices  = FastMath.max((int) FastMath.ceil(((double) size) / SLICE), 1);
         hansenRoot      = new double[numSlices][2];
         hansenDerivRoot = new double[numSlices][2];
 
-        // Prepare the data base of associated polynomials
-        generatePolynomials();
+        if (mpvec == null || mpvecDeriv == null) {
+            this.mpvec      = new PolynomialFunction[size][];
+            this.mpvecDeriv = new PolynomialFunction[size][];
 
+            // Prepare the data base of associated polynomials
+            generatePolynomials();
+        } else {
+            this.mpvec      = mpvec;
+            this.mpvecDeriv = mpvecDeriv;
+        }
+
+    }
+
+    /** Get the polynomials associated to Hansen coefficients and derivatives.
+     * @return polynomials associated to Hansen coefficients and derivatives
+     * (the array is shared, it must not be modified)
+     * @since 9.3
+     */
+    PolynomialFunction[][] getPolynomials() {
+        return mpvec;
+    }
+
+    /** Get the polynomials associated only to derivatives.
+     * @return polynomials associated only to derivatives
+     * (the array is shared, it must not be modified)
+     * @since 9.3
+     */
+    PolynomialFunction[][] getDerivativePolynomials() {
+        return mpvecDeriv;
     }
 
     /**
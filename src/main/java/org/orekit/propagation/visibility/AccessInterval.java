@@ -0,0 +1,130 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.visibility;
+
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeStamped;
+
+/** Time interval during which a satellite is visible from a ground station.
+ * <p>
+ * Instances of this class are immutable. They are created by {@link VisibilityEngine}.
+ * </p>
+ * @see VisibilityEngine
+ * @since 9.3
+ */
+public class AccessInterval implements TimeStamped {
+
+    /** Ground station. */
+    private final TopocentricFrame station;
+
+    /** Index of the station in addition order. */
+    private final int stationIndex;
+
+    /** Index of the satellite in the list provided to the engine. */
+    private final int satelliteIndex;
+
+    /** Satellite. */
+    private final BoundedPropagator satellite;
+
+    /** Start of the interval. */
+    private final AbsoluteDate start;
+
+    /** End of the interval. */
+    private final AbsoluteDate end;
+
+    /** Simple constructor.
+     * @param station ground station
+     * @param stationIndex index of the station in addition order
+     * @param satelliteIndex index of the satellite in the list provided to the engine
+     * @param satellite satellite
+     * @param start start of the interval
+     * @param end end of the interval
+     */
+    AccessInterval(final TopocentricFrame station, final int stationIndex,
+                   final int satelliteIndex, final BoundedPropagator satellite,
+                   final AbsoluteDate start, final AbsoluteDate end) {
+        this.station        = station;
+        this.stationIndex   = stationIndex;
+        this.satelliteIndex = satelliteIndex;
+        this.satellite      = satellite;
+        this.start          = start;
+        this.end            = end;
+    }
+
+    /** Get the ground station.
+     * @return ground station
+     */
+    public TopocentricFrame getStation() {
+        return station;
+    }
+
+    /** Get the index of the station in the engine addition order.
+     * @return index of the station
+     */
+    public int getStationIndex() {
+        return stationIndex;
+    }
+
+    /** Get the index of the satellite in the list provided to the engine.
+     * @return index of the satellite
+     */
+    public int getSatelliteIndex() {
+        return satelliteIndex;
+    }
+
+    /** Get the satellite.
+     * @return satellite
+     */
+    public BoundedPropagator getSatellite() {
+        return satellite;
+    }
+
+    /** Get the start of the interval.
+     * <p>
+     * This is the same as {@link #getStart()}.
+     * </p>
+     * @return start of the interval
+     */
+    @Override
+    public AbsoluteDate getDate() {
+        return start;
+    }
+
+    /** Get the start of the interval.
+     * @return start of the interval
+     */
+    public AbsoluteDate getStart() {
+        return start;
+    }
+
+    /** Get the end of the interval.
+     * @return end of the interval
+     */
+    public AbsoluteDate getEnd() {
+        return end;
+    }
+
+    /** Get the duration of the interval.
+     * @return duration of the interval (s)
+     */
+    public double getDuration() {
+        return end.durationFrom(start);
+    }
+
+}
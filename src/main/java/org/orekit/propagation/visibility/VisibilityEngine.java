@@ -0,0 +1,673 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.visibility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hipparchus.analysis.UnivariateFunction;
+import org.hipparchus.analysis.solvers.AllowedSolution;
+import org.hipparchus.analysis.solvers.BracketedUnivariateSolver;
+import org.hipparchus.analysis.solvers.BracketingNthOrderBrentSolver;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.frames.Transform;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.events.AbstractDetector;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.ElevationMask;
+
+/** Batch engine computing access intervals between many ground stations and many satellites.
+ * <p>
+ * Computing access windows with one {@link org.orekit.propagation.events.ElevationDetector
+ * ElevationDetector} per station and per satellite implies computing a frame transform at each
+ * evaluation of each detector. This engine samples all satellites on a common time grid instead.
+ * At each grid date, the transform from the satellites frames to the stations body frame is computed
+ * only once and shared by all satellites, and elevations are computed with plain vector algebra from
+ * station coordinates precomputed in the body frame.
+ * </p>
+ * <p>
+ * Station/satellite pairs are culled geometrically before elevation is computed: the satellite must be
+ * above the local horizontal plane, within the horizon cone corresponding to the lowest elevation of
+ * the station mask and, if a {@link #setMaxRange(double) maximum range} is set, within range. Only the
+ * pairs whose visibility status changes between two grid dates need root finding, which is performed
+ * with the exact elevation of the satellite at the refined dates.
+ * </p>
+ * <p>
+ * As with event detectors, the {@link #getMaxCheckInterval() grid step} must be smaller than the shortest
+ * access interval and than the shortest gap between access intervals, otherwise some intervals may be missed.
+ * Atmospheric refraction is not taken into account.
+ * </p>
+ * <p>
+ * Satellites are processed in parallel, each satellite being scanned by one thread at a time. The same
+ * propagator instance must therefore not appear twice in the list of satellites.
+ * </p>
+ * @see AccessInterval
+ * @since 9.3
+ */
+public class VisibilityEngine {
+
+    /** Number of grid dates processed between synchronization points. */
+    private static final int CHUNK_SIZE = 256;
+
+    /** Maximum checking interval (s). */
+    private final double maxCheck;
+
+    /** Convergence threshold (s). */
+    private final double threshold;
+
+    /** Maximum number of iterations in the access boundaries search. */
+    private final int maxIter;
+
+    /** Ground stations. */
+    private final List<Station> stations;
+
+    /** Body frame shared by all stations. */
+    private Frame bodyFrame;
+
+    /** Maximum range (m). */
+    private double maxRange;
+
+    /** User-managed executor (null if a new thread pool is created at each computation). */
+    private ExecutorService executor;
+
+    /** Build an engine with default search settings.
+     * <p>
+     * The default maximum checking interval is 60 seconds, the default convergence threshold
+     * and maximum number of iterations are the same as for event detectors.
+     * </p>
+     */
+    public VisibilityEngine() {
+        this(60.0, AbstractDetector.DEFAULT_THRESHOLD, AbstractDetector.DEFAULT_MAX_ITER);
+    }
+
+    /** Build an engine.
+     * @param maxCheck maximum checking interval, i.e. step of the sampling grid (s)
+     * @param threshold convergence threshold for access boundaries (s)
+     * @param maxIter maximum number of iterations in the access boundaries search
+     */
+    public VisibilityEngine(final double maxCheck, final double threshold, final int maxIter) {
+        this.maxCheck  = maxCheck;
+        this.threshold = threshold;
+        this.maxIter   = maxIter;
+        this.stations  = new ArrayList<>();
+        this.bodyFrame = null;
+        this.maxRange  = Double.POSITIVE_INFINITY;
+        this.executor  = null;
+    }
+
+    /** Get the maximum checking interval.
+     * @return maximum checking interval, i.e. step of the sampling grid (s)
+     */
+    public double getMaxCheckInterval() {
+        return maxCheck;
+    }
+
+    /** Get the convergence threshold.
+     * @return convergence threshold for access boundaries (s)
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /** Get the maximum number of iterations in the access boundaries search.
+     * @return maximum number of iterations in the access boundaries search
+     */
+    public int getMaxIterationCount() {
+        return maxIter;
+    }
+
+    /** Add a ground station with a constant minimum elevation.
+     * @param topo topocentric frame of the station
+     * @param minElevation minimum elevation (rad)
+     * @exception OrekitIllegalArgumentException if the station body frame
+     * does not match the body frame of the already added stations
+     */
+    public void addStation(final TopocentricFrame topo, final double minElevation) {
+        addStation(new Station(stations.size(), topo, minElevation, null));
+    }
+
+    /** Add a ground station with an azimuth-dependent elevation mask.
+     * @param topo topocentric frame of the station
+     * @param mask elevation mask
+     * @exception OrekitIllegalArgumentException if the station body frame
+     * does not match the body frame of the already added stations
+     */
+    public void addStation(final TopocentricFrame topo, final ElevationMask mask) {
+        addStation(new Station(stations.size(), topo, mask.getMinElevation(), mask));
+    }
+
+    /** Add a ground station.
+     * @param station station to add
+     * @exception OrekitIllegalArgumentException if the station body frame
+     * does not match the body frame of the already added stations
+     */
+    private void addStation(final Station station) {
+        final Frame frame = station.topo.getParent();
+        if (bodyFrame == null) {
+            bodyFrame = frame;
+        } else if (frame != bodyFrame) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.FRAMES_MISMATCH,
+                                                     frame.getName(), bodyFrame.getName());
+        }
+        stations.add(station);
+    }
+
+    /** Get the ground stations.
+     * @return unmodifiable view of the ground stations topocentric frames, in addition order
+     */
+    public List<TopocentricFrame> getStations() {
+        final List<TopocentricFrame> list = new ArrayList<>(stations.size());
+        for (final Station station : stations) {
+            list.add(station.topo);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /** Set the maximum range between stations and satellites.
+     * @param maxRange maximum range (m), {@code Double.POSITIVE_INFINITY} for no limit
+     * @see #getMaxRange()
+     */
+    public void setMaxRange(final double maxRange) {
+        this.maxRange = maxRange;
+    }
+
+    /** Get the maximum range between stations and satellites.
+     * @return maximum range (m), {@code Double.POSITIVE_INFINITY} if there are no limits
+     * @see #setMaxRange(double)
+     */
+    public double getMaxRange() {
+        return maxRange;
+    }
+
+    /** Set the executor scanning the satellites.
+     * <p>
+     * By default, a new fixed thread pool with one thread per available
+     * processor is created and shut down at each call to {@link
+     * #computeAccesses(List, AbsoluteDate, AbsoluteDate) computeAccesses}.
+     * Setting up a user-managed executor allows to reuse threads across
+     * calls. The executor is never shut down by the engine.
+     * </p>
+     * @param executor executor to use (null to create a new thread pool at each computation)
+     * @see #getExecutor()
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /** Get the executor scanning the satellites.
+     * @return executor scanning the satellites (null if a new thread pool
+     * is created at each computation)
+     * @see #setExecutor(ExecutorService)
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /** Compute access intervals.
+     * <p>
+     * The computation range is the intersection of the specified range with the
+     * validity range of each satellite. Intervals that are ongoing at the boundaries
+     * of this range are truncated to it.
+     * </p>
+     * @param satellites satellites (must be distinct instances)
+     * @param start start of the computation range
+     * @param end end of the computation range
+     * @return access intervals, sorted by satellite index, then by start date,
+     * then by station addition order
+     * @exception OrekitException if some satellite position cannot be computed
+     */
+    public List<AccessInterval> computeAccesses(final List<? extends BoundedPropagator> satellites,
+                                                final AbsoluteDate start, final AbsoluteDate end)
+        throws OrekitException {
+
+        if (stations.isEmpty() || satellites.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // common sampling grid
+        final AbsoluteDate first = start.compareTo(end) <= 0 ? start : end;
+        final AbsoluteDate last  = start.compareTo(end) <= 0 ? end   : start;
+        final double       span  = last.durationFrom(first);
+        final int          n     = FastMath.max(1, (int) FastMath.ceil(span / maxCheck));
+        final double       h     = span / n;
+
+        // scanners for all satellites
+        final List<Scanner> scanners = new ArrayList<>(satellites.size());
+        for (int i = 0; i < satellites.size(); ++i) {
+            scanners.add(new Scanner(i, satellites.get(i), first, last));
+        }
+
+        final ExecutorService executorService =
+                        (executor == null) ?
+                        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()) :
+                        executor;
+        try {
+            final Map<Frame, Transform[]> transforms = new HashMap<>();
+            for (int chunkStart = 0; chunkStart <= n; chunkStart += CHUNK_SIZE) {
+
+                // grid dates for this chunk
+                final AbsoluteDate[] dates = new AbsoluteDate[FastMath.min(CHUNK_SIZE, n + 1 - chunkStart)];
+                for (int k = 0; k < dates.length; ++k) {
+                    final int index = chunkStart + k;
+                    dates[k] = (index == n) ? last : first.shiftedBy(index * h);
+                }
+
+                // transforms shared by all satellites using the same frame
+                transforms.clear();
+                final List<Callable<Void>> tasks = new ArrayList<>(scanners.size());
+                for (final Scanner scanner : scanners) {
+                    if (!scanner.isFinished()) {
+                        Transform[] frameTransforms = transforms.get(scanner.frame);
+                        if (frameTransforms == null) {
+                            frameTransforms = new Transform[dates.length];
+                            for (int k = 0; k < dates.length; ++k) {
+                                frameTransforms[k] = scanner.frame.getTransformTo(bodyFrame, dates[k]);
+                            }
+                            transforms.put(scanner.frame, frameTransforms);
+                        }
+                        final Transform[] t = frameTransforms;
+                        tasks.add(() -> {
+                            scanner.scan(dates, t);
+                            return null;
+                        });
+                    }
+                }
+
+                // scan all satellites in parallel
+                for (final Future<Void> future : executorService.invokeAll(tasks)) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException ee) {
+                        manageException(ee);
+                    }
+                }
+
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new OrekitException(ie, LocalizedCoreFormats.SIMPLE_MESSAGE, ie.getLocalizedMessage());
+        } finally {
+            if (executor == null) {
+                executorService.shutdownNow();
+            }
+        }
+
+        // gather results
+        final List<AccessInterval> accesses = new ArrayList<>();
+        for (final Scanner scanner : scanners) {
+            Collections.sort(scanner.accesses, new Comparator<AccessInterval>() {
+                /** {@inheritDoc} */
+                @Override
+                public int compare(final AccessInterval a1, final AccessInterval a2) {
+                    final int c = a1.getStart().compareTo(a2.getStart());
+                    return c != 0 ? c : Integer.compare(a1.getStationIndex(), a2.getStationIndex());
+                }
+            });
+            accesses.addAll(scanner.accesses);
+        }
+        return accesses;
+
+    }
+
+    /** Manage an exception thrown by a scanning task.
+     * @param exception exception to manage
+     * @exception OrekitException always thrown, wrapping or unwrapping the cause
+     */
+    private void manageException(final ExecutionException exception)
+        throws OrekitException {
+        if (exception.getCause() instanceof OrekitException) {
+            // unwrap the original exception
+            throw (OrekitException) exception.getCause();
+        } else {
+            throw new OrekitException(exception.getCause(),
+                                      LocalizedCoreFormats.SIMPLE_MESSAGE, exception.getLocalizedMessage());
+        }
+    }
+
+    /** Ground station with precomputed body frame coordinates. */
+    private static class Station {
+
+        /** Index of the station. */
+        private final int index;
+
+        /** Topocentric frame of the station. */
+        private final TopocentricFrame topo;
+
+        /** Station position in body frame. */
+        private final Vector3D position;
+
+        /** Zenith direction in body frame. */
+        private final Vector3D zenith;
+
+        /** East direction in body frame. */
+        private final Vector3D east;
+
+        /** North direction in body frame. */
+        private final Vector3D north;
+
+        /** Minimum elevation over all azimuths (rad). */
+        private final double minElevation;
+
+        /** Signed square of the sine of the minimum elevation. */
+        private final double signedSin2;
+
+        /** Elevation mask (null if minimum elevation is constant). */
+        private final ElevationMask mask;
+
+        /** Simple constructor.
+         * @param index index of the station
+         * @param topo topocentric frame of the station
+         * @param minElevation minimum elevation over all azimuths (rad)
+         * @param mask elevation mask (null if minimum elevation is constant)
+         */
+        Station(final int index, final TopocentricFrame topo,
+                final double minElevation, final ElevationMask mask) {
+            final double sin   = FastMath.sin(minElevation);
+            this.index         = index;
+            this.topo          = topo;
+            this.position      = topo.getParentShape().transform(topo.getPoint());
+            this.zenith        = topo.getZenith();
+            this.east          = topo.getEast();
+            this.north         = topo.getNorth();
+            this.minElevation  = minElevation;
+            this.signedSin2    = sin * FastMath.abs(sin);
+            this.mask          = mask;
+        }
+
+        /** Check if a satellite is visible.
+         * @param satellite satellite position in body frame
+         * @param maxRange2 square of the maximum range (m²)
+         * @return true if satellite is visible
+         */
+        boolean isVisible(final Vector3D satellite, final double maxRange2) {
+
+            final double dx = satellite.getX() - position.getX();
+            final double dy = satellite.getY() - position.getY();
+            final double dz = satellite.getZ() - position.getZ();
+
+            // culling with local horizontal plane
+            final double up = dx * zenith.getX() + dy * zenith.getY() + dz * zenith.getZ();
+            if (up <= 0 && minElevation >= 0) {
+                return false;
+            }
+
+            // culling with max range
+            final double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 > maxRange2) {
+                return false;
+            }
+
+            // culling with horizon cone of lowest elevation
+            if (up * FastMath.abs(up) < d2 * signedSin2) {
+                return false;
+            }
+
+            return mask == null || elevationMargin(dx, dy, dz, up) >= 0;
+
+        }
+
+        /** Compute the continuous visibility function, positive when satellite is visible.
+         * @param satellite satellite position in body frame
+         * @param range maximum range (m)
+         * @return visibility function
+         */
+        double g(final Vector3D satellite, final double range) {
+            final double dx = satellite.getX() - position.getX();
+            final double dy = satellite.getY() - position.getY();
+            final double dz = satellite.getZ() - position.getZ();
+            final double up = dx * zenith.getX() + dy * zenith.getY() + dz * zenith.getZ();
+            final double elevationG = elevationMargin(dx, dy, dz, up);
+            if (Double.isInfinite(range)) {
+                return elevationG;
+            }
+            final double rangeG = 1.0 - FastMath.sqrt(dx * dx + dy * dy + dz * dz) / range;
+            return FastMath.min(elevationG, rangeG);
+        }
+
+        /** Compute elevation margin with respect to the mask.
+         * @param dx X component of station to satellite vector in body frame
+         * @param dy Y component of station to satellite vector in body frame
+         * @param dz Z component of station to satellite vector in body frame
+         * @param up component of station to satellite vector along zenith
+         * @return elevation minus mask elevation (rad)
+         */
+        private double elevationMargin(final double dx, final double dy, final double dz, final double up) {
+            final double x         = dx * east.getX()  + dy * east.getY()  + dz * east.getZ();
+            final double y         = dx * north.getX() + dy * north.getY() + dz * north.getZ();
+            final double elevation = FastMath.atan2(up, FastMath.sqrt(x * x + y * y));
+            if (mask == null) {
+                return elevation - minElevation;
+            }
+            double azimuth = FastMath.atan2(x, y);
+            if (azimuth < 0.) {
+                azimuth += MathUtils.TWO_PI;
+            }
+            return elevation - mask.getElevation(azimuth);
+        }
+
+    }
+
+    /** Scanner for one satellite. */
+    private class Scanner {
+
+        /** Index of the satellite. */
+        private final int index;
+
+        /** Satellite. */
+        private final BoundedPropagator satellite;
+
+        /** Frame in which satellite positions are computed before being transformed. */
+        private final Frame frame;
+
+        /** Start of scanning range. */
+        private final AbsoluteDate first;
+
+        /** End of scanning range. */
+        private final AbsoluteDate last;
+
+        /** Square of the maximum range. */
+        private final double maxRange2;
+
+        /** Visibility status at previous date. */
+        private final boolean[] visible;
+
+        /** Start dates of ongoing access intervals. */
+        private final AbsoluteDate[] openings;
+
+        /** Access intervals found so far. */
+        private final List<AccessInterval> accesses;
+
+        /** Root solver. */
+        private final BracketedUnivariateSolver<UnivariateFunction> solver;
+
+        /** Previous date. */
+        private AbsoluteDate previous;
+
+        /** Indicator for finished scanning. */
+        private boolean finished;
+
+        /** Simple constructor.
+         * @param index index of the satellite
+         * @param satellite satellite
+         * @param start start of the computation range
+         * @param end end of the computation range
+         */
+        Scanner(final int index, final BoundedPropagator satellite,
+                final AbsoluteDate start, final AbsoluteDate end) {
+            this.index     = index;
+            this.satellite = satellite;
+            this.frame     = satellite.getFrame();
+            this.first     = start.compareTo(satellite.getMinDate()) >= 0 ? start : satellite.getMinDate();
+            this.last      = end.compareTo(satellite.getMaxDate()) <= 0 ? end : satellite.getMaxDate();
+            this.maxRange2 = maxRange * maxRange;
+            this.visible   = new boolean[stations.size()];
+            this.openings  = new AbsoluteDate[stations.size()];
+            this.accesses  = new ArrayList<>();
+            this.solver    = new BracketingNthOrderBrentSolver(0, threshold, 0, 5);
+            this.previous  = null;
+            this.finished  = first.compareTo(last) > 0;
+        }
+
+        /** Check if scanning is finished.
+         * @return true if scanning is finished
+         */
+        boolean isFinished() {
+            return finished;
+        }
+
+        /** Scan a chunk of the sampling grid.
+         * @param dates grid dates
+         * @param transforms transforms from satellite frame to body frame at grid dates
+         * @exception OrekitException if satellite position cannot be computed
+         */
+        void scan(final AbsoluteDate[] dates, final Transform[] transforms)
+            throws OrekitException {
+            for (int k = 0; k < dates.length && !finished; ++k) {
+
+                final AbsoluteDate date = dates[k];
+
+                if (previous == null) {
+                    // we have not reached the satellite validity range yet
+                    if (date.compareTo(first) < 0) {
+                        continue;
+                    }
+                    final Vector3D p = date.equals(first) ? position(date, transforms[k]) : position(first);
+                    for (final Station station : stations) {
+                        visible[station.index] = station.isVisible(p, maxRange2);
+                        openings[station.index] = visible[station.index] ? first : null;
+                    }
+                    previous = first;
+                    if (date.equals(first) && first.compareTo(last) < 0) {
+                        continue;
+                    }
+                }
+
+                if (date.compareTo(last) >= 0) {
+                    // we have reached the end of the satellite validity range
+                    update(last, date.equals(last) ? position(date, transforms[k]) : position(last));
+                    for (final Station station : stations) {
+                        if (visible[station.index]) {
+                            accesses.add(new AccessInterval(station.topo, station.index, index, satellite,
+                                                            openings[station.index], last));
+                        }
+                    }
+                    finished = true;
+                } else {
+                    update(date, position(date, transforms[k]));
+                }
+
+            }
+        }
+
+        /** Update visibility status.
+         * @param date current date
+         * @param p satellite position in body frame at current date
+         * @exception OrekitException if satellite position cannot be computed
+         */
+        private void update(final AbsoluteDate date, final Vector3D p)
+            throws OrekitException {
+            for (final Station station : stations) {
+                final int     j   = station.index;
+                final boolean now = station.isVisible(p, maxRange2);
+                if (now != visible[j]) {
+                    final AbsoluteDate crossing = locate(station, previous, date, now);
+                    if (now) {
+                        openings[j] = crossing;
+                    } else {
+                        accesses.add(new AccessInterval(station.topo, j, index, satellite, openings[j], crossing));
+                        openings[j] = null;
+                    }
+                    visible[j] = now;
+                }
+            }
+            previous = date;
+        }
+
+        /** Locate a visibility status change.
+         * @param station station whose visibility changes
+         * @param ta date before the change
+         * @param tb date after the change
+         * @param visibleAtEnd visibility status at {@code tb}
+         * @return date of the visibility change
+         * @exception OrekitException if satellite position cannot be computed
+         */
+        private AbsoluteDate locate(final Station station, final AbsoluteDate ta, final AbsoluteDate tb,
+                                    final boolean visibleAtEnd)
+            throws OrekitException {
+            try {
+                final UnivariateFunction f = dt -> {
+                    try {
+                        return station.g(position(ta.shiftedBy(dt)), maxRange);
+                    } catch (OrekitException oe) {
+                        throw new OrekitExceptionWrapper(oe);
+                    }
+                };
+                final double dtb = tb.durationFrom(ta);
+                final double ga  = f.value(0);
+                final double gb  = f.value(dtb);
+                if (ga >= 0 == gb >= 0) {
+                    // the change is only due to numerical noise at the boundary
+                    return (ga >= 0) == visibleAtEnd ? ta : tb;
+                }
+                return ta.shiftedBy(solver.solve(maxIter, f, 0, dtb, AllowedSolution.ANY_SIDE));
+            } catch (OrekitExceptionWrapper oew) {
+                throw oew.getException();
+            }
+        }
+
+        /** Get satellite position in body frame using a shared transform.
+         * @param date date
+         * @param transform transform from satellite frame to body frame at date
+         * @return satellite position in body frame
+         * @exception OrekitException if satellite position cannot be computed
+         */
+        private Vector3D position(final AbsoluteDate date, final Transform transform)
+            throws OrekitException {
+            return transform.transformPosition(satellite.getPVCoordinates(date, frame).getPosition());
+        }
+
+        /** Get satellite position in body frame.
+         * @param date date
+         * @return satellite position in body frame
+         * @exception OrekitException if satellite position cannot be computed
+         */
+        private Vector3D position(final AbsoluteDate date)
+            throws OrekitException {
+            return satellite.getPVCoordinates(date, bodyFrame).getPosition();
+        }
+
+    }
+
+}
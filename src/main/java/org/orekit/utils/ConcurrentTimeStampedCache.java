@@ -0,0 +1,791 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.util.FastMath;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitIllegalStateException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.TimeStampedCacheException;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeStamped;
+
+/** Thread-safe cache for {@link TimeStamped time-stamped} data, with lock-free reads.
+ * <p>
+ * This cache is a drop-in alternative to {@link GenericTimeStampedCache}, with the same
+ * configuration parameters and the same slots management policy. The difference lies
+ * in the way concurrent accesses are handled. Here, the cached slots are immutable
+ * snapshots and the list of slots itself is an immutable snapshot published atomically.
+ * Calls to {@link #getNeighbors(AbsoluteDate)} that can be served by the existing
+ * data therefore never block, whatever the number of threads sharing the cache.
+ * </p>
+ * <p>
+ * When data is missing, the calling thread takes a single regeneration lock, checks
+ * again if another thread did not generate the data in the meantime, builds the
+ * updated slots by copy and publishes them. If several threads miss the same range
+ * at the same time, only the first one calls the generator, the other ones simply
+ * pick up the published result. As generation is serialized, the {@link
+ * TimeStampedGenerator generator} is still called in a thread-safe way.
+ * </p>
+ * <p>
+ * This implementation is well suited for caches that are shared by many threads and
+ * seldom need regeneration, like JPL ephemerides, EOP tidal corrections or frames
+ * interpolation caches. It is selected for Orekit internal caches using {@link
+ * OrekitConfiguration#setLockFreeCaches(boolean)}.
+ * </p>
+ * @param <T> Type of the cached data.
+ * @see GenericTimeStampedCache
+ * @since 9.3
+ */
+public class ConcurrentTimeStampedCache<T extends TimeStamped> implements TimeStampedCache<T> {
+
+    /** Quantum step. */
+    private static final double QUANTUM_STEP = 1.0e-6;
+
+    /** Reference date for indexing. */
+    private final AtomicReference<AbsoluteDate> reference;
+
+    /** Maximum number of independent cached time slots. */
+    private final int maxSlots;
+
+    /** Maximum duration span in seconds of one slot. */
+    private final double maxSpan;
+
+    /** Quantum gap above which a new slot is created instead of extending an existing one. */
+    private final long newSlotQuantumGap;
+
+    /** Generator to use for yet non-cached data. */
+    private final TimeStampedGenerator<T> generator;
+
+    /** Number of entries in a neighbors array. */
+    private final int neighborsSize;
+
+    /** Current snapshot of the independent time slots cached, in chronological order. */
+    private final AtomicReference<List<Slot>> slots;
+
+    /** Number of calls to the getNeighbors method. */
+    private final LongAdder getNeighborsCalls;
+
+    /** Number of calls to the generate method. */
+    private final AtomicInteger generateCalls;
+
+    /** Number of evictions. */
+    private final AtomicInteger evictions;
+
+    /** Lock serializing data regeneration. */
+    private final ReentrantLock generationLock;
+
+    /** Simple constructor.
+     * @param neighborsSize fixed size of the arrays to be returned by {@link
+     * #getNeighbors(AbsoluteDate)}, must be at least 2
+     * @param maxSlots maximum number of independent cached time slots
+     * @param maxSpan maximum duration span in seconds of one slot
+     * (can be set to {@code Double.POSITIVE_INFINITY} if desired)
+     * @param newSlotInterval time interval above which a new slot is created
+     * instead of extending an existing one
+     * @param generator generator to use for yet non-existent data
+     */
+    public ConcurrentTimeStampedCache(final int neighborsSize, final int maxSlots, final double maxSpan,
+                                      final double newSlotInterval, final TimeStampedGenerator<T> generator) {
+
+        // safety check
+        if (maxSlots < 1) {
+            throw new OrekitIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, maxSlots, 1);
+        }
+        if (neighborsSize < 2) {
+            throw new OrekitIllegalArgumentException(OrekitMessages.NOT_ENOUGH_CACHED_NEIGHBORS,
+                                                     neighborsSize, 2);
+        }
+
+        this.reference         = new AtomicReference<AbsoluteDate>();
+        this.maxSlots          = maxSlots;
+        this.maxSpan           = maxSpan;
+        this.newSlotQuantumGap = FastMath.round(newSlotInterval / QUANTUM_STEP);
+        this.generator         = generator;
+        this.neighborsSize     = neighborsSize;
+        this.slots             = new AtomicReference<List<Slot>>(Collections.emptyList());
+        this.getNeighborsCalls = new LongAdder();
+        this.generateCalls     = new AtomicInteger(0);
+        this.evictions         = new AtomicInteger(0);
+        this.generationLock    = new ReentrantLock();
+
+    }
+
+    /** Get the generator.
+     * @return generator
+     */
+    public TimeStampedGenerator<T> getGenerator() {
+        return generator;
+    }
+
+    /** Get the maximum number of independent cached time slots.
+     * @return maximum number of independent cached time slots
+     */
+    public int getMaxSlots() {
+        return maxSlots;
+    }
+
+    /** Get the maximum duration span in seconds of one slot.
+     * @return maximum duration span in seconds of one slot
+     */
+    public double getMaxSpan() {
+        return maxSpan;
+    }
+
+    /** Get quantum gap above which a new slot is created instead of extending an existing one.
+     * <p>
+     * The quantum gap is the {@code newSlotInterval} value provided at construction
+     * rounded to the nearest quantum step used internally by the cache.
+     * </p>
+     * @return quantum gap in seconds
+     */
+    public double getNewSlotQuantumGap() {
+        return newSlotQuantumGap * QUANTUM_STEP;
+    }
+
+    /** Get the number of calls to the {@link #getNeighbors(AbsoluteDate)} method.
+     * <p>
+     * This number of calls is used as a reference to interpret {@link #getGenerateCalls()}.
+     * </p>
+     * @return number of calls to the {@link #getNeighbors(AbsoluteDate)} method
+     * @see #getGenerateCalls()
+     */
+    public int getGetNeighborsCalls() {
+        return getNeighborsCalls.intValue();
+    }
+
+    /** Get the number of calls to the generate method.
+     * <p>
+     * This number of calls is related to the number of cache misses and may
+     * be used to tune the cache configuration. Each cache miss implies at
+     * least one call is performed, but may require several calls if the new
+     * date is far offset from the existing cache, depending on the number of
+     * elements and step between elements in the arrays returned by the generator.
+     * </p>
+     * @return number of calls to the generate method
+     * @see #getGetNeighborsCalls()
+     */
+    public int getGenerateCalls() {
+        return generateCalls.get();
+    }
+
+    /** Get the number of slots evictions.
+     * <p>
+     * This number should remain small when the max number of slots is sufficient
+     * with respect to the number of concurrent requests to the cache. If it
+     * increases too much, then the cache configuration is probably bad and cache
+     * does not really improve things (in this case, the {@link #getGenerateCalls()
+     * number of calls to the generate method} will probably increase too.
+     * </p>
+     * @return number of slots evictions
+     */
+    public int getSlotsEvictions() {
+        return evictions.get();
+    }
+
+    /** Get the number of slots in use.
+     * @return number of slots in use
+     */
+    public int getSlots() {
+        return slots.get().size();
+    }
+
+    /** Get the total number of entries cached.
+     * @return total number of entries cached
+     */
+    public int getEntries() {
+        int entries = 0;
+        for (final Slot slot : slots.get()) {
+            entries += slot.getEntries();
+        }
+        return entries;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T getEarliest() throws IllegalStateException {
+        final List<Slot> current = slots.get();
+        if (current.isEmpty()) {
+            throw new OrekitIllegalStateException(OrekitMessages.NO_CACHED_ENTRIES);
+        }
+        return current.get(0).getEarliest();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T getLatest() throws IllegalStateException {
+        final List<Slot> current = slots.get();
+        if (current.isEmpty()) {
+            throw new OrekitIllegalStateException(OrekitMessages.NO_CACHED_ENTRIES);
+        }
+        return current.get(current.size() - 1).getLatest();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getNeighborsSize() {
+        return neighborsSize;
+    }
+
+    /** Get the entries surrounding a central date.
+     * <p>
+     * If the central date is well within covered range, the returned array
+     * will be balanced with half the points before central date and half the
+     * points after it (depending on n parity, of course). If the central date
+     * is near the generator range boundary, then the returned array will be
+     * unbalanced and will contain only the n earliest (or latest) generated
+     * (and cached) entries. A typical example of the later case is leap seconds
+     * cache, since the number of leap seconds cannot be arbitrarily increased.
+     * </p>
+     * <p>
+     * This method does not block if the entries are already available in the cache.
+     * </p>
+     * @param central central date
+     * @return array of cached entries surrounding specified date (the size
+     * of the array is fixed to the one specified in the {@link
+     * #ConcurrentTimeStampedCache(int, int, double, double, TimeStampedGenerator)}
+     * @exception TimeStampedCacheException if entries are not chronologically
+     * sorted or if new data cannot be generated
+     * @see #getEarliest()
+     * @see #getLatest()
+     */
+    @Override
+    public Stream<T> getNeighbors(final AbsoluteDate central) throws TimeStampedCacheException {
+
+        getNeighborsCalls.increment();
+        final long dateQuantum = quantum(central);
+
+        // fast path, using only the current snapshot
+        final List<Slot> current = slots.get();
+        if (!current.isEmpty()) {
+            final Slot slot  = current.get(slotIndex(current, dateQuantum));
+            final int  first = slot.getFirstNeighbor(dateQuantum);
+            if (first >= 0) {
+                slot.touch();
+                return slot.getNeighbors(first);
+            }
+        }
+
+        // slow path, some data must be generated
+        return generateNeighbors(central, dateQuantum);
+
+    }
+
+    /** Convert a date to a rough global quantum.
+     * @param date date to convert
+     * @return quantum corresponding to the date
+     */
+    private long quantum(final AbsoluteDate date) {
+        reference.compareAndSet(null, date);
+        return FastMath.round(date.durationFrom(reference.get()) / QUANTUM_STEP);
+    }
+
+    /** Get the index of the slot in which a date could be cached.
+     * @param current current snapshot of the slots (must not be empty)
+     * @param dateQuantum quantum of the date to search for
+     * @return the slot in which the date could be cached
+     */
+    private int slotIndex(final List<Slot> current, final long dateQuantum) {
+
+        int  iInf = 0;
+        final long qInf = current.get(iInf).getEarliestQuantum();
+        int  iSup = current.size() - 1;
+        final long qSup = current.get(iSup).getLatestQuantum();
+        while (iSup - iInf > 0) {
+            final int iInterp = (int) ((iInf * (qSup - dateQuantum) + iSup * (dateQuantum - qInf)) / (qSup - qInf));
+            final int iMed    = FastMath.max(iInf, FastMath.min(iInterp, iSup));
+            final Slot slot   = current.get(iMed);
+            if (dateQuantum < slot.getEarliestQuantum()) {
+                iSup = iMed - 1;
+            } else if (dateQuantum > slot.getLatestQuantum()) {
+                iInf = FastMath.min(iSup, iMed + 1);
+            } else {
+                return iMed;
+            }
+        }
+
+        return iInf;
+
+    }
+
+    /** Generate the data needed to serve a date and get its neighbors.
+     * <p>
+     * Only one thread at a time runs this method. The slots snapshot is checked
+     * again once the lock has been acquired, so the work already done by another
+     * thread that missed the same range is reused.
+     * </p>
+     * @param central central date
+     * @param dateQuantum global quantum of the date
+     * @return entries surrounding the central date
+     * @exception TimeStampedCacheException if entries are not chronologically
+     * sorted or if new data cannot be generated
+     */
+    private Stream<T> generateNeighbors(final AbsoluteDate central, final long dateQuantum)
+        throws TimeStampedCacheException {
+
+        generationLock.lock();
+        try {
+
+            List<Slot> current = slots.get();
+
+            // select or create the slot covering the date
+            int index = current.isEmpty() ? 0 : slotIndex(current, dateQuantum);
+            if (current.isEmpty() ||
+                current.get(index).getEarliestQuantum() > dateQuantum + newSlotQuantumGap ||
+                current.get(index).getLatestQuantum()   < dateQuantum - newSlotQuantumGap) {
+
+                // no existing slot is suitable
+                if ((!current.isEmpty()) &&
+                    current.get(index).getLatestQuantum() < dateQuantum - newSlotQuantumGap) {
+                    ++index;
+                }
+
+                final List<Slot> updated = new ArrayList<Slot>(current);
+                if (updated.size() >= maxSlots) {
+                    // we must prevent exceeding allowed max
+
+                    // select the oldest accessed slot for eviction
+                    int evict = 0;
+                    for (int i = 0; i < updated.size(); ++i) {
+                        if (updated.get(i).getLastAccess() < updated.get(evict).getLastAccess()) {
+                            evict = i;
+                        }
+                    }
+
+                    // evict the selected slot
+                    evictions.incrementAndGet();
+                    updated.remove(evict);
+
+                    if (evict < index) {
+                        // adjust index of created slot as it was shifted by the eviction
+                        index--;
+                    }
+                }
+
+                updated.add(index, createSlot(central));
+                current = publish(updated);
+
+            }
+
+            // extend the slot until it can serve the date
+            Slot slot = current.get(index);
+            int first = slot.getFirstNeighbor(dateQuantum);
+            while (first < 0) {
+
+                final int entry = slot.entryIndex(dateQuantum);
+                final boolean before = entry - (neighborsSize - 1) / 2 < 0;
+
+                // estimate which data we need to be generated
+                final double step = slot.getMeanStep();
+                final AbsoluteDate existingDate;
+                final AbsoluteDate generationDate;
+                final boolean simplyRebalance;
+                if (before) {
+                    existingDate    = slot.getEarliest().getDate();
+                    generationDate  = existingDate.shiftedBy(step * (entry - (neighborsSize - 1) / 2));
+                    simplyRebalance = existingDate.compareTo(central) <= 0;
+                } else {
+                    existingDate    = slot.getLatest().getDate();
+                    generationDate  = existingDate.shiftedBy(step * (entry - (neighborsSize - 1) / 2 +
+                                                                     neighborsSize - slot.getEntries()));
+                    simplyRebalance = existingDate.compareTo(central) >= 0;
+                }
+
+                // generate data and add it to the slot
+                Slot extended;
+                try {
+                    generateCalls.incrementAndGet();
+                    final List<T> generated = generateAndCheck(existingDate, generationDate);
+                    extended = before ? slot.insertAtStart(generated) : slot.appendAtEnd(generated);
+                } catch (TimeStampedCacheException tce) {
+                    if (simplyRebalance) {
+                        // we were simply trying to rebalance an unbalanced interval near slot end
+                        // we failed, but the central date is already covered by the existing (unbalanced) data
+                        // so we remember the generator cannot go further and continue with what we have
+                        extended = slot.exhausted(before);
+                    } else {
+                        throw tce;
+                    }
+                }
+
+                final List<Slot> updated = new ArrayList<Slot>(current);
+                updated.set(index, extended);
+                current = publish(updated);
+                slot    = extended;
+                first   = slot.getFirstNeighbor(dateQuantum);
+
+            }
+
+            slot.touch();
+            return slot.getNeighbors(first);
+
+        } finally {
+            generationLock.unlock();
+        }
+
+    }
+
+    /** Publish a new snapshot of the slots.
+     * <p>
+     * We own the generation lock while calling this method, so no other
+     * thread can publish a snapshot concurrently.
+     * </p>
+     * @param updated updated slots
+     * @return published snapshot
+     */
+    private List<Slot> publish(final List<Slot> updated) {
+        final List<Slot> snapshot = Collections.unmodifiableList(updated);
+        slots.set(snapshot);
+        return snapshot;
+    }
+
+    /** Create a new slot.
+     * @param date central date for initial entries to insert in the slot
+     * @return new slot
+     * @exception TimeStampedCacheException if entries are not chronologically
+     * sorted or if new data cannot be generated
+     */
+    private Slot createSlot(final AbsoluteDate date) throws TimeStampedCacheException {
+
+        // set up first entries
+        generateCalls.incrementAndGet();
+        final List<T> first       = new ArrayList<T>(generateAndCheck(null, date));
+        final long[]  firstQuanta = new long[first.size()];
+        for (int i = 0; i < firstQuanta.length; ++i) {
+            firstQuanta[i] = quantum(first.get(i).getDate());
+        }
+        Slot slot = new Slot(first, firstQuanta, false, false);
+
+        while (slot.getEntries() < neighborsSize) {
+            // we need to generate more entries
+
+            final AbsoluteDate entry0 = slot.getEarliest().getDate();
+            final AbsoluteDate entryN = slot.getLatest().getDate();
+            generateCalls.incrementAndGet();
+
+            if (entryN.durationFrom(date) <= date.durationFrom(entry0)) {
+                // generate additional point at the end of the slot
+                final AbsoluteDate generationDate =
+                        entryN.shiftedBy(slot.getMeanStep() * (neighborsSize - slot.getEntries()));
+                slot = slot.appendAtEnd(generateAndCheck(entryN, generationDate));
+            } else {
+                // generate additional point at the start of the slot
+                final AbsoluteDate generationDate =
+                        entry0.shiftedBy(-slot.getMeanStep() * (neighborsSize - slot.getEntries()));
+                slot = slot.insertAtStart(generateAndCheck(entry0, generationDate));
+            }
+
+        }
+
+        return slot;
+
+    }
+
+    /** Generate entries and check ordering.
+     * @param existingDate date of the closest already existing entry (may be null)
+     * @param date date that must be covered by the range of the generated array
+     * @return chronologically sorted list of generated entries
+     * @exception TimeStampedCacheException if if entries are not chronologically
+     * sorted or if new data cannot be generated
+     */
+    private List<T> generateAndCheck(final AbsoluteDate existingDate, final AbsoluteDate date)
+        throws TimeStampedCacheException {
+        final List<T> entries = generator.generate(existingDate, date);
+        if (entries.isEmpty()) {
+            throw new TimeStampedCacheException(OrekitMessages.NO_DATA_GENERATED, date);
+        }
+        for (int i = 1; i < entries.size(); ++i) {
+            if (entries.get(i).getDate().compareTo(entries.get(i - 1).getDate()) < 0) {
+                throw new TimeStampedCacheException(OrekitMessages.NON_CHRONOLOGICALLY_SORTED_ENTRIES,
+                                                    entries.get(i - 1).getDate(),
+                                                    entries.get(i).getDate());
+            }
+        }
+        return entries;
+    }
+
+    /** Immutable time slot.
+     * <p>
+     * Apart from the last access time, which is only used for eviction,
+     * slots are never modified once built. Extending a slot creates a new one.
+     * </p>
+     */
+    private final class Slot {
+
+        /** Cached time-stamped entries. */
+        private final List<T> data;
+
+        /** Global quanta of the entries. */
+        private final long[] quanta;
+
+        /** Indicator for generator unable to provide data before the earliest entry. */
+        private final boolean exhaustedBefore;
+
+        /** Indicator for generator unable to provide data after the latest entry. */
+        private final boolean exhaustedAfter;
+
+        /** Last access time. */
+        private volatile long lastAccess;
+
+        /** Simple constructor.
+         * @param data cached time-stamped entries (will be stored as is)
+         * @param quanta global quanta of the entries (will be stored as is)
+         * @param exhaustedBefore if true, the generator cannot provide data before the earliest entry
+         * @param exhaustedAfter if true, the generator cannot provide data after the latest entry
+         */
+        Slot(final List<T> data, final long[] quanta,
+             final boolean exhaustedBefore, final boolean exhaustedAfter) {
+            this.data            = data;
+            this.quanta          = quanta;
+            this.exhaustedBefore = exhaustedBefore;
+            this.exhaustedAfter  = exhaustedAfter;
+            this.lastAccess      = System.currentTimeMillis();
+        }
+
+        /** Get the earliest entry contained in the slot.
+         * @return earliest entry contained in the slot
+         */
+        public T getEarliest() {
+            return data.get(0);
+        }
+
+        /** Get the quantum of the earliest date contained in the slot.
+         * @return quantum of the earliest date contained in the slot
+         */
+        public long getEarliestQuantum() {
+            return quanta[0];
+        }
+
+        /** Get the latest entry contained in the slot.
+         * @return latest entry contained in the slot
+         */
+        public T getLatest() {
+            return data.get(data.size() - 1);
+        }
+
+        /** Get the quantum of the latest date contained in the slot.
+         * @return quantum of the latest date contained in the slot
+         */
+        public long getLatestQuantum() {
+            return quanta[quanta.length - 1];
+        }
+
+        /** Get the number of entries contained in the slot.
+         * @return number of entries contained in the slot
+         */
+        public int getEntries() {
+            return data.size();
+        }
+
+        /** Get the mean step between entries.
+         * @return mean step between entries (or an arbitrary non-null value
+         * if there are fewer than 2 entries)
+         */
+        private double getMeanStep() {
+            if (data.size() < 2) {
+                return 1.0;
+            } else {
+                return getLatest().getDate().durationFrom(getEarliest().getDate()) / (data.size() - 1);
+            }
+        }
+
+        /** Get last access time of slot.
+         * @return last known access time
+         */
+        public long getLastAccess() {
+            return lastAccess;
+        }
+
+        /** Update the last access time of the slot.
+         */
+        public void touch() {
+            final long now = System.currentTimeMillis();
+            if (lastAccess != now) {
+                // avoid writing to shared memory when not needed
+                lastAccess = now;
+            }
+        }
+
+        /** Get the index of the entry corresponding to a date.
+         * @param dateQuantum global quantum of the date
+         * @return index in the array such that entry[index] is before
+         * date and entry[index + 1] is after date (or they are at array boundaries)
+         */
+        private int entryIndex(final long dateQuantum) {
+            if (dateQuantum < getEarliestQuantum()) {
+                // date if before the first entry
+                return -1;
+            } else if (dateQuantum > getLatestQuantum()) {
+                // date is after the last entry
+                return quanta.length;
+            } else {
+                // binary search for the last entry not after the date
+                int iInf = 0;
+                int iSup = quanta.length - 1;
+                while (iSup > iInf) {
+                    final int iMed = (iInf + iSup + 1) >>> 1;
+                    if (quanta[iMed] <= dateQuantum) {
+                        iInf = iMed;
+                    } else {
+                        iSup = iMed - 1;
+                    }
+                }
+                return iInf;
+            }
+        }
+
+        /** Get the index of the first neighbor of a date, if available.
+         * @param dateQuantum global quantum of the date
+         * @return index of the first neighbor, or -1 if new data must be
+         * generated before the slot can serve the date
+         */
+        public int getFirstNeighbor(final long dateQuantum) {
+            final int index         = entryIndex(dateQuantum);
+            final int firstNeighbor = index - (neighborsSize - 1) / 2;
+            if (firstNeighbor < 0) {
+                // the slot is not balanced around the date, unless the
+                // generator is known to be unable to provide earlier data
+                return (exhaustedBefore && index >= 0) ? 0 : -1;
+            } else if (firstNeighbor + neighborsSize > data.size()) {
+                // the slot is not balanced around the date, unless the
+                // generator is known to be unable to provide later data
+                return (exhaustedAfter && index < data.size()) ? data.size() - neighborsSize : -1;
+            } else {
+                return firstNeighbor;
+            }
+        }
+
+        /** Get the entries surrounding a central date.
+         * @param firstNeighbor index of the first neighbor
+         * @return entries surrounding the date
+         */
+        public Stream<T> getNeighbors(final int firstNeighbor) {
+            return data.subList(firstNeighbor, firstNeighbor + neighborsSize).stream();
+        }
+
+        /** Build a slot with data inserted at start.
+         * @param generated generated data to insert
+         * @return new slot
+         * @exception TimeStampedCacheException if new data cannot be generated
+         */
+        public Slot insertAtStart(final List<T> generated) throws TimeStampedCacheException {
+
+            // select generated data before current start
+            final long   q0        = getEarliestQuantum();
+            final long[] newQuanta = new long[generated.size()];
+            int inserted = 0;
+            while (inserted < generated.size()) {
+                final long quantum = quantum(generated.get(inserted).getDate());
+                if (quantum < q0) {
+                    newQuanta[inserted++] = quantum;
+                } else {
+                    break;
+                }
+            }
+
+            if (inserted == 0) {
+                throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE,
+                                                    getEarliest().getDate());
+            }
+
+            // evict excess data at end
+            final AbsoluteDate t0 = generated.get(0).getDate();
+            int kept = data.size();
+            while (inserted + kept > neighborsSize &&
+                   data.get(kept - 1).getDate().durationFrom(t0) > maxSpan) {
+                --kept;
+            }
+
+            final List<T> mergedData   = new ArrayList<T>(inserted + kept);
+            final long[]  mergedQuanta = new long[inserted + kept];
+            mergedData.addAll(generated.subList(0, inserted));
+            mergedData.addAll(data.subList(0, kept));
+            System.arraycopy(newQuanta, 0, mergedQuanta, 0, inserted);
+            System.arraycopy(quanta, 0, mergedQuanta, inserted, kept);
+
+            return new Slot(mergedData, mergedQuanta, false, exhaustedAfter && kept == data.size());
+
+        }
+
+        /** Build a slot with data appended at end.
+         * @param generated generated data to append
+         * @return new slot
+         * @exception TimeStampedCacheException if new data cannot be generated
+         */
+        public Slot appendAtEnd(final List<T> generated) throws TimeStampedCacheException {
+
+            // select generated data after current end
+            final long   qn        = getLatestQuantum();
+            final long[] newQuanta = new long[generated.size()];
+            int start = generated.size();
+            while (start > 0) {
+                final long quantum = quantum(generated.get(start - 1).getDate());
+                if (quantum > qn) {
+                    newQuanta[--start] = quantum;
+                } else {
+                    break;
+                }
+            }
+            final int appended = generated.size() - start;
+
+            if (appended == 0) {
+                throw new TimeStampedCacheException(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER,
+                                                    getLatest().getDate());
+            }
+
+            // evict excess data at start
+            final AbsoluteDate tn = generated.get(generated.size() - 1).getDate();
+            int skipped = 0;
+            while (data.size() - skipped + appended > neighborsSize &&
+                   tn.durationFrom(data.get(skipped).getDate()) > maxSpan) {
+                ++skipped;
+            }
+            final int kept = data.size() - skipped;
+
+            final List<T> mergedData   = new ArrayList<T>(kept + appended);
+            final long[]  mergedQuanta = new long[kept + appended];
+            mergedData.addAll(data.subList(skipped, data.size()));
+            mergedData.addAll(generated.subList(start, generated.size()));
+            System.arraycopy(quanta, skipped, mergedQuanta, 0, kept);
+            System.arraycopy(newQuanta, start, mergedQuanta, kept, appended);
+
+            return new Slot(mergedData, mergedQuanta, exhaustedBefore && skipped == 0, false);
+
+        }
+
+        /** Build a slot with the same data, but flagged as unable to be extended.
+         * @param before if true, the generator cannot provide data before the earliest entry,
+         * otherwise it cannot provide data after the latest entry
+         * @return new slot
+         */
+        public Slot exhausted(final boolean before) {
+            return new Slot(data, quanta, exhaustedBefore || before, exhaustedAfter || !before);
+        }
+
+    }
+
+}
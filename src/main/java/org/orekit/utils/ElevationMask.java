@@ -68,6 +68,18 @@ public class ElevationMask implements Serializable {
         return elevation;
     }
 
+    /** Get the minimum elevation of the mask over all azimuths.
+     * @return minimum elevation angle (rad)
+     * @since 9.3
+     */
+    public double getMinElevation() {
+        double min = Double.POSITIVE_INFINITY;
+        for (final double[] azel : azelmask) {
+            min = FastMath.min(min, azel[1]);
+        }
+        return min;
+    }
+
     /** Checking and ordering the azimuth-elevation tabulation.
      * @param azimelev azimuth-elevation tabulation to be checked and ordered
      * @return ordered azimuth-elevation tabulation ordered
@@ -140,7 +140,7 @@ public enum IERSConventions {
 
         /** {@inheritDoc} */
         @Override
-        public TimeVectorFunction getXYSpXY2Function()
+        public TimeVectorFunction getXYSpXY2Function(final double truncation)
             throws OrekitException {
 
             // set up nutation arguments
@@ -191,7 +191,7 @@ public enum IERSConventions {
             final PoissonSeries ySum = yParser.parse(getStream(X_Y_SERIES), X_Y_SERIES);
 
             final PoissonSeries.CompiledSeries xySum =
-                    PoissonSeries.compile(xSum, ySum);
+                    PoissonSeries.compile(truncation, xSum, ySum);
 
             // s = -XY/2 + 0.00385″t - 0.07259″t³ - 0.00264″ sin Ω - 0.00006″ sin 2Ω
             //     + 0.00074″t² sin Ω + 0.00006″t² sin 2(F - D + Ω)
@@ -308,7 +308,7 @@ public enum IERSConventions {
 
         /** {@inheritDoc} */
         @Override
-        public TimeVectorFunction getNutationFunction()
+        public TimeVectorFunction getNutationFunction(final double truncation)
             throws OrekitException {
 
             // set up nutation arguments
@@ -332,7 +332,7 @@ public enum IERSConventions {
             final PoissonSeries epsilonSeries = epsilonParser.parse(getStream(PSI_EPSILON_SERIES), PSI_EPSILON_SERIES);
 
             final PoissonSeries.CompiledSeries psiEpsilonSeries =
-                    PoissonSeries.compile(psiSeries, epsilonSeries);
+                    PoissonSeries.compile(truncation, psiSeries, epsilonSeries);
 
             return new TimeVectorFunction() {
 
@@ -822,7 +822,7 @@ public enum IERSConventions {
 
         /** {@inheritDoc} */
         @Override
-        public TimeVectorFunction getXYSpXY2Function()
+        public TimeVectorFunction getXYSpXY2Function(final double truncation)
             throws OrekitException {
 
             // set up nutation arguments
@@ -840,7 +840,7 @@ public enum IERSConventions {
             final PoissonSeries xSeries = parser.parse(getStream(X_SERIES), X_SERIES);
             final PoissonSeries ySeries = parser.parse(getStream(Y_SERIES), Y_SERIES);
             final PoissonSeries sSeries = parser.parse(getStream(S_SERIES), S_SERIES);
-            final PoissonSeries.CompiledSeries xys = PoissonSeries.compile(xSeries, ySeries, sSeries);
+            final PoissonSeries.CompiledSeries xys = PoissonSeries.compile(truncation, xSeries, ySeries, sSeries);
 
             // create a function evaluating the series
             return new TimeVectorFunction() {
@@ -890,7 +890,7 @@ public enum IERSConventions {
 
         /** {@inheritDoc} */
         @Override
-        public TimeVectorFunction getNutationFunction()
+        public TimeVectorFunction getNutationFunction(final double truncation)
             throws OrekitException {
 
             // set up nutation arguments
@@ -927,9 +927,9 @@ public enum IERSConventions {
                     planetaryEpsilonParser.parse(getStream(PLANETARY_SERIES), PLANETARY_SERIES);
 
             final PoissonSeries.CompiledSeries luniSolarSeries =
-                    PoissonSeries.compile(psiLuniSolarSeries, epsilonLuniSolarSeries);
+                    PoissonSeries.compile(truncation, psiLuniSolarSeries, epsilonLuniSolarSeries);
             final PoissonSeries.CompiledSeries planetarySeries =
-                    PoissonSeries.compile(psiPlanetarySeries, epsilonPlanetarySeries);
+                    PoissonSeries.compile(truncation, psiPlanetarySeries, epsilonPlanetarySeries);
 
             return new TimeVectorFunction() {
 
@@ -1578,7 +1578,7 @@ public enum IERSConventions {
 
         /** {@inheritDoc} */
         @Override
-        public TimeVectorFunction getXYSpXY2Function() throws OrekitException {
+        public TimeVectorFunction getXYSpXY2Function(final double truncation) throws OrekitException {
 
             // set up nutation arguments
             final FundamentalNutationArguments arguments = getNutationArguments(null);
@@ -1594,7 +1594,7 @@ public enum IERSConventions {
             final PoissonSeries xSeries = parser.parse(getStream(X_SERIES), X_SERIES);
             final PoissonSeries ySeries = parser.parse(getStream(Y_SERIES), Y_SERIES);
             final PoissonSeries sSeries = parser.parse(getStream(S_SERIES), S_SERIES);
-            final PoissonSeries.CompiledSeries xys = PoissonSeries.compile(xSeries, ySeries, sSeries);
+            final PoissonSeries.CompiledSeries xys = PoissonSeries.compile(truncation, xSeries, ySeries, sSeries);
 
             // create a function evaluating the series
             return new TimeVectorFunction() {
@@ -1929,7 +1929,7 @@ public enum IERSConventions {
 
          /** {@inheritDoc} */
         @Override
-        public TimeVectorFunction getNutationFunction()
+        public TimeVectorFunction getNutationFunction(final double truncation)
             throws OrekitException {
 
             // set up nutation arguments
@@ -1945,7 +1945,7 @@ public enum IERSConventions {
             final PoissonSeries psiSeries     = parser.parse(getStream(PSI_SERIES), PSI_SERIES);
             final PoissonSeries epsilonSeries = parser.parse(getStream(EPSILON_SERIES), EPSILON_SERIES);
             final PoissonSeries.CompiledSeries psiEpsilonSeries =
-                    PoissonSeries.compile(psiSeries, epsilonSeries);
+                    PoissonSeries.compile(truncation, psiSeries, epsilonSeries);
 
             return new TimeVectorFunction() {
 
@@ -2245,7 +2245,28 @@ public enum IERSConventions {
      * @exception OrekitException if table cannot be loaded
      * @since 6.1
      */
-    public abstract TimeVectorFunction getXYSpXY2Function()
+    public TimeVectorFunction getXYSpXY2Function()
+        throws OrekitException {
+        return getXYSpXY2Function(0.0);
+    }
+
+    /** Get the function computing the Celestial Intermediate Pole and Celestial Intermediate Origin components,
+     * ignoring small terms.
+     * <p>
+     * The returned function computes the two X, Y components of CIP and the S+XY/2 component of the non-rotating CIO.
+     * The underlying Poisson series are evaluated by a packed engine (see {@link
+     * PoissonSeries#compile(double, PoissonSeries...)}) that ignores the terms whose amplitude
+     * is below the truncation threshold. As an example, the IERS 2010 tables contain 1311
+     * different terms; a 0.3 µas threshold keeps 935 terms and a 1 µas threshold keeps 567 terms,
+     * with maximum errors between 1980 and 2020 of about 10 µas and 30 µas respectively.
+     * </p>
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @return function computing the Celestial Intermediate Pole and Celestial Intermediate Origin components
+     * @exception OrekitException if table cannot be loaded
+     * @since 9.3
+     */
+    public abstract TimeVectorFunction getXYSpXY2Function(double truncation)
         throws OrekitException;
 
     /** Get the function computing the raw Earth Orientation Angle.
@@ -2290,7 +2311,29 @@ public enum IERSConventions {
      * @exception OrekitException if table cannot be loaded
      * @since 6.1
      */
-    public abstract TimeVectorFunction getNutationFunction()
+    public TimeVectorFunction getNutationFunction()
+        throws OrekitException {
+        return getNutationFunction(0.0);
+    }
+
+    /** Get the function computing the nutation angles, ignoring small terms.
+     * <p>
+     * The function returned computes the two classical angles ΔΨ and Δε,
+     * and the correction to the equation of equinoxes introduced since 1997-02-27 by IAU 1994
+     * resolution C7 (the correction is forced to 0 before this date). The ΔΨ and Δε
+     * series are evaluated by a packed engine (see {@link
+     * PoissonSeries#compile(double, PoissonSeries...)}) that ignores the terms whose
+     * amplitude is below the truncation threshold, the error on each angle being bounded
+     * by the sum of the amplitudes of the ignored terms.
+     * </p>
+     * @param truncation amplitude threshold below which series terms are ignored (rad),
+     * 0 means all terms are used
+     * @return function computing the nutation in longitude ΔΨ and Δε
+     * and the correction of equation of equinoxes
+     * @exception OrekitException if table cannot be loaded
+     * @since 9.3
+     */
+    public abstract TimeVectorFunction getNutationFunction(double truncation)
         throws OrekitException;
 
     /** Get the function computing Greenwich mean sidereal time, in radians.
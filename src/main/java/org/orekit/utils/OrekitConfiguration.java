@@ -16,6 +16,7 @@
  */
 package org.orekit.utils;
 
+import org.orekit.time.TimeStamped;
 
 /** Utility class for setting global configuration parameters.
 
@@ -26,8 +27,12 @@ public class OrekitConfiguration {
     /** Number of slots to use in caches. */
     private static int CACHE_SLOTS_NUMBER;
 
+    /** Indicator for lock-free caches. */
+    private static boolean LOCK_FREE_CACHES;
+
     static {
         CACHE_SLOTS_NUMBER = 100;
+        LOCK_FREE_CACHES   = false;
     }
 
     /** Private constructor.
@@ -52,4 +57,57 @@ public class OrekitConfiguration {
         return CACHE_SLOTS_NUMBER;
     }
 
+    /** Set the implementation to use in time-stamped caches.
+     * <p>
+     * By default, Orekit internal caches (JPL ephemerides, EOP tidal corrections,
+     * interpolated frames...) use {@link GenericTimeStampedCache}, which relies
+     * on a read-write lock. Setting this indicator to true switches to {@link
+     * ConcurrentTimeStampedCache}, which does not lock when data is already
+     * cached and scales better when many threads share the same caches.
+     * </p>
+     * <p>
+     * The indicator is used when caches are built, so it should be set before
+     * the frames and celestial bodies are first used.
+     * </p>
+     * @param lockFree if true, caches built afterwards will be {@link ConcurrentTimeStampedCache}
+     * instances, otherwise they will be {@link GenericTimeStampedCache} instances
+     * @since 9.3
+     */
+    public static void setLockFreeCaches(final boolean lockFree) {
+        OrekitConfiguration.LOCK_FREE_CACHES = lockFree;
+    }
+
+    /** Check if lock-free time-stamped caches are used.
+     * @return true if {@link ConcurrentTimeStampedCache} is used for
+     * caches built afterwards, false if {@link GenericTimeStampedCache} is used
+     * @since 9.3
+     */
+    public static boolean isLockFreeCaches() {
+        return LOCK_FREE_CACHES;
+    }
+
+    /** Create a time-stamped cache, using the configured implementation.
+     * @param <T> Type of the cached data
+     * @param neighborsSize fixed size of the arrays to be returned by {@link
+     * TimeStampedCache#getNeighbors(org.orekit.time.AbsoluteDate)}, must be at least 2
+     * @param maxSlots maximum number of independent cached time slots
+     * @param maxSpan maximum duration span in seconds of one slot
+     * (can be set to {@code Double.POSITIVE_INFINITY} if desired)
+     * @param newSlotInterval time interval above which a new slot is created
+     * instead of extending an existing one
+     * @param generator generator to use for yet non-existent data
+     * @return new cache
+     * @see #setLockFreeCaches(boolean)
+     * @since 9.3
+     */
+    public static <T extends TimeStamped> TimeStampedCache<T>
+        createTimeStampedCache(final int neighborsSize, final int maxSlots, final double maxSpan,
+                               final double newSlotInterval, final TimeStampedGenerator<T> generator) {
+        if (LOCK_FREE_CACHES) {
+            return new ConcurrentTimeStampedCache<T>(neighborsSize, maxSlots, maxSpan, newSlotInterval, generator);
+        } else {
+            return new GenericTimeStampedCache<T>(neighborsSize, maxSlots, maxSpan, newSlotInterval, generator);
+        }
+    }
+
 }
@@ -0,0 +1,211 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.bodies;
+
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.Decimal64;
+import org.hipparchus.util.Decimal64Field;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.FieldAbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+
+public class MappedJPLEphemeridesLoaderTest {
+
+    @Test
+    public void testConstants() throws OrekitException, URISyntaxException {
+        JPLEphemeridesLoader stream =
+            new JPLEphemeridesLoader(JPLEphemeridesLoader.DEFAULT_DE_SUPPORTED_NAMES,
+                                     JPLEphemeridesLoader.EphemerisType.SUN);
+        MappedJPLEphemeridesLoader mapped =
+            new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.SUN, de405Files());
+        Assert.assertEquals(149597870691.0, mapped.getLoadedAstronomicalUnit(), 0.1);
+        Assert.assertEquals(81.30056, mapped.getLoadedEarthMoonMassRatio(), 1.0e-8);
+        Assert.assertTrue(Double.isNaN(mapped.getLoadedConstant("not-a-constant")));
+        for (final JPLEphemeridesLoader.EphemerisType type : JPLEphemeridesLoader.EphemerisType.values()) {
+            Assert.assertEquals(stream.getLoadedGravitationalCoefficient(type),
+                                mapped.getLoadedGravitationalCoefficient(type),
+                                1.0e-15 * stream.getLoadedGravitationalCoefficient(type));
+        }
+    }
+
+    @Test
+    public void testDE405() throws OrekitException, URISyntaxException {
+        for (final JPLEphemeridesLoader.EphemerisType type : JPLEphemeridesLoader.EphemerisType.values()) {
+            checkVersusStream(JPLEphemeridesLoader.DEFAULT_DE_SUPPORTED_NAMES, type, 1.0e-14, de405Files());
+        }
+    }
+
+    @Test
+    public void testDE406() throws OrekitException, URISyntaxException {
+        Utils.setDataRoot("regular-data:regular-data/de406-ephemerides");
+        checkVersusStream(JPLEphemeridesLoader.DEFAULT_DE_SUPPORTED_NAMES,
+                          JPLEphemeridesLoader.EphemerisType.MERCURY, 1.0e-14,
+                          file("regular-data/de406-ephemerides/unxp0000.406"));
+    }
+
+    @Test
+    public void testDE431LittleEndian() throws OrekitException, URISyntaxException {
+        Utils.setDataRoot("regular-data:regular-data/de431-ephemerides");
+        checkVersusStream(JPLEphemeridesLoader.DEFAULT_DE_SUPPORTED_NAMES,
+                          JPLEphemeridesLoader.EphemerisType.MOON, 1.0e-14,
+                          file("regular-data/de431-ephemerides/lnxp0000.431"));
+    }
+
+    @Test
+    public void testInpop() throws OrekitException, URISyntaxException {
+        Utils.setDataRoot("inpop");
+        checkVersusStream("^inpop.*_TCB_.*_bigendian\\.dat$",
+                          JPLEphemeridesLoader.EphemerisType.MARS, 1.0e-14,
+                          file("inpop/inpop10b_TCB_summer_1969_bigendian.dat"));
+        checkVersusStream("^inpop.*_TCB_.*_littleendian\\.dat$",
+                          JPLEphemeridesLoader.EphemerisType.MARS, 1.0e-14,
+                          file("inpop/inpop10b_TCB_summer_1969_littleendian.dat"));
+        checkVersusStream("^inpop.*_TDB_.*_bigendian\\.dat$",
+                          JPLEphemeridesLoader.EphemerisType.MARS, 1.0e-14,
+                          file("inpop/inpop10b_TDB_summer_1969_bigendian.dat"));
+    }
+
+    @Test
+    public void testField() throws OrekitException, URISyntaxException {
+        CelestialBody body =
+            new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.JUPITER, de405Files()).
+            loadCelestialBody(CelestialBodyFactory.JUPITER);
+        AbsoluteDate t0 = new AbsoluteDate(1969, 7, 17, 10, 43, 23.4, TimeScalesFactory.getTT());
+        Frame eme2000   = FramesFactory.getEME2000();
+        for (double dt = 0; dt < 30 * Constants.JULIAN_DAY; dt += 7200) {
+            AbsoluteDate date = t0.shiftedBy(dt);
+            PVCoordinates pv  = body.getPVCoordinates(date, eme2000);
+            FieldVector3D<Decimal64> p =
+                body.getPVCoordinates(new FieldAbsoluteDate<>(Decimal64Field.getInstance(), date), eme2000).getPosition();
+            Assert.assertEquals(0.0, Vector3D.distance(pv.getPosition(), p.toVector3D()),
+                                1.0e-14 * pv.getPosition().getNorm());
+        }
+    }
+
+    @Test
+    public void testDummyEarth() throws OrekitException, URISyntaxException {
+        CelestialBody body =
+            new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.EARTH, de405Files()).
+            loadCelestialBody(CelestialBodyFactory.EARTH);
+        AbsoluteDate date = new AbsoluteDate(1969, 7, 12, TimeScalesFactory.getTT());
+        PVCoordinates pv  = body.getPVCoordinates(date, FramesFactory.getEME2000());
+        Assert.assertEquals(0, pv.getPosition().getNorm(), 1.0e-15);
+        Assert.assertEquals(0, pv.getVelocity().getNorm(), 1.0e-15);
+    }
+
+    @Test
+    public void testOutOfRange() throws OrekitException, URISyntaxException {
+        MappedJPLEphemeridesLoader loader =
+            new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.MOON, de405Files());
+        CelestialBody moon = loader.loadCelestialBody(CelestialBodyFactory.MOON);
+        try {
+            moon.getPVCoordinates(loader.getEndDate().shiftedBy(Constants.JULIAN_DAY), FramesFactory.getGCRF());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.OUT_OF_RANGE_EPHEMERIDES_DATE, oe.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNotJPLFile() throws URISyntaxException {
+        try {
+            new MappedJPLEphemeridesLoader(JPLEphemeridesLoader.EphemerisType.MOON,
+                                           file("regular-data/de405-ephemerides/README.txt"));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertTrue(oe.getSpecifier() == OrekitMessages.UNABLE_TO_READ_JPL_HEADER ||
+                              oe.getSpecifier() == OrekitMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE);
+        }
+    }
+
+    @Test
+    public void testFactory() throws OrekitException, URISyntaxException {
+        AbsoluteDate date = new AbsoluteDate(1969, 7, 17, 10, 43, 23.4, TimeScalesFactory.getTT());
+        Frame eme2000     = FramesFactory.getEME2000();
+        Vector3D pStream  = CelestialBodyFactory.getMars().getPVCoordinates(date, eme2000).getPosition();
+        CelestialBodyFactory.clearCelestialBodyLoaders();
+        CelestialBodyFactory.addMappedCelestialBodyLoader(de405Files());
+        Vector3D pMapped  = CelestialBodyFactory.getMars().getPVCoordinates(date, eme2000).getPosition();
+        Assert.assertEquals(0.0, Vector3D.distance(pStream, pMapped), 1.0e-14 * pStream.getNorm());
+    }
+
+    private void checkVersusStream(final String supportedNames,
+                                   final JPLEphemeridesLoader.EphemerisType type,
+                                   final double relativeTolerance,
+                                   final File... files)
+        throws OrekitException {
+        final String name = type.name();
+        CelestialBody stream = new JPLEphemeridesLoader(supportedNames, type).loadCelestialBody(name);
+        CelestialBody mapped = new MappedJPLEphemeridesLoader(type, files).loadCelestialBody(name);
+        Frame eme2000 = FramesFactory.getEME2000();
+        for (final File file : files) {
+            // the test files are not contiguous, we sample the central part of each one
+            MappedJPLEphemeridesLoader single = new MappedJPLEphemeridesLoader(type, file);
+            double span = single.getEndDate().durationFrom(single.getStartDate());
+            int n       = 100;
+            for (int i = 0; i < n; ++i) {
+                AbsoluteDate date = single.getStartDate().shiftedBy((0.25 + 0.5 * i / n) * span);
+                PVCoordinates pvS = stream.getPVCoordinates(date, eme2000);
+                PVCoordinates pvM = mapped.getPVCoordinates(date, eme2000);
+                Assert.assertEquals(0.0, Vector3D.distance(pvS.getPosition(), pvM.getPosition()),
+                                    relativeTolerance * pvS.getPosition().getNorm() + 1.0e-6);
+                Assert.assertEquals(0.0, Vector3D.distance(pvS.getVelocity(), pvM.getVelocity()),
+                                    relativeTolerance * pvS.getVelocity().getNorm() + 1.0e-9);
+            }
+        }
+    }
+
+    private File[] de405Files() throws URISyntaxException {
+        return new File[] {
+            file("regular-data/de405-ephemerides/unxp0000.405"),
+            file("regular-data/de405-ephemerides/unxp0001.405"),
+            file("regular-data/de405-ephemerides/unxp0002.405"),
+            file("regular-data/de405-ephemerides/unxp0003.405")
+        };
+    }
+
+    private File file(final String name) throws URISyntaxException {
+        return new File(MappedJPLEphemeridesLoaderTest.class.getClassLoader().getResource(name).toURI());
+    }
+
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("regular-data");
+    }
+
+    @After
+    public void tearDown() {
+        CelestialBodyFactory.clearCelestialBodyLoaders();
+    }
+
+}
@@ -20,9 +20,14 @@ package org.orekit.data;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -211,6 +216,56 @@ public class DataProvidersManagerTest {
         Assert.assertEquals(18 * layers, filter.getOpenedCount());
     }
 
+    @Test
+    public void testConcurrentFeeds()
+        throws OrekitException, InterruptedException, ExecutionException {
+        Utils.setDataRoot("regular-data");
+        final DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.clearLoadersMetrics();
+        final int nbThreads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < nbThreads; ++i) {
+                futures.add(executor.submit(() -> {
+                    final CountingLoader loader = new CountingLoader(false);
+                    manager.feed(".*", loader);
+                    return loader.getCount();
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                Assert.assertEquals(18, future.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final DataLoaderMetrics metrics = manager.getLoadersMetrics().get(CountingLoader.class.getName());
+        Assert.assertEquals(CountingLoader.class.getName(), metrics.getLoaderName());
+        Assert.assertEquals(nbThreads, metrics.getFeedsNumber());
+        Assert.assertEquals(18 * nbThreads, metrics.getLoadedFilesNumber());
+        Assert.assertTrue(metrics.getMaxTime() > 0);
+        Assert.assertTrue(metrics.getTotalTime() >= metrics.getMaxTime());
+        manager.clearLoadersMetrics();
+        Assert.assertTrue(manager.getLoadersMetrics().isEmpty());
+    }
+
+    @Test
+    public void testMetricsOnFailure() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.clearLoadersMetrics();
+        try {
+            manager.feed(".*", new CountingLoader(true));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            // expected
+        }
+        final DataLoaderMetrics metrics = manager.getLoadersMetrics().get(CountingLoader.class.getName());
+        Assert.assertEquals(1, metrics.getFeedsNumber());
+        Assert.assertEquals(0, metrics.getLoadedFilesNumber());
+    }
+
     private static class CountingLoader implements DataLoader {
         private boolean shouldFail;
         private int count;
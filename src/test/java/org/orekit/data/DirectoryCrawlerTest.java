@@ -18,6 +18,7 @@ package org.orekit.data;
 
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
@@ -26,11 +27,16 @@ import java.text.ParseException;
 import java.util.regex.Pattern;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.orekit.errors.OrekitException;
 
 public class DirectoryCrawlerTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test(expected=OrekitException.class)
     public void testNoDirectory() throws OrekitException, URISyntaxException {
         File existing = new File(getClass().getClassLoader().getResource("regular-data").toURI().getPath());
@@ -73,6 +79,36 @@ public class DirectoryCrawlerTest {
         Assert.assertEquals(6, crawler.getCount());
     }
 
+    @Test
+    public void testListingCache() throws OrekitException, IOException {
+        final File root = tempFolder.newFolder("cache");
+        createFile(new File(root, "a.txt"));
+        final long t0 = root.lastModified();
+        final DirectoryCrawler directoryCrawler = new DirectoryCrawler(root);
+        CountingLoader crawler = new CountingLoader();
+        Assert.assertTrue(directoryCrawler.feed(Pattern.compile(".*\\.txt$"), crawler));
+        Assert.assertEquals(1, crawler.getCount());
+
+        // a new file with unchanged directory modification time is not seen, as the listing is cached
+        createFile(new File(root, "b.txt"));
+        Assert.assertTrue(root.setLastModified(t0));
+        crawler = new CountingLoader();
+        Assert.assertTrue(directoryCrawler.feed(Pattern.compile(".*\\.txt$"), crawler));
+        Assert.assertEquals(1, crawler.getCount());
+
+        // changing directory modification time invalidates the cached listing
+        Assert.assertTrue(root.setLastModified(t0 + 10000L));
+        crawler = new CountingLoader();
+        Assert.assertTrue(directoryCrawler.feed(Pattern.compile(".*\\.txt$"), crawler));
+        Assert.assertEquals(2, crawler.getCount());
+    }
+
+    private void createFile(final File file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(42);
+        }
+    }
+
     @Test(expected=OrekitException.class)
     public void testIOException() throws OrekitException, URISyntaxException {
         URL url =
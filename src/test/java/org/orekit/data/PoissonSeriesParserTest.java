@@ -550,6 +550,55 @@ public class PoissonSeriesParserTest {
 
     }
 
+    @Test
+    public void testCompilePacked() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        String directory = "/assets/org/orekit/IERS-conventions/";
+        double microAS = Constants.ARC_SECONDS_TO_RADIANS * 1.0e-6;
+        PoissonSeriesParser parser =
+                new PoissonSeriesParser(17).withPolynomialPart('t', PolynomialParser.Unit.MICRO_ARC_SECONDS).
+                    withFirstDelaunay(4).withFirstPlanetary(9).withSinCos(0, 2, microAS, 3, microAS);
+        PoissonSeries xSeries =
+                parser.parse(getClass().getResourceAsStream(directory + "2010/tab5.2a.txt"), "2010/tab5.2a.txt");
+        PoissonSeries ySeries =
+                parser.parse(getClass().getResourceAsStream(directory + "2010/tab5.2b.txt"), "2010/tab5.2b.txt");
+        PoissonSeries sSeries =
+                parser.parse(getClass().getResourceAsStream(directory + "2010/tab5.2d.txt"), "2010/tab5.2d.txt");
+        PoissonSeries.CompiledSeries reference = PoissonSeries.compile(xSeries, ySeries, sSeries);
+        PoissonSeries.CompiledSeries packed    = PoissonSeries.compile(0.0, xSeries, ySeries, sSeries);
+        PoissonSeries.CompiledSeries truncated = PoissonSeries.compile(1.0 * microAS, xSeries, ySeries, sSeries);
+        Assert.assertEquals(2341,
+                            xSeries.getNonPolynomialSize() + ySeries.getNonPolynomialSize() + sSeries.getNonPolynomialSize());
+        Assert.assertEquals(1311, ((PackedCompiledSeries) packed).getNbTerms());
+        Assert.assertEquals(567, ((PackedCompiledSeries) truncated).getNbTerms());
+
+        FundamentalNutationArguments arguments = IERSConventions.IERS_2010.getNutationArguments(null);
+        double maxTruncationError = 0;
+        for (double dt = -20 * Constants.JULIAN_YEAR; dt < 20 * Constants.JULIAN_YEAR; dt += 7.3 * Constants.JULIAN_DAY) {
+            AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(dt);
+            BodiesElements elements = arguments.evaluateAll(date);
+            FieldBodiesElements<Decimal64> fieldElements =
+                    arguments.evaluateAll(new FieldAbsoluteDate<>(Decimal64Field.getInstance(), date));
+            double[]    vRef   = reference.value(elements);
+            double[]    vPack  = packed.value(elements);
+            double[]    vTrunc = truncated.value(elements);
+            double[]    dRef   = reference.derivative(elements);
+            double[]    dPack  = packed.derivative(elements);
+            Decimal64[] vField = packed.value(fieldElements);
+            Decimal64[] dField = packed.derivative(fieldElements);
+            for (int i = 0; i < 3; ++i) {
+                Assert.assertEquals(vRef[i], vPack[i],            1.0e-15 * FastMath.abs(vRef[i]) + 1.0e-22);
+                Assert.assertEquals(vRef[i], vField[i].getReal(), 1.0e-13 * FastMath.abs(vRef[i]) + 1.0e-18);
+                Assert.assertEquals(dRef[i], dPack[i],            1.0e-15 * FastMath.abs(dRef[i]) + 1.0e-25);
+                Assert.assertEquals(dRef[i], dField[i].getReal(), 1.0e-14 * FastMath.abs(dRef[i]) + 1.0e-25);
+                maxTruncationError = FastMath.max(maxTruncationError, FastMath.abs(vTrunc[i] - vRef[i]));
+            }
+        }
+        Assert.assertTrue(maxTruncationError > 1.0 * microAS);
+        Assert.assertTrue(maxTruncationError < 35.0 * microAS);
+
+    }
+
     @Test
     public void testDerivativesAsField() throws OrekitException {
 
@@ -18,17 +18,26 @@ package org.orekit.data;
 
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.orekit.errors.OrekitException;
 
 public class ZipJarCrawlerTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void testMultiZipClasspath() throws OrekitException {
         CountingLoader crawler = new CountingLoader();
@@ -45,6 +54,41 @@ public class ZipJarCrawlerTest {
         Assert.assertEquals(6, crawler.getCount());
     }
 
+    @Test
+    public void testIndex() throws OrekitException, IOException {
+        final File archive = tempFolder.newFile("index.zip");
+        createArchive(archive, "dir/a.txt");
+        final long t0 = archive.lastModified();
+        final ZipJarCrawler zipCrawler = new ZipJarCrawler(archive);
+
+        CountingLoader crawler = new CountingLoader();
+        Assert.assertTrue(zipCrawler.feed(Pattern.compile(".*\\.txt$"), crawler));
+        Assert.assertEquals(1, crawler.getCount());
+
+        // the index is used to skip the archive
+        crawler = new CountingLoader();
+        Assert.assertFalse(zipCrawler.feed(Pattern.compile(".*\\.dat$"), crawler));
+        Assert.assertEquals(0, crawler.getCount());
+        crawler = new CountingLoader();
+        Assert.assertTrue(zipCrawler.feed(Pattern.compile("a\\.txt"), crawler));
+        Assert.assertEquals(1, crawler.getCount());
+
+        // a modified archive invalidates the index
+        createArchive(archive, "dir/b.dat");
+        Assert.assertTrue(archive.setLastModified(t0 + 10000L));
+        crawler = new CountingLoader();
+        Assert.assertTrue(zipCrawler.feed(Pattern.compile(".*\\.dat$"), crawler));
+        Assert.assertEquals(1, crawler.getCount());
+    }
+
+    private void createArchive(final File archive, final String entryName) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry(entryName));
+            zip.write(42);
+            zip.closeEntry();
+        }
+    }
+
     private static class CountingLoader implements DataLoader {
         private int count = 0;
         public boolean stillAcceptsData() {
@@ -18,6 +18,11 @@ package org.orekit.estimation.leastsquares;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -245,6 +250,79 @@ public class BatchLSEstimatorTest {
 
     }
 
+    /**
+     * Parallel measurements evaluation must give the same results as serial evaluation
+     * @throws OrekitException
+     */
+    @Test
+    public void testParallelMeasurementsEvaluation() throws OrekitException {
+
+        Context context = EstimationTestUtils.eccentricContext("regular-data:potential:tides");
+
+        final NumericalPropagatorBuilder propagatorBuilder =
+                        context.createBuilder(OrbitType.KEPLERIAN, PositionAngle.TRUE, true,
+                                              1.0e-6, 60.0, 1.0);
+
+        // create perfect range and range-rate measurements
+        final Propagator propagator = EstimationTestUtils.createPropagator(context.initialOrbit,
+                                                                           propagatorBuilder);
+        final List<ObservedMeasurement<?>> measurements = new ArrayList<>();
+        measurements.addAll(EstimationTestUtils.createMeasurements(propagator,
+                                                                   new RangeMeasurementCreator(context),
+                                                                   1.0, 3.0, 180.0));
+        measurements.addAll(EstimationTestUtils.createMeasurements(propagator,
+                                                                   new RangeRateMeasurementCreator(context, false),
+                                                                   1.0, 3.0, 180.0));
+
+        // count the tasks, measurements should be estimated in one batch per evaluation
+        final AtomicInteger tasks = new AtomicInteger(0);
+        final ExecutorService executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+                                                                new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            protected void beforeExecute(final Thread t, final Runnable r) {
+                tasks.incrementAndGet();
+            }
+        };
+        try {
+            final double[][] points    = new double[2][];
+            final double[][] residuals = new double[2][];
+            final RealMatrix[] jacobians = new RealMatrix[2];
+            final int[] evaluations = new int[2];
+            for (int k = 0; k < 2; ++k) {
+                // each run uses a fresh builder, as estimation updates the builder drivers
+                final BatchLSEstimator estimator = new BatchLSEstimator(new LevenbergMarquardtOptimizer(),
+                                                                        context.createBuilder(OrbitType.KEPLERIAN,
+                                                                                              PositionAngle.TRUE, true,
+                                                                                              1.0e-6, 60.0, 1.0));
+                for (final ObservedMeasurement<?> measurement : measurements) {
+                    estimator.addMeasurement(measurement);
+                }
+                estimator.setParametersConvergenceThreshold(1.0e-2);
+                estimator.setMaxIterations(10);
+                estimator.setMaxEvaluations(20);
+                Assert.assertNull(estimator.getMeasurementsExecutor());
+                if (k == 1) {
+                    estimator.setMeasurementsExecutor(executor);
+                    Assert.assertSame(executor, estimator.getMeasurementsExecutor());
+                }
+                final ParameterDriver aDriver = estimator.getOrbitalParametersDrivers(true).getDrivers().get(0);
+                aDriver.setValue(context.initialOrbit.getA() + 1.2);
+                estimator.estimate();
+                points[k]    = estimator.getOptimum().getPoint().toArray();
+                residuals[k] = estimator.getOptimum().getResiduals().toArray();
+                jacobians[k] = estimator.getOptimum().getJacobian();
+                evaluations[k] = estimator.getEvaluationsCount();
+            }
+            Assert.assertArrayEquals(points[0], points[1], 0.0);
+            Assert.assertArrayEquals(residuals[0], residuals[1], 0.0);
+            Assert.assertEquals(0.0, jacobians[0].subtract(jacobians[1]).getNorm(), 0.0);
+            Assert.assertEquals(4 * evaluations[1], tasks.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
     /**
      * Perfect range measurements with a biased start and an on-board antenna range offset 
      * @throws OrekitException
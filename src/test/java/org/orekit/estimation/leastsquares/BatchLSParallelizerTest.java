@@ -0,0 +1,260 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.estimation.leastsquares;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.optim.nonlinear.vector.leastsquares.LevenbergMarquardtOptimizer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.estimation.Context;
+import org.orekit.estimation.EstimationTestUtils;
+import org.orekit.estimation.measurements.ObservedMeasurement;
+import org.orekit.estimation.measurements.PVMeasurementCreator;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.conversion.DormandPrince853IntegratorBuilder;
+import org.orekit.propagation.conversion.NumericalPropagatorBuilder;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+public class BatchLSParallelizerTest {
+
+    private Context context;
+
+    private List<Orbit> orbits;
+
+    private List<List<ObservedMeasurement<?>>> measurements;
+
+    @Test
+    public void testMultiStart() throws OrekitException {
+
+        final BatchLSContext shared = new BatchLSContext(IERSConventions.IERS_2010, true);
+        final List<BatchLSProblem> problems = new ArrayList<>();
+        for (int i = 0; i < orbits.size(); ++i) {
+            problems.add(new Problem(i, 10, 1000.0, 10.0));
+        }
+
+        final BatchLSParallelizer parallelizer = new BatchLSParallelizer(shared, problems);
+        Assert.assertSame(shared, parallelizer.getContext());
+        Assert.assertEquals(problems, parallelizer.getProblems());
+        Assert.assertNull(parallelizer.getExecutor());
+        final List<Integer> started  = new ArrayList<>();
+        final List<Integer> finished = new ArrayList<>();
+        parallelizer.setProgressObserver(new BatchLSProgressObserver() {
+            @Override
+            public void problemStarted(final int problemIndex, final int problemsNumber) {
+                Assert.assertEquals(orbits.size(), problemsNumber);
+                started.add(problemIndex);
+            }
+            @Override
+            public void problemFinished(final BatchLSResult result, final int finishedNumber, final int problemsNumber) {
+                Assert.assertEquals(orbits.size(), problemsNumber);
+                finished.add(result.getProblemIndex());
+                Assert.assertEquals(finished.size(), finishedNumber);
+            }
+        });
+        Assert.assertNotNull(parallelizer.getProgressObserver());
+
+        final List<BatchLSResult> results = parallelizer.estimate();
+        Assert.assertEquals(orbits.size(), results.size());
+        Assert.assertEquals(orbits.size(), started.size());
+        Assert.assertEquals(orbits.size(), finished.size());
+
+        for (int i = 0; i < orbits.size(); ++i) {
+            final BatchLSResult result = results.get(i);
+            Assert.assertEquals(i, result.getProblemIndex());
+            Assert.assertTrue(started.contains(i));
+            Assert.assertTrue(finished.contains(i));
+            Assert.assertTrue(result.isConverged());
+            Assert.assertEquals(2, result.getStartsNumber());
+            Assert.assertTrue(result.getBestStart() >= 0);
+            Assert.assertTrue(result.getFailures().isEmpty());
+            Assert.assertTrue(result.getIterationsCount() >= 2);
+            Assert.assertTrue(result.getEvaluationsCount() >= result.getIterationsCount());
+            Assert.assertTrue(result.getComputingTime() > 0);
+            Assert.assertTrue(result.getRMS() < 1.0e-4);
+            Assert.assertEquals(result.getEstimator().getOptimum().getRMS(), result.getRMS(), 0.0);
+
+            // the parallel estimation gives the same result as a serial one
+            final BatchLSEstimator serial = new Problem(i, 10, 1000.0, 10.0).createEstimator(shared, result.getBestStart());
+            serial.estimate();
+            Assert.assertEquals(serial.getOptimum().getRMS(), result.getRMS(), 1.0e-15);
+
+            final NumericalPropagator[] propagators = result.getPropagators();
+            Assert.assertEquals(1, propagators.length);
+            final PVCoordinates estimated = propagators[0].getInitialState().getPVCoordinates();
+            final PVCoordinates reference = orbits.get(i).getPVCoordinates();
+            Assert.assertEquals(0.0, Vector3D.distance(reference.getPosition(), estimated.getPosition()), 1.0e-2);
+            Assert.assertEquals(0.0, Vector3D.distance(reference.getVelocity(), estimated.getVelocity()), 1.0e-5);
+        }
+
+    }
+
+    @Test
+    public void testFailuresAndExecutor() throws OrekitException {
+
+        final BatchLSContext shared = new BatchLSContext(IERSConventions.IERS_2010, true);
+        final List<BatchLSProblem> problems = new ArrayList<>();
+        problems.add(new Problem(0, 10, 1000.0));
+        problems.add(new Problem(1, 1, 1000.0));
+        problems.add(new Problem(2, 10, 1000.0));
+        problems.add((c, start) -> {
+            throw new OrekitException(OrekitMessages.INTERNAL_ERROR, "dummy");
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final BatchLSParallelizer parallelizer = new BatchLSParallelizer(shared, problems);
+            parallelizer.setExecutor(executor);
+            Assert.assertSame(executor, parallelizer.getExecutor());
+            final List<BatchLSResult> results = parallelizer.estimate();
+            Assert.assertFalse(executor.isShutdown());
+            Assert.assertEquals(problems.size(), results.size());
+
+            Assert.assertTrue(results.get(0).isConverged());
+            Assert.assertTrue(results.get(2).isConverged());
+
+            // a single iteration is not enough to converge from a wrong start
+            Assert.assertFalse(results.get(1).isConverged());
+            Assert.assertEquals(-1, results.get(1).getBestStart());
+            Assert.assertNull(results.get(1).getEstimator());
+            Assert.assertNull(results.get(1).getPropagators());
+            Assert.assertTrue(Double.isNaN(results.get(1).getRMS()));
+            Assert.assertEquals(0, results.get(1).getIterationsCount());
+            Assert.assertEquals(1, results.get(1).getFailures().size());
+
+            // estimator creation failure
+            Assert.assertFalse(results.get(3).isConverged());
+            Assert.assertEquals(1, results.get(3).getStartsNumber());
+            Assert.assertEquals(1, results.get(3).getFailures().size());
+            Assert.assertEquals(OrekitMessages.INTERNAL_ERROR, results.get(3).getFailures().get(0).getSpecifier());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    @Test
+    public void testGravityField() throws OrekitException {
+        final BatchLSContext shared = new BatchLSContext(IERSConventions.IERS_2010, true, 4, 4);
+        Assert.assertEquals(IERSConventions.IERS_2010, shared.getConventions());
+        Assert.assertNotNull(shared.getEOPHistory());
+        Assert.assertSame(shared.getEOPHistory(), shared.getUT1().getEOPHistory());
+        Assert.assertSame(shared.getITRF(), shared.getEarth().getBodyFrame());
+        Assert.assertEquals("Sun",  shared.getSun().getName());
+        Assert.assertEquals("Moon", shared.getMoon().getName());
+        Assert.assertEquals(4, shared.getGravityField().getMaxDegree());
+        Assert.assertEquals(4, shared.getGravityField().getMaxOrder());
+        Assert.assertNull(new BatchLSContext(IERSConventions.IERS_2010, true).getGravityField());
+    }
+
+    @Test
+    public void testCachedInstances() throws OrekitException {
+        final BatchLSContext shared = new BatchLSContext(IERSConventions.IERS_2010, true);
+        Assert.assertSame(TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true), shared.getUT1());
+        Assert.assertSame(TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true).getEOPHistory(),
+                          shared.getEOPHistory());
+        Assert.assertSame(FramesFactory.getITRF(IERSConventions.IERS_2010, true), shared.getITRF());
+        Assert.assertSame(CelestialBodyFactory.getSun(),  shared.getSun());
+        Assert.assertSame(CelestialBodyFactory.getMoon(), shared.getMoon());
+        final BatchLSContext other = new BatchLSContext(IERSConventions.IERS_2010, true);
+        Assert.assertSame(shared.getUT1(),        other.getUT1());
+        Assert.assertSame(shared.getEOPHistory(), other.getEOPHistory());
+    }
+
+    /** Orbit determination problem from PV measurements, with one start per position error. */
+    private class Problem implements BatchLSProblem {
+
+        private final int index;
+        private final int maxIterations;
+        private final double[] positionErrors;
+
+        Problem(final int index, final int maxIterations, final double... positionErrors) {
+            this.index          = index;
+            this.maxIterations  = maxIterations;
+            this.positionErrors = positionErrors.clone();
+        }
+
+        @Override
+        public int getStartsNumber() {
+            return positionErrors.length;
+        }
+
+        @Override
+        public BatchLSEstimator createEstimator(final BatchLSContext shared, final int start)
+            throws OrekitException {
+            final Orbit reference = orbits.get(index);
+            final PVCoordinates pv = reference.getPVCoordinates();
+            final Orbit guess = new CartesianOrbit(new PVCoordinates(pv.getPosition().add(new Vector3D(positionErrors[start], 0, 0)),
+                                                                     pv.getVelocity().add(new Vector3D(0, 0, 0.01))),
+                                                   reference.getFrame(), reference.getDate(), reference.getMu());
+            final NumericalPropagatorBuilder builder =
+                            new NumericalPropagatorBuilder(OrbitType.KEPLERIAN.convertType(guess),
+                                                           new DormandPrince853IntegratorBuilder(1.0e-6, 60.0, 1.0),
+                                                           PositionAngle.TRUE, 1.0);
+            final BatchLSEstimator estimator = new BatchLSEstimator(new LevenbergMarquardtOptimizer(), builder);
+            for (final ObservedMeasurement<?> measurement : measurements.get(index)) {
+                estimator.addMeasurement(measurement);
+            }
+            estimator.setParametersConvergenceThreshold(1.0e-2);
+            estimator.setMaxIterations(maxIterations);
+            estimator.setMaxEvaluations(2 * maxIterations);
+            return estimator;
+        }
+
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        context = EstimationTestUtils.eccentricContext("regular-data:potential:tides");
+        orbits       = new ArrayList<>();
+        measurements = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            final KeplerianOrbit initial = (KeplerianOrbit) context.initialOrbit;
+            final Orbit orbit = new KeplerianOrbit(initial.getA() + 100000.0 * i, initial.getE(), initial.getI(),
+                                                   initial.getPerigeeArgument(),
+                                                   initial.getRightAscensionOfAscendingNode(),
+                                                   initial.getTrueAnomaly() + 0.5 * i, PositionAngle.TRUE,
+                                                   initial.getFrame(), initial.getDate(), initial.getMu());
+            final NumericalPropagatorBuilder builder =
+                            context.createBuilder(OrbitType.KEPLERIAN, PositionAngle.TRUE, true,
+                                                  1.0e-6, 60.0, 1.0);
+            final Propagator propagator = EstimationTestUtils.createPropagator(orbit, builder);
+            orbits.add(orbit);
+            measurements.add(EstimationTestUtils.createMeasurements(propagator,
+                                                                    new PVMeasurementCreator(),
+                                                                    0.0, 1.0, 300.0));
+        }
+    }
+
+}
@@ -0,0 +1,409 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.files.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.linear.MatrixUtils;
+import org.hipparchus.linear.RealMatrix;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.orekit.Utils;
+import org.orekit.attitudes.LofOffset;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.files.binary.BinaryEphemerisFile.BinaryEphemerisSegment;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.LOFType;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.CompactEphemeris;
+import org.orekit.propagation.analytical.KeplerianPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+public class BinaryEphemerisFileTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private AbsoluteDate initDate;
+    private Frame        inertialFrame;
+    private Propagator   propagator;
+
+    @Test
+    public void testRoundTrip() throws OrekitException, IOException {
+
+        final List<SpacecraftState> states = sample(initDate, 7200.0, 60.0, 0.0);
+        final List<RealMatrix> covariances = new ArrayList<>();
+        for (int k = 0; k < states.size(); ++k) {
+            final RealMatrix m = MatrixUtils.createRealMatrix(6, 6);
+            for (int i = 0; i < 6; ++i) {
+                for (int j = 0; j <= i; ++j) {
+                    m.setEntry(i, j, k + 0.1 * i + 0.01 * j);
+                    m.setEntry(j, i, k + 0.1 * i + 0.01 * j);
+                }
+            }
+            covariances.add(m);
+        }
+
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", CelestialBodyFactory.EARTH, states, covariances, 8, true);
+        final File file = tempFolder.newFile("round-trip.oeb");
+        writer.write(file.toPath());
+
+        final BinaryEphemerisFile read = new BinaryEphemerisReader().read(file.getAbsolutePath());
+        Assert.assertEquals(1, read.getSatellites().size());
+        Assert.assertEquals(1, read.getSegments().size());
+        final BinaryEphemerisSegment segment = read.getSatellites().get("2004-001A").getSegments().get(0);
+        Assert.assertEquals("2004-001A", segment.getObjectID());
+        Assert.assertEquals(CelestialBodyFactory.EARTH, segment.getFrameCenterString());
+        Assert.assertEquals(inertialFrame.getName(), segment.getFrameString());
+        Assert.assertSame(inertialFrame, segment.getFrame());
+        Assert.assertEquals(propagator.getInitialState().getMu(), segment.getMu(), 0.0);
+        Assert.assertEquals(8, segment.getInterpolationSamples());
+        Assert.assertTrue(segment.hasAttitude());
+        Assert.assertTrue(segment.hasCovariance());
+        Assert.assertEquals(Arrays.asList("dummy"), Arrays.asList(segment.getAdditionalStatesNames()));
+        Assert.assertEquals(states.size(), segment.getSize());
+        Assert.assertEquals(states.size(), segment.getCoordinates().size());
+        Assert.assertEquals(states.get(0).getDate(), segment.getStart());
+        Assert.assertEquals(states.get(states.size() - 1).getDate(), segment.getStop());
+
+        // records are restored exactly
+        for (int i = 0; i < states.size(); ++i) {
+            final SpacecraftState expected = states.get(i);
+            final SpacecraftState actual   = segment.getState(i);
+            Assert.assertEquals(expected.getDate(), actual.getDate());
+            final TimeStampedPVCoordinates pv = segment.getCoordinates().get(i);
+            Assert.assertEquals(expected.getPVCoordinates().getPosition(), pv.getPosition());
+            Assert.assertEquals(expected.getPVCoordinates().getVelocity(), pv.getVelocity());
+            Assert.assertEquals(expected.getPVCoordinates().getAcceleration(), pv.getAcceleration());
+            Assert.assertEquals(expected.getPVCoordinates().getPosition(), actual.getPVCoordinates().getPosition());
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(expected.getAttitude().getSpin(), actual.getAttitude().getSpin()),
+                                1.0e-20);
+            Assert.assertEquals(0.0,
+                                Rotation.distance(expected.getAttitude().getRotation(),
+                                                                                          actual.getAttitude().getRotation()),
+                                1.0e-15);
+            Assert.assertEquals(expected.getMass(), actual.getMass(), 0.0);
+            Assert.assertArrayEquals(expected.getAdditionalState("dummy"), actual.getAdditionalState("dummy"), 0.0);
+            Assert.assertArrayEquals(expected.getAdditionalState("dummy"), segment.getAdditionalState(i, "dummy"), 0.0);
+            Assert.assertEquals(0.0, covariances.get(i).subtract(segment.getCovariance(i)).getNorm(), 0.0);
+        }
+
+        // interpolation is consistent with in-memory compact ephemeris
+        final CompactEphemeris reference = new CompactEphemeris(states, 8);
+        final BoundedPropagator mapped   = read.getSatellites().get("2004-001A").getPropagator();
+        Assert.assertEquals(reference.getMinDate(), mapped.getMinDate());
+        Assert.assertEquals(reference.getMaxDate(), mapped.getMaxDate());
+        for (double dt = 0; dt <= 7200.0; dt += 7.25) {
+            final AbsoluteDate date = initDate.shiftedBy(dt);
+            final SpacecraftState expected = reference.propagate(date);
+            final SpacecraftState actual   = mapped.propagate(date);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(expected.getPVCoordinates().getPosition(),
+                                                  actual.getPVCoordinates().getPosition()),
+                                1.0e-8);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(expected.getPVCoordinates().getPosition(),
+                                                  mapped.getPVCoordinates(date, inertialFrame).getPosition()),
+                                1.0e-8);
+            Assert.assertEquals(0.0,
+                                Rotation.distance(propagator.propagate(date).getAttitude().getRotation(),
+                                                  actual.getAttitude().getRotation()),
+                                1.0e-9);
+            Assert.assertEquals(expected.getMass(), actual.getMass(), 1.0e-12);
+            Assert.assertArrayEquals(expected.getAdditionalState("dummy"), actual.getAdditionalState("dummy"), 1.0e-12);
+        }
+
+        try {
+            mapped.propagate(initDate.shiftedBy(-1.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE, oe.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testRandomAccess() throws OrekitException, IOException {
+
+        final List<SpacecraftState> states = sample(initDate, 3600.0, 60.0, 0.0);
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", states, 4, false);
+        final File file = tempFolder.newFile("random-access.oeb");
+        writer.write(file.toPath());
+
+        final BinaryEphemerisSegment segment = new BinaryEphemerisReader().read(file.toPath()).getSegments().get(0);
+        Assert.assertFalse(segment.hasAttitude());
+        Assert.assertFalse(segment.hasCovariance());
+        Assert.assertEquals(-1, segment.getIndex(initDate.shiftedBy(-0.001)));
+        Assert.assertEquals(0,  segment.getIndex(initDate));
+        Assert.assertEquals(0,  segment.getIndex(initDate.shiftedBy(59.999)));
+        Assert.assertEquals(1,  segment.getIndex(initDate.shiftedBy(60.0)));
+        Assert.assertEquals(30, segment.getIndex(initDate.shiftedBy(1830.0)));
+        Assert.assertEquals(60, segment.getIndex(initDate.shiftedBy(3600.0)));
+        Assert.assertEquals(60, segment.getIndex(initDate.shiftedBy(7200.0)));
+        for (int i = 0; i < states.size(); ++i) {
+            Assert.assertEquals(states.get(i).getDate(), segment.getDate(i));
+        }
+
+        try {
+            segment.getCovariance(0);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNKNOWN_ADDITIONAL_STATE, oe.getSpecifier());
+        }
+
+        // without stored attitude, the default law is used
+        final SpacecraftState state = segment.getPropagator().propagate(initDate.shiftedBy(90.0));
+        Assert.assertEquals(0.0,
+                            Rotation.distance(
+                                Propagator.DEFAULT_LAW.getAttitude(state.getOrbit(), state.getDate(),
+                                                                   state.getFrame()).getRotation(),
+                                state.getAttitude().getRotation()),
+                            1.0e-15);
+
+        // without stored attitude nor attitude provider, propagation fails explicitly
+        final BoundedPropagator noAttitude = segment.getPropagator();
+        noAttitude.setAttitudeProvider(null);
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(state.getPVCoordinates().getPosition(),
+                                              noAttitude.getPVCoordinates(state.getDate(), state.getFrame()).getPosition()),
+                            1.0e-8);
+        try {
+            noAttitude.propagate(initDate.shiftedBy(90.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NO_ATTITUDE_IN_EPHEMERIS_SEGMENT, oe.getSpecifier());
+            Assert.assertEquals("2004-001A", oe.getParts()[0]);
+        }
+
+    }
+
+    @Test
+    public void testSeveralSegments() throws OrekitException, IOException {
+
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", sample(initDate, 1800.0, 60.0, 0.0), 6, true);
+        writer.addSegment("2004-001B", CelestialBodyFactory.EARTH,
+                          sample(initDate, 1800.0, 30.0, 100.0), null, 4, false);
+        writer.addSegment("2004-001A", sample(initDate.shiftedBy(3600.0), 1800.0, 60.0, 0.0), 6, true);
+        final File file = tempFolder.newFile("several-segments.oeb");
+        writer.write(file.toPath());
+
+        final BinaryEphemerisFile read = new BinaryEphemerisReader().read(file.toPath());
+        Assert.assertEquals(3, read.getSegments().size());
+        Assert.assertEquals(2, read.getSatellites().size());
+        Assert.assertEquals(2, read.getSatellites().get("2004-001A").getSegments().size());
+        Assert.assertEquals(1, read.getSatellites().get("2004-001B").getSegments().size());
+        Assert.assertEquals(initDate, read.getSatellites().get("2004-001A").getStart());
+        Assert.assertEquals(initDate.shiftedBy(5400.0), read.getSatellites().get("2004-001A").getStop());
+        Assert.assertEquals(61, read.getSatellites().get("2004-001B").getSegments().get(0).getSize());
+
+        final BoundedPropagator aggregated = read.getSatellites().get("2004-001A").getPropagator();
+        Assert.assertEquals(initDate, aggregated.getMinDate());
+        Assert.assertEquals(initDate.shiftedBy(5400.0), aggregated.getMaxDate());
+        final AbsoluteDate date = initDate.shiftedBy(4000.0);
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(propagator.propagate(date).getPVCoordinates().getPosition(),
+                                              aggregated.propagate(date).getPVCoordinates().getPosition()),
+                            1.0e-5);
+
+    }
+
+    @Test
+    public void testSamplePropagator() throws OrekitException, IOException {
+        final CompactEphemeris ephemeris = new CompactEphemeris(sample(initDate, 1000.0, 60.0, 0.0), 6);
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", CelestialBodyFactory.EARTH, ephemeris, 30.0, 6, true);
+        final File file = tempFolder.newFile("sampled.oeb");
+        writer.write(file.toPath());
+        final BinaryEphemerisSegment segment = new BinaryEphemerisReader().read(file.toPath()).getSegments().get(0);
+        Assert.assertEquals(33, segment.getSize());
+        Assert.assertEquals(ephemeris.getMinDate(), segment.getStart());
+        Assert.assertEquals(ephemeris.getMaxDate(), segment.getStop());
+        Assert.assertEquals(930.0, segment.getDate(31).durationFrom(initDate), 1.0e-12);
+    }
+
+    @Test
+    public void testWrongMagicNumber() throws IOException {
+        final File file = tempFolder.newFile("wrong-magic.oeb");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeLong(0x1234567890ABCDEFL);
+            raf.writeInt(1);
+            raf.writeInt(0);
+        }
+        try {
+            new BinaryEphemerisReader().read(file.toPath());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNSUPPORTED_FILE_FORMAT, oe.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testTruncatedFile() throws OrekitException, IOException {
+
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", sample(initDate, 600.0, 60.0, 0.0), 4, true);
+        final File file = tempFolder.newFile("truncated.oeb");
+        writer.write(file.toPath());
+
+        // truncate in the data part
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 8);
+        }
+        try {
+            new BinaryEphemerisReader().read(file.toPath());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.CORRUPTED_FILE, oe.getSpecifier());
+        }
+
+        // truncate in the header part
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(20);
+        }
+        try {
+            new BinaryEphemerisReader().read(file.toPath());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNEXPECTED_END_OF_FILE, oe.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testUnknownFrame() throws OrekitException, IOException {
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", sample(initDate, 600.0, 60.0, 0.0), 4, false);
+        final File file = tempFolder.newFile("unknown-frame.oeb");
+        writer.write(file.toPath());
+        try {
+            new BinaryEphemerisReader(name -> null).read(file.toPath());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNKNOWN_FRAME, oe.getSpecifier());
+            Assert.assertEquals(inertialFrame.getName(), oe.getParts()[0]);
+        }
+    }
+
+    @Test
+    public void testAttitudeReferenceFrame() throws OrekitException, IOException {
+
+        // attitudes are given with respect to a frame that is not the orbit frame
+        final Frame gcrf = FramesFactory.getGCRF();
+        final List<SpacecraftState> states = new ArrayList<>();
+        for (final SpacecraftState s : sample(initDate, 3600.0, 60.0, 0.0)) {
+            states.add(new SpacecraftState(s.getOrbit(), s.getAttitude().withReferenceFrame(gcrf), s.getMass()));
+        }
+        Assert.assertNotSame(states.get(0).getFrame(), states.get(0).getAttitude().getReferenceFrame());
+
+        final BinaryEphemerisWriter writer = new BinaryEphemerisWriter();
+        writer.addSegment("2004-001A", states, 8, true);
+        final File file = tempFolder.newFile("attitude-frame.oeb");
+        writer.write(file.toPath());
+
+        final BinaryEphemerisFile read = new BinaryEphemerisReader().read(file.getAbsolutePath());
+        final BinaryEphemerisSegment segment = read.getSatellites().get("2004-001A").getSegments().get(0);
+        for (int i = 0; i < states.size(); ++i) {
+            final SpacecraftState actual = segment.getState(i);
+            Assert.assertSame(inertialFrame, actual.getAttitude().getReferenceFrame());
+            Assert.assertEquals(0.0,
+                                Rotation.distance(states.get(i).getAttitude().withReferenceFrame(inertialFrame).getRotation(),
+                                                  actual.getAttitude().getRotation()),
+                                1.0e-15);
+        }
+
+        final BoundedPropagator mapped = read.getSatellites().get("2004-001A").getPropagator();
+        for (double dt = 0; dt <= 3600.0; dt += 7.25) {
+            final AbsoluteDate date = initDate.shiftedBy(dt);
+            Assert.assertEquals(0.0,
+                                Rotation.distance(propagator.propagate(date).getAttitude().getRotation(),
+                                                  mapped.propagate(date).getAttitude().getRotation()),
+                                1.0e-9);
+        }
+
+    }
+
+    @Test
+    public void testNonChronological() throws OrekitException {
+        final List<SpacecraftState> states = sample(initDate, 600.0, 60.0, 0.0);
+        states.add(states.get(3));
+        try {
+            new BinaryEphemerisWriter().addSegment("2004-001A", states, 4, false);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NON_CHRONOLOGICALLY_SORTED_ENTRIES, oe.getSpecifier());
+        }
+    }
+
+    private List<SpacecraftState> sample(final AbsoluteDate start, final double duration,
+                                         final double step, final double massOffset)
+        throws OrekitException {
+        final List<SpacecraftState> states = new ArrayList<>();
+        for (double dt = 0; dt <= duration; dt += step) {
+            final SpacecraftState s = propagator.propagate(start.shiftedBy(dt));
+            final Orbit o = new CartesianOrbit(s.getPVCoordinates(), s.getFrame(), s.getMu());
+            states.add(new SpacecraftState(o, s.getAttitude(), 1000.0 + massOffset - 0.001 * dt).
+                       addAdditionalState("dummy", dt, FastMath.sin(1.0e-3 * dt)));
+        }
+        return states;
+    }
+
+    @Before
+    public void setUp() throws IllegalArgumentException, OrekitException {
+        Utils.setDataRoot("regular-data");
+
+        initDate = new AbsoluteDate(new DateComponents(2004, 01, 01),
+                                    new TimeComponents(0, 0, 0.125),
+                                    TimeScalesFactory.getUTC());
+
+        inertialFrame = FramesFactory.getEME2000();
+        final Orbit initialState = new KeplerianOrbit(7187990.1979844316, 0.5e-4, 1.7105407051081795,
+                                                      1.9674147913622104, FastMath.toRadians(261), 0.0,
+                                                      PositionAngle.TRUE, inertialFrame, initDate,
+                                                      3.9860047e14);
+        propagator = new KeplerianPropagator(initialState, new LofOffset(inertialFrame, LOFType.VVLH));
+
+    }
+
+}
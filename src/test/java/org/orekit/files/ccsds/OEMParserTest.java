@@ -16,15 +16,18 @@
  */
 package org.orekit.files.ccsds;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.SequenceInputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -48,8 +51,12 @@ import org.orekit.frames.ITRFVersion;
 import org.orekit.frames.LOFType;
 import org.orekit.frames.Transform;
 import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.PositionAngle;
 import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.analytical.KeplerianPropagator;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScale;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.CartesianDerivativesFilter;
 import org.orekit.utils.IERSConventions;
@@ -503,4 +510,229 @@ public class OEMParserTest {
         }
     }
 
+    @Test
+    public void testStreamingParse() throws OrekitException {
+
+        final OEMParser parser = new OEMParser().
+                                 withMu(CelestialBodyFactory.getMars().getGM()).
+                                 withConventions(IERSConventions.IERS_2010);
+        final OEMFile reference = parser.parse(getClass().getResourceAsStream("/ccsds/OEMExample.txt"),
+                                               "OEMExample.txt");
+
+        final List<String>                   events      = new ArrayList<>();
+        final List<TimeStampedPVCoordinates> pvs         = new ArrayList<>();
+        final List<OEMFile.CovarianceMatrix> covariances = new ArrayList<>();
+        final OEMFile streamed = parser.parse(getClass().getResourceAsStream("/ccsds/OEMExample.txt"),
+                                              "OEMExample.txt",
+                                              new OEMHandler() {
+            public void handleMetaData(final EphemeridesBlock block) {
+                events.add("meta");
+            }
+            public void handleEphemerisData(final EphemeridesBlock block, final AbsoluteDate date,
+                                            final double[] pva, final boolean hasAcceleration) {
+                events.add("data");
+                final Vector3D a = hasAcceleration ? new Vector3D(pva[6], pva[7], pva[8]) : Vector3D.ZERO;
+                pvs.add(new TimeStampedPVCoordinates(date,
+                                                     new Vector3D(pva[0], pva[1], pva[2]),
+                                                     new Vector3D(pva[3], pva[4], pva[5]),
+                                                     a));
+            }
+            public void handleCovariance(final EphemeridesBlock block,
+                                         final OEMFile.CovarianceMatrix covariance) {
+                events.add("covariance");
+                covariances.add(covariance);
+            }
+            public void handleBlockEnd(final EphemeridesBlock block) {
+                events.add("end");
+            }
+        });
+
+        // the streamed file contains the metadata, but no data
+        Assert.assertEquals(reference.getEphemeridesBlocks().size(), streamed.getEphemeridesBlocks().size());
+        int pvIndex  = 0;
+        int covIndex = 0;
+        for (int i = 0; i < reference.getEphemeridesBlocks().size(); ++i) {
+            final EphemeridesBlock refBlock      = reference.getEphemeridesBlocks().get(i);
+            final EphemeridesBlock streamedBlock = streamed.getEphemeridesBlocks().get(i);
+            Assert.assertEquals(refBlock.getMetaData().getObjectID(), streamedBlock.getMetaData().getObjectID());
+            Assert.assertEquals(refBlock.getStartTime(), streamedBlock.getStartTime());
+            Assert.assertEquals(refBlock.getAvailableDerivatives(), streamedBlock.getAvailableDerivatives());
+            Assert.assertEquals(refBlock.getEphemeridesDataLinesComment(),
+                                streamedBlock.getEphemeridesDataLinesComment());
+            Assert.assertTrue(streamedBlock.getCoordinates().isEmpty());
+            Assert.assertTrue(streamedBlock.getCovarianceMatrices().isEmpty());
+            for (final TimeStampedPVCoordinates expected : refBlock.getCoordinates()) {
+                final TimeStampedPVCoordinates actual = pvs.get(pvIndex++);
+                Assert.assertEquals(expected.getDate(), actual.getDate());
+                Assert.assertEquals(expected.getPosition(), actual.getPosition());
+                Assert.assertEquals(expected.getVelocity(), actual.getVelocity());
+                Assert.assertEquals(expected.getAcceleration(), actual.getAcceleration());
+            }
+            for (final OEMFile.CovarianceMatrix expected : refBlock.getCovarianceMatrices()) {
+                final OEMFile.CovarianceMatrix actual = covariances.get(covIndex++);
+                Assert.assertEquals(expected.getEpoch(), actual.getEpoch());
+                Assert.assertEquals(expected.getLofType(), actual.getLofType());
+                Assert.assertEquals(expected.getMatrix(), actual.getMatrix());
+            }
+        }
+        Assert.assertEquals(pvs.size(), pvIndex);
+        Assert.assertEquals(covariances.size(), covIndex);
+
+        // calls sequence
+        Assert.assertEquals(21, events.size());
+        Assert.assertEquals("meta", events.get(0));
+        Assert.assertEquals("end",  events.get(5));
+        Assert.assertEquals("meta", events.get(6));
+        Assert.assertEquals("covariance", events.get(12));
+        Assert.assertEquals("end",  events.get(13));
+        Assert.assertEquals("end",  events.get(20));
+
+    }
+
+    @Test
+    public void testStreamingNumbersAndDates() throws OrekitException, IOException {
+
+        // reference values parsed independently
+        final List<String[]> fields = new ArrayList<>();
+        try (BufferedReader reader =
+                        new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/ccsds/OEMExample5.txt"),
+                                                                 StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.length() > 0 && Character.isDigit(line.charAt(0))) {
+                    fields.add(line.trim().split("\\s+"));
+                }
+            }
+        }
+
+        final List<double[]>     values = new ArrayList<>();
+        final List<AbsoluteDate> dates  = new ArrayList<>();
+        new OEMParser().
+            withMu(CelestialBodyFactory.getEarth().getGM()).
+            withConventions(IERSConventions.IERS_2010).
+            parse(getClass().getResourceAsStream("/ccsds/OEMExample5.txt"), "OEMExample5.txt",
+                  (block, date, pva, hasAcceleration) -> {
+                      Assert.assertFalse(hasAcceleration);
+                      dates.add(date);
+                      values.add(pva.clone());
+                  });
+
+        Assert.assertEquals(49, fields.size());
+        Assert.assertEquals(fields.size(), values.size());
+        for (int i = 0; i < fields.size(); ++i) {
+            Assert.assertEquals(new AbsoluteDate(fields.get(i)[0], TimeScalesFactory.getUTC()), dates.get(i));
+            for (int j = 0; j < 6; ++j) {
+                // in place parsing must be exact
+                Assert.assertEquals(Double.parseDouble(fields.get(i)[j + 1]) * 1000, values.get(i)[j], 0.0);
+            }
+        }
+
+    }
+
+    @Test
+    public void testEphemerisBuilder() throws OrekitException {
+
+        final OEMParser parser = new OEMParser().
+                                 withMu(CelestialBodyFactory.getEarth().getGM()).
+                                 withConventions(IERSConventions.IERS_2010);
+        final OEMEphemerisBuilder builder = new OEMEphemerisBuilder();
+        final OEMFile streamed = parser.parse(getClass().getResourceAsStream("/ccsds/OEMExample5.txt"),
+                                              "OEMExample5.txt", builder);
+        final OEMFile reference = parser.parse(getClass().getResourceAsStream("/ccsds/OEMExample5.txt"),
+                                               "OEMExample5.txt");
+        Assert.assertTrue(streamed.getEphemeridesBlocks().get(0).getCoordinates().isEmpty());
+
+        Assert.assertEquals(1, builder.getObjectIDs().size());
+        Assert.assertEquals("1998-067A", builder.getObjectIDs().iterator().next());
+        Assert.assertEquals(1, builder.getEphemerides("1998-067A").size());
+        Assert.assertTrue(builder.getEphemerides("unknown").isEmpty());
+        Assert.assertEquals(49, builder.getEphemerides("1998-067A").get(0).getSize());
+        Assert.assertEquals(2, builder.getEphemerides("1998-067A").get(0).getInterpolationPoints());
+
+        final BoundedPropagator propagator = builder.getPropagator("1998-067A");
+        final List<TimeStampedPVCoordinates> coordinates =
+                        reference.getEphemeridesBlocks().get(0).getCoordinates();
+        Assert.assertEquals(coordinates.get(0).getDate(), propagator.getMinDate());
+        Assert.assertEquals(coordinates.get(coordinates.size() - 1).getDate(), propagator.getMaxDate());
+        for (final TimeStampedPVCoordinates expected : coordinates) {
+            final PVCoordinates actual = propagator.getPVCoordinates(expected.getDate(), FramesFactory.getGCRF());
+            Assert.assertEquals(0.0, Vector3D.distance(expected.getPosition(), actual.getPosition()), 1.0e-6);
+            Assert.assertEquals(0.0, Vector3D.distance(expected.getVelocity(), actual.getVelocity()), 1.0e-9);
+        }
+
+        try {
+            builder.getPropagator("unknown");
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            // expected
+        }
+
+    }
+
+    @Test
+    public void testEphemerisBuilderNonInertialFrame() throws OrekitException {
+
+        // generate an OEM in ITRF, without accelerations
+        final double    mu    = CelestialBodyFactory.getEarth().getGM();
+        final TimeScale utc   = TimeScalesFactory.getUTC();
+        final Frame     itrf  = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final Frame     gcrf  = FramesFactory.getGCRF();
+        final AbsoluteDate t0 = new AbsoluteDate(2004, 1, 1, 0, 0, 0.0, utc);
+        final KeplerianPropagator kepler =
+                        new KeplerianPropagator(new KeplerianOrbit(7.0e6, 1.0e-3, 1.7, 0.2, 0.3, 0.4,
+                                                                   PositionAngle.TRUE, gcrf, t0, mu));
+        final double duration = 5400.0;
+        final StringBuilder oem = new StringBuilder();
+        oem.append("CCSDS_OEM_VERS = 2.0\n").
+            append("CREATION_DATE = 2017-04-01T00:00:00\n").
+            append("ORIGINATOR = Orekit Testing\n").
+            append("META_START\n").
+            append("OBJECT_NAME = TEST\n").
+            append("OBJECT_ID = 2004-001A\n").
+            append("CENTER_NAME = EARTH\n").
+            append("REF_FRAME = ITRF2008\n").
+            append("TIME_SYSTEM = UTC\n").
+            append("START_TIME = ").append(t0.toString(utc)).append("\n").
+            append("STOP_TIME = ").append(t0.shiftedBy(duration).toString(utc)).append("\n").
+            append("INTERPOLATION = HERMITE\n").
+            append("INTERPOLATION_DEGREE = 7\n").
+            append("META_STOP\n");
+        for (double dt = 0; dt <= duration; dt += 60.0) {
+            final AbsoluteDate  date = t0.shiftedBy(dt);
+            final PVCoordinates pv   = kepler.getPVCoordinates(date, itrf);
+            oem.append(String.format(Locale.US, "%s %.9f %.9f %.9f %.12f %.12f %.12f%n",
+                                     date.toString(utc),
+                                     pv.getPosition().getX() / 1000.0,
+                                     pv.getPosition().getY() / 1000.0,
+                                     pv.getPosition().getZ() / 1000.0,
+                                     pv.getVelocity().getX() / 1000.0,
+                                     pv.getVelocity().getY() / 1000.0,
+                                     pv.getVelocity().getZ() / 1000.0));
+        }
+
+        final OEMParser parser = new OEMParser().
+                                 withMu(mu).
+                                 withConventions(IERSConventions.IERS_2010);
+        final OEMEphemerisBuilder builder = new OEMEphemerisBuilder();
+        parser.parse(new ByteArrayInputStream(oem.toString().getBytes(StandardCharsets.UTF_8)),
+                     "ITRF-OEM", builder);
+        final OEMFile reference = parser.parse(new ByteArrayInputStream(oem.toString().getBytes(StandardCharsets.UTF_8)),
+                                               "ITRF-OEM");
+        final BoundedPropagator streamed = builder.getPropagator("2004-001A");
+        final BoundedPropagator blockPropagator = reference.getEphemeridesBlocks().get(0).getPropagator();
+
+        // check between sample nodes
+        for (double dt = 30.0; dt < duration; dt += 60.0) {
+            final AbsoluteDate date     = t0.shiftedBy(dt);
+            final Vector3D     expected = kepler.getPVCoordinates(date, gcrf).getPosition();
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(blockPropagator.getPVCoordinates(date, gcrf).getPosition(),
+                                                  streamed.getPVCoordinates(date, gcrf).getPosition()),
+                                1.0e-2);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(expected, streamed.getPVCoordinates(date, gcrf).getPosition()),
+                                1.0e-2);
+        }
+
+    }
+
 }
@@ -0,0 +1,265 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.forces.drag.atmosphere;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.analysis.differentiation.DSFactory;
+import org.hipparchus.analysis.differentiation.DerivativeStructure;
+import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.forces.drag.DragForce;
+import org.orekit.forces.drag.IsotropicDrag;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.FieldAbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinatesProvider;
+
+public class CachedAtmosphereTest {
+
+    private PVCoordinatesProvider sun;
+    private OneAxisEllipsoid      earth;
+    private Frame                 eme2000;
+    private AbsoluteDate          date;
+
+    @Test
+    public void testAccuracy() throws OrekitException {
+
+        final HarrisPriester   hp     = new HarrisPriester(sun, earth);
+        final CachedAtmosphere cached = new CachedAtmosphere(hp, earth, sun, 1.0e-3);
+        Assert.assertSame(hp, cached.getAtmosphere());
+        Assert.assertSame(hp.getFrame(), cached.getFrame());
+        Assert.assertEquals(1.0e-3, cached.getTolerance(), 1.0e-15);
+
+        final RandomGenerator random = new Well19937a(0x4a5be7cb66a3d2f1l);
+        double maxError = 0;
+        for (int i = 0; i < 5000; ++i) {
+            final GeodeticPoint gp = new GeodeticPoint(FastMath.PI * (random.nextDouble() - 0.5),
+                                                       2 * FastMath.PI * random.nextDouble(),
+                                                       350000.0 + 100000.0 * random.nextDouble());
+            final AbsoluteDate  t  = date.shiftedBy(Constants.JULIAN_DAY * random.nextDouble());
+            final Vector3D      p  = earth.getBodyFrame().getTransformTo(eme2000, t).transformPosition(earth.transform(gp));
+            final double reference = hp.getDensity(t, p, eme2000);
+            maxError = FastMath.max(maxError, FastMath.abs(cached.getDensity(t, p, eme2000) / reference - 1));
+        }
+
+        // Harris-Priester interpolates a tabulated altitude profile,
+        // its slope discontinuities may double the error
+        Assert.assertTrue(maxError < 2.0e-3);
+        Assert.assertTrue(cached.getCachedCellsNumber() > 0);
+
+        cached.clearCache();
+        Assert.assertEquals(0, cached.getCachedCellsNumber());
+
+    }
+
+    @Test
+    public void testDragPropagation() throws OrekitException {
+
+        final CountingAtmosphere direct  = new CountingAtmosphere(new HarrisPriester(sun, earth));
+        final CountingAtmosphere wrapped = new CountingAtmosphere(new HarrisPriester(sun, earth));
+        final CachedAtmosphere   cached  = new CachedAtmosphere(wrapped, earth, sun, 1.0e-2);
+
+        final Orbit orbit = new KeplerianOrbit(Constants.WGS84_EARTH_EQUATORIAL_RADIUS + 400000.0, 0.001,
+                                               FastMath.toRadians(51.6), FastMath.toRadians(30.0),
+                                               FastMath.toRadians(40.0), 0.0, PositionAngle.MEAN,
+                                               eme2000, date, Constants.EIGEN5C_EARTH_MU);
+        final SpacecraftState directEnd = propagate(orbit, direct, 3 * Constants.JULIAN_DAY);
+        final SpacecraftState cachedEnd = propagate(orbit, cached, 3 * Constants.JULIAN_DAY);
+
+        // all revolutions of one day go through the same cells
+        Assert.assertTrue(wrapped.getCalls() < direct.getCalls() / 2);
+
+        // the difference is small with respect to the drag effect itself
+        final SpacecraftState noDragEnd = propagate(orbit, null, 3 * Constants.JULIAN_DAY);
+        final double dragEffect = Vector3D.distance(directEnd.getPVCoordinates().getPosition(),
+                                                    noDragEnd.getPVCoordinates().getPosition());
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(directEnd.getPVCoordinates().getPosition(),
+                                              cachedEnd.getPVCoordinates().getPosition()),
+                            0.05 * dragEffect);
+
+    }
+
+    @Test
+    public void testBoundedCache() throws OrekitException {
+        final HarrisPriester   hp     = new HarrisPriester(sun, earth);
+        final CachedAtmosphere cached = new CachedAtmosphere(hp, earth, sun, 1.0e-3,
+                                                             CachedAtmosphere.DEFAULT_ALTITUDE_STEP,
+                                                             CachedAtmosphere.DEFAULT_LATITUDE_STEP,
+                                                             CachedAtmosphere.DEFAULT_LOCAL_TIME_STEP,
+                                                             CachedAtmosphere.DEFAULT_DATE_STEP,
+                                                             2, 20);
+        for (int i = 0; i < 200; ++i) {
+            final GeodeticPoint gp = new GeodeticPoint(FastMath.toRadians(i * 0.8 - 80), 0.1 * i, 400000.0);
+            final Vector3D      p  = earth.transform(gp);
+            final AbsoluteDate  t  = date.shiftedBy(60.0 * i);
+            Assert.assertEquals(hp.getDensity(t, p, earth.getBodyFrame()),
+                                cached.getDensity(t, p, earth.getBodyFrame()),
+                                2.0e-3 * hp.getDensity(t, p, earth.getBodyFrame()));
+            Assert.assertTrue(cached.getCachedCellsNumber() <= 20);
+        }
+    }
+
+    @Test
+    public void testOutsideModel() throws OrekitException {
+
+        final HarrisPriester   hp     = new HarrisPriester(sun, earth);
+        final CachedAtmosphere cached = new CachedAtmosphere(hp, earth, sun, 1.0e-3);
+
+        // above model upper limit, density is 0
+        final Vector3D high = earth.transform(new GeodeticPoint(0.3, 0.4, 1002000.0));
+        Assert.assertEquals(0.0, cached.getDensity(date, high, earth.getBodyFrame()), 0.0);
+
+        // below model lower limit, the wrapped model error is reported
+        try {
+            cached.getDensity(date, earth.transform(new GeodeticPoint(0.3, 0.4, 95000.0)), earth.getBodyFrame());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.ALTITUDE_BELOW_ALLOWED_THRESHOLD, oe.getSpecifier());
+        }
+
+        // close to model lower limit, some cells corners may not be evaluated
+        final Vector3D low = earth.transform(new GeodeticPoint(0.3, 0.4, 101000.0));
+        Assert.assertEquals(hp.getDensity(date, low, earth.getBodyFrame()),
+                            cached.getDensity(date, low, earth.getBodyFrame()),
+                            2.0e-3 * hp.getDensity(date, low, earth.getBodyFrame()));
+
+    }
+
+    @Test
+    public void testField() throws OrekitException {
+
+        final HarrisPriester   hp     = new HarrisPriester(sun, earth);
+        final CachedAtmosphere cached = new CachedAtmosphere(hp, earth, sun, 1.0e-4);
+
+        final DSFactory factory = new DSFactory(3, 1);
+        final Vector3D  p       = earth.getBodyFrame().getTransformTo(eme2000, date).
+                                  transformPosition(earth.transform(new GeodeticPoint(0.2, 1.3, 420000.0)));
+        final FieldVector3D<DerivativeStructure> dsP =
+                        new FieldVector3D<>(factory.variable(0, p.getX()),
+                                            factory.variable(1, p.getY()),
+                                            factory.variable(2, p.getZ()));
+        final FieldAbsoluteDate<DerivativeStructure> dsDate =
+                        new FieldAbsoluteDate<>(factory.getDerivativeField(), date);
+
+        final DerivativeStructure reference = hp.getDensity(dsDate, dsP, eme2000);
+        final DerivativeStructure density   = cached.getDensity(dsDate, dsP, eme2000);
+        Assert.assertEquals(cached.getDensity(date, p, eme2000), density.getValue(), 1.0e-10 * density.getValue());
+        Assert.assertEquals(reference.getValue(), density.getValue(), 1.0e-3 * reference.getValue());
+
+        // gradient is dominated by the altitude dependency
+        final Vector3D refGradient = new Vector3D(reference.getPartialDerivative(1, 0, 0),
+                                                  reference.getPartialDerivative(0, 1, 0),
+                                                  reference.getPartialDerivative(0, 0, 1));
+        final Vector3D gradient    = new Vector3D(density.getPartialDerivative(1, 0, 0),
+                                                  density.getPartialDerivative(0, 1, 0),
+                                                  density.getPartialDerivative(0, 0, 1));
+        Assert.assertEquals(0.0, Vector3D.distance(refGradient, gradient), 0.05 * refGradient.getNorm());
+
+    }
+
+    private SpacecraftState propagate(final Orbit orbit, final Atmosphere atmosphere, final double duration)
+        throws OrekitException {
+        final double[][] tolerances = NumericalPropagator.tolerances(0.001, orbit, OrbitType.CARTESIAN);
+        final NumericalPropagator propagator =
+                        new NumericalPropagator(new DormandPrince853Integrator(0.001, 300.0,
+                                                                               tolerances[0], tolerances[1]));
+        propagator.setOrbitType(OrbitType.CARTESIAN);
+        if (atmosphere != null) {
+            propagator.addForceModel(new DragForce(atmosphere, new IsotropicDrag(2.0, 2.2)));
+        }
+        propagator.setInitialState(new SpacecraftState(orbit, 500.0));
+        return propagator.propagate(orbit.getDate().shiftedBy(duration));
+    }
+
+    private static class CountingAtmosphere implements Atmosphere {
+
+        private static final long serialVersionUID = 20181017L;
+
+        private final Atmosphere atmosphere;
+
+        private final AtomicInteger calls;
+
+        CountingAtmosphere(final Atmosphere atmosphere) {
+            this.atmosphere = atmosphere;
+            this.calls      = new AtomicInteger();
+        }
+
+        public int getCalls() {
+            return calls.get();
+        }
+
+        @Override
+        public Frame getFrame() {
+            return atmosphere.getFrame();
+        }
+
+        @Override
+        public double getDensity(final AbsoluteDate date, final Vector3D position, final Frame frame)
+            throws OrekitException {
+            calls.incrementAndGet();
+            return atmosphere.getDensity(date, position, frame);
+        }
+
+        @Override
+        public <T extends RealFieldElement<T>> T getDensity(final FieldAbsoluteDate<T> date,
+                                                            final FieldVector3D<T> position,
+                                                            final Frame frame)
+            throws OrekitException {
+            calls.incrementAndGet();
+            return atmosphere.getDensity(date, position, frame);
+        }
+
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        sun     = CelestialBodyFactory.getSun();
+        earth   = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                       Constants.WGS84_EARTH_FLATTENING,
+                                       FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        eme2000 = FramesFactory.getEME2000();
+        date    = new AbsoluteDate(2003, 3, 21, 1, 0, 0.0, TimeScalesFactory.getUTC());
+    }
+
+}
@@ -278,6 +278,72 @@ public class NRLMSISE00Test {
 
     }
 
+    @Test
+    public void testWorkspaceReuse()
+        throws OrekitException, NoSuchFieldException, IllegalAccessException {
+        // Build the input params provider
+        final InputParams ip = new InputParams();
+        // Get Sun
+        final PVCoordinatesProvider sun = CelestialBodyFactory.getSun();
+        // Get Earth body shape
+        final Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final OneAxisEllipsoid earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                            Constants.WGS84_EARTH_FLATTENING, itrf);
+        final AbsoluteDate date = new AbsoluteDate(new DateComponents(2003, 172),
+                                                   new TimeComponents(29000.),
+                                                   TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true));
+        final Field<Decimal64> field = Decimal64Field.getInstance();
+
+        // access to the per-thread workspace, to check it is really reused
+        final java.lang.reflect.Field poolField = NRLMSISE00.class.getDeclaredField("OUTPUT_POOL");
+        poolField.setAccessible(true);
+        final ThreadLocal<?> pool = (ThreadLocal<?>) poolField.get(null);
+
+        // altitudes cover the thermosphere, mesosphere and troposphere branches,
+        // going back and forth between them so stale data from one branch would show up
+        final double[] altitudes = { 400.0, 20.0, 90.0, 700.0, 50.0, 110.0, 400.0, 20.0 };
+        final int[][] switches = { {}, { 9, -1 }, { 7, 0, 8, 0, 10, 0 } };
+        for (final int[] settings : switches) {
+
+            NRLMSISE00 atm = new NRLMSISE00(ip, sun, earth);
+            for (int k = 0; k < settings.length; k += 2) {
+                atm = atm.withSwitch(settings[k], settings[k + 1]);
+            }
+
+            // reference values from freshly built models, computed before the reused
+            // instance is evaluated as alternating instances would reset the workspace
+            final Vector3D[]     positions = new Vector3D[altitudes.length];
+            final AbsoluteDate[] dates     = new AbsoluteDate[altitudes.length];
+            final double[]       reference = new double[altitudes.length];
+            for (int i = 0; i < altitudes.length; ++i) {
+                final GeodeticPoint point = new GeodeticPoint(FastMath.toRadians(10.0 * i - 50.0),
+                                                              FastMath.toRadians(25.0 * i),
+                                                              1000.0 * altitudes[i]);
+                positions[i] = earth.transform(point);
+                dates[i]     = date.shiftedBy(1800.0 * i);
+                reference[i] = atm.withSwitch(1, 1).getDensity(dates[i], positions[i], itrf);
+            }
+
+            // the same instance evaluated repeatedly keeps the same workspace
+            Object workspace = null;
+            for (int i = 0; i < altitudes.length; ++i) {
+                Assert.assertEquals(reference[i], atm.getDensity(dates[i], positions[i], itrf), 0.0);
+                if (workspace == null) {
+                    workspace = pool.get();
+                } else {
+                    Assert.assertSame(workspace, pool.get());
+                }
+                Assert.assertEquals(reference[i],
+                                    atm.getDensity(new FieldAbsoluteDate<>(field, dates[i]),
+                                                   new FieldVector3D<>(field.getOne(), positions[i]),
+                                                   itrf).getReal(),
+                                    reference[i] * 2.0e-13);
+            }
+
+        }
+
+    }
+
     @Test
     public void testDensityGradient() throws OrekitException {
         // Build the input params provider
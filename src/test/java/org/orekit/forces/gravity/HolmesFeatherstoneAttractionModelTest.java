@@ -19,6 +19,9 @@ package org.orekit.forces.gravity;
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.hipparchus.Field;
@@ -713,6 +716,79 @@ public class HolmesFeatherstoneAttractionModelTest extends AbstractLegacyForceMo
 
     }
 
+    @Test
+    public void testBatchGradient() throws OrekitException {
+        doTestBatchGradient(50, 50);
+        doTestBatchGradient(30, 12);
+        doTestBatchGradient(1, 0);
+    }
+
+    @Test
+    public void testWorkspaceIsStatic() {
+        // thread-local workspaces must not keep the model reachable from pool threads
+        boolean found = false;
+        for (final Class<?> c : HolmesFeatherstoneAttractionModel.class.getDeclaredClasses()) {
+            if (c.getSimpleName().equals("Workspace")) {
+                found = true;
+                Assert.assertTrue(Modifier.isStatic(c.getModifiers()));
+            }
+        }
+        Assert.assertTrue(found);
+    }
+
+    private void doTestBatchGradient(final int degree, final int order) throws OrekitException {
+
+        NormalizedSphericalHarmonicsProvider provider = new GleasonProvider(degree, order);
+        HolmesFeatherstoneAttractionModel model =
+                new HolmesFeatherstoneAttractionModel(itrf, provider);
+
+        double r = 1.25;
+        List<Vector3D> list = new ArrayList<>();
+        for (double lambda = 0; lambda < 2 * FastMath.PI; lambda += 0.5) {
+            for (double theta = 0.05; theta < 3.11; theta += 0.03) {
+                list.add(new Vector3D(r * FastMath.sin(theta) * FastMath.cos(lambda),
+                                      r * FastMath.sin(theta) * FastMath.sin(lambda),
+                                      r * FastMath.cos(theta)));
+            }
+        }
+        Vector3D[] positions = list.toArray(new Vector3D[list.size()]);
+
+        // gradients only
+        double[][] gradients = new double[positions.length][3];
+        model.gradient(null, positions, model.getMu(), gradients, null, null);
+        for (int i = 0; i < positions.length; ++i) {
+            double[] reference = model.gradient(null, positions[i], model.getMu());
+            for (int k = 0; k < 3; ++k) {
+                Assert.assertEquals(reference[k], gradients[i][k], 1.0e-15 * FastMath.abs(reference[k]));
+            }
+        }
+
+        // gradients, potentials and Hessians, reusing the same thread buffers
+        double[]     potentials = new double[positions.length];
+        double[][][] hessians   = new double[positions.length][3][3];
+        model.gradient(null, positions, model.getMu(), gradients, potentials, hessians);
+        for (int i = 0; i < positions.length; ++i) {
+            double[] reference = model.gradient(null, positions[i], model.getMu());
+            for (int k = 0; k < 3; ++k) {
+                Assert.assertEquals(reference[k], gradients[i][k], 1.0e-15 * FastMath.abs(reference[k]));
+            }
+            double value = model.nonCentralPart(null, positions[i], model.getMu());
+            Assert.assertEquals(value, potentials[i], 1.0e-15 * FastMath.abs(value));
+            double[][] refHessian = gradientHessian(model, null, positions[i]).getHessian();
+            double normH2 = 0;
+            double normE2 = 0;
+            for (int j = 0; j < 3; ++j) {
+                for (int k = 0; k < 3; ++k) {
+                    double error = refHessian[j][k] - hessians[i][j][k];
+                    normH2 += refHessian[j][k] * refHessian[j][k];
+                    normE2 += error * error;
+                }
+            }
+            Assert.assertEquals(0, FastMath.sqrt(normE2 / FastMath.max(normH2, Double.MIN_NORMAL)), 1.0e-14);
+        }
+
+    }
+
     private Dfp error(Dfp refValue, double value) {
         return refValue.getField().newDfp(value).subtract(refValue);
     }
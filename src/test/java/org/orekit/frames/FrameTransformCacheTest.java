@@ -0,0 +1,197 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.frames;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.estimation.measurements.EstimatedEarthFrameProvider;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.ParameterDriver;
+
+public class FrameTransformCacheTest {
+
+    @Test
+    public void testDisabledByDefault() throws OrekitException {
+        FrameTransformCache.setSize(0);
+        Assert.assertFalse(FrameTransformCache.isEnabled());
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final AbsoluteDate date = new AbsoluteDate(2003, 10, 1, TimeScalesFactory.getUTC());
+        Assert.assertNotSame(gcrf.getTransformTo(itrf, date), gcrf.getTransformTo(itrf, date));
+        Assert.assertEquals(0, FrameTransformCache.getHits());
+        Assert.assertEquals(0, FrameTransformCache.getMisses());
+    }
+
+    @Test
+    public void testHitsAndMisses() throws OrekitException {
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final AbsoluteDate date = new AbsoluteDate(2003, 10, 1, TimeScalesFactory.getUTC());
+
+        final Transform first = gcrf.getTransformTo(itrf, date);
+        Assert.assertEquals(0, FrameTransformCache.getHits());
+        Assert.assertEquals(1, FrameTransformCache.getMisses());
+
+        // same frames pair and same date (but a different instance)
+        for (int i = 0; i < 5; ++i) {
+            Assert.assertSame(first, gcrf.getTransformTo(itrf, new AbsoluteDate(date, 0.0)));
+        }
+        Assert.assertEquals(5, FrameTransformCache.getHits());
+        Assert.assertEquals(1, FrameTransformCache.getMisses());
+
+        // reverse transform and other date are different entries
+        final Transform reverse = itrf.getTransformTo(gcrf, date);
+        final Transform shifted = gcrf.getTransformTo(itrf, date.shiftedBy(1.0));
+        Assert.assertNotSame(first, reverse);
+        Assert.assertNotSame(first, shifted);
+        Assert.assertEquals(5, FrameTransformCache.getHits());
+        Assert.assertEquals(3, FrameTransformCache.getMisses());
+
+        // cached transforms are the same as uncached ones
+        final Transform uncached = gcrf.buildTransformTo(itrf, date);
+        final Vector3D p = new Vector3D(7.0e6, -3.0e6, 1.0e6);
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(uncached.transformPosition(p), first.transformPosition(p)),
+                            1.0e-15);
+
+        FrameTransformCache.resetCounters();
+        Assert.assertEquals(0, FrameTransformCache.getHits());
+        Assert.assertEquals(0, FrameTransformCache.getMisses());
+
+    }
+
+    @Test
+    public void testEviction() throws OrekitException {
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame eme2000 = FramesFactory.getEME2000();
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH;
+
+        // fill the cache, plus one extra entry that evicts the oldest one
+        for (int i = 0; i <= FrameTransformCache.getSize(); ++i) {
+            gcrf.getTransformTo(eme2000, date.shiftedBy(i));
+        }
+        Assert.assertEquals(0, FrameTransformCache.getHits());
+        Assert.assertEquals(FrameTransformCache.getSize() + 1, FrameTransformCache.getMisses());
+
+        gcrf.getTransformTo(eme2000, date.shiftedBy(FrameTransformCache.getSize()));
+        Assert.assertEquals(1, FrameTransformCache.getHits());
+        gcrf.getTransformTo(eme2000, date);
+        Assert.assertEquals(1, FrameTransformCache.getHits());
+        Assert.assertEquals(FrameTransformCache.getSize() + 2, FrameTransformCache.getMisses());
+
+    }
+
+    @Test
+    public void testUpdatableFrame() throws OrekitException {
+        final Frame gcrf = FramesFactory.getGCRF();
+        final UpdatableFrame updatable = new UpdatableFrame(gcrf, Transform.IDENTITY, "updatable");
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH;
+        final Vector3D p = new Vector3D(1.0, 2.0, 3.0);
+
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(p, gcrf.getTransformTo(updatable, date).transformPosition(p)),
+                            1.0e-15);
+
+        final Transform translation = new Transform(date, new Vector3D(10.0, 0.0, 0.0));
+        updatable.updateTransform(gcrf, updatable, translation, date);
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(translation.transformPosition(p),
+                                              gcrf.getTransformTo(updatable, date).transformPosition(p)),
+                            1.0e-15);
+
+    }
+
+    @Test
+    public void testEstimatedEarthFrame() throws OrekitException {
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final EstimatedEarthFrameProvider provider =
+                new EstimatedEarthFrameProvider(TimeScalesFactory.getUT1(IERSConventions.IERS_2010, true));
+        final Frame estimated = new Frame(itrf.getParent(), provider, "estimated");
+        final AbsoluteDate date = new AbsoluteDate(2003, 10, 1, TimeScalesFactory.getUTC());
+        final Vector3D p = new Vector3D(7.0e6, -3.0e6, 1.0e6);
+        for (final ParameterDriver driver : new ParameterDriver[] {
+            provider.getPrimeMeridianOffsetDriver(), provider.getPrimeMeridianDriftDriver(),
+            provider.getPolarOffsetXDriver(), provider.getPolarDriftXDriver(),
+            provider.getPolarOffsetYDriver(), provider.getPolarDriftYDriver()
+        }) {
+            driver.setReferenceDate(date);
+        }
+
+        final Vector3D before = gcrf.getTransformTo(estimated, date).transformPosition(p);
+        provider.getPrimeMeridianOffsetDriver().setValue(1.0e-3);
+        final Vector3D after = gcrf.getTransformTo(estimated, date).transformPosition(p);
+        Assert.assertEquals(0, FrameTransformCache.getHits());
+        Assert.assertEquals(2, FrameTransformCache.getMisses());
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(gcrf.buildTransformTo(estimated, date).transformPosition(p), after),
+                            1.0e-15);
+        Assert.assertTrue(Vector3D.distance(before, after) > 1000.0);
+
+    }
+
+    @Test
+    public void testPerThread() throws Exception {
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame eme2000 = FramesFactory.getEME2000();
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH;
+        final Transform mainThread = gcrf.getTransformTo(eme2000, date);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Transform> other = executor.submit(() -> gcrf.getTransformTo(eme2000, date));
+            Assert.assertNotSame(mainThread, other.get(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(0, FrameTransformCache.getHits());
+        Assert.assertEquals(2, FrameTransformCache.getMisses());
+
+    }
+
+    @Test(expected = OrekitIllegalArgumentException.class)
+    public void testNegativeSize() {
+        FrameTransformCache.setSize(-1);
+    }
+
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("compressed-data");
+        FrameTransformCache.setSize(4);
+        FrameTransformCache.resetCounters();
+    }
+
+    @After
+    public void tearDown() {
+        FrameTransformCache.setSize(0);
+        FrameTransformCache.resetCounters();
+    }
+
+}
@@ -143,6 +143,47 @@ public class FramesFactoryTest {
         }
     }
 
+    @Test
+    public void testTruncatedFrames() throws OrekitException {
+        final double microAS = Constants.ARC_SECONDS_TO_RADIANS * 1.0e-6;
+
+        // no truncation means the regular singletons are used
+        Assert.assertSame(FramesFactory.getCIRF(IERSConventions.IERS_2010, true),
+                          FramesFactory.getCIRF(IERSConventions.IERS_2010, true, 0.0));
+        Assert.assertSame(FramesFactory.getTIRF(IERSConventions.IERS_2010, true),
+                          FramesFactory.getTIRF(IERSConventions.IERS_2010, true, 0.0));
+        Assert.assertSame(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                          FramesFactory.getITRF(IERSConventions.IERS_2010, true, 0.0));
+        Assert.assertSame(FramesFactory.getTOD(IERSConventions.IERS_2010, true),
+                          FramesFactory.getTOD(IERSConventions.IERS_2010, true, 0.0));
+
+        final Frame itrf          = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final Frame itrfTruncated = FramesFactory.getITRF(IERSConventions.IERS_2010, true, 1.0 * microAS);
+        final Frame tod           = FramesFactory.getTOD(IERSConventions.IERS_2010, true);
+        final Frame todTruncated  = FramesFactory.getTOD(IERSConventions.IERS_2010, true, 1.0 * microAS);
+        Assert.assertEquals(itrf.getName() + " truncated", itrfTruncated.getName());
+        Assert.assertFalse(itrfTruncated.isPseudoInertial());
+        Assert.assertTrue(todTruncated.isPseudoInertial());
+
+        double maxITRFError = 0;
+        double maxTODError  = 0;
+        final AbsoluteDate t0 = new AbsoluteDate(2003, 3, 1, TimeScalesFactory.getUTC());
+        for (double dt = 0; dt < 3 * Constants.JULIAN_DAY; dt += 3600.0) {
+            final AbsoluteDate date = t0.shiftedBy(dt);
+            maxITRFError = FastMath.max(maxITRFError,
+                                        Rotation.distance(itrf.getTransformTo(itrfTruncated, date).getRotation(),
+                                                          Rotation.IDENTITY));
+            maxTODError  = FastMath.max(maxTODError,
+                                        Rotation.distance(tod.getTransformTo(todTruncated, date).getRotation(),
+                                                          Rotation.IDENTITY));
+        }
+        Assert.assertTrue(maxITRFError >   0.0);
+        Assert.assertTrue(maxITRFError <  50.0 * microAS);
+        Assert.assertTrue(maxTODError  >   0.0);
+        Assert.assertTrue(maxTODError  < 100.0 * microAS);
+
+    }
+
     @Test
     public void testUnwrapInterpolatingTransformProvider() throws OrekitException {
         TransformProvider raw = new TransformProvider() {
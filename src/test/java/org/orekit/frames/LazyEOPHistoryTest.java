@@ -0,0 +1,219 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.frames;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitExceptionWrapper;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.ChronologicalComparator;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+public class LazyEOPHistoryTest {
+
+    @Test
+    public void testSameAsFull() throws OrekitException {
+
+        final EOPHistory full = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        FramesFactory.setLazyEOPLoading(true);
+        final EOPHistory history = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        Assert.assertTrue(history instanceof LazyEOPHistory);
+        final LazyEOPHistory lazy = (LazyEOPHistory) history;
+        Assert.assertNull(lazy.getLoadedWindowStart());
+        Assert.assertNull(lazy.getLoadedWindowEnd());
+        Assert.assertTrue(lazy.getEntries().isEmpty());
+
+        // first use loads only a few weeks
+        final AbsoluteDate date = new AbsoluteDate(2004, 6, 1, TimeScalesFactory.getUTC());
+        checkSame(full, lazy, date, 10 * Constants.JULIAN_DAY);
+        Assert.assertTrue(lazy.getLoadedWindowEnd().durationFrom(lazy.getLoadedWindowStart()) < 60 * Constants.JULIAN_DAY);
+        Assert.assertTrue(lazy.getStartDate().compareTo(new AbsoluteDate(2004, 4, 1, TimeScalesFactory.getUTC())) > 0);
+        Assert.assertTrue(lazy.getEndDate().compareTo(new AbsoluteDate(2004, 8, 1, TimeScalesFactory.getUTC())) < 0);
+        final int initialSize = lazy.getEntries().size();
+        Assert.assertTrue(initialSize < full.getEntries().size() / 10);
+
+        // drifting slowly extends the window
+        checkSame(full, lazy, date.shiftedBy(10 * Constants.JULIAN_DAY), 30 * Constants.JULIAN_DAY);
+        Assert.assertTrue(lazy.getEntries().size() > initialSize);
+
+        // far dates are loaded too
+        final AbsoluteDate far = new AbsoluteDate(2003, 2, 10, TimeScalesFactory.getUTC());
+        checkSame(full, lazy, far, 5 * Constants.JULIAN_DAY);
+        Assert.assertTrue(lazy.getLoadedWindowStart().compareTo(far) < 0);
+        Assert.assertEquals(full.getITRFVersion(far), lazy.getITRFVersion(far));
+
+    }
+
+    @Test
+    public void testOutOfRange() throws OrekitException {
+        FramesFactory.setLazyEOPLoading(true);
+        final EOPHistory history = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        final AbsoluteDate endDate = new AbsoluteDate(2006, 3, 5, TimeScalesFactory.getUTC());
+        for (double t = -1000; t < 1000 ; t += 3) {
+            final double dt = history.getUT1MinusUTC(endDate.shiftedBy(t));
+            if (t <= 0) {
+                Assert.assertTrue(dt < 0.29236);
+                Assert.assertTrue(dt > 0.29233);
+            } else {
+                // no more data after end date
+                Assert.assertEquals(0.0, dt, 1.0e-10);
+            }
+        }
+        Assert.assertEquals(0.0, history.getEndDate().durationFrom(endDate), 1.0e-10);
+    }
+
+    @Test
+    public void testC04Years() throws OrekitException {
+        final EOPC04FilesLoader loader = new EOPC04FilesLoader(FramesFactory.EOPC04_2000_FILENAME);
+        final SortedSet<EOPEntry> history = new TreeSet<>(new ChronologicalComparator());
+        DataProvidersManager.getInstance().clearLoadedDataNames();
+        loader.fillHistory(IERSConventions.IERS_2010.getNutationCorrectionConverter(), history,
+                           new AbsoluteDate(2004, 3, 1, TimeScalesFactory.getUTC()),
+                           new AbsoluteDate(2004, 3, 31, TimeScalesFactory.getUTC()));
+        Assert.assertEquals(31, history.size());
+        // only the file for 2004 has been parsed
+        final List<String> c04 = DataProvidersManager.getInstance().getLoadedDataNames().stream().
+                                 filter(name -> name.contains("eopc04")).
+                                 collect(Collectors.toList());
+        Assert.assertEquals(1, c04.size());
+        Assert.assertTrue(c04.get(0).endsWith("eopc04_08_IAU2000.04"));
+    }
+
+    @Test
+    public void testC04Coverage() throws OrekitException {
+        final EOPC04FilesLoader loader = new EOPC04FilesLoader(FramesFactory.EOPC04_2000_FILENAME);
+        DataProvidersManager.getInstance().clearLoadedDataNames();
+        final AbsoluteDate[] coverage =
+                        loader.getCoverage(IERSConventions.IERS_2010.getNutationCorrectionConverter());
+        Assert.assertEquals(0.0, coverage[0].durationFrom(new AbsoluteDate(2003, 1, 1, TimeScalesFactory.getUTC())), 1.0e-10);
+        Assert.assertEquals(0.0, coverage[1].durationFrom(new AbsoluteDate(2005, 12, 31, TimeScalesFactory.getUTC())), 1.0e-10);
+        // only the first and last years have been parsed
+        final List<String> c04 = DataProvidersManager.getInstance().getLoadedDataNames().stream().
+                                 filter(name -> name.contains("eopc04")).
+                                 collect(Collectors.toList());
+        Assert.assertFalse(c04.stream().anyMatch(name -> name.endsWith("eopc04_08_IAU2000.04")));
+    }
+
+    @Test
+    public void testFarDateDoesNotReload() throws OrekitException {
+        FramesFactory.setLazyEOPLoading(true);
+        final LazyEOPHistory lazy = (LazyEOPHistory) FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        final AbsoluteDate date = new AbsoluteDate(2004, 6, 1, TimeScalesFactory.getUTC());
+        lazy.getUT1MinusUTC(date);
+        final AbsoluteDate start = lazy.getLoadedWindowStart();
+        final AbsoluteDate end   = lazy.getLoadedWindowEnd();
+
+        // checking availability does not extend the window
+        Assert.assertTrue(lazy.hasDataFor(new AbsoluteDate(2003, 2, 10, TimeScalesFactory.getUTC())));
+        Assert.assertFalse(lazy.hasDataFor(new AbsoluteDate(2030, 1, 1, TimeScalesFactory.getUTC())));
+        Assert.assertEquals(0.0, lazy.getUT1MinusUTC(new AbsoluteDate(2030, 1, 1, TimeScalesFactory.getUTC())), 1.0e-15);
+        Assert.assertSame(start, lazy.getLoadedWindowStart());
+        Assert.assertSame(end,   lazy.getLoadedWindowEnd());
+    }
+
+    @Test
+    public void testNonWindowedLoadersParsedOnce() throws OrekitException {
+        FramesFactory.setLazyEOPLoading(true);
+        final LazyEOPHistory lazy = (LazyEOPHistory) FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        lazy.getUT1MinusUTC(new AbsoluteDate(2004, 6, 1, TimeScalesFactory.getUTC()));
+
+        // extending the window parses again C04 files only
+        DataProvidersManager.getInstance().clearLoadedDataNames();
+        final AbsoluteDate far = new AbsoluteDate(2003, 2, 10, TimeScalesFactory.getUTC());
+        lazy.getUT1MinusUTC(far);
+        Assert.assertTrue(lazy.getLoadedWindowStart().compareTo(far) < 0);
+        final List<String> names = DataProvidersManager.getInstance().getLoadedDataNames().stream().
+                                   filter(name -> name.contains("Earth-orientation-parameters")).
+                                   collect(Collectors.toList());
+        Assert.assertFalse(names.isEmpty());
+        Assert.assertTrue(names.stream().allMatch(name -> name.contains("eopc04")));
+
+        // after the end of data, the window is not extended anymore
+        lazy.getUT1MinusUTC(new AbsoluteDate(2006, 3, 1, TimeScalesFactory.getUTC()));
+        Assert.assertEquals(AbsoluteDate.FUTURE_INFINITY, lazy.getLoadedWindowEnd());
+        final AbsoluteDate end = lazy.getLoadedWindowEnd();
+        lazy.getUT1MinusUTC(new AbsoluteDate(2030, 1, 1, TimeScalesFactory.getUTC()));
+        Assert.assertSame(end, lazy.getLoadedWindowEnd());
+    }
+
+    @Test
+    public void testContinuity() throws OrekitException {
+        FramesFactory.setLazyEOPLoading(true);
+        FramesFactory.setEOPContinuityThreshold(0.5 * Constants.JULIAN_DAY);
+        final EOPHistory history = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        try {
+            history.getUT1MinusUTC(new AbsoluteDate(2004, 6, 1, TimeScalesFactory.getUTC()));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitExceptionWrapper oew) {
+            Assert.assertEquals(OrekitMessages.MISSING_EARTH_ORIENTATION_PARAMETERS_BETWEEN_DATES,
+                                oew.getException().getSpecifier());
+        }
+    }
+
+    @Test
+    public void testSerialization() throws OrekitException, IOException, ClassNotFoundException {
+        FramesFactory.setLazyEOPLoading(true);
+        final EOPHistory history = FramesFactory.getEOPHistory(IERSConventions.IERS_2010, true);
+        final AbsoluteDate date = new AbsoluteDate(2004, 6, 1, TimeScalesFactory.getUTC());
+        final double dt = history.getUT1MinusUTC(date);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream    oos = new ObjectOutputStream(bos);
+        oos.writeObject(history);
+
+        ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
+        ObjectInputStream     ois = new ObjectInputStream(bis);
+        EOPHistory deserialized  = (EOPHistory) ois.readObject();
+        Assert.assertFalse(deserialized instanceof LazyEOPHistory);
+        Assert.assertEquals(history.getEntries().size(), deserialized.getEntries().size());
+        Assert.assertEquals(dt, deserialized.getUT1MinusUTC(date), 1.0e-15);
+    }
+
+    private void checkSame(final EOPHistory full, final EOPHistory lazy,
+                           final AbsoluteDate start, final double duration) {
+        for (double t = 0; t < duration; t += 0.3 * Constants.JULIAN_DAY) {
+            final AbsoluteDate date = start.shiftedBy(t);
+            Assert.assertEquals(full.getUT1MinusUTC(date), lazy.getUT1MinusUTC(date), 1.0e-15);
+            Assert.assertEquals(full.getLOD(date), lazy.getLOD(date), 1.0e-15);
+            Assert.assertEquals(full.getPoleCorrection(date).getXp(), lazy.getPoleCorrection(date).getXp(), 1.0e-20);
+            Assert.assertEquals(full.getPoleCorrection(date).getYp(), lazy.getPoleCorrection(date).getYp(), 1.0e-20);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("regular-data");
+    }
+
+}
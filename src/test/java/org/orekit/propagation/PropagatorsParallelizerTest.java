@@ -17,8 +17,13 @@
 package org.orekit.propagation;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -46,9 +51,12 @@ import org.orekit.orbits.Orbit;
 import org.orekit.orbits.OrbitType;
 import org.orekit.orbits.PositionAngle;
 import org.orekit.propagation.analytical.EcksteinHechlerPropagator;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
 import org.orekit.propagation.events.DateDetector;
 import org.orekit.propagation.events.handlers.StopOnEvent;
 import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.propagation.sampling.OrekitStepInterpolator;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.DateComponents;
 import org.orekit.time.TimeComponents;
@@ -244,6 +252,159 @@ public class PropagatorsParallelizerTest {
         Assert.assertEquals(0.0, results.get(1).getDate().durationFrom(stopDate), 1.0e-15);
     }
 
+    @Test
+    public void testUserExecutor() throws OrekitException {
+        final AbsoluteDate startDate =  orbit.getDate();
+        final AbsoluteDate endDate   = startDate.shiftedBy(3600.0);
+        final List<Propagator> propagators = Arrays.asList(buildEcksteinHechler(),
+                                                           buildNumerical(),
+                                                           buildNumerical());
+        final List<SpacecraftState> reference =
+                        new PropagatorsParallelizer(propagators, (interpolators, isLast) -> {}).
+                        propagate(startDate, endDate);
+
+        // a single thread work-stealing pool is enough, as blocked propagators are compensated
+        final ExecutorService executor = new ForkJoinPool(1);
+        try {
+            final PropagatorsParallelizer parallelizer =
+                            new PropagatorsParallelizer(propagators, (interpolators, isLast) -> {
+                                Assert.assertEquals(3, interpolators.size());
+                                AbsoluteDate t0 = interpolators.get(0).getCurrentState().getDate();
+                                for (final OrekitStepInterpolator interpolator : interpolators) {
+                                    Assert.assertEquals(0.0,
+                                                        interpolator.getCurrentState().getDate().durationFrom(t0),
+                                                        1.0e-15);
+                                }
+                            });
+            Assert.assertTrue(parallelizer.getStatistics().isEmpty());
+            parallelizer.setExecutor(executor);
+            Assert.assertSame(executor, parallelizer.getExecutor());
+
+            // propagate twice with the same executor, to check threads reuse
+            for (int k = 0; k < 2; ++k) {
+                final List<SpacecraftState> results = parallelizer.propagate(startDate, endDate);
+                Assert.assertEquals(3, results.size());
+                for (int i = 0; i < results.size(); ++i) {
+                    // depending on threads scheduling, final states are either computed
+                    // by the propagators or interpolated by the parallelizer
+                    Assert.assertEquals(0.0, results.get(i).getDate().durationFrom(endDate), 1.0e-15);
+                    Assert.assertEquals(0.0,
+                                        Vector3D.distance(reference.get(i).getPVCoordinates().getPosition(),
+                                                          results.get(i).getPVCoordinates().getPosition()),
+                                        1.0e-3);
+                }
+                Assert.assertEquals(3, parallelizer.getStatistics().size());
+                for (final PropagatorsParallelizer.PropagatorStatistics statistics : parallelizer.getStatistics()) {
+                    Assert.assertTrue(statistics.getSteps() > 0);
+                    Assert.assertTrue(statistics.getComputingTime() > 0);
+                    Assert.assertTrue(statistics.getBlockedTime()   >= 0);
+                    Assert.assertTrue(statistics.getAwaitedTime()   >= 0);
+                }
+            }
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUserExecutorException() throws OrekitException, InterruptedException {
+        final AbsoluteDate startDate =  orbit.getDate();
+        final AbsoluteDate endDate   = startDate.shiftedBy(3600.0);
+        List<Propagator> propagators = Arrays.asList(buildEcksteinHechler(),
+                                                     buildNumerical());
+        propagators.get(0).addEventDetector(new DateDetector(startDate.shiftedBy(900.0)).
+                                            withHandler((state, detector, increasing) -> {
+                                                            throw new OrekitException(LocalizedCoreFormats.SIMPLE_MESSAGE,
+                                                                                      "inTest");
+                                                        }));
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final PropagatorsParallelizer parallelizer =
+                            new PropagatorsParallelizer(propagators, (interpolators, isLast) -> {});
+            parallelizer.setExecutor(executor);
+            parallelizer.propagate(startDate, endDate);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(LocalizedCoreFormats.SIMPLE_MESSAGE, oe.getSpecifier());
+            Assert.assertEquals("inTest", (String) oe.getParts()[0]);
+        } finally {
+            executor.shutdown();
+        }
+        // no propagator should remain blocked
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMidStepInterpolation() throws OrekitException {
+        final AbsoluteDate startDate =  orbit.getDate();
+        final AbsoluteDate endDate   = startDate.shiftedBy(7200.0);
+
+        // interpolate all propagators at the middle of each global step
+        final List<List<SpacecraftState>> parallel = new ArrayList<>();
+        final List<Propagator> propagators = Arrays.asList(buildTLE(), buildNumerical(), buildTLE(), buildNumerical());
+        for (int i = 0; i < propagators.size(); ++i) {
+            parallel.add(new ArrayList<>());
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(propagators.size());
+        try {
+            final PropagatorsParallelizer parallelizer =
+                            new PropagatorsParallelizer(propagators, (interpolators, isLast) -> {
+                                for (int i = 0; i < interpolators.size(); ++i) {
+                                    final OrekitStepInterpolator interpolator = interpolators.get(i);
+                                    final AbsoluteDate t0 = interpolator.getPreviousState().getDate();
+                                    final AbsoluteDate t1 = interpolator.getCurrentState().getDate();
+                                    final AbsoluteDate tm = t0.shiftedBy(0.5 * t1.durationFrom(t0));
+                                    parallel.get(i).add(interpolator.getInterpolatedState(tm));
+                                }
+                            });
+            parallelizer.setExecutor(executor);
+            parallelizer.propagate(startDate, endDate);
+        } finally {
+            executor.shutdown();
+        }
+
+        // interpolate independent propagators at the same dates, in a single thread
+        final List<Propagator> references = Arrays.asList(buildTLE(), buildNumerical(), buildTLE(), buildNumerical());
+        for (int i = 0; i < references.size(); ++i) {
+            final List<SpacecraftState> expected = parallel.get(i);
+            final int[] count = new int[1];
+            references.get(i).setMasterMode((interpolator, isLast) -> {
+                final AbsoluteDate t0 = interpolator.getPreviousState().getDate();
+                final AbsoluteDate t1 = interpolator.getCurrentState().getDate();
+                while (count[0] < expected.size() &&
+                       expected.get(count[0]).getDate().durationFrom(t0) >= 0 &&
+                       expected.get(count[0]).getDate().durationFrom(t1) <= 0) {
+                    final SpacecraftState e = expected.get(count[0]++);
+                    final SpacecraftState r = interpolator.getInterpolatedState(e.getDate());
+                    Assert.assertEquals(0.0,
+                                        Vector3D.distance(r.getPVCoordinates().getPosition(),
+                                                          e.getPVCoordinates().getPosition()),
+                                        1.0e-8);
+                    Assert.assertEquals(0.0,
+                                        Vector3D.distance(r.getPVCoordinates().getVelocity(),
+                                                          e.getPVCoordinates().getVelocity()),
+                                        1.0e-11);
+                }
+            });
+            references.get(i).propagate(startDate, endDate);
+            Assert.assertTrue(expected.size() > 10);
+            Assert.assertEquals(expected.size(), count[0]);
+        }
+
+    }
+
+    private TLEPropagator buildTLE() throws OrekitException {
+        final KeplerianOrbit keplerian = (KeplerianOrbit) OrbitType.KEPLERIAN.convertType(orbit);
+        final TLE tle = new TLE(99999, 'U', 2004, 1, "A", 0, 999, orbit.getDate(),
+                                keplerian.getKeplerianMeanMotion(), 0.0, 0.0,
+                                keplerian.getE(), keplerian.getI(),
+                                keplerian.getPerigeeArgument(),
+                                keplerian.getRightAscensionOfAscendingNode(),
+                                keplerian.getMeanAnomaly(), 1, 1.0e-4);
+        return TLEPropagator.selectExtrapolator(tle);
+    }
+
     private EcksteinHechlerPropagator buildEcksteinHechler() throws OrekitException {
         return new EcksteinHechlerPropagator(orbit, attitudeLaw, mass, unnormalizedGravityField);
     }
@@ -0,0 +1,220 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.ode.nonstiff.AdaptiveStepsizeIntegrator;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.TimeStampedCacheException;
+import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.ICGEMFormatReader;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.EquinoctialOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.TimeStampedPVCoordinates;
+
+public class ChebyshevEphemerisTest {
+
+    private Orbit             initialOrbit;
+    private BoundedPropagator ephemeris;
+
+    @Test
+    public void testTolerances() throws OrekitException {
+
+        final ChebyshevEphemerisFitter fitter = new ChebyshevEphemerisFitter(1.0e-3, 1.0e-6);
+        Assert.assertEquals(ChebyshevEphemerisFitter.DEFAULT_DEGREE, fitter.getDegree());
+        final ChebyshevEphemeris chebyshev = fitter.fit(ephemeris);
+        Assert.assertEquals(0.0, chebyshev.getMinDate().durationFrom(ephemeris.getMinDate()), 1.0e-10);
+        Assert.assertEquals(0.0, chebyshev.getMaxDate().durationFrom(ephemeris.getMaxDate()), 1.0e-10);
+        Assert.assertSame(initialOrbit.getFrame(), chebyshev.getFrame());
+        Assert.assertEquals(ChebyshevEphemerisFitter.DEFAULT_DEGREE + 1, chebyshev.getCoefficientsNumber());
+
+        // the orbital period is about 1h45, segments have to be split
+        Assert.assertTrue(chebyshev.getSegmentsNumber() >= 24);
+        Assert.assertTrue(chebyshev.getSegmentsNumber() < 100);
+
+        double maxP = 0;
+        double maxV = 0;
+        for (double dt = 0; dt < 86400; dt += 17.0) {
+            final AbsoluteDate  date     = initialOrbit.getDate().shiftedBy(dt);
+            final PVCoordinates expected = ephemeris.getPVCoordinates(date, initialOrbit.getFrame());
+            final SpacecraftState state  = chebyshev.propagate(date);
+            Assert.assertEquals(1000.0, state.getMass(), 1.0e-10);
+            maxP = FastMath.max(maxP, Vector3D.distance(expected.getPosition(), state.getPVCoordinates().getPosition()));
+            maxV = FastMath.max(maxV, Vector3D.distance(expected.getVelocity(), state.getPVCoordinates().getVelocity()));
+        }
+        Assert.assertTrue(maxP < 2.0e-3);
+        Assert.assertTrue(maxV < 2.0e-6);
+
+        // non-inertial output frame
+        final AbsoluteDate date = initialOrbit.getDate().shiftedBy(4321.0);
+        final TimeStampedPVCoordinates pv =
+                chebyshev.getPVCoordinates(date, FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(ephemeris.getPVCoordinates(date, FramesFactory.getITRF(IERSConventions.IERS_2010, true)).getPosition(),
+                                              pv.getPosition()),
+                            2.0e-3);
+
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws OrekitException {
+
+        final ChebyshevEphemeris chebyshev = new ChebyshevEphemerisFitter(1.0e-2, 1.0e-5).fit(ephemeris);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        chebyshev.write(out);
+        Assert.assertEquals(8 + 4 + 2 + initialOrbit.getFrame().getName().length() + 8 + 8 + 8 + 4 + 4 +
+                            8 * (chebyshev.getSegmentsNumber() + 1) +
+                            8 * 4 * chebyshev.getSegmentsNumber() * chebyshev.getCoefficientsNumber(),
+                            out.size());
+
+        final ChebyshevEphemeris read =
+                ChebyshevEphemeris.read(new ByteArrayInputStream(out.toByteArray()), "memory",
+                                        name -> FramesFactory.getEME2000());
+        Assert.assertEquals(chebyshev.getSegmentsNumber(), read.getSegmentsNumber());
+        Assert.assertEquals(0.0, read.getMinDate().durationFrom(chebyshev.getMinDate()), 1.0e-12);
+        Assert.assertEquals(0.0, read.getMaxDate().durationFrom(chebyshev.getMaxDate()), 1.0e-12);
+        for (double dt = 0; dt < 86400; dt += 600.0) {
+            final AbsoluteDate date = initialOrbit.getDate().shiftedBy(dt);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(chebyshev.getPVCoordinates(date, initialOrbit.getFrame()).getPosition(),
+                                                  read.getPVCoordinates(date, initialOrbit.getFrame()).getPosition()),
+                                1.0e-6);
+        }
+
+        // truncated data
+        try {
+            ChebyshevEphemeris.read(new ByteArrayInputStream(out.toByteArray(), 0, out.size() - 1), "memory",
+                                    name -> FramesFactory.getEME2000());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNEXPECTED_END_OF_FILE, oe.getSpecifier());
+        }
+
+        // unknown frame
+        try {
+            ChebyshevEphemeris.read(new ByteArrayInputStream(out.toByteArray()), "memory", name -> null);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNKNOWN_FRAME, oe.getSpecifier());
+        }
+
+        // wrong format
+        try {
+            ChebyshevEphemeris.read(new ByteArrayInputStream(new byte[16]), "memory",
+                                    name -> FramesFactory.getEME2000());
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNSUPPORTED_FILE_FORMAT, oe.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testUnreachableTolerance() throws OrekitException {
+        try {
+            new ChebyshevEphemerisFitter(1.0e-15, 1.0e-15, 4, 3600.0, 600.0).fit(ephemeris);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_FIT_CHEBYSHEV_POLYNOMIALS, oe.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNonInertialFrame() throws OrekitException {
+        try {
+            new ChebyshevEphemerisFitter(1.0e-3, 1.0e-6).fit(ephemeris, FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitIllegalArgumentException oiae) {
+            Assert.assertEquals(OrekitMessages.NON_PSEUDO_INERTIAL_FRAME, oiae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testRangeAndReset() throws OrekitException {
+        final ChebyshevEphemeris chebyshev = new ChebyshevEphemerisFitter(1.0e-2, 1.0e-5).fit(ephemeris);
+        Assert.assertEquals(0.0, chebyshev.getInitialState().getDate().durationFrom(initialOrbit.getDate()), 1.0e-10);
+
+        try {
+            chebyshev.propagate(chebyshev.getMinDate().shiftedBy(-1.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (TimeStampedCacheException tce) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE, tce.getSpecifier());
+        }
+
+        try {
+            chebyshev.propagate(chebyshev.getMaxDate().shiftedBy(1.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (TimeStampedCacheException tce) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER, tce.getSpecifier());
+        }
+
+        try {
+            chebyshev.resetInitialState(new SpacecraftState(initialOrbit));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NON_RESETABLE_STATE, oe.getSpecifier());
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+
+        Utils.setDataRoot("regular-data:potential/icgem-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new ICGEMFormatReader("eigen-6s-truncated", true));
+
+        initialOrbit = new EquinoctialOrbit(new PVCoordinates(new Vector3D(7.0e6, 1.0e6, 4.0e6),
+                                                              new Vector3D(-500.0, 8000.0, 1000.0)),
+                                            FramesFactory.getEME2000(),
+                                            AbsoluteDate.J2000_EPOCH.shiftedBy(584.),
+                                            3.9860047e14);
+
+        final double[][] tolerances = NumericalPropagator.tolerances(0.001, initialOrbit, OrbitType.CARTESIAN);
+        final AdaptiveStepsizeIntegrator integrator =
+                new DormandPrince853Integrator(0.001, 500, tolerances[0], tolerances[1]);
+        integrator.setInitialStepSize(100);
+        final NumericalPropagator propagator = new NumericalPropagator(integrator);
+        propagator.setOrbitType(OrbitType.CARTESIAN);
+        propagator.addForceModel(new HolmesFeatherstoneAttractionModel(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                                                       GravityFieldFactory.getNormalizedProvider(8, 8)));
+        propagator.setInitialState(new SpacecraftState(initialOrbit, 1000.0));
+        propagator.setEphemerisMode();
+        propagator.propagate(initialOrbit.getDate().shiftedBy(86400.0));
+        ephemeris = propagator.getGeneratedEphemeris();
+
+    }
+
+}
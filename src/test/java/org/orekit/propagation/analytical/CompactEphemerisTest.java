@@ -0,0 +1,319 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.attitudes.LofOffset;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.errors.TimeStampedCacheException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.LOFType;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScalesFactory;
+
+public class CompactEphemerisTest {
+
+    private AbsoluteDate initDate;
+    private AbsoluteDate finalDate;
+    private Frame        inertialFrame;
+    private Propagator   propagator;
+
+    @Test
+    public void testSameAsEphemerisCartesian() throws OrekitException {
+        checkSameAsEphemeris(OrbitType.CARTESIAN, 8, 2.0e-8);
+    }
+
+    @Test
+    public void testSameAsEphemerisKeplerian() throws OrekitException {
+        checkSameAsEphemeris(OrbitType.KEPLERIAN, 6, 2.0e-8);
+    }
+
+    @Test
+    public void testSameAsEphemerisCircular() throws OrekitException {
+        checkSameAsEphemeris(OrbitType.CIRCULAR, 2, 2.0e-8);
+    }
+
+    @Test
+    public void testSameAsEphemerisEquinoctialWithoutDerivatives() throws OrekitException {
+        List<SpacecraftState> states = new ArrayList<>();
+        for (double dt = 0; dt <= 3600; dt += 60.0) {
+            final SpacecraftState s = propagator.propagate(initDate.shiftedBy(dt));
+            final Orbit o = s.getOrbit();
+            final KeplerianOrbit noDerivatives =
+                            new KeplerianOrbit(o.getA(), o.getE(), o.getI(),
+                                               ((KeplerianOrbit) o).getPerigeeArgument(),
+                                               ((KeplerianOrbit) o).getRightAscensionOfAscendingNode(),
+                                               ((KeplerianOrbit) o).getTrueAnomaly(), PositionAngle.TRUE,
+                                               o.getFrame(), o.getDate(), o.getMu());
+            states.add(new SpacecraftState(OrbitType.EQUINOCTIAL.convertType(noDerivatives),
+                                           s.getAttitude(), s.getMass()));
+        }
+        Assert.assertFalse(states.get(0).getOrbit().hasDerivatives());
+        checkSameAsEphemeris(states, 4, 2.0e-8);
+    }
+
+    private void checkSameAsEphemeris(final OrbitType type, final int interpolationPoints,
+                                      final double positionTolerance)
+        throws OrekitException {
+        propagator.setAttitudeProvider(new LofOffset(inertialFrame, LOFType.VVLH));
+        List<SpacecraftState> states = new ArrayList<>();
+        for (double dt = 0; dt <= finalDate.durationFrom(initDate); dt += 60.0) {
+            final SpacecraftState s = propagator.propagate(initDate.shiftedBy(dt));
+            states.add(new SpacecraftState(type.convertType(s.getOrbit()), s.getAttitude(),
+                                           1000.0 - 1.0e-4 * dt).
+                       addAdditionalState("dt", dt, -dt));
+        }
+        checkSameAsEphemeris(states, interpolationPoints, positionTolerance);
+    }
+
+    private void checkSameAsEphemeris(final List<SpacecraftState> states, final int interpolationPoints,
+                                      final double positionTolerance)
+        throws OrekitException {
+
+        final Ephemeris        reference = new Ephemeris(states, interpolationPoints);
+        final CompactEphemeris compact   = new CompactEphemeris(states, interpolationPoints);
+        Assert.assertEquals(states.size(), compact.getSize());
+        Assert.assertEquals(interpolationPoints, compact.getInterpolationPoints());
+        Assert.assertEquals(0.0, reference.getMinDate().durationFrom(compact.getMinDate()), 0.0);
+        Assert.assertEquals(0.0, reference.getMaxDate().durationFrom(compact.getMaxDate()), 0.0);
+        Assert.assertSame(reference.getFrame(), compact.getFrame());
+
+        final double span = compact.getMaxDate().durationFrom(compact.getMinDate());
+        for (double dt = 0; dt <= span; dt += 17.25) {
+            final AbsoluteDate    date = compact.getMinDate().shiftedBy(dt);
+            final SpacecraftState r    = reference.propagate(date);
+            final SpacecraftState c    = compact.propagate(date);
+            Assert.assertEquals(r.getOrbit().getType(), c.getOrbit().getType());
+            Assert.assertEquals(0.0, c.getDate().durationFrom(r.getDate()), 0.0);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(r.getPVCoordinates().getPosition(),
+                                                  c.getPVCoordinates().getPosition()),
+                                positionTolerance);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(r.getPVCoordinates().getVelocity(),
+                                                  c.getPVCoordinates().getVelocity()),
+                                1.0e-3 * positionTolerance);
+            Assert.assertEquals(0.0,
+                                Rotation.distance(r.getAttitude().getRotation(), c.getAttitude().getRotation()),
+                                1.0e-14);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(r.getAttitude().getSpin(), c.getAttitude().getSpin()),
+                                1.0e-17);
+            Assert.assertEquals(r.getMass(), c.getMass(), 1.0e-12);
+            for (final String name : r.getAdditionalStates().keySet()) {
+                final double[] ra = r.getAdditionalState(name);
+                final double[] ca = c.getAdditionalState(name);
+                Assert.assertEquals(ra.length, ca.length);
+                for (int i = 0; i < ra.length; ++i) {
+                    Assert.assertEquals(ra[i], ca[i], 1.0e-12);
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void testAttitudeReferenceFrame() throws OrekitException {
+        propagator.setAttitudeProvider(new LofOffset(inertialFrame, LOFType.VVLH));
+        final Frame gcrf = FramesFactory.getGCRF();
+        List<SpacecraftState> states = new ArrayList<>();
+        for (double dt = 0; dt <= 3600; dt += 60.0) {
+            final SpacecraftState s = propagator.propagate(initDate.shiftedBy(dt));
+            states.add(new SpacecraftState(s.getOrbit(), s.getAttitude().withReferenceFrame(gcrf), s.getMass()));
+        }
+        Assert.assertNotSame(states.get(0).getFrame(), states.get(0).getAttitude().getReferenceFrame());
+
+        final Ephemeris        reference = new Ephemeris(states, 4);
+        final CompactEphemeris compact   = new CompactEphemeris(states, 4);
+        for (double dt = 0; dt <= 3600; dt += 17.25) {
+            final AbsoluteDate    date = initDate.shiftedBy(dt);
+            final SpacecraftState r    = reference.propagate(date);
+            final SpacecraftState c    = compact.propagate(date);
+            Assert.assertSame(gcrf, c.getAttitude().getReferenceFrame());
+            Assert.assertSame(r.getAttitude().getReferenceFrame(), c.getAttitude().getReferenceFrame());
+            Assert.assertEquals(0.0,
+                                Rotation.distance(r.getAttitude().getRotation(), c.getAttitude().getRotation()),
+                                1.0e-14);
+        }
+    }
+
+    @Test
+    public void testBuilderAndUnsortedList() throws OrekitException {
+        List<SpacecraftState> states = new ArrayList<>();
+        CompactEphemeris.Builder builder = new CompactEphemeris.Builder();
+        for (double dt = 0; dt <= 3600; dt += 60.0) {
+            final SpacecraftState s = propagator.propagate(initDate.shiftedBy(dt));
+            states.add(s);
+            builder.addState(s);
+        }
+        Assert.assertEquals(states.size(), builder.getSize());
+        final BoundedPropagator built = builder.build(4, 0.0);
+        Collections.reverse(states);
+        final BoundedPropagator fromList = new CompactEphemeris(states, 4, 0.0);
+        for (double dt = 0; dt <= 3600; dt += 7.5) {
+            final AbsoluteDate date = initDate.shiftedBy(dt);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(built.getPVCoordinates(date, inertialFrame).getPosition(),
+                                                  fromList.getPVCoordinates(date, inertialFrame).getPosition()),
+                                0.0);
+        }
+    }
+
+    @Test
+    public void testNonChronological() throws OrekitException {
+        CompactEphemeris.Builder builder = new CompactEphemeris.Builder();
+        builder.addState(propagator.propagate(initDate.shiftedBy(60.0)));
+        try {
+            builder.addState(propagator.propagate(initDate.shiftedBy(60.0)));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NON_CHRONOLOGICALLY_SORTED_ENTRIES, oe.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testFramesMismatch() throws OrekitException {
+        CompactEphemeris.Builder builder = new CompactEphemeris.Builder();
+        builder.addState(propagator.propagate(initDate));
+        final Orbit o = propagator.propagate(initDate.shiftedBy(60.0)).getOrbit();
+        final Orbit other = new KeplerianOrbit(o.getPVCoordinates(FramesFactory.getGCRF()),
+                                               FramesFactory.getGCRF(), o.getMu());
+        try {
+            builder.addState(new SpacecraftState(other));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.FRAMES_MISMATCH, oe.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testInsufficientPoints() throws OrekitException {
+        try {
+            new CompactEphemeris(Collections.singletonList(propagator.propagate(initDate)), 2);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.INSUFFICIENT_DIMENSION, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testAttitudeOverrideAndAdditionalStates() throws OrekitException {
+        List<SpacecraftState> states = new ArrayList<>();
+        for (double dt = 0; dt <= 1200; dt += 60.0) {
+            states.add(propagator.propagate(initDate.shiftedBy(dt)).addAdditionalState("dt", dt));
+        }
+        final CompactEphemeris compact = new CompactEphemeris(states, 2);
+        Assert.assertTrue(compact.isAdditionalStateManaged("dt"));
+        Assert.assertFalse(compact.isAdditionalStateManaged("not managed"));
+        Assert.assertEquals(1, compact.getManagedAdditionalStates().length);
+        Assert.assertEquals(270.0, compact.propagate(initDate.shiftedBy(270.0)).getAdditionalState("dt")[0], 1.0e-12);
+
+        final Propagator reference = new KeplerianPropagator(states.get(0).getOrbit());
+        reference.setAttitudeProvider(new LofOffset(inertialFrame, LOFType.QSW));
+        compact.setAttitudeProvider(new LofOffset(inertialFrame, LOFType.QSW));
+        final AbsoluteDate date = initDate.shiftedBy(270.0);
+        Assert.assertEquals(0.0,
+                            Rotation.distance(reference.propagate(date).getAttitude().getRotation(),
+                                              compact.propagate(date).getAttitude().getRotation()),
+                            1.0e-6);
+    }
+
+    @Test
+    public void testExtrapolationAndReset() throws OrekitException {
+        List<SpacecraftState> states = new ArrayList<>();
+        for (double dt = 0; dt <= 1200; dt += 60.0) {
+            states.add(propagator.propagate(initDate.shiftedBy(dt)));
+        }
+        final CompactEphemeris compact = new CompactEphemeris(states, 5);
+        final double tolerance = compact.getExtrapolationThreshold();
+        compact.propagate(compact.getMinDate().shiftedBy(-tolerance / 2.0));
+        compact.propagate(compact.getMaxDate().shiftedBy(tolerance / 2.0));
+        Assert.assertEquals(0.0, compact.getInitialState().getDate().durationFrom(initDate), 0.0);
+
+        try {
+            compact.propagate(compact.getMinDate().shiftedBy(-2.0 * tolerance));
+            Assert.fail("an exception should have been thrown");
+        } catch (TimeStampedCacheException tce) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE, tce.getSpecifier());
+        }
+
+        try {
+            compact.propagate(compact.getMaxDate().shiftedBy(2.0 * tolerance));
+            Assert.fail("an exception should have been thrown");
+        } catch (TimeStampedCacheException tce) {
+            Assert.assertEquals(OrekitMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER, tce.getSpecifier());
+        }
+
+        try {
+            compact.resetInitialState(states.get(0));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.NON_RESETABLE_STATE, oe.getSpecifier());
+        }
+    }
+
+    @Before
+    public void setUp() throws IllegalArgumentException, OrekitException {
+        Utils.setDataRoot("regular-data");
+
+        initDate = new AbsoluteDate(new DateComponents(2004, 01, 01),
+                                    TimeComponents.H00,
+                                    TimeScalesFactory.getUTC());
+
+        finalDate = new AbsoluteDate(new DateComponents(2004, 01, 01),
+                                     new TimeComponents(6, 0, 0.0),
+                                     TimeScalesFactory.getUTC());
+
+        double a = 7187990.1979844316;
+        double e = 0.5e-4;
+        double i = 1.7105407051081795;
+        double omega = 1.9674147913622104;
+        double OMEGA = FastMath.toRadians(261);
+        double lv = 0;
+        double mu  = 3.9860047e14;
+        inertialFrame = FramesFactory.getEME2000();
+
+        Orbit initialState = new KeplerianOrbit(a, e, i, omega, OMEGA, lv, PositionAngle.TRUE,
+                                                inertialFrame, initDate, mu);
+        propagator = new KeplerianPropagator(initialState);
+
+    }
+
+}
@@ -25,6 +25,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -116,6 +117,76 @@ public class KeplerianPropagatorTest {
         Assert.assertEquals(target, actual.getDate());
     }
 
+    @Test
+    public void testSharedEventSamples() throws OrekitException {
+        Assert.assertEquals(countInterpolations(1), countInterpolations(20));
+    }
+
+    @Test
+    public void testBufferedInterpolatorsWithEvents() throws OrekitException {
+        final Orbit ic = new KeplerianOrbit(6378137 + 500e3, 1e-3, 0.3, 0, 0, 0.1,
+                                            PositionAngle.TRUE, FramesFactory.getGCRF(),
+                                            AbsoluteDate.J2000_EPOCH, mu);
+        final Propagator propagator = new KeplerianPropagator(ic);
+        final BodyShape earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                     Constants.WGS84_EARTH_FLATTENING,
+                                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        propagator.addEventDetector(new NodeDetector(ic, ic.getFrame()).withHandler(new ContinueOnEvent<NodeDetector>()));
+        propagator.addEventDetector(new AltitudeDetector(60.0, 100.0e3, earth));
+
+        // step handlers may keep interpolators for later use, for example on another thread
+        final List<OrekitStepInterpolator> buffer = new ArrayList<>();
+        propagator.setMasterMode(new OrekitStepHandler() {
+            public void handleStep(OrekitStepInterpolator interpolator, boolean isLast) {
+                buffer.add(interpolator);
+            }
+        });
+        propagator.propagate(ic.getDate().shiftedBy(3 * ic.getKeplerianPeriod()));
+
+        // steps are split at the 6 nodes
+        Assert.assertTrue(buffer.size() >= 7);
+        final Propagator reference = new KeplerianPropagator(ic);
+        for (final OrekitStepInterpolator interpolator : buffer) {
+            // the sample cache used for event detection is not exposed to step handlers
+            Assert.assertFalse(interpolator.getClass().getName().contains("SharedSamples"));
+            final AbsoluteDate t0 = interpolator.getPreviousState().getDate();
+            final AbsoluteDate t1 = interpolator.getCurrentState().getDate();
+            final AbsoluteDate tm = t0.shiftedBy(0.5 * t1.durationFrom(t0));
+            for (final AbsoluteDate date : Arrays.asList(t0, tm, t1)) {
+                Assert.assertEquals(0.0,
+                                    Vector3D.distance(reference.propagate(date).getPVCoordinates().getPosition(),
+                                                      interpolator.getInterpolatedState(date).getPVCoordinates().getPosition()),
+                                    1.0e-6);
+            }
+        }
+    }
+
+    private int countInterpolations(final int nbDetectors) throws OrekitException {
+        final Orbit ic = new KeplerianOrbit(6378137 + 500e3, 1e-3, 0, 0, 0, 0,
+                                            PositionAngle.TRUE, FramesFactory.getGCRF(),
+                                            AbsoluteDate.J2000_EPOCH, mu);
+        final Propagator propagator = new KeplerianPropagator(ic);
+        final BodyShape earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                     Constants.WGS84_EARTH_FLATTENING,
+                                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        final int[] count = new int[1];
+        propagator.addAdditionalStateProvider(new AdditionalStateProvider() {
+            public String getName() {
+                return "counter";
+            }
+            public double[] getAdditionalState(SpacecraftState state) {
+                ++count[0];
+                return new double[1];
+            }
+        });
+        for (int i = 0; i < nbDetectors; ++i) {
+            // altitude never crosses 100km, so detectors only sample steps
+            propagator.addEventDetector(new AltitudeDetector(60.0, 100.0e3, earth));
+        }
+        propagator.propagate(ic.getDate().shiftedBy(Constants.JULIAN_DAY));
+        return count[0];
+    }
+
     @Test
     public void testEphemerisModeWithHandler() throws OrekitException {
         // setup
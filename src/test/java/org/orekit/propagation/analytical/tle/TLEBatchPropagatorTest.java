@@ -0,0 +1,211 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.analytical.tle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.FramesFactory;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+
+public class TLEBatchPropagatorTest {
+
+    private List<TLE> tles;
+
+    @Test
+    public void testSameAsScalar() throws OrekitException {
+        final List<TLE> valid = new ArrayList<>();
+        for (final TLE tle : tles) {
+            if (canPropagate(tle)) {
+                valid.add(tle);
+            }
+        }
+        Assert.assertTrue(valid.size() > 20);
+        final TLEBatchPropagator batch = new TLEBatchPropagator(valid);
+        Assert.assertEquals(valid.size(), batch.getSize());
+        Assert.assertSame(FramesFactory.getTEME(), batch.getFrame());
+        checkSameAsScalar(batch, false);
+    }
+
+    @Test
+    public void testParallel() throws OrekitException {
+        final List<TLE> valid = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            for (final TLE tle : tles) {
+                if (canPropagate(tle)) {
+                    valid.add(tle);
+                }
+            }
+        }
+        checkSameAsScalar(new TLEBatchPropagator(valid), true);
+    }
+
+    @Test
+    public void testNearAndDeepSpace() throws OrekitException {
+        final TLEBatchPropagator batch = new TLEBatchPropagator(tles);
+        int nbDeep = 0;
+        for (int k = 0; k < batch.getSize(); ++k) {
+            Assert.assertSame(tles.get(k), batch.getTLE(k));
+            final boolean deep = TLEPropagator.selectExtrapolator(tles.get(k)) instanceof DeepSDP4;
+            Assert.assertEquals(deep, batch.isDeepSpace(k));
+            if (deep) {
+                ++nbDeep;
+            }
+        }
+        Assert.assertTrue(nbDeep > 0);
+        Assert.assertTrue(nbDeep < batch.getSize());
+    }
+
+    @Test
+    public void testPropagationError() throws OrekitException {
+        TLE failing = null;
+        for (final TLE tle : tles) {
+            if (!canPropagate(tle)) {
+                failing = tle;
+            }
+        }
+        Assert.assertNotNull(failing);
+        final List<TLE> list = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            list.add(tles.get(0));
+        }
+        list.add(failing);
+        final TLEBatchPropagator batch = new TLEBatchPropagator(list);
+        final AbsoluteDate[] dates = createDates(tles.get(0).getDate());
+        for (final ForkJoinPool pool : new ForkJoinPool[] { null, new ForkJoinPool(4) }) {
+            try {
+                if (pool == null) {
+                    batch.propagate(dates, new double[list.size()][3 * dates.length],
+                                    new double[list.size()][3 * dates.length]);
+                } else {
+                    batch.propagate(dates, new double[list.size()][3 * dates.length],
+                                    new double[list.size()][3 * dates.length], pool);
+                    pool.shutdown();
+                }
+                Assert.fail("an exception should have been thrown");
+            } catch (OrekitException oe) {
+                Assert.assertEquals(OrekitMessages.TOO_LARGE_ECCENTRICITY_FOR_PROPAGATION_MODEL,
+                                    oe.getSpecifier());
+            }
+        }
+    }
+
+    @Test
+    public void testDimensionMismatch() throws OrekitException {
+        final TLEBatchPropagator batch = new TLEBatchPropagator(Collections.singletonList(tles.get(0)));
+        final AbsoluteDate[] dates = createDates(tles.get(0).getDate());
+        try {
+            batch.propagate(dates, new double[2][3 * dates.length], new double[1][3 * dates.length]);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitIllegalArgumentException oiae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, oiae.getSpecifier());
+            Assert.assertEquals(2, ((Integer) oiae.getParts()[0]).intValue());
+            Assert.assertEquals(1, ((Integer) oiae.getParts()[1]).intValue());
+        }
+        try {
+            batch.propagate(dates, new double[1][3 * dates.length], new double[1][dates.length]);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitIllegalArgumentException oiae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, oiae.getSpecifier());
+            Assert.assertEquals(dates.length,     ((Integer) oiae.getParts()[0]).intValue());
+            Assert.assertEquals(3 * dates.length, ((Integer) oiae.getParts()[1]).intValue());
+        }
+    }
+
+    private void checkSameAsScalar(final TLEBatchPropagator batch, final boolean parallel)
+        throws OrekitException {
+
+        final AbsoluteDate[] dates = createDates(batch.getTLE(0).getDate());
+        final double[][] p = new double[batch.getSize()][3 * dates.length];
+        final double[][] v = new double[batch.getSize()][3 * dates.length];
+        if (parallel) {
+            final ForkJoinPool pool = new ForkJoinPool(4);
+            batch.propagate(dates, p, v, pool);
+            pool.shutdown();
+        } else {
+            batch.propagate(dates, p, v);
+        }
+
+        for (int k = 0; k < batch.getSize(); ++k) {
+            final TLEPropagator scalar = TLEPropagator.selectExtrapolator(batch.getTLE(k));
+            for (int j = 0; j < dates.length; ++j) {
+                final PVCoordinates pv = scalar.getPVCoordinates(dates[j]);
+                Assert.assertEquals(pv.getPosition().getX(), p[k][3 * j],     0.0);
+                Assert.assertEquals(pv.getPosition().getY(), p[k][3 * j + 1], 0.0);
+                Assert.assertEquals(pv.getPosition().getZ(), p[k][3 * j + 2], 0.0);
+                Assert.assertEquals(pv.getVelocity().getX(), v[k][3 * j],     0.0);
+                Assert.assertEquals(pv.getVelocity().getY(), v[k][3 * j + 1], 0.0);
+                Assert.assertEquals(pv.getVelocity().getZ(), v[k][3 * j + 2], 0.0);
+            }
+        }
+
+    }
+
+    private boolean canPropagate(final TLE tle) throws OrekitException {
+        try {
+            final TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
+            for (final AbsoluteDate date : createDates(tles.get(0).getDate())) {
+                propagator.getPVCoordinates(date);
+            }
+            return true;
+        } catch (OrekitException oe) {
+            return false;
+        }
+    }
+
+    private AbsoluteDate[] createDates(final AbsoluteDate reference) {
+        final AbsoluteDate[] dates = new AbsoluteDate[49];
+        for (int j = 0; j < dates.length; ++j) {
+            dates[j] = reference.shiftedBy(1800.0 * (j - 12));
+        }
+        return dates;
+    }
+
+    @Before
+    public void setUp() throws IOException, OrekitException {
+        Utils.setDataRoot("regular-data");
+        tles = new ArrayList<>();
+        try (BufferedReader reader =
+                        new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/tle/extrapolationTest-data/SatCode-entry"),
+                                                                 "UTF-8"))) {
+            String pending = null;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("1 ")) {
+                    pending = line;
+                } else if (line.startsWith("2 ") && pending != null) {
+                    tles.add(new TLE(pending, line));
+                    pending = null;
+                }
+            }
+        }
+    }
+
+}
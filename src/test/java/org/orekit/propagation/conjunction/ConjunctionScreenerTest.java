@@ -0,0 +1,333 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.conjunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.analytical.KeplerianPropagator;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.events.EventsLogger;
+import org.orekit.propagation.events.EventsLogger.LoggedEvent;
+import org.orekit.propagation.events.FunctionalDetector;
+import org.orekit.propagation.events.handlers.ContinueOnEvent;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+import org.orekit.utils.PVCoordinatesProvider;
+
+public class ConjunctionScreenerTest {
+
+    private static final double SCREENING_DISTANCE = 20000.0;
+
+    private List<Orbit>  orbits;
+    private AbsoluteDate start;
+    private AbsoluteDate end;
+
+    @Test
+    public void testPairwiseDetection() throws OrekitException {
+        final ConjunctionScreener screener = new ConjunctionScreener(SCREENING_DISTANCE);
+        Assert.assertEquals(SCREENING_DISTANCE, screener.getScreeningDistance(), 0.0);
+        Assert.assertEquals(60.0, screener.getMaxCheckInterval(), 0.0);
+        Assert.assertNull(screener.getFrame());
+        final List<Conjunction> conjunctions = screener.screen(ephemerides(start, end), start, end);
+        Assert.assertTrue(conjunctions.size() > 50);
+        checkOrdering(conjunctions);
+        int count = 0;
+        for (int i = 0; i < orbits.size(); ++i) {
+            for (int j = i + 1; j < orbits.size(); ++j) {
+                final List<Conjunction> selected = select(conjunctions, i, j);
+                compare(reference(orbits.get(i), orbits.get(j)), selected);
+                count += selected.size();
+            }
+        }
+        Assert.assertEquals(conjunctions.size(), count);
+        for (final Conjunction conjunction : conjunctions) {
+            Assert.assertSame(FramesFactory.getEME2000(), conjunction.getFrame());
+            Assert.assertTrue(conjunction.getMissDistance() <= SCREENING_DISTANCE);
+            Assert.assertTrue(conjunction.getRelativeSpeed() > 1000.0);
+            Assert.assertEquals(0.0,
+                                Vector3D.dotProduct(conjunction.getRelativePVCoordinates().getPosition(),
+                                                    conjunction.getRelativePVCoordinates().getVelocity()),
+                                1.0e-5 * conjunction.getRelativeSpeed() * conjunction.getRelativeSpeed());
+            Assert.assertEquals(conjunction.getDate(), conjunction.getPrimaryPVCoordinates().getDate());
+            Assert.assertEquals(conjunction.getDate(), conjunction.getSecondaryPVCoordinates().getDate());
+        }
+    }
+
+    @Test
+    public void testValidityRangeAndExecutor() throws OrekitException {
+        final ConjunctionScreener screener = new ConjunctionScreener(SCREENING_DISTANCE);
+        final List<Conjunction> reference = screener.screen(ephemerides(start, end), start, end);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            screener.setExecutor(executor);
+            Assert.assertSame(executor, screener.getExecutor());
+
+            // objects validity range ends before screening range end
+            final AbsoluteDate            stop      = end.shiftedBy(-0.25 * end.durationFrom(start));
+            final AbsoluteDate            middle    = start.shiftedBy(0.3 * end.durationFrom(start));
+            final List<BoundedPropagator> objects   = ephemerides(start, stop);
+            final List<Conjunction>       all       = screener.screen(objects, end, middle);
+            Assert.assertFalse(executor.isShutdown());
+            checkOrdering(all);
+
+            // approaches in the last grid step before validity end may be missed
+            final AbsoluteDate      limit     = stop.shiftedBy(-screener.getMaxCheckInterval());
+            final List<Conjunction> expected  = new ArrayList<>();
+            final List<Conjunction> truncated = new ArrayList<>();
+            for (final Conjunction conjunction : reference) {
+                if (conjunction.getDate().compareTo(middle) > 0 && conjunction.getDate().compareTo(limit) < 0) {
+                    expected.add(conjunction);
+                }
+            }
+            for (final Conjunction conjunction : all) {
+                Assert.assertTrue(conjunction.getDate().compareTo(middle) > 0);
+                Assert.assertTrue(conjunction.getDate().compareTo(stop) < 0);
+                if (conjunction.getDate().compareTo(limit) < 0) {
+                    truncated.add(conjunction);
+                }
+            }
+            Assert.assertTrue(expected.size() > 10);
+            Assert.assertEquals(expected.size(), truncated.size());
+            for (int k = 0; k < expected.size(); ++k) {
+                final Conjunction e = expected.get(k);
+                final Conjunction t = truncated.get(k);
+                Assert.assertEquals(e.getPrimaryIndex(),   t.getPrimaryIndex());
+                Assert.assertEquals(e.getSecondaryIndex(), t.getSecondaryIndex());
+                Assert.assertEquals(0.0, t.getDate().durationFrom(e.getDate()), 1.0e-5);
+                Assert.assertEquals(e.getMissDistance(), t.getMissDistance(), 1.0e-3);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTLE() throws OrekitException {
+        final List<TLE>        tles        = new ArrayList<>();
+        final List<Propagator> propagators = new ArrayList<>();
+        for (int i = 0; i < orbits.size(); ++i) {
+            final KeplerianOrbit orbit = (KeplerianOrbit) orbits.get(i);
+            final TLE tle = new TLE(10000 + i, 'U', 2018, 1, "A", 0, 999, orbit.getDate(),
+                                    orbit.getKeplerianMeanMotion(), 0.0, 0.0,
+                                    orbit.getE() + 0.001, orbit.getI(), orbit.getPerigeeArgument(),
+                                    orbit.getRightAscensionOfAscendingNode(), orbit.getMeanAnomaly(),
+                                    1, 0.0);
+            tles.add(tle);
+            propagators.add(TLEPropagator.selectExtrapolator(tle));
+        }
+
+        // batch sampling gives the same results as regular TLE propagators
+        final ConjunctionScreener screener = new ConjunctionScreener(SCREENING_DISTANCE);
+        final List<Conjunction> batch   = screener.screenTLEs(tles, start, end);
+        final List<Conjunction> regular = screener.screen(propagators, start, end);
+        Assert.assertTrue(batch.size() > 50);
+        Assert.assertEquals(regular.size(), batch.size());
+        for (int k = 0; k < batch.size(); ++k) {
+            Assert.assertSame(FramesFactory.getTEME(), batch.get(k).getFrame());
+            Assert.assertEquals(regular.get(k).getPrimaryIndex(),   batch.get(k).getPrimaryIndex());
+            Assert.assertEquals(regular.get(k).getSecondaryIndex(), batch.get(k).getSecondaryIndex());
+            Assert.assertEquals(0.0, batch.get(k).getDate().durationFrom(regular.get(k).getDate()), 1.0e-6);
+            Assert.assertEquals(regular.get(k).getMissDistance(), batch.get(k).getMissDistance(), 1.0e-6);
+        }
+
+        // screening frame does not change the close approaches
+        final Frame eme2000 = FramesFactory.getEME2000();
+        screener.setFrame(eme2000);
+        Assert.assertSame(eme2000, screener.getFrame());
+        final List<Conjunction> transformed = screener.screenTLEs(tles, start, end);
+        Assert.assertEquals(batch.size(), transformed.size());
+        for (int k = 0; k < batch.size(); ++k) {
+            Assert.assertSame(eme2000, transformed.get(k).getFrame());
+            Assert.assertEquals(0.0, transformed.get(k).getDate().durationFrom(batch.get(k).getDate()), 1.0e-5);
+            Assert.assertEquals(batch.get(k).getMissDistance(), transformed.get(k).getMissDistance(), 1.0e-3);
+        }
+        Assert.assertTrue(screener.getSkippedTLEs().isEmpty());
+
+    }
+
+    @Test
+    public void testSkippedTLE() throws OrekitException {
+        final List<TLE> tles = new ArrayList<>();
+        for (int i = 0; i < orbits.size(); ++i) {
+            final KeplerianOrbit orbit = (KeplerianOrbit) orbits.get(i);
+            tles.add(new TLE(10000 + i, 'U', 2018, 1, "A", 0, 999, orbit.getDate(),
+                             orbit.getKeplerianMeanMotion(), 0.0, 0.0,
+                             orbit.getE() + 0.001, orbit.getI(), orbit.getPerigeeArgument(),
+                             orbit.getRightAscensionOfAscendingNode(), orbit.getMeanAnomaly(),
+                             1, 0.0));
+        }
+        final ConjunctionScreener screener = new ConjunctionScreener(SCREENING_DISTANCE);
+        final List<Conjunction> reference = screener.screenTLEs(tles, start, end);
+
+        // an element set with an eccentricity too large for SGP4 cannot be propagated at all
+        final KeplerianOrbit leo = (KeplerianOrbit) orbits.get(0);
+        tles.add(new TLE(20000, 'U', 2018, 1, "B", 0, 999, leo.getDate(),
+                         leo.getKeplerianMeanMotion(), 0.0, 0.0,
+                         0.9999995, leo.getI(), leo.getPerigeeArgument(),
+                         leo.getRightAscensionOfAscendingNode(), leo.getMeanAnomaly(),
+                         1, 0.0));
+
+        // the bad element set is reported, and the other ones are screened as before
+        final List<Conjunction> screened = screener.screenTLEs(tles, start, end);
+        Assert.assertEquals(1, screener.getSkippedTLEs().size());
+        Assert.assertEquals(tles.size() - 1, screener.getSkippedTLEs().firstKey().intValue());
+        Assert.assertEquals(OrekitMessages.TOO_LARGE_ECCENTRICITY_FOR_PROPAGATION_MODEL,
+                            screener.getSkippedTLEs().get(tles.size() - 1).getSpecifier());
+        Assert.assertEquals(reference.size(), screened.size());
+        for (int k = 0; k < reference.size(); ++k) {
+            Assert.assertEquals(reference.get(k).getPrimaryIndex(),   screened.get(k).getPrimaryIndex());
+            Assert.assertEquals(reference.get(k).getSecondaryIndex(), screened.get(k).getSecondaryIndex());
+            Assert.assertEquals(0.0, screened.get(k).getDate().durationFrom(reference.get(k).getDate()), 1.0e-6);
+            Assert.assertEquals(reference.get(k).getMissDistance(), screened.get(k).getMissDistance(), 1.0e-6);
+        }
+
+    }
+
+    @Test
+    public void testTooFewObjects() throws OrekitException {
+        final ConjunctionScreener screener = new ConjunctionScreener(SCREENING_DISTANCE);
+        Assert.assertTrue(screener.screen(ephemerides(start, end).subList(0, 1), start, end).isEmpty());
+        Assert.assertTrue(screener.screenTLEs(new ArrayList<>(), start, end).isEmpty());
+    }
+
+    @Test
+    public void testNonInertialFrame() throws OrekitException {
+        try {
+            new ConjunctionScreener(SCREENING_DISTANCE).setFrame(FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitIllegalArgumentException oiae) {
+            Assert.assertEquals(OrekitMessages.NON_PSEUDO_INERTIAL_FRAME, oiae.getSpecifier());
+        }
+    }
+
+    private List<BoundedPropagator> ephemerides(final AbsoluteDate t0, final AbsoluteDate t1)
+        throws OrekitException {
+        final List<BoundedPropagator> ephemerides = new ArrayList<>();
+        for (final Orbit orbit : orbits) {
+            final Propagator propagator = new KeplerianPropagator(orbit);
+            propagator.setEphemerisMode();
+            propagator.propagate(t0, t1);
+            ephemerides.add(propagator.getGeneratedEphemeris());
+        }
+        return ephemerides;
+    }
+
+    private List<double[]> reference(final Orbit primary, final Orbit secondary)
+        throws OrekitException {
+        final Propagator            propagator = new KeplerianPropagator(primary);
+        final PVCoordinatesProvider other      = new KeplerianPropagator(secondary);
+        final EventsLogger          logger     = new EventsLogger();
+        propagator.addEventDetector(logger.monitorDetector(new FunctionalDetector().
+                                                           withGFunction(s -> {
+                                                               final PVCoordinates relative =
+                                                                   new PVCoordinates(s.getPVCoordinates(),
+                                                                                     other.getPVCoordinates(s.getDate(), s.getFrame()));
+                                                               return Vector3D.dotProduct(relative.getPosition(),
+                                                                                          relative.getVelocity());
+                                                           }).
+                                                           withMaxCheck(60.0).
+                                                           withHandler(new ContinueOnEvent<>())));
+        propagator.propagate(start, end);
+        final List<double[]> approaches = new ArrayList<>();
+        for (final LoggedEvent event : logger.getLoggedEvents()) {
+            if (event.isIncreasing()) {
+                final AbsoluteDate date = event.getState().getDate();
+                final double distance =
+                        Vector3D.distance(event.getState().getPVCoordinates().getPosition(),
+                                          other.getPVCoordinates(date, event.getState().getFrame()).getPosition());
+                if (distance <= SCREENING_DISTANCE) {
+                    approaches.add(new double[] { date.durationFrom(start), distance });
+                }
+            }
+        }
+        return approaches;
+    }
+
+    private List<Conjunction> select(final List<Conjunction> conjunctions,
+                                     final int primaryIndex, final int secondaryIndex) {
+        final List<Conjunction> selected = new ArrayList<>();
+        for (final Conjunction conjunction : conjunctions) {
+            if (conjunction.getPrimaryIndex() == primaryIndex && conjunction.getSecondaryIndex() == secondaryIndex) {
+                selected.add(conjunction);
+            }
+        }
+        return selected;
+    }
+
+    private void compare(final List<double[]> expected, final List<Conjunction> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); ++k) {
+            Assert.assertEquals(expected.get(k)[0], actual.get(k).getDate().durationFrom(start), 1.0e-5);
+            Assert.assertEquals(expected.get(k)[1], actual.get(k).getMissDistance(),             1.0e-3);
+        }
+    }
+
+    private void checkOrdering(final List<Conjunction> conjunctions) {
+        for (int k = 1; k < conjunctions.size(); ++k) {
+            Assert.assertTrue(conjunctions.get(k - 1).getDate().compareTo(conjunctions.get(k).getDate()) <= 0);
+        }
+        for (final Conjunction conjunction : conjunctions) {
+            Assert.assertTrue(conjunction.getPrimaryIndex() < conjunction.getSecondaryIndex());
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        final AbsoluteDate t0 = new AbsoluteDate(2018, 3, 1, 0, 0, 0.0, TimeScalesFactory.getUTC());
+        start = t0.shiftedBy(600.0);
+        end   = start.shiftedBy(Constants.JULIAN_DAY);
+
+        // objects sharing the same nodes line and nearly the same phase, so they
+        // meet near the nodes twice per orbit, plus a geostationary object
+        orbits = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            orbits.add(new KeplerianOrbit(7000000.0 + 200.0 * i, 0.0001 * i, FastMath.toRadians(98.0 - 15 * i),
+                                          0.0, 0.0, 0.0008 * i,
+                                          PositionAngle.MEAN, FramesFactory.getEME2000(), t0,
+                                          Constants.EIGEN5C_EARTH_MU));
+        }
+        orbits.add(new KeplerianOrbit(42164000.0, 0.0, 0.0, 0.0, 0.0, 0.0,
+                                      PositionAngle.MEAN, FramesFactory.getEME2000(), t0,
+                                      Constants.EIGEN5C_EARTH_MU));
+    }
+
+}
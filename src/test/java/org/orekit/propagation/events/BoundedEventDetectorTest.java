@@ -0,0 +1,114 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.events;
+
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.KeplerianPropagator;
+import org.orekit.propagation.events.handlers.EventHandler.Action;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.Constants;
+
+public class BoundedEventDetectorTest {
+
+    private Orbit        orbit;
+    private AbsoluteDate eventDate;
+    private int          gCalls;
+
+    @Test
+    public void testUnbounded() throws OrekitException {
+        final EventsLogger logger = new EventsLogger();
+        run(logger.monitorDetector(dateCrossing()));
+        Assert.assertEquals(1, logger.getLoggedEvents().size());
+        Assert.assertEquals(0.0, logger.getLoggedEvents().get(0).getState().getDate().durationFrom(eventDate), 1.0e-6);
+        Assert.assertTrue(gCalls > 1400);
+    }
+
+    @Test
+    public void testMaxRate() throws OrekitException {
+        final EventsLogger logger = new EventsLogger();
+        final BoundedEventDetector<FunctionalDetector> detector =
+                        new BoundedEventDetector<>(dateCrossing(), EventBoundingFunction.maxRate(1.0));
+        Assert.assertEquals(60.0, detector.getMaxCheckInterval(), 1.0e-15);
+        Assert.assertEquals(1.0e-9, detector.getThreshold(), 1.0e-15);
+        run(logger.monitorDetector(detector));
+        Assert.assertEquals(1, logger.getLoggedEvents().size());
+        Assert.assertEquals(0.0, logger.getLoggedEvents().get(0).getState().getDate().durationFrom(eventDate), 1.0e-6);
+        // only the step containing the event is sampled
+        Assert.assertTrue(gCalls < 350);
+    }
+
+    @Test
+    public void testWrongBoundStillDetected() throws OrekitException {
+        // a bound that is not conservative prevents sampling, but the sign
+        // change is still noticed at step end and the event located
+        final EventsLogger logger = new EventsLogger();
+        run(logger.monitorDetector(new BoundedEventDetector<>(dateCrossing(),
+                                                              (s0, g0, s1, d) -> false)));
+        Assert.assertEquals(1, logger.getLoggedEvents().size());
+        Assert.assertEquals(0.0, logger.getLoggedEvents().get(0).getState().getDate().durationFrom(eventDate), 1.0e-6);
+    }
+
+    @Test
+    public void testDelegateHandler() throws OrekitException {
+        final BoundedEventDetector<FunctionalDetector> detector =
+                        new BoundedEventDetector<>(dateCrossing().withHandler((s, d, increasing) -> Action.STOP),
+                                                   EventBoundingFunction.maxRate(1.0));
+        Assert.assertEquals(Action.STOP, detector.getRawDetector().eventOccurred(null, true));
+        final SpacecraftState last = run(detector);
+        Assert.assertEquals(0.0, last.getDate().durationFrom(eventDate), 1.0e-6);
+    }
+
+    private FunctionalDetector dateCrossing() {
+        return new FunctionalDetector().
+               withMaxCheck(60.0).
+               withThreshold(1.0e-9).
+               withGFunction(s -> {
+                   ++gCalls;
+                   return s.getDate().durationFrom(eventDate);
+               }).
+               withHandler((s, d, increasing) -> Action.CONTINUE);
+    }
+
+    private SpacecraftState run(final EventDetector detector) throws OrekitException {
+        final Propagator propagator = new KeplerianPropagator(orbit);
+        propagator.setMasterMode(600.0, (state, isLast) -> { });
+        propagator.addEventDetector(detector);
+        gCalls = 0;
+        return propagator.propagate(orbit.getDate().shiftedBy(Constants.JULIAN_DAY));
+    }
+
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("regular-data");
+        orbit = new KeplerianOrbit(7200000.0, 0.01, FastMath.toRadians(98.0), 0.0, 0.0, 0.0,
+                                   PositionAngle.TRUE, FramesFactory.getEME2000(),
+                                   AbsoluteDate.J2000_EPOCH, Constants.EIGEN5C_EARTH_MU);
+        eventDate = orbit.getDate().shiftedBy(40321.5);
+    }
+
+}
@@ -22,6 +22,7 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -415,6 +416,116 @@ public class NumericalPropagatorTest {
         }
     }
 
+    @Test
+    public void testStateView() throws OrekitException {
+
+        Utils.setDataRoot("regular-data:atmosphere:potential/grgs-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+        final SpacecraftState state = new SpacecraftState(createEllipticOrbit());
+        final AbsoluteDate    end   = state.getDate().shiftedBy(3600.0);
+
+        // reference propagation, building complete states at each stage
+        final NumericalPropagator regular = createPropagator(state, OrbitType.CARTESIAN, PositionAngle.TRUE);
+        Assert.assertFalse(regular.isUsingStateView());
+        final SpacecraftState regularEnd = regular.propagate(end);
+
+        // propagation using the state view, with both native (gravity) and fallback (drag, SRP) force models
+        final NumericalPropagator viewed = createPropagator(state, OrbitType.CARTESIAN, PositionAngle.TRUE);
+        viewed.setUseStateView(true);
+        Assert.assertTrue(viewed.isUsingStateView());
+        final SpacecraftState viewedEnd = viewed.propagate(end);
+
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(regularEnd.getPVCoordinates().getPosition(),
+                                              viewedEnd.getPVCoordinates().getPosition()),
+                            1.0e-6);
+        Assert.assertEquals(0.0,
+                            Vector3D.distance(regularEnd.getPVCoordinates().getVelocity(),
+                                              viewedEnd.getPVCoordinates().getVelocity()),
+                            1.0e-9);
+
+    }
+
+    @Test
+    public void testStateViewAdditionalStates() throws OrekitException {
+
+        final String name     = "thrust-scale";
+        final String constant = "thrust-factor";
+        final AtomicInteger viewCalls     = new AtomicInteger();
+        final AtomicInteger providerCalls = new AtomicInteger();
+        final ForceModel scaledForce = new ForceModelAdapter() {
+            private int slot;
+            private int constantSlot;
+            @Override
+            public void init(SpacecraftState initialState, AbsoluteDate target) {
+                slot = -2;
+            }
+            @Override
+            public void addContribution(SpacecraftState s, TimeDerivativesEquations adder) {
+                final double scale = s.getAdditionalStates().get(name)[0] *
+                                     s.getAdditionalStates().get(constant)[0];
+                try {
+                    adder.addNonKeplerianAcceleration(new Vector3D(scale, s.getPVCoordinates().getVelocity().normalize()));
+                } catch (OrekitException oe) {
+                    Assert.fail(oe.getLocalizedMessage());
+                }
+            }
+            @Override
+            public void addContribution(SpacecraftStateView s, TimeDerivativesEquations adder)
+                throws OrekitException {
+                viewCalls.incrementAndGet();
+                if (slot == -2) {
+                    slot         = s.getAdditionalStateSlot(name);
+                    constantSlot = s.getAdditionalStateSlot(constant);
+                    Assert.assertEquals(0, slot);
+                    Assert.assertEquals(1, constantSlot);
+                    Assert.assertEquals(-1, s.getAdditionalStateSlot("unknown"));
+                }
+                final double scale = s.getAdditionalState(slot)[0] * s.getAdditionalState(constantSlot)[0];
+                adder.addNonKeplerianAcceleration(new Vector3D(scale, s.getVelocity().normalize()));
+            }
+        };
+        final AdditionalStateProvider provider = new AdditionalStateProvider() {
+            public String getName() {
+                return name;
+            }
+            public double[] getAdditionalState(SpacecraftState s) {
+                return new double[] { 1.0e-5 * s.getDate().durationFrom(initDate) / 3600.0 };
+            }
+            public double[] getAdditionalState(SpacecraftStateView s) {
+                providerCalls.incrementAndGet();
+                return new double[] { 1.0e-5 * s.getDate().durationFrom(initDate) / 3600.0 };
+            }
+        };
+
+        final double[] finalX = new double[2];
+        for (int i = 0; i < 2; ++i) {
+            setUp();
+            propagator.setOrbitType(OrbitType.CARTESIAN);
+            propagator.setUseStateView(i == 1);
+            propagator.addForceModel(scaledForce);
+            propagator.addAdditionalStateProvider(provider);
+            propagator.setInitialState(initialState.addAdditionalState(constant, 2.0));
+            finalX[i] = propagator.propagate(initDate.shiftedBy(3600.0)).getPVCoordinates().getPosition().getX();
+        }
+        Assert.assertTrue(viewCalls.get() > 100);
+        Assert.assertEquals(viewCalls.get(), providerCalls.get());
+        Assert.assertEquals(finalX[0], finalX[1], 1.0e-7);
+
+        // state view mode is ignored for non-Cartesian orbit types
+        viewCalls.set(0);
+        setUp();
+        propagator.setOrbitType(OrbitType.EQUINOCTIAL);
+        propagator.setUseStateView(true);
+        propagator.addForceModel(scaledForce);
+        propagator.addAdditionalStateProvider(provider);
+        propagator.setInitialState(initialState.addAdditionalState(constant, 2.0));
+        final double equinoctialX = propagator.propagate(initDate.shiftedBy(3600.0)).getPVCoordinates().getPosition().getX();
+        Assert.assertEquals(0, viewCalls.get());
+        Assert.assertEquals(finalX[0], equinoctialX, 1.0e-3);
+
+    }
+
     @Test
     public void testPropagationTypesElliptical() throws OrekitException, ParseException, IOException {
      // setup
@@ -23,6 +23,9 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hamcrest.MatcherAssert;
 import org.hipparchus.geometry.euclidean.threed.RotationOrder;
@@ -81,6 +84,8 @@ import org.orekit.propagation.semianalytical.dsst.forces.DSSTSolarRadiationPress
 import org.orekit.propagation.semianalytical.dsst.forces.DSSTTesseral;
 import org.orekit.propagation.semianalytical.dsst.forces.DSSTThirdBody;
 import org.orekit.propagation.semianalytical.dsst.forces.DSSTZonal;
+import org.orekit.propagation.semianalytical.dsst.utilities.AuxiliaryElements;
+import org.orekit.propagation.semianalytical.dsst.utilities.hansen.HansenCoefficientsStore;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.DateComponents;
 import org.orekit.time.TimeComponents;
@@ -356,6 +361,53 @@ public class DSSTPropagatorTest {
                             5.e-3);
     }
 
+    @Test
+    public void testHansenStore() throws OrekitException {
+
+        final UnnormalizedSphericalHarmonicsProvider provider =
+                GravityFieldFactory.getUnnormalizedProvider(4, 4);
+        final Frame earthFrame = CelestialBodyFactory.getEarth().getBodyOrientedFrame();
+        final AbsoluteDate initDate = new AbsoluteDate(2007, 4, 16, 0, 46, 42.400,
+                                                       TimeScalesFactory.getUTC());
+        final Orbit orbit = new KeplerianOrbit(26559890., 0.0041632,
+                                               FastMath.toRadians(55.2), FastMath.toRadians(315.4985),
+                                               FastMath.toRadians(130.7562), FastMath.toRadians(44.2377),
+                                               PositionAngle.MEAN, FramesFactory.getEME2000(),
+                                               initDate, provider.getMu());
+
+        final HansenCoefficientsStore dedicated = new HansenCoefficientsStore();
+        final HansenCoefficientsStore[] stores = {
+            HansenCoefficientsStore.getDefaultStore(), dedicated, HansenCoefficientsStore.getNonCachingStore()
+        };
+        final SpacecraftState[] states = new SpacecraftState[stores.length];
+        for (int i = 0; i < stores.length; ++i) {
+            final DSSTZonal    zonal    = new DSSTZonal(provider, 4, 3, 9, stores[i]);
+            final DSSTTesseral tesseral = new DSSTTesseral(earthFrame, Constants.WGS84_EARTH_ANGULAR_VELOCITY,
+                                                           provider, 4, 4, 4, 8, 4, 4, 2, stores[i]);
+            Assert.assertSame(stores[i], zonal.getHansenStore());
+            Assert.assertSame(stores[i], tesseral.getHansenStore());
+            setDSSTProp(new SpacecraftState(orbit));
+            dsstProp.addForceModel(zonal);
+            dsstProp.addForceModel(tesseral);
+            states[i] = dsstProp.propagate(initDate.shiftedBy(86400.));
+        }
+
+        // the dedicated store holds the tables, the non-caching store remains empty
+        Assert.assertTrue(dedicated.getTablesNumber() > 0);
+        Assert.assertEquals(0, HansenCoefficientsStore.getNonCachingStore().getTablesNumber());
+        Assert.assertSame(HansenCoefficientsStore.getDefaultStore(),
+                          new DSSTZonal(provider, 4, 3, 9).getHansenStore());
+
+        // the store does not change the results
+        for (int i = 1; i < stores.length; ++i) {
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(states[0].getPVCoordinates().getPosition(),
+                                                  states[i].getPVCoordinates().getPosition()),
+                                1.0e-10);
+        }
+
+    }
+
     @Test
     public void testPropagationWithThirdBody() throws OrekitException, IOException {
 
@@ -822,6 +874,128 @@ public class DSSTPropagatorTest {
 
     }
 
+    @Test
+    public void testParallelShortPeriods() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/icgem-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new ICGEMFormatReader("^eigen-6s-truncated$", false));
+        UnnormalizedSphericalHarmonicsProvider nshp = GravityFieldFactory.getUnnormalizedProvider(4, 4);
+        Orbit orbit = new KeplerianOrbit(26559000, 0.01, FastMath.toRadians(55.0), 0, FastMath.PI, 0,
+                                         PositionAngle.MEAN, FramesFactory.getEME2000(),
+                                         new AbsoluteDate(2003, 5, 6, TimeScalesFactory.getUTC()),
+                                         nshp.getMu());
+        final SpacecraftState osculating = new SpacecraftState(orbit, 1000.0);
+        final AbsoluteDate finalDate = orbit.getDate().shiftedBy(10 * Constants.JULIAN_DAY);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final SpacecraftState sequential = buildMEOPropagator(nshp, osculating, null).propagate(finalDate);
+            final DSSTPropagator propagator = buildMEOPropagator(nshp, osculating, executor);
+            Assert.assertSame(executor, propagator.getShortPeriodsExecutor());
+            final SpacecraftState parallel = propagator.propagate(finalDate);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(sequential.getPVCoordinates().getPosition(),
+                                                  parallel.getPVCoordinates().getPosition()),
+                                1.0e-10);
+
+            final List<DSSTForceModel> forces = createMEOForces(nshp);
+            final SpacecraftState meanSequential = DSSTPropagator.computeMeanState(osculating, null, forces);
+            final SpacecraftState meanParallel   = DSSTPropagator.computeMeanState(osculating, null, forces, executor);
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(meanSequential.getPVCoordinates().getPosition(),
+                                                  meanParallel.getPVCoordinates().getPosition()),
+                                1.0e-10);
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    private DSSTPropagator buildMEOPropagator(final UnnormalizedSphericalHarmonicsProvider nshp,
+                                              final SpacecraftState osculating,
+                                              final ExecutorService executor)
+        throws OrekitException {
+        final double[][] tolerance = DSSTPropagator.tolerances(1.0, osculating.getOrbit());
+        final double period = osculating.getKeplerianPeriod();
+        final AdaptiveStepsizeIntegrator integrator =
+                new DormandPrince853Integrator(period / 100, period * 100, tolerance[0], tolerance[1]);
+        final DSSTPropagator propagator = new DSSTPropagator(integrator, false);
+        for (final DSSTForceModel force : createMEOForces(nshp)) {
+            propagator.addForceModel(force);
+        }
+        propagator.setShortPeriodsExecutor(executor);
+        propagator.setInitialState(osculating, true);
+        return propagator;
+    }
+
+    private List<DSSTForceModel> createMEOForces(final UnnormalizedSphericalHarmonicsProvider nshp)
+        throws OrekitException {
+        final List<DSSTForceModel> forces = new ArrayList<DSSTForceModel>();
+        forces.add(new DSSTZonal(nshp, 4, 3, 9));
+        forces.add(new DSSTTesseral(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                                    Constants.WGS84_EARTH_ANGULAR_VELOCITY,
+                                    nshp, 4, 4, 4, 8, 4, 4, 2));
+        forces.add(new DSSTThirdBody(CelestialBodyFactory.getSun()));
+        forces.add(new DSSTThirdBody(CelestialBodyFactory.getMoon()));
+        forces.add(new DSSTSolarRadiationPressure(1.2, 100., CelestialBodyFactory.getSun(),
+                                                  Constants.WGS84_EARTH_EQUATORIAL_RADIUS));
+        return forces;
+    }
+
+    @Test
+    public void testSplitShortPeriods() throws OrekitException {
+        Utils.setDataRoot("regular-data:potential/icgem-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new ICGEMFormatReader("^eigen-6s-truncated$", false));
+        UnnormalizedSphericalHarmonicsProvider nshp = GravityFieldFactory.getUnnormalizedProvider(4, 4);
+        Orbit orbit = new KeplerianOrbit(26559000, 0.01, FastMath.toRadians(55.0), 0, FastMath.PI, 0,
+                                         PositionAngle.MEAN, FramesFactory.getEME2000(),
+                                         new AbsoluteDate(2003, 5, 6, TimeScalesFactory.getUTC()),
+                                         nshp.getMu());
+        final SpacecraftState[] grid = new SpacecraftState[5];
+        for (int i = 0; i < grid.length; ++i) {
+            grid[i] = new SpacecraftState(orbit.shiftedBy(600.0 * i), 1000.0);
+        }
+        final AuxiliaryElements aux = new AuxiliaryElements(orbit, 1);
+
+        // analytical models are not split
+        final DSSTForceModel zonal = new DSSTZonal(nshp, 4, 3, 9);
+        zonal.initialize(aux, false);
+        Assert.assertEquals(1, zonal.splitShortPeriodTermsUpdate(4, grid).size());
+
+        // Gaussian contributions are split over the grid points
+        final DSSTForceModel srp = new DSSTSolarRadiationPressure(1.2, 100., CelestialBodyFactory.getSun(),
+                                                                  Constants.WGS84_EARTH_EQUATORIAL_RADIUS);
+        srp.initialize(aux, false);
+        Assert.assertEquals(4, srp.splitShortPeriodTermsUpdate(4, grid).size());
+        Assert.assertEquals(5, srp.splitShortPeriodTermsUpdate(8, grid).size());
+    }
+
+    @Test
+    public void testShortPeriodsFromPoolWorker() throws Exception {
+        Utils.setDataRoot("regular-data:potential/icgem-format");
+        GravityFieldFactory.addPotentialCoefficientsReader(new ICGEMFormatReader("^eigen-6s-truncated$", false));
+        UnnormalizedSphericalHarmonicsProvider nshp = GravityFieldFactory.getUnnormalizedProvider(4, 4);
+        Orbit orbit = new KeplerianOrbit(26559000, 0.01, FastMath.toRadians(55.0), 0, FastMath.PI, 0,
+                                         PositionAngle.MEAN, FramesFactory.getEME2000(),
+                                         new AbsoluteDate(2003, 5, 6, TimeScalesFactory.getUTC()),
+                                         nshp.getMu());
+        final SpacecraftState osculating = new SpacecraftState(orbit, 1000.0);
+        final AbsoluteDate finalDate = orbit.getDate().shiftedBy(2 * Constants.JULIAN_DAY);
+
+        // the propagation runs in the pool used for short periods, with a single thread
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final SpacecraftState sequential = buildMEOPropagator(nshp, osculating, null).propagate(finalDate);
+            final DSSTPropagator propagator = buildMEOPropagator(nshp, osculating, pool);
+            final SpacecraftState parallel = pool.submit(() -> propagator.propagate(finalDate)).get();
+            Assert.assertEquals(0.0,
+                                Vector3D.distance(sequential.getPVCoordinates().getPosition(),
+                                                  parallel.getPVCoordinates().getPosition()),
+                                1.0e-10);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     @Test
     public void testIssueMeanInclination() throws OrekitException {
 
@@ -16,6 +16,14 @@
  */
 package org.orekit.propagation.semianalytical.dsst.utilities;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -65,6 +73,47 @@ public class NewcombOperatorTest {
         Assert.assertEquals(value, 90061805802.16286, 0.1);
     }
 
+    @Test
+    public void concurrentTest() throws InterruptedException, ExecutionException {
+
+        // evaluate operators from many threads at once, in different orders
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<double[][]>> tasks = new ArrayList<>();
+            for (int k = 0; k < 16; ++k) {
+                final int shift = k;
+                tasks.add(() -> {
+                    final double[][] values = new double[13][13];
+                    for (int i = 0; i < 169; ++i) {
+                        final int index = (i + 11 * shift) % 169;
+                        values[index / 13][index % 13] = NewcombOperators.getValue(index / 13, index % 13, -17, 14);
+                    }
+                    return values;
+                });
+            }
+            double[][] reference = null;
+            for (final Future<double[][]> future : executor.invokeAll(tasks)) {
+                final double[][] values = future.get();
+                if (reference == null) {
+                    reference = values;
+                    Assert.assertEquals(90061805802.16286, reference[12][12], 0.1);
+                }
+                for (int rho = 0; rho < 13; ++rho) {
+                    for (int sigma = 0; sigma < 13; ++sigma) {
+                        Assert.assertEquals(reference[rho][sigma], values[rho][sigma], 0.0);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // eager generation does not change anything
+        NewcombOperators.precompute(14, 14);
+        Assert.assertEquals(90061805802.16286, NewcombOperators.getValue(12, 12, -17, 14), 0.1);
+
+    }
+
     @Before
     public void setUp() {
         Utils.clearFactories();
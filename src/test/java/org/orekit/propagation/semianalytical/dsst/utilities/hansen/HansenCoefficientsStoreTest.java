@@ -0,0 +1,198 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.semianalytical.dsst.utilities.hansen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitMessages;
+
+public class HansenCoefficientsStoreTest {
+
+    private static final int N_MAX = 12;
+
+    private static final int MAX_HANSEN = 4;
+
+    @Test
+    public void testSharedZonal() {
+        final HansenCoefficientsStore store = new HansenCoefficientsStore();
+        fillStore(store);
+        Assert.assertEquals(6 + 11 * 4, store.getTablesNumber());
+        for (double e = 0.0; e < 0.5; e += 0.1) {
+            final double chi = 1.0 / FastMath.sqrt(1 - e * e);
+            for (int s = 0; s <= 5; ++s) {
+                final HansenZonalLinear reference = new HansenZonalLinear(N_MAX, s);
+                final HansenZonalLinear shared    = store.getZonal(N_MAX, s);
+                Assert.assertSame(store.getZonal(N_MAX, s).getPolynomials(), shared.getPolynomials());
+                reference.computeInitValues(chi);
+                shared.computeInitValues(chi);
+                for (int n = s + 2; n <= N_MAX; ++n) {
+                    Assert.assertEquals(reference.getValue(-n - 1, chi),      shared.getValue(-n - 1, chi),      0.0);
+                    Assert.assertEquals(reference.getDerivative(-n - 1, chi), shared.getDerivative(-n - 1, chi), 0.0);
+                }
+            }
+        }
+
+        // tables are not regenerated
+        Assert.assertEquals(6 + 11 * 4, store.getTablesNumber());
+
+    }
+
+    @Test
+    public void testSharedTesseral() {
+        final HansenCoefficientsStore store = new HansenCoefficientsStore();
+        for (double e = 0.0; e < 0.5; e += 0.1) {
+            final double e2   = e * e;
+            final double chi  = 1.0 / FastMath.sqrt(1 - e2);
+            final double chi2 = chi * chi;
+            for (int s = -5; s <= 5; ++s) {
+                for (int j = 0; j <= 3; ++j) {
+                    final int n0 = FastMath.max(2, FastMath.abs(s));
+                    final HansenTesseralLinear reference = new HansenTesseralLinear(N_MAX, s, j, n0, MAX_HANSEN);
+                    final HansenTesseralLinear shared    = store.getTesseral(N_MAX, s, j, n0, MAX_HANSEN);
+                    reference.computeInitValues(e2, chi, chi2);
+                    shared.computeInitValues(e2, chi, chi2);
+                    for (int n = n0; n <= N_MAX; ++n) {
+                        Assert.assertEquals(reference.getValue(-n - 1, chi),      shared.getValue(-n - 1, chi),      0.0);
+                        Assert.assertEquals(reference.getDerivative(-n - 1, chi), shared.getDerivative(-n - 1, chi), 0.0);
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(11 * 4, store.getTablesNumber());
+        store.clear();
+        Assert.assertEquals(0, store.getTablesNumber());
+    }
+
+    @Test
+    public void testNonCachingStore() throws OrekitException {
+        final HansenCoefficientsStore store = HansenCoefficientsStore.getNonCachingStore();
+        Assert.assertFalse(store.isCaching());
+        Assert.assertTrue(HansenCoefficientsStore.getDefaultStore().isCaching());
+        Assert.assertNotSame(store.getZonal(N_MAX, 2).getPolynomials(), store.getZonal(N_MAX, 2).getPolynomials());
+
+        final double e2   = 0.04;
+        final double chi  = 1.0 / FastMath.sqrt(1 - e2);
+        final double chi2 = chi * chi;
+        final HansenTesseralLinear reference = new HansenTesseralLinear(N_MAX, 3, 2, 3, MAX_HANSEN);
+        final HansenTesseralLinear generated = store.getTesseral(N_MAX, 3, 2, 3, MAX_HANSEN);
+        reference.computeInitValues(e2, chi, chi2);
+        generated.computeInitValues(e2, chi, chi2);
+        for (int n = 3; n <= N_MAX; ++n) {
+            Assert.assertEquals(reference.getValue(-n - 1, chi),      generated.getValue(-n - 1, chi),      0.0);
+            Assert.assertEquals(reference.getDerivative(-n - 1, chi), generated.getDerivative(-n - 1, chi), 0.0);
+        }
+        Assert.assertEquals(0, store.getTablesNumber());
+
+        // loaded tables are ignored
+        final HansenCoefficientsStore filled = new HansenCoefficientsStore();
+        fillStore(filled);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filled.write(out);
+        store.load(new ByteArrayInputStream(out.toByteArray()), "memory");
+        Assert.assertEquals(0, store.getTablesNumber());
+
+    }
+
+    @Test
+    public void testWriteLoad() throws OrekitException {
+
+        final HansenCoefficientsStore original = new HansenCoefficientsStore();
+        fillStore(original);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        original.write(out);
+
+        final HansenCoefficientsStore loaded = new HansenCoefficientsStore();
+        loaded.load(new ByteArrayInputStream(out.toByteArray()), "memory");
+        Assert.assertEquals(original.getTablesNumber(), loaded.getTablesNumber());
+
+        final double e    = 0.25;
+        final double e2   = e * e;
+        final double chi  = 1.0 / FastMath.sqrt(1 - e2);
+        final double chi2 = chi * chi;
+        for (int s = 0; s <= 5; ++s) {
+            final HansenZonalLinear o = original.getZonal(N_MAX, s);
+            final HansenZonalLinear l = loaded.getZonal(N_MAX, s);
+            o.computeInitValues(chi);
+            l.computeInitValues(chi);
+            for (int n = s + 2; n <= N_MAX; ++n) {
+                Assert.assertEquals(o.getValue(-n - 1, chi),      l.getValue(-n - 1, chi),      0.0);
+                Assert.assertEquals(o.getDerivative(-n - 1, chi), l.getDerivative(-n - 1, chi), 0.0);
+            }
+        }
+        for (int s = -5; s <= 5; ++s) {
+            for (int j = 0; j <= 3; ++j) {
+                final int n0 = FastMath.max(2, FastMath.abs(s));
+                final HansenTesseralLinear o = original.getTesseral(N_MAX, s, j, n0, MAX_HANSEN);
+                final HansenTesseralLinear l = loaded.getTesseral(N_MAX, s, j, n0, MAX_HANSEN);
+                o.computeInitValues(e2, chi, chi2);
+                l.computeInitValues(e2, chi, chi2);
+                for (int n = n0; n <= N_MAX; ++n) {
+                    Assert.assertEquals(o.getValue(-n - 1, chi),      l.getValue(-n - 1, chi),      0.0);
+                    Assert.assertEquals(o.getDerivative(-n - 1, chi), l.getDerivative(-n - 1, chi), 0.0);
+                }
+            }
+        }
+
+        // nothing was generated after loading
+        Assert.assertEquals(original.getTablesNumber(), loaded.getTablesNumber());
+
+    }
+
+    @Test
+    public void testTruncatedStream() throws OrekitException {
+        final HansenCoefficientsStore store = new HansenCoefficientsStore();
+        fillStore(store);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.write(out);
+        final HansenCoefficientsStore loaded = new HansenCoefficientsStore();
+        try {
+            loaded.load(new ByteArrayInputStream(out.toByteArray(), 0, out.size() - 1), "memory");
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNEXPECTED_END_OF_FILE, oe.getSpecifier());
+        }
+        // partial content is not kept
+        Assert.assertEquals(0, loaded.getTablesNumber());
+    }
+
+    @Test
+    public void testWrongFormat() {
+        try {
+            new HansenCoefficientsStore().load(new ByteArrayInputStream(new byte[16]), "memory");
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitException oe) {
+            Assert.assertEquals(OrekitMessages.UNSUPPORTED_FILE_FORMAT, oe.getSpecifier());
+        }
+    }
+
+    private void fillStore(final HansenCoefficientsStore store) {
+        for (int s = 0; s <= 5; ++s) {
+            store.getZonal(N_MAX, s);
+        }
+        for (int s = -5; s <= 5; ++s) {
+            for (int j = 0; j <= 3; ++j) {
+                store.getTesseral(N_MAX, s, j, FastMath.max(2, FastMath.abs(s)), MAX_HANSEN);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+/* Copyright 2002-2018 CS Systèmes d'Information
+ * Licensed to CS Systèmes d'Information (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.propagation.visibility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.Utils;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.errors.OrekitIllegalArgumentException;
+import org.orekit.errors.OrekitMessages;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.orbits.Orbit;
+import org.orekit.orbits.PositionAngle;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.KeplerianPropagator;
+import org.orekit.propagation.events.ElevationDetector;
+import org.orekit.propagation.events.EventsLogger;
+import org.orekit.propagation.events.EventsLogger.LoggedEvent;
+import org.orekit.propagation.events.handlers.ContinueOnEvent;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.ElevationMask;
+import org.orekit.utils.IERSConventions;
+
+public class VisibilityEngineTest {
+
+    private OneAxisEllipsoid       earth;
+    private List<TopocentricFrame> stations;
+    private List<Orbit>            orbits;
+    private AbsoluteDate           start;
+    private AbsoluteDate           end;
+
+    @Test
+    public void testConstantElevation() throws OrekitException {
+        final double minElevation = FastMath.toRadians(5.0);
+        final VisibilityEngine engine = new VisibilityEngine();
+        for (final TopocentricFrame topo : stations) {
+            engine.addStation(topo, minElevation);
+        }
+        Assert.assertEquals(stations, engine.getStations());
+        final List<AccessInterval> accesses = engine.computeAccesses(ephemerides(start, end), start, end);
+        Assert.assertTrue(accesses.size() > 20);
+        checkOrdering(accesses);
+        for (int i = 0; i < orbits.size(); ++i) {
+            for (int j = 0; j < stations.size(); ++j) {
+                final ElevationDetector detector =
+                                new ElevationDetector(60.0, 1.0e-6, stations.get(j)).
+                                withConstantElevation(minElevation);
+                compare(reference(orbits.get(i), detector), select(accesses, i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testMask() throws OrekitException {
+        final ElevationMask mask = new ElevationMask(new double[][] {
+            { FastMath.toRadians(  0.0), FastMath.toRadians(12.0) },
+            { FastMath.toRadians( 90.0), FastMath.toRadians( 2.0) },
+            { FastMath.toRadians(180.0), FastMath.toRadians(20.0) },
+            { FastMath.toRadians(270.0), FastMath.toRadians( 5.0) }
+        });
+        Assert.assertEquals(FastMath.toRadians(2.0), mask.getMinElevation(), 1.0e-15);
+        final VisibilityEngine engine = new VisibilityEngine(30.0, 1.0e-6, 100);
+        for (final TopocentricFrame topo : stations) {
+            engine.addStation(topo, mask);
+        }
+        final List<AccessInterval> accesses = engine.computeAccesses(ephemerides(start, end), start, end);
+        for (int i = 0; i < orbits.size(); ++i) {
+            for (int j = 0; j < stations.size(); ++j) {
+                final ElevationDetector detector =
+                                new ElevationDetector(30.0, 1.0e-6, stations.get(j)).
+                                withElevationMask(mask);
+                compare(reference(orbits.get(i), detector), select(accesses, i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testMaxRange() throws OrekitException {
+        final double minElevation = FastMath.toRadians(5.0);
+        final double maxRange     = 1500.0e3;
+        final VisibilityEngine unlimited = new VisibilityEngine();
+        final VisibilityEngine limited   = new VisibilityEngine();
+        limited.setMaxRange(maxRange);
+        Assert.assertTrue(Double.isInfinite(unlimited.getMaxRange()));
+        Assert.assertEquals(maxRange, limited.getMaxRange(), 0.0);
+        for (final TopocentricFrame topo : stations) {
+            unlimited.addStation(topo, minElevation);
+            limited.addStation(topo, minElevation);
+        }
+        final List<BoundedPropagator> satellites = ephemerides(start, end);
+        final List<AccessInterval> all   = unlimited.computeAccesses(satellites, start, end);
+        final List<AccessInterval> close = limited.computeAccesses(satellites, start, end);
+        Assert.assertTrue(close.size() > 0);
+        double shortening = 0;
+        for (final AccessInterval access : close) {
+
+            // each limited access is included in an unlimited one
+            boolean included = false;
+            for (final AccessInterval candidate : all) {
+                if (candidate.getStation() == access.getStation() &&
+                    candidate.getSatelliteIndex() == access.getSatelliteIndex() &&
+                    candidate.getStart().durationFrom(access.getStart()) <= 1.0e-6 &&
+                    access.getEnd().durationFrom(candidate.getEnd()) <= 1.0e-6) {
+                    included = true;
+                    shortening += candidate.getDuration() - access.getDuration();
+                }
+            }
+            Assert.assertTrue(included);
+
+            // boundaries are either at min elevation or at max range
+            for (final AbsoluteDate date : new AbsoluteDate[] { access.getStart(), access.getEnd() }) {
+                final SpacecraftState state = access.getSatellite().propagate(date);
+                final double elevation = access.getStation().getElevation(state.getPVCoordinates().getPosition(),
+                                                                          state.getFrame(), date);
+                final double range     = access.getStation().getRange(state.getPVCoordinates().getPosition(),
+                                                                      state.getFrame(), date);
+                Assert.assertTrue(FastMath.abs(elevation - minElevation) < 1.0e-7 ||
+                                  FastMath.abs(range - maxRange) < 1.0e-2);
+            }
+
+        }
+        Assert.assertTrue(shortening > 100.0);
+    }
+
+    @Test
+    public void testTruncationAndExecutor() throws OrekitException {
+        final double minElevation = FastMath.toRadians(5.0);
+        final VisibilityEngine engine = new VisibilityEngine();
+        for (final TopocentricFrame topo : stations) {
+            engine.addStation(topo, minElevation);
+        }
+        final List<AccessInterval> reference = engine.computeAccesses(ephemerides(start, end), start, end);
+
+        // start the computation in the middle of the first access
+        final AccessInterval firstAccess = reference.get(0);
+        final AbsoluteDate   middle      = firstAccess.getStart().shiftedBy(0.5 * firstAccess.getDuration());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            engine.setExecutor(executor);
+            Assert.assertSame(executor, engine.getExecutor());
+
+            // satellites validity range ends before computation range end
+            final AbsoluteDate             stop       = end.shiftedBy(-0.25 * end.durationFrom(start));
+            final List<BoundedPropagator>  satellites = ephemerides(start, stop);
+            final List<AccessInterval>     truncated  = engine.computeAccesses(satellites, end, middle);
+            Assert.assertFalse(executor.isShutdown());
+            checkOrdering(truncated);
+
+            final List<AccessInterval> expected = new ArrayList<>();
+            for (final AccessInterval access : reference) {
+                if (access.getEnd().compareTo(middle) > 0 && access.getStart().compareTo(stop) < 0) {
+                    expected.add(access);
+                }
+            }
+            Assert.assertEquals(expected.size(), truncated.size());
+            for (int k = 0; k < expected.size(); ++k) {
+                final AccessInterval e = expected.get(k);
+                final AccessInterval t = truncated.get(k);
+                Assert.assertSame(e.getStation(), t.getStation());
+                Assert.assertEquals(e.getSatelliteIndex(), t.getSatelliteIndex());
+                Assert.assertSame(satellites.get(t.getSatelliteIndex()), t.getSatellite());
+                final AbsoluteDate expectedStart = e.getStart().compareTo(middle) < 0 ? middle : e.getStart();
+                final AbsoluteDate expectedEnd   = e.getEnd().compareTo(stop) > 0 ? stop : e.getEnd();
+                Assert.assertEquals(0.0, t.getStart().durationFrom(expectedStart), 1.0e-5);
+                Assert.assertEquals(0.0, t.getEnd().durationFrom(expectedEnd), 1.0e-5);
+            }
+            Assert.assertEquals(middle, truncated.get(0).getStart());
+            Assert.assertEquals(middle, truncated.get(0).getDate());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoStations() throws OrekitException {
+        Assert.assertTrue(new VisibilityEngine().computeAccesses(ephemerides(start, end), start, end).isEmpty());
+    }
+
+    @Test
+    public void testFramesMismatch() throws OrekitException {
+        final VisibilityEngine engine = new VisibilityEngine();
+        engine.addStation(stations.get(0), 0.0);
+        final OneAxisEllipsoid other = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                                            Constants.WGS84_EARTH_FLATTENING,
+                                                            FramesFactory.getGTOD(true));
+        try {
+            engine.addStation(new TopocentricFrame(other, new GeodeticPoint(0.0, 0.0, 0.0), "other"), 0.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (OrekitIllegalArgumentException oiae) {
+            Assert.assertEquals(OrekitMessages.FRAMES_MISMATCH, oiae.getSpecifier());
+        }
+    }
+
+    private List<BoundedPropagator> ephemerides(final AbsoluteDate t0, final AbsoluteDate t1)
+        throws OrekitException {
+        final List<BoundedPropagator> ephemerides = new ArrayList<>();
+        for (final Orbit orbit : orbits) {
+            final Propagator propagator = new KeplerianPropagator(orbit);
+            propagator.setEphemerisMode();
+            propagator.propagate(t0, t1);
+            ephemerides.add(propagator.getGeneratedEphemeris());
+        }
+        return ephemerides;
+    }
+
+    private List<double[]> reference(final Orbit orbit, final ElevationDetector detector)
+        throws OrekitException {
+        final Propagator propagator = new KeplerianPropagator(orbit);
+        final EventsLogger logger = new EventsLogger();
+        propagator.addEventDetector(logger.monitorDetector(detector.withHandler(new ContinueOnEvent<>())));
+        double opening = detector.g(propagator.getInitialState()) > 0 ? 0.0 : Double.NaN;
+        propagator.propagate(start, end);
+        final List<double[]> intervals = new ArrayList<>();
+        for (final LoggedEvent event : logger.getLoggedEvents()) {
+            final double dt = event.getState().getDate().durationFrom(start);
+            if (event.isIncreasing()) {
+                opening = dt;
+            } else {
+                intervals.add(new double[] { opening, dt });
+                opening = Double.NaN;
+            }
+        }
+        if (!Double.isNaN(opening)) {
+            intervals.add(new double[] { opening, end.durationFrom(start) });
+        }
+        return intervals;
+    }
+
+    private List<AccessInterval> select(final List<AccessInterval> accesses,
+                                        final int satelliteIndex, final int stationIndex) {
+        final List<AccessInterval> selected = new ArrayList<>();
+        for (final AccessInterval access : accesses) {
+            if (access.getSatelliteIndex() == satelliteIndex && access.getStationIndex() == stationIndex) {
+                Assert.assertSame(stations.get(stationIndex), access.getStation());
+                selected.add(access);
+            }
+        }
+        return selected;
+    }
+
+    private void compare(final List<double[]> expected, final List<AccessInterval> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); ++k) {
+            Assert.assertEquals(expected.get(k)[0], actual.get(k).getStart().durationFrom(start), 1.0e-5);
+            Assert.assertEquals(expected.get(k)[1], actual.get(k).getEnd().durationFrom(start),   1.0e-5);
+        }
+    }
+
+    private void checkOrdering(final List<AccessInterval> accesses) {
+        for (int k = 1; k < accesses.size(); ++k) {
+            final AccessInterval previous = accesses.get(k - 1);
+            final AccessInterval current  = accesses.get(k);
+            Assert.assertTrue(previous.getSatelliteIndex() <= current.getSatelliteIndex());
+            if (previous.getSatelliteIndex() == current.getSatelliteIndex()) {
+                Assert.assertTrue(previous.getStart().compareTo(current.getStart()) <= 0);
+            }
+        }
+    }
+
+    @Before
+    public void setUp() throws OrekitException {
+        Utils.setDataRoot("regular-data");
+        earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                     Constants.WGS84_EARTH_FLATTENING,
+                                     FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        stations = new ArrayList<>();
+        stations.add(new TopocentricFrame(earth,
+                                          new GeodeticPoint(FastMath.toRadians(43.6), FastMath.toRadians(1.44), 150.0),
+                                          "Toulouse"));
+        stations.add(new TopocentricFrame(earth,
+                                          new GeodeticPoint(FastMath.toRadians(67.86), FastMath.toRadians(20.96), 400.0),
+                                          "Kiruna"));
+        stations.add(new TopocentricFrame(earth,
+                                          new GeodeticPoint(FastMath.toRadians(-25.89), FastMath.toRadians(27.69), 1500.0),
+                                          "Hartebeesthoek"));
+        start = new AbsoluteDate(2018, 3, 1, 0, 0, 0.0, TimeScalesFactory.getUTC());
+        end   = start.shiftedBy(Constants.JULIAN_DAY);
+        orbits = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            orbits.add(new KeplerianOrbit(7000000.0 + 100000.0 * i, 0.001 * i, FastMath.toRadians(98.0 - 15 * i),
+                                          0.0, FastMath.toRadians(45.0 * i), FastMath.toRadians(30.0 * i),
+                                          PositionAngle.MEAN, FramesFactory.getEME2000(), start,
+                                          Constants.EIGEN5C_EARTH_MU));
+        }
+    }
+
+}
@@ -1064,6 +1064,44 @@ public class IERSConventionsTest {
                                        0.8 * Constants.JULIAN_DAY, 600.0, 10.0, 2.0e-19, 3.0e-21);
     }
 
+    @Test
+    public void testXYSpXY2Function2010Truncated() throws OrekitException {
+        final double microAS = Constants.ARC_SECONDS_TO_RADIANS * 1.0e-6;
+        TimeVectorFunction full      = IERSConventions.IERS_2010.getXYSpXY2Function();
+        TimeVectorFunction truncated = IERSConventions.IERS_2010.getXYSpXY2Function(1.0 * microAS);
+        double maxError = 0;
+        for (double dt = -20 * Constants.JULIAN_YEAR; dt < 20 * Constants.JULIAN_YEAR; dt += 7.3 * Constants.JULIAN_DAY) {
+            AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(dt);
+            double[] f = full.value(date);
+            double[] t = truncated.value(date);
+            for (int i = 0; i < 3; ++i) {
+                maxError = FastMath.max(maxError, FastMath.abs(f[i] - t[i]));
+            }
+        }
+        Assert.assertTrue(maxError >  1.0 * microAS);
+        Assert.assertTrue(maxError < 35.0 * microAS);
+    }
+
+    @Test
+    public void testNutationFunction2010Truncated() throws OrekitException {
+        final double microAS = Constants.ARC_SECONDS_TO_RADIANS * 1.0e-6;
+        TimeVectorFunction full      = IERSConventions.IERS_2010.getNutationFunction();
+        TimeVectorFunction truncated = IERSConventions.IERS_2010.getNutationFunction(1.0 * microAS);
+        double maxError = 0;
+        for (double dt = -20 * Constants.JULIAN_YEAR; dt < 20 * Constants.JULIAN_YEAR; dt += 7.3 * Constants.JULIAN_DAY) {
+            AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(dt);
+            double[] f = full.value(date);
+            double[] t = truncated.value(date);
+            for (int i = 0; i < 2; ++i) {
+                maxError = FastMath.max(maxError, FastMath.abs(f[i] - t[i]));
+            }
+            // the equation of equinoxes correction is not truncated
+            Assert.assertEquals(f[2], t[2], 0.0);
+        }
+        Assert.assertTrue(maxError >   0.1 * microAS);
+        Assert.assertTrue(maxError < 100.0 * microAS);
+    }
+
     @Test
     public void testMeanObliquityFunction1996FieldConsistency() throws OrekitException {
         checkScalarFunctionConsistency(IERSConventions.IERS_1996.getMeanObliquityFunction(),